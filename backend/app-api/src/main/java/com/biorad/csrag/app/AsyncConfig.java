@@ -1,5 +1,7 @@
 package com.biorad.csrag.app;
 
+import com.biorad.csrag.infrastructure.openai.PipelineTraceTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
@@ -16,13 +18,14 @@ public class AsyncConfig {
     /**
      * KB 인덱싱용 Virtual Thread Executor.
      * t4g.small (2 vCPU, 2GB RAM) 환경에서 동시 OpenAI API 호출 제한.
-     * concurrencyLimit=4: 임베딩/인리치먼트 동시 처리 상한.
+     * concurrencyLimit: 임베딩/인리치먼트 동시 처리 상한 (기본 4). 인덱싱 큐는 이 범위 안에서 동시성을 조절한다.
      */
     @Bean(name = "kbIndexingExecutor")
-    public Executor kbIndexingExecutor() {
+    public Executor kbIndexingExecutor(@Value("${rag.indexing-queue.max-concurrency:4}") int maxConcurrency) {
         SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kb-indexing-");
         executor.setVirtualThreads(true);
-        executor.setConcurrencyLimit(4);
+        executor.setConcurrencyLimit(Math.max(1, maxConcurrency));
+        executor.setTaskDecorator(new PipelineTraceTaskDecorator());
         return executor;
     }
 
@@ -35,6 +38,7 @@ public class AsyncConfig {
         SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("doc-indexing-");
         executor.setVirtualThreads(true);
         executor.setConcurrencyLimit(4);
+        executor.setTaskDecorator(new PipelineTraceTaskDecorator());
         return executor;
     }
 }
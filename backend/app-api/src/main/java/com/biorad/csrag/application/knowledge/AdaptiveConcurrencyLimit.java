@@ -0,0 +1,68 @@
+package com.biorad.csrag.application.knowledge;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * OpenAI 429 신호로 조절하는 인덱싱 동시 실행 상한 (AIMD).
+ *
+ * <p>throttle 신호를 받으면 상한을 절반으로 줄이고, 마지막 변경 이후 {@code increaseInterval} 동안 throttle 없이
+ * 작업이 완료되면 1씩 늘린다. 429는 보통 여러 요청에서 한꺼번에 관측되므로, 줄인 직후 같은 구간의 신호는 한 번으로 취급한다.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final int min;
+    private final int max;
+    private final Duration increaseInterval;
+
+    private int limit;
+    private Instant lastChangeAt;
+    private Instant lastThrottleAt;
+    private Instant lastDecreaseAt;
+    private long decreases;
+
+    AdaptiveConcurrencyLimit(int min, int max, Duration increaseInterval, Instant now) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.increaseInterval = increaseInterval;
+        this.limit = this.max;
+        this.lastChangeAt = now;
+    }
+
+    synchronized int limit() {
+        return limit;
+    }
+
+    synchronized long decreases() {
+        return decreases;
+    }
+
+    synchronized Instant lastThrottleAt() {
+        return lastThrottleAt;
+    }
+
+    /** 429 또는 속도 제한 대기 초과를 관측했다. 줄인 뒤 {@code increaseInterval}의 절반 동안은 다시 줄이지 않는다. */
+    synchronized void onThrottle(Instant now) {
+        boolean coolingDown = lastDecreaseAt != null
+                && Duration.between(lastDecreaseAt, now).compareTo(increaseInterval.dividedBy(2)) < 0;
+        lastThrottleAt = now;
+        if (limit > min && !coolingDown) {
+            limit = Math.max(min, limit / 2);
+            lastChangeAt = now;
+            lastDecreaseAt = now;
+            decreases++;
+        }
+    }
+
+    /** 작업이 throttle 없이 완료되었다. */
+    synchronized void onSuccess(Instant now) {
+        if (limit >= max) {
+            return;
+        }
+        boolean quiet = lastThrottleAt == null || Duration.between(lastThrottleAt, now).compareTo(increaseInterval) >= 0;
+        if (quiet && Duration.between(lastChangeAt, now).compareTo(increaseInterval) >= 0) {
+            limit++;
+            lastChangeAt = now;
+        }
+    }
+}
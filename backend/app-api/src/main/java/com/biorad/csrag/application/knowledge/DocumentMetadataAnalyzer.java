@@ -1,5 +1,7 @@
 package com.biorad.csrag.application.knowledge;
 
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
 import com.biorad.csrag.interfaces.rest.document.DocumentTextExtractor;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -7,8 +9,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -39,7 +39,8 @@ public class DocumentMetadataAnalyzer {
             @Value("${openai.api-key:}") String apiKey,
             @Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl,
             @Value("${openai.model.chat-light:gpt-5-nano}") String chatModel,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory
     ) {
         this.textExtractor = textExtractor;
         this.objectMapper = objectMapper;
@@ -48,11 +49,7 @@ public class DocumentMetadataAnalyzer {
         this.promptRegistry = promptRegistry;
 
         if (openaiEnabled && apiKey != null && !apiKey.isBlank()) {
-            this.restClient = RestClient.builder()
-                    .baseUrl(baseUrl)
-                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                    .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .build();
+            this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.BACKGROUND);
         } else {
             this.restClient = null;
         }
@@ -4,11 +4,14 @@ import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaReposit
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeBaseSpecifications;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore;
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore.StoredFile;
 import com.biorad.csrag.interfaces.rest.dto.knowledge.*;
-import com.biorad.csrag.interfaces.rest.vector.VectorStore;
+import com.biorad.csrag.interfaces.rest.vector.SharedVectorPointIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import com.biorad.csrag.common.exception.NotFoundException;
@@ -17,11 +20,10 @@ import com.biorad.csrag.common.exception.ConflictException;
 import com.biorad.csrag.common.exception.ExternalServiceException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -41,9 +43,11 @@ public class KnowledgeBaseService {
 
     private final KnowledgeDocumentJpaRepository kbDocRepository;
     private final DocumentChunkJpaRepository chunkRepository;
-    private final VectorStore vectorStore;
+    private final SharedVectorPointIndex sharedPointIndex;
     private final DocumentMetadataAnalyzer metadataAnalyzer;
-    private final KnowledgeIndexingWorker indexingWorker;
+    private final KnowledgeIndexingScheduler indexingScheduler;
+    private final KnowledgeContentDeduplicator contentDeduplicator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.storage.upload-dir:uploads}")
     private String uploadDir;
@@ -51,15 +55,19 @@ public class KnowledgeBaseService {
     public KnowledgeBaseService(
             KnowledgeDocumentJpaRepository kbDocRepository,
             DocumentChunkJpaRepository chunkRepository,
-            VectorStore vectorStore,
+            SharedVectorPointIndex sharedPointIndex,
             DocumentMetadataAnalyzer metadataAnalyzer,
-            KnowledgeIndexingWorker indexingWorker
+            KnowledgeIndexingScheduler indexingScheduler,
+            KnowledgeContentDeduplicator contentDeduplicator,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.kbDocRepository = kbDocRepository;
         this.chunkRepository = chunkRepository;
-        this.vectorStore = vectorStore;
+        this.sharedPointIndex = sharedPointIndex;
         this.metadataAnalyzer = metadataAnalyzer;
-        this.indexingWorker = indexingWorker;
+        this.indexingScheduler = indexingScheduler;
+        this.contentDeduplicator = contentDeduplicator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -80,14 +88,17 @@ public class KnowledgeBaseService {
         }
 
         try {
-            // 파일 저장
+            // 파일 저장: 힙에 올리지 않고 스트리밍으로 쓰면서 SHA-256과 매직 바이트를 계산
             Path kbDir = Paths.get(uploadDir, "knowledge-base");
-            Files.createDirectories(kbDir);
 
             UUID docId = UUID.randomUUID();
             String fileName = file.getOriginalFilename();
-            String storagePath = kbDir.resolve(docId + "_" + fileName).toString();
-            Files.write(Paths.get(storagePath), file.getBytes());
+            StoredFile stored;
+            try (InputStream in = file.getInputStream()) {
+                stored = StreamingFileStore.store(in, kbDir.resolve(docId + "_" + fileName));
+            }
+            String storagePath = stored.path().toString();
+            String contentType = resolveContentType(file.getContentType(), stored);
 
             // 엔티티 생성
             KnowledgeDocumentJpaEntity entity = KnowledgeDocumentJpaEntity.create(
@@ -95,19 +106,28 @@ public class KnowledgeBaseService {
                     category,
                     productFamily,
                     fileName,
-                    file.getContentType(),
-                    file.getSize(),
+                    contentType,
+                    stored.size(),
                     storagePath,
                     description,
                     tags,
                     uploadedBy
             );
+            entity.setContentSha256(stored.sha256());
 
             kbDocRepository.save(entity);
-            log.info("kb.upload.success documentId={} title={}", entity.getId(), title);
+            log.info("kb.upload.success documentId={} title={} size={} sha256={}",
+                    entity.getId(), title, stored.size(), stored.sha256());
+
+            // 바이트 단위로 같은 파일이 이미 인덱싱되어 있으면 파싱·청킹·임베딩 없이 기존 인덱스를 공유
+            KnowledgeDocumentJpaEntity duplicateOf = contentDeduplicator.linkToExistingIndex(entity);
+            if (duplicateOf != null) {
+                eventPublisher.publishEvent(new KnowledgeIndexChangedEvent(entity.getId(), KnowledgeIndexChangedEvent.ChangeType.INDEXED));
+                return toResponse(entity);
+            }
 
             // AI 메타데이터 분석: 빈 필드가 있으면 자동 채움
-            enrichWithAi(entity, Paths.get(storagePath), file.getContentType());
+            enrichWithAi(entity, stored.path(), contentType);
 
             return toResponse(entity);
         } catch (IOException e) {
@@ -173,6 +193,14 @@ public class KnowledgeBaseService {
      */
     @Transactional
     public KbIndexingResponse indexOne(UUID docId) {
+        return indexOne(docId, KnowledgeIndexingScheduler.PRIORITY_SINGLE);
+    }
+
+    /**
+     * 개별 문서 인덱싱 (비동기) — 인덱싱 큐에 우선순위와 함께 등록한다.
+     */
+    @Transactional
+    public KbIndexingResponse indexOne(UUID docId, int priority) {
         KnowledgeDocumentJpaEntity doc = kbDocRepository.findById(docId)
                 .orElseThrow(() -> new NotFoundException("KB_DOCUMENT_NOT_FOUND", "지식 기반 문서를 찾을 수 없습니다."));
 
@@ -189,14 +217,9 @@ public class KnowledgeBaseService {
         }
         kbDocRepository.save(doc);
 
-        // 트랜잭션 커밋 후 비동기 워커 실행 (커밋 전 호출하면 DB 미반영 상태에서 워커가 시작됨)
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                indexingWorker.indexOneAsync(docId);
-                log.info("kb.indexing.queued documentId={}", docId);
-            }
-        });
+        // 작업 행이 문서 상태와 함께 커밋되므로 커밋 전에 워커가 시작되거나 재시작으로 유실되지 않는다
+        indexingScheduler.enqueue(docId, priority);
+        log.info("kb.indexing.queued documentId={} priority={}", docId, priority);
 
         return new KbIndexingResponse(docId, doc.getStatus(), 0, 0);
     }
@@ -206,6 +229,14 @@ public class KnowledgeBaseService {
      */
     @Transactional
     public KbBatchIndexingResponse indexAll() {
+        return indexAll(KnowledgeIndexingScheduler.PRIORITY_BULK);
+    }
+
+    /**
+     * 미인덱싱 문서 일괄 인덱싱 (비동기) — 인덱싱 큐에 우선순위와 함께 등록한다.
+     */
+    @Transactional
+    public KbBatchIndexingResponse indexAll(int priority) {
         List<KnowledgeDocumentJpaEntity> docs = kbDocRepository.findByStatusIn(List.of("UPLOADED", "FAILED"));
 
         List<UUID> queuedIds = new java.util.ArrayList<>();
@@ -216,26 +247,25 @@ public class KnowledgeBaseService {
                 }
                 doc.markIndexing();
                 kbDocRepository.save(doc);
+                indexingScheduler.enqueue(doc.getId(), priority);
                 queuedIds.add(doc.getId());
             } catch (Exception e) {
                 log.warn("kb.batchIndexing.queueFailed documentId={} error={}", doc.getId(), e.getMessage());
             }
         }
 
-        // 트랜잭션 커밋 후 비동기 워커 일괄 실행
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                for (UUID id : queuedIds) {
-                    indexingWorker.indexOneAsync(id);
-                }
-                log.info("kb.batchIndexing.queued count={}", queuedIds.size());
-            }
-        });
+        log.info("kb.batchIndexing.queued count={} priority={}", queuedIds.size(), priority);
 
         return new KbBatchIndexingResponse(queuedIds.size(), 0, 0);
     }
 
+    /**
+     * 인덱싱 큐 진행률 (대기·실행·완료 건수, 처리량, 예상 완료 시간)
+     */
+    public KbIndexingProgressResponse getIndexingProgress() {
+        return indexingScheduler.getProgress();
+    }
+
     /**
      * 문서 삭제
      */
@@ -247,9 +277,9 @@ public class KnowledgeBaseService {
         // 1. 청크 삭제
         chunkRepository.deleteByDocumentId(docId);
 
-        // 2. 벡터 삭제 (실패해도 DB 삭제는 계속 진행)
+        // 2. 벡터 삭제 — 다른 문서와 공유하는 포인트는 멤버십만 해제 (실패해도 DB 삭제는 계속 진행)
         try {
-            vectorStore.deleteByDocumentId(docId);
+            sharedPointIndex.removeDocument(docId);
         } catch (Exception e) {
             log.error("kb.delete.vector.failed documentId={} reason={} — ghost vectors may remain", docId, e.getMessage());
         }
@@ -263,6 +293,7 @@ public class KnowledgeBaseService {
 
         // 4. 엔티티 삭제
         kbDocRepository.delete(doc);
+        eventPublisher.publishEvent(new KnowledgeIndexChangedEvent(docId, KnowledgeIndexChangedEvent.ChangeType.DELETED));
 
         log.info("kb.delete.success documentId={}", docId);
     }
@@ -337,6 +368,21 @@ public class KnowledgeBaseService {
 
     // ===== 헬퍼 메서드 =====
 
+    /**
+     * 클라이언트가 content type을 보내지 않았거나 octet-stream이면 매직 바이트로 판별한 값을 쓴다.
+     * 텍스트 추출기가 content type으로 파서를 고르므로, 잘못 두면 PDF가 평문으로 파싱된다.
+     */
+    private static String resolveContentType(String declared, StoredFile stored) {
+        String detected = stored.detectedContentType();
+        if (declared == null || declared.isBlank() || "application/octet-stream".equalsIgnoreCase(declared)) {
+            return detected != null ? detected : "application/octet-stream";
+        }
+        if (detected != null && !declared.equalsIgnoreCase(detected)) {
+            log.debug("kb.upload.contentTypeMismatch declared={} detected={}", declared, detected);
+        }
+        return declared;
+    }
+
     private KbDocumentResponse toResponse(KnowledgeDocumentJpaEntity entity) {
         return new KbDocumentResponse(
                 entity.getId(),
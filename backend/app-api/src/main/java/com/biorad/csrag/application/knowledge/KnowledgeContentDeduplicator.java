@@ -0,0 +1,118 @@
+package com.biorad.csrag.application.knowledge;
+
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkBulkWriter;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import com.biorad.csrag.interfaces.rest.vector.SharedVectorPointIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 바이트 단위로 같은 KB 파일의 재업로드 처리.
+ *
+ * <p>같은 SHA-256의 INDEXED 문서가 있으면 청크 행을 복제하고 {@link SharedVectorPointIndex}의 기존 포인트에 합류시켜
+ * 파싱·청킹·enrichment·임베딩을 모두 건너뛴다. 이후 재인덱싱·삭제는 일반 문서와 같이 자기 멤버십만 해제하므로
+ * 원본과 독립적으로 관리된다.
+ */
+@Component
+public class KnowledgeContentDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(KnowledgeContentDeduplicator.class);
+
+    private final KnowledgeDocumentJpaRepository kbDocRepository;
+    private final DocumentChunkJpaRepository chunkRepository;
+    private final DocumentChunkBulkWriter chunkWriter;
+    private final SharedVectorPointIndex sharedPointIndex;
+
+    public KnowledgeContentDeduplicator(
+            KnowledgeDocumentJpaRepository kbDocRepository,
+            DocumentChunkJpaRepository chunkRepository,
+            DocumentChunkBulkWriter chunkWriter,
+            SharedVectorPointIndex sharedPointIndex
+    ) {
+        this.kbDocRepository = kbDocRepository;
+        this.chunkRepository = chunkRepository;
+        this.chunkWriter = chunkWriter;
+        this.sharedPointIndex = sharedPointIndex;
+    }
+
+    /**
+     * 같은 내용의 인덱싱된 문서가 있으면 그 인덱스를 공유해 {@code document}를 INDEXED로 만든다.
+     * 비어 있는 메타데이터는 원본 값으로 채운다 (AI 메타데이터 분석 생략).
+     *
+     * @return 공유한 원본 문서. 원본이 없거나 원본 벡터가 공유 테이블에 없으면(공유 도입 이전 인덱싱) null
+     */
+    @Transactional
+    public KnowledgeDocumentJpaEntity linkToExistingIndex(KnowledgeDocumentJpaEntity document) {
+        if (document.getContentSha256() == null) {
+            return null;
+        }
+        KnowledgeDocumentJpaEntity source = kbDocRepository
+                .findFirstByContentSha256AndStatusOrderByCreatedAtAsc(document.getContentSha256(), "INDEXED")
+                .filter(candidate -> !candidate.getId().equals(document.getId()))
+                .orElse(null);
+        if (source == null) {
+            return null;
+        }
+        List<DocumentChunkJpaEntity> sourceChunks = chunkRepository.findByDocumentIdOrderByChunkIndexAsc(source.getId());
+        if (sourceChunks.isEmpty()) {
+            return null;
+        }
+
+        String productFamily = document.getProductFamily() == null || document.getProductFamily().isBlank()
+                ? source.getProductFamily()
+                : document.getProductFamily();
+
+        Map<UUID, UUID> idMap = new HashMap<>();
+        sourceChunks.forEach(chunk -> idMap.put(chunk.getId(), UUID.randomUUID()));
+        Map<UUID, UUID> pointChunks = new HashMap<>();
+        List<DocumentChunkJpaEntity> copies = new ArrayList<>(sourceChunks.size());
+        Instant now = Instant.now();
+        for (DocumentChunkJpaEntity chunk : sourceChunks) {
+            copies.add(copyOf(chunk, idMap, document.getId(), productFamily, now));
+            if (!"PARENT".equals(chunk.getChunkLevel())) {
+                pointChunks.put(chunk.getId(), idMap.get(chunk.getId()));
+            }
+        }
+
+        if (!sharedPointIndex.linkDocument(source.getId(), document.getId(), productFamily, pointChunks)) {
+            log.info("kb.dedup.skipped documentId={} sourceDocumentId={} reason=source_not_shared",
+                    document.getId(), source.getId());
+            return null;
+        }
+        chunkWriter.insertAll(copies);
+        document.enrichMetadata(source.getCategory(), source.getProductFamily(), source.getDescription(), source.getTags());
+        document.markIndexedFrom(source);
+        kbDocRepository.save(document);
+        log.info("kb.dedup.linked documentId={} sourceDocumentId={} chunks={} vectors={}",
+                document.getId(), source.getId(), copies.size(), source.getVectorCount());
+        return source;
+    }
+
+    private static DocumentChunkJpaEntity copyOf(DocumentChunkJpaEntity chunk, Map<UUID, UUID> idMap,
+                                                 UUID documentId, String productFamily, Instant now) {
+        DocumentChunkJpaEntity copy = new DocumentChunkJpaEntity(
+                idMap.get(chunk.getId()), documentId, chunk.getChunkIndex(),
+                chunk.getStartOffset(), chunk.getEndOffset(), chunk.getContent(),
+                chunk.getSourceType(), documentId, chunk.getPageStart(), chunk.getPageEnd(), now);
+        copy.setProductFamily(productFamily != null ? productFamily : chunk.getProductFamily());
+        copy.setParentChunkId(chunk.getParentChunkId() != null ? idMap.get(chunk.getParentChunkId()) : null);
+        copy.setChunkLevel(chunk.getChunkLevel());
+        copy.setContextPrefix(chunk.getContextPrefix());
+        copy.setEnrichedContent(chunk.getEnrichedContent());
+        copy.setMinhashSignature(chunk.getMinhashSignature());
+        copy.setTokenCount(chunk.getTokenCount());
+        return copy;
+    }
+}
@@ -0,0 +1,28 @@
+package com.biorad.csrag.application.knowledge;
+
+import com.biorad.csrag.infrastructure.rag.cache.ChunkHydrationCache;
+import com.biorad.csrag.infrastructure.rag.cache.LlmResponseCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * KB 인덱스 변경 후(커밋 시점) 검색 결과에 의존하는 캐시를 비운다.
+ */
+@Component
+public class KnowledgeIndexCacheInvalidator {
+
+    private final LlmResponseCache llmResponseCache;
+    private final ChunkHydrationCache chunkHydrationCache;
+
+    public KnowledgeIndexCacheInvalidator(LlmResponseCache llmResponseCache,
+                                          ChunkHydrationCache chunkHydrationCache) {
+        this.llmResponseCache = llmResponseCache;
+        this.chunkHydrationCache = chunkHydrationCache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexChanged(KnowledgeIndexChangedEvent event) {
+        llmResponseCache.invalidateRetrievalDependent();
+        chunkHydrationCache.invalidateDocument(event.documentId());
+    }
+}
@@ -0,0 +1,12 @@
+package com.biorad.csrag.application.knowledge;
+
+import java.util.UUID;
+
+/**
+ * Knowledge Base 벡터/키워드 인덱스가 바뀌었음을 알리는 이벤트 (인덱싱 완료, 문서 삭제).
+ * 검색 결과에 의존하는 캐시는 이 이벤트를 받아 무효화한다.
+ */
+public record KnowledgeIndexChangedEvent(UUID documentId, ChangeType changeType) {
+
+    public enum ChangeType { INDEXED, DELETED }
+}
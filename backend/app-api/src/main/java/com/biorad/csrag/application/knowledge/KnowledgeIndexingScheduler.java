@@ -0,0 +1,373 @@
+package com.biorad.csrag.application.knowledge;
+
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
+import com.biorad.csrag.infrastructure.openai.ratelimit.RateLimitTimeoutException;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeIndexingJobRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeIndexingJobRepository.IndexingJob;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.interfaces.rest.dto.knowledge.KbIndexingProgressResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * DB 기반 KB 인덱싱 작업 스케줄러.
+ *
+ * <p>{@link #enqueue}는 호출자 트랜잭션 안에서 {@code kb_indexing_jobs}에 작업을 남기므로 재시작해도 대기열이 유지된다.
+ * 주기적인 {@link #poll}이 우선순위 순으로 작업을 lease로 점유해 {@code kbIndexingExecutor}에서 실행하고,
+ * {@link KnowledgeIndexingWorker#runStage}로 단계(parse → chunk → enrich → embed·upsert)를 하나씩 진행하며
+ * 단계마다 체크포인트를 남긴다. 실패한 작업은 완료한 단계를 유지한 채 backoff 후 다음 단계부터 재시도하고,
+ * lease가 만료된 작업(노드 종료 등)은 다른 노드가 이어받는다.
+ *
+ * <p>동시 실행 수는 {@link AdaptiveConcurrencyLimit}이 OpenAI 429 관측에 따라 줄이고 늘린다.
+ * 속도 제한으로 실패한 작업은 시도 횟수를 소모하지 않는다.
+ * {@code rag.indexing-queue.enabled=false}면 커밋 후 {@link KnowledgeIndexingWorker#indexOneAsync}로 바로 실행한다.
+ */
+@Component
+public class KnowledgeIndexingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(KnowledgeIndexingScheduler.class);
+
+    /** 일괄 인덱싱 기본 우선순위 */
+    public static final int PRIORITY_BULK = 0;
+    /** 사용자가 문서 하나를 직접 요청한 경우의 기본 우선순위 */
+    public static final int PRIORITY_SINGLE = 10;
+
+    /** 인덱싱 중간 상태 — 활성 작업 없이 이 상태로 오래 남은 문서는 복구 대상이다 */
+    static final List<String> IN_PROGRESS_STATUSES =
+            List.of("INDEXING", "REINDEXING", "PARSING", "PARSED", "PARSED_OCR", "CHUNKED");
+
+    private static final int RECOVERY_BATCH = 100;
+
+    private final KnowledgeIndexingJobRepository jobRepository;
+    private final KnowledgeIndexingWorker worker;
+    private final Executor executor;
+    private final OpenAiRateGovernor rateGovernor;
+    private final RagPipelineProperties.IndexingQueue config;
+    private final Clock clock;
+    private final String owner;
+    private final AdaptiveConcurrencyLimit concurrency;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean stopping;
+    private long observed429 = -1;
+
+    @Autowired
+    public KnowledgeIndexingScheduler(
+            KnowledgeIndexingJobRepository jobRepository,
+            KnowledgeIndexingWorker worker,
+            @Qualifier("kbIndexingExecutor") Executor executor,
+            OpenAiRateGovernor rateGovernor,
+            RagPipelineProperties properties
+    ) {
+        this(jobRepository, worker, executor, rateGovernor, properties.getIndexingQueue(), Clock.systemUTC(),
+                ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    KnowledgeIndexingScheduler(
+            KnowledgeIndexingJobRepository jobRepository,
+            KnowledgeIndexingWorker worker,
+            Executor executor,
+            OpenAiRateGovernor rateGovernor,
+            RagPipelineProperties.IndexingQueue config,
+            Clock clock,
+            String owner
+    ) {
+        this.jobRepository = jobRepository;
+        this.worker = worker;
+        this.executor = executor;
+        this.rateGovernor = rateGovernor;
+        this.config = config;
+        this.clock = clock;
+        this.owner = owner.length() > 100 ? owner.substring(0, 100) : owner;
+        this.concurrency = new AdaptiveConcurrencyLimit(config.getMinConcurrency(), config.getMaxConcurrency(),
+                Duration.ofSeconds(config.getIncreaseIntervalSeconds()), clock.instant());
+    }
+
+    /**
+     * 문서 인덱싱 작업을 등록한다. 같은 문서의 작업이 이미 대기·실행 중이면 새로 만들지 않고 우선순위만 올린다.
+     * 호출자 트랜잭션에 참여하므로 문서 상태 변경과 함께 커밋된다.
+     */
+    @Transactional
+    public void enqueue(UUID documentId, int priority) {
+        if (!config.isEnabled()) {
+            runAfterCommit(() -> worker.indexOneAsync(documentId));
+            return;
+        }
+        enqueueJob(documentId, priority, clock.instant());
+    }
+
+    /**
+     * 작업을 넣되, 문서당 활성 작업 유니크 인덱스와 충돌하면 기존 작업에 합친다 (우선순위만 올림).
+     * 여러 노드의 {@link #recover}나 동시 {@link #enqueue}가 같은 문서를 넣어도 작업은 하나만 남는다.
+     * 충돌 직후 기존 작업이 끝나 합칠 대상이 없으면 한 번 더 넣는다.
+     *
+     * @return 새 작업을 만들었으면 true
+     */
+    private boolean enqueueJob(UUID documentId, int priority, Instant now) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            UUID jobId = UUID.randomUUID();
+            if (jobRepository.insert(jobId, documentId, priority, now)) {
+                log.info("kb.indexing.queue.enqueued documentId={} jobId={} priority={}", documentId, jobId, priority);
+                return true;
+            }
+            IndexingJob active = jobRepository.findActiveByDocument(documentId).orElse(null);
+            if (active != null) {
+                jobRepository.raisePriority(active.id(), priority, now);
+                log.info("kb.indexing.queue.merged documentId={} jobId={} priority={}", documentId, active.id(), priority);
+                return false;
+            }
+        }
+        log.warn("kb.indexing.queue.enqueue.contended documentId={}", documentId);
+        return false;
+    }
+
+    /**
+     * 동시 실행 상한의 남은 자리만큼 작업을 점유해 실행한다. 실행 중인 작업의 lease도 함께 연장한다.
+     */
+    @Scheduled(fixedDelayString = "${rag.indexing-queue.poll-interval-ms:1000}")
+    public void poll() {
+        if (!config.isEnabled() || stopping) {
+            return;
+        }
+        Instant now = clock.instant();
+        observeRateGovernor(now);
+        try {
+            jobRepository.renewLeases(owner, Set.copyOf(inFlight), leaseUntil(now));
+
+            int free = concurrency.limit() - inFlight.size();
+            if (free <= 0) {
+                return;
+            }
+            for (UUID candidate : jobRepository.findClaimable(now, free * 2)) {
+                if (free <= 0 || stopping) {
+                    break;
+                }
+                IndexingJob job = jobRepository.claim(candidate, owner, now, leaseUntil(now)).orElse(null);
+                if (job == null) {
+                    continue;  // 다른 노드가 먼저 점유
+                }
+                inFlight.add(job.id());
+                free--;
+                try {
+                    executor.execute(() -> run(job));
+                } catch (RejectedExecutionException e) {
+                    inFlight.remove(job.id());
+                    jobRepository.requeue(job.id(), owner, now, "executor rejected", false, now);
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("kb.indexing.queue.poll.failed error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 인덱싱 중간 상태로 멈춘 채 작업이 없는 문서를 다시 등록하고, 보존 기간이 지난 종료 작업을 정리한다.
+     */
+    @Scheduled(fixedDelayString = "${rag.indexing-queue.recovery-interval-ms:60000}",
+            initialDelayString = "${rag.indexing-queue.recovery-initial-delay-ms:30000}")
+    public void recover() {
+        if (!config.isEnabled() || stopping) {
+            return;
+        }
+        Instant now = clock.instant();
+        try {
+            List<UUID> stranded = jobRepository.findStrandedDocuments(IN_PROGRESS_STATUSES,
+                    now.minus(Duration.ofMinutes(config.getStaleMinutes())), RECOVERY_BATCH);
+            int recovered = 0;
+            for (UUID documentId : stranded) {
+                if (enqueueJob(documentId, PRIORITY_BULK, now)) {
+                    recovered++;
+                }
+            }
+            if (recovered > 0) {
+                log.info("kb.indexing.queue.recovered count={}", recovered);
+            }
+            int purged = jobRepository.purgeFinished(now.minus(Duration.ofDays(config.getRetentionDays())));
+            if (purged > 0) {
+                log.debug("kb.indexing.queue.purged count={}", purged);
+            }
+        } catch (Exception e) {
+            log.warn("kb.indexing.queue.recover.failed error={}", e.getMessage());
+        }
+    }
+
+    /** 새 작업 점유를 멈춘다. 실행 중인 작업은 lease가 만료되면 다른 노드(또는 재시작 후 이 노드)가 체크포인트부터 이어받는다. */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        log.info("kb.indexing.queue.shutdown inFlight={}", inFlight.size());
+    }
+
+    public KbIndexingProgressResponse getProgress() {
+        Instant now = clock.instant();
+        Map<String, Long> byStatus = config.isEnabled() ? jobRepository.countByStatus() : Map.of();
+        Map<String, Long> byStage = config.isEnabled() ? new LinkedHashMap<>(jobRepository.countActiveByStage()) : Map.of();
+        int window = Math.max(1, config.getThroughputWindowMinutes());
+        KnowledgeIndexingJobRepository.Throughput throughput = config.isEnabled()
+                ? jobRepository.completedSince(now.minus(Duration.ofMinutes(window)))
+                : new KnowledgeIndexingJobRepository.Throughput(0, 0);
+
+        long queued = byStatus.getOrDefault(KnowledgeIndexingJobRepository.QUEUED, 0L);
+        long running = byStatus.getOrDefault(KnowledgeIndexingJobRepository.RUNNING, 0L);
+        double documentsPerMinute = throughput.documents() / (double) window;
+        Long etaSeconds = documentsPerMinute > 0
+                ? Math.round((queued + running) / documentsPerMinute * 60)
+                : (queued + running == 0 ? 0L : null);
+
+        return new KbIndexingProgressResponse(
+                config.isEnabled(),
+                queued,
+                running,
+                byStatus.getOrDefault(KnowledgeIndexingJobRepository.DONE, 0L),
+                byStatus.getOrDefault(KnowledgeIndexingJobRepository.FAILED, 0L),
+                byStage,
+                concurrency.limit(),
+                Math.max(1, config.getMaxConcurrency()),
+                inFlight.size(),
+                concurrency.decreases(),
+                concurrency.lastThrottleAt(),
+                window,
+                throughput.documents(),
+                documentsPerMinute,
+                throughput.chunks() / (double) window,
+                etaSeconds
+        );
+    }
+
+    // ===== 실행 =====
+
+    void run(IndexingJob job) {
+        KnowledgeIndexingStage stage = KnowledgeIndexingStage.parse(job.stage());
+        KnowledgeIndexingWorker.StageContext context = new KnowledgeIndexingWorker.StageContext();
+        try {
+            if (stage != KnowledgeIndexingStage.NONE) {
+                log.info("kb.indexing.queue.resumed documentId={} jobId={} from={}", job.documentId(), job.id(), stage);
+            }
+            while (!stage.isTerminal()) {
+                if (stopping) {
+                    return;  // lease 만료 후 체크포인트부터 재개된다
+                }
+                KnowledgeIndexingStage next = worker.runStage(job.documentId(), stage, context);
+                Instant now = clock.instant();
+                if (next == null) {
+                    jobRepository.fail(job.id(), owner, "document_not_found", now);
+                    log.warn("kb.indexing.skipped documentId={} reason=document_not_found", job.documentId());
+                    return;
+                }
+                if (!jobRepository.checkpoint(job.id(), owner, next.name(), context.chunkCount(), context.vectorCount(),
+                        now, leaseUntil(now))) {
+                    log.warn("kb.indexing.queue.leaseLost documentId={} jobId={} stage={}", job.documentId(), job.id(), next);
+                    return;
+                }
+                stage = next;
+            }
+            jobRepository.complete(job.id(), owner, clock.instant());
+            concurrency.onSuccess(clock.instant());
+            log.info("kb.indexing.success documentId={} chunkCount={} vectorCount={} attempts={}",
+                    job.documentId(), context.chunkCount(), context.vectorCount(), job.attempts());
+        } catch (Exception e) {
+            handleFailure(job, stage, e);
+        } finally {
+            inFlight.remove(job.id());
+        }
+    }
+
+    private void handleFailure(IndexingJob job, KnowledgeIndexingStage stage, Exception e) {
+        Instant now = clock.instant();
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        try {
+            if (isThrottle(e)) {
+                concurrency.onThrottle(now);
+                Instant retryAt = now.plusSeconds(Math.max(1, config.getRetryBackoffSeconds()));
+                jobRepository.requeue(job.id(), owner, retryAt, error, false, now);
+                log.warn("kb.indexing.queue.throttled documentId={} stage={} limit={} retryAt={}",
+                        job.documentId(), stage, concurrency.limit(), retryAt);
+            } else if (job.attempts() < config.getMaxAttempts()) {
+                long backoff = (long) Math.max(1, config.getRetryBackoffSeconds()) << Math.min(job.attempts() - 1, 10);
+                Instant retryAt = now.plusSeconds(backoff);
+                jobRepository.requeue(job.id(), owner, retryAt, error, true, now);
+                log.warn("kb.indexing.queue.retry documentId={} stage={} attempt={} retryAt={} error={}",
+                        job.documentId(), stage, job.attempts(), retryAt, error);
+            } else {
+                jobRepository.fail(job.id(), owner, error, now);
+                worker.markFailed(job.documentId(), error);
+                log.warn("kb.indexing.failed documentId={} stage={} attempts={} error={}",
+                        job.documentId(), stage, job.attempts(), error);
+            }
+        } catch (Exception recordFailure) {
+            // lease가 만료되면 다른 워커가 체크포인트부터 다시 실행한다
+            log.warn("kb.indexing.queue.recordFailure.failed jobId={} error={}", job.id(), recordFailure.getMessage());
+        }
+    }
+
+    /** governor가 관측한 429 누적 수가 늘었으면 동시성을 줄인다. */
+    private void observeRateGovernor(Instant now) {
+        if (rateGovernor == null) {
+            return;
+        }
+        long total = rateGovernor.getStats().stream().mapToLong(OpenAiRateGovernor.ModelStats::throttled429).sum();
+        if (observed429 >= 0 && total > observed429) {
+            concurrency.onThrottle(now);
+        }
+        observed429 = total;
+    }
+
+    static boolean isThrottle(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof RateLimitTimeoutException) {
+                return true;
+            }
+            if (t instanceof HttpClientErrorException http && http.getStatusCode().value() == 429) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private Instant leaseUntil(Instant now) {
+        return now.plusSeconds(Math.max(30, config.getLeaseSeconds()));
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    int concurrencyLimit() {
+        return concurrency.limit();
+    }
+}
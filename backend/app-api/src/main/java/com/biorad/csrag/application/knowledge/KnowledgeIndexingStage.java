@@ -0,0 +1,36 @@
+package com.biorad.csrag.application.knowledge;
+
+/**
+ * KB 인덱싱 작업의 체크포인트 단계. 작업에는 마지막으로 완료한 단계가 기록되며, 재개 시 다음 단계부터 실행한다.
+ *
+ * <p>임베딩과 벡터 upsert는 배치 단위로 번갈아 실행되고 임베딩 결과를 따로 저장하지 않으므로 {@link #INDEXED} 한 단계로 묶는다.
+ */
+public enum KnowledgeIndexingStage {
+
+    /** 아직 완료한 단계 없음 */
+    NONE,
+    /** 텍스트 추출(OCR 포함) 완료 — extracted_text 저장됨 */
+    PARSED,
+    /** 청크 저장 완료 */
+    CHUNKED,
+    /** Contextual enrichment 결과가 청크 행에 저장됨 */
+    ENRICHED,
+    /** 임베딩·벡터 upsert 완료 */
+    INDEXED;
+
+    public boolean isTerminal() {
+        return this == INDEXED;
+    }
+
+    /** 저장된 단계 이름을 읽는다. 알 수 없는 값이면 처음부터 다시 실행한다. */
+    public static KnowledgeIndexingStage parse(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        try {
+            return valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return NONE;
+        }
+    }
+}
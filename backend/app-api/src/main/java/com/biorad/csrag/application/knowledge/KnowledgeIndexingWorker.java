@@ -9,6 +9,7 @@ import com.biorad.csrag.interfaces.rest.document.ocr.OcrService;
 import com.biorad.csrag.interfaces.rest.vector.VectorizingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
@@ -35,7 +36,7 @@ public class KnowledgeIndexingWorker {
     private final VectorizingService vectorizingService;
     private final OcrService ocrService;
     private final DocumentTextExtractor textExtractor;
-    private final com.biorad.csrag.interfaces.rest.vector.VectorStore vectorStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     public KnowledgeIndexingWorker(
             KnowledgeDocumentJpaRepository kbDocRepository,
@@ -43,18 +44,19 @@ public class KnowledgeIndexingWorker {
             VectorizingService vectorizingService,
             OcrService ocrService,
             DocumentTextExtractor textExtractor,
-            com.biorad.csrag.interfaces.rest.vector.VectorStore vectorStore
+            ApplicationEventPublisher eventPublisher
     ) {
         this.kbDocRepository = kbDocRepository;
         this.chunkingService = chunkingService;
         this.vectorizingService = vectorizingService;
         this.ocrService = ocrService;
         this.textExtractor = textExtractor;
-        this.vectorStore = vectorStore;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * 개별 문서를 비동기로 인덱싱한다.
+     * 개별 문서를 비동기로 인덱싱한다. 모든 단계를 한 트랜잭션에서 실행한다.
+     * 인덱싱 큐({@code rag.indexing-queue.enabled})가 꺼져 있을 때만 사용된다.
      * REQUIRES_NEW: 호출자의 트랜잭션과 독립적으로 실행
      */
     @Async("kbIndexingExecutor")
@@ -67,44 +69,13 @@ public class KnowledgeIndexingWorker {
         }
 
         try {
-            doc.markParsing();
-            kbDocRepository.save(doc);
-
-            // 기존 벡터 삭제 (재인덱싱 시 유령 벡터 방지)
-            vectorStore.deleteByDocumentId(docId);
-
-            // 텍스트 추출 (PDF: PDFBox, DOCX: POI)
-            String extracted = extractText(doc.getStoragePath(), doc.getContentType());
-
-            // OCR 필요 시 처리
-            String finalText;
-            int chunkCount;
-            if (needsOcr(extracted)) {
-                OcrResult ocr = ocrService.extract(Path.of(doc.getStoragePath()));
-                finalText = limitText(ocr.text());
-                doc.markParsedFromOcr(finalText, ocr.confidence());
-                kbDocRepository.save(doc);
-                chunkCount = chunkingService.chunkAndStore(doc.getId(), finalText, "KNOWLEDGE_BASE", doc.getId(), doc.getFileName(), doc.getProductFamily());
-            } else {
-                // 페이지별 추출 사용 (PDF는 페이지 정보 보존)
-                List<DocumentTextExtractor.PageText> pageTexts =
-                        textExtractor.extractByPage(Path.of(doc.getStoragePath()), doc.getContentType());
-                finalText = limitText(pageTexts.stream()
-                        .map(DocumentTextExtractor.PageText::text)
-                        .collect(Collectors.joining(" ")));
-                doc.markParsed(finalText);
-                kbDocRepository.save(doc);
-                chunkCount = chunkingService.chunkAndStore(doc.getId(), pageTexts, "KNOWLEDGE_BASE", doc.getId(), doc.getFileName(), doc.getProductFamily());
+            StageContext context = new StageContext();
+            KnowledgeIndexingStage stage = KnowledgeIndexingStage.NONE;
+            while (!stage.isTerminal()) {
+                stage = advance(doc, stage, context);
             }
-            doc.markChunked(chunkCount);
-            kbDocRepository.save(doc);
-
-            // 벡터화
-            int vectorCount = vectorizingService.upsertDocumentChunks(doc.getId());
-            doc.markIndexed(vectorCount);
-            kbDocRepository.save(doc);
-
-            log.info("kb.indexing.success documentId={} chunkCount={} vectorCount={}", docId, chunkCount, vectorCount);
+            log.info("kb.indexing.success documentId={} chunkCount={} vectorCount={}",
+                    docId, context.chunkCount(), context.vectorCount());
 
         } catch (Exception e) {
             doc.markFailed(e.getMessage());
@@ -113,6 +84,99 @@ public class KnowledgeIndexingWorker {
         }
     }
 
+    /**
+     * {@code completed} 다음 단계 하나를 자체 트랜잭션에서 실행한다. 인덱싱 큐가 단계마다 호출해 체크포인트를 남긴다.
+     * 예외는 호출자(큐)가 재시도 여부를 판단하도록 그대로 전파한다.
+     *
+     * @return 새로 완료한 단계, 문서가 삭제되었으면 null
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public KnowledgeIndexingStage runStage(UUID docId, KnowledgeIndexingStage completed, StageContext context)
+            throws IOException {
+        KnowledgeDocumentJpaEntity doc = kbDocRepository.findById(docId).orElse(null);
+        if (doc == null) {
+            return null;
+        }
+        return advance(doc, completed, context);
+    }
+
+    /**
+     * 재시도 횟수를 모두 소진한 문서를 실패 처리한다.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailed(UUID docId, String error) {
+        kbDocRepository.findById(docId).ifPresent(doc -> {
+            doc.markFailed(error);
+            kbDocRepository.save(doc);
+        });
+    }
+
+    private KnowledgeIndexingStage advance(KnowledgeDocumentJpaEntity doc, KnowledgeIndexingStage completed,
+                                           StageContext context) throws IOException {
+        return switch (completed) {
+            case NONE -> parse(doc, context);
+            case PARSED -> chunk(doc, context);
+            case CHUNKED -> {
+                vectorizingService.enrichDocumentChunks(doc.getId());
+                yield KnowledgeIndexingStage.ENRICHED;
+            }
+            case ENRICHED -> index(doc, context);
+            case INDEXED -> KnowledgeIndexingStage.INDEXED;
+        };
+    }
+
+    private KnowledgeIndexingStage parse(KnowledgeDocumentJpaEntity doc, StageContext context) throws IOException {
+        doc.markParsing();
+        kbDocRepository.save(doc);
+
+        // 기존 벡터 삭제 (재인덱싱 시 유령 벡터 방지, 공유 포인트는 멤버십만 해제)
+        vectorizingService.removeDocumentVectors(doc.getId());
+
+        // 텍스트 추출 (PDF: PDFBox, DOCX: POI)
+        String extracted = extractText(doc.getStoragePath(), doc.getContentType());
+
+        // OCR 필요 시 처리
+        if (needsOcr(extracted)) {
+            OcrResult ocr = ocrService.extract(Path.of(doc.getStoragePath()));
+            doc.markParsedFromOcr(limitText(ocr.text()), ocr.confidence());
+        } else {
+            // 페이지별 추출 사용 (PDF는 페이지 정보 보존)
+            context.pageTexts = textExtractor.extractByPage(Path.of(doc.getStoragePath()), doc.getContentType());
+            doc.markParsed(limitText(context.pageTexts.stream()
+                    .map(DocumentTextExtractor.PageText::text)
+                    .collect(Collectors.joining(" "))));
+        }
+        kbDocRepository.save(doc);
+        return KnowledgeIndexingStage.PARSED;
+    }
+
+    private KnowledgeIndexingStage chunk(KnowledgeDocumentJpaEntity doc, StageContext context) throws IOException {
+        int chunkCount;
+        if ("PARSED_OCR".equals(doc.getStatus())) {
+            chunkCount = chunkingService.chunkAndStore(doc.getId(), doc.getExtractedText(), "KNOWLEDGE_BASE", doc.getId(), doc.getFileName(), doc.getProductFamily());
+        } else {
+            // 중단 후 재개한 경우 페이지 정보는 다시 추출한다 (OCR과 달리 로컬 파싱이라 저렴)
+            List<DocumentTextExtractor.PageText> pageTexts = context.pageTexts != null
+                    ? context.pageTexts
+                    : textExtractor.extractByPage(Path.of(doc.getStoragePath()), doc.getContentType());
+            chunkCount = chunkingService.chunkAndStore(doc.getId(), pageTexts, "KNOWLEDGE_BASE", doc.getId(), doc.getFileName(), doc.getProductFamily());
+        }
+        context.pageTexts = null;
+        context.chunkCount = chunkCount;
+        doc.markChunked(chunkCount);
+        kbDocRepository.save(doc);
+        return KnowledgeIndexingStage.CHUNKED;
+    }
+
+    private KnowledgeIndexingStage index(KnowledgeDocumentJpaEntity doc, StageContext context) {
+        int vectorCount = vectorizingService.upsertEnrichedChunks(doc.getId());
+        context.vectorCount = vectorCount;
+        doc.markIndexed(vectorCount);
+        kbDocRepository.save(doc);
+        eventPublisher.publishEvent(new KnowledgeIndexChangedEvent(doc.getId(), KnowledgeIndexChangedEvent.ChangeType.INDEXED));
+        return KnowledgeIndexingStage.INDEXED;
+    }
+
     // ===== 헬퍼 메서드 =====
 
     private String extractText(String storagePath, String contentType) throws IOException {
@@ -127,4 +191,17 @@ public class KnowledgeIndexingWorker {
         if (text == null) return "";
         return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
     }
+
+    /**
+     * 한 번의 작업 실행 동안 단계 사이에 넘기는 메모리 상태. 저장하지 않으므로 재개 시에는 비어 있다.
+     */
+    public static class StageContext {
+        private List<DocumentTextExtractor.PageText> pageTexts;
+        private Integer chunkCount;
+        private Integer vectorCount;
+
+        public Integer chunkCount() { return chunkCount; }
+
+        public Integer vectorCount() { return vectorCount; }
+    }
 }
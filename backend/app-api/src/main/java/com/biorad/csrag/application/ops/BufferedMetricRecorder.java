@@ -0,0 +1,201 @@
+package com.biorad.csrag.application.ops;
+
+import com.biorad.csrag.common.concurrent.MpscRingBuffer;
+import com.biorad.csrag.infrastructure.persistence.metrics.RagPipelineMetricBatchWriter;
+import com.biorad.csrag.infrastructure.persistence.metrics.RagPipelineMetricEntity;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 파이프라인 메트릭 버퍼링 기록기.
+ *
+ * <p>검색/인덱싱 hot path에서는 {@link #append}로 락 없이 링 버퍼에 적재만 하고,
+ * 스케줄러가 주기적으로 버퍼를 비워 {@link RagPipelineMetricBatchWriter}로 JDBC 배치 저장한다.
+ * 버퍼가 가득 찬 경우의 동작은 {@code rag.metrics.overflow-policy}로 정한다:
+ * <ul>
+ *   <li>{@code DROP_NEWEST} — 새로 들어온 메트릭을 버린다 (기본값)</li>
+ *   <li>{@code DROP_OLDEST} — 가장 오래된 메트릭을 버리고 새 메트릭을 적재한다</li>
+ * </ul>
+ * 애플리케이션 종료 시 남은 메트릭을 모두 flush 한다.
+ */
+@Component
+public class BufferedMetricRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(BufferedMetricRecorder.class);
+
+    public enum OverflowPolicy { DROP_NEWEST, DROP_OLDEST }
+
+    private final RagPipelineMetricBatchWriter writer;
+    private final MpscRingBuffer<RagPipelineMetricEntity> buffer;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Instant startedAt = Instant.now();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder flushBatches = new LongAdder();
+    private volatile long lastFlushLatencyMs;
+    private volatile Instant lastFlushAt;
+
+    public BufferedMetricRecorder(RagPipelineMetricBatchWriter writer, RagPipelineProperties properties) {
+        RagPipelineProperties.Metrics config = properties.getMetrics();
+        this.writer = writer;
+        this.buffer = new MpscRingBuffer<>(Math.max(1, config.getBufferCapacity()));
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.overflowPolicy = parsePolicy(config.getOverflowPolicy());
+    }
+
+    /**
+     * 메트릭을 버퍼에 적재한다. DB I/O 없이 즉시 반환한다.
+     *
+     * @return 적재 성공 여부 (overflow 정책에 의해 버려지면 {@code false})
+     */
+    public boolean append(RagPipelineMetricEntity metric) {
+        if (buffer.offer(metric)) {
+            recorded.increment();
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST && evictOldest() && buffer.offer(metric)) {
+            recorded.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * 버퍼를 비워 배치 저장한다. 다른 스레드가 flush 중이면 건너뛴다.
+     */
+    @Scheduled(fixedDelayString = "${rag.metrics.flush-interval-ms:1000}")
+    public void flush() {
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            drainAll();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 종료 시 남은 메트릭을 모두 저장한다. 진행 중인 flush가 끝날 때까지 기다린다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        drainLock.lock();
+        try {
+            drainAll();
+            MetricRecorderStats stats = getStats();
+            log.info("metrics.recorder.shutdown recorded={} flushed={} dropped={} failures={}",
+                    stats.recorded(), stats.flushed(), stats.dropped(), stats.flushFailures());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public MetricRecorderStats getStats() {
+        long recordedCount = recorded.sum();
+        double uptimeSeconds = Math.max(1.0, (System.currentTimeMillis() - startedAt.toEpochMilli()) / 1000.0);
+        return new MetricRecorderStats(
+                recordedCount,
+                flushed.sum(),
+                dropped.sum(),
+                flushFailures.sum(),
+                flushBatches.sum(),
+                buffer.size(),
+                buffer.capacity(),
+                overflowPolicy.name(),
+                round2(recordedCount / uptimeSeconds),
+                lastFlushLatencyMs,
+                lastFlushAt
+        );
+    }
+
+    private void drainAll() {
+        List<RagPipelineMetricEntity> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<RagPipelineMetricEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            writer.writeBatch(batch);
+            flushed.add(batch.size());
+            flushBatches.increment();
+        } catch (Exception e) {
+            // 메트릭 저장 실패가 파이프라인에 영향을 주어서는 안 된다: 해당 배치는 유실 처리
+            flushFailures.increment();
+            dropped.add(batch.size());
+            log.warn("metrics.recorder.flush 실패: size={} error={}", batch.size(), e.getMessage());
+        } finally {
+            lastFlushLatencyMs = (System.nanoTime() - start) / 1_000_000;
+            lastFlushAt = Instant.now();
+        }
+    }
+
+    private boolean evictOldest() {
+        if (!drainLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (buffer.poll() != null) {
+                dropped.increment();
+                return true;
+            }
+            return false;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private static OverflowPolicy parsePolicy(String value) {
+        if (value == null || value.isBlank()) {
+            return OverflowPolicy.DROP_NEWEST;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("metrics.recorder 알 수 없는 overflow-policy={}, DROP_NEWEST 사용", value);
+            return OverflowPolicy.DROP_NEWEST;
+        }
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * 기록기 자체의 처리량/유실 지표.
+     */
+    public record MetricRecorderStats(
+            long recorded,
+            long flushed,
+            long dropped,
+            long flushFailures,
+            long flushBatches,
+            int pending,
+            int capacity,
+            String overflowPolicy,
+            double recordedPerSecond,
+            long lastFlushLatencyMs,
+            Instant lastFlushAt
+    ) {}
+}
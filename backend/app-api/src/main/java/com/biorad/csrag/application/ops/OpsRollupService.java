@@ -0,0 +1,109 @@
+package com.biorad.csrag.application.ops;
+
+import com.biorad.csrag.infrastructure.persistence.ops.OpsDailyRollupJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 운영 대시보드 일별 롤업 유지 서비스.
+ *
+ * <p>롤업은 스케줄러만 갱신한다. 기동 후 첫 실행에서 가장 오래된 문의 일자부터 오늘까지 백필하고,
+ * 이후에는 마지막 롤업 일자의 전날부터 오늘까지만 다시 계산한다 (자정 직후 늦게 기록된 행 보정).
+ * 조회 요청은 재계산을 기다리지 않고 현재 롤업을 그대로 읽으며, 응답에 {@link #getLastRefreshedAt()}을 함께 싣는다.
+ */
+@Service
+public class OpsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(OpsRollupService.class);
+
+    private final OpsDailyRollupJdbcRepository rollupRepository;
+    private final Clock clock;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile LocalDate lastRolledUpDay;
+
+    @Autowired
+    public OpsRollupService(OpsDailyRollupJdbcRepository rollupRepository) {
+        this(rollupRepository, Clock.systemUTC());
+    }
+
+    OpsRollupService(OpsDailyRollupJdbcRepository rollupRepository, Clock clock) {
+        this.rollupRepository = rollupRepository;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.ops.rollup.refresh-interval-ms:60000}",
+            initialDelayString = "${app.ops.rollup.initial-delay-ms:10000}")
+    public void scheduledRefresh() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("ops.rollup.refresh 실패: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 즉시 갱신한다. 다른 갱신이 진행 중이면 끝날 때까지 기다린다 (운영 작업·테스트용).
+     */
+    public void refreshNow() {
+        refreshLock.lock();
+        try {
+            refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 롤업이 마지막으로 갱신된 시각 (어느 노드가 갱신했든 DB 기준). 아직 롤업이 없으면 empty.
+     */
+    public Optional<Instant> getLastRefreshedAt() {
+        return rollupRepository.findLastRefreshedAt();
+    }
+
+    private void refresh() {
+        Instant now = clock.instant();
+        LocalDate today = now.atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate start = resolveStartDay(today);
+
+        long begin = System.currentTimeMillis();
+        int days = 0;
+        for (LocalDate day = start; !day.isAfter(today); day = day.plusDays(1)) {
+            rollupRepository.rebuildDay(day, now);
+            days++;
+        }
+        lastRolledUpDay = today;
+        log.debug("ops.rollup.refresh days={} from={} to={} latencyMs={}",
+                days, start, today, System.currentTimeMillis() - begin);
+    }
+    private LocalDate resolveStartDay(LocalDate today) {
+        LocalDate latest = lastRolledUpDay;
+        if (latest == null) {
+            latest = rollupRepository.findLatestRolledUpDay().orElse(null);
+        }
+        if (latest != null) {
+            LocalDate start = latest.minusDays(1);
+            return start.isAfter(today) ? today : start;
+        }
+        // 최초 실행: 전체 이력 백필
+        return rollupRepository.findEarliestActivity()
+                .map(ts -> ts.atZone(ZoneOffset.UTC).toLocalDate())
+                .filter(day -> day.isBefore(today))
+                .orElse(today);
+    }
+}
@@ -5,7 +5,6 @@ import com.biorad.csrag.infrastructure.persistence.metrics.RagPipelineMetricEnti
 import com.biorad.csrag.infrastructure.persistence.metrics.RagPipelineMetricRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -19,20 +18,24 @@ public class RagMetricsService {
     private static final Logger log = LoggerFactory.getLogger(RagMetricsService.class);
 
     private final RagPipelineMetricRepository repository;
+    private final BufferedMetricRecorder recorder;
 
-    public RagMetricsService(RagPipelineMetricRepository repository) {
+    public RagMetricsService(RagPipelineMetricRepository repository, BufferedMetricRecorder recorder) {
         this.repository = repository;
+        this.recorder = recorder;
     }
 
-    @Async
     public void record(Long inquiryId, String metricType, double value) {
         record(inquiryId, metricType, value, null);
     }
 
-    @Async
+    /**
+     * 메트릭을 {@link BufferedMetricRecorder} 링 버퍼에 적재한다.
+     * DB 저장은 주기적인 배치 flush에서 수행되므로 호출 스레드는 블로킹되지 않는다.
+     */
     public void record(Long inquiryId, String metricType, double value, String details) {
         try {
-            repository.save(new RagPipelineMetricEntity(inquiryId, metricType, value, details));
+            recorder.append(new RagPipelineMetricEntity(inquiryId, metricType, value, details));
         } catch (Exception ignored) {
             // fire-and-forget: metric recording must never break the main pipeline
         }
@@ -41,8 +44,8 @@ public class RagMetricsService {
     /**
      * 파이프라인 메트릭을 저장하면서 현재 {@link PipelineTraceContext}의 토큰 사용량을 포함한다.
      * 토큰 추적이 시작되지 않은 경우에도 기본 메트릭은 저장된다.
+     * 추적 정보는 호출 스레드에서 스냅샷한 뒤 버퍼에 적재한다.
      */
-    @Async
     public void recordWithTokenTracking(Long inquiryId, String metricType, double value, String details) {
         try {
             var entity = new RagPipelineMetricEntity(inquiryId, metricType, value, details);
@@ -61,13 +64,20 @@ public class RagMetricsService {
                 }
             }
 
-            repository.save(entity);
+            recorder.append(entity);
         } catch (Exception e) {
             // fire-and-forget: metric recording must never break the main pipeline
-            log.warn("metrics.record 저장 실패: inquiryId={} type={} error={}", inquiryId, metricType, e.getMessage());
+            log.warn("metrics.record 적재 실패: inquiryId={} type={} error={}", inquiryId, metricType, e.getMessage());
         }
     }
 
+    /**
+     * 메트릭 기록기 자체의 처리량/유실 지표를 반환한다.
+     */
+    public BufferedMetricRecorder.MetricRecorderStats getRecorderStats() {
+        return recorder.getStats();
+    }
+
     /**
      * 오늘 하루의 추정 비용(USD) 합계와 총 토큰 사용량을 반환한다.
      */
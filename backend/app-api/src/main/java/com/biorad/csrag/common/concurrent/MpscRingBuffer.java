@@ -0,0 +1,103 @@
+package com.biorad.csrag.common.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 다중 생산자 / 단일 소비자(MPSC) 고정 크기 링 버퍼.
+ *
+ * <p>생산자는 CAS 한 번으로 슬롯을 예약하고 락 없이 값을 게시한다.
+ * 소비자 메서드({@link #poll()}, {@link #drain(Consumer, int)})는 한 번에 하나의 스레드만
+ * 호출해야 하며, 호출 측에서 락 등으로 직렬화하는 것을 전제로 한다.
+ *
+ * <p>용량은 요청 값 이상의 2의 거듭제곱으로 올림된다.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private volatile long consumerIndex;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + requestedCapacity);
+        }
+        int cap = 1;
+        while (cap < requestedCapacity) {
+            cap <<= 1;
+        }
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.slots = new AtomicReferenceArray<>(cap);
+    }
+
+    /**
+     * 값을 추가한다. 버퍼가 가득 차 있으면 즉시 {@code false}를 반환한다 (블로킹 없음).
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        slots.lazySet((int) (index & mask), element);
+        return true;
+    }
+
+    /**
+     * 가장 오래된 값을 꺼낸다. 비어 있거나 다음 슬롯이 아직 게시되지 않았으면 {@code null}.
+     * 단일 소비자 전용.
+     */
+    public E poll() {
+        long index = consumerIndex;
+        int offset = (int) (index & mask);
+        E element = slots.get(offset);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(offset, null);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * 최대 {@code limit}개의 값을 꺼내 {@code sink}에 전달한다. 단일 소비자 전용.
+     *
+     * @return 꺼낸 값의 개수
+     */
+    public int drain(Consumer<? super E> sink, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            sink.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * 현재 적재된 값의 근사 개수. 동시 갱신 중에는 정확하지 않을 수 있다.
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,92 @@
+package com.biorad.csrag.infrastructure.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.security.SecureRandom;
+import java.util.function.Consumer;
+
+/**
+ * 기본 {@link SSLContext}에 위임하면서 {@link SSLEngine} 생성(= 새 TLS 커넥션의 핸드셰이크)을 호스트별로 세는 래퍼.
+ *
+ * <p>JDK HttpClient는 TLS 커넥션마다 {@code createSSLEngine(host, port)}를 한 번 호출하므로,
+ * 요청 수와 비교하면 커넥션 재사용률을 구할 수 있다.
+ *
+ * <p>위임 대상은 이미 초기화된 공용 컨텍스트이므로 {@link #init}은 아무것도 바꾸지 않는다 (디버그 로그만 남김).
+ */
+final class CountingSslContext extends SSLContext {
+
+    CountingSslContext(SSLContext delegate, Consumer<String> onHandshake) {
+        super(new Spi(delegate, onHandshake), delegate.getProvider(), delegate.getProtocol());
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CountingSslContext.class);
+
+    private static final class Spi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+        private final Consumer<String> onHandshake;
+
+        Spi(SSLContext delegate, Consumer<String> onHandshake) {
+            this.delegate = delegate;
+            this.onHandshake = onHandshake;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom random) {
+            // 공용 컨텍스트를 다시 초기화하면 다른 클라이언트까지 바뀌므로 무시한다
+            log.debug("ssl.context.reinit.ignored protocol={}", delegate.getProtocol());
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            onHandshake.accept("-");
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            onHandshake.accept(host == null ? "-" : host);
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
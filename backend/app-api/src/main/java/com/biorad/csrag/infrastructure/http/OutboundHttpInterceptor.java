@@ -0,0 +1,125 @@
+package com.biorad.csrag.infrastructure.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 공용 전송 계층의 가장 안쪽 인터셉터 — 호스트별 in-flight/지연시간/오류를 기록하고 gzip 응답을 풀어 준다.
+ *
+ * <p>지연시간은 응답 헤더 수신까지이며, 바깥쪽 인터셉터(예: OpenAI rate governor)의 대기 시간은 포함하지 않는다.
+ * 응답 body는 {@link GZIPInputStream}으로 감싸기만 하므로 SSE 스트리밍도 그대로 흘려보낸다.
+ * body가 없는 응답(HEAD, 204/304, {@code Content-Length: 0})은 Content-Encoding이 붙어 있어도 감싸지 않는다.
+ */
+final class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String target;
+    private final boolean gzip;
+    private final OutboundHttpMetrics metrics;
+
+    OutboundHttpInterceptor(String target, boolean gzip, OutboundHttpMetrics metrics) {
+        this.target = target;
+        this.gzip = gzip;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        if (gzip && !request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        String host = request.getURI().getHost();
+        OutboundHttpMetrics.HostCounters counters = metrics.host(target, host);
+        counters.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            failed = response.getStatusCode().isError();
+            return isGzip(response) && mayHaveBody(request, response) ? new GzipResponse(response) : response;
+        } finally {
+            counters.end(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static boolean isGzip(ClientHttpResponse response) {
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return encoding != null && encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    private static boolean mayHaveBody(HttpRequest request, ClientHttpResponse response) throws IOException {
+        if (HttpMethod.HEAD.equals(request.getMethod())) {
+            return false;
+        }
+        int status = response.getStatusCode().value();
+        if (status == 204 || status == 304) {
+            return false;
+        }
+        return response.getHeaders().getContentLength() != 0;
+    }
+
+    /**
+     * body를 지연 해제하는 응답 래퍼. 해제 후 길이가 달라지므로 Content-Encoding/Content-Length는 감춘다.
+ * 길이 헤더 없이 비어 있는 body(chunked)는 gzip 헤더를 읽지 않고 빈 스트림으로 돌려준다.
+     */
+    private static final class GzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(delegate.getHeaders());
+            copy.remove(HttpHeaders.CONTENT_ENCODING);
+            copy.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                PushbackInputStream raw = new PushbackInputStream(delegate.getBody());
+                int first = raw.read();
+                if (first == -1) {
+                    body = InputStream.nullInputStream();
+                } else {
+                    raw.unread(first);
+                    body = new GZIPInputStream(raw);
+                }
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.biorad.csrag.infrastructure.http;
+
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 대상/호스트별 아웃바운드 HTTP 카운터.
+ *
+ * <p>TLS 핸드셰이크는 {@link CountingSslContext}가 호스트 단위로만 알 수 있으므로 별도 맵에 쌓고,
+ * 조회 시 같은 호스트의 요청 수와 합쳐 커넥션 재사용 건수를 계산한다.
+ * 지연시간 분포는 {@code HTTP_CLIENT} 카테고리로 {@link LatencyHistogramRegistry}에도 기록한다.
+ */
+final class OutboundHttpMetrics {
+
+    private final ConcurrentHashMap<String, HostCounters> hosts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> tlsHandshakes = new ConcurrentHashMap<>();
+    private final LatencyHistogramRegistry latencyHistograms;
+
+    OutboundHttpMetrics(LatencyHistogramRegistry latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    HostCounters host(String target, String host) {
+        String safeHost = host == null ? "-" : host;
+        return hosts.computeIfAbsent(target + "|" + safeHost, k -> new HostCounters(target, safeHost));
+    }
+
+    void onTlsHandshake(String host) {
+        tlsHandshakes.computeIfAbsent(host, k -> new LongAdder()).increment();
+    }
+
+    List<OutboundHttpTransport.HostStats> snapshot() {
+        List<OutboundHttpTransport.HostStats> result = new ArrayList<>();
+        hosts.values().forEach(c -> {
+            long requests = c.requests.sum();
+            LongAdder handshakes = tlsHandshakes.get(c.host);
+            long tls = handshakes == null ? 0 : handshakes.sum();
+            result.add(new OutboundHttpTransport.HostStats(
+                    c.target,
+                    c.host,
+                    requests,
+                    c.inFlight.get(),
+                    c.errors.sum(),
+                    tls,
+                    tls == 0 ? -1 : Math.max(0, requests - tls),
+                    requests == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(c.latencyNanos.sum() / requests),
+                    TimeUnit.NANOSECONDS.toMillis(c.maxLatencyNanos.get())
+            ));
+        });
+        result.sort(Comparator.comparing(OutboundHttpTransport.HostStats::target)
+                .thenComparing(OutboundHttpTransport.HostStats::host));
+        return result;
+    }
+
+    final class HostCounters {
+        private final String target;
+        private final String host;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private HostCounters(String target, String host) {
+            this.target = target;
+            this.host = host;
+        }
+
+        void begin() {
+            inFlight.incrementAndGet();
+        }
+
+        void end(long elapsedNanos, boolean failed) {
+            inFlight.decrementAndGet();
+            requests.increment();
+            latencyNanos.add(elapsedNanos);
+            maxLatencyNanos.accumulate(elapsedNanos);
+            if (failed) {
+                errors.increment();
+            }
+            if (latencyHistograms != null) {
+                latencyHistograms.recordNanos("HTTP_CLIENT", target, null, host, elapsedNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.biorad.csrag.infrastructure.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 외부 AI/벡터 호출용 공용 HTTP 전송 계층 설정 ({@code app.outbound-http.*}).
+ *
+ * <p>{@code targets}의 키는 {@link OutboundHttpTransport#builder}에 넘기는 대상 이름({@code openai}, {@code qdrant})이며,
+ * 지정하지 않은 값은 전역 기본값을 따른다.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.outbound-http")
+public class OutboundHttpProperties {
+
+    private long connectTimeoutMs = 5_000;
+    private long readTimeoutMs = 60_000;
+    private boolean gzip = true;
+    private Map<String, Target> targets = new LinkedHashMap<>();
+
+    public long getConnectTimeoutMs() { return connectTimeoutMs; }
+    public void setConnectTimeoutMs(long connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+    public long getReadTimeoutMs() { return readTimeoutMs; }
+    public void setReadTimeoutMs(long readTimeoutMs) { this.readTimeoutMs = readTimeoutMs; }
+
+    public boolean isGzip() { return gzip; }
+    public void setGzip(boolean gzip) { this.gzip = gzip; }
+
+    public Map<String, Target> getTargets() { return targets; }
+    public void setTargets(Map<String, Target> targets) { this.targets = targets; }
+
+    long readTimeoutMs(String target) {
+        Target t = targets.get(target);
+        return t != null && t.getReadTimeoutMs() > 0 ? t.getReadTimeoutMs() : readTimeoutMs;
+    }
+
+    boolean gzip(String target) {
+        Target t = targets.get(target);
+        return t != null && t.getGzip() != null ? t.getGzip() : gzip;
+    }
+
+    public static class Target {
+        private long readTimeoutMs;
+        private Boolean gzip;
+
+        public long getReadTimeoutMs() { return readTimeoutMs; }
+        public void setReadTimeoutMs(long readTimeoutMs) { this.readTimeoutMs = readTimeoutMs; }
+
+        public Boolean getGzip() { return gzip; }
+        public void setGzip(Boolean gzip) { this.gzip = gzip; }
+    }
+}
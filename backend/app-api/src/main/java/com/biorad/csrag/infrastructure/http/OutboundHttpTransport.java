@@ -0,0 +1,119 @@
+package com.biorad.csrag.infrastructure.http;
+
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * OpenAI/Qdrant 등 외부 AI·벡터 호출이 공유하는 HTTP 전송 계층.
+ *
+ * <p>JDK {@link HttpClient} 하나(HTTPS는 ALPN으로 HTTP/2, 평문은 HTTP/1.1)를 프로세스 전체가 공유하므로
+ * 서비스마다 커넥션 풀이 따로 생기지 않고, rerank/compose 호출마다 TCP·TLS 연결을 다시 맺지 않는다.
+ * <ul>
+ *   <li>연결 타임아웃은 공통, 응답 타임아웃은 대상별({@code app.outbound-http.targets.<name>.read-timeout-ms})</li>
+ *   <li>gzip 요청/해제, 응답 body 스트리밍 유지</li>
+ *   <li>대상·호스트별 요청 수, in-flight, 오류, TLS 핸드셰이크, 커넥션 재사용, 지연시간 집계</li>
+ * </ul>
+ *
+ * <p>유휴 커넥션 유지 시간은 JDK가 커넥션 풀 클래스 초기화 시 한 번만 읽는 시스템 프로퍼티라 여기서 바꾸지 않는다.
+ * JVM 옵션 {@code -Djdk.httpclient.keepalive.timeout=<초>}(HTTP/2는 {@code .h2})로 지정한다 — 컨테이너는
+ * {@code backend/Dockerfile}의 {@code ENTRYPOINT}에서 300초로 준다.
+ */
+@Component
+public class OutboundHttpTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundHttpTransport.class);
+
+    private final OutboundHttpProperties properties;
+    private final OutboundHttpMetrics metrics;
+    private final HttpClient http2Client;
+    private final HttpClient http11Client;
+
+    public OutboundHttpTransport(OutboundHttpProperties properties, LatencyHistogramRegistry latencyHistograms) {
+        this.properties = properties;
+        this.metrics = new OutboundHttpMetrics(latencyHistograms);
+
+        SSLContext sslContext = new CountingSslContext(defaultSslContext(), metrics::onTlsHandshake);
+        Duration connectTimeout = Duration.ofMillis(properties.getConnectTimeoutMs());
+        this.http2Client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .sslContext(sslContext)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        // 평문 HTTP/2는 h2c 업그레이드 요청을 보내는데, 이를 처리하지 못하는 서버가 있어 1.1로 고정한다
+        this.http11Client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .sslContext(sslContext)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * 공용 클라이언트를 쓰는 {@link RestClient.Builder}를 만든다.
+     * 호출자가 추가하는 인터셉터는 전송 계층 인터셉터보다 바깥에서 실행된다.
+     *
+     * @param target 설정/지표용 대상 이름 (예: {@code openai}, {@code qdrant})
+     */
+    public RestClient.Builder builder(String target, String baseUrl) {
+        HttpClient client = isHttps(baseUrl) ? http2Client : http11Client;
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(client);
+        requestFactory.setReadTimeout(Duration.ofMillis(properties.readTimeoutMs(target)));
+
+        return RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .requestInterceptor(new OutboundHttpInterceptor(target, properties.gzip(target), metrics));
+    }
+
+    public List<HostStats> getStats() {
+        return metrics.snapshot();
+    }
+
+    private static boolean isHttps(String baseUrl) {
+        try {
+            String scheme = URI.create(baseUrl).getScheme();
+            return scheme != null && scheme.toLowerCase(Locale.ROOT).equals("https");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static SSLContext defaultSslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("default SSLContext unavailable", e);
+        }
+    }
+
+    /**
+     * 대상·호스트별 전송 지표.
+     *
+     * @param tlsHandshakes   새 TLS 커넥션 수 (평문 대상은 0)
+     * @param reusedRequests  기존 커넥션으로 처리된 요청 수 (TLS 핸드셰이크가 없으면 측정 불가로 -1)
+     */
+    public record HostStats(
+            String target,
+            String host,
+            long requests,
+            int inFlight,
+            long errors,
+            long tlsHandshakes,
+            long reusedRequests,
+            long avgLatencyMs,
+            long maxLatencyMs
+    ) {}
+}
@@ -0,0 +1,41 @@
+package com.biorad.csrag.infrastructure.openai;
+
+import com.biorad.csrag.infrastructure.http.OutboundHttpTransport;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateLimitInterceptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * OpenAI 호출용 {@link RestClient} 생성기.
+ *
+ * <p>각 OpenAI 서비스가 직접 {@code RestClient.builder()}를 구성하던 것을 대신하며,
+ * 인증/Content-Type 헤더와 공용 {@link OpenAiRateGovernor} 인터셉터를 일괄 적용한다.
+ * 커넥션은 {@link OutboundHttpTransport}의 공용 클라이언트({@code openai} 대상)를 사용한다.
+ */
+@Component
+public class OpenAiRestClientFactory {
+
+    private final OpenAiRateGovernor rateGovernor;
+    private final OutboundHttpTransport transport;
+
+    public OpenAiRestClientFactory(OpenAiRateGovernor rateGovernor, OutboundHttpTransport transport) {
+        this.rateGovernor = rateGovernor;
+        this.transport = transport;
+    }
+
+    /**
+     * @param lane 파이프라인 추적 밖에서 호출될 때 적용할 기본 우선순위
+     */
+    public RestClient create(String baseUrl, String apiKey, OpenAiRateGovernor.Lane lane) {
+        OpenAiRateLimitInterceptor rateLimit = new OpenAiRateLimitInterceptor(rateGovernor, lane);
+        return transport.builder("openai", baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                // rate limit 대기는 전송 계층 지연시간에 섞이지 않도록 가장 바깥에서 실행한다
+                .requestInterceptors(interceptors -> interceptors.add(0, rateLimit))
+                .build();
+    }
+}
@@ -8,13 +8,16 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
- * ThreadLocal 기반 파이프라인 실행 추적.
+ * 파이프라인 실행 추적.
  * 각 LLM 호출의 토큰 사용량을 누적하여 파이프라인 완료 시 합산.
  *
  * <p>사용 패턴:
@@ -27,12 +30,22 @@ import java.util.Map;
  *       traceLogger.logTrace(trace);
  *   }
  * </pre>
+ *
+ * <p>현재 추적은 스레드에 바인딩되지만 {@link PipelineTrace} 자체는 thread-safe 하다.
+ * 단계를 다른 스레드(병렬 검색, {@code @Async}, virtual thread fan-out)에서 실행할 때는
+ * {@link #wrap(Runnable)} / {@link #wrap(Callable)} / {@link #wrap(Executor)}로 작업을 감싸거나
+ * {@link #attach(PipelineTrace)}로 명시적으로 추적을 넘겨야 해당 스레드의 LLM 호출이 같은 추적에 누적된다.
+ * <pre>
+ *   Executor traced = PipelineTraceContext.wrap(executor);
+ *   CompletableFuture.supplyAsync(() -> retrieve(q), traced);
+ * </pre>
  */
 public final class PipelineTraceContext {
 
     private static final Logger log = LoggerFactory.getLogger(PipelineTraceContext.class);
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final ThreadLocal<PipelineTrace> CURRENT = new ThreadLocal<>();
+    private static volatile LlmCallListener llmCallListener;
 
     private PipelineTraceContext() {}
 
@@ -45,16 +58,36 @@ public final class PipelineTraceContext {
 
     /**
      * 현재 파이프라인 추적에 LLM 호출 기록을 추가한다.
-     * 추적이 시작되지 않은 상태에서 호출하면 아무 동작도 하지 않는다 (no-op).
+     * 추적이 시작되지 않은 상태에서는 기록하지 않으며, 등록된 {@link LlmCallListener}에만 전달한다.
      */
     public static void recordLlmCall(String step, String model,
                                      int inputTokens, int outputTokens,
                                      long latencyMs) {
         PipelineTrace trace = CURRENT.get();
+        LlmCallListener listener = llmCallListener;
+        if (trace == null && listener == null) {
+            return;
+        }
+        LlmCallRecord record = new LlmCallRecord(
+                step, model, inputTokens, outputTokens, latencyMs, Instant.now());
         if (trace != null) {
-            trace.addCall(new LlmCallRecord(
-                    step, model, inputTokens, outputTokens, latencyMs, Instant.now()));
+            trace.addCall(record);
         }
+        if (listener != null) {
+            try {
+                listener.onLlmCall(record);
+            } catch (RuntimeException e) {
+                log.debug("pipeline.trace.listener 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 모든 LLM 호출을 관찰하는 리스너를 등록한다 (지연시간 히스토그램 등).
+     * {@code null}을 전달하면 해제한다.
+     */
+    public static void setLlmCallListener(LlmCallListener listener) {
+        llmCallListener = listener;
     }
 
     /**
@@ -111,6 +144,76 @@ public final class PipelineTraceContext {
         return trace != null ? trace.tokenUsageDetailJson() : "[]";
     }
 
+    /**
+     * 주어진 추적을 현재 스레드에 바인딩한다. 반환된 {@link Scope}를 닫으면 이전 추적으로 복원된다.
+     * {@code trace}가 {@code null}이면 스코프 동안 추적이 해제된다.
+     */
+    public static Scope attach(PipelineTrace trace) {
+        PipelineTrace previous = CURRENT.get();
+        bind(trace);
+        return () -> bind(previous);
+    }
+
+    /**
+     * 호출 시점의 추적을 캡처해, 작업이 실행되는 스레드에서 같은 추적을 사용하도록 감싼다.
+     */
+    public static Runnable wrap(Runnable task) {
+        PipelineTrace captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = attach(captured)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * {@link #wrap(Runnable)}의 {@link Callable} 버전.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        PipelineTrace captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = attach(captured)) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * {@link #wrap(Runnable)}의 {@link Supplier} 버전 ({@code CompletableFuture.supplyAsync} 용).
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        PipelineTrace captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = attach(captured)) {
+                return task.get();
+            }
+        };
+    }
+
+    /**
+     * 제출 시점의 추적을 자식 작업으로 전달하는 {@link Executor}를 반환한다.
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    private static void bind(PipelineTrace trace) {
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+    }
+
     /**
      * 파이프라인 추적을 종료하고 결과를 반환한다. ThreadLocal을 정리한다.
      *
@@ -133,6 +236,23 @@ public final class PipelineTraceContext {
 
     // ── Inner types ──────────────────────────────────────────────
 
+    /**
+     * {@link #attach(PipelineTrace)}로 바인딩한 추적의 해제 핸들. 예외를 던지지 않는다.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * LLM 호출 관찰자. 호출 스레드에서 동기적으로 실행되므로 가벼워야 한다.
+     */
+    @FunctionalInterface
+    public interface LlmCallListener {
+        void onLlmCall(LlmCallRecord call);
+    }
+
     /**
      * 단계별 토큰 사용량 요약.
      */
@@ -156,12 +276,13 @@ public final class PipelineTraceContext {
 
     /**
      * 파이프라인 실행 전체 추적 데이터.
+     * 여러 스레드가 동시에 호출을 기록할 수 있으며, 조회 메서드는 호출 시점의 스냅샷을 기준으로 계산한다.
      */
     public static class PipelineTrace {
 
         private final String inquiryId;
         private final Instant startTime;
-        private final List<LlmCallRecord> calls = new ArrayList<>();
+        private final List<LlmCallRecord> calls = new CopyOnWriteArrayList<>();
 
         /**
          * 모델별 1M 토큰당 USD 비용 (input, output).
@@ -199,7 +320,7 @@ public final class PipelineTraceContext {
         }
 
         public List<LlmCallRecord> getCalls() {
-            return Collections.unmodifiableList(calls);
+            return List.copyOf(calls);
         }
 
         public int totalInputTokens() {
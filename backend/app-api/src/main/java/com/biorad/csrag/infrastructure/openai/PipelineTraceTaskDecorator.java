@@ -0,0 +1,14 @@
+package com.biorad.csrag.infrastructure.openai;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Spring {@code TaskExecutor}에 등록해 {@code @Async} 작업으로 현재 {@link PipelineTraceContext} 추적을 전달한다.
+ */
+public class PipelineTraceTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return PipelineTraceContext.wrap(runnable);
+    }
+}
@@ -0,0 +1,206 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 모델 하나에 대한 요청 수(RPM) + 토큰 수(TPM) 이중 token bucket.
+ *
+ * <p>두 버킷 모두 1분 용량만큼 채워지며 초당 {@code 용량/60} 속도로 연속 보충된다.
+ * <ul>
+ *   <li>{@link OpenAiRateGovernor.Lane#INTERACTIVE} — 버킷 전체를 사용할 수 있다.</li>
+ *   <li>{@link OpenAiRateGovernor.Lane#BACKGROUND} — 예약 비율만큼은 남겨 두어야 하며,
+ *       interactive 대기자가 있는 동안에는 입장하지 못한다.</li>
+ * </ul>
+ * 입장할 수 없으면 보충 예상 시각까지 대기하되, 마감 시각을 넘기면 {@link RateLimitTimeoutException}을 던진다.
+ */
+final class ModelRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final String model;
+    private final double backgroundReserveRatio;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // lock으로 보호
+    private double rpmCapacity;
+    private double tpmCapacity;
+    private double requestLevel;
+    private double tokenLevel;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private int interactiveWaiting;
+
+    private final Map<OpenAiRateGovernor.Lane, LaneCounters> counters = new EnumMap<>(OpenAiRateGovernor.Lane.class);
+    private final LongAdder throttled = new LongAdder();
+
+    ModelRateLimiter(String model, int rpm, int tpm, double backgroundReserveRatio, LongSupplier nanoClock) {
+        this.model = model;
+        this.backgroundReserveRatio = Math.max(0.0, Math.min(0.9, backgroundReserveRatio));
+        this.nanoClock = nanoClock;
+        this.rpmCapacity = Math.max(1, rpm);
+        this.tpmCapacity = Math.max(1, tpm);
+        this.requestLevel = rpmCapacity;
+        this.tokenLevel = tpmCapacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        for (OpenAiRateGovernor.Lane lane : OpenAiRateGovernor.Lane.values()) {
+            counters.put(lane, new LaneCounters());
+        }
+    }
+
+    /**
+     * 요청 1건과 {@code estimatedTokens}만큼의 토큰을 확보한다.
+     *
+     * @return 대기한 시간(ns)
+     * @throws RateLimitTimeoutException {@code maxWaitNanos} 안에 확보하지 못한 경우
+     */
+    long acquire(OpenAiRateGovernor.Lane lane, int estimatedTokens, long maxWaitNanos) throws InterruptedException {
+        long start = nanoClock.getAsLong();
+        long deadline = start + Math.max(0, maxWaitNanos);
+        boolean interactive = lane == OpenAiRateGovernor.Lane.INTERACTIVE;
+        LaneCounters laneCounters = counters.get(lane);
+
+        lock.lock();
+        if (interactive) {
+            interactiveWaiting++;
+        }
+        try {
+            while (true) {
+                long now = nanoClock.getAsLong();
+                refill(now);
+                double reserve = interactive ? 0.0 : backgroundReserveRatio;
+                double tokens = Math.min(Math.max(0, estimatedTokens), tpmCapacity * (1.0 - reserve));
+                boolean priorityBlocked = !interactive && interactiveWaiting > 0;
+                boolean paused = now < pausedUntilNanos;
+
+                if (!priorityBlocked && !paused
+                        && requestLevel - 1.0 >= rpmCapacity * reserve
+                        && tokenLevel - tokens >= tpmCapacity * reserve) {
+                    requestLevel -= 1.0;
+                    tokenLevel -= tokens;
+                    long waited = now - start;
+                    laneCounters.admitted.increment();
+                    laneCounters.waitNanos.add(waited);
+                    return waited;
+                }
+
+                long wait = paused ? pausedUntilNanos - now
+                        : priorityBlocked ? MIN_WAIT_NANOS
+                        : nanosUntilAvailable(tokens, reserve);
+                wait = Math.max(MIN_WAIT_NANOS, wait);
+                if (now + wait > deadline) {
+                    laneCounters.rejected.increment();
+                    throw new RateLimitTimeoutException(model, lane, TimeUnit.NANOSECONDS.toMillis(now - start));
+                }
+                changed.awaitNanos(wait);
+            }
+        } finally {
+            if (interactive) {
+                interactiveWaiting--;
+                changed.signalAll();
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 응답 헤더 기반 보정. 서버가 알려준 한도/잔량이 로컬 추정보다 엄격하면 그 값을 따른다.
+     */
+    void adapt(RateLimitHeaders headers) {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            refill(now);
+            if (headers.limitRequests() > 0) {
+                rpmCapacity = headers.limitRequests();
+            }
+            if (headers.limitTokens() > 0) {
+                tpmCapacity = headers.limitTokens();
+            }
+            if (headers.remainingRequests() >= 0) {
+                requestLevel = Math.min(requestLevel, headers.remainingRequests());
+            }
+            if (headers.remainingTokens() >= 0) {
+                tokenLevel = Math.min(tokenLevel, headers.remainingTokens());
+            }
+            requestLevel = Math.min(requestLevel, rpmCapacity);
+            tokenLevel = Math.min(tokenLevel, tpmCapacity);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 429 응답을 받으면 지정 시간 동안 이 모델의 모든 입장을 멈춘다.
+     */
+    void pause(long pauseNanos) {
+        lock.lock();
+        try {
+            throttled.increment();
+            pausedUntilNanos = Math.max(pausedUntilNanos, nanoClock.getAsLong() + pauseNanos);
+            requestLevel = Math.min(requestLevel, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    OpenAiRateGovernor.ModelStats stats() {
+        lock.lock();
+        try {
+            refill(nanoClock.getAsLong());
+            Map<String, OpenAiRateGovernor.LaneStats> lanes = new LinkedHashMap<>();
+            counters.forEach((lane, c) -> {
+                long admitted = c.admitted.sum();
+                lanes.put(lane.name(), new OpenAiRateGovernor.LaneStats(
+                        admitted,
+                        c.rejected.sum(),
+                        admitted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(c.waitNanos.sum() / admitted)));
+            });
+            return new OpenAiRateGovernor.ModelStats(
+                    model,
+                    (long) rpmCapacity,
+                    (long) tpmCapacity,
+                    (long) Math.floor(requestLevel),
+                    (long) Math.floor(tokenLevel),
+                    throttled.sum(),
+                    interactiveWaiting,
+                    lanes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed <= 0) {
+            return;
+        }
+        lastRefillNanos = now;
+        requestLevel = Math.min(rpmCapacity, requestLevel + rpmCapacity * elapsed / NANOS_PER_MINUTE);
+        tokenLevel = Math.min(tpmCapacity, tokenLevel + tpmCapacity * elapsed / NANOS_PER_MINUTE);
+    }
+
+    private long nanosUntilAvailable(double tokens, double reserve) {
+        double requestDeficit = (rpmCapacity * reserve + 1.0) - requestLevel;
+        double tokenDeficit = (tpmCapacity * reserve + tokens) - tokenLevel;
+        long requestWait = requestDeficit <= 0 ? 0 : (long) Math.ceil(requestDeficit / rpmCapacity * NANOS_PER_MINUTE);
+        long tokenWait = tokenDeficit <= 0 ? 0 : (long) Math.ceil(tokenDeficit / tpmCapacity * NANOS_PER_MINUTE);
+        return Math.max(requestWait, tokenWait);
+    }
+
+    private static final class LaneCounters {
+        final LongAdder admitted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+    }
+}
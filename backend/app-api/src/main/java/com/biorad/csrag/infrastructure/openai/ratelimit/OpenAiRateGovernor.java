@@ -0,0 +1,130 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 프로세스 전체의 OpenAI 아웃바운드 호출 속도 제어기.
+ *
+ * <p>모든 OpenAI {@code RestClient}는 {@link OpenAiRateLimitInterceptor}를 통해 이 governor를 거친다.
+ * 모델별로 RPM/TPM token bucket({@link ModelRateLimiter})을 두고, 호출을 두 lane으로 나눠 입장시킨다.
+ * <ul>
+ *   <li>{@link Lane#INTERACTIVE} — 답변 초안 파이프라인(compose, rerank, verify, critic, 분해, 에이전트)</li>
+ *   <li>{@link Lane#BACKGROUND} — 인덱싱 시 청크 enrichment, 메타데이터 분석, 문서 임베딩</li>
+ * </ul>
+ * KB 대량 재인덱싱이 계정 한도를 모두 소진해 interactive 호출이 429 backoff에 빠지는 것을 막는다.
+ */
+@Component
+public class OpenAiRateGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiRateGovernor.class);
+
+    public enum Lane { INTERACTIVE, BACKGROUND }
+
+    private final OpenAiRateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, ModelRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OpenAiRateGovernor(OpenAiRateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    OpenAiRateGovernor(OpenAiRateLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 호출 권한을 얻을 때까지 lane별 최대 대기 시간만큼 기다린다.
+     *
+     * @throws RateLimitTimeoutException 대기 마감 초과
+     */
+    public void acquire(String model, Lane lane, int estimatedTokens) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long maxWaitMs = lane == Lane.INTERACTIVE
+                ? properties.getInteractiveMaxWaitMs()
+                : properties.getBackgroundMaxWaitMs();
+        try {
+            long waitedNanos = limiter(model).acquire(lane, estimatedTokens, TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+            if (waitedNanos > TimeUnit.SECONDS.toNanos(1)) {
+                log.info("openai.ratelimit.queued model={} lane={} waitedMs={} estimatedTokens={}",
+                        model, lane, TimeUnit.NANOSECONDS.toMillis(waitedNanos), estimatedTokens);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitTimeoutException(model, lane, 0);
+        }
+    }
+
+    /**
+     * 응답 헤더로 버킷을 보정하고, 429이면 retry-after 동안 해당 모델의 입장을 멈춘다.
+     */
+    public void onResponse(String model, int statusCode, HttpHeaders headers) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RateLimitHeaders parsed = RateLimitHeaders.from(headers);
+        ModelRateLimiter limiter = limiter(model);
+        if (!parsed.isEmpty()) {
+            limiter.adapt(parsed);
+        }
+        if (statusCode == 429) {
+            long pauseMs = parsed.pauseMs(properties.getDefaultRetryAfterMs());
+            limiter.pause(TimeUnit.MILLISECONDS.toNanos(pauseMs));
+            log.warn("openai.ratelimit.429 model={} pauseMs={} remainingRequests={} remainingTokens={}",
+                    model, pauseMs, parsed.remainingRequests(), parsed.remainingTokens());
+        }
+    }
+
+    public List<ModelStats> getStats() {
+        List<ModelStats> stats = new ArrayList<>();
+        limiters.values().forEach(l -> stats.add(l.stats()));
+        stats.sort(Comparator.comparing(ModelStats::model));
+        return stats;
+    }
+
+    private ModelRateLimiter limiter(String model) {
+        String key = model == null || model.isBlank() ? "-" : model.toLowerCase(Locale.ROOT);
+        return limiters.computeIfAbsent(key, k -> {
+            OpenAiRateLimitProperties.ModelLimit configured = properties.getModels().get(k);
+            int rpm = configured != null && configured.getRpm() > 0 ? configured.getRpm() : properties.getDefaultRpm();
+            int tpm = configured != null && configured.getTpm() > 0 ? configured.getTpm() : properties.getDefaultTpm();
+            return new ModelRateLimiter(k, rpm, tpm, properties.getBackgroundReserveRatio(), nanoClock);
+        });
+    }
+
+    /**
+     * 모델별 버킷 상태.
+     */
+    public record ModelStats(
+            String model,
+            long rpmLimit,
+            long tpmLimit,
+            long availableRequests,
+            long availableTokens,
+            long throttled429,
+            int interactiveWaiting,
+            Map<String, LaneStats> lanes
+    ) {}
+
+    public record LaneStats(long admitted, long rejected, long avgWaitMs) {}
+}
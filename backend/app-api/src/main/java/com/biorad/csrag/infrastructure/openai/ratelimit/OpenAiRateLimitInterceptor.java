@@ -0,0 +1,92 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import com.biorad.csrag.infrastructure.openai.PipelineTraceContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * OpenAI 요청마다 {@link OpenAiRateGovernor} 입장 → 실행 → 응답 헤더 보정을 수행하는 인터셉터.
+ *
+ * <p>요청 body에서 {@code model}과 출력 토큰 상한을 읽어 토큰 사용량을 추정한다
+ * (입력은 문자열 값의 UTF-8 바이트 수 / 4, 이미지는 장당 고정값, 출력은 {@code max_completion_tokens} 또는 {@code max_tokens}).
+ * 파이프라인 추적이 진행 중인 스레드의 호출은 클라이언트 기본 lane과 관계없이 interactive로 처리한다
+ * — 예: 답변 초안 중 질의 임베딩.
+ */
+public class OpenAiRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int BYTES_PER_TOKEN = 4;
+    /** base64 이미지 길이로 추정하면 수십만 토큰이 되므로 high-detail 이미지 한 장 수준의 고정값을 쓴다. */
+    private static final int TOKENS_PER_IMAGE = 1_000;
+
+    private final OpenAiRateGovernor governor;
+    private final OpenAiRateGovernor.Lane defaultLane;
+
+    public OpenAiRateLimitInterceptor(OpenAiRateGovernor governor, OpenAiRateGovernor.Lane defaultLane) {
+        this.governor = governor;
+        this.defaultLane = defaultLane;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        if (!governor.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        RequestEstimate estimate = estimate(body);
+        OpenAiRateGovernor.Lane lane = PipelineTraceContext.current() != null
+                ? OpenAiRateGovernor.Lane.INTERACTIVE
+                : defaultLane;
+
+        governor.acquire(estimate.model(), lane, estimate.tokens());
+        ClientHttpResponse response = execution.execute(request, body);
+        governor.onResponse(estimate.model(), response.getStatusCode().value(), response.getHeaders());
+        return response;
+    }
+
+    static RequestEstimate estimate(byte[] body) {
+        if (body == null || body.length == 0) {
+            return new RequestEstimate(null, 0);
+        }
+        try {
+            JsonNode root = MAPPER.readTree(body);
+            String model = root.path("model").asText(null);
+            int maxOutput = root.path("max_completion_tokens").asInt(root.path("max_tokens").asInt(0));
+            long inputTokens = textTokens(root.path("messages")) + textTokens(root.path("input"));
+            return new RequestEstimate(model, (int) Math.min(Integer.MAX_VALUE, inputTokens + Math.max(0, maxOutput)));
+        } catch (IOException e) {
+            return new RequestEstimate(null, body.length / BYTES_PER_TOKEN);
+        }
+    }
+
+    private static long textTokens(JsonNode node) {
+        if (node == null || node.isMissingNode() || node.isNull()) {
+            return 0;
+        }
+        if (node.isTextual()) {
+            return node.asText().getBytes(StandardCharsets.UTF_8).length / BYTES_PER_TOKEN + 1;
+        }
+        long total = 0;
+        if (node.isObject()) {
+            var fields = node.fields();
+            while (fields.hasNext()) {
+                var field = fields.next();
+                total += "image_url".equals(field.getKey()) ? TOKENS_PER_IMAGE : textTokens(field.getValue());
+            }
+        } else if (node.isArray()) {
+            for (JsonNode child : node) {
+                total += textTokens(child);
+            }
+        }
+        return total;
+    }
+
+    record RequestEstimate(String model, int tokens) {}
+}
@@ -0,0 +1,63 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * OpenAI 아웃바운드 호출 속도 제한 설정 ({@code openai.rate-limit.*}).
+ *
+ * <p>모델별 RPM/TPM 초기값이며, 실제 응답의 {@code x-ratelimit-limit-*} 헤더를 받으면 그 값으로 갱신된다.
+ */
+@Component
+@ConfigurationProperties(prefix = "openai.rate-limit")
+public class OpenAiRateLimitProperties {
+
+    private boolean enabled = true;
+    private int defaultRpm = 500;
+    private int defaultTpm = 200_000;
+    /** 백그라운드 lane이 건드리지 못하는 버킷 비율 (interactive 전용 예약분). */
+    private double backgroundReserveRatio = 0.2;
+    private long interactiveMaxWaitMs = 15_000;
+    private long backgroundMaxWaitMs = 120_000;
+    /** 429 응답에 retry-after/reset 헤더가 없을 때의 기본 정지 시간. */
+    private long defaultRetryAfterMs = 1_000;
+    private Map<String, ModelLimit> models = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getDefaultRpm() { return defaultRpm; }
+    public void setDefaultRpm(int defaultRpm) { this.defaultRpm = defaultRpm; }
+
+    public int getDefaultTpm() { return defaultTpm; }
+    public void setDefaultTpm(int defaultTpm) { this.defaultTpm = defaultTpm; }
+
+    public double getBackgroundReserveRatio() { return backgroundReserveRatio; }
+    public void setBackgroundReserveRatio(double backgroundReserveRatio) { this.backgroundReserveRatio = backgroundReserveRatio; }
+
+    public long getInteractiveMaxWaitMs() { return interactiveMaxWaitMs; }
+    public void setInteractiveMaxWaitMs(long interactiveMaxWaitMs) { this.interactiveMaxWaitMs = interactiveMaxWaitMs; }
+
+    public long getBackgroundMaxWaitMs() { return backgroundMaxWaitMs; }
+    public void setBackgroundMaxWaitMs(long backgroundMaxWaitMs) { this.backgroundMaxWaitMs = backgroundMaxWaitMs; }
+
+    public long getDefaultRetryAfterMs() { return defaultRetryAfterMs; }
+    public void setDefaultRetryAfterMs(long defaultRetryAfterMs) { this.defaultRetryAfterMs = defaultRetryAfterMs; }
+
+    public Map<String, ModelLimit> getModels() { return models; }
+    public void setModels(Map<String, ModelLimit> models) { this.models = models; }
+
+    public static class ModelLimit {
+        private int rpm;
+        private int tpm;
+
+        public int getRpm() { return rpm; }
+        public void setRpm(int rpm) { this.rpm = rpm; }
+
+        public int getTpm() { return tpm; }
+        public void setTpm(int tpm) { this.tpm = tpm; }
+    }
+}
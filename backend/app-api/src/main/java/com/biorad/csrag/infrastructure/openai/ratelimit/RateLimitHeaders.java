@@ -0,0 +1,89 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAI 응답의 {@code x-ratelimit-*} / {@code retry-after} 헤더 파싱 결과.
+ * 값이 없으면 {@code -1}.
+ *
+ * @param resetRequestsMs {@code x-ratelimit-reset-requests} ("1s", "6m0s", "20ms" 형식)
+ * @param retryAfterMs    {@code retry-after-ms} 또는 {@code retry-after}(초)
+ */
+record RateLimitHeaders(
+        long limitRequests,
+        long limitTokens,
+        long remainingRequests,
+        long remainingTokens,
+        long resetRequestsMs,
+        long resetTokensMs,
+        long retryAfterMs
+) {
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    static RateLimitHeaders from(HttpHeaders headers) {
+        long retryAfterMs = parseLong(headers.getFirst("retry-after-ms"));
+        if (retryAfterMs < 0) {
+            long seconds = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            retryAfterMs = seconds < 0 ? -1 : seconds * 1000;
+        }
+        return new RateLimitHeaders(
+                parseLong(headers.getFirst("x-ratelimit-limit-requests")),
+                parseLong(headers.getFirst("x-ratelimit-limit-tokens")),
+                parseLong(headers.getFirst("x-ratelimit-remaining-requests")),
+                parseLong(headers.getFirst("x-ratelimit-remaining-tokens")),
+                parseDurationMs(headers.getFirst("x-ratelimit-reset-requests")),
+                parseDurationMs(headers.getFirst("x-ratelimit-reset-tokens")),
+                retryAfterMs
+        );
+    }
+
+    boolean isEmpty() {
+        return limitRequests < 0 && limitTokens < 0 && remainingRequests < 0 && remainingTokens < 0;
+    }
+
+    /**
+     * 429 이후 정지해야 할 시간. retry-after가 우선이며, 없으면 reset 헤더 중 큰 값을 쓴다.
+     */
+    long pauseMs(long defaultMs) {
+        if (retryAfterMs >= 0) {
+            return retryAfterMs;
+        }
+        long reset = Math.max(resetRequestsMs, resetTokensMs);
+        return reset >= 0 ? reset : defaultMs;
+    }
+
+    static long parseDurationMs(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        Matcher m = DURATION_PART.matcher(value.trim());
+        double total = 0;
+        boolean matched = false;
+        while (m.find()) {
+            matched = true;
+            double amount = Double.parseDouble(m.group(1));
+            total += switch (m.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1_000;
+                default -> amount;
+            };
+        }
+        return matched ? (long) Math.ceil(total) : -1;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return (long) Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import com.biorad.csrag.common.exception.ExternalServiceException;
+
+/**
+ * 속도 제한 대기열에서 마감 시각 안에 호출 권한을 얻지 못한 경우.
+ * 호출 측의 기존 OpenAI 실패 처리(폴백)가 그대로 적용되도록 {@link ExternalServiceException}을 상속한다.
+ */
+public class RateLimitTimeoutException extends ExternalServiceException {
+
+    private final String model;
+    private final OpenAiRateGovernor.Lane lane;
+
+    public RateLimitTimeoutException(String model, OpenAiRateGovernor.Lane lane, long waitedMs) {
+        super("OpenAI", "rate limit queue timeout: model=" + model + " lane=" + lane + " waitedMs=" + waitedMs);
+        this.model = model;
+        this.lane = lane;
+    }
+
+    public String getModel() { return model; }
+
+    public OpenAiRateGovernor.Lane getLane() { return lane; }
+}
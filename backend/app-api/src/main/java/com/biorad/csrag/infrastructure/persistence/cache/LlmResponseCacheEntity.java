@@ -0,0 +1,60 @@
+package com.biorad.csrag.infrastructure.persistence.cache;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "llm_response_cache")
+public class LlmResponseCacheEntity {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "step", nullable = false, length = 30)
+    private String step;
+
+    @Column(name = "model", nullable = false, length = 100)
+    private String model;
+
+    @Column(name = "prompt_version", nullable = false, length = 16)
+    private String promptVersion;
+
+    @Column(name = "response_text", nullable = false, columnDefinition = "TEXT")
+    private String responseText;
+
+    @Column(name = "hit_count")
+    private int hitCount = 0;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public LlmResponseCacheEntity() {}
+
+    public LlmResponseCacheEntity(String cacheKey, String step, String model, String promptVersion,
+                                  String responseText, Instant createdAt, Instant expiresAt) {
+        this.cacheKey = cacheKey;
+        this.step = step;
+        this.model = model;
+        this.promptVersion = promptVersion;
+        this.responseText = responseText;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getCacheKey() { return cacheKey; }
+    public String getStep() { return step; }
+    public String getModel() { return model; }
+    public String getPromptVersion() { return promptVersion; }
+    public String getResponseText() { return responseText; }
+    public int getHitCount() { return hitCount; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,28 @@
+package com.biorad.csrag.infrastructure.persistence.cache;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface LlmResponseCacheRepository extends JpaRepository<LlmResponseCacheEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntity c WHERE c.step IN :steps")
+    int deleteBySteps(@Param("steps") Collection<String> steps);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntity c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LlmResponseCacheEntity c SET c.hitCount = c.hitCount + 1 WHERE c.cacheKey = :cacheKey")
+    void incrementHitCount(@Param("cacheKey") String cacheKey);
+}
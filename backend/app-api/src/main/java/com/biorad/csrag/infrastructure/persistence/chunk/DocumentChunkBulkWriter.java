@@ -0,0 +1,114 @@
+package com.biorad.csrag.infrastructure.persistence.chunk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 인제스트 경로의 {@code document_chunks} 대량 저장 전용 JDBC writer.
+ *
+ * <p>JPA {@code saveAll}은 ID를 직접 지정한 엔티티를 merge 하므로 청크마다 SELECT + INSERT가 나가고,
+ * 파생 {@code deleteByDocumentId}는 청크를 모두 로딩한 뒤 한 건씩 삭제한다. 여기서는
+ * <ul>
+ *   <li>삭제를 문서 단위 DELETE 한 번으로,</li>
+ *   <li>삽입을 {@link #BATCH_SIZE}행 단위 JDBC 배치로 (PostgreSQL은 {@code reWriteBatchedInserts}로 multi-row INSERT),</li>
+ *   <li>PostgreSQL의 {@code content_tsv}를 INSERT 문에서 직접 계산해 행마다 plpgsql 트리거가 돌지 않도록 (V45)</li>
+ * </ul>
+ * 처리한다. 호출자의 트랜잭션에 참여하므로 삭제·삽입이 함께 커밋·롤백된다.
+ */
+@Component
+public class DocumentChunkBulkWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String COLUMNS = """
+            id, document_id, chunk_index, start_offset, end_offset, content, source_type, source_id,
+            page_start, page_end, product_family, parent_chunk_id, chunk_level, context_prefix,
+            enriched_content, minhash_signature, token_count, created_at""";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO document_chunks (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_WITH_TSV_SQL =
+            "INSERT INTO document_chunks (" + COLUMNS + ", content_tsv) VALUES "
+                    + "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, to_tsvector('simple', normalize_korean(?)))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public DocumentChunkBulkWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${spring.datasource.driver-class-name:}") String driverClassName
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = "org.postgresql.Driver".equals(driverClassName);
+    }
+
+    /**
+     * 문서의 청크를 한 문장으로 삭제한다.
+     *
+     * @return 삭제된 행 수
+     */
+    @Transactional
+    public int deleteByDocumentId(UUID documentId) {
+        return jdbcTemplate.update("DELETE FROM document_chunks WHERE document_id = ?", documentId);
+    }
+
+    /**
+     * 청크를 JDBC 배치로 저장한다. 부모 청크가 자식보다 앞에 오도록 호출자가 정렬해 전달한다.
+     *
+     * @return 저장 요청한 행 수
+     */
+    @Transactional
+    public int insertAll(List<DocumentChunkJpaEntity> chunks) {
+        if (chunks == null || chunks.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(postgres ? INSERT_WITH_TSV_SQL : INSERT_SQL, chunks, BATCH_SIZE, (ps, chunk) -> {
+            bind(ps, chunk);
+            if (postgres) {
+                ps.setString(19, chunk.getContent());
+            }
+        });
+        return chunks.size();
+    }
+
+    private static void bind(PreparedStatement ps, DocumentChunkJpaEntity chunk) throws SQLException {
+        ps.setObject(1, chunk.getId());
+        ps.setObject(2, chunk.getDocumentId());
+        ps.setInt(3, chunk.getChunkIndex());
+        ps.setInt(4, chunk.getStartOffset());
+        ps.setInt(5, chunk.getEndOffset());
+        ps.setString(6, chunk.getContent());
+        ps.setString(7, chunk.getSourceType());
+        ps.setObject(8, chunk.getSourceId());
+        setInteger(ps, 9, chunk.getPageStart());
+        setInteger(ps, 10, chunk.getPageEnd());
+        ps.setString(11, chunk.getProductFamily());
+        ps.setObject(12, chunk.getParentChunkId());
+        ps.setString(13, chunk.getChunkLevel());
+        ps.setString(14, chunk.getContextPrefix());
+        ps.setString(15, chunk.getEnrichedContent());
+        ps.setString(16, chunk.getMinhashSignature());
+        setInteger(ps, 17, chunk.getTokenCount());
+        Instant createdAt = chunk.getCreatedAt() != null ? chunk.getCreatedAt() : Instant.now();
+        ps.setTimestamp(18, Timestamp.from(createdAt));
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -57,6 +57,12 @@ public class DocumentChunkJpaEntity {
     @Column(name = "enriched_content", columnDefinition = "TEXT")
     private String enrichedContent;            // contextPrefix + "\n" + content
 
+    @Column(name = "minhash_signature", length = 400)
+    private String minhashSignature;           // 근접 중복 판정용 MinHash 서명 (Base64)
+
+    @Column(name = "token_count")
+    private Integer tokenCount;                // compose 모델 인코딩 기준 토큰 수 (공백 정규화 후)
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -168,4 +174,20 @@ public class DocumentChunkJpaEntity {
     public void setEnrichedContent(String enrichedContent) {
         this.enrichedContent = enrichedContent;
     }
+
+    public String getMinhashSignature() {
+        return minhashSignature;
+    }
+
+    public void setMinhashSignature(String minhashSignature) {
+        this.minhashSignature = minhashSignature;
+    }
+
+    public Integer getTokenCount() {
+        return tokenCount;
+    }
+
+    public void setTokenCount(Integer tokenCount) {
+        this.tokenCount = tokenCount;
+    }
 }
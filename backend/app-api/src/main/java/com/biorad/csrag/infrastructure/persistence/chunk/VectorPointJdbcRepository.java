@@ -0,0 +1,214 @@
+package com.biorad.csrag.infrastructure.persistence.chunk;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 공유 벡터 포인트 테이블({@code vector_points}, {@code vector_point_members}, {@code vector_point_lsh_bands}) 전용 JDBC 저장소.
+ *
+ * <p>IN 목록은 {@link #IN_BATCH}개 단위로 나눠 조회한다 (문서 하나의 밴드 해시는 수천 개가 될 수 있다).
+ */
+@Component
+public class VectorPointJdbcRepository {
+
+    static final int IN_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VectorPointJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 밴드 해시가 하나라도 일치하는 기존 포인트 후보. 같은 포인트가 여러 밴드로 중복 반환될 수 있다.
+     */
+    public List<BandCandidate> findCandidates(Collection<Long> bandHashes) {
+        if (bandHashes.isEmpty()) {
+            return List.of();
+        }
+        List<Long> hashes = new ArrayList<>(bandHashes);
+        List<BandCandidate> result = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i += IN_BATCH) {
+            List<Long> batch = hashes.subList(i, Math.min(i + IN_BATCH, hashes.size()));
+            String sql = """
+                    SELECT b.band_hash, p.point_id, p.signature
+                    FROM vector_point_lsh_bands b
+                    JOIN vector_points p ON p.point_id = b.point_id
+                    WHERE b.band_hash IN (%s)
+                    """.formatted(placeholders(batch.size()));
+            result.addAll(jdbcTemplate.query(sql, (rs, rowNum) -> new BandCandidate(
+                    rs.getLong(1),
+                    rs.getObject(2, UUID.class),
+                    rs.getString(3)
+            ), batch.toArray()));
+        }
+        return result;
+    }
+
+    public List<Member> findMembersByDocument(UUID documentId) {
+        return jdbcTemplate.query("""
+                SELECT point_id, chunk_id, document_id, product_family
+                FROM vector_point_members
+                WHERE document_id = ?
+                """, (rs, rowNum) -> mapMember(rs), documentId);
+    }
+
+    /**
+     * 포인트별 멤버. 대표 청크를 안정적으로 고르도록 chunk_id 순으로 정렬한다.
+     */
+    public List<Member> findMembersByPoints(Collection<UUID> pointIds) {
+        if (pointIds.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(pointIds);
+        List<Member> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_BATCH) {
+            List<UUID> batch = ids.subList(i, Math.min(i + IN_BATCH, ids.size()));
+            result.addAll(jdbcTemplate.query("""
+                    SELECT point_id, chunk_id, document_id, product_family
+                    FROM vector_point_members
+                    WHERE point_id IN (%s)
+                    ORDER BY point_id, chunk_id
+                    """.formatted(placeholders(batch.size())), (rs, rowNum) -> mapMember(rs), batch.toArray()));
+        }
+        return result;
+    }
+
+    /**
+     * 청크 → 소속 포인트. 공유 테이블에 없는 청크(기존 방식 포인트, 문의 첨부)는 결과에 없다.
+     */
+    public Map<UUID, UUID> findPointIdsByChunks(Collection<UUID> chunkIds) {
+        if (chunkIds.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> ids = new ArrayList<>(chunkIds);
+        Map<UUID, UUID> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += IN_BATCH) {
+            List<UUID> batch = ids.subList(i, Math.min(i + IN_BATCH, ids.size()));
+            jdbcTemplate.query(
+                    "SELECT chunk_id, point_id FROM vector_point_members WHERE chunk_id IN (%s)"
+                            .formatted(placeholders(batch.size())),
+                    (RowCallbackHandler) rs -> result.put(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)),
+                    batch.toArray());
+        }
+        return result;
+    }
+
+    public List<Representative> findRepresentatives(Collection<UUID> pointIds) {
+        if (pointIds.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(pointIds);
+        List<Representative> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_BATCH) {
+            List<UUID> batch = ids.subList(i, Math.min(i + IN_BATCH, ids.size()));
+            result.addAll(jdbcTemplate.query(
+                    "SELECT point_id, representative_chunk_id FROM vector_points WHERE point_id IN (%s)"
+                            .formatted(placeholders(batch.size())),
+                    (rs, rowNum) -> new Representative(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)),
+                    batch.toArray()));
+        }
+        return result;
+    }
+
+    /** 청크 본문. 청크가 이미 삭제됐으면 null. */
+    public String findChunkContent(UUID chunkId) {
+        List<String> content = jdbcTemplate.queryForList(
+                "SELECT content FROM document_chunks WHERE id = ?", String.class, chunkId);
+        return content.isEmpty() ? null : content.get(0);
+    }
+
+    // ===== 쓰기 =====
+
+    /**
+     * 새 포인트와 LSH 밴드 행을 저장한다.
+     *
+     * @param bandHashes 밴드 번호 순서의 밴드 해시
+     */
+    public void insertPoint(UUID pointId, UUID representativeChunkId, String signature,
+                            long[] bandHashes, Instant createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO vector_points (point_id, representative_chunk_id, signature, created_at)
+                VALUES (?, ?, ?, ?)
+                """, pointId, representativeChunkId, signature, Timestamp.from(createdAt));
+        List<Object[]> rows = new ArrayList<>(bandHashes.length);
+        for (int band = 0; band < bandHashes.length; band++) {
+            rows.add(new Object[]{bandHashes[band], band, pointId});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO vector_point_lsh_bands (band_hash, band, point_id) VALUES (?, ?, ?)", rows);
+    }
+
+    public void insertMembers(List<Member> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = members.stream()
+                .map(m -> new Object[]{m.chunkId(), m.pointId(), m.documentId(), m.productFamily()})
+                .toList();
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO vector_point_members (chunk_id, point_id, document_id, product_family)
+                VALUES (?, ?, ?, ?)
+                """, rows);
+    }
+
+    public int deleteMembersByDocument(UUID documentId) {
+        return jdbcTemplate.update("DELETE FROM vector_point_members WHERE document_id = ?", documentId);
+    }
+
+    public void updateRepresentative(UUID pointId, UUID representativeChunkId) {
+        jdbcTemplate.update("UPDATE vector_points SET representative_chunk_id = ? WHERE point_id = ?",
+                representativeChunkId, pointId);
+    }
+
+    /**
+     * 포인트와 LSH 밴드 행을 삭제한다. 멤버 행은 호출자가 먼저 정리한다.
+     */
+    public void deletePoints(Collection<UUID> pointIds) {
+        if (pointIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>(pointIds);
+        for (int i = 0; i < ids.size(); i += IN_BATCH) {
+            List<UUID> batch = ids.subList(i, Math.min(i + IN_BATCH, ids.size()));
+            String in = placeholders(batch.size());
+            jdbcTemplate.update("DELETE FROM vector_point_lsh_bands WHERE point_id IN (" + in + ")", batch.toArray());
+            jdbcTemplate.update("DELETE FROM vector_points WHERE point_id IN (" + in + ")", batch.toArray());
+        }
+    }
+
+    private static Member mapMember(ResultSet rs) throws SQLException {
+        return new Member(
+                rs.getObject("point_id", UUID.class),
+                rs.getObject("chunk_id", UUID.class),
+                rs.getObject("document_id", UUID.class),
+                rs.getString("product_family")
+        );
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /** LSH 후보: 일치한 밴드 해시와 포인트 서명(Base64) */
+    public record BandCandidate(long bandHash, UUID pointId, String signature) {}
+
+    public record Member(UUID pointId, UUID chunkId, UUID documentId, String productFamily) {}
+
+    public record Representative(UUID pointId, UUID chunkId) {}
+}
@@ -66,6 +66,9 @@ public class DocumentMetadataJpaEntity {
     @Column(name = "image_analysis_confidence")
     private Double imageAnalysisConfidence;
 
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;  // 업로드 파일 SHA-256 (hex), 다운로드 ETag용
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -128,6 +131,11 @@ public class DocumentMetadataJpaEntity {
     public String getImageTechnicalContext() { return imageTechnicalContext; }
     public String getImageSuggestedQuery() { return imageSuggestedQuery; }
     public Double getImageAnalysisConfidence() { return imageAnalysisConfidence; }
+    public String getContentSha256() { return contentSha256; }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
 
     public void setImageAnalysis(
             String imageType,
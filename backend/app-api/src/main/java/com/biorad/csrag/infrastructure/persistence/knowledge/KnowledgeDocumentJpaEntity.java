@@ -67,6 +67,9 @@ public class KnowledgeDocumentJpaEntity {
     @Column(name = "last_error", length = 500)
     private String lastError;
 
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;  // 업로드 파일 SHA-256 (hex), 바이트 단위 중복 판정용
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -184,6 +187,20 @@ public class KnowledgeDocumentJpaEntity {
         this.updatedAt = Instant.now();
     }
 
+    /**
+     * 바이트 단위로 같은 파일이 이미 인덱싱되어 있어 그 결과를 공유한 경우.
+     * 파싱·청킹·임베딩을 건너뛰고 원본의 추출 텍스트와 청크/벡터 수를 그대로 가져온다.
+     */
+    public void markIndexedFrom(KnowledgeDocumentJpaEntity source) {
+        this.status = "INDEXED";
+        this.extractedText = source.extractedText;
+        this.ocrConfidence = source.ocrConfidence;
+        this.chunkCount = source.chunkCount;
+        this.vectorCount = source.vectorCount;
+        this.lastError = null;
+        this.updatedAt = Instant.now();
+    }
+
     /**
      * AI가 분석한 메타데이터로 빈 필드를 채움.
      * 이미 사용자가 입력한 값은 덮어쓰지 않는다.
@@ -279,6 +296,14 @@ public class KnowledgeDocumentJpaEntity {
         return lastError;
     }
 
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -22,4 +23,10 @@ public interface KnowledgeDocumentJpaRepository
      * 특정 상태의 문서 수 카운트
      */
     int countByStatus(String status);
+
+    /**
+     * 같은 내용(SHA-256)으로 가장 먼저 업로드된 문서 중 해당 상태인 것
+     */
+    Optional<KnowledgeDocumentJpaEntity> findFirstByContentSha256AndStatusOrderByCreatedAtAsc(
+            String contentSha256, String status);
 }
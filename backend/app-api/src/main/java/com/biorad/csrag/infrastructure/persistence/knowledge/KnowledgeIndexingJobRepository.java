@@ -0,0 +1,308 @@
+package com.biorad.csrag.infrastructure.persistence.knowledge;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * KB 인덱싱 작업 큐({@code kb_indexing_jobs}) 전용 JDBC 저장소.
+ *
+ * <p>점유는 조건부 UPDATE(compare-and-set)로 한다. 후보를 조회한 뒤 "아직 대기 중이거나 lease가 만료된 경우에만"
+ * RUNNING으로 바꾸므로, 여러 노드가 같은 후보를 보더라도 한 노드만 점유에 성공한다 (H2·PostgreSQL 공통).
+ * 점유 이후의 모든 갱신은 {@code lease_owner}가 일치할 때만 반영되어, lease를 잃은 워커의 늦은 쓰기를 막는다.
+ */
+@Component
+public class KnowledgeIndexingJobRepository {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final String CLAIMABLE = """
+            ((status = 'QUEUED' AND next_attempt_at <= ?) OR (status = 'RUNNING' AND lease_expires_at < ?))""";
+
+    private static final String SELECT_JOB = """
+            SELECT id, document_id, priority, status, stage, attempts, lease_owner, lease_expires_at,
+                   last_error, chunk_count, vector_count, enqueued_at, started_at, completed_at
+            FROM kb_indexing_jobs
+            """;
+
+    /** SQLSTATE unique_violation (PostgreSQL·H2 공통) */
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public KnowledgeIndexingJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ===== 등록 =====
+
+    /** 문서의 대기·실행 중 작업. 문서당 최대 하나다 (V50 유니크 인덱스). */
+    public Optional<IndexingJob> findActiveByDocument(UUID documentId) {
+        return jdbcTemplate.query(SELECT_JOB + " WHERE document_id = ? AND status IN ('QUEUED', 'RUNNING')",
+                (rs, rowNum) -> map(rs), documentId).stream().findFirst();
+    }
+
+    /**
+     * 대기 작업을 등록한다. 같은 문서의 활성 작업이 이미 있으면 유니크 인덱스 위반(SQLSTATE 23505)을 흡수하고 false를 반환한다.
+     * 트랜잭션 안이면 savepoint로 되돌린다 — PostgreSQL에서 제약 위반은 호출자 트랜잭션 전체를 중단시킨다.
+     *
+     * @return 새 작업을 만들었으면 true, 활성 작업과 충돌했으면 false
+     */
+    public boolean insert(UUID id, UUID documentId, int priority, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            Savepoint savepoint = con.getAutoCommit() ? null : con.setSavepoint();
+            try (PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO kb_indexing_jobs
+                        (id, document_id, priority, status, stage, attempts, next_attempt_at, enqueued_at, updated_at)
+                    VALUES (?, ?, ?, 'QUEUED', 'NONE', 0, ?, ?, ?)
+                    """)) {
+                ps.setObject(1, id);
+                ps.setObject(2, documentId);
+                ps.setInt(3, priority);
+                ps.setTimestamp(4, ts);
+                ps.setTimestamp(5, ts);
+                ps.setTimestamp(6, ts);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                if (savepoint != null) {
+                    con.rollback(savepoint);
+                }
+                return false;
+            }
+            if (savepoint != null) {
+                con.releaseSavepoint(savepoint);
+            }
+            return true;
+        }));
+    }
+
+    /** 이미 대기 중인 작업의 우선순위를 올린다 (낮추지는 않는다). */
+    public int raisePriority(UUID id, int priority, Instant now) {
+        return jdbcTemplate.update(
+                "UPDATE kb_indexing_jobs SET priority = ?, updated_at = ? WHERE id = ? AND priority < ?",
+                priority, Timestamp.from(now), id, priority);
+    }
+
+    // ===== 점유 =====
+
+    /** 점유 가능한 작업 ID. 우선순위가 높고 먼저 들어온 작업부터 반환한다. */
+    public List<UUID> findClaimable(Instant now, int limit) {
+        Timestamp ts = Timestamp.from(now);
+        return jdbcTemplate.query("SELECT id FROM kb_indexing_jobs WHERE " + CLAIMABLE
+                        + " ORDER BY priority DESC, enqueued_at ASC LIMIT ?",
+                (rs, rowNum) -> rs.getObject(1, UUID.class), ts, ts, limit);
+    }
+
+    /**
+     * 작업을 점유한다. 그 사이 다른 워커가 먼저 점유했으면 빈 값을 반환한다.
+     */
+    public Optional<IndexingJob> claim(UUID id, String owner, Instant now, Instant leaseUntil) {
+        Timestamp ts = Timestamp.from(now);
+        int updated = jdbcTemplate.update("""
+                UPDATE kb_indexing_jobs
+                   SET status = 'RUNNING', lease_owner = ?, lease_expires_at = ?, attempts = attempts + 1,
+                       started_at = COALESCE(started_at, ?), updated_at = ?
+                 WHERE id = ? AND """ + CLAIMABLE,
+                owner, Timestamp.from(leaseUntil), ts, ts, id, ts, ts);
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(SELECT_JOB + " WHERE id = ?", (rs, rowNum) -> map(rs), id).stream().findFirst();
+    }
+
+    /** 실행 중인 작업들의 lease를 연장한다. */
+    public int renewLeases(String owner, Collection<UUID> ids, Instant leaseUntil) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.from(leaseUntil));
+        args.add(owner);
+        args.addAll(ids);
+        return jdbcTemplate.update("UPDATE kb_indexing_jobs SET lease_expires_at = ? WHERE status = 'RUNNING'"
+                + " AND lease_owner = ? AND id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                args.toArray());
+    }
+
+    // ===== 진행 기록 =====
+
+    /**
+     * 완료한 단계를 기록하고 lease를 연장한다.
+     *
+     * @return lease를 잃었으면 false (다른 워커가 이어받았으므로 중단해야 한다)
+     */
+    public boolean checkpoint(UUID id, String owner, String stage, Integer chunkCount, Integer vectorCount,
+                              Instant now, Instant leaseUntil) {
+        return jdbcTemplate.update("""
+                UPDATE kb_indexing_jobs
+                   SET stage = ?, chunk_count = COALESCE(?, chunk_count), vector_count = COALESCE(?, vector_count),
+                       lease_expires_at = ?, updated_at = ?
+                 WHERE id = ? AND lease_owner = ? AND status = 'RUNNING'
+                """, stage, chunkCount, vectorCount, Timestamp.from(leaseUntil), Timestamp.from(now), id, owner) == 1;
+    }
+
+    public boolean complete(UUID id, String owner, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        return jdbcTemplate.update("""
+                UPDATE kb_indexing_jobs
+                   SET status = 'DONE', lease_owner = NULL, lease_expires_at = NULL, last_error = NULL,
+                       completed_at = ?, updated_at = ?
+                 WHERE id = ? AND lease_owner = ? AND status = 'RUNNING'
+                """, ts, ts, id, owner) == 1;
+    }
+
+    /**
+     * 작업을 대기열로 돌려보낸다. 완료한 단계는 유지되어 다음 점유 시 이어서 실행된다.
+     *
+     * @param countAttempt false면 이번 점유를 시도 횟수에서 뺀다 (속도 제한으로 미룬 경우)
+     */
+    public boolean requeue(UUID id, String owner, Instant nextAttemptAt, String error, boolean countAttempt,
+                           Instant now) {
+        return jdbcTemplate.update("""
+                UPDATE kb_indexing_jobs
+                   SET status = 'QUEUED', lease_owner = NULL, lease_expires_at = NULL, next_attempt_at = ?,
+                       last_error = ?, attempts = attempts - ?, updated_at = ?
+                 WHERE id = ? AND lease_owner = ? AND status = 'RUNNING'
+                """, Timestamp.from(nextAttemptAt), truncate(error), countAttempt ? 0 : 1, Timestamp.from(now),
+                id, owner) == 1;
+    }
+
+    public boolean fail(UUID id, String owner, String error, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        return jdbcTemplate.update("""
+                UPDATE kb_indexing_jobs
+                   SET status = 'FAILED', lease_owner = NULL, lease_expires_at = NULL, last_error = ?,
+                       completed_at = ?, updated_at = ?
+                 WHERE id = ? AND lease_owner = ? AND status = 'RUNNING'
+                """, truncate(error), ts, ts, id, owner) == 1;
+    }
+
+    // ===== 복구·정리 =====
+
+    /**
+     * 인덱싱 중간 상태로 멈춘 채 활성 작업이 없는 KB 문서 (큐 도입 이전 작업, 재시작으로 유실된 비동기 작업 등).
+     */
+    public List<UUID> findStrandedDocuments(Collection<String> statuses, Instant updatedBefore, int limit) {
+        List<Object> args = new ArrayList<>(statuses);
+        args.add(Timestamp.from(updatedBefore));
+        args.add(limit);
+        return jdbcTemplate.query("""
+                SELECT d.id FROM knowledge_documents d
+                WHERE d.status IN (%s) AND d.updated_at < ?
+                  AND NOT EXISTS (SELECT 1 FROM kb_indexing_jobs j
+                                  WHERE j.document_id = d.id AND j.status IN ('QUEUED', 'RUNNING'))
+                ORDER BY d.updated_at ASC LIMIT ?
+                """.formatted(String.join(",", Collections.nCopies(statuses.size(), "?"))),
+                (rs, rowNum) -> rs.getObject(1, UUID.class), args.toArray());
+    }
+
+    /** 보존 기간이 지난 종료 작업을 삭제한다. */
+    public int purgeFinished(Instant completedBefore) {
+        return jdbcTemplate.update("DELETE FROM kb_indexing_jobs WHERE status IN ('DONE', 'FAILED') AND completed_at < ?",
+                Timestamp.from(completedBefore));
+    }
+
+    // ===== 진행률 =====
+
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM kb_indexing_jobs GROUP BY status",
+                (ResultSet rs) -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    /** 대기·실행 중 작업의 마지막 완료 단계별 건수 */
+    public Map<String, Long> countActiveByStage() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT stage, COUNT(*) FROM kb_indexing_jobs WHERE status IN ('QUEUED', 'RUNNING')"
+                        + " GROUP BY stage",
+                (ResultSet rs) -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    /** {@code since} 이후 완료된 작업 수와 청크 수 합계 */
+    public Throughput completedSince(Instant since) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(SUM(chunk_count), 0) FROM kb_indexing_jobs WHERE status = 'DONE' AND completed_at >= ?",
+                (rs, rowNum) -> new Throughput(rs.getLong(1), rs.getLong(2)), Timestamp.from(since));
+    }
+
+    private static IndexingJob map(ResultSet rs) throws SQLException {
+        return new IndexingJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("document_id", UUID.class),
+                rs.getInt("priority"),
+                rs.getString("status"),
+                rs.getString("stage"),
+                rs.getInt("attempts"),
+                rs.getString("lease_owner"),
+                toInstant(rs.getTimestamp("lease_expires_at")),
+                rs.getString("last_error"),
+                rs.getObject("chunk_count", Integer.class),
+                rs.getObject("vector_count", Integer.class),
+                toInstant(rs.getTimestamp("enqueued_at")),
+                toInstant(rs.getTimestamp("started_at")),
+                toInstant(rs.getTimestamp("completed_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 2000 ? error.substring(0, 2000) : error;
+    }
+
+    /**
+     * @param stage    마지막으로 완료한 단계
+     * @param attempts 점유 횟수 (속도 제한으로 미룬 점유는 제외)
+     */
+    public record IndexingJob(
+            UUID id,
+            UUID documentId,
+            int priority,
+            String status,
+            String stage,
+            int attempts,
+            String leaseOwner,
+            Instant leaseExpiresAt,
+            String lastError,
+            Integer chunkCount,
+            Integer vectorCount,
+            Instant enqueuedAt,
+            Instant startedAt,
+            Instant completedAt
+    ) {}
+
+    public record Throughput(long documents, long chunks) {}
+}
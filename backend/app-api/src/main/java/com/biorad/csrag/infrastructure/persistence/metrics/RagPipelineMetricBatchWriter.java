@@ -0,0 +1,58 @@
+package com.biorad.csrag.infrastructure.persistence.metrics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@code rag_pipeline_metrics} 테이블 전용 JDBC 배치 writer.
+ *
+ * <p>JPA {@code save()}는 행마다 트랜잭션과 IDENTITY 조회를 유발하므로,
+ * 버퍼링된 메트릭은 이 writer를 통해 단일 {@code batchUpdate}로 적재한다.
+ */
+@Component
+public class RagPipelineMetricBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO rag_pipeline_metrics
+                (inquiry_id, metric_type, metric_value, details, created_at,
+                 total_prompt_tokens, total_completion_tokens, total_tokens,
+                 estimated_cost_usd, token_usage_detail)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RagPipelineMetricBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 메트릭 목록을 하나의 JDBC 배치로 저장한다.
+     *
+     * @return 저장 요청한 행 수
+     */
+    public int writeBatch(List<RagPipelineMetricEntity> metrics) {
+        if (metrics == null || metrics.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, metrics, metrics.size(), (ps, m) -> {
+            ps.setObject(1, m.getInquiryId(), Types.BIGINT);
+            ps.setString(2, m.getMetricType());
+            ps.setDouble(3, m.getMetricValue());
+            ps.setString(4, m.getDetails());
+            Instant createdAt = m.getCreatedAt() != null ? m.getCreatedAt() : Instant.now();
+            ps.setTimestamp(5, Timestamp.from(createdAt));
+            ps.setObject(6, m.getTotalPromptTokens(), Types.INTEGER);
+            ps.setObject(7, m.getTotalCompletionTokens(), Types.INTEGER);
+            ps.setObject(8, m.getTotalTokens(), Types.INTEGER);
+            ps.setObject(9, m.getEstimatedCostUsd(), Types.DOUBLE);
+            ps.setString(10, m.getTokenUsageDetail());
+        });
+        return metrics.size();
+    }
+}
@@ -0,0 +1,238 @@
+package com.biorad.csrag.infrastructure.persistence.ops;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 운영 대시보드 일별 롤업 테이블({@code ops_daily_*}) 전용 JDBC 저장소.
+ *
+ * <p>쓰기: {@link #rebuildDay}가 원본 테이블의 하루치 구간만 GROUP BY 집계해 해당 일자 행을 교체한다.
+ * 같은 일자를 여러 노드가 동시에 재계산해도 일자 행 잠금으로 직렬화되므로 PK 충돌 없이 마지막 결과로 수렴한다.
+ * <br>읽기: 조회 메서드는 모두 롤업 테이블만 읽으므로 비용이 (기간 일 수 × 키 수)에 비례한다.
+ */
+@Component
+public class OpsDailyRollupJdbcRepository {
+
+    private static final String FAILURE_REASON_SQL = """
+            SELECT reason, COUNT(*) FROM (
+                SELECT CASE
+                         WHEN error_message IS NULL OR TRIM(error_message) = '' THEN 'UNKNOWN_ERROR'
+                         ELSE SUBSTRING(error_message, 1, 80)
+                       END AS reason
+                FROM orchestration_runs
+                WHERE UPPER(status) = 'FAILED' AND created_at >= ? AND created_at < ?
+            ) r
+            GROUP BY reason
+            """;
+
+    private static final String STEP_LATENCY_SQL = """
+            SELECT step, COUNT(*), COALESCE(SUM(latency_ms), 0)
+            FROM orchestration_runs
+            WHERE UPPER(status) = 'SUCCESS' AND created_at >= ? AND created_at < ?
+            GROUP BY step
+            """;
+
+    private static final String KB_REFS_SQL = """
+            SELECT c.document_id, COUNT(*)
+            FROM retrieval_evidence e
+            JOIN document_chunks c ON c.id = e.chunk_id
+            WHERE c.source_type = 'KNOWLEDGE_BASE' AND e.created_at >= ? AND e.created_at < ?
+            GROUP BY c.document_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OpsDailyRollupJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ===== 쓰기 =====
+
+    /**
+     * {@code day}(UTC) 하루치 롤업 행을 원본 테이블에서 다시 계산해 교체한다.
+     *
+     * <p>먼저 {@code ops_daily_counts}의 일자 행을 확보({@code ON CONFLICT DO NOTHING})하고 {@code FOR UPDATE}로 잠근다.
+     * 같은 일자를 재계산하는 다른 트랜잭션은 이 잠금에서 기다렸다가 앞선 결과를 지우고 다시 쓰므로
+     * DELETE 후 INSERT 사이에 끼어들어 PK 위반을 내지 않는다.
+     */
+    @Transactional
+    public void rebuildDay(LocalDate day, Instant refreshedAt) {
+        Timestamp from = Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp to = Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        jdbcTemplate.update("INSERT INTO ops_daily_counts (metric_date, refreshed_at) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                day, Timestamp.from(refreshedAt));
+        jdbcTemplate.queryForObject("SELECT metric_date FROM ops_daily_counts WHERE metric_date = ? FOR UPDATE",
+                LocalDate.class, day);
+
+        jdbcTemplate.update("DELETE FROM ops_daily_step_latency WHERE metric_date = ?", day);
+        jdbcTemplate.update("DELETE FROM ops_daily_failure_reasons WHERE metric_date = ?", day);
+        jdbcTemplate.update("DELETE FROM ops_daily_kb_document_refs WHERE metric_date = ?", day);
+
+        long inquiries = count("SELECT COUNT(*) FROM inquiries WHERE created_at >= ? AND created_at < ?", from, to);
+        long drafts = count("SELECT COUNT(*) FROM answer_drafts WHERE created_at >= ? AND created_at < ?", from, to);
+        long sent = count("SELECT COUNT(*) FROM answer_drafts WHERE status = 'SENT' AND sent_at >= ? AND sent_at < ?", from, to);
+        long evidences = count("SELECT COUNT(*) FROM retrieval_evidence WHERE created_at >= ? AND created_at < ?", from, to);
+        jdbcTemplate.update("""
+                UPDATE ops_daily_counts
+                   SET inquiries_created = ?, drafts_created = ?, answers_sent = ?, evidence_total = ?, refreshed_at = ?
+                 WHERE metric_date = ?
+                """, inquiries, drafts, sent, evidences, Timestamp.from(refreshedAt), day);
+
+        List<Object[]> steps = jdbcTemplate.query(STEP_LATENCY_SQL,
+                (rs, i) -> new Object[]{day, rs.getString(1), rs.getLong(2), rs.getLong(3)}, from, to);
+        if (!steps.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO ops_daily_step_latency (metric_date, step, success_count, latency_ms_sum)
+                    VALUES (?, ?, ?, ?)
+                    """, steps);
+        }
+
+        List<Object[]> reasons = jdbcTemplate.query(FAILURE_REASON_SQL,
+                (rs, i) -> new Object[]{day, rs.getString(1), rs.getLong(2)}, from, to);
+        if (!reasons.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO ops_daily_failure_reasons (metric_date, reason, failure_count)
+                    VALUES (?, ?, ?)
+                    """, reasons);
+        }
+
+        List<Object[]> refs = jdbcTemplate.query(KB_REFS_SQL,
+                (rs, i) -> new Object[]{day, rs.getObject(1, UUID.class), rs.getLong(2)}, from, to);
+        if (!refs.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO ops_daily_kb_document_refs (metric_date, document_id, ref_count)
+                    VALUES (?, ?, ?)
+                    """, refs);
+        }
+    }
+
+    /**
+     * 롤업이 존재하는 가장 최근 일자.
+     */
+    public Optional<LocalDate> findLatestRolledUpDay() {
+        LocalDate latest = jdbcTemplate.queryForObject(
+                "SELECT MAX(metric_date) FROM ops_daily_counts", LocalDate.class);
+        return Optional.ofNullable(latest);
+    }
+
+    /**
+     * 롤업이 마지막으로 갱신된 시각 (노드 무관).
+     */
+    public Optional<Instant> findLastRefreshedAt() {
+        Timestamp latest = jdbcTemplate.queryForObject(
+                "SELECT MAX(refreshed_at) FROM ops_daily_counts", Timestamp.class);
+        return Optional.ofNullable(latest).map(Timestamp::toInstant);
+    }
+
+    /**
+     * 백필 시작점: 가장 오래된 문의 접수 시각. 모든 집계 대상 테이블이 문의에 종속되므로 충분하다.
+     */
+    public Optional<Instant> findEarliestActivity() {
+        Timestamp earliest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM inquiries", Timestamp.class);
+        return Optional.ofNullable(earliest).map(Timestamp::toInstant);
+    }
+
+    // ===== 읽기 =====
+
+    public List<DailyCounts> findDailyCounts(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT metric_date, inquiries_created, drafts_created, answers_sent, evidence_total
+                FROM ops_daily_counts
+                WHERE metric_date BETWEEN ? AND ?
+                ORDER BY metric_date
+                """, (rs, i) -> new DailyCounts(
+                rs.getObject(1, LocalDate.class), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)
+        ), from, to);
+    }
+
+    public List<StepLatency> findStepLatency(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT step, SUM(success_count), SUM(latency_ms_sum)
+                FROM ops_daily_step_latency
+                WHERE metric_date BETWEEN ? AND ?
+                GROUP BY step
+                """, (rs, i) -> new StepLatency(rs.getString(1), rs.getLong(2), rs.getLong(3)), from, to);
+    }
+
+    /**
+     * 전체 기간의 실패 사유 상위 {@code limit}건.
+     */
+    public List<ReasonCount> findTopFailureReasons(int limit) {
+        return jdbcTemplate.query("""
+                SELECT reason, SUM(failure_count) AS total
+                FROM ops_daily_failure_reasons
+                GROUP BY reason
+                ORDER BY total DESC, reason
+                LIMIT ?
+                """, (rs, i) -> new ReasonCount(rs.getString(1), rs.getLong(2)), limit);
+    }
+
+    public List<DocumentRefCount> findTopKbDocuments(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query("""
+                SELECT document_id, SUM(ref_count) AS total
+                FROM ops_daily_kb_document_refs
+                WHERE metric_date BETWEEN ? AND ?
+                GROUP BY document_id
+                ORDER BY total DESC
+                LIMIT ?
+                """, (rs, i) -> new DocumentRefCount(rs.getObject(1, UUID.class), rs.getLong(2)), from, to, limit);
+    }
+
+    public long sumKbReferences(LocalDate from, LocalDate to) {
+        Long total = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(ref_count), 0) FROM ops_daily_kb_document_refs
+                WHERE metric_date BETWEEN ? AND ?
+                """, Long.class, from, to);
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * 발송 완료 초안의 처리 시간(생성 → 발송, 시간 단위) 통계.
+     *
+     * <p>중앙값은 일별 롤업으로 합성할 수 없으므로 {@code sent_at} 인덱스 구간에 대해
+     * DB에서 한 번에 집계하고 결과 1행만 가져온다.
+     */
+    public ProcessingStats findProcessingStats(Instant from, Instant to) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*),
+                       AVG(hours),
+                       PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY hours),
+                       MIN(hours),
+                       MAX(hours)
+                FROM (
+                    SELECT (EXTRACT(EPOCH FROM sent_at) - EXTRACT(EPOCH FROM created_at)) / 3600.0 AS hours
+                    FROM answer_drafts
+                    WHERE status = 'SENT' AND sent_at >= ? AND sent_at <= ? AND created_at IS NOT NULL
+                ) t
+                """, (rs, i) -> new ProcessingStats(
+                rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5)
+        ), Timestamp.from(from), Timestamp.from(to));
+    }
+
+    private long count(String sql, Timestamp from, Timestamp to) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class, from, to);
+        return value == null ? 0 : value;
+    }
+
+    public record DailyCounts(LocalDate date, long inquiriesCreated, long draftsCreated,
+                              long answersSent, long evidenceTotal) {}
+
+    public record StepLatency(String step, long successCount, long latencyMsSum) {}
+
+    public record ReasonCount(String reason, long count) {}
+
+    public record DocumentRefCount(UUID documentId, long refCount) {}
+
+    public record ProcessingStats(long count, double avgHours, double medianHours,
+                                  double minHours, double maxHours) {}
+}
@@ -0,0 +1,55 @@
+package com.biorad.csrag.infrastructure.persistence.retrieval;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@code retrieval_evidence} 테이블 전용 JDBC 배치 writer.
+ *
+ * <p>호출자의 트랜잭션(초안 저장 등)과 독립적으로 커밋하므로, 호출자가 롤백되어도
+ * 같은 배치에 섞인 다른 문의의 근거가 함께 사라지지 않는다.
+ */
+@Component
+public class RetrievalEvidenceBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO retrieval_evidence
+                (id, inquiry_id, chunk_id, score, rank_order, question, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RetrievalEvidenceBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 근거 목록을 하나의 JDBC 배치로 저장한다.
+     *
+     * @return 저장 요청한 행 수
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int writeBatch(List<RetrievalEvidenceJpaEntity> evidences) {
+        if (evidences == null || evidences.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, evidences, evidences.size(), (ps, e) -> {
+            ps.setObject(1, e.getId());
+            ps.setObject(2, e.getInquiryId());
+            ps.setObject(3, e.getChunkId());
+            ps.setDouble(4, e.getScore());
+            ps.setInt(5, e.getRankOrder());
+            ps.setString(6, e.getQuestion());
+            Instant createdAt = e.getCreatedAt() != null ? e.getCreatedAt() : Instant.now();
+            ps.setTimestamp(7, Timestamp.from(createdAt));
+        });
+        return evidences.size();
+    }
+}
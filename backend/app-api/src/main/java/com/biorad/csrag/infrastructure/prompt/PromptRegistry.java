@@ -13,6 +13,9 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -21,7 +24,11 @@ public class PromptRegistry implements ResourceLoaderAware {
 
     private static final Logger log = LoggerFactory.getLogger(PromptRegistry.class);
 
+    /** 템플릿 버전 표시용 SHA-256 접두 길이 (hex). */
+    private static final int VERSION_LENGTH = 12;
+
     private final Map<String, String> prompts = new ConcurrentHashMap<>();
+    private final Map<String, String> versions = new ConcurrentHashMap<>();
     private ResourceLoader resourceLoader;
 
     @Override
@@ -42,6 +49,7 @@ public class PromptRegistry implements ResourceLoaderAware {
             try (InputStream is = resource.getInputStream()) {
                 String content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
                 prompts.put(name, content);
+                versions.put(name, contentHash(content));
             }
         }
 
@@ -56,6 +64,15 @@ public class PromptRegistry implements ResourceLoaderAware {
         return prompt;
     }
 
+    /**
+     * 템플릿 내용 기반 버전. 프롬프트 파일이 바뀌면 값이 달라지므로 LLM 응답 캐시 키에 사용한다.
+     *
+     * @return 등록되지 않은 이름이면 {@code "inline"} (코드에 내장된 프롬프트)
+     */
+    public String version(String name) {
+        return versions.getOrDefault(name, "inline");
+    }
+
     public String get(String name, Map<String, String> variables) {
         String prompt = get(name);
         for (Map.Entry<String, String> entry : variables.entrySet()) {
@@ -63,4 +80,14 @@ public class PromptRegistry implements ResourceLoaderAware {
         }
         return prompt;
     }
+
+    private static String contentHash(String content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash).substring(0, VERSION_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available in JVM
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
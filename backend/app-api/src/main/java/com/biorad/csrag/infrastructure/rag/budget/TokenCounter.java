@@ -0,0 +1,65 @@
+package com.biorad.csrag.infrastructure.rag.budget;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * compose 모델과 같은 BPE 인코딩으로 토큰 수를 센다 (JVM 내, 네트워크 호출 없음).
+ *
+ * <p>gpt-4o / gpt-4.1 / gpt-5 / o-시리즈는 o200k_base, 그 이전 gpt-4 / gpt-3.5 / text-embedding-3는
+ * cl100k_base를 쓴다. 알 수 없는 모델은 현재 기본인 o200k_base로 센다.
+ * 특수 토큰 문자열(예: {@code <|endoftext|>})도 일반 텍스트로 센다.
+ */
+@Component
+public class TokenCounter {
+
+    static final String DEFAULT_MODEL = "gpt-5-mini";
+
+    private static final EncodingRegistry REGISTRY = Encodings.newLazyEncodingRegistry();
+
+    private final EncodingType encodingType;
+    private final Encoding encoding;
+
+    @Autowired
+    public TokenCounter(@Value("${openai.model.chat-heavy:gpt-5-mini}") String model) {
+        this.encodingType = encodingTypeFor(model);
+        this.encoding = REGISTRY.getEncoding(encodingType);
+    }
+
+    /** 기본 compose 모델 기준 카운터 (테스트·하위 호환 생성자용) */
+    public static TokenCounter defaultCounter() {
+        return new TokenCounter(DEFAULT_MODEL);
+    }
+
+    public int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return encoding.countTokensOrdinary(text);
+    }
+
+    public EncodingType encodingType() {
+        return encodingType;
+    }
+
+    static EncodingType encodingTypeFor(String model) {
+        if (model == null || model.isBlank()) {
+            return EncodingType.O200K_BASE;
+        }
+        String m = model.toLowerCase(Locale.ROOT);
+        if (m.startsWith("gpt-4o") || m.startsWith("gpt-4.1") || m.startsWith("gpt-5") || m.matches("^o\\d.*")) {
+            return EncodingType.O200K_BASE;
+        }
+        if (m.startsWith("gpt-4") || m.startsWith("gpt-3.5") || m.startsWith("text-embedding-")) {
+            return EncodingType.CL100K_BASE;
+        }
+        return EncodingType.O200K_BASE;
+    }
+}
@@ -0,0 +1,358 @@
+package com.biorad.csrag.infrastructure.rag.cache;
+
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 근거 보강용 청크 메타데이터 read-through 캐시 (메모리 LRU + TTL).
+ *
+ * <p>리랭킹 결과를 {@code EvidenceItem}으로 바꿀 때마다 필요한 청크 메타데이터(레벨, 부모 ID, 페이지, 제품군,
+ * sourceId), CHILD 청크의 부모 콘텐츠, 문서 파일명을 청크 ID·문서 ID별로 보관한다. 하위 질문·폴백 단계·적응형 라운드가
+ * 같은 청크를 다시 보강할 때 청크·부모·문서 테이블 조회를 건너뛴다.
+ * <ul>
+ *   <li>미스는 기존과 같은 {@code findAllById} 배치 조회로 채운다 (청크 → 부모 → 파일명 순).</li>
+ *   <li>DB에 없는 청크는 저장하지 않는다. 파일명은 없음도 저장한다.</li>
+ *   <li>문서 재인덱싱·삭제 시 {@link #invalidateDocument}로 해당 문서의 항목을 버린다.
+ *       재청킹은 새 청크 ID를 만들므로 무효화 누락은 TTL 동안 옛 청크 항목이 남는 정도다.</li>
+ * </ul>
+ */
+@Service
+public class ChunkHydrationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkHydrationCache.class);
+
+    private static final String CHILD = "CHILD";
+
+    private final DocumentChunkJpaRepository chunkRepository;
+    private final DocumentMetadataJpaRepository documentRepository;
+    private final KnowledgeDocumentJpaRepository kbDocRepository;
+    private final RagPipelineProperties.ChunkCache config;
+    private final Clock clock;
+    private final Map<UUID, Entry<ChunkMetadata>> chunks;
+    private final Map<UUID, Entry<FileName>> fileNames;
+
+    /** 무효화 세대. 무효화 전에 시작된 조회 결과가 뒤늦게 저장되는 것을 막는다. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder chunkHits = new LongAdder();
+    private final LongAdder chunkMisses = new LongAdder();
+    private final LongAdder fileNameHits = new LongAdder();
+    private final LongAdder fileNameMisses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public ChunkHydrationCache(DocumentChunkJpaRepository chunkRepository,
+                               DocumentMetadataJpaRepository documentRepository,
+                               KnowledgeDocumentJpaRepository kbDocRepository,
+                               RagPipelineProperties properties) {
+        this(chunkRepository, documentRepository, kbDocRepository, properties.getChunkCache(), Clock.systemUTC());
+    }
+
+    ChunkHydrationCache(DocumentChunkJpaRepository chunkRepository,
+                        DocumentMetadataJpaRepository documentRepository,
+                        KnowledgeDocumentJpaRepository kbDocRepository,
+                        RagPipelineProperties.ChunkCache config,
+                        Clock clock) {
+        this.chunkRepository = chunkRepository;
+        this.documentRepository = documentRepository;
+        this.kbDocRepository = kbDocRepository;
+        this.config = config;
+        this.clock = clock;
+        this.chunks = lru(config.getMaxEntries());
+        this.fileNames = lru(config.getMaxEntries());
+    }
+
+    /**
+     * 캐시를 거치지 않고 저장소도 없는 인스턴스. 무효화 호출만 필요한 테스트용 생성자에서 쓴다.
+     */
+    public static ChunkHydrationCache disabled() {
+        RagPipelineProperties.ChunkCache off = new RagPipelineProperties.ChunkCache();
+        off.setEnabled(false);
+        off.setMaxEntries(1);
+        return new ChunkHydrationCache(null, null, null, off, Clock.systemUTC());
+    }
+
+    /**
+     * 청크와 문서의 보강 정보를 조회한다. 캐시에 없는 항목만 저장소에서 배치로 읽는다.
+     *
+     * @param chunkIds    리랭킹 결과의 청크 ID
+     * @param documentIds 리랭킹 결과의 문서 ID (파일명 조회용, 청크의 sourceId는 자동 포함)
+     */
+    public Hydration hydrate(Collection<UUID> chunkIds, Collection<UUID> documentIds) {
+        long startGeneration = generation.get();
+        Instant now = clock.instant();
+
+        Map<UUID, ChunkMetadata> chunkMap = new HashMap<>();
+        Set<UUID> missingChunks = new HashSet<>();
+        for (UUID chunkId : chunkIds) {
+            ChunkMetadata cached = lookup(chunks, chunkId, now);
+            if (cached != null) {
+                chunkMap.put(chunkId, cached);
+            } else if (chunkId != null) {
+                missingChunks.add(chunkId);
+            }
+        }
+        chunkHits.add(chunkMap.size());
+        chunkMisses.add(missingChunks.size());
+        if (!missingChunks.isEmpty()) {
+            chunkMap.putAll(loadChunks(missingChunks, startGeneration, now));
+        }
+
+        Set<UUID> lookupIds = new HashSet<>();
+        documentIds.stream().filter(Objects::nonNull).forEach(lookupIds::add);
+        chunkMap.values().stream().map(ChunkMetadata::sourceId).filter(Objects::nonNull).forEach(lookupIds::add);
+
+        Map<UUID, String> nameMap = new HashMap<>();
+        Set<UUID> missingNames = new HashSet<>();
+        for (UUID documentId : lookupIds) {
+            FileName cached = lookup(fileNames, documentId, now);
+            if (cached != null) {
+                if (cached.value() != null) {
+                    nameMap.put(documentId, cached.value());
+                }
+            } else {
+                missingNames.add(documentId);
+            }
+        }
+        fileNameHits.add(lookupIds.size() - missingNames.size());
+        fileNameMisses.add(missingNames.size());
+        if (!missingNames.isEmpty()) {
+            nameMap.putAll(loadFileNames(missingNames, startGeneration, now));
+        }
+
+        return new Hydration(chunkMap, nameMap);
+    }
+
+    /**
+     * 문서의 청크(문서 ID 또는 sourceId가 일치)와 파일명 항목을 버린다. 재청킹·재인덱싱·삭제 시 호출한다.
+     */
+    public void invalidateDocument(UUID documentId) {
+        if (documentId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        invalidations.increment();
+        synchronized (chunks) {
+            chunks.values().removeIf(entry -> documentId.equals(entry.value().documentId())
+                    || documentId.equals(entry.value().sourceId()));
+        }
+        fileNames.remove(documentId);
+        log.debug("chunk.cache.invalidated documentId={}", documentId);
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(
+                config.isEnabled(),
+                chunks.size(),
+                fileNames.size(),
+                chunkHits.sum(),
+                chunkMisses.sum(),
+                fileNameHits.sum(),
+                fileNameMisses.sum(),
+                invalidations.sum()
+        );
+    }
+
+    private Map<UUID, ChunkMetadata> loadChunks(Set<UUID> chunkIds, long startGeneration, Instant now) {
+        Map<UUID, DocumentChunkJpaEntity> entities = new HashMap<>();
+        chunkRepository.findAllById(chunkIds).forEach(c -> entities.put(c.getId(), c));
+
+        // Parent-Child: CHILD 청크의 부모 청크를 배치 조회
+        Set<UUID> parentIds = new HashSet<>();
+        for (DocumentChunkJpaEntity chunk : entities.values()) {
+            if (CHILD.equals(chunk.getChunkLevel()) && chunk.getParentChunkId() != null) {
+                parentIds.add(chunk.getParentChunkId());
+            }
+        }
+        Map<UUID, DocumentChunkJpaEntity> parents = new HashMap<>();
+        if (!parentIds.isEmpty()) {
+            chunkRepository.findAllById(parentIds).forEach(p -> parents.put(p.getId(), p));
+        }
+
+        Map<UUID, ChunkMetadata> loaded = new HashMap<>();
+        for (DocumentChunkJpaEntity chunk : entities.values()) {
+            DocumentChunkJpaEntity parent = CHILD.equals(chunk.getChunkLevel()) && chunk.getParentChunkId() != null
+                    ? parents.get(chunk.getParentChunkId())
+                    : null;
+            loaded.put(chunk.getId(), ChunkMetadata.of(chunk, parent));
+        }
+        store(chunks, loaded, startGeneration, now);
+        return loaded;
+    }
+
+    private Map<UUID, String> loadFileNames(Set<UUID> documentIds, long startGeneration, Instant now) {
+        Map<UUID, String> loaded = new HashMap<>();
+        documentRepository.findAllById(documentIds).forEach(d -> loaded.put(d.getId(), d.getFileName()));
+        kbDocRepository.findAllById(documentIds).forEach(d -> loaded.put(d.getId(), d.getFileName()));
+
+        Map<UUID, FileName> entries = new HashMap<>();
+        for (UUID documentId : documentIds) {
+            entries.put(documentId, new FileName(loaded.get(documentId)));
+        }
+        store(fileNames, entries, startGeneration, now);
+        return loaded;
+    }
+
+    private <V> V lookup(Map<UUID, Entry<V>> map, UUID key, Instant now) {
+        if (!config.isEnabled() || key == null) {
+            return null;
+        }
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(now)) {
+            map.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private <V> void store(Map<UUID, Entry<V>> map, Map<UUID, V> values, long startGeneration, Instant now) {
+        if (!config.isEnabled() || values.isEmpty()) {
+            return;
+        }
+        Instant expiresAt = now.plus(Duration.ofMinutes(config.getTtlMinutes()));
+        synchronized (map) {
+            if (startGeneration != generation.get()) {
+                return;
+            }
+            values.forEach((key, value) -> map.put(key, new Entry<>(value, expiresAt)));
+        }
+    }
+
+    private static <V> Map<UUID, Entry<V>> lru(int maxEntries) {
+        int capacity = Math.max(1, maxEntries);
+        return Collections.synchronizedMap(new LinkedHashMap<>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * 청크 보강 정보.
+     *
+     * @param parentContent     CHILD 청크의 부모 콘텐츠 (부모가 없거나 CHILD가 아니면 null)
+     * @param contentSignature  LLM에 제공할 콘텐츠(부모 또는 자신)의 인덱싱 시 저장된 MinHash 서명.
+     *                          서명 도입 전 청크는 null이며 중복 제거 시 excerpt로 계산된다.
+     * @param contentTokenCount 같은 콘텐츠의 인덱싱 시 저장된 토큰 수. 도입 전 청크는 null이며 패킹 시 계산된다.
+     */
+    public record ChunkMetadata(
+            UUID chunkId,
+            UUID documentId,
+            String chunkLevel,
+            UUID parentChunkId,
+            Integer pageStart,
+            Integer pageEnd,
+            String productFamily,
+            UUID sourceId,
+            String parentContent,
+            Integer parentStartOffset,
+            Integer parentEndOffset,
+            MinHashSignature contentSignature,
+            Integer contentTokenCount
+    ) {
+        static ChunkMetadata of(DocumentChunkJpaEntity chunk, DocumentChunkJpaEntity parent) {
+            DocumentChunkJpaEntity contentChunk = parent != null ? parent : chunk;
+            return new ChunkMetadata(
+                    chunk.getId(),
+                    chunk.getDocumentId(),
+                    chunk.getChunkLevel(),
+                    chunk.getParentChunkId(),
+                    chunk.getPageStart(),
+                    chunk.getPageEnd(),
+                    chunk.getProductFamily(),
+                    chunk.getSourceId(),
+                    parent != null ? parent.getContent() : null,
+                    parent != null ? parent.getStartOffset() : null,
+                    parent != null ? parent.getEndOffset() : null,
+                    MinHashSignature.decode(contentChunk.getMinhashSignature()),
+                    contentChunk.getTokenCount()
+            );
+        }
+
+        /**
+         * 부모 콘텐츠에서 파일명 접두사를 뺀 본문의 문서 원문 오프셋. 본문은 원문 {@code [parentStartOffset, parentEndOffset)}
+         * 구간과 같다. 부모가 없거나 길이가 맞지 않으면 null.
+         */
+        public Integer parentBodyOffset() {
+            return parentPrefixLength() >= 0 ? parentStartOffset : null;
+        }
+
+        /** 파일명 접두사를 뺀 부모 본문. 원문 위치를 모르면 부모 콘텐츠 그대로. */
+        public String parentBody() {
+            int prefix = parentPrefixLength();
+            return prefix > 0 ? parentContent.substring(prefix) : parentContent;
+        }
+
+        private int parentPrefixLength() {
+            if (parentContent == null || parentStartOffset == null || parentEndOffset == null) {
+                return -1;
+            }
+            return parentContent.length() - (parentEndOffset - parentStartOffset);
+        }
+
+        /** 부모 콘텐츠가 있으면 부모, 없으면 검색 결과 콘텐츠 */
+        public String contentForLlm(String matchedContent) {
+            return parentContent != null ? parentContent : matchedContent;
+        }
+    }
+
+    /** {@link #hydrate} 결과 */
+    public record Hydration(Map<UUID, ChunkMetadata> chunks, Map<UUID, String> fileNames) {
+
+        public ChunkMetadata chunk(UUID chunkId) {
+            return chunks.get(chunkId);
+        }
+
+        /** 문서 ID로 파일명을 찾고, 없으면 청크의 sourceId로 찾는다. */
+        public String fileName(UUID documentId, ChunkMetadata chunk) {
+            String fileName = documentId != null ? fileNames.get(documentId) : null;
+            if (fileName == null && chunk != null && chunk.sourceId() != null) {
+                fileName = fileNames.get(chunk.sourceId());
+            }
+            return fileName;
+        }
+    }
+
+    public record CacheStats(
+            boolean enabled,
+            int chunkEntries,
+            int fileNameEntries,
+            long chunkHits,
+            long chunkMisses,
+            long fileNameHits,
+            long fileNameMisses,
+            long invalidations
+    ) {}
+
+    private record Entry<V>(V value, Instant expiresAt) {}
+
+    /** 파일명 (문서가 없으면 null도 캐시한다) */
+    private record FileName(String value) {}
+}
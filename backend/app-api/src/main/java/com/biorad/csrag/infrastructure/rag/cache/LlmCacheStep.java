@@ -0,0 +1,38 @@
+package com.biorad.csrag.infrastructure.rag.cache;
+
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+
+import java.time.Duration;
+
+/**
+ * 응답 캐시 대상 LLM 단계.
+ *
+ * <p>{@code retrievalDependent} 단계는 입력에 검색 결과가 들어가므로 KB 인덱스가 바뀌면 무효화된다.
+ */
+public enum LlmCacheStep {
+
+    DECOMPOSE(false),
+    TRANSLATE(false),
+    HYDE(false),
+    RERANK(true);
+
+    private final boolean retrievalDependent;
+
+    LlmCacheStep(boolean retrievalDependent) {
+        this.retrievalDependent = retrievalDependent;
+    }
+
+    public boolean isRetrievalDependent() {
+        return retrievalDependent;
+    }
+
+    Duration ttl(RagPipelineProperties.LlmCache config) {
+        long minutes = switch (this) {
+            case DECOMPOSE -> config.getDecomposeTtlMinutes();
+            case TRANSLATE -> config.getTranslateTtlMinutes();
+            case HYDE -> config.getHydeTtlMinutes();
+            case RERANK -> config.getRerankTtlMinutes();
+        };
+        return Duration.ofMinutes(minutes);
+    }
+}
@@ -0,0 +1,296 @@
+package com.biorad.csrag.infrastructure.rag.cache;
+
+import com.biorad.csrag.infrastructure.persistence.cache.LlmResponseCacheEntity;
+import com.biorad.csrag.infrastructure.persistence.cache.LlmResponseCacheRepository;
+import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 결정적 LLM 응답 캐시 (메모리 LRU + DB 2계층).
+ *
+ * <p>키는 단계 + 모델 + {@link PromptRegistry#version 프롬프트 템플릿 버전} + 요청 body(렌더링된 프롬프트,
+ * max tokens, temperature, JSON mode)의 정규화 JSON SHA-256이다. 같은 질문으로 초안을 재생성하면
+ * ({@code previousAnswerId}, auto-workflow) 질문 분해·번역·HyDE·listwise rerank의 LLM 왕복을 건너뛴다.
+ * <ul>
+ *   <li>응답 내용(assistant message content)만 저장하며, 파싱에 성공한 경우에만 저장한다.</li>
+ *   <li>TTL은 단계별({@code rag.llm-cache.*-ttl-minutes})이다.</li>
+ *   <li>검색 결과에 의존하는 단계({@link LlmCacheStep#isRetrievalDependent()})는 KB 인덱스 변경 시 두 계층 모두 비운다.</li>
+ * </ul>
+ * DB 오류는 캐시 미스로 취급하며 파이프라인을 막지 않는다.
+ */
+@Service
+public class LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    /** Map 키 순서를 고정해 JVM 재시작 후에도 같은 요청이 같은 해시를 갖도록 한다. */
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .build();
+
+    private final LlmResponseCacheRepository repository;
+    private final RagPipelineProperties.LlmCache config;
+    private final PromptRegistry promptRegistry;
+    private final Clock clock;
+    private final Map<String, MemoryEntry> memory;
+
+    /** 검색 의존 단계 무효화 세대. 무효화 전에 시작된 호출의 결과가 뒤늦게 저장되는 것을 막는다. */
+    private final AtomicLong retrievalGeneration = new AtomicLong();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder dbHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public LlmResponseCache(LlmResponseCacheRepository repository,
+                            RagPipelineProperties properties,
+                            PromptRegistry promptRegistry) {
+        this(repository, properties.getLlmCache(), promptRegistry, Clock.systemUTC());
+    }
+
+    LlmResponseCache(LlmResponseCacheRepository repository,
+                     RagPipelineProperties.LlmCache config,
+                     PromptRegistry promptRegistry,
+                     Clock clock) {
+        this.repository = repository;
+        this.config = config;
+        this.promptRegistry = promptRegistry;
+        this.clock = clock;
+        int maxEntries = Math.max(1, config.getMemoryMaxEntries());
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<>(maxEntries + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 캐시를 거치지 않는 인스턴스. 테스트용 생성자에서 캐시 없이 서비스를 구성할 때 쓴다.
+     */
+    public static LlmResponseCache disabled() {
+        RagPipelineProperties.LlmCache off = new RagPipelineProperties.LlmCache();
+        off.setEnabled(false);
+        off.setMemoryMaxEntries(1);
+        return new LlmResponseCache(null, off, null, Clock.systemUTC());
+    }
+
+    /**
+     * @param promptName 키에 버전을 반영할 {@link PromptRegistry} 템플릿 이름
+     * @param requestBody OpenAI 요청 body (모델·메시지·파라미터 전체)
+     */
+    public Key key(LlmCacheStep step, String model, String promptName, Object requestBody) {
+        String promptVersion = promptRegistry != null ? promptRegistry.version(promptName) : "inline";
+        String canonicalBody;
+        try {
+            canonicalBody = CANONICAL_MAPPER.writeValueAsString(requestBody);
+        } catch (JsonProcessingException e) {
+            canonicalBody = String.valueOf(requestBody);
+        }
+        String hash = sha256(step.name() + '\n' + model + '\n' + promptVersion + '\n' + canonicalBody);
+        return new Key(step, model == null ? "" : model, promptVersion, hash);
+    }
+
+    /**
+     * 캐시된 응답 내용이 있으면 파싱해 반환하고, 없으면 {@code loader}로 LLM을 호출해 저장한다.
+     *
+     * <p>캐시된 내용의 파싱이 실패하면 해당 항목을 버리고 다시 호출한다.
+     * 새 응답은 비어 있지 않고 파싱에 성공한 경우에만 저장된다.
+     */
+    public <T> T getOrLoad(Key key, Loader loader, Parser<T> parser) throws Exception {
+        if (!config.isEnabled()) {
+            return parser.parse(loader.load());
+        }
+
+        Optional<String> cached = lookup(key);
+        if (cached.isPresent()) {
+            try {
+                return parser.parse(cached.get());
+            } catch (Exception e) {
+                log.warn("llm.cache.corrupt step={} key={} reason={}", key.step(), key.hash(), e.getMessage());
+                evict(key);
+            }
+        }
+
+        misses.increment();
+        long generation = retrievalGeneration.get();
+        String content = loader.load();
+        T parsed = parser.parse(content);
+        if (content != null && !content.isBlank()
+                && (!key.step().isRetrievalDependent() || generation == retrievalGeneration.get())) {
+            store(key, content);
+        }
+        return parsed;
+    }
+
+    /**
+     * KB 인덱스 변경 시 검색 결과에 의존하는 단계의 응답을 모두 버린다.
+     */
+    public void invalidateRetrievalDependent() {
+        retrievalGeneration.incrementAndGet();
+        invalidations.increment();
+        List<String> steps = Arrays.stream(LlmCacheStep.values())
+                .filter(LlmCacheStep::isRetrievalDependent)
+                .map(Enum::name)
+                .toList();
+        synchronized (memory) {
+            memory.values().removeIf(entry -> entry.step().isRetrievalDependent());
+        }
+        if (repository == null) {
+            return;
+        }
+        try {
+            int removed = repository.deleteBySteps(steps);
+            log.info("llm.cache.invalidated steps={} removed={}", steps, removed);
+        } catch (Exception e) {
+            log.warn("llm.cache.invalidate.failed steps={} reason={}", steps, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRate = 3600000) // every hour
+    public void cleanupExpired() {
+        if (repository == null || !config.isEnabled()) {
+            return;
+        }
+        try {
+            int removed = repository.deleteExpired(clock.instant());
+            if (removed > 0) {
+                log.info("llm.cache.cleanup removed={}", removed);
+            }
+        } catch (Exception e) {
+            log.warn("llm.cache.cleanup.failed reason={}", e.getMessage());
+        }
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(
+                config.isEnabled(),
+                memory.size(),
+                memoryHits.sum(),
+                dbHits.sum(),
+                misses.sum(),
+                stores.sum(),
+                invalidations.sum()
+        );
+    }
+
+    private Optional<String> lookup(Key key) {
+        Instant now = clock.instant();
+        MemoryEntry entry = memory.get(key.hash());
+        if (entry != null) {
+            if (entry.expiresAt().isAfter(now)) {
+                memoryHits.increment();
+                return Optional.of(entry.content());
+            }
+            memory.remove(key.hash());
+        }
+        if (repository == null) {
+            return Optional.empty();
+        }
+        try {
+            Optional<LlmResponseCacheEntity> row = repository.findById(key.hash());
+            if (row.isPresent() && row.get().getExpiresAt().isAfter(now)) {
+                dbHits.increment();
+                repository.incrementHitCount(key.hash());
+                memory.put(key.hash(), new MemoryEntry(key.step(), row.get().getResponseText(), row.get().getExpiresAt()));
+                log.debug("llm.cache.hit.db step={} key={}", key.step(), key.hash());
+                return Optional.of(row.get().getResponseText());
+            }
+        } catch (Exception e) {
+            log.warn("llm.cache.lookup.failed step={} reason={}", key.step(), e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private void store(Key key, String content) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(key.step().ttl(config));
+        memory.put(key.hash(), new MemoryEntry(key.step(), content, expiresAt));
+        stores.increment();
+        if (repository == null) {
+            return;
+        }
+        try {
+            repository.save(new LlmResponseCacheEntity(
+                    key.hash(), key.step().name(), key.model(), key.promptVersion(), content, now, expiresAt));
+        } catch (DataIntegrityViolationException e) {
+            // 동시 요청이 먼저 저장한 경우 — 같은 키는 같은 내용이므로 무시한다
+            log.debug("llm.cache.store.duplicate key={}", key.hash());
+        } catch (Exception e) {
+            log.warn("llm.cache.store.failed step={} reason={}", key.step(), e.getMessage());
+        }
+    }
+
+    private void evict(Key key) {
+        memory.remove(key.hash());
+        if (repository == null) {
+            return;
+        }
+        try {
+            repository.deleteById(key.hash());
+        } catch (Exception e) {
+            log.warn("llm.cache.evict.failed key={} reason={}", key.hash(), e.getMessage());
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available in JVM
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Key(LlmCacheStep step, String model, String promptVersion, String hash) {}
+
+    public record CacheStats(
+            boolean enabled,
+            int memoryEntries,
+            long memoryHits,
+            long dbHits,
+            long misses,
+            long stores,
+            long invalidations
+    ) {}
+
+    @FunctionalInterface
+    public interface Loader {
+        String load() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Parser<T> {
+        T parse(String content) throws Exception;
+    }
+
+    private record MemoryEntry(LlmCacheStep step, String content, Instant expiresAt) {}
+}
@@ -25,6 +25,12 @@ public class RagPipelineProperties {
     private Compose compose = new Compose();
     private CircuitBreaker circuitBreaker = new CircuitBreaker();
     private Indexing indexing = new Indexing();
+    private Metrics metrics = new Metrics();
+    private LlmCache llmCache = new LlmCache();
+    private ChunkCache chunkCache = new ChunkCache();
+    private EvidenceJournal evidenceJournal = new EvidenceJournal();
+    private IndexingQueue indexingQueue = new IndexingQueue();
+    private Compression compression = new Compression();
 
     // --- top-level getters / setters ---
 
@@ -61,6 +67,24 @@ public class RagPipelineProperties {
     public Indexing getIndexing() { return indexing; }
     public void setIndexing(Indexing indexing) { this.indexing = indexing; }
 
+    public Metrics getMetrics() { return metrics; }
+    public void setMetrics(Metrics metrics) { this.metrics = metrics; }
+
+    public LlmCache getLlmCache() { return llmCache; }
+    public void setLlmCache(LlmCache llmCache) { this.llmCache = llmCache; }
+
+    public ChunkCache getChunkCache() { return chunkCache; }
+    public void setChunkCache(ChunkCache chunkCache) { this.chunkCache = chunkCache; }
+
+    public EvidenceJournal getEvidenceJournal() { return evidenceJournal; }
+    public void setEvidenceJournal(EvidenceJournal evidenceJournal) { this.evidenceJournal = evidenceJournal; }
+
+    public IndexingQueue getIndexingQueue() { return indexingQueue; }
+    public void setIndexingQueue(IndexingQueue indexingQueue) { this.indexingQueue = indexingQueue; }
+
+    public Compression getCompression() { return compression; }
+    public void setCompression(Compression compression) { this.compression = compression; }
+
     // === Inner configuration classes ===
 
     /** 파이프라인 요청당 토큰 예산 설정. */
@@ -230,4 +254,164 @@ public class RagPipelineProperties {
         public int getEnrichmentSampleInterval() { return enrichmentSampleInterval; }
         public void setEnrichmentSampleInterval(int enrichmentSampleInterval) { this.enrichmentSampleInterval = enrichmentSampleInterval; }
     }
+
+    /** 파이프라인 메트릭 링 버퍼 및 배치 flush 설정. */
+    public static class Metrics {
+        private int bufferCapacity = 8192;
+        private int batchSize = 500;
+        private long flushIntervalMs = 1000;
+        private String overflowPolicy = "DROP_NEWEST";
+
+        public int getBufferCapacity() { return bufferCapacity; }
+        public void setBufferCapacity(int bufferCapacity) { this.bufferCapacity = bufferCapacity; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public long getFlushIntervalMs() { return flushIntervalMs; }
+        public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+
+        public String getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(String overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+    }
+
+    /** 결정적 LLM 응답 캐시 설정 (단계별 TTL). */
+    public static class LlmCache {
+        private boolean enabled = true;
+        private int memoryMaxEntries = 2000;
+        private long decomposeTtlMinutes = 1440;
+        private long translateTtlMinutes = 10080;
+        private long hydeTtlMinutes = 1440;
+        private long rerankTtlMinutes = 360;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMemoryMaxEntries() { return memoryMaxEntries; }
+        public void setMemoryMaxEntries(int memoryMaxEntries) { this.memoryMaxEntries = memoryMaxEntries; }
+
+        public long getDecomposeTtlMinutes() { return decomposeTtlMinutes; }
+        public void setDecomposeTtlMinutes(long decomposeTtlMinutes) { this.decomposeTtlMinutes = decomposeTtlMinutes; }
+
+        public long getTranslateTtlMinutes() { return translateTtlMinutes; }
+        public void setTranslateTtlMinutes(long translateTtlMinutes) { this.translateTtlMinutes = translateTtlMinutes; }
+
+        public long getHydeTtlMinutes() { return hydeTtlMinutes; }
+        public void setHydeTtlMinutes(long hydeTtlMinutes) { this.hydeTtlMinutes = hydeTtlMinutes; }
+
+        public long getRerankTtlMinutes() { return rerankTtlMinutes; }
+        public void setRerankTtlMinutes(long rerankTtlMinutes) { this.rerankTtlMinutes = rerankTtlMinutes; }
+    }
+
+    /** 근거 보강용 청크 메타데이터·부모 콘텐츠 캐시 설정. */
+    public static class ChunkCache {
+        private boolean enabled = true;
+        private int maxEntries = 20000;
+        private long ttlMinutes = 60;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+        public long getTtlMinutes() { return ttlMinutes; }
+        public void setTtlMinutes(long ttlMinutes) { this.ttlMinutes = ttlMinutes; }
+    }
+
+    /** 검색 근거 write-behind 저널 설정. */
+    public static class EvidenceJournal {
+        private boolean enabled = true;
+        private int bufferCapacity = 4096;
+        private int batchSize = 500;
+        private long flushIntervalMs = 200;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getBufferCapacity() { return bufferCapacity; }
+        public void setBufferCapacity(int bufferCapacity) { this.bufferCapacity = bufferCapacity; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public long getFlushIntervalMs() { return flushIntervalMs; }
+        public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+    }
+
+    /** KB 인덱싱 작업 큐 설정 (lease, 재시도, OpenAI 429 기반 동시성 조절). */
+    public static class IndexingQueue {
+        private boolean enabled = true;
+        private long pollIntervalMs = 1000;
+        private int leaseSeconds = 300;
+        private int maxAttempts = 3;
+        private int retryBackoffSeconds = 30;
+        private int minConcurrency = 1;
+        private int maxConcurrency = 4;
+        private int increaseIntervalSeconds = 30;
+        private int throughputWindowMinutes = 10;
+        private int staleMinutes = 15;
+        private int retentionDays = 7;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getPollIntervalMs() { return pollIntervalMs; }
+        public void setPollIntervalMs(long pollIntervalMs) { this.pollIntervalMs = pollIntervalMs; }
+
+        public int getLeaseSeconds() { return leaseSeconds; }
+        public void setLeaseSeconds(int leaseSeconds) { this.leaseSeconds = leaseSeconds; }
+
+        public int getMaxAttempts() { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+        public int getRetryBackoffSeconds() { return retryBackoffSeconds; }
+        public void setRetryBackoffSeconds(int retryBackoffSeconds) { this.retryBackoffSeconds = retryBackoffSeconds; }
+
+        public int getMinConcurrency() { return minConcurrency; }
+        public void setMinConcurrency(int minConcurrency) { this.minConcurrency = minConcurrency; }
+
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+        public int getIncreaseIntervalSeconds() { return increaseIntervalSeconds; }
+        public void setIncreaseIntervalSeconds(int increaseIntervalSeconds) { this.increaseIntervalSeconds = increaseIntervalSeconds; }
+
+        public int getThroughputWindowMinutes() { return throughputWindowMinutes; }
+        public void setThroughputWindowMinutes(int throughputWindowMinutes) { this.throughputWindowMinutes = throughputWindowMinutes; }
+
+        public int getStaleMinutes() { return staleMinutes; }
+        public void setStaleMinutes(int staleMinutes) { this.staleMinutes = staleMinutes; }
+
+        public int getRetentionDays() { return retentionDays; }
+        public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
+    }
+
+    /** compose·critic 전 부모 근거의 추출 압축 (질의·CHILD 적중 관련 문장만 유지) 설정. */
+    public static class Compression {
+        private boolean enabled = true;
+        private int minChars = 600;
+        private int maxSentences = 4;
+        private int maxChars = 700;
+        private double queryWeight = 0.6;
+        private double childWeight = 0.4;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMinChars() { return minChars; }
+        public void setMinChars(int minChars) { this.minChars = minChars; }
+
+        public int getMaxSentences() { return maxSentences; }
+        public void setMaxSentences(int maxSentences) { this.maxSentences = maxSentences; }
+
+        public int getMaxChars() { return maxChars; }
+        public void setMaxChars(int maxChars) { this.maxChars = maxChars; }
+
+        public double getQueryWeight() { return queryWeight; }
+        public void setQueryWeight(double queryWeight) { this.queryWeight = queryWeight; }
+
+        public double getChildWeight() { return childWeight; }
+        public void setChildWeight(double childWeight) { this.childWeight = childWeight; }
+    }
 }
@@ -0,0 +1,190 @@
+package com.biorad.csrag.infrastructure.rag.dedup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 단어 집합의 MinHash 서명 (64개 해시, 256바이트).
+ *
+ * <p>두 서명에서 같은 위치 값이 일치하는 비율이 원문 단어 집합의 Jaccard 유사도 추정치이다
+ * (표준오차 ≈ √(J(1−J)/64), J=0.7 기준 약 0.06). 토큰화 규칙은 {@code EvidenceDeduplicator}의
+ * 기존 Jaccard 계산과 같다: 소문자화, 공백·ASCII 구두점으로 분리, 2자 미만 토큰 제외.
+ *
+ * <p>청크 인덱싱 시 한 번 계산해 {@code document_chunks.minhash_signature}에 저장하므로, 검색 시 중복 판정은
+ * 재토큰화 없이 정수 64개 비교로 끝난다. 해시 시드나 개수를 바꾸면 {@link #VERSION}을 올려야 하며,
+ * 버전이 다른 저장값은 {@link #decode}가 무시한다 (호출자가 원문으로 다시 계산).
+ */
+public final class MinHashSignature {
+
+    public static final int SIZE = 64;
+    /** LSH 밴드 수 × 행 수 = {@link #SIZE}. J=0.7 쌍이 후보가 될 확률 ≈ 98.8% */
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = SIZE / BANDS;
+
+    private static final byte VERSION = 1;
+    private static final long[] SEEDS = new long[SIZE];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < SIZE; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(state);
+        }
+    }
+
+    private static final MinHashSignature EMPTY = new MinHashSignature(filled(Integer.MAX_VALUE), true);
+
+    private final int[] values;
+    private final boolean empty;
+
+    private MinHashSignature(int[] values, boolean empty) {
+        this.values = values;
+        this.empty = empty;
+    }
+
+    public static MinHashSignature of(String text) {
+        if (text == null || text.isBlank()) {
+            return EMPTY;
+        }
+        int[] values = filled(Integer.MAX_VALUE);
+        boolean any = false;
+        long tokenHash = FNV_OFFSET;
+        int tokenLength = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (isDelimiter(c)) {
+                if (tokenLength >= 2) {
+                    addToken(values, tokenHash);
+                    any = true;
+                }
+                tokenHash = FNV_OFFSET;
+                tokenLength = 0;
+            } else {
+                tokenHash = (tokenHash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                tokenLength++;
+            }
+        }
+        return any ? new MinHashSignature(values, false) : EMPTY;
+    }
+
+    /**
+     * 추정 Jaccard 유사도. 둘 다 빈 텍스트면 1.0, 한쪽만 비었으면 0.0 (기존 Jaccard 계산과 동일).
+     */
+    public double similarity(MinHashSignature other) {
+        if (empty || other.empty) {
+            return empty && other.empty ? 1.0 : 0.0;
+        }
+        int matches = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (values[i] == other.values[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / SIZE;
+    }
+
+    /** {@code band}번째 밴드의 해시. 같은 값을 갖는 서명끼리만 LSH 후보가 된다. */
+    public long bandHash(int band) {
+        long h = band;
+        int offset = band * ROWS_PER_BAND;
+        for (int i = 0; i < ROWS_PER_BAND; i++) {
+            h = mix(h * 31 + values[offset + i]);
+        }
+        return h;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /** 저장용 Base64 문자열 (버전 1바이트 + 값 256바이트) */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + SIZE * Integer.BYTES);
+        buffer.put(empty ? 0 : VERSION);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * @return 저장값이 없거나 형식·버전이 맞지 않으면 {@code null}
+     */
+    public static MinHashSignature decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bytes.length != 1 + SIZE * Integer.BYTES) {
+            return null;
+        }
+        if (bytes[0] == 0) {
+            return EMPTY;
+        }
+        if (bytes[0] != VERSION) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, SIZE * Integer.BYTES);
+        int[] values = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = buffer.getInt();
+        }
+        return new MinHashSignature(values, false);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof MinHashSignature other
+                && empty == other.empty && Arrays.equals(values, other.values));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return empty ? "MinHashSignature[empty]" : "MinHashSignature[" + Integer.toHexString(hashCode()) + "]";
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static void addToken(int[] values, long tokenHash) {
+        for (int i = 0; i < SIZE; i++) {
+            int h = (int) (mix(tokenHash ^ SEEDS[i]) >>> 32);
+            if (h < values[i]) {
+                values[i] = h;
+            }
+        }
+    }
+
+    /** {@code [\s\p{Punct}]} — 공백 문자와 ASCII 구두점 */
+    private static boolean isDelimiter(char c) {
+        if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+            return true;
+        }
+        return c < 128 && c > ' ' && !Character.isLetterOrDigit(c) && c != 127;
+    }
+
+    /** SplitMix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int[] filled(int value) {
+        int[] values = new int[SIZE];
+        Arrays.fill(values, value);
+        return values;
+    }
+}
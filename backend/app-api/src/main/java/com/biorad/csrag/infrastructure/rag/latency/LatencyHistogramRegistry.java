@@ -0,0 +1,130 @@
+package com.biorad.csrag.infrastructure.rag.latency;
+
+import com.biorad.csrag.infrastructure.openai.PipelineTraceContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 파이프라인 단계/모델/프로바이더별 지연시간 히스토그램 저장소.
+ *
+ * <p>기록 지점:
+ * <ul>
+ *   <li>{@code PIPELINE_STEP} — AnswerOrchestrationService.executeWithRunLog (DECOMPOSE, RETRIEVE, COMPOSE, CRITIC …)</li>
+ *   <li>{@code LLM_CALL} — {@link PipelineTraceContext#recordLlmCall} (단계 + 모델)</li>
+ *   <li>{@code VECTOR_SEARCH}, {@code KEYWORD_SEARCH} — HybridSearchService</li>
+ * </ul>
+ * 키 카디널리티가 폭증하지 않도록 최대 {@value #MAX_SERIES}개 시리즈까지만 생성한다.
+ */
+@Component
+public class LatencyHistogramRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyHistogramRegistry.class);
+
+    static final int MAX_SERIES = 512;
+
+    /** 조회 API가 반환하는 롤링 윈도우. */
+    public static final Map<String, Duration> WINDOWS = windows();
+
+    private final ConcurrentHashMap<SeriesKey, WindowedLatencyHistogram> series = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerTraceListener() {
+        PipelineTraceContext.setLlmCallListener(call -> {
+            if (call.latencyMs() > 0) {
+                recordMillis("LLM_CALL", call.step(), call.model(), "openai", call.latencyMs());
+            }
+        });
+    }
+
+    @PreDestroy
+    void unregisterTraceListener() {
+        PipelineTraceContext.setLlmCallListener(null);
+    }
+
+    public void recordMillis(String category, String step, String model, String provider, long millis) {
+        recordMicros(category, step, model, provider, millis * 1000);
+    }
+
+    public void recordNanos(String category, String step, String model, String provider, long nanos) {
+        recordMicros(category, step, model, provider, nanos / 1000);
+    }
+
+    public void recordMicros(String category, String step, String model, String provider, long micros) {
+        WindowedLatencyHistogram histogram = histogram(new SeriesKey(
+                normalize(category), normalize(step), normalize(model), normalize(provider)));
+        if (histogram != null) {
+            histogram.recordMicros(micros);
+        }
+    }
+
+    /**
+     * 모든 시리즈의 윈도우별 요약을 반환한다.
+     *
+     * @param category null이 아니면 해당 카테고리만 반환
+     */
+    public List<SeriesSnapshot> snapshot(String category) {
+        List<SeriesSnapshot> result = new ArrayList<>();
+        series.forEach((key, histogram) -> {
+            if (category != null && !category.equalsIgnoreCase(key.category())) {
+                return;
+            }
+            Map<String, WindowedLatencyHistogram.Snapshot> windows = new LinkedHashMap<>();
+            WINDOWS.forEach((name, window) -> windows.put(name, histogram.snapshot(window)));
+            result.add(new SeriesSnapshot(key.category(), key.step(), key.model(), key.provider(), windows));
+        });
+        result.sort(Comparator.comparing(SeriesSnapshot::category)
+                .thenComparing(SeriesSnapshot::step)
+                .thenComparing(SeriesSnapshot::model)
+                .thenComparing(SeriesSnapshot::provider));
+        return result;
+    }
+
+    private WindowedLatencyHistogram histogram(SeriesKey key) {
+        WindowedLatencyHistogram existing = series.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (series.size() >= MAX_SERIES) {
+            log.debug("latency.histogram series limit reached, dropping key={}", key);
+            return null;
+        }
+        return series.computeIfAbsent(key, k -> new WindowedLatencyHistogram());
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "-" : value;
+    }
+
+    private static Map<String, Duration> windows() {
+        Map<String, Duration> windows = new LinkedHashMap<>();
+        windows.put("1m", Duration.ofMinutes(1));
+        windows.put("15m", Duration.ofMinutes(15));
+        windows.put("1h", Duration.ofHours(1));
+        return Collections.unmodifiableMap(windows);
+    }
+
+    record SeriesKey(String category, String step, String model, String provider) {}
+
+    /**
+     * 한 시리즈(category/step/model/provider)의 윈도우별 요약.
+     */
+    public record SeriesSnapshot(
+            String category,
+            String step,
+            String model,
+            String provider,
+            Map<String, WindowedLatencyHistogram.Snapshot> windows
+    ) {}
+}
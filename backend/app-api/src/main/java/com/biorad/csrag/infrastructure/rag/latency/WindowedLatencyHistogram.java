@@ -0,0 +1,215 @@
+package com.biorad.csrag.infrastructure.rag.latency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 윈도우 기반 lock-free 지연시간 히스토그램.
+ *
+ * <p>HdrHistogram과 같은 log-linear 버킷을 사용한다: 16µs 미만은 1µs 단위로 정확히,
+ * 그 이상은 2의 거듭제곱 구간마다 16개의 선형 하위 버킷으로 나누어 상대 오차를 약 6% 이내로 유지한다.
+ *
+ * <p>값은 두 개의 슬라이스 링에 동시에 기록된다.
+ * <ul>
+ *   <li>fine ring — 10초 슬라이스 × 7 (최근 1분 조회용)</li>
+ *   <li>coarse ring — 1분 슬라이스 × 61 (최근 15분 / 1시간 조회용)</li>
+ * </ul>
+ * 슬라이스는 첫 기록 시점에 할당되고 epoch가 바뀌면 CAS로 교체되므로 기록 경로에는 락이 없다.
+ */
+public final class WindowedLatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** 약 19시간(2^36µs)까지 표현. 그 이상은 마지막 버킷으로 clamp. */
+    static final long MAX_TRACKABLE_MICROS = (1L << 36) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1;
+
+    private static final long FINE_SLICE_MILLIS = 10_000;
+    private static final long COARSE_SLICE_MILLIS = 60_000;
+
+    private final SliceRing fine = new SliceRing(FINE_SLICE_MILLIS, 7);
+    private final SliceRing coarse = new SliceRing(COARSE_SLICE_MILLIS, 61);
+    private final LongSupplier clock;
+
+    public WindowedLatencyHistogram() {
+        this(System::currentTimeMillis);
+    }
+
+    WindowedLatencyHistogram(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * 지연시간을 마이크로초 단위로 기록한다. 음수는 무시한다.
+     */
+    public void recordMicros(long micros) {
+        if (micros < 0) {
+            return;
+        }
+        long value = Math.min(micros, MAX_TRACKABLE_MICROS);
+        long now = clock.getAsLong();
+        fine.record(now, value);
+        coarse.record(now, value);
+    }
+
+    public void recordMillis(long millis) {
+        recordMicros(millis * 1000);
+    }
+
+    /**
+     * 최근 {@code window} 동안의 분포 요약을 반환한다.
+     * 1분 이하 윈도우는 10초 슬라이스, 그 이상은 1분 슬라이스로 집계한다.
+     */
+    public Snapshot snapshot(Duration window) {
+        long now = clock.getAsLong();
+        SliceRing ring = window.toMillis() <= 60_000 ? fine : coarse;
+        long[] counts = new long[BUCKET_COUNT];
+        long[] totals = new long[3]; // count, sum, max
+        ring.collect(now, window.toMillis(), counts, totals);
+        return Snapshot.of(counts, totals[0], totals[1], totals[2]);
+    }
+
+    // ── bucket math ──────────────────────────────────────────
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int octave = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (micros >>> octave) - SUB_BUCKETS;
+        return SUB_BUCKETS + octave * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int k = index - SUB_BUCKETS;
+        int octave = k / SUB_BUCKETS;
+        int sub = k % SUB_BUCKETS;
+        return ((long) SUB_BUCKETS + sub) << octave;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int k = index - SUB_BUCKETS;
+        int octave = k / SUB_BUCKETS;
+        int sub = k % SUB_BUCKETS;
+        return (((long) SUB_BUCKETS + sub + 1) << octave) - 1;
+    }
+
+    // ── slices ───────────────────────────────────────────────
+
+    private static final class Slice {
+        final long epoch;
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+
+        Slice(long epoch) {
+            this.epoch = epoch;
+        }
+
+        void record(long micros) {
+            counts.incrementAndGet(bucketIndex(micros));
+            count.incrementAndGet();
+            sum.addAndGet(micros);
+            max.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    private static final class SliceRing {
+        final long sliceMillis;
+        final AtomicReferenceArray<Slice> slices;
+
+        SliceRing(long sliceMillis, int size) {
+            this.sliceMillis = sliceMillis;
+            this.slices = new AtomicReferenceArray<>(size);
+        }
+
+        void record(long nowMillis, long micros) {
+            long epoch = nowMillis / sliceMillis;
+            int idx = (int) (epoch % slices.length());
+            Slice current = slices.get(idx);
+            if (current == null || current.epoch < epoch) {
+                Slice fresh = new Slice(epoch);
+                if (slices.compareAndSet(idx, current, fresh)) {
+                    current = fresh;
+                } else {
+                    current = slices.get(idx);
+                }
+            }
+            if (current != null && current.epoch == epoch) {
+                current.record(micros);
+            }
+        }
+
+        void collect(long nowMillis, long windowMillis, long[] counts, long[] totals) {
+            long nowEpoch = nowMillis / sliceMillis;
+            long sliceSpan = Math.max(1, (windowMillis + sliceMillis - 1) / sliceMillis);
+            long oldestEpoch = nowEpoch - Math.min(sliceSpan, slices.length() - 1);
+            for (int i = 0; i < slices.length(); i++) {
+                Slice slice = slices.get(i);
+                if (slice == null || slice.epoch < oldestEpoch || slice.epoch > nowEpoch) {
+                    continue;
+                }
+                for (int b = 0; b < BUCKET_COUNT; b++) {
+                    counts[b] += slice.counts.get(b);
+                }
+                totals[0] += slice.count.get();
+                totals[1] += slice.sum.get();
+                totals[2] = Math.max(totals[2], slice.max.get());
+            }
+        }
+    }
+
+    /**
+     * 윈도우 집계 결과 (단위: 밀리초).
+     */
+    public record Snapshot(long count, double meanMs, double p50Ms, double p90Ms,
+                           double p95Ms, double p99Ms, double maxMs) {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0, 0);
+
+        static Snapshot of(long[] counts, long count, long sumMicros, long maxMicros) {
+            if (count == 0) {
+                return EMPTY;
+            }
+            return new Snapshot(
+                    count,
+                    toMillis((double) sumMicros / count),
+                    toMillis(percentile(counts, count, 0.50, maxMicros)),
+                    toMillis(percentile(counts, count, 0.90, maxMicros)),
+                    toMillis(percentile(counts, count, 0.95, maxMicros)),
+                    toMillis(percentile(counts, count, 0.99, maxMicros)),
+                    toMillis(maxMicros)
+            );
+        }
+
+        private static double percentile(long[] counts, long total, double quantile, long maxMicros) {
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long lower = bucketLowerBound(i);
+                    long upper = bucketUpperBound(i);
+                    // 버킷 중앙값을 대표값으로 사용하되 관측된 최대값을 넘지 않게 한다
+                    return Math.min((lower + upper) / 2.0, maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        private static double toMillis(double micros) {
+            return Math.round(micros / 10.0) / 100.0;
+        }
+    }
+}
@@ -27,6 +27,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
+    /** 서명 검증된 access token의 subject. 레거시 X-User-Id 헤더와 달리 위조할 수 없어 속도 제한 키로 쓴다. */
+    public static final String VERIFIED_SUBJECT_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".subject";
+
     private final JwtTokenProvider jwtTokenProvider;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
@@ -64,6 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(VERIFIED_SUBJECT_ATTRIBUTE, userId);
                 log.debug("jwt.filter.authenticated userId={} roles={}", userId, rolesStr);
             } catch (Exception e) {
                 log.debug("jwt.filter.error reason={}", e.getMessage());
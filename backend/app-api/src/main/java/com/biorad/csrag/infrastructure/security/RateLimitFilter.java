@@ -1,88 +1,104 @@
 package com.biorad.csrag.infrastructure.security;
 
+import com.biorad.csrag.infrastructure.security.ratelimit.LocalRateLimitStore;
+import com.biorad.csrag.infrastructure.security.ratelimit.RateLimitDecision;
+import com.biorad.csrag.infrastructure.security.ratelimit.RateLimitPolicies;
+import com.biorad.csrag.infrastructure.security.ratelimit.RateLimitPolicy;
+import com.biorad.csrag.infrastructure.security.ratelimit.RateLimitStore;
+import com.biorad.csrag.infrastructure.security.ratelimit.RequestRateLimitProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 엔드포인트 등급별 GCRA 요청 속도 제한.
+ *
+ * <p>{@link JwtAuthenticationFilter} 뒤에서 실행되어, 서명 검증된 JWT subject가 있으면 사용자 단위로,
+ * 없으면 클라이언트 IP 단위로 제한한다. 정책은 {@link RateLimitPolicies}, 상태는 {@link RateLimitStore}가 갖는다.
+ */
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
-    private static final int MAX_REQUESTS_PER_MINUTE = 100;
-    private static final long WINDOW_MS = 60_000;
 
-    private final Map<String, RateLimitBucket> buckets = new ConcurrentHashMap<>();
+    private final RequestRateLimitProperties properties;
+    private final RateLimitPolicies policies;
+    private final RateLimitStore store;
+
+    @Autowired
+    public RateLimitFilter(RequestRateLimitProperties properties, RateLimitStore store) {
+        this.properties = properties;
+        this.policies = new RateLimitPolicies(properties);
+        this.store = store;
+    }
+
+    /** 기본 정책과 로컬 저장소로 구성한다 (테스트용). */
+    public RateLimitFilter() {
+        this(new RequestRateLimitProperties());
+    }
+
+    private RateLimitFilter(RequestRateLimitProperties properties) {
+        this(properties, new LocalRateLimitStore(properties));
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String clientIp = getClientIp(request);
-        RateLimitBucket bucket = buckets.computeIfAbsent(clientIp, k -> new RateLimitBucket());
+        RateLimitPolicy policy = policies.resolve(request.getMethod(), request.getRequestURI());
+        String clientKey = getClientKey(request);
+        RateLimitDecision decision = store.acquire(clientKey, policy);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
 
-        if (!bucket.tryConsume()) {
-            log.warn("rate-limit.exceeded ip={}", clientIp);
+        if (!decision.allowed()) {
+            log.warn("rate-limit.exceeded key={} policy={} retryAfterMs={}", clientKey, policy.name(), decision.retryAfterMs());
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((decision.retryAfterMs() + 999) / 1000));
             response.setContentType("application/json");
             response.getWriter().write(
                     "{\"code\":\"RATE_LIMIT_EXCEEDED\",\"message\":\"Too many requests. Please try again later.\",\"status\":429}");
             return;
         }
 
-        response.setHeader("X-RateLimit-Limit", String.valueOf(MAX_REQUESTS_PER_MINUTE));
-        response.setHeader("X-RateLimit-Remaining", String.valueOf(bucket.getRemaining()));
-
         filterChain.doFilter(request, response);
     }
 
+    private String getClientKey(HttpServletRequest request) {
+        if (properties.isKeyBySubject()
+                && request.getAttribute(JwtAuthenticationFilter.VERIFIED_SUBJECT_ATTRIBUTE) instanceof String subject) {
+            return "sub:" + subject;
+        }
+        return "ip:" + getClientIp(request);
+    }
+
     private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isBlank()) {
-            return xForwardedFor.split(",")[0].trim();
+        if (properties.isTrustForwardedFor()) {
+            String xForwardedFor = request.getHeader("X-Forwarded-For");
+            if (xForwardedFor != null && !xForwardedFor.isBlank()) {
+                int comma = xForwardedFor.indexOf(',');
+                return (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
+            }
         }
         return request.getRemoteAddr();
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
         String path = request.getRequestURI();
         return path.startsWith("/h2-console") || path.equals("/actuator/health");
     }
-
-    private static class RateLimitBucket {
-        private final AtomicInteger count = new AtomicInteger(0);
-        private volatile long windowStart = System.currentTimeMillis();
-        private final ReentrantLock lock = new ReentrantLock();
-
-        boolean tryConsume() {
-            long now = System.currentTimeMillis();
-            if (now - windowStart > WINDOW_MS) {
-                lock.lock();
-                try {
-                    if (now - windowStart > WINDOW_MS) {
-                        count.set(0);
-                        windowStart = now;
-                    }
-                } finally {
-                    lock.unlock();
-                }
-            }
-            return count.incrementAndGet() <= MAX_REQUESTS_PER_MINUTE;
-        }
-
-        int getRemaining() {
-            return Math.max(0, MAX_REQUESTS_PER_MINUTE - count.get());
-        }
-    }
 }
@@ -64,7 +64,7 @@ public class SecurityConfig {
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(securityHeaderFilter, JwtAuthenticationFilter.class)
-                .addFilterBefore(rateLimitFilter, SecurityHeaderFilter.class);
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
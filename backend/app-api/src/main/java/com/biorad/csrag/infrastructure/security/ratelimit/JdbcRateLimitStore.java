@@ -0,0 +1,89 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다중 노드 공유 GCRA 저장소 ({@code app.rate-limit.store=jdbc}, PostgreSQL 전용).
+ *
+ * <p>{@code rate_limit_buckets} 행 하나가 키의 TAT(epoch μs)를 갖고, 판정과 갱신을
+ * {@code INSERT ... ON CONFLICT DO UPDATE ... WHERE ... RETURNING} 한 문장으로 원자적으로 처리한다.
+ * 갱신된 행이 없으면 거절이다. 시각은 각 노드 시계를 쓰므로 노드 간 NTP 동기화를 전제로 한다.
+ *
+ * <p>요청마다 DB 왕복이 생기므로 단일 노드에서는 {@link LocalRateLimitStore}를 쓴다.
+ * DB 오류 시에는 요청을 막지 않고 노드 로컬 저장소로 판정한다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcRateLimitStore.class);
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO rate_limit_buckets AS b (bucket_key, tat_us, updated_at)
+            VALUES (?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (bucket_key) DO UPDATE
+               SET tat_us = GREATEST(b.tat_us, ?) + ?, updated_at = CURRENT_TIMESTAMP
+             WHERE GREATEST(b.tat_us, ?) + ? - ? <= ?
+            RETURNING tat_us
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalRateLimitStore fallback;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, RequestRateLimitProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fallback = new LocalRateLimitStore(properties);
+    }
+
+    @Override
+    public RateLimitDecision acquire(String key, RateLimitPolicy policy) {
+        String bucketKey = policy.name() + ':' + key;
+        long nowUs = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        long emissionUs = Math.max(1, TimeUnit.NANOSECONDS.toMicros(policy.emissionIntervalNanos()));
+        long burstOffsetUs = TimeUnit.NANOSECONDS.toMicros(policy.burstOffsetNanos());
+        try {
+            List<Long> updated = jdbcTemplate.queryForList(ACQUIRE_SQL, Long.class,
+                    bucketKey, nowUs + emissionUs,
+                    nowUs, emissionUs,
+                    nowUs, emissionUs, nowUs, burstOffsetUs);
+            if (!updated.isEmpty()) {
+                return RateLimitDecision.allow(policy, TimeUnit.MICROSECONDS.toNanos(updated.get(0) - nowUs));
+            }
+            Long tatUs = jdbcTemplate.queryForObject(
+                    "SELECT tat_us FROM rate_limit_buckets WHERE bucket_key = ?", Long.class, bucketKey);
+            long waitUs = tatUs == null ? 0 : tatUs + emissionUs - nowUs - burstOffsetUs;
+            return RateLimitDecision.deny(policy, TimeUnit.MICROSECONDS.toNanos(Math.max(0, waitUs)));
+        } catch (Exception e) {
+            log.warn("rate-limit.store.jdbc.failed key={} reason={}", bucketKey, e.getMessage());
+            return fallback.acquire(key, policy);
+        }
+    }
+
+    @Override
+    public int size() {
+        return -1;
+    }
+
+    /** TAT가 지난 행은 가득 찬 버킷과 같으므로 삭제해도 결과가 바뀌지 않는다. */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdle() {
+        try {
+            long nowUs = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+            int removed = jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE tat_us <= ?", nowUs);
+            if (removed > 0) {
+                log.debug("rate-limit.sweep.jdbc removed={}", removed);
+            }
+            fallback.sweepIdle();
+        } catch (Exception e) {
+            log.warn("rate-limit.sweep.jdbc.failed reason={}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 노드 메모리 GCRA 저장소. 키당 {@link AtomicLong}(TAT) 하나만 유지하며 허용 판정은 CAS 한 번이다.
+ *
+ * <p>TAT가 현재 시각 이하인 키는 버킷이 가득 찬 상태라 새 키와 구별되지 않으므로 제거해도 제한 결과가
+ * 바뀌지 않는다. 이 성질을 이용해
+ * <ul>
+ *   <li>주기적으로({@code app.rate-limit.sweep-interval-ms}) 유휴 키를 정리하고,</li>
+ *   <li>키 수가 {@code max-keys}에 도달하면 즉시 유휴 키를 정리한 뒤, 그래도 넘치면 가장 유휴에 가까운
+ *       키부터 제거해 메모리를 제한한다.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalRateLimitStore.class);
+
+    private final ConcurrentHashMap<String, AtomicLong> tats = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LocalRateLimitStore(RequestRateLimitProperties properties) {
+        this(properties.getMaxKeys(), System::nanoTime);
+    }
+
+    LocalRateLimitStore(int maxKeys, LongSupplier nanoClock) {
+        this.maxKeys = Math.max(1, maxKeys);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public RateLimitDecision acquire(String key, RateLimitPolicy policy) {
+        long now = nanoClock.getAsLong();
+        String bucketKey = policy.name() + ':' + key;
+        AtomicLong tat = tats.get(bucketKey);
+        if (tat == null) {
+            if (tats.size() >= maxKeys) {
+                evict(now);
+            }
+            tat = tats.computeIfAbsent(bucketKey, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = tat.get();
+            long base = current - now > 0 ? current : now;
+            long newTat = base + policy.emissionIntervalNanos();
+            long excess = newTat - now;
+            if (excess > policy.burstOffsetNanos()) {
+                return RateLimitDecision.deny(policy, excess - policy.burstOffsetNanos());
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return RateLimitDecision.allow(policy, excess);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return tats.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdle() {
+        int removed = removeIdle(nanoClock.getAsLong());
+        if (removed > 0) {
+            log.debug("rate-limit.sweep removed={} remaining={}", removed, tats.size());
+        }
+    }
+
+    /**
+     * 키 수 상한 도달 시 호출된다. 동시에 여러 스레드가 넘쳐도 정리는 한 스레드만 수행하고
+     * 나머지는 기다리지 않고 진행한다 (상한을 잠시 조금 넘는 것은 허용).
+     */
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (tats.size() < maxKeys) {
+                return;
+            }
+            int idle = removeIdle(now);
+            int overflow = tats.size() - (maxKeys - maxKeys / 10);
+            if (overflow <= 0) {
+                return;
+            }
+            // 모든 키가 활성 상태(대량 IP 분산 요청 등) — TAT가 가장 이른(가장 제한이 덜 걸린) 키부터 제거
+            List<Map.Entry<String, Long>> snapshot = new ArrayList<>(tats.size());
+            tats.forEach((k, v) -> snapshot.add(Map.entry(k, v.get())));
+            snapshot.sort(Comparator.comparingLong(e -> e.getValue() - now));
+            for (int i = 0; i < overflow && i < snapshot.size(); i++) {
+                tats.remove(snapshot.get(i).getKey());
+            }
+            log.warn("rate-limit.keys.overflow maxKeys={} idleRemoved={} activeRemoved={}", maxKeys, idle, overflow);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private int removeIdle(long now) {
+        int before = tats.size();
+        tats.values().removeIf(tat -> tat.get() - now <= 0);
+        return before - tats.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+/**
+ * @param remaining    지금 연속으로 더 보낼 수 있는 요청 수
+ * @param retryAfterMs 거절 시 다음 요청이 허용되기까지 남은 시간 (허용 시 0)
+ */
+public record RateLimitDecision(boolean allowed, int limit, int remaining, long retryAfterMs) {
+
+    static RateLimitDecision allow(RateLimitPolicy policy, long excessNanos) {
+        long remaining = (policy.burstOffsetNanos() - excessNanos) / policy.emissionIntervalNanos();
+        return new RateLimitDecision(true, policy.limit(), (int) Math.max(0, remaining), 0);
+    }
+
+    static RateLimitDecision deny(RateLimitPolicy policy, long waitNanos) {
+        return new RateLimitDecision(false, policy.limit(), 0, Math.max(1, (waitNanos + 999_999) / 1_000_000));
+    }
+}
@@ -0,0 +1,58 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 요청(method + 경로)을 엔드포인트 등급 정책으로 해석한다.
+ *
+ * <p>설정은 생성 시 한 번만 검증·변환되며, 요청마다의 비용은 메서드가 일치하는 규칙의 패턴 매칭뿐이다.
+ */
+public class RateLimitPolicies {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<CompiledRule> rules;
+    private final RateLimitPolicy readPolicy;
+    private final RateLimitPolicy writePolicy;
+
+    public RateLimitPolicies(RequestRateLimitProperties properties) {
+        Map<String, RateLimitPolicy> policies = new HashMap<>();
+        properties.getPolicies().forEach((name, policy) -> policies.put(name, RateLimitPolicy.from(name, policy)));
+        this.readPolicy = required(policies, RequestRateLimitProperties.READ_POLICY);
+        this.writePolicy = required(policies, RequestRateLimitProperties.WRITE_POLICY);
+        this.rules = properties.getRules().stream()
+                .map(rule -> new CompiledRule(
+                        rule.getMethod() == null || rule.getMethod().isBlank()
+                                ? null : rule.getMethod().toUpperCase(Locale.ROOT),
+                        rule.getPattern(),
+                        required(policies, rule.getPolicy())))
+                .toList();
+    }
+
+    public RateLimitPolicy resolve(String method, String path) {
+        for (CompiledRule rule : rules) {
+            if ((rule.method() == null || rule.method().equals(method)) && pathMatcher.match(rule.pattern(), path)) {
+                return rule.policy();
+            }
+        }
+        return isSafe(method) ? readPolicy : writePolicy;
+    }
+
+    private static boolean isSafe(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static RateLimitPolicy required(Map<String, RateLimitPolicy> policies, String name) {
+        RateLimitPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalStateException("app.rate-limit.policies." + name + " is not defined");
+        }
+        return policy;
+    }
+
+    private record CompiledRule(String method, String pattern, RateLimitPolicy policy) {}
+}
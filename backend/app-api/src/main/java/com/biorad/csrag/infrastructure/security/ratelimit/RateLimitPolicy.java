@@ -0,0 +1,30 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GCRA(Generic Cell Rate Algorithm) 정책. 토큰 버킷과 동일한 동작을 키당 타임스탬프 하나로 표현한다.
+ *
+ * <p>요청 하나는 {@code emissionIntervalNanos}만큼 TAT(theoretical arrival time)를 미루고,
+ * {@code TAT - now}가 {@code burstOffsetNanos}를 넘으면 거절한다. 고정 윈도우와 달리 윈도우 경계에서
+ * 2배 버스트가 생기지 않는다.
+ *
+ * @param name                  엔드포인트 등급 이름 (저장소 키 접두사)
+ * @param limit                 주기당 허용 요청 수
+ * @param emissionIntervalNanos 요청 간 평균 간격 (period / limit)
+ * @param burstOffsetNanos      유휴 상태에서 허용되는 선행량 (emission × burst)
+ */
+public record RateLimitPolicy(String name, int limit, long emissionIntervalNanos, long burstOffsetNanos) {
+
+    public static RateLimitPolicy of(String name, int limit, long periodSeconds, int burst) {
+        if (limit <= 0 || periodSeconds <= 0) {
+            throw new IllegalArgumentException("rate limit policy '" + name + "' requires positive limit and period");
+        }
+        long emission = Math.max(1, TimeUnit.SECONDS.toNanos(periodSeconds) / limit);
+        return new RateLimitPolicy(name, limit, emission, emission * Math.max(1, burst));
+    }
+
+    static RateLimitPolicy from(String name, RequestRateLimitProperties.Policy policy) {
+        return of(name, policy.getLimit(), policy.getPeriodSeconds(), policy.getBurst());
+    }
+}
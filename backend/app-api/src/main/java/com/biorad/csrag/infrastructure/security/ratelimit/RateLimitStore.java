@@ -0,0 +1,20 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+/**
+ * 키별 GCRA 상태 저장소.
+ *
+ * <p>{@link LocalRateLimitStore}(노드 메모리, 기본)와 {@link JdbcRateLimitStore}(다중 노드 공유) 중
+ * {@code app.rate-limit.store} 설정으로 하나가 등록된다.
+ */
+public interface RateLimitStore {
+
+    /**
+     * 요청 하나를 소비한다.
+     *
+     * @param key 클라이언트 키 (IP 또는 JWT subject). 정책별로 분리되어 저장된다.
+     */
+    RateLimitDecision acquire(String key, RateLimitPolicy policy);
+
+    /** 현재 추적 중인 키 수 (공유 저장소는 -1) */
+    int size();
+}
@@ -0,0 +1,127 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인바운드 API 요청 속도 제한 설정 ({@code app.rate-limit.*}).
+ *
+ * <p>요청은 {@link #getRules() 규칙}(method + Ant 경로 패턴)으로 엔드포인트 등급을 정하고,
+ * 등급별 {@link Policy}(주기당 허용 수 + 버스트)로 제한된다. 일치하는 규칙이 없으면
+ * 안전한 메서드(GET/HEAD/OPTIONS)는 {@code read}, 나머지는 {@code write} 정책을 쓴다.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RequestRateLimitProperties {
+
+    public static final String READ_POLICY = "read";
+    public static final String WRITE_POLICY = "write";
+
+    private boolean enabled = true;
+    /** {@code local}: 노드별 메모리, {@code jdbc}: 다중 노드 공유 (PostgreSQL 전용) */
+    private String store = "local";
+    /** X-Forwarded-For 첫 번째 주소를 클라이언트 IP로 신뢰할지 여부 (리버스 프록시 뒤에서만 true) */
+    private boolean trustForwardedFor = true;
+    /** 검증된 JWT subject가 있으면 IP 대신 사용자 단위로 제한한다. */
+    private boolean keyBySubject = true;
+    /** 로컬 저장소가 유지하는 최대 키 수. 초과 시 유휴 키부터 제거한다. */
+    private int maxKeys = 100_000;
+    /** 유휴(버킷이 가득 찬) 키 정리 주기 */
+    private long sweepIntervalMs = 60_000;
+    private Map<String, Policy> policies = defaultPolicies();
+    private List<Rule> rules = defaultRules();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getStore() { return store; }
+    public void setStore(String store) { this.store = store; }
+
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+    public void setTrustForwardedFor(boolean trustForwardedFor) { this.trustForwardedFor = trustForwardedFor; }
+
+    public boolean isKeyBySubject() { return keyBySubject; }
+    public void setKeyBySubject(boolean keyBySubject) { this.keyBySubject = keyBySubject; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public long getSweepIntervalMs() { return sweepIntervalMs; }
+    public void setSweepIntervalMs(long sweepIntervalMs) { this.sweepIntervalMs = sweepIntervalMs; }
+
+    public Map<String, Policy> getPolicies() { return policies; }
+    public void setPolicies(Map<String, Policy> policies) { this.policies = policies; }
+
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+
+    private static Map<String, Policy> defaultPolicies() {
+        Map<String, Policy> defaults = new LinkedHashMap<>();
+        defaults.put(READ_POLICY, new Policy(100, 60, 100));
+        defaults.put(WRITE_POLICY, new Policy(60, 60, 20));
+        // 초안 생성은 요청당 LLM 호출이 수십 회이므로 가장 엄격하게 제한한다
+        defaults.put("draft", new Policy(6, 60, 2));
+        return defaults;
+    }
+
+    private static List<Rule> defaultRules() {
+        List<Rule> defaults = new ArrayList<>();
+        defaults.add(new Rule("POST", "/api/v1/inquiries/*/answers/draft", "draft"));
+        return defaults;
+    }
+
+    public static class Policy {
+        /** 주기당 허용 요청 수 (평균 속도) */
+        private int limit;
+        private long periodSeconds = 60;
+        /** 유휴 상태에서 연속으로 허용되는 최대 요청 수 */
+        private int burst;
+
+        public Policy() {}
+
+        public Policy(int limit, long periodSeconds, int burst) {
+            this.limit = limit;
+            this.periodSeconds = periodSeconds;
+            this.burst = burst;
+        }
+
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+
+        public long getPeriodSeconds() { return periodSeconds; }
+        public void setPeriodSeconds(long periodSeconds) { this.periodSeconds = periodSeconds; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+
+    public static class Rule {
+        /** HTTP 메서드. 비어 있으면 모든 메서드 */
+        private String method;
+        /** Ant 스타일 경로 패턴 (예: {@code /api/v1/knowledge-base/**}) */
+        private String pattern;
+        private String policy;
+
+        public Rule() {}
+
+        public Rule(String method, String pattern, String policy) {
+            this.method = method;
+            this.pattern = pattern;
+            this.policy = policy;
+        }
+
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public String getPolicy() { return policy; }
+        public void setPolicy(String policy) { this.policy = policy; }
+    }
+}
@@ -0,0 +1,139 @@
+package com.biorad.csrag.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * 업로드 스트림을 힙에 모으지 않고 파일로 저장하면서 SHA-256과 앞부분 바이트(content sniffing용)를 함께 계산한다.
+ *
+ * <p>입력 채널 → 고정 크기 direct buffer → {@link FileChannel} 한 번의 패스로 복사하므로 파일 크기와 무관하게
+ * 버퍼 하나만 사용한다. {@code target.part}에 먼저 쓰고 완료되면 {@code target}으로 이동해, 실패한 업로드가
+ * 반쪽 파일로 남지 않는다.
+ */
+public final class StreamingFileStore {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final int HEAD_SIZE = 16;
+
+    private StreamingFileStore() {
+    }
+
+    /**
+     * @param in     업로드 스트림 (호출자가 닫는다)
+     * @param target 최종 저장 경로. 상위 디렉터리는 없으면 만든다.
+     */
+    public static StoredFile store(InputStream in, Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        MessageDigest sha256 = newSha256();
+        byte[] head = new byte[HEAD_SIZE];
+        int headLength = 0;
+        long size = 0;
+
+        try {
+            ReadableByteChannel source = Channels.newChannel(in);
+            try (FileChannel out = FileChannel.open(partial,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    if (headLength < HEAD_SIZE) {
+                        int take = Math.min(HEAD_SIZE - headLength, buffer.remaining());
+                        buffer.duplicate().get(head, headLength, take);
+                        headLength += take;
+                    }
+                    sha256.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            move(partial, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return new StoredFile(target, size, HexFormat.of().formatHex(sha256.digest()),
+                Arrays.copyOf(head, headLength));
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 저장 결과.
+     *
+     * @param sha256 파일 내용의 SHA-256 (소문자 hex)
+     * @param head   앞부분 최대 {@value #HEAD_SIZE}바이트
+     */
+    public record StoredFile(Path path, long size, String sha256, byte[] head) {
+
+        /**
+         * 매직 바이트로 판별한 content type. 알 수 없으면 null.
+         */
+        public String detectedContentType() {
+            if (startsWith(head, 0x25, 0x50, 0x44, 0x46)) {                 // %PDF
+                return "application/pdf";
+            }
+            if (startsWith(head, 0x89, 0x50, 0x4E, 0x47)) {                 // PNG
+                return "image/png";
+            }
+            if (startsWith(head, 0xFF, 0xD8, 0xFF)) {                       // JPEG
+                return "image/jpeg";
+            }
+            if (startsWith(head, 0x52, 0x49, 0x46, 0x46) && head.length >= 12
+                    && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+                return "image/webp";
+            }
+            if (startsWith(head, 0x50, 0x4B, 0x03, 0x04)) {                 // ZIP — 허용 형식 중 ZIP 컨테이너는 DOCX뿐
+                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+            }
+            if (startsWith(head, 0xD0, 0xCF, 0x11, 0xE0)) {                 // OLE2 (DOC)
+                return "application/msword";
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] bytes, int... prefix) {
+            if (bytes.length < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if ((bytes[i] & 0xFF) != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -101,20 +101,34 @@ public class KnowledgeBaseController {
     @ApiResponse(responseCode = "404", description = "문서를 찾을 수 없음")
     @PostMapping("/documents/{docId}/indexing/run")
     public ResponseEntity<KbIndexingResponse> indexOne(
-            @Parameter(description = "문서 ID (UUID)") @PathVariable UUID docId
+            @Parameter(description = "문서 ID (UUID)") @PathVariable UUID docId,
+            @Parameter(description = "큐 우선순위 (클수록 먼저 처리, 기본 10)") @RequestParam(required = false) Integer priority
     ) {
-        KbIndexingResponse response = knowledgeBaseService.indexOne(docId);
+        KbIndexingResponse response = priority == null
+                ? knowledgeBaseService.indexOne(docId)
+                : knowledgeBaseService.indexOne(docId, priority);
         return ResponseEntity.accepted().body(response);
     }
 
     @Operation(summary = "일괄 인덱싱", description = "미인덱싱 문서를 일괄 비동기 인덱싱합니다")
     @ApiResponse(responseCode = "202", description = "인덱싱 시작됨")
     @PostMapping("/indexing/run")
-    public ResponseEntity<KbBatchIndexingResponse> indexAll() {
-        KbBatchIndexingResponse response = knowledgeBaseService.indexAll();
+    public ResponseEntity<KbBatchIndexingResponse> indexAll(
+            @Parameter(description = "큐 우선순위 (클수록 먼저 처리, 기본 0)") @RequestParam(required = false) Integer priority
+    ) {
+        KbBatchIndexingResponse response = priority == null
+                ? knowledgeBaseService.indexAll()
+                : knowledgeBaseService.indexAll(priority);
         return ResponseEntity.accepted().body(response);
     }
 
+    @Operation(summary = "인덱싱 진행률 조회", description = "인덱싱 큐의 단계별 건수, 처리량, 예상 완료 시간을 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/indexing/progress")
+    public ResponseEntity<KbIndexingProgressResponse> indexingProgress() {
+        return ResponseEntity.ok(knowledgeBaseService.getIndexingProgress());
+    }
+
     @Operation(summary = "KB 통계 조회", description = "지식 기반 통계 (카테고리별, 제품군별, 전체)를 조회합니다")
     @ApiResponse(responseCode = "200", description = "조회 성공")
     @GetMapping("/stats")
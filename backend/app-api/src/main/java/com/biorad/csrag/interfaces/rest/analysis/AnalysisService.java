@@ -1,15 +1,10 @@
 package com.biorad.csrag.interfaces.rest.analysis;
 
-import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaRepository;
+import com.biorad.csrag.infrastructure.rag.cache.ChunkHydrationCache;
 import com.biorad.csrag.interfaces.rest.answer.orchestration.PerQuestionEvidence;
 import com.biorad.csrag.interfaces.rest.answer.orchestration.SubQuestion;
+import com.biorad.csrag.interfaces.rest.search.EvidenceCompressor;
 import com.biorad.csrag.interfaces.rest.search.EvidenceQualityGate;
 import com.biorad.csrag.interfaces.rest.search.HybridSearchResult;
 import com.biorad.csrag.interfaces.rest.search.HybridSearchService;
@@ -32,37 +27,34 @@ public class AnalysisService {
 
     private final EmbeddingService embeddingService;
     private final VectorStore vectorStore;
-    private final RetrievalEvidenceJpaRepository evidenceRepository;
-    private final DocumentChunkJpaRepository chunkRepository;
-    private final DocumentMetadataJpaRepository documentRepository;
-    private final KnowledgeDocumentJpaRepository kbDocRepository;
+    private final RetrievalEvidenceJournal evidenceJournal;
+    private final ChunkHydrationCache chunkHydrationCache;
     private final QueryTranslationService queryTranslationService;
     private final HybridSearchService hybridSearchService;
     private final RerankingService rerankingService;
     private final EvidenceQualityGate evidenceQualityGate;
+    private final EvidenceCompressor evidenceCompressor;
 
     public AnalysisService(
             EmbeddingService embeddingService,
             VectorStore vectorStore,
-            RetrievalEvidenceJpaRepository evidenceRepository,
-            DocumentChunkJpaRepository chunkRepository,
-            DocumentMetadataJpaRepository documentRepository,
-            KnowledgeDocumentJpaRepository kbDocRepository,
+            RetrievalEvidenceJournal evidenceJournal,
+            ChunkHydrationCache chunkHydrationCache,
             QueryTranslationService queryTranslationService,
             HybridSearchService hybridSearchService,
             RerankingService rerankingService,
-            EvidenceQualityGate evidenceQualityGate
+            EvidenceQualityGate evidenceQualityGate,
+            EvidenceCompressor evidenceCompressor
     ) {
         this.embeddingService = embeddingService;
         this.vectorStore = vectorStore;
-        this.evidenceRepository = evidenceRepository;
-        this.chunkRepository = chunkRepository;
-        this.documentRepository = documentRepository;
-        this.kbDocRepository = kbDocRepository;
+        this.evidenceJournal = evidenceJournal;
+        this.chunkHydrationCache = chunkHydrationCache;
         this.queryTranslationService = queryTranslationService;
         this.hybridSearchService = hybridSearchService;
         this.rerankingService = rerankingService;
         this.evidenceQualityGate = evidenceQualityGate;
+        this.evidenceCompressor = evidenceCompressor;
     }
 
     public AnalyzeResponse analyze(UUID inquiryId, String question, int topK) {
@@ -91,13 +83,21 @@ public class AnalysisService {
     }
 
     public List<PerQuestionEvidence> retrievePerQuestion(UUID inquiryId, List<SubQuestion> subQuestions, int topK, SearchFilter filter) {
-        List<PerQuestionEvidence> results = new ArrayList<>();
+        // 하위 질문 전체를 한 번의 배치 검색으로 처리한 뒤 질문별로 리랭킹
+        List<String> queries = new ArrayList<>(subQuestions.size());
+        List<SearchFilter> filters = new ArrayList<>(subQuestions.size());
         for (SubQuestion sq : subQuestions) {
-            SearchFilter sqFilter = (!sq.productFamilies().isEmpty())
+            queries.add(queryTranslationService.translate(sq.question()).translated());
+            filters.add(!sq.productFamilies().isEmpty()
                     ? SearchFilter.forProducts(filter.inquiryId(), sq.productFamilies())
-                    : filter;
-            List<EvidenceItem> evidences = retrieve(inquiryId, sq.question(), topK, sqFilter);
-            results.add(PerQuestionEvidence.of(sq, evidences));
+                    : filter);
+        }
+        List<List<HybridSearchResult>> searchResults = hybridSearchService.searchBatch(queries, topK * 5, filters);
+
+        List<PerQuestionEvidence> results = new ArrayList<>();
+        for (int i = 0; i < subQuestions.size(); i++) {
+            List<EvidenceItem> evidences = toEvidences(inquiryId, queries.get(i), topK, searchResults.get(i));
+            results.add(PerQuestionEvidence.of(subQuestions.get(i), evidences));
         }
         return results;
     }
@@ -107,97 +107,63 @@ public class AnalysisService {
      * AnswerOrchestrationService.toEvidenceItems()에서 호출.
      */
     public List<EvidenceItem> enrichEvidenceMetadata(List<RerankingService.RerankResult> rerankResults) {
+        return enrichEvidenceMetadata(null, rerankResults);
+    }
+
+    /**
+     * 메타데이터 보강 후 PARENT 콘텐츠 근거를 질의 관련 문장으로 압축한다.
+     */
+    public List<EvidenceItem> enrichEvidenceMetadata(String query, List<RerankingService.RerankResult> rerankResults) {
         if (rerankResults == null || rerankResults.isEmpty()) return List.of();
 
         Set<UUID> chunkIds = rerankResults.stream().map(RerankingService.RerankResult::chunkId).collect(Collectors.toSet());
         Set<UUID> docIds = rerankResults.stream().map(RerankingService.RerankResult::documentId).filter(Objects::nonNull).collect(Collectors.toSet());
+        ChunkHydrationCache.Hydration hydration = chunkHydrationCache.hydrate(chunkIds, docIds);
 
-        Map<UUID, DocumentChunkJpaEntity> chunkMap = chunkRepository.findAllById(chunkIds)
-                .stream().collect(Collectors.toMap(DocumentChunkJpaEntity::getId, c -> c));
-
-        Set<UUID> parentIds = chunkMap.values().stream()
-                .filter(c -> "CHILD".equals(c.getChunkLevel()) && c.getParentChunkId() != null)
-                .map(DocumentChunkJpaEntity::getParentChunkId).collect(Collectors.toSet());
-        Map<UUID, DocumentChunkJpaEntity> parentMap = parentIds.isEmpty() ? Map.of()
-                : chunkRepository.findAllById(parentIds).stream().collect(Collectors.toMap(DocumentChunkJpaEntity::getId, c -> c));
-
-        Set<UUID> sourceIds = chunkMap.values().stream().map(DocumentChunkJpaEntity::getSourceId).filter(Objects::nonNull).collect(Collectors.toSet());
-        Set<UUID> allLookupIds = new HashSet<>(docIds);
-        allLookupIds.addAll(sourceIds);
-
-        Map<UUID, String> fileNameMap = new HashMap<>();
-        documentRepository.findAllById(allLookupIds).forEach(d -> fileNameMap.put(d.getId(), d.getFileName()));
-        kbDocRepository.findAllById(allLookupIds).forEach(d -> fileNameMap.put(d.getId(), d.getFileName()));
-
-        return rerankResults.stream().map(r -> {
-            DocumentChunkJpaEntity chunk = chunkMap.get(r.chunkId());
-            String fileName = r.documentId() != null ? fileNameMap.get(r.documentId()) : null;
-            if (fileName == null && chunk != null && chunk.getSourceId() != null) {
-                fileName = fileNameMap.get(chunk.getSourceId());
-            }
-            String contentForLlm = r.content();
-            if (chunk != null && "CHILD".equals(chunk.getChunkLevel()) && chunk.getParentChunkId() != null) {
-                DocumentChunkJpaEntity parent = parentMap.get(chunk.getParentChunkId());
-                if (parent != null) contentForLlm = parent.getContent();
-            }
+        List<EvidenceItem> evidences = rerankResults.stream().map(r -> {
+            ChunkHydrationCache.ChunkMetadata chunk = hydration.chunk(r.chunkId());
             return new EvidenceItem(
                     r.chunkId().toString(),
                     r.documentId() != null ? r.documentId().toString() : null,
                     r.rerankScore(),
-                    summarize(contentForLlm),
+                    summarize(chunk != null ? chunk.contentForLlm(r.content()) : r.content()),
                     r.sourceType(),
-                    fileName,
-                    chunk != null ? chunk.getPageStart() : null,
-                    chunk != null ? chunk.getPageEnd() : null,
-                    chunk != null ? chunk.getProductFamily() : null
+                    hydration.fileName(r.documentId(), chunk),
+                    chunk != null ? chunk.pageStart() : null,
+                    chunk != null ? chunk.pageEnd() : null,
+                    chunk != null ? chunk.productFamily() : null,
+                    chunk != null ? chunk.contentSignature() : null,
+                    chunk != null ? chunk.contentTokenCount() : null,
+                    null
             );
         }).toList();
+
+        return compress(evidences, query, rerankResults, hydration);
     }
 
     private List<EvidenceItem> doRetrieve(UUID inquiryId, String searchQuery, int topK, SearchFilter filter) {
         // 리랭킹을 위해 더 많은 후보 검색 (topK * 5)
         int candidateCount = topK * 5;
         List<HybridSearchResult> searchResults = hybridSearchService.search(searchQuery, candidateCount, filter);
+        return toEvidences(inquiryId, searchQuery, topK, searchResults);
+    }
 
+    /** 검색 후보를 리랭킹하고 근거를 저장·보강한다. */
+    private List<EvidenceItem> toEvidences(UUID inquiryId, String searchQuery, int topK,
+                                           List<HybridSearchResult> searchResults) {
         // Cross-Encoder 리랭킹
         List<RerankingService.RerankResult> reranked = rerankingService.rerank(searchQuery, searchResults, topK);
 
-        // 배치 조회로 N+1 방지
+        // 배치 조회로 N+1 방지 (반복 라운드는 캐시 적중)
         Set<UUID> chunkIds = reranked.stream().map(RerankingService.RerankResult::chunkId).collect(Collectors.toSet());
         Set<UUID> docIds = reranked.stream().map(RerankingService.RerankResult::documentId).collect(Collectors.toSet());
-
-        Map<UUID, DocumentChunkJpaEntity> chunkMap = chunkRepository.findAllById(chunkIds)
-                .stream().collect(Collectors.toMap(DocumentChunkJpaEntity::getId, c -> c));
-
-        // Parent-Child: CHILD 청크의 부모 청크를 배치 조회
-        Set<UUID> parentIds = chunkMap.values().stream()
-                .filter(c -> "CHILD".equals(c.getChunkLevel()) && c.getParentChunkId() != null)
-                .map(DocumentChunkJpaEntity::getParentChunkId)
-                .collect(Collectors.toSet());
-
-        Map<UUID, DocumentChunkJpaEntity> parentMap = parentIds.isEmpty()
-                ? Map.of()
-                : chunkRepository.findAllById(parentIds).stream()
-                    .collect(Collectors.toMap(DocumentChunkJpaEntity::getId, c -> c));
-
-        // sourceId 기반 조회를 위해 청크의 sourceId 수집
-        Set<UUID> sourceIds = chunkMap.values().stream()
-                .map(DocumentChunkJpaEntity::getSourceId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        Set<UUID> allLookupIds = new HashSet<>(docIds);
-        allLookupIds.addAll(sourceIds);
-
-        Map<UUID, String> fileNameMap = new HashMap<>();
-        documentRepository.findAllById(allLookupIds)
-                .forEach(d -> fileNameMap.put(d.getId(), d.getFileName()));
-        kbDocRepository.findAllById(allLookupIds)
-                .forEach(d -> fileNameMap.put(d.getId(), d.getFileName()));
+        ChunkHydrationCache.Hydration hydration = chunkHydrationCache.hydrate(chunkIds, docIds);
 
         List<EvidenceItem> evidences = new ArrayList<>();
+        List<RetrievalEvidenceJpaEntity> journalEntries = new ArrayList<>(reranked.size());
         int rank = 1;
         for (RerankingService.RerankResult result : reranked) {
-            evidenceRepository.save(new RetrievalEvidenceJpaEntity(
+            journalEntries.add(new RetrievalEvidenceJpaEntity(
                     UUID.randomUUID(),
                     inquiryId,
                     result.chunkId(),
@@ -207,24 +173,15 @@ public class AnalysisService {
                     Instant.now()
             ));
 
-            DocumentChunkJpaEntity chunk = chunkMap.get(result.chunkId());
-            String fileName = fileNameMap.get(result.documentId());
+            ChunkHydrationCache.ChunkMetadata chunk = hydration.chunk(result.chunkId());
             // documentId로 찾지 못하면 청크의 sourceId로 재조회
-            if (fileName == null && chunk != null && chunk.getSourceId() != null) {
-                fileName = fileNameMap.get(chunk.getSourceId());
-            }
-            Integer pageStart = chunk != null ? chunk.getPageStart() : null;
-            Integer pageEnd = chunk != null ? chunk.getPageEnd() : null;
-            String productFamily = chunk != null ? chunk.getProductFamily() : null;
+            String fileName = hydration.fileName(result.documentId(), chunk);
+            Integer pageStart = chunk != null ? chunk.pageStart() : null;
+            Integer pageEnd = chunk != null ? chunk.pageEnd() : null;
+            String productFamily = chunk != null ? chunk.productFamily() : null;
 
             // Parent-Child: CHILD 청크면 PARENT 콘텐츠를 LLM에 제공 (더 넓은 문맥)
-            String contentForLlm = result.content();
-            if (chunk != null && "CHILD".equals(chunk.getChunkLevel()) && chunk.getParentChunkId() != null) {
-                DocumentChunkJpaEntity parent = parentMap.get(chunk.getParentChunkId());
-                if (parent != null) {
-                    contentForLlm = parent.getContent();
-                }
-            }
+            String contentForLlm = chunk != null ? chunk.contentForLlm(result.content()) : result.content();
 
             evidences.add(new EvidenceItem(
                     result.chunkId().toString(),
@@ -235,10 +192,15 @@ public class AnalysisService {
                     fileName,
                     pageStart,
                     pageEnd,
-                    productFamily
+                    productFamily,
+                    chunk != null ? chunk.contentSignature() : null,
+                    chunk != null ? chunk.contentTokenCount() : null,
+                    null
             ));
             rank++;
         }
+        // 감사 기록은 write-behind로 저장 (초안 저장 전 flush)
+        evidenceJournal.append(journalEntries);
 
         // Evidence Quality Gate: dedup + min score + per-doc limit + diversity + max items
         if (evidenceQualityGate != null) {
@@ -247,7 +209,35 @@ public class AnalysisService {
             log.info("Evidence quality gate: {} → {} items", beforeGate, evidences.size());
         }
 
-        return evidences;
+        // 게이트를 통과한 PARENT 근거만 압축
+        return compress(evidences, searchQuery, reranked, hydration);
+    }
+
+    /** CHILD 적중을 PARENT 콘텐츠로 바꾼 근거를 질의·CHILD 관련 문장만 남기도록 압축한다. */
+    private List<EvidenceItem> compress(List<EvidenceItem> evidences, String query,
+                                        List<RerankingService.RerankResult> hits,
+                                        ChunkHydrationCache.Hydration hydration) {
+        if (evidenceCompressor == null || evidences.isEmpty()) {
+            return evidences;
+        }
+        Map<String, RerankingService.RerankResult> hitsByChunkId = new HashMap<>();
+        for (RerankingService.RerankResult hit : hits) {
+            hitsByChunkId.putIfAbsent(hit.chunkId().toString(), hit);
+        }
+
+        List<EvidenceItem> compressed = new ArrayList<>(evidences.size());
+        for (EvidenceItem evidence : evidences) {
+            RerankingService.RerankResult hit = hitsByChunkId.get(evidence.chunkId());
+            ChunkHydrationCache.ChunkMetadata chunk = hit != null ? hydration.chunk(hit.chunkId()) : null;
+            if (chunk == null || chunk.parentContent() == null) {
+                compressed.add(evidence);
+                continue;
+            }
+            // 파일명 접두사를 뺀 본문을 넘겨 남긴 문장의 문서 원문 구간을 함께 받는다
+            compressed.add(evidenceCompressor.compress(evidence, chunk.parentBody(), chunk.parentBodyOffset(),
+                    query, hit.content()));
+        }
+        return compressed;
     }
 
     public AnalyzeResponse verify(UUID inquiryId, String question, List<EvidenceItem> evidences) {
@@ -1,5 +1,10 @@
 package com.biorad.csrag.interfaces.rest.analysis;
 
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
 public record EvidenceItem(
         String chunkId,
         String documentId,
@@ -9,11 +14,25 @@ public record EvidenceItem(
         String fileName,      // 원본 문서 파일명 (nullable)
         Integer pageStart,    // PDF 시작 페이지 (nullable)
         Integer pageEnd,      // PDF 끝 페이지 (nullable)
-        String productFamily  // 제품 패밀리 (nullable, 예: "naica", "QX200")
+        String productFamily, // 제품 패밀리 (nullable, 예: "naica", "QX200")
+        @JsonIgnore
+        MinHashSignature signature, // 인덱싱 시 저장된 excerpt 원문 청크의 MinHash (nullable, 내부 중복 제거용)
+        @JsonIgnore
+        Integer tokenCount,         // 인덱싱 시 저장된 excerpt 토큰 수 (nullable, compose 근거 패킹용. excerpt를 바꾸면 버린다)
+        List<Span> excerptSpans     // 압축 excerpt 문장의 문서 원문 구간 (nullable, 압축하지 않았거나 원문 위치를 모르면 null)
 ) {
-    /** 하위 호환: productFamily 없이 8-arg 생성자 */
+    /** 문서 원문 기준 {@code [start, end)} 문자 구간 */
+    public record Span(int start, int end) {}
+
+    /** 청크 메타데이터(productFamily·signature·tokenCount) 없이 */
     public EvidenceItem(String chunkId, String documentId, double score, String excerpt,
                         String sourceType, String fileName, Integer pageStart, Integer pageEnd) {
-        this(chunkId, documentId, score, excerpt, sourceType, fileName, pageStart, pageEnd, null);
+        this(chunkId, documentId, score, excerpt, sourceType, fileName, pageStart, pageEnd, null, null, null, null);
+    }
+
+    /** excerpt와 그 원문 구간만 바꾼 사본. 저장된 토큰 수는 더 이상 맞지 않으므로 버린다. */
+    public EvidenceItem withExcerpt(String excerpt, List<Span> excerptSpans) {
+        return new EvidenceItem(chunkId, documentId, score, excerpt, sourceType, fileName,
+                pageStart, pageEnd, productFamily, signature, null, excerptSpans);
     }
 }
@@ -0,0 +1,193 @@
+package com.biorad.csrag.interfaces.rest.analysis;
+
+import com.biorad.csrag.common.concurrent.MpscRingBuffer;
+import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceBatchWriter;
+import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaEntity;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 검색 근거({@code retrieval_evidence}) write-behind 저널.
+ *
+ * <p>검색 루프는 {@link #append}로 링 버퍼에 적재만 하고, 스케줄러가 주기적으로 버퍼를 비워
+ * {@link RetrievalEvidenceBatchWriter}로 JDBC 배치 저장한다. 근거는 감사 기록이므로 메트릭 기록기와 달리 버리지 않는다:
+ * <ul>
+ *   <li>버퍼가 가득 차면 적재하는 스레드가 직접 flush 한다 (backpressure).</li>
+ *   <li>초안 저장 전 {@link #flushNow}로 그때까지 적재된 근거를 모두 저장한다.</li>
+ *   <li>배치 저장이 실패하면 행 단위로 다시 저장하고, 그래도 실패한 행만 유실로 집계한다.</li>
+ * </ul>
+ * {@code rag.evidence-journal.enabled=false}면 적재 즉시 배치 저장한다.
+ */
+@Component
+public class RetrievalEvidenceJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(RetrievalEvidenceJournal.class);
+
+    private final RetrievalEvidenceBatchWriter writer;
+    private final MpscRingBuffer<RetrievalEvidenceJpaEntity> buffer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushBatches = new LongAdder();
+    private final LongAdder overflowFlushes = new LongAdder();
+    private volatile long lastFlushLatencyMs;
+    private volatile long maxFlushLatencyMs;
+    private volatile Instant lastFlushAt;
+
+    public RetrievalEvidenceJournal(RetrievalEvidenceBatchWriter writer, RagPipelineProperties properties) {
+        RagPipelineProperties.EvidenceJournal config = properties.getEvidenceJournal();
+        this.writer = writer;
+        this.enabled = config.isEnabled();
+        this.buffer = new MpscRingBuffer<>(Math.max(1, config.getBufferCapacity()));
+        this.batchSize = Math.max(1, config.getBatchSize());
+    }
+
+    /**
+     * 근거를 저널에 적재한다. 버퍼에 자리가 있으면 DB I/O 없이 즉시 반환한다.
+     */
+    public void append(List<RetrievalEvidenceJpaEntity> evidences) {
+        if (evidences.isEmpty()) {
+            return;
+        }
+        appended.add(evidences.size());
+        if (!enabled) {
+            writeBatch(evidences);
+            return;
+        }
+        for (RetrievalEvidenceJpaEntity evidence : evidences) {
+            if (buffer.offer(evidence)) {
+                continue;
+            }
+            overflowFlushes.increment();
+            flushNow();
+            if (!buffer.offer(evidence)) {
+                // 다른 생산자가 방금 비운 자리를 채운 경우 — 직접 저장한다
+                writeBatch(List.of(evidence));
+            }
+        }
+    }
+
+    /**
+     * 버퍼를 비워 배치 저장한다. 다른 스레드가 flush 중이면 건너뛴다.
+     */
+    @Scheduled(fixedDelayString = "${rag.evidence-journal.flush-interval-ms:200}")
+    public void flush() {
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            drainAll();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 호출 시점까지 적재된 근거를 모두 저장한다. 진행 중인 flush가 끝날 때까지 기다린다.
+     * 초안 저장 전에 호출해 감사 기록(근거 → 초안) 순서를 보장한다.
+     */
+    public void flushNow() {
+        drainLock.lock();
+        try {
+            drainAll();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushNow();
+        JournalStats stats = getStats();
+        log.info("evidence.journal.shutdown appended={} flushed={} failed={}",
+                stats.appended(), stats.flushed(), stats.failed());
+    }
+
+    public JournalStats getStats() {
+        return new JournalStats(
+                enabled,
+                appended.sum(),
+                flushed.sum(),
+                failed.sum(),
+                flushBatches.sum(),
+                overflowFlushes.sum(),
+                buffer.size(),
+                buffer.capacity(),
+                lastFlushLatencyMs,
+                maxFlushLatencyMs,
+                lastFlushAt
+        );
+    }
+
+    private void drainAll() {
+        List<RetrievalEvidenceJpaEntity> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<RetrievalEvidenceJpaEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            writer.writeBatch(batch);
+            flushed.add(batch.size());
+            flushBatches.increment();
+        } catch (Exception e) {
+            log.warn("evidence.journal.flush.failed size={} error={}, retrying per row", batch.size(), e.getMessage());
+            writeRows(batch);
+        } finally {
+            long latencyMs = (System.nanoTime() - start) / 1_000_000;
+            lastFlushLatencyMs = latencyMs;
+            maxFlushLatencyMs = Math.max(maxFlushLatencyMs, latencyMs);
+            lastFlushAt = Instant.now();
+        }
+    }
+
+    /** 배치 실패 시 문제 행(삭제된 문의 등)만 격리한다. */
+    private void writeRows(List<RetrievalEvidenceJpaEntity> batch) {
+        for (RetrievalEvidenceJpaEntity evidence : batch) {
+            try {
+                writer.writeBatch(List.of(evidence));
+                flushed.increment();
+            } catch (Exception e) {
+                failed.increment();
+                log.warn("evidence.journal.row.failed inquiryId={} chunkId={} error={}",
+                        evidence.getInquiryId(), evidence.getChunkId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 저널 처리량·적체·flush 지연 지표.
+     *
+     * @param overflowFlushes 버퍼가 가득 차 적재 스레드가 직접 flush 한 횟수
+     */
+    public record JournalStats(
+            boolean enabled,
+            long appended,
+            long flushed,
+            long failed,
+            long flushBatches,
+            long overflowFlushes,
+            int pending,
+            int capacity,
+            long lastFlushLatencyMs,
+            long maxFlushLatencyMs,
+            Instant lastFlushAt
+    ) {}
+}
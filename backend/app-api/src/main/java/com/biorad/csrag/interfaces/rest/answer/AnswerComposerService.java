@@ -9,6 +9,7 @@ import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaR
 import com.biorad.csrag.infrastructure.persistence.sendattempt.SendAttemptJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.sendattempt.SendAttemptJpaRepository;
 import com.biorad.csrag.interfaces.rest.analysis.AnalyzeResponse;
+import com.biorad.csrag.interfaces.rest.analysis.RetrievalEvidenceJournal;
 import com.biorad.csrag.interfaces.rest.answer.orchestration.AnswerOrchestrationService;
 import com.biorad.csrag.interfaces.rest.answer.orchestration.SelfReviewStep;
 import com.biorad.csrag.interfaces.rest.answer.sender.MessageSender;
@@ -41,6 +42,7 @@ public class AnswerComposerService {
     private final AiReviewResultJpaRepository aiReviewResultRepository;
     private final DocumentMetadataJpaRepository documentMetadataRepository;
     private final ObjectMapper objectMapper;
+    private final RetrievalEvidenceJournal evidenceJournal;
 
     public AnswerComposerService(
             AnswerOrchestrationService orchestrationService,
@@ -49,7 +51,8 @@ public class AnswerComposerService {
             List<MessageSender> messageSenders,
             AiReviewResultJpaRepository aiReviewResultRepository,
             DocumentMetadataJpaRepository documentMetadataRepository,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            RetrievalEvidenceJournal evidenceJournal
     ) {
         this.orchestrationService = orchestrationService;
         this.answerDraftRepository = answerDraftRepository;
@@ -58,6 +61,7 @@ public class AnswerComposerService {
         this.aiReviewResultRepository = aiReviewResultRepository;
         this.documentMetadataRepository = documentMetadataRepository;
         this.objectMapper = objectMapper;
+        this.evidenceJournal = evidenceJournal;
     }
 
     public AnswerDraftResponse compose(UUID inquiryId, String question, String tone, String channel) {
@@ -159,6 +163,8 @@ public class AnswerComposerService {
             entity.setRefinementInfo(prevId, refinementCount, additionalInstructions);
         }
 
+        // 초안이 참조하는 검색 근거가 먼저 저장되도록 저널을 비운다
+        evidenceJournal.flushNow();
         AnswerDraftJpaEntity saved = answerDraftRepository.save(entity);
         return toResponse(saved, orchestration.formatWarnings(), analysis.translatedQuery(), orchestration.selfReviewIssues());
     }
@@ -1,5 +1,7 @@
 package com.biorad.csrag.interfaces.rest.answer.agent;
 
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.persistence.answer.AiReviewResultJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.answer.AiReviewResultJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaEntity;
@@ -15,9 +17,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import com.biorad.csrag.common.exception.NotFoundException;
@@ -51,7 +51,8 @@ public class ReviewAgentService {
             AnswerDraftJpaRepository answerDraftRepository,
             AiReviewResultJpaRepository aiReviewResultRepository,
             InquiryRepository inquiryRepository,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory
     ) {
         this.openaiEnabled = openaiEnabled;
         this.chatModel = chatModel;
@@ -62,11 +63,7 @@ public class ReviewAgentService {
         this.promptRegistry = promptRegistry;
 
         if (openaiEnabled) {
-            this.restClient = RestClient.builder()
-                    .baseUrl(baseUrl)
-                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                    .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .build();
+            this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE);
         } else {
             this.restClient = null;
         }
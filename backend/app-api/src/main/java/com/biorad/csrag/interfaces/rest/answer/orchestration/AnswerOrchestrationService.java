@@ -1,10 +1,12 @@
 package com.biorad.csrag.interfaces.rest.answer.orchestration;
 
 import com.biorad.csrag.infrastructure.openai.PipelineTraceContext;
+import com.biorad.csrag.infrastructure.openai.PipelineTraceLogger;
 import com.biorad.csrag.infrastructure.persistence.orchestration.OrchestrationRunJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.orchestration.OrchestrationRunJpaRepository;
 import com.biorad.csrag.infrastructure.rag.budget.TokenBudgetManager;
 import com.biorad.csrag.infrastructure.rag.budget.TokenUsage;
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
 import com.biorad.csrag.interfaces.rest.analysis.AnalyzeResponse;
 import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
 import com.biorad.csrag.interfaces.rest.search.AdaptiveRetrievalAgent;
@@ -57,6 +59,8 @@ public class AnswerOrchestrationService {
     private final MultiHopRetriever multiHopRetriever;
     private final CriticAgentService criticAgentService;
     private final PipelineStatusService pipelineStatusService;
+    private final LatencyHistogramRegistry latencyHistograms;
+    private final PipelineTraceLogger traceLogger;
 
     public AnswerOrchestrationService(
             RetrieveStep retrieveStep,
@@ -71,7 +75,9 @@ public class AnswerOrchestrationService {
             AdaptiveRetrievalAgent adaptiveRetrievalAgent,
             MultiHopRetriever multiHopRetriever,
             CriticAgentService criticAgentService,
-            PipelineStatusService pipelineStatusService
+            PipelineStatusService pipelineStatusService,
+            LatencyHistogramRegistry latencyHistograms,
+            PipelineTraceLogger traceLogger
     ) {
         this.retrieveStep = retrieveStep;
         this.verifyStep = verifyStep;
@@ -86,6 +92,8 @@ public class AnswerOrchestrationService {
         this.multiHopRetriever = multiHopRetriever;
         this.criticAgentService = criticAgentService;
         this.pipelineStatusService = pipelineStatusService;
+        this.latencyHistograms = latencyHistograms;
+        this.traceLogger = traceLogger;
     }
 
     public OrchestrationResult run(UUID inquiryId, String question, String tone, String channel) {
@@ -97,11 +105,20 @@ public class AnswerOrchestrationService {
 
         pipelineStatusService.startExecution(inquiryId);
 
+        // 호출 측이 이미 추적 중이면(상위 파이프라인) 그 추적에 누적하고, 아니면 이 실행이 추적을 소유한다
+        boolean ownsTrace = PipelineTraceContext.current() == null;
+        if (ownsTrace) {
+            PipelineTraceContext.start(inquiryId.toString());
+        }
         try {
             return doRun(inquiryId, question, tone, channel, additionalInstructions, previousAnswerDraft);
         } catch (Exception e) {
             pipelineStatusService.failExecution(inquiryId, e.getMessage());
             throw e;
+        } finally {
+            if (ownsTrace) {
+                traceLogger.logTrace(PipelineTraceContext.finish());
+            }
         }
     }
 
@@ -194,7 +211,7 @@ public class AnswerOrchestrationService {
                     emitPipelineEvent(inquiryId, "ADAPTIVE_RETRIEVE", "COMPLETED", "NO_EVIDENCE");
                     // I Don't Know 경로: retrievedEvidences remains empty
                 } else {
-                    retrievedEvidences = toEvidenceItems(adaptiveResult.evidences());
+                    retrievedEvidences = toEvidenceItems(question, adaptiveResult.evidences());
                     retrievalQuality = RetrievalQuality.ADAPTIVE;
                     log.info("AdaptiveRetrievalAgent found {} evidences, confidence={} inquiryId={}",
                             retrievedEvidences.size(), adaptiveResult.confidence(), inquiryId);
@@ -236,7 +253,7 @@ public class AnswerOrchestrationService {
                         () -> multiHopRetriever.retrieve(question, inquiryId));
 
                 if (!multiHopResult.isSingleHop()) {
-                    List<EvidenceItem> multiHopEvidences = toEvidenceItems(multiHopResult.evidences());
+                    List<EvidenceItem> multiHopEvidences = toEvidenceItems(question, multiHopResult.evidences());
                     if (!multiHopEvidences.isEmpty()) {
                         // Merge multi-hop evidences, deduplicating by chunkId
                         LinkedHashMap<String, EvidenceItem> merged = new LinkedHashMap<>();
@@ -350,10 +367,7 @@ public class AnswerOrchestrationService {
         );
 
         // 스트리밍 완료 후 전체 답변 확정 이벤트
-        sseService.send(inquiryId, "compose-done", Map.of(
-                "draft", composed.draft(),
-                "tokenCount", tokenIndex.get()
-        ));
+        emitComposeDone(inquiryId, composed.draft(), tokenIndex.get());
 
         emitPipelineEvent(inquiryId, "COMPOSE", "COMPLETED", null);
         recordUsageFromTrace(budgetManager, "COMPOSE");
@@ -384,10 +398,7 @@ public class AnswerOrchestrationService {
                             )
                     );
 
-                    sseService.send(inquiryId, "compose-done", Map.of(
-                            "draft", composed.draft(),
-                            "tokenCount", tokenIndex.get()
-                    ));
+                    emitComposeDone(inquiryId, composed.draft(), tokenIndex.get());
 
                     emitPipelineEvent(inquiryId, "COMPOSE", "COMPLETED", "critic 피드백 반영 완료");
                 }
@@ -506,10 +517,10 @@ public class AnswerOrchestrationService {
 
     private record RetrieveResult(List<EvidenceItem> evidences, List<PerQuestionEvidence> perQuestion) {}
 
-    /** RerankResult → EvidenceItem 변환 헬퍼 (DB 메타데이터 보강: fileName, pageStart, pageEnd, productFamily) */
-    private List<EvidenceItem> toEvidenceItems(List<RerankingService.RerankResult> rerankResults) {
+    /** RerankResult → EvidenceItem 변환 헬퍼 (DB 메타데이터 보강: fileName, pageStart, pageEnd, productFamily + PARENT 근거 압축) */
+    private List<EvidenceItem> toEvidenceItems(String question, List<RerankingService.RerankResult> rerankResults) {
         if (retrieveStep instanceof DefaultRetrieveStep defaultStep) {
-            return defaultStep.enrichEvidenceMetadata(rerankResults);
+            return defaultStep.enrichEvidenceMetadata(question, rerankResults);
         }
         // Fallback: 메타데이터 없이 변환
         return rerankResults.stream()
@@ -517,7 +528,7 @@ public class AnswerOrchestrationService {
                         r.chunkId().toString(),
                         r.documentId() != null ? r.documentId().toString() : null,
                         r.rerankScore(), r.content(), r.sourceType(),
-                        null, null, null, null))
+                        null, null, null))
                 .toList();
     }
 
@@ -648,15 +659,19 @@ public class AnswerOrchestrationService {
         long started = System.currentTimeMillis();
         try {
             T result = supplier.get();
+            long latencyMs = System.currentTimeMillis() - started;
+            latencyHistograms.recordMillis("PIPELINE_STEP", step, null, "orchestration", latencyMs);
             runRepository.save(new OrchestrationRunJpaEntity(
                     UUID.randomUUID(), inquiryId, step, "SUCCESS",
-                    System.currentTimeMillis() - started, null, Instant.now()
+                    latencyMs, null, Instant.now()
             ));
             return result;
         } catch (RuntimeException ex) {
+            long latencyMs = System.currentTimeMillis() - started;
+            latencyHistograms.recordMillis("PIPELINE_STEP_FAILED", step, null, "orchestration", latencyMs);
             runRepository.save(new OrchestrationRunJpaEntity(
                     UUID.randomUUID(), inquiryId, step, "FAILED",
-                    System.currentTimeMillis() - started,
+                    latencyMs,
                     ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage(),
                     Instant.now()
             ));
@@ -665,6 +680,17 @@ public class AnswerOrchestrationService {
         }
     }
 
+    private void emitComposeDone(UUID inquiryId, String draft, int tokenCount) {
+        try {
+            sseService.send(inquiryId, "compose-done", Map.of(
+                    "draft", draft,
+                    "tokenCount", tokenCount
+            ));
+        } catch (Exception e) {
+            log.debug("sse.emit.failed inquiryId={} event=compose-done", inquiryId);
+        }
+    }
+
     private void emitPipelineEvent(UUID inquiryId, String step, String status, String error) {
         try {
             pipelineStatusService.updateStep(inquiryId, step, status, error);
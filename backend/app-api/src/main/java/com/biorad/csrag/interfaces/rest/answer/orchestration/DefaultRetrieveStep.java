@@ -34,4 +34,9 @@ public class DefaultRetrieveStep implements RetrieveStep {
     public List<EvidenceItem> enrichEvidenceMetadata(List<com.biorad.csrag.interfaces.rest.search.RerankingService.RerankResult> rerankResults) {
         return analysisService.enrichEvidenceMetadata(rerankResults);
     }
+
+    /** 메타데이터 보강 후 PARENT 근거를 질의 관련 문장으로 압축 */
+    public List<EvidenceItem> enrichEvidenceMetadata(String query, List<com.biorad.csrag.interfaces.rest.search.RerankingService.RerankResult> rerankResults) {
+        return analysisService.enrichEvidenceMetadata(query, rerankResults);
+    }
 }
@@ -1,7 +1,10 @@
 package com.biorad.csrag.interfaces.rest.answer.orchestration;
 
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.budget.TokenCounter;
 import com.biorad.csrag.interfaces.rest.analysis.AnalyzeResponse;
 import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,8 +14,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -41,6 +42,7 @@ public class OpenAiComposeStep implements ComposeStep {
     private final DefaultComposeStep fallback;
     private final PromptRegistry promptRegistry;
     private final int evidenceTokenBudget;
+    private final TokenCounter tokenCounter;
 
     @org.springframework.beans.factory.annotation.Autowired
     public OpenAiComposeStep(
@@ -50,18 +52,17 @@ public class OpenAiComposeStep implements ComposeStep {
             @Value("${rag.compose.evidence-token-budget:3000}") int evidenceTokenBudget,
             ObjectMapper objectMapper,
             DefaultComposeStep fallback,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory,
+            TokenCounter tokenCounter
     ) {
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE);
         this.objectMapper = objectMapper;
         this.chatModel = chatModel;
         this.fallback = fallback;
         this.promptRegistry = promptRegistry;
         this.evidenceTokenBudget = evidenceTokenBudget;
+        this.tokenCounter = tokenCounter;
     }
 
     /** Test-visible constructor */
@@ -73,6 +74,7 @@ public class OpenAiComposeStep implements ComposeStep {
         this.objectMapper = objectMapper;
         this.fallback = fallback;
         this.promptRegistry = promptRegistry;
+        this.tokenCounter = new TokenCounter(chatModel);
     }
 
     @Override
@@ -463,6 +465,12 @@ public class OpenAiComposeStep implements ComposeStep {
      * {@code [index|fileName:pageRange|sourceAbbrev|score] excerpt}
      */
     static String formatEvidenceCompact(int index, EvidenceItem ev) {
+        String excerpt = ev.excerpt() != null ? ev.excerpt() : "";
+        return formatEvidenceHeader(index, ev) + excerpt;
+    }
+
+    /** {@link #formatEvidenceCompact}의 excerpt 앞부분: {@code [index|fileName:pageRange|sourceAbbrev|score] } */
+    static String formatEvidenceHeader(int index, EvidenceItem ev) {
         StringBuilder sb = new StringBuilder();
         sb.append("[").append(index).append("|");
 
@@ -481,9 +489,6 @@ public class OpenAiComposeStep implements ComposeStep {
         sb.append(String.format("%.2f", ev.score()));
         sb.append("] ");
 
-        String excerpt = ev.excerpt() != null ? ev.excerpt() : "";
-        sb.append(excerpt);
-
         return sb.toString();
     }
 
@@ -499,20 +504,11 @@ public class OpenAiComposeStep implements ComposeStep {
     }
 
     /**
-     * Estimates token count for a string.
-     * Uses chars/3 for Korean (multibyte), chars/4 for predominantly ASCII text.
-     */
-    static int estimateTokens(String text) {
-        if (text == null || text.isEmpty()) return 0;
-        long nonAsciiCount = text.chars().filter(c -> c > 127).count();
-        boolean predominantlyKorean = nonAsciiCount > text.length() / 3;
-        return (int) Math.ceil((double) text.length() / (predominantlyKorean ? 3 : 4));
-    }
-
-    /**
-     * Sorts evidence by score descending, then trims lowest-score items until
-     * total estimated tokens fit within {@link #evidenceTokenBudget}.
-     * Returns a new list (never mutates the input).
+     * Picks the evidence subset that maximizes total rerank score within {@link #evidenceTokenBudget}
+     * ({@link EvidencePacker}), returned in score-descending order. Returns a new list (never mutates the input).
+     *
+     * <p>Token counts are real BPE counts: the excerpt count memoized at indexing time
+     * ({@link EvidenceItem#tokenCount()}) when present, otherwise counted here, plus the compact header.
      */
     List<EvidenceItem> applyTokenBudget(List<EvidenceItem> evidences) {
         if (evidences == null || evidences.isEmpty()) return List.of();
@@ -521,24 +517,31 @@ public class OpenAiComposeStep implements ComposeStep {
         List<EvidenceItem> sorted = new ArrayList<>(evidences);
         sorted.sort(Comparator.comparingDouble(EvidenceItem::score).reversed());
 
-        // Accumulate until budget exceeded
-        List<EvidenceItem> result = new ArrayList<>();
-        int tokenSum = 0;
+        int[] tokens = new int[sorted.size()];
+        double[] scores = new double[sorted.size()];
         for (int i = 0; i < sorted.size(); i++) {
-            String formatted = formatEvidenceCompact(i + 1, sorted.get(i));
-            int tokens = estimateTokens(formatted);
-            if (!result.isEmpty() && tokenSum + tokens > evidenceTokenBudget) {
-                log.info("Evidence budget: trimmed from {} to {} items (budget: {} tokens)",
-                        sorted.size(), result.size(), evidenceTokenBudget);
-                break;
-            }
-            result.add(sorted.get(i));
-            tokenSum += tokens;
+            tokens[i] = evidenceTokens(i + 1, sorted.get(i));
+            scores[i] = sorted.get(i).score();
         }
 
+        int[] picked = EvidencePacker.pack(tokens, scores, evidenceTokenBudget);
+        List<EvidenceItem> result = new ArrayList<>(picked.length);
+        for (int i : picked) {
+            result.add(sorted.get(i));
+        }
+        if (result.size() < sorted.size()) {
+            log.info("Evidence budget: packed {} of {} items (budget: {} tokens)",
+                    result.size(), sorted.size(), evidenceTokenBudget);
+        }
         return result;
     }
 
+    /** Prompt tokens of one evidence line in compact format. */
+    int evidenceTokens(int index, EvidenceItem ev) {
+        int excerptTokens = ev.tokenCount() != null ? ev.tokenCount() : tokenCounter.count(ev.excerpt());
+        return tokenCounter.count(formatEvidenceHeader(index, ev)) + excerptTokens;
+    }
+
     /** Exposes token budget for testing. */
     int getEvidenceTokenBudget() {
         return evidenceTokenBudget;
@@ -2,6 +2,8 @@ package com.biorad.csrag.interfaces.rest.answer.orchestration;
 
 import com.biorad.csrag.application.ops.RagMetricsService;
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
 import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -12,8 +14,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -53,13 +53,10 @@ public class OpenAiCriticAgentService implements CriticAgentService {
             @Value("${openai.model.chat-heavy:gpt-5-mini}") String chatModel,
             ObjectMapper objectMapper,
             RagMetricsService ragMetricsService,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory
     ) {
-        this(RestClient.builder()
-                        .baseUrl(baseUrl)
-                        .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .build(),
+        this(restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE),
                 chatModel, objectMapper, ragMetricsService, promptRegistry);
     }
 
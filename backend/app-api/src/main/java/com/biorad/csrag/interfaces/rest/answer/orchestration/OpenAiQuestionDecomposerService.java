@@ -1,7 +1,11 @@
 package com.biorad.csrag.interfaces.rest.answer.orchestration;
 
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.cache.LlmCacheStep;
+import com.biorad.csrag.infrastructure.rag.cache.LlmResponseCache;
 import com.biorad.csrag.interfaces.rest.search.ProductExtractorService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,8 +15,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -45,6 +47,7 @@ public class OpenAiQuestionDecomposerService implements QuestionDecomposerServic
     private final PromptRegistry promptRegistry;
     private final ProductExtractorService productExtractorService;
     private final RegexQuestionDecomposerService regexFallback;
+    private final LlmResponseCache llmResponseCache;
 
     @org.springframework.beans.factory.annotation.Autowired
     public OpenAiQuestionDecomposerService(
@@ -54,17 +57,16 @@ public class OpenAiQuestionDecomposerService implements QuestionDecomposerServic
             ObjectMapper objectMapper,
             PromptRegistry promptRegistry,
             ProductExtractorService productExtractorService,
-            RegexQuestionDecomposerService regexFallback) {
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+            RegexQuestionDecomposerService regexFallback,
+            OpenAiRestClientFactory restClientFactory,
+            LlmResponseCache llmResponseCache) {
+        this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE);
         this.objectMapper = objectMapper;
         this.chatModel = chatModel;
         this.promptRegistry = promptRegistry;
         this.productExtractorService = productExtractorService;
         this.regexFallback = regexFallback;
+        this.llmResponseCache = llmResponseCache;
     }
 
     // visible-for-testing
@@ -78,6 +80,7 @@ public class OpenAiQuestionDecomposerService implements QuestionDecomposerServic
         this.promptRegistry = promptRegistry;
         this.productExtractorService = productExtractorService;
         this.regexFallback = regexFallback;
+        this.llmResponseCache = LlmResponseCache.disabled();
     }
 
     @Override
@@ -95,21 +98,47 @@ public class OpenAiQuestionDecomposerService implements QuestionDecomposerServic
         }
     }
 
-    private DecomposedQuestion decomposeWithLlm(String question) {
+    private DecomposedQuestion decomposeWithLlm(String question) throws Exception {
         String userPrompt = promptRegistry.get("question-decompose", Map.of("question", question));
+        Map<String, Object> body = OpenAiRequestUtils.chatBodyWithJsonMode(
+                chatModel,
+                List.of(
+                        Map.of("role", "system", "content",
+                                "You are a Bio-Rad technical support question analyzer. "
+                                + "Always respond with valid JSON."),
+                        Map.of("role", "user", "content", userPrompt)
+                ),
+                4096
+        );
+
+        List<SubQuestion> subQuestions = llmResponseCache.getOrLoad(
+                llmResponseCache.key(LlmCacheStep.DECOMPOSE, chatModel, "question-decompose", body),
+                () -> requestContent(body),
+                content -> {
+                    List<SubQuestion> parsed = parseSubQuestions(content, question);
+                    if (parsed.isEmpty()) {
+                        throw new IllegalStateException("LLM returned no sub-questions");
+                    }
+                    return parsed;
+                });
 
+        // 제품 컨텍스트 추출 (ProductExtractorService 활용)
+        ProductExtractorService.ExtractedProduct mainProduct = productExtractorService.extract(question);
+        String productContext = mainProduct != null ? mainProduct.productName() : null;
+
+        // 하위 질문별 제품 패밀리 enrichment
+        subQuestions = enrichWithProductFamilies(subQuestions);
+
+        log.info("openai.question-decompose: {} sub-questions from '{}'",
+                subQuestions.size(), truncate(question, 80));
+
+        return new DecomposedQuestion(question, subQuestions, productContext);
+    }
+
+    private String requestContent(Map<String, Object> body) {
         String response = restClient.post()
                 .uri("/chat/completions")
-                .body(OpenAiRequestUtils.chatBodyWithJsonMode(
-                        chatModel,
-                        List.of(
-                                Map.of("role", "system", "content",
-                                        "You are a Bio-Rad technical support question analyzer. "
-                                        + "Always respond with valid JSON."),
-                                Map.of("role", "user", "content", userPrompt)
-                        ),
-                        4096
-                ))
+                .body(body)
                 .retrieve()
                 .body(String.class);
 
@@ -124,23 +153,7 @@ public class OpenAiQuestionDecomposerService implements QuestionDecomposerServic
         if (content.isBlank()) {
             throw new IllegalStateException("Empty response from LLM for question decomposition");
         }
-
-        List<SubQuestion> subQuestions = parseSubQuestions(content, question);
-        if (subQuestions.isEmpty()) {
-            throw new IllegalStateException("LLM returned no sub-questions");
-        }
-
-        // 제품 컨텍스트 추출 (ProductExtractorService 활용)
-        ProductExtractorService.ExtractedProduct mainProduct = productExtractorService.extract(question);
-        String productContext = mainProduct != null ? mainProduct.productName() : null;
-
-        // 하위 질문별 제품 패밀리 enrichment
-        subQuestions = enrichWithProductFamilies(subQuestions);
-
-        log.info("openai.question-decompose: {} sub-questions from '{}'",
-                subQuestions.size(), truncate(question, 80));
-
-        return new DecomposedQuestion(question, subQuestions, productContext);
+        return content;
     }
 
     private List<SubQuestion> parseSubQuestions(String jsonContent, String originalQuestion) {
@@ -1,7 +1,10 @@
 package com.biorad.csrag.interfaces.rest.chunk;
 
 import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkBulkWriter;
+import com.biorad.csrag.infrastructure.rag.budget.TokenCounter;
+import com.biorad.csrag.infrastructure.rag.cache.ChunkHydrationCache;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -12,6 +15,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -31,6 +35,11 @@ public class ChunkingService {
         "\\.(?=\\s)"
     );
     private static final String DOT_PLACEHOLDER = "\uFFF0";
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\n+");
+    private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?<=[.!?。])\\s+(?=[A-Z가-힣\\d(\\[\"'])");
+
+    // 근거 excerpt 정규화(AnalysisService.summarize)와 같은 공백 축약
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
     // 제목 패턴: Markdown heading, 번호 리스트, 전체 대문자 제목, 기술 문서 섹션
     private static final Pattern HEADING_PATTERN = Pattern.compile(
@@ -45,24 +54,30 @@ public class ChunkingService {
         ")", Pattern.MULTILINE
     );
 
-    private final DocumentChunkJpaRepository chunkRepository;
+    private final DocumentChunkBulkWriter chunkWriter;
+    private final ChunkHydrationCache chunkHydrationCache;
+    private final TokenCounter tokenCounter;
 
     @Autowired
     public ChunkingService(
-            DocumentChunkJpaRepository chunkRepository,
+            DocumentChunkBulkWriter chunkWriter,
+            ChunkHydrationCache chunkHydrationCache,
+            TokenCounter tokenCounter,
             @Value("${rag.chunking.parent-size:1500}") int chunkSize,
             @Value("${rag.chunking.child-size:400}") int childChunkSize,
             @Value("${rag.chunking.overlap:300}") int overlapChars
     ) {
-        this.chunkRepository = chunkRepository;
+        this.chunkWriter = chunkWriter;
+        this.chunkHydrationCache = chunkHydrationCache;
+        this.tokenCounter = tokenCounter;
         this.chunkSize = chunkSize;
         this.childChunkSize = childChunkSize;
         this.overlapChars = overlapChars;
     }
 
     /** 하위 호환 테스트용 생성자 — 기본값 사용 */
-    ChunkingService(DocumentChunkJpaRepository chunkRepository) {
-        this(chunkRepository, 1500, 400, 300);
+    ChunkingService(DocumentChunkBulkWriter chunkWriter) {
+        this(chunkWriter, ChunkHydrationCache.disabled(), TokenCounter.defaultCounter(), 1500, 400, 300);
     }
 
     /**
@@ -93,12 +108,15 @@ public class ChunkingService {
      * productFamily가 지정되면 각 청크에 제품 패밀리 메타데이터 설정
      */
     public int chunkAndStore(UUID documentId, String text, String sourceType, UUID sourceId, String fileName, String productFamily) {
-        chunkRepository.deleteByDocumentId(documentId);
+        chunkWriter.deleteByDocumentId(documentId);
+        chunkHydrationCache.invalidateDocument(documentId);
 
-        List<String> sentences = splitIntoSentences(text);
+        // 청크 콘텐츠·오프셋은 원문 구간 그대로 (문장 사이 공백 포함) — 근거 압축의 문장 구간을 원문 위치로 옮길 수 있다
+        List<int[]> spans = sentenceSpans(text);
+        List<String> sentences = new ArrayList<>(spans.size());
+        spans.forEach(span -> sentences.add(text.substring(span[0], span[1])));
         List<DocumentChunkJpaEntity> parentChunks = new ArrayList<>();
         int chunkIndex = 0;
-        int globalOffset = 0;
 
         int sentenceStart = 0;
         while (sentenceStart < sentences.size()) {
@@ -122,15 +140,17 @@ public class ChunkingService {
                 sentenceEnd++;
             }
 
-            String rawContent = chunkContent.toString();
+            // 병합·분할 판단은 공백 하나로 이은 길이 기준
+            int docStart = spans.get(sentenceStart)[0];
+            String rawContent = text.substring(docStart, spans.get(sentenceEnd - 1)[1]);
 
             // 단일 문장이 chunkSize를 초과하면 강제 분할
-            if (rawContent.length() > chunkSize) {
+            if (chunkContent.length() > chunkSize) {
                 int pos = 0;
                 while (pos < rawContent.length()) {
                     int end = Math.min(pos + chunkSize, rawContent.length());
                     String subChunk = rawContent.substring(pos, end);
-                    int startOff = globalOffset + pos;
+                    int startOff = docStart + pos;
                     int endOff = startOff + subChunk.length();
 
                     DocumentChunkJpaEntity chunk = new DocumentChunkJpaEntity(
@@ -152,12 +172,11 @@ public class ChunkingService {
                     chunkIndex++;
                     pos = end;
                 }
-                globalOffset += rawContent.length();
                 sentenceStart = Math.max(sentenceStart + 1, overlapSentencesForChars(sentences, sentenceStart, sentenceEnd));
                 continue;
             }
 
-            int startOffset = globalOffset;
+            int startOffset = docStart;
             int endOffset = startOffset + rawContent.length();
 
             DocumentChunkJpaEntity chunk = new DocumentChunkJpaEntity(
@@ -177,7 +196,6 @@ public class ChunkingService {
             chunk.setChunkLevel("PARENT");
             parentChunks.add(chunk);
 
-            globalOffset = endOffset;
             chunkIndex++;
 
             if (sentenceEnd >= sentences.size()) {
@@ -213,7 +231,8 @@ public class ChunkingService {
             }
         }
 
-        chunkRepository.saveAll(allChunks);
+        assignSignatures(allChunks);
+        chunkWriter.insertAll(allChunks);
         return allChunks.size();
     }
 
@@ -250,12 +269,15 @@ public class ChunkingService {
                 .map(pt -> pt.text().replaceAll("\\s+", " ").trim())
                 .collect(Collectors.toList());
 
-        chunkRepository.deleteByDocumentId(documentId);
+        chunkWriter.deleteByDocumentId(documentId);
+        chunkHydrationCache.invalidateDocument(documentId);
 
-        List<String> sentences = splitIntoSentences(fullText);
+        // 청크 콘텐츠·오프셋은 원문 구간 그대로 (문장 사이 공백 포함) — 근거 압축의 문장 구간을 원문 위치로 옮길 수 있다
+        List<int[]> spans = sentenceSpans(fullText);
+        List<String> sentences = new ArrayList<>(spans.size());
+        spans.forEach(span -> sentences.add(fullText.substring(span[0], span[1])));
         List<DocumentChunkJpaEntity> parentChunks = new ArrayList<>();
         int chunkIndex = 0;
-        int globalOffset = 0;
 
         int sentenceStart = 0;
         while (sentenceStart < sentences.size()) {
@@ -278,14 +300,16 @@ public class ChunkingService {
                 sentenceEnd++;
             }
 
-            String rawContent = chunkContent.toString();
+            // 병합·분할 판단은 공백 하나로 이은 길이 기준
+            int docStart = spans.get(sentenceStart)[0];
+            String rawContent = fullText.substring(docStart, spans.get(sentenceEnd - 1)[1]);
 
-            if (rawContent.length() > chunkSize) {
+            if (chunkContent.length() > chunkSize) {
                 int pos = 0;
                 while (pos < rawContent.length()) {
                     int end = Math.min(pos + chunkSize, rawContent.length());
                     String subChunk = rawContent.substring(pos, end);
-                    int startOff = globalOffset + pos;
+                    int startOff = docStart + pos;
                     int endOff = startOff + subChunk.length();
                     int[] pageRange = resolvePageRange(subChunk, pageTexts, normalizedPages);
 
@@ -305,12 +329,11 @@ public class ChunkingService {
                     chunkIndex++;
                     pos = end;
                 }
-                globalOffset += rawContent.length();
                 sentenceStart = Math.max(sentenceStart + 1, overlapSentencesForChars(sentences, sentenceStart, sentenceEnd));
                 continue;
             }
 
-            int startOffset = globalOffset;
+            int startOffset = docStart;
             int endOffset = startOffset + rawContent.length();
             // 페이지 범위 해결 시 원본 콘텐츠 사용 (프리픽스 없이)
             int[] pageRange = resolvePageRange(rawContent, pageTexts, normalizedPages);
@@ -329,7 +352,6 @@ public class ChunkingService {
             chunk.setChunkLevel("PARENT");
             parentChunks.add(chunk);
 
-            globalOffset = endOffset;
             chunkIndex++;
 
             if (sentenceEnd >= sentences.size()) {
@@ -366,10 +388,23 @@ public class ChunkingService {
             }
         }
 
-        chunkRepository.saveAll(allChunks);
+        assignSignatures(allChunks);
+        chunkWriter.insertAll(allChunks);
         return allChunks.size();
     }
 
+    /**
+     * 근접 중복 근거 제거용 MinHash 서명과 compose 근거 패킹용 토큰 수를 청크마다 한 번 계산해 함께 저장한다.
+     * 토큰 수는 근거 excerpt와 같은 공백 정규화를 거친 텍스트 기준이다.
+     */
+    private void assignSignatures(List<DocumentChunkJpaEntity> chunks) {
+        for (DocumentChunkJpaEntity chunk : chunks) {
+            chunk.setMinhashSignature(MinHashSignature.of(chunk.getContent()).encode());
+            String content = chunk.getContent();
+            chunk.setTokenCount(tokenCounter.count(content == null ? null : WHITESPACE.matcher(content).replaceAll(" ").trim()));
+        }
+    }
+
     /**
      * 청크의 내용이 어떤 페이지에 걸치는지 텍스트 매칭으로 결정한다.
      * 오프셋 기반 대신 콘텐츠 매칭을 사용하여 문장 분리/재결합 오프셋 드리프트 문제를 해결.
@@ -484,28 +519,61 @@ public class ChunkingService {
     }
 
     List<String> splitIntoSentences(String text) {
+        List<int[]> spans = sentenceSpans(text);
+        List<String> sentences = new ArrayList<>(spans.size());
+        for (int[] span : spans) {
+            sentences.add(text.substring(span[0], span[1]));
+        }
+        return sentences;
+    }
+
+    /**
+     * 청킹과 같은 규칙(약어 보호, 단락 분리, 문장 경계)으로 나눈 문장의 원문 내 위치.
+     * 근거 압축이 원문 오프셋을 유지한 채 문장을 고를 때도 쓴다.
+     *
+     * @return 문장별 {@code [start, end)} (앞뒤 공백 제외, 원문 순서)
+     */
+    public static List<int[]> sentenceSpans(String text) {
         if (text == null || text.isBlank()) return List.of();
 
-        // Pass 1: 약어 마침표를 플레이스홀더로 치환
+        // Pass 1: 약어 마침표를 같은 길이의 플레이스홀더로 치환 (오프셋 유지)
         String protectedText = ABBREVIATION.matcher(text)
             .replaceAll(m -> m.group().replace(".", DOT_PLACEHOLDER));
 
         // 단락 분리 → 문장 분리
-        String[] paragraphs = protectedText.split("\\n\\n+");
-        List<String> sentences = new ArrayList<>();
+        List<int[]> spans = new ArrayList<>();
+        Matcher paragraphBreak = PARAGRAPH_BREAK.matcher(protectedText);
+        int paragraphStart = 0;
+        while (paragraphBreak.find()) {
+            addSentenceSpans(protectedText, paragraphStart, paragraphBreak.start(), spans);
+            paragraphStart = paragraphBreak.end();
+        }
+        addSentenceSpans(protectedText, paragraphStart, protectedText.length(), spans);
+        return spans;
+    }
 
-        for (String paragraph : paragraphs) {
-            String[] parts = paragraph.trim().split(
-                "(?<=[.!?。])\\s+(?=[A-Z가-힣\\d(\\[\"'])"
-            );
-            for (String part : parts) {
-                String trimmed = part.trim();
-                if (!trimmed.isEmpty()) {
-                    // Pass 2: 플레이스홀더를 원래 마침표로 복원
-                    sentences.add(trimmed.replace(DOT_PLACEHOLDER, "."));
-                }
-            }
+    private static void addSentenceSpans(String text, int start, int end, List<int[]> spans) {
+        int[] paragraph = trim(text, start, end);
+        Matcher boundary = SENTENCE_BOUNDARY.matcher(text).region(paragraph[0], paragraph[1]);
+        int partStart = paragraph[0];
+        while (boundary.find()) {
+            addSpan(text, partStart, boundary.start(), spans);
+            partStart = boundary.end();
         }
-        return sentences;
+        addSpan(text, partStart, paragraph[1], spans);
+    }
+
+    private static void addSpan(String text, int start, int end, List<int[]> spans) {
+        int[] span = trim(text, start, end);
+        if (span[0] < span[1]) {
+            spans.add(span);
+        }
+    }
+
+    /** {@link String#trim()}과 같은 기준(코드 포인트 ≤ U+0020)으로 구간 양끝을 잘라낸다. */
+    private static int[] trim(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        return new int[]{start, end};
     }
 }
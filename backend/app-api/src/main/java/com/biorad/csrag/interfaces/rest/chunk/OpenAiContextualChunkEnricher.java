@@ -1,6 +1,8 @@
 package com.biorad.csrag.interfaces.rest.chunk;
 
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,8 +12,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -39,13 +39,10 @@ public class OpenAiContextualChunkEnricher implements ContextualChunkEnricher {
             @Value("${openai.model.chat-light:gpt-5-nano}") String chatModel,
             ObjectMapper objectMapper,
             MockContextualChunkEnricher fallback,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory
     ) {
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.BACKGROUND);
         this.objectMapper = objectMapper;
         this.chatModel = chatModel;
         this.fallback = fallback;
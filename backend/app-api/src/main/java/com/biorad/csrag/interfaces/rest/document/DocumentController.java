@@ -2,6 +2,8 @@ package com.biorad.csrag.interfaces.rest.document;
 
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore;
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore.StoredFile;
 import com.biorad.csrag.inquiry.domain.model.InquiryId;
 import com.biorad.csrag.inquiry.domain.repository.InquiryRepository;
 import com.biorad.csrag.interfaces.rest.chunk.ChunkingService;
@@ -28,7 +30,7 @@ import com.biorad.csrag.common.exception.ValidationException;
 import com.biorad.csrag.common.exception.ExternalServiceException;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
@@ -124,11 +126,11 @@ public class DocumentController {
         UUID documentId = UUID.randomUUID();
 
         try {
-            Path baseDir = Path.of(uploadDir, inquiryUuid.toString());
-            Files.createDirectories(baseDir);
-
-            Path target = baseDir.resolve(documentId + "_" + fileName);
-            file.transferTo(target);
+            Path target = Path.of(uploadDir, inquiryUuid.toString()).resolve(documentId + "_" + fileName);
+            StoredFile stored;
+            try (InputStream in = file.getInputStream()) {
+                stored = StreamingFileStore.store(in, target);
+            }
 
             Instant now = Instant.now();
             DocumentMetadataJpaEntity entity = new DocumentMetadataJpaEntity(
@@ -136,7 +138,7 @@ public class DocumentController {
                     inquiryUuid,
                     fileName,
                     contentType,
-                    file.getSize(),
+                    stored.size(),
                     target.toString(),
                     "UPLOADED",
                     null,
@@ -147,6 +149,7 @@ public class DocumentController {
                     now,
                     now
             );
+            entity.setContentSha256(stored.sha256());
 
             // Run image analysis for image files
             if (isImage) {
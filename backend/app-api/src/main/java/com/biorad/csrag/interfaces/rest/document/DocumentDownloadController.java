@@ -4,19 +4,18 @@ import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaE
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import com.biorad.csrag.common.exception.NotFoundException;
 import com.biorad.csrag.common.exception.ValidationException;
 import com.biorad.csrag.common.exception.ExternalServiceException;
@@ -47,76 +46,91 @@ public class DocumentDownloadController {
     }
 
     /**
-     * 원본 파일 다운로드
+     * 원본 파일 다운로드.
+     * Range(206)·조건부 GET(304)을 지원하므로 뷰어는 필요한 구간만, 재방문 시에는 검증만 요청한다.
      */
     @GetMapping("/{documentId}/download")
-    public ResponseEntity<Resource> download(@PathVariable UUID documentId) {
+    public void download(@PathVariable UUID documentId,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
         DocumentInfo info = resolveDocument(documentId);
-        Path filePath = Path.of(info.storagePath());
+        Path filePath = existingFile(info);
 
-        if (!Files.exists(filePath)) {
-            throw new NotFoundException("FILE_NOT_FOUND", "File not found on storage");
-        }
-
-        String encodedFileName = URLEncoder.encode(info.fileName(), StandardCharsets.UTF_8)
-                .replace("+", "%20");
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename*=UTF-8''" + encodedFileName)
-                .contentType(MediaType.parseMediaType(info.contentType()))
-                .body(new FileSystemResource(filePath));
+        FileRangeResponder.respond(request, response, filePath,
+                info.contentSha256() == null ? null : "\"" + info.contentSha256() + "\"",
+                info.contentType(),
+                "attachment; filename*=UTF-8''" + encodeFileName(info.fileName()));
     }
 
     /**
      * PDF 특정 페이지 추출 다운로드.
      * 비-PDF 파일은 전체 파일을 반환한다.
+     * 원본이 바뀌지 않았으면 추출 없이 304로 응답한다 (추출 결과는 바이트 단위로 같지 않을 수 있어 약한 ETag).
      */
     @GetMapping("/{documentId}/pages")
-    public ResponseEntity<Resource> downloadPages(
+    public void downloadPages(
             @PathVariable UUID documentId,
             @RequestParam int from,
             @RequestParam int to,
-            @RequestParam(defaultValue = "false") boolean download
-    ) {
+            @RequestParam(defaultValue = "false") boolean download,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
         if (from < 1 || to < from) {
             throw new ValidationException("INVALID_PAGE_RANGE",
                     "Invalid page range: from=" + from + " to=" + to);
         }
 
         DocumentInfo info = resolveDocument(documentId);
-        Path filePath = Path.of(info.storagePath());
-
-        if (!Files.exists(filePath)) {
-            throw new NotFoundException("FILE_NOT_FOUND", "File not found on storage");
-        }
+        Path filePath = existingFile(info);
 
         // 비-PDF: 전체 파일 반환
         if (!info.contentType().toLowerCase().contains("pdf")) {
-            return download(documentId);
+            download(documentId, request, response);
+            return;
+        }
+
+        String etag = info.contentSha256() == null
+                ? null
+                : "W/\"" + info.contentSha256() + "-p" + from + "-" + to + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (new ServletWebRequest(request, response)
+                .checkNotModified(etag, Files.getLastModifiedTime(filePath).toMillis())) {
+            return;
         }
 
+        byte[] pdfBytes;
         try {
-            byte[] pdfBytes = extractPdfPages(filePath, from, to);
+            pdfBytes = extractPdfPages(filePath, from, to);
+        } catch (IOException e) {
+            throw new ExternalServiceException("PDFExtractor",
+                    "Failed to extract PDF pages");
+        }
 
-            String baseName = info.fileName().replaceFirst("\\.[^.]+$", "");
-            String pageFileName = baseName + "_p" + from + "-" + to + ".pdf";
-            String encodedFileName = URLEncoder.encode(pageFileName, StandardCharsets.UTF_8)
-                    .replace("+", "%20");
+        String baseName = info.fileName().replaceFirst("\\.[^.]+$", "");
+        String pageFileName = baseName + "_p" + from + "-" + to + ".pdf";
 
-            log.info("document.pages.download documentId={} from={} to={}", documentId, from, to);
+        log.info("document.pages.download documentId={} from={} to={} bytes={}", documentId, from, to, pdfBytes.length);
 
-            String disposition = download ? "attachment" : "inline";
+        String disposition = download ? "attachment" : "inline";
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            disposition + "; filename*=UTF-8''" + encodedFileName)
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(new ByteArrayResource(pdfBytes));
-        } catch (IOException e) {
-            throw new ExternalServiceException("PDFExtractor",
-                    "Failed to extract PDF pages");
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                disposition + "; filename*=UTF-8''" + encodeFileName(pageFileName));
+        response.setContentLength(pdfBytes.length);
+        response.getOutputStream().write(pdfBytes);
+    }
+
+    private Path existingFile(DocumentInfo info) {
+        Path filePath = Path.of(info.storagePath());
+        if (!Files.exists(filePath)) {
+            throw new NotFoundException("FILE_NOT_FOUND", "File not found on storage");
         }
+        return filePath;
+    }
+
+    private static String encodeFileName(String fileName) {
+        return URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
     }
 
     private byte[] extractPdfPages(Path filePath, int from, int to) throws IOException {
@@ -148,12 +162,12 @@ public class DocumentDownloadController {
     private DocumentInfo resolveDocument(UUID documentId) {
         // Inquiry 문서 먼저 조회
         return documentRepository.findById(documentId)
-                .map(d -> new DocumentInfo(d.getStoragePath(), d.getFileName(), d.getContentType()))
+                .map(d -> new DocumentInfo(d.getStoragePath(), d.getFileName(), d.getContentType(), d.getContentSha256()))
                 .or(() -> kbDocRepository.findById(documentId)
-                        .map(d -> new DocumentInfo(d.getStoragePath(), d.getFileName(), d.getContentType())))
+                        .map(d -> new DocumentInfo(d.getStoragePath(), d.getFileName(), d.getContentType(), d.getContentSha256())))
                 .orElseThrow(() -> new NotFoundException("DOCUMENT_NOT_FOUND",
                         "Document not found: " + documentId));
     }
 
-    private record DocumentInfo(String storagePath, String fileName, String contentType) {}
+    private record DocumentInfo(String storagePath, String fileName, String contentType, String contentSha256) {}
 }
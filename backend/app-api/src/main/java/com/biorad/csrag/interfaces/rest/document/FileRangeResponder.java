@@ -0,0 +1,173 @@
+package com.biorad.csrag.interfaces.rest.document;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * 저장된 파일을 HTTP Range / 조건부 GET을 지원하며 응답 본문으로 내보낸다.
+ *
+ * <ul>
+ *   <li>If-Match / If-Unmodified-Since → 412 (직접 평가 — {@link ServletWebRequest}는 GET/HEAD에서 이 둘을 건너뛴다),
+ *       If-None-Match / If-Modified-Since → 304 ({@link ServletWebRequest#checkNotModified(String, long)})</li>
+ *   <li>단일 Range → 206, 문법은 맞지만 만족할 수 없는 Range → 416. 복수 Range와 파싱할 수 없거나
+ *       개수가 너무 많은 Range는 무시하고 전체 200 (RFC 9110 §14.2). If-Range가 현재 표현과 다르면 전체 200</li>
+ *   <li>Tomcat이 sendfile을 지원하면 요청 속성으로 파일 구간을 넘겨 커널에서 바로 소켓으로 보내고,
+ *       아니면 {@link FileChannel#transferTo}로 복사한다.</li>
+ * </ul>
+ */
+final class FileRangeResponder {
+
+    static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private FileRangeResponder() {
+    }
+
+    /**
+     * @param etag               따옴표 포함 ETag (강한 ETag일 때만 If-Range 비교에 사용). null이면 생략
+     * @param contentType        응답 Content-Type
+     * @param contentDisposition 응답 Content-Disposition
+     */
+    static void respond(HttpServletRequest request, HttpServletResponse response, Path file,
+                        String etag, String contentType, String contentDisposition) throws IOException {
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (preconditionFailed(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_PRECONDITION_FAILED);
+            return;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            HttpRange range = singleRange(rangeHeader);
+            if (range != null) {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    rejectRange(response, length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = in.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static void rejectRange(HttpServletResponse response, long length) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setContentLength(0);
+    }
+
+    /**
+     * @return 단일 Range. 복수 Range이거나 파싱할 수 없으면(개수 초과 포함) null — 헤더를 무시하고 전체 응답
+     */
+    private static HttpRange singleRange(String header) {
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    /**
+     * If-Match(강한 비교, {@code *}는 항상 일치), If-Match가 없으면 If-Unmodified-Since를 평가한다 (RFC 9110 §13.2.2 1~2단계).
+     *
+     * @return 조건이 거짓이면 true — 412
+     */
+    private static boolean preconditionFailed(HttpServletRequest request, String etag, long lastModified) {
+        Enumeration<String> ifMatch = request.getHeaders(HttpHeaders.IF_MATCH);
+        if (ifMatch != null && ifMatch.hasMoreElements()) {
+            while (ifMatch.hasMoreElements()) {
+                for (String tag : ifMatch.nextElement().split(",")) {
+                    String candidate = tag.trim();
+                    if (candidate.equals("*")
+                            || (etag != null && !etag.startsWith("W/") && candidate.equals(etag))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        long unmodifiedSince;
+        try {
+            unmodifiedSince = request.getDateHeader(HttpHeaders.IF_UNMODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return unmodifiedSince != -1 && lastModified / 1000 > unmodifiedSince / 1000;
+    }
+
+    /**
+     * If-Range가 없거나 현재 강한 ETag 또는 Last-Modified와 일치하면 true.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag != null && !etag.startsWith("W/") && etag.equals(ifRange);
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return since != -1 && lastModified / 1000 == since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
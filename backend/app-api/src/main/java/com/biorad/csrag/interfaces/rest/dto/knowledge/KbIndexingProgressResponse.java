@@ -0,0 +1,32 @@
+package com.biorad.csrag.interfaces.rest.dto.knowledge;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Knowledge Base 인덱싱 큐 진행률 DTO
+ *
+ * @param activeByStage     대기·실행 중 작업의 마지막 완료 단계별 건수 (NONE, PARSED, CHUNKED, ENRICHED)
+ * @param concurrencyLimit  현재 동시 실행 상한 (OpenAI 429 관측 시 감소)
+ * @param documentsPerMinute 최근 {@code windowMinutes}분 동안의 완료 문서 처리량
+ * @param etaSeconds        남은 작업(대기 + 실행) / 처리량. 처리 실적이 없으면 null
+ */
+public record KbIndexingProgressResponse(
+    boolean enabled,
+    long queued,
+    long running,
+    long done,
+    long failed,
+    Map<String, Long> activeByStage,
+    int concurrencyLimit,
+    int maxConcurrency,
+    int inFlight,
+    long throttleEvents,
+    Instant lastThrottleAt,
+    int windowMinutes,
+    long completedInWindow,
+    double documentsPerMinute,
+    double chunksPerMinute,
+    Long etaSeconds
+) {
+}
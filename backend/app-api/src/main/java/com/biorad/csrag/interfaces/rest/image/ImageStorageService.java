@@ -4,6 +4,8 @@ import com.biorad.csrag.common.exception.NotFoundException;
 import com.biorad.csrag.common.exception.ValidationException;
 import com.biorad.csrag.infrastructure.persistence.image.ImageJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.image.ImageJpaRepository;
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore;
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore.StoredFile;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
@@ -11,12 +13,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.UUID;
 
 @Service
@@ -46,36 +52,49 @@ public class ImageStorageService {
             throw new ValidationException("FILE_TOO_LARGE", "File size exceeds 5MB limit");
         }
 
-        byte[] bytes;
-        try {
-            bytes = file.getBytes();
+        UUID imageId = UUID.randomUUID();
+        Path dirPath = Paths.get(storagePath);
+
+        // 업로드를 힙에 올리지 않고 임시 이름으로 스트리밍 저장한 뒤, 매직 바이트로 형식을 확인하고 확장자를 붙인다
+        StoredFile stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = StreamingFileStore.store(in, dirPath.resolve(imageId + ".upload"));
         } catch (IOException e) {
-            throw new ValidationException("FILE_READ_ERROR", "Failed to read uploaded file");
+            throw new ValidationException("FILE_WRITE_ERROR", "Failed to save uploaded file");
         }
 
-        String contentType = validateContentType(bytes);
+        String contentType;
+        try {
+            contentType = validateContentType(stored.head());
+        } catch (ValidationException e) {
+            deleteQuietly(stored.path());
+            throw e;
+        }
         String extension = "image/png".equals(contentType) ? "png" : "jpg";
-
-        UUID imageId = UUID.randomUUID();
         String fileName = imageId + "." + extension;
-
-        Path dirPath = Paths.get(storagePath);
         Path filePath = dirPath.resolve(fileName);
 
         try {
-            Files.createDirectories(dirPath);
-            Files.write(filePath, bytes);
+            Files.move(stored.path(), filePath, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
+            deleteQuietly(stored.path());
             throw new ValidationException("FILE_WRITE_ERROR", "Failed to save uploaded file");
         }
 
+        // 크기는 헤더만 읽는다 (픽셀 디코딩 없음). 실패해도 업로드는 유지하고 0으로 기록
         int width = 0;
         int height = 0;
-        try {
-            BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(bytes));
-            if (bufferedImage != null) {
-                width = bufferedImage.getWidth();
-                height = bufferedImage.getHeight();
+        try (ImageInputStream iis = ImageIO.createImageInputStream(filePath.toFile())) {
+            Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : Collections.emptyIterator();
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(iis, true, true);
+                    width = reader.getWidth(0);
+                    height = reader.getHeight(0);
+                } finally {
+                    reader.dispose();
+                }
             }
         } catch (IOException e) {
             // Non-critical: dimensions will be 0
@@ -83,14 +102,14 @@ public class ImageStorageService {
 
         ImageJpaEntity entity = new ImageJpaEntity(
                 imageId, inquiryId, fileName, contentType,
-                bytes.length, width, height, filePath.toString()
+                stored.size(), width, height, filePath.toString()
         );
         imageRepository.save(entity);
 
         String url = baseUrl + "/api/v1/images/" + imageId + "." + extension;
 
         return new ImageUploadResponse(
-                imageId.toString(), url, width, height, extension, bytes.length
+                imageId.toString(), url, width, height, extension, stored.size()
         );
     }
 
@@ -111,6 +130,14 @@ public class ImageStorageService {
                 .orElseThrow(() -> new NotFoundException("IMAGE_NOT_FOUND", "Image not found"));
     }
 
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 임시 파일 정리 실패는 무시
+        }
+    }
+
     /**
      * Validates the actual file content by checking magic bytes.
      * Returns the detected content type.
@@ -9,7 +9,8 @@ public record KbUsageResponse(
         long totalEvidences,
         long kbEvidences,
         double kbUsageRate,
-        List<TopDocument> topDocuments
+        List<TopDocument> topDocuments,
+        String rollupRefreshedAt  // 롤업 마지막 갱신 시각 (ISO-8601, 아직 없으면 null)
 ) {
     public record TopDocument(
             String documentId,
@@ -0,0 +1,11 @@
+package com.biorad.csrag.interfaces.rest.ops;
+
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
+
+import java.util.List;
+
+public record LatencyMetricsResponse(
+        String generatedAt,
+        List<String> windows,
+        List<LatencyHistogramRegistry.SeriesSnapshot> series
+) {}
@@ -1,21 +1,24 @@
 package com.biorad.csrag.interfaces.rest.ops;
 
-import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaEntity;
+import com.biorad.csrag.application.ops.BufferedMetricRecorder;
+import com.biorad.csrag.application.ops.OpsRollupService;
+import com.biorad.csrag.application.ops.RagMetricsService;
+import com.biorad.csrag.infrastructure.http.OutboundHttpTransport;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.orchestration.OrchestrationRunJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.orchestration.OrchestrationRunJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.ops.OpsDailyRollupJdbcRepository;
 import com.biorad.csrag.infrastructure.persistence.sendattempt.SendAttemptJpaRepository;
-import com.biorad.csrag.inquiry.infrastructure.persistence.jpa.InquiryJpaEntity;
-import com.biorad.csrag.inquiry.infrastructure.persistence.jpa.SpringDataInquiryJpaRepository;
+import com.biorad.csrag.infrastructure.rag.cache.ChunkHydrationCache;
+import com.biorad.csrag.infrastructure.rag.cache.LlmResponseCache;
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
+import com.biorad.csrag.interfaces.rest.analysis.RetrievalEvidenceJournal;
+import com.biorad.csrag.interfaces.rest.vector.segment.SegmentVectorStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import com.biorad.csrag.common.exception.ExternalServiceException;
+import com.biorad.csrag.common.exception.NotFoundException;
 import com.biorad.csrag.common.exception.ValidationException;
 
 import java.io.PrintWriter;
@@ -31,43 +35,61 @@ import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Tag(name = "Ops Metrics", description = "운영 지표 및 대시보드 분석 API")
 @RestController
 @RequestMapping("/api/v1/ops/metrics")
 public class OpsMetricsController {
 
+    private static final int TOP_KB_DOCUMENTS = 5;
+
     private final AnswerDraftJpaRepository answerDraftRepository;
-    private final OrchestrationRunJpaRepository orchestrationRunRepository;
     private final SendAttemptJpaRepository sendAttemptRepository;
-    private final SpringDataInquiryJpaRepository inquiryJpaRepository;
-    private final RetrievalEvidenceJpaRepository retrievalEvidenceRepository;
-    private final DocumentChunkJpaRepository documentChunkRepository;
     private final KnowledgeDocumentJpaRepository knowledgeDocumentRepository;
+    private final OpsRollupService opsRollupService;
+    private final OpsDailyRollupJdbcRepository rollupRepository;
+    private final RagMetricsService ragMetricsService;
+    private final LatencyHistogramRegistry latencyHistograms;
+    private final OpenAiRateGovernor rateGovernor;
+    private final OutboundHttpTransport outboundHttp;
+    private final LlmResponseCache llmResponseCache;
+    private final ChunkHydrationCache chunkHydrationCache;
+    private final RetrievalEvidenceJournal evidenceJournal;
+    private final SegmentVectorStore segmentVectorStore;
 
     public OpsMetricsController(
             AnswerDraftJpaRepository answerDraftRepository,
-            OrchestrationRunJpaRepository orchestrationRunRepository,
             SendAttemptJpaRepository sendAttemptRepository,
-            SpringDataInquiryJpaRepository inquiryJpaRepository,
-            RetrievalEvidenceJpaRepository retrievalEvidenceRepository,
-            DocumentChunkJpaRepository documentChunkRepository,
-            KnowledgeDocumentJpaRepository knowledgeDocumentRepository
+            KnowledgeDocumentJpaRepository knowledgeDocumentRepository,
+            OpsRollupService opsRollupService,
+            OpsDailyRollupJdbcRepository rollupRepository,
+            RagMetricsService ragMetricsService,
+            LatencyHistogramRegistry latencyHistograms,
+            OpenAiRateGovernor rateGovernor,
+            OutboundHttpTransport outboundHttp,
+            LlmResponseCache llmResponseCache,
+            ChunkHydrationCache chunkHydrationCache,
+            RetrievalEvidenceJournal evidenceJournal,
+            @Autowired(required = false) SegmentVectorStore segmentVectorStore
     ) {
         this.answerDraftRepository = answerDraftRepository;
-        this.orchestrationRunRepository = orchestrationRunRepository;
         this.sendAttemptRepository = sendAttemptRepository;
-        this.inquiryJpaRepository = inquiryJpaRepository;
-        this.retrievalEvidenceRepository = retrievalEvidenceRepository;
-        this.documentChunkRepository = documentChunkRepository;
         this.knowledgeDocumentRepository = knowledgeDocumentRepository;
+        this.opsRollupService = opsRollupService;
+        this.rollupRepository = rollupRepository;
+        this.ragMetricsService = ragMetricsService;
+        this.latencyHistograms = latencyHistograms;
+        this.rateGovernor = rateGovernor;
+        this.outboundHttp = outboundHttp;
+        this.llmResponseCache = llmResponseCache;
+        this.chunkHydrationCache = chunkHydrationCache;
+        this.evidenceJournal = evidenceJournal;
+        this.segmentVectorStore = segmentVectorStore;
     }
 
     @Operation(summary = "운영 지표 조회", description = "발송 성공률, 폴백 비율, 중복 차단 등 종합 운영 지표를 조회합니다")
@@ -86,21 +108,9 @@ public class OpsMetricsController {
         double fallbackDraftRate = totalDraft == 0 ? 0.0 : round2((fallbackDraft * 100.0) / totalDraft);
         double duplicateBlockRate = totalSendAttempts == 0 ? 0.0 : round2((duplicateBlockedCount * 100.0) / totalSendAttempts);
 
-        List<OpsMetricsResponse.FailureReasonCount> topReasons = orchestrationRunRepository.findAll().stream()
-                .filter(r -> "FAILED".equalsIgnoreCase(r.getStatus()))
-                .map(r -> {
-                    String msg = r.getErrorMessage();
-                    if (msg == null || msg.isBlank()) {
-                        return "UNKNOWN_ERROR";
-                    }
-                    return msg.length() > 80 ? msg.substring(0, 80) : msg;
-                })
-                .collect(Collectors.groupingBy(s -> s, Collectors.counting()))
-                .entrySet()
-                .stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(Math.max(1, topFailures))
-                .map(e -> new OpsMetricsResponse.FailureReasonCount(e.getKey(), e.getValue()))
+        List<OpsMetricsResponse.FailureReasonCount> topReasons = rollupRepository
+                .findTopFailureReasons(Math.max(1, topFailures)).stream()
+                .map(r -> new OpsMetricsResponse.FailureReasonCount(r.reason(), r.count()))
                 .toList();
 
         return new OpsMetricsResponse(
@@ -113,7 +123,8 @@ public class OpsMetricsController {
                 fallbackDraft,
                 totalDraft,
                 fallbackDraftRate,
-                topReasons
+                topReasons,
+                rollupRefreshedAt()
         );
     }
 
@@ -127,42 +138,22 @@ public class OpsMetricsController {
             @RequestParam(required = false) String to
     ) {
         DateRange range = resolveDateRange(period, from, to);
-        List<InquiryJpaEntity> inquiries = inquiryJpaRepository.findAll().stream()
-                .filter(i -> !i.getCreatedAt().isBefore(range.from) && !i.getCreatedAt().isAfter(range.to))
-                .toList();
-        List<AnswerDraftJpaEntity> drafts = answerDraftRepository.findByCreatedAtBetween(range.from, range.to);
-        List<AnswerDraftJpaEntity> sentDrafts = answerDraftRepository.findByStatusAndSentAtBetween("SENT", range.from, range.to);
-
-        Map<String, long[]> dailyMap = new LinkedHashMap<>();
-        LocalDate start = range.from.atZone(ZoneOffset.UTC).toLocalDate();
-        LocalDate end = range.to.atZone(ZoneOffset.UTC).toLocalDate();
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            dailyMap.put(d.toString(), new long[]{0, 0, 0});
-        }
 
-        for (InquiryJpaEntity inq : inquiries) {
-            String day = inq.getCreatedAt().atZone(ZoneOffset.UTC).toLocalDate().toString();
-            long[] counts = dailyMap.get(day);
-            if (counts != null) counts[0]++;
-        }
-        for (AnswerDraftJpaEntity draft : sentDrafts) {
-            if (draft.getSentAt() != null) {
-                String day = draft.getSentAt().atZone(ZoneOffset.UTC).toLocalDate().toString();
-                long[] counts = dailyMap.get(day);
-                if (counts != null) counts[1]++;
-            }
-        }
-        for (AnswerDraftJpaEntity draft : drafts) {
-            String day = draft.getCreatedAt().atZone(ZoneOffset.UTC).toLocalDate().toString();
-            long[] counts = dailyMap.get(day);
-            if (counts != null) counts[2]++;
+        Map<LocalDate, OpsDailyRollupJdbcRepository.DailyCounts> rolledUp = new HashMap<>();
+        for (OpsDailyRollupJdbcRepository.DailyCounts counts : rollupRepository.findDailyCounts(range.fromDay(), range.toDay())) {
+            rolledUp.put(counts.date(), counts);
         }
 
-        List<TimelineResponse.DailyMetric> data = dailyMap.entrySet().stream()
-                .map(e -> new TimelineResponse.DailyMetric(e.getKey(), e.getValue()[0], e.getValue()[1], e.getValue()[2]))
-                .toList();
+        List<TimelineResponse.DailyMetric> data = new ArrayList<>();
+        for (LocalDate d = range.fromDay(); !d.isAfter(range.toDay()); d = d.plusDays(1)) {
+            OpsDailyRollupJdbcRepository.DailyCounts counts = rolledUp.get(d);
+            data.add(counts == null
+                    ? new TimelineResponse.DailyMetric(d.toString(), 0, 0, 0)
+                    : new TimelineResponse.DailyMetric(d.toString(),
+                            counts.inquiriesCreated(), counts.answersSent(), counts.draftsCreated()));
+        }
 
-        return new TimelineResponse(period, range.from.toString(), range.to.toString(), data);
+        return new TimelineResponse(period, range.from.toString(), range.to.toString(), data, rollupRefreshedAt());
     }
 
     @Operation(summary = "처리 시간 통계", description = "평균/중앙값/최소/최대 처리 시간과 파이프라인 단계별 평균 시간을 조회합니다")
@@ -175,45 +166,25 @@ public class OpsMetricsController {
             @RequestParam(required = false) String to
     ) {
         DateRange range = resolveDateRange(period, from, to);
-        List<AnswerDraftJpaEntity> sentDrafts = answerDraftRepository.findByStatusAndSentAtBetween("SENT", range.from, range.to);
+        OpsDailyRollupJdbcRepository.ProcessingStats stats = rollupRepository.findProcessingStats(range.from, range.to);
 
-        List<Double> processingHours = new ArrayList<>();
-        for (AnswerDraftJpaEntity draft : sentDrafts) {
-            if (draft.getSentAt() != null && draft.getCreatedAt() != null) {
-                double hours = ChronoUnit.MINUTES.between(draft.getCreatedAt(), draft.getSentAt()) / 60.0;
-                processingHours.add(hours);
+        Map<String, Double> avgByStep = new HashMap<>();
+        for (OpsDailyRollupJdbcRepository.StepLatency step : rollupRepository.findStepLatency(range.fromDay(), range.toDay())) {
+            if (step.successCount() > 0) {
+                avgByStep.put(step.step(), round2(step.latencyMsSum() / 1000.0 / step.successCount()));
             }
         }
 
-        double avg = 0, median = 0, min = 0, max = 0;
-        if (!processingHours.isEmpty()) {
-            Collections.sort(processingHours);
-            avg = round2(processingHours.stream().mapToDouble(Double::doubleValue).average().orElse(0));
-            min = round2(processingHours.get(0));
-            max = round2(processingHours.get(processingHours.size() - 1));
-            int mid = processingHours.size() / 2;
-            median = processingHours.size() % 2 == 0
-                    ? round2((processingHours.get(mid - 1) + processingHours.get(mid)) / 2.0)
-                    : round2(processingHours.get(mid));
-        }
-
-        List<OrchestrationRunJpaEntity> runs = orchestrationRunRepository.findAll().stream()
-                .filter(r -> !r.getCreatedAt().isBefore(range.from) && !r.getCreatedAt().isAfter(range.to))
-                .filter(r -> "SUCCESS".equalsIgnoreCase(r.getStatus()))
-                .toList();
-
-        Map<String, Double> avgByStep = runs.stream()
-                .collect(Collectors.groupingBy(
-                        OrchestrationRunJpaEntity::getStep,
-                        Collectors.averagingDouble(r -> r.getLatencyMs() / 1000.0)
-                ));
-        avgByStep.replaceAll((k, v) -> round2(v));
-
+        boolean empty = stats.count() == 0;
         return new ProcessingTimeResponse(
                 period, range.from.toString(), range.to.toString(),
-                avg, median, min, max,
-                processingHours.size(),
-                avgByStep
+                empty ? 0 : round2(stats.avgHours()),
+                empty ? 0 : round2(stats.medianHours()),
+                empty ? 0 : round2(stats.minHours()),
+                empty ? 0 : round2(stats.maxHours()),
+                stats.count(),
+                avgByStep,
+                rollupRefreshedAt()
         );
     }
 
@@ -227,48 +198,106 @@ public class OpsMetricsController {
             @RequestParam(required = false) String to
     ) {
         DateRange range = resolveDateRange(period, from, to);
-        List<RetrievalEvidenceJpaEntity> evidences = retrievalEvidenceRepository.findByCreatedAtBetween(range.from, range.to);
-
-        Map<UUID, String> chunkSourceTypeCache = new LinkedHashMap<>();
-        long kbCount = 0;
-        for (RetrievalEvidenceJpaEntity ev : evidences) {
-            String sourceType = chunkSourceTypeCache.computeIfAbsent(ev.getChunkId(), cid ->
-                    documentChunkRepository.findById(cid)
-                            .map(DocumentChunkJpaEntity::getSourceType)
-                            .orElse("INQUIRY")
-            );
-            if ("KNOWLEDGE_BASE".equals(sourceType)) {
-                kbCount++;
-            }
-        }
 
-        double kbUsageRate = evidences.isEmpty() ? 0.0 : round2((kbCount * 100.0) / evidences.size());
-
-        List<Object[]> topChunks = retrievalEvidenceRepository.findTopReferencedChunks(range.from, range.to);
-        List<KbUsageResponse.TopDocument> topDocuments = new ArrayList<>();
-        int count = 0;
-        for (Object[] row : topChunks) {
-            if (count >= 5) break;
-            UUID chunkId = (UUID) row[0];
-            long refCount = (Long) row[1];
-            var chunk = documentChunkRepository.findById(chunkId).orElse(null);
-            if (chunk != null && "KNOWLEDGE_BASE".equals(chunk.getSourceType())) {
-                String fileName = knowledgeDocumentRepository.findById(chunk.getDocumentId())
-                        .map(doc -> doc.getTitle())
-                        .orElse("Unknown");
-                topDocuments.add(new KbUsageResponse.TopDocument(
-                        chunk.getDocumentId().toString(), fileName, refCount
-                ));
-                count++;
-            }
-        }
+        long totalEvidences = rollupRepository.findDailyCounts(range.fromDay(), range.toDay()).stream()
+                .mapToLong(OpsDailyRollupJdbcRepository.DailyCounts::evidenceTotal)
+                .sum();
+        long kbCount = rollupRepository.sumKbReferences(range.fromDay(), range.toDay());
+        double kbUsageRate = totalEvidences == 0 ? 0.0 : round2((kbCount * 100.0) / totalEvidences);
+
+        List<OpsDailyRollupJdbcRepository.DocumentRefCount> topRefs =
+                rollupRepository.findTopKbDocuments(range.fromDay(), range.toDay(), TOP_KB_DOCUMENTS);
+        Map<UUID, String> titles = new HashMap<>();
+        knowledgeDocumentRepository.findAllById(topRefs.stream()
+                        .map(OpsDailyRollupJdbcRepository.DocumentRefCount::documentId)
+                        .toList())
+                .forEach(doc -> titles.put(doc.getId(), doc.getTitle()));
+
+        List<KbUsageResponse.TopDocument> topDocuments = topRefs.stream()
+                .map(ref -> new KbUsageResponse.TopDocument(
+                        ref.documentId().toString(),
+                        titles.getOrDefault(ref.documentId(), "Unknown"),
+                        ref.refCount()))
+                .toList();
 
         return new KbUsageResponse(
                 period, range.from.toString(), range.to.toString(),
-                evidences.size(), kbCount, kbUsageRate, topDocuments
+                totalEvidences, kbCount, kbUsageRate, topDocuments, rollupRefreshedAt()
+        );
+    }
+
+    @Operation(summary = "메트릭 기록기 상태", description = "파이프라인 메트릭 버퍼의 적재/저장/유실 건수와 flush 지연을 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/recorder")
+    @ResponseStatus(HttpStatus.OK)
+    public BufferedMetricRecorder.MetricRecorderStats getRecorderStats() {
+        return ragMetricsService.getRecorderStats();
+    }
+
+    @Operation(summary = "검색 근거 저널 상태", description = "retrieval_evidence write-behind 저널의 적재/저장/실패 건수, 대기 큐 깊이, flush 지연을 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/evidence-journal")
+    @ResponseStatus(HttpStatus.OK)
+    public RetrievalEvidenceJournal.JournalStats getEvidenceJournal() {
+        return evidenceJournal.getStats();
+    }
+
+    @Operation(summary = "단계별 지연시간 분포", description = "파이프라인 단계/LLM 모델/검색 프로바이더별 p50/p90/p95/p99/max 지연시간을 1m, 15m, 1h 롤링 윈도우로 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/latency")
+    @ResponseStatus(HttpStatus.OK)
+    public LatencyMetricsResponse getLatency(@RequestParam(required = false) String category) {
+        return new LatencyMetricsResponse(
+                Instant.now().toString(),
+                List.copyOf(LatencyHistogramRegistry.WINDOWS.keySet()),
+                latencyHistograms.snapshot(category)
         );
     }
 
+    @Operation(summary = "LLM 호출 속도 제한 상태", description = "모델별 RPM/TPM 버킷 잔량, 429 횟수, lane별 입장/거절 건수와 평균 대기시간을 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/llm-rate-limits")
+    @ResponseStatus(HttpStatus.OK)
+    public List<OpenAiRateGovernor.ModelStats> getLlmRateLimits() {
+        return rateGovernor.getStats();
+    }
+
+    @Operation(summary = "외부 HTTP 전송 상태", description = "OpenAI/Qdrant 대상·호스트별 요청 수, in-flight, 오류, TLS 핸드셰이크, 커넥션 재사용, 평균/최대 지연시간을 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/http-clients")
+    @ResponseStatus(HttpStatus.OK)
+    public List<OutboundHttpTransport.HostStats> getHttpClients() {
+        return outboundHttp.getStats();
+    }
+
+    @Operation(summary = "LLM 응답 캐시 상태", description = "질문 분해/번역/HyDE/rerank 응답 캐시의 메모리·DB 적중, 미스, 저장, 무효화 건수를 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/llm-cache")
+    @ResponseStatus(HttpStatus.OK)
+    public LlmResponseCache.CacheStats getLlmCache() {
+        return llmResponseCache.getStats();
+    }
+
+    @Operation(summary = "청크 보강 캐시 상태", description = "근거 보강용 청크 메타데이터·부모 콘텐츠·파일명 캐시의 항목 수, 적중/미스, 무효화 건수를 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @GetMapping("/chunk-cache")
+    @ResponseStatus(HttpStatus.OK)
+    public ChunkHydrationCache.CacheStats getChunkCache() {
+        return chunkHydrationCache.getStats();
+    }
+
+    @Operation(summary = "벡터 인덱스 파티션 분포", description = "segment 벡터 스토어의 sourceType×제품군 파티션별 포인트 수·비율과 IVF 리스트 크기 분포를 조회합니다")
+    @ApiResponse(responseCode = "200", description = "조회 성공")
+    @ApiResponse(responseCode = "404", description = "vector.provider가 segment가 아님")
+    @GetMapping("/vector-index")
+    @ResponseStatus(HttpStatus.OK)
+    public SegmentVectorStore.IndexStats getVectorIndex() {
+        if (segmentVectorStore == null) {
+            throw new NotFoundException("VECTOR_INDEX_NOT_AVAILABLE", "Partition statistics require vector.provider=segment");
+        }
+        return segmentVectorStore.getIndexStats();
+    }
+
     @Operation(summary = "CSV 내보내기", description = "지정 기간의 타임라인 데이터를 CSV 파일로 내보냅니다")
     @ApiResponse(responseCode = "200", description = "CSV 다운로드")
     @GetMapping("/export/csv")
@@ -296,6 +325,11 @@ public class OpsMetricsController {
 
     // ===== Helper Methods =====
 
+    /** 롤업은 스케줄러가 갱신하므로 조회는 기다리지 않고 마지막 갱신 시각만 함께 내려준다. */
+    private String rollupRefreshedAt() {
+        return opsRollupService.getLastRefreshedAt().map(Instant::toString).orElse(null);
+    }
+
     private DateRange resolveDateRange(String period, String fromParam, String toParam) {
         Instant now = Instant.now();
         Instant from;
@@ -321,7 +355,18 @@ public class OpsMetricsController {
         return new DateRange(from, to);
     }
 
-    private record DateRange(Instant from, Instant to) {}
+    /**
+     * 조회 구간. 롤업 조회는 UTC 일 단위로 확장된 {@link #fromDay()} ~ {@link #toDay()}를 사용한다.
+     */
+    private record DateRange(Instant from, Instant to) {
+        LocalDate fromDay() {
+            return from.atZone(ZoneOffset.UTC).toLocalDate();
+        }
+
+        LocalDate toDay() {
+            return to.atZone(ZoneOffset.UTC).toLocalDate();
+        }
+    }
 
     private double round2(double value) {
         return Double.parseDouble(String.format(Locale.US, "%.2f", value));
@@ -12,7 +12,8 @@ public record OpsMetricsResponse(
         long fallbackDraftCount,
         long totalDraftCount,
         double fallbackDraftRate,
-        List<FailureReasonCount> topFailureReasons
+        List<FailureReasonCount> topFailureReasons,
+        String rollupRefreshedAt  // 실패 사유 롤업 마지막 갱신 시각 (ISO-8601, 아직 없으면 null)
 ) {
     public record FailureReasonCount(String reason, long count) {}
 }
@@ -11,5 +11,6 @@ public record ProcessingTimeResponse(
         double minProcessingTimeHours,
         double maxProcessingTimeHours,
         long totalCompleted,
-        Map<String, Double> avgByStep
+        Map<String, Double> avgByStep,
+        String rollupRefreshedAt  // 단계별 평균의 롤업 마지막 갱신 시각 (ISO-8601, 아직 없으면 null)
 ) {}
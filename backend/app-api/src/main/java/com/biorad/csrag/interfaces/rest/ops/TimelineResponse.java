@@ -6,7 +6,8 @@ public record TimelineResponse(
         String period,
         String from,
         String to,
-        List<DailyMetric> data
+        List<DailyMetric> data,
+        String rollupRefreshedAt  // 롤업 마지막 갱신 시각 (ISO-8601, 아직 없으면 null)
 ) {
     public record DailyMetric(
             String date,
@@ -0,0 +1,185 @@
+package com.biorad.csrag.interfaces.rest.search;
+
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
+import com.biorad.csrag.interfaces.rest.chunk.ChunkingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * CHILD 적중 대신 LLM에 넘기는 PARENT 콘텐츠를 질의와 관련된 문장만 남기도록 추출 압축한다 (LLM·임베딩 호출 없음).
+ *
+ * <p>문장은 청킹과 같은 규칙({@link ChunkingService#sentenceSpans})으로 나누고 두 어휘 신호의 가중합으로 점수를 매긴다.
+ * <ul>
+ *   <li>질의 어휘 겹침: 질의 토큰 중 문장에 나온 비율</li>
+ *   <li>CHILD 적중 겹침: 문장 토큰 중 검색에 걸린 CHILD 콘텐츠에 나온 비율</li>
+ * </ul>
+ * 문장 단위 임베딩 유사도는 쓰지 않는다 — 요청마다 부모 문장을 임베딩하면 분석 경로에 API 왕복이 붙고
+ * 쿼리 임베딩 캐시를 밀어낸다. 의미 유사도는 CHILD 적중 자체가 이미 벡터 검색으로 골라진 결과라는 점으로 반영된다.
+ *
+ * <p>CHILD와 가장 많이 겹치는 문장은 항상 남긴다 — 근거의 청크·페이지 정보가 CHILD 기준이므로 인용이 가리키는 문장이
+ * excerpt에 남는다. 남긴 문장은 원문 순서로 잇고 떨어진 문장 사이는 " … "로 표시하며,
+ * 각 문장의 문서 원문 구간을 {@link EvidenceItem#excerptSpans()}로 돌려준다.
+ */
+@Component
+public class EvidenceCompressor {
+
+    private static final Logger log = LoggerFactory.getLogger(EvidenceCompressor.class);
+
+    static final String GAP_MARKER = " … ";
+    /** 압축 결과가 원문의 이 비율 이상이면 줄어드는 것이 거의 없으므로 원문을 그대로 쓴다. */
+    private static final double MIN_SAVING_RATIO = 0.8;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TOKEN_SPLITTER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern KOREAN_JOSA_SUFFIX = Pattern.compile(
+            "(?<=[가-힣])(에서|에게|으로|까지|부터|을|를|이|가|은|는|로|의|와|과|도|만)$");
+    private static final Set<String> STOPWORDS = Set.of(
+            "the", "and", "for", "with", "are", "was", "were", "is", "of", "to", "in", "on", "an", "be",
+            "by", "or", "this", "that", "it", "as", "at", "from", "can", "not", "no", "if", "do", "does");
+
+    private final RagPipelineProperties.Compression properties;
+
+    public EvidenceCompressor(RagPipelineProperties properties) {
+        this.properties = properties.getCompression();
+    }
+
+    /**
+     * @param evidence      PARENT 콘텐츠로 excerpt를 만든 근거
+     * @param sourceContent excerpt의 원문 청크(PARENT) 본문
+     * @param sourceOffset  {@code sourceContent}가 문서 원문에서 시작하는 위치 (nullable — 모르면 구간을 돌려주지 않는다)
+     * @param query         검색 질의 (nullable)
+     * @param childContent  검색에 걸린 CHILD 청크 콘텐츠 (nullable)
+     * @return 압축한 근거. 압축이 꺼져 있거나 원문이 짧거나 줄어드는 것이 거의 없으면 {@code evidence} 그대로
+     */
+    public EvidenceItem compress(EvidenceItem evidence, String sourceContent, Integer sourceOffset, String query,
+                                 String childContent) {
+        if (!properties.isEnabled() || sourceContent == null
+                || sourceContent.length() < properties.getMinChars()) {
+            return evidence;
+        }
+        List<int[]> spans = ChunkingService.sentenceSpans(sourceContent);
+        if (spans.size() <= 1) {
+            return evidence;
+        }
+
+        List<Scored> scored = score(sourceContent, spans, query, childContent);
+        List<Scored> kept = select(scored);
+        int keptChars = kept.stream().mapToInt(s -> s.end() - s.start()).sum();
+        if (keptChars >= sourceContent.length() * MIN_SAVING_RATIO) {
+            return evidence;
+        }
+
+        kept.sort(Comparator.comparingInt(Scored::start));
+        StringBuilder excerpt = new StringBuilder();
+        List<EvidenceItem.Span> excerptSpans = sourceOffset != null ? new ArrayList<>(kept.size()) : null;
+        int previousEnd = -1;
+        for (Scored s : kept) {
+            if (previousEnd >= 0) {
+                excerpt.append(sourceContent.substring(previousEnd, s.start()).isBlank() ? " " : GAP_MARKER);
+            }
+            excerpt.append(sourceContent, s.start(), s.end());
+            if (excerptSpans != null) {
+                excerptSpans.add(new EvidenceItem.Span(sourceOffset + s.start(), sourceOffset + s.end()));
+            }
+            previousEnd = s.end();
+        }
+        String compressed = WHITESPACE.matcher(excerpt).replaceAll(" ").trim();
+        log.debug("evidence.compress chunkId={} chars {} -> {} sentences {} -> {}",
+                evidence.chunkId(), sourceContent.length(), compressed.length(), spans.size(), kept.size());
+
+        // 인덱싱 시 토큰 수는 버려지고 compose에서 다시 센다
+        return evidence.withExcerpt(compressed, excerptSpans);
+    }
+
+    private List<Scored> score(String content, List<int[]> spans, String query, String childContent) {
+        Set<String> queryTokens = tokens(query);
+        Set<String> childTokens = tokens(childContent);
+
+        List<Scored> scored = new ArrayList<>(spans.size());
+        for (int[] span : spans) {
+            String sentence = content.substring(span[0], span[1]);
+            Set<String> sentenceTokens = tokens(sentence);
+
+            double queryOverlap = overlap(queryTokens, sentenceTokens, queryTokens.size());
+            double childOverlap = overlap(sentenceTokens, childTokens, sentenceTokens.size());
+
+            double score = properties.getQueryWeight() * queryOverlap
+                    + properties.getChildWeight() * childOverlap;
+            scored.add(new Scored(span[0], span[1], score, childOverlap));
+        }
+        return scored;
+    }
+
+    /** CHILD와 가장 많이 겹치는 문장을 먼저 고정하고, 나머지는 점수순으로 문장 수·글자 수 한도 안에서 채운다. */
+    private List<Scored> select(List<Scored> scored) {
+        Scored anchor = scored.get(0);
+        for (Scored s : scored) {
+            if (s.childOverlap() > anchor.childOverlap()
+                    || (s.childOverlap() == anchor.childOverlap() && s.score() > anchor.score())) {
+                anchor = s;
+            }
+        }
+
+        List<Scored> kept = new ArrayList<>();
+        kept.add(anchor);
+        int chars = anchor.end() - anchor.start();
+
+        List<Scored> ranked = new ArrayList<>(scored);
+        ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+        for (Scored s : ranked) {
+            if (kept.size() >= properties.getMaxSentences()) {
+                break;
+            }
+            if (s == anchor || s.score() <= 0.0) {
+                continue;
+            }
+            int length = s.end() - s.start();
+            if (chars + length > properties.getMaxChars()) {
+                continue;
+            }
+            kept.add(s);
+            chars += length;
+        }
+        return kept;
+    }
+
+    private static double overlap(Set<String> of, Set<String> in, int denominator) {
+        if (denominator == 0) {
+            return 0.0;
+        }
+        int hits = 0;
+        for (String token : of) {
+            if (in.contains(token)) {
+                hits++;
+            }
+        }
+        return (double) hits / denominator;
+    }
+
+    static Set<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+        Set<String> tokens = new HashSet<>();
+        for (String raw : TOKEN_SPLITTER.split(text.toLowerCase(Locale.ROOT))) {
+            String stem = KOREAN_JOSA_SUFFIX.matcher(raw).replaceFirst("");
+            String token = stem.length() >= 2 ? stem : raw;
+            if (token.length() >= 2 && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Scored(int start, int end, double score, double childOverlap) {}
+}
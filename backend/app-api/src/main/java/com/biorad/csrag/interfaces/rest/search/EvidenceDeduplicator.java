@@ -1,5 +1,6 @@
 package com.biorad.csrag.interfaces.rest.search;
 
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
 import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,13 +18,15 @@ public class EvidenceDeduplicator {
 
     private static final Logger log = LoggerFactory.getLogger(EvidenceDeduplicator.class);
     private static final double JACCARD_THRESHOLD = 0.7;
+    /** 이 개수를 넘으면 모든 쌍 비교 대신 LSH 버킷으로 후보를 좁힌다. */
+    static final int LSH_MIN_ITEMS = 32;
     private static final Pattern TOKEN_SPLITTER = Pattern.compile("[\\s\\p{Punct}]+");
 
     /**
      * Remove duplicate and near-duplicate evidence items.
      * Strategy:
      * 1. Remove exact chunkId duplicates (keep highest score)
-     * 2. Remove content near-duplicates (Jaccard similarity > 0.7, keep highest score)
+     * 2. Remove content near-duplicates (MinHash-estimated Jaccard similarity > 0.7, keep highest score)
      * 3. Remove same-document, same-page-range duplicates (keep highest score)
      */
     public List<EvidenceItem> deduplicate(List<EvidenceItem> items) {
@@ -59,7 +62,12 @@ public class EvidenceDeduplicator {
     }
 
     /**
-     * Remove near-duplicates by Jaccard similarity on word tokens.
+     * Remove near-duplicates by estimated Jaccard similarity on word tokens.
+     * Each item is reduced to a {@link MinHashSignature} once — the one stored with the chunk at
+     * indexing time, or computed from the excerpt for chunks indexed before signatures existed —
+     * so a pair comparison is 64 int compares instead of re-tokenizing both excerpts.
+     * Above {@value #LSH_MIN_ITEMS} items, kept items are indexed into LSH band buckets and a
+     * candidate is only compared with kept items that share a bucket.
      * For each pair where similarity > threshold, keep the one with higher score.
      */
     List<EvidenceItem> removeNearDuplicates(List<EvidenceItem> items) {
@@ -69,22 +77,58 @@ public class EvidenceDeduplicator {
         List<EvidenceItem> sorted = new ArrayList<>(items);
         sorted.sort(Comparator.comparingDouble(EvidenceItem::score).reversed());
 
+        boolean useLsh = sorted.size() > LSH_MIN_ITEMS;
+        Map<Long, List<MinHashSignature>> buckets = useLsh ? new HashMap<>() : Map.of();
+        List<MinHashSignature> keptSignatures = new ArrayList<>();
         List<EvidenceItem> result = new ArrayList<>();
         for (EvidenceItem candidate : sorted) {
-            boolean isDuplicate = false;
-            for (EvidenceItem kept : result) {
-                if (jaccardSimilarity(candidate.excerpt(), kept.excerpt()) > JACCARD_THRESHOLD) {
-                    isDuplicate = true;
-                    break;
-                }
-            }
+            MinHashSignature signature = signatureOf(candidate);
+            boolean isDuplicate = useLsh
+                    ? hasSimilarInBuckets(signature, buckets)
+                    : hasSimilar(signature, keptSignatures);
             if (!isDuplicate) {
                 result.add(candidate);
+                keptSignatures.add(signature);
+                if (useLsh) {
+                    for (int band = 0; band < MinHashSignature.BANDS; band++) {
+                        buckets.computeIfAbsent(signature.bandHash(band), k -> new ArrayList<>(1)).add(signature);
+                    }
+                }
             }
         }
         return result;
     }
 
+    private boolean hasSimilar(MinHashSignature signature, List<MinHashSignature> kept) {
+        for (MinHashSignature other : kept) {
+            if (signature.similarity(other) > JACCARD_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasSimilarInBuckets(MinHashSignature signature, Map<Long, List<MinHashSignature>> buckets) {
+        if (signature.isEmpty()) {
+            // 빈 excerpt는 밴드 해시가 모두 같아 버킷 대신 직접 비교한다
+            for (List<MinHashSignature> bucket : buckets.values()) {
+                if (hasSimilar(signature, bucket)) return true;
+            }
+            return false;
+        }
+        for (int band = 0; band < MinHashSignature.BANDS; band++) {
+            List<MinHashSignature> bucket = buckets.get(signature.bandHash(band));
+            if (bucket != null && hasSimilar(signature, bucket)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MinHashSignature signatureOf(EvidenceItem item) {
+        return item.signature() != null ? item.signature() : MinHashSignature.of(item.excerpt());
+    }
+
     /**
      * Remove same-document, overlapping-page-range duplicates.
      * When two evidence items come from the same document and share overlapping page ranges,
@@ -121,6 +165,10 @@ public class EvidenceDeduplicator {
         return result;
     }
 
+    /**
+     * Exact Jaccard similarity on word tokens — the quantity {@link MinHashSignature#similarity} estimates.
+     * Kept as the reference implementation for tests and benchmarks.
+     */
     double jaccardSimilarity(String a, String b) {
         if (a == null || b == null) return 0.0;
         Set<String> setA = tokenize(a);
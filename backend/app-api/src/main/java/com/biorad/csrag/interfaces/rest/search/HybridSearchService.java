@@ -3,7 +3,10 @@ package com.biorad.csrag.interfaces.rest.search;
 import com.biorad.csrag.application.ops.RagMetricsService;
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
 import com.biorad.csrag.interfaces.rest.vector.EmbeddingService;
+import com.biorad.csrag.interfaces.rest.vector.SharedVectorPointIndex;
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchQuery;
 import com.biorad.csrag.interfaces.rest.vector.VectorSearchResult;
 import com.biorad.csrag.interfaces.rest.vector.VectorStore;
 import com.biorad.csrag.interfaces.rest.vector.VectorStoreCircuitBreaker;
@@ -11,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,6 +31,10 @@ public class HybridSearchService {
     private final HydeQueryTransformer hydeQueryTransformer;
     private final RagMetricsService ragMetricsService;
     private final VectorStoreCircuitBreaker circuitBreaker;
+    private final LatencyHistogramRegistry latencyHistograms;
+    private final SharedVectorPointIndex sharedVectorPoints;
+    private final String vectorProvider;
+    private final String keywordProvider;
 
     @Value("${search.hybrid.enabled:true}")
     private boolean hybridEnabled;
@@ -49,7 +57,9 @@ public class HybridSearchService {
                                DocumentMetadataJpaRepository documentRepository,
                                HydeQueryTransformer hydeQueryTransformer,
                                RagMetricsService ragMetricsService,
-                               VectorStoreCircuitBreaker circuitBreaker) {
+                               VectorStoreCircuitBreaker circuitBreaker,
+                               LatencyHistogramRegistry latencyHistograms,
+                               SharedVectorPointIndex sharedVectorPoints) {
         this.embeddingService = embeddingService;
         this.vectorStore = vectorStore;
         this.keywordSearchService = keywordSearchService;
@@ -57,6 +67,10 @@ public class HybridSearchService {
         this.hydeQueryTransformer = hydeQueryTransformer;
         this.ragMetricsService = ragMetricsService;
         this.circuitBreaker = circuitBreaker;
+        this.latencyHistograms = latencyHistograms;
+        this.sharedVectorPoints = sharedVectorPoints;
+        this.vectorProvider = ClassUtils.getUserClass(vectorStore).getSimpleName();
+        this.keywordProvider = ClassUtils.getUserClass(keywordSearchService).getSimpleName();
     }
 
     public List<HybridSearchResult> search(String query, int topK) {
@@ -69,17 +83,71 @@ public class HybridSearchService {
         List<Double> queryVector = hydeQueryTransformer.isEnabled()
                 ? hydeQueryTransformer.transformAndEmbed(query, "")
                 : embeddingService.embedQuery(query);
+        long vectorStarted = System.nanoTime();
         List<VectorSearchResult> vectorResults = (vectorFilter != null && !vectorFilter.isEmpty())
                 ? vectorStore.search(queryVector, topK * 2, vectorFilter)
                 : vectorStore.search(queryVector, topK * 2);
+        latencyHistograms.recordNanos("VECTOR_SEARCH", "RETRIEVE", null, vectorProvider,
+                System.nanoTime() - vectorStarted);
+        vectorResults = sharedVectorPoints.resolveMembers(vectorResults, vectorFilter);
+        return combine(query, topK, filter, vectorResults);
+    }
+
+    /**
+     * 한 검색 라운드의 쿼리 N개를 한 번에 검색한다. 결과는 {@code queries}와 같은 순서다.
+     * HyDE가 꺼져 있으면 임베딩을 {@link EmbeddingService#embedQueryBatch} 1회(쿼리 캐시 적중분 제외)로,
+     * 벡터 검색을 {@link VectorStore#searchBatch} 1회로 묶는다.
+     * 키워드 검색·융합은 쿼리별로 {@link #search(String, int, SearchFilter)}와 동일하다.
+     *
+     * @param filters 쿼리별 필터 ({@code queries}와 같은 길이, 원소 nullable)
+     */
+    public List<List<HybridSearchResult>> searchBatch(List<String> queries, int topK, List<SearchFilter> filters) {
+        if (queries.isEmpty()) {
+            return List.of();
+        }
+        if (queries.size() != filters.size()) {
+            throw new IllegalArgumentException("queries and filters must have the same size");
+        }
+
+        // 같은 필터는 inquiryId → documentIds 해소를 한 번만 수행
+        Map<SearchFilter, SearchFilter> resolved = new HashMap<>();
+        List<VectorSearchQuery> vectorQueries = new ArrayList<>(queries.size());
+        List<List<Double>> queryVectors = hydeQueryTransformer.isEnabled()
+                ? queries.stream().map(q -> hydeQueryTransformer.transformAndEmbed(q, "")).toList()
+                : embeddingService.embedQueryBatch(queries);
+        for (int i = 0; i < queries.size(); i++) {
+            SearchFilter filter = filters.get(i);
+            SearchFilter vectorFilter = filter == null ? null : resolved.computeIfAbsent(filter, this::resolveForVectorSearch);
+            vectorQueries.add(new VectorSearchQuery(queryVectors.get(i), topK * 2, vectorFilter));
+        }
+
+        long vectorStarted = System.nanoTime();
+        List<List<VectorSearchResult>> vectorResults = vectorStore.searchBatch(vectorQueries);
+        latencyHistograms.recordNanos("VECTOR_SEARCH", "RETRIEVE", null, vectorProvider,
+                System.nanoTime() - vectorStarted);
+        log.info("hybrid.searchBatch queries={} provider={}", queries.size(), vectorProvider);
+
+        List<List<HybridSearchResult>> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            List<VectorSearchResult> hits = sharedVectorPoints.resolveMembers(
+                    vectorResults.get(i), vectorQueries.get(i).filter());
+            results.add(combine(queries.get(i), topK, filters.get(i), hits));
+        }
+        return results;
+    }
 
+    public List<List<HybridSearchResult>> searchBatch(List<String> queries, int topK, SearchFilter filter) {
+        return searchBatch(queries, topK, Collections.nCopies(queries.size(), filter));
+    }
+
+    /** 벡터 결과에 키워드 검색을 융합한다 (벡터 저장소 장애 시 키워드 전용). */
+    private List<HybridSearchResult> combine(String query, int topK, SearchFilter filter,
+                                             List<VectorSearchResult> vectorResults) {
         // Vector search가 빈 결과 + circuit breaker가 degraded 상태이면 keyword-only 모드
         if (vectorResults.isEmpty() && circuitBreaker.isDegraded()) {
             log.warn("Vector search degraded — using keyword-only results (circuit breaker state={})",
                     circuitBreaker.getState());
-            List<KeywordSearchResult> keywordOnly = (filter != null && !filter.isEmpty())
-                    ? keywordSearchService.search(query, topK * 2, filter)
-                    : keywordSearchService.search(query, topK * 2);
+            List<KeywordSearchResult> keywordOnly = timedKeywordSearch(query, topK * 2, filter);
 
             List<HybridSearchResult> degradedResults = keywordOnly.stream()
                     .limit(topK)
@@ -113,10 +181,37 @@ public class HybridSearchService {
                     .toList();
         }
 
-        List<KeywordSearchResult> keywordResults = (filter != null && !filter.isEmpty())
-                ? keywordSearchService.search(query, topK * 2, filter)
-                : keywordSearchService.search(query, topK * 2);
+        List<KeywordSearchResult> keywordResults = timedKeywordSearch(query, topK * 2, filter);
+
+        List<HybridSearchResult> fused = fuse(vectorResults, keywordResults, topK, rrfK, vectorWeight, keywordWeight);
+
+        List<HybridSearchResult> filtered = fused.stream()
+                .filter(r -> r.vectorScore() == 0.0 || r.vectorScore() >= minVectorScore)
+                .collect(Collectors.toList());
+
+        if (filtered.isEmpty() && !fused.isEmpty()) {
+            log.info("hybrid.search all results below min-vector-score={}, returning unfiltered", minVectorScore);
+            filtered = fused;
+        }
+
+        log.info("hybrid.search query={} vector={} keyword={} fused={} filtered={} filter={}",
+                query, vectorResults.size(), keywordResults.size(), fused.size(), filtered.size(), filter);
 
+        if (!filtered.isEmpty()) {
+            double avgScore = filtered.stream().mapToDouble(HybridSearchResult::fusedScore).average().orElse(0.0);
+            ragMetricsService.record(null, "SEARCH_SCORE", avgScore);
+        }
+
+        return filtered;
+    }
+
+    /**
+     * 벡터·키워드 순위를 RRF로 융합하고 상위 topK를 0.0~1.0으로 정규화한다.
+     * 순수 함수라 마이크로벤치마크({@code backend/benchmarks})에서 직접 호출한다.
+     */
+    static List<HybridSearchResult> fuse(List<VectorSearchResult> vectorResults,
+                                         List<KeywordSearchResult> keywordResults,
+                                         int topK, int rrfK, double vectorWeight, double keywordWeight) {
         Map<UUID, RrfEntry> rrfMap = new LinkedHashMap<>();
 
         for (int rank = 0; rank < vectorResults.size(); rank++) {
@@ -147,26 +242,17 @@ public class HybridSearchService {
                 .collect(Collectors.toList());
 
         // Normalize RRF scores to 0.0-1.0 range (min-max normalization)
-        fused = normalizeScores(fused);
-
-        List<HybridSearchResult> filtered = fused.stream()
-                .filter(r -> r.vectorScore() == 0.0 || r.vectorScore() >= minVectorScore)
-                .collect(Collectors.toList());
-
-        if (filtered.isEmpty() && !fused.isEmpty()) {
-            log.info("hybrid.search all results below min-vector-score={}, returning unfiltered", minVectorScore);
-            filtered = fused;
-        }
-
-        log.info("hybrid.search query={} vector={} keyword={} fused={} filtered={} filter={}",
-                query, vectorResults.size(), keywordResults.size(), fused.size(), filtered.size(), filter);
-
-        if (!filtered.isEmpty()) {
-            double avgScore = filtered.stream().mapToDouble(HybridSearchResult::fusedScore).average().orElse(0.0);
-            ragMetricsService.record(null, "SEARCH_SCORE", avgScore);
-        }
+        return normalizeScores(fused);
+    }
 
-        return filtered;
+    private List<KeywordSearchResult> timedKeywordSearch(String query, int limit, SearchFilter filter) {
+        long started = System.nanoTime();
+        List<KeywordSearchResult> results = (filter != null && !filter.isEmpty())
+                ? keywordSearchService.search(query, limit, filter)
+                : keywordSearchService.search(query, limit);
+        latencyHistograms.recordNanos("KEYWORD_SEARCH", "RETRIEVE", null, keywordProvider,
+                System.nanoTime() - started);
+        return results;
     }
 
     /**
@@ -197,7 +283,7 @@ public class HybridSearchService {
      * RRF 점수를 0.0~1.0 범위로 정규화 (min-max normalization).
      * 점수 분포가 좁은 RRF 출력을 직관적인 범위로 변환.
      */
-    private List<HybridSearchResult> normalizeScores(List<HybridSearchResult> results) {
+    static List<HybridSearchResult> normalizeScores(List<HybridSearchResult> results) {
         if (results.size() <= 1) {
             // Single result gets score 1.0
             if (results.size() == 1) {
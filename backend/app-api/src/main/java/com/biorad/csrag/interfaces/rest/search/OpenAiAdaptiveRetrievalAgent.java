@@ -2,6 +2,8 @@ package com.biorad.csrag.interfaces.rest.search;
 
 import com.biorad.csrag.application.ops.RagMetricsService;
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,8 +13,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -45,14 +45,11 @@ public class OpenAiAdaptiveRetrievalAgent implements AdaptiveRetrievalAgent {
             @Value("${openai.model.chat-medium:gpt-4.1-mini}") String chatModel,
             ObjectMapper objectMapper,
             RagMetricsService ragMetricsService,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory
     ) {
         this(hybridSearchService, rerankingService,
-                RestClient.builder()
-                        .baseUrl(baseUrl)
-                        .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .build(),
+                restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE),
                 objectMapper, chatModel, ragMetricsService, promptRegistry);
     }
 
@@ -114,8 +111,13 @@ public class OpenAiAdaptiveRetrievalAgent implements AdaptiveRetrievalAgent {
 
             List<RerankingService.RerankResult> allResults = new ArrayList<>(bestResults);
 
-            for (ReformulatedQuery variant : variants) {
-                List<HybridSearchResult> variantCandidates = hybridSearchService.search(variant.query(), 50, filter);
+            // 변형 쿼리 전체를 임베딩 1회 + 벡터 배치 검색 1회로 처리
+            List<List<HybridSearchResult>> variantCandidateLists = hybridSearchService.searchBatch(
+                    variants.stream().map(ReformulatedQuery::query).toList(), 50, filter);
+
+            for (int i = 0; i < variants.size(); i++) {
+                ReformulatedQuery variant = variants.get(i);
+                List<HybridSearchResult> variantCandidates = variantCandidateLists.get(i);
                 List<RerankingService.RerankResult> variantResults = rerankingService.rerank(variant.query(), variantCandidates, 10);
 
                 double topScore = variantResults.isEmpty() ? 0.0
@@ -2,7 +2,11 @@ package com.biorad.csrag.interfaces.rest.search;
 
 import com.biorad.csrag.application.ops.RagMetricsService;
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.cache.LlmCacheStep;
+import com.biorad.csrag.infrastructure.rag.cache.LlmResponseCache;
 import com.biorad.csrag.interfaces.rest.vector.EmbeddingService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,8 +16,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -35,6 +37,7 @@ public class OpenAiHydeQueryTransformer implements HydeQueryTransformer {
     private final String chatModel;
     private final RagMetricsService ragMetricsService;
     private final PromptRegistry promptRegistry;
+    private final LlmResponseCache llmResponseCache;
 
     @Autowired
     public OpenAiHydeQueryTransformer(
@@ -44,17 +47,16 @@ public class OpenAiHydeQueryTransformer implements HydeQueryTransformer {
             ObjectMapper objectMapper,
             EmbeddingService embeddingService,
             RagMetricsService ragMetricsService,
-            PromptRegistry promptRegistry) {
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory,
+            LlmResponseCache llmResponseCache) {
+        this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE);
         this.objectMapper = objectMapper;
         this.embeddingService = embeddingService;
         this.chatModel = chatModel;
         this.ragMetricsService = ragMetricsService;
         this.promptRegistry = promptRegistry;
+        this.llmResponseCache = llmResponseCache;
     }
 
     // visible-for-testing
@@ -67,6 +69,7 @@ public class OpenAiHydeQueryTransformer implements HydeQueryTransformer {
         this.chatModel = chatModel;
         this.ragMetricsService = null;
         this.promptRegistry = promptRegistry;
+        this.llmResponseCache = LlmResponseCache.disabled();
     }
 
     @Override
@@ -83,35 +86,42 @@ public class OpenAiHydeQueryTransformer implements HydeQueryTransformer {
         }
     }
 
-    private String generateHypotheticalAnswer(String question, String productContext) {
+    private String generateHypotheticalAnswer(String question, String productContext) throws Exception {
         String userMessage = productContext != null && !productContext.isBlank()
                 ? "[제품: " + productContext + "] " + question
                 : question;
 
-        String response = restClient.post()
-                .uri("/chat/completions")
-                .body(OpenAiRequestUtils.chatBody(
-                        chatModel,
-                        List.of(
-                                Map.of("role", "system", "content", promptRegistry.get("hyde-system")),
-                                Map.of("role", "user", "content", userMessage)
-                        ),
-                        16384
-                ))
-                .retrieve()
-                .body(String.class);
+        Map<String, Object> body = OpenAiRequestUtils.chatBody(
+                chatModel,
+                List.of(
+                        Map.of("role", "system", "content", promptRegistry.get("hyde-system")),
+                        Map.of("role", "user", "content", userMessage)
+                ),
+                16384
+        );
 
-        JsonNode root;
-        try {
-            root = objectMapper.readTree(response == null ? "{}" : response);
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to parse HyDE LLM response", e);
-        }
-        String content = root.path("choices").path(0).path("message").path("content").asText("");
+        return llmResponseCache.getOrLoad(
+                llmResponseCache.key(LlmCacheStep.HYDE, chatModel, "hyde-system", body),
+                () -> {
+                    String response = restClient.post()
+                            .uri("/chat/completions")
+                            .body(body)
+                            .retrieve()
+                            .body(String.class);
 
-        if (content.isBlank()) {
-            throw new IllegalStateException("Empty HyDE response from LLM");
-        }
-        return content.trim();
+                    JsonNode root;
+                    try {
+                        root = objectMapper.readTree(response == null ? "{}" : response);
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Failed to parse HyDE LLM response", e);
+                    }
+                    return root.path("choices").path(0).path("message").path("content").asText("");
+                },
+                content -> {
+                    if (content.isBlank()) {
+                        throw new IllegalStateException("Empty HyDE response from LLM");
+                    }
+                    return content.trim();
+                });
     }
 }
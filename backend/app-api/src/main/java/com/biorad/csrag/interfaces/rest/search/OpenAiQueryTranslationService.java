@@ -1,7 +1,11 @@
 package com.biorad.csrag.interfaces.rest.search;
 
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.cache.LlmCacheStep;
+import com.biorad.csrag.infrastructure.rag.cache.LlmResponseCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -9,8 +13,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -32,22 +34,22 @@ public class OpenAiQueryTranslationService implements QueryTranslationService {
     private final ObjectMapper objectMapper;
     private final String chatModel;
     private final PromptRegistry promptRegistry;
+    private final LlmResponseCache llmResponseCache;
 
     public OpenAiQueryTranslationService(
             @Value("${openai.api-key}") String apiKey,
             @Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl,
             @Value("${openai.model.chat-light:gpt-5-nano}") String chatModel,
             ObjectMapper objectMapper,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory,
+            LlmResponseCache llmResponseCache
     ) {
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE);
         this.objectMapper = objectMapper;
         this.chatModel = chatModel;
         this.promptRegistry = promptRegistry;
+        this.llmResponseCache = llmResponseCache;
     }
 
     @Override
@@ -62,21 +64,26 @@ public class OpenAiQueryTranslationService implements QueryTranslationService {
         }
 
         try {
-            String response = restClient.post()
-                    .uri("/chat/completions")
-                    .body(OpenAiRequestUtils.chatBody(
-                            chatModel,
-                            List.of(
-                                    Map.of("role", "system", "content", promptRegistry != null ? promptRegistry.get("query-translation") : SYSTEM_PROMPT),
-                                    Map.of("role", "user", "content", question)
-                            ),
-                            4096
-                    ))
-                    .retrieve()
-                    .body(String.class);
-
-            JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
-            String translated = root.path("choices").path(0).path("message").path("content").asText("");
+            Map<String, Object> body = OpenAiRequestUtils.chatBody(
+                    chatModel,
+                    List.of(
+                            Map.of("role", "system", "content", promptRegistry != null ? promptRegistry.get("query-translation") : SYSTEM_PROMPT),
+                            Map.of("role", "user", "content", question)
+                    ),
+                    4096
+            );
+            String translated = llmResponseCache.getOrLoad(
+                    llmResponseCache.key(LlmCacheStep.TRANSLATE, chatModel, "query-translation", body),
+                    () -> {
+                        String response = restClient.post()
+                                .uri("/chat/completions")
+                                .body(body)
+                                .retrieve()
+                                .body(String.class);
+                        JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
+                        return root.path("choices").path(0).path("message").path("content").asText("");
+                    },
+                    content -> content);
 
             if (translated.isBlank()) {
                 log.warn("openai.query.translation: empty response, returning original");
@@ -2,7 +2,11 @@ package com.biorad.csrag.interfaces.rest.search;
 
 import com.biorad.csrag.application.ops.RagMetricsService;
 import com.biorad.csrag.infrastructure.openai.OpenAiRequestUtils;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.cache.LlmCacheStep;
+import com.biorad.csrag.infrastructure.rag.cache.LlmResponseCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -11,8 +15,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -71,6 +73,7 @@ public class OpenAiRerankingService implements RerankingService {
     private final MockRerankingService fallback;
     private final RagMetricsService ragMetricsService;
     private final PromptRegistry promptRegistry;
+    private final LlmResponseCache llmResponseCache;
 
     @Autowired
     public OpenAiRerankingService(
@@ -80,15 +83,13 @@ public class OpenAiRerankingService implements RerankingService {
             ObjectMapper objectMapper,
             MockRerankingService fallback,
             RagMetricsService ragMetricsService,
-            PromptRegistry promptRegistry
+            PromptRegistry promptRegistry,
+            OpenAiRestClientFactory restClientFactory,
+            LlmResponseCache llmResponseCache
     ) {
         this(
-                RestClient.builder()
-                        .baseUrl(baseUrl)
-                        .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .build(),
-                chatModel, objectMapper, fallback, ragMetricsService, promptRegistry
+                restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.INTERACTIVE),
+                chatModel, objectMapper, fallback, ragMetricsService, promptRegistry, llmResponseCache
         );
     }
 
@@ -100,12 +101,19 @@ public class OpenAiRerankingService implements RerankingService {
     OpenAiRerankingService(RestClient restClient, String chatModel, ObjectMapper objectMapper,
                            MockRerankingService fallback, RagMetricsService ragMetricsService,
                            PromptRegistry promptRegistry) {
+        this(restClient, chatModel, objectMapper, fallback, ragMetricsService, promptRegistry, LlmResponseCache.disabled());
+    }
+
+    OpenAiRerankingService(RestClient restClient, String chatModel, ObjectMapper objectMapper,
+                           MockRerankingService fallback, RagMetricsService ragMetricsService,
+                           PromptRegistry promptRegistry, LlmResponseCache llmResponseCache) {
         this.restClient = restClient;
         this.objectMapper = objectMapper;
         this.chatModel = chatModel;
         this.fallback = fallback;
         this.ragMetricsService = ragMetricsService;
         this.promptRegistry = promptRegistry;
+        this.llmResponseCache = llmResponseCache;
     }
 
     @Override
@@ -158,14 +166,34 @@ public class OpenAiRerankingService implements RerankingService {
                 2048, 0.0
         );
 
-        String response = restClient.post()
-                .uri("/chat/completions")
-                .body(body)
-                .retrieve()
-                .body(String.class);
+        // 후보 본문이 프롬프트에 포함되므로 같은 질의·같은 후보 목록이면 같은 키가 된다
+        Map<Integer, Double> scoreMap = llmResponseCache.getOrLoad(
+                llmResponseCache.key(LlmCacheStep.RERANK, chatModel, "reranking-listwise", body),
+                () -> {
+                    String response = restClient.post()
+                            .uri("/chat/completions")
+                            .body(body)
+                            .retrieve()
+                            .body(String.class);
+                    JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
+                    return root.path("choices").path(0).path("message").path("content").asText("");
+                },
+                content -> parseListwiseScores(content, subset.size()));
 
-        JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
-        String content = root.path("choices").path(0).path("message").path("content").asText("");
+        List<RerankResult> results = new ArrayList<>();
+        for (int i = 0; i < subset.size(); i++) {
+            HybridSearchResult c = subset.get(i);
+            double rerankScore = scoreMap.getOrDefault(i, c.fusedScore());
+            results.add(new RerankResult(
+                    c.chunkId(), c.documentId(), c.content(),
+                    c.fusedScore(), rerankScore,
+                    c.sourceType(), c.matchSource()
+            ));
+        }
+        return results;
+    }
+
+    private Map<Integer, Double> parseListwiseScores(String content, int candidateCount) throws Exception {
         String json = stripCodeFences(content.strip());
 
         // Parse as array of {index, score} — JSON Mode guarantees valid JSON
@@ -180,23 +208,12 @@ public class OpenAiRerankingService implements RerankingService {
             for (JsonNode item : rankings) {
                 int idx = item.path("index").asInt(-1);
                 double score = item.path("score").asDouble(0.0);
-                if (idx >= 0 && idx < subset.size()) {
+                if (idx >= 0 && idx < candidateCount) {
                     scoreMap.put(idx, score);
                 }
             }
         }
-
-        List<RerankResult> results = new ArrayList<>();
-        for (int i = 0; i < subset.size(); i++) {
-            HybridSearchResult c = subset.get(i);
-            double rerankScore = scoreMap.getOrDefault(i, c.fusedScore());
-            results.add(new RerankResult(
-                    c.chunkId(), c.documentId(), c.content(),
-                    c.fusedScore(), rerankScore,
-                    c.sourceType(), c.matchSource()
-            ));
-        }
-        return results;
+        return scoreMap;
     }
 
     private double scorePair(String query, String content) throws Exception {
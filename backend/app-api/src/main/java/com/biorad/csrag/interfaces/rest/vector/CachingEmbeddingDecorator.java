@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -19,7 +20,7 @@ import java.util.Map;
 /**
  * EmbeddingService 캐싱 데코레이터.
  * LRU 캐시 + TTL로 동일 쿼리의 중복 임베딩 API 호출을 방지.
- * embedQuery()만 캐싱 (검색 쿼리는 반복 가능성 높음).
+ * embedQuery()/embedQueryBatch()만 캐싱 (검색 쿼리는 반복 가능성 높음).
  * embedDocument()는 캐싱하지 않음 (인덱싱은 1회성).
  */
 @Service
@@ -68,15 +69,9 @@ public class CachingEmbeddingDecorator implements EmbeddingService {
     @Override
     public List<Double> embedQuery(String text) {
         String key = hashKey(text);
-        CacheEntry cached = cache.get(key);
-
-        if (cached != null && !cached.isExpired(ttlMs)) {
-            hits++;
-            if ((hits + misses) % 100 == 0) {
-                log.info("embedding.cache.stats hits={} misses={} hitRate={}%",
-                        hits, misses, String.format("%.1f", hits * 100.0 / (hits + misses)));
-            }
-            return cached.embedding;
+        List<Double> cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
 
         misses++;
@@ -85,11 +80,60 @@ public class CachingEmbeddingDecorator implements EmbeddingService {
         return embedding;
     }
 
+    /**
+     * 캐시 적중은 그대로 쓰고, 미적중 쿼리만 (중복 제거 후) 위임 서비스의 쿼리 배치 1회로 임베딩한다.
+     */
+    @Override
+    public List<List<Double>> embedQueryBatch(List<String> texts) {
+        List<List<Double>> results = new ArrayList<>(texts.size());
+        Map<String, List<Integer>> missPositions = new LinkedHashMap<>();
+        Map<String, String> missTexts = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String key = hashKey(texts.get(i));
+            List<Double> cached = lookup(key);
+            results.add(cached);
+            if (cached == null) {
+                missPositions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                missTexts.putIfAbsent(key, texts.get(i));
+            }
+        }
+        if (missTexts.isEmpty()) {
+            return results;
+        }
+
+        misses += missTexts.size();
+        List<String> keys = new ArrayList<>(missTexts.keySet());
+        List<List<Double>> embeddings = delegate.embedQueryBatch(new ArrayList<>(missTexts.values()));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < keys.size(); i++) {
+            List<Double> embedding = embeddings.get(i);
+            cache.put(keys.get(i), new CacheEntry(embedding, now));
+            for (int position : missPositions.get(keys.get(i))) {
+                results.set(position, embedding);
+            }
+        }
+        log.debug("embedding.cache.batch queries={} misses={}", texts.size(), keys.size());
+        return results;
+    }
+
     @Override
     public List<List<Double>> embedBatch(List<String> texts) {
         return delegate.embedBatch(texts);
     }
 
+    private List<Double> lookup(String key) {
+        CacheEntry cached = cache.get(key);
+        if (cached == null || cached.isExpired(ttlMs)) {
+            return null;
+        }
+        hits++;
+        if ((hits + misses) % 100 == 0) {
+            log.info("embedding.cache.stats hits={} misses={} hitRate={}%",
+                    hits, misses, String.format("%.1f", hits * 100.0 / (hits + misses)));
+        }
+        return cached.embedding;
+    }
+
     private static String hashKey(String text) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -16,6 +16,11 @@ public interface EmbeddingService {
         return embed(text);
     }
 
+    /** 검색 쿼리 배치 임베딩 (기본: {@link #embedQuery} 순차 호출 — 쿼리 캐시·비대칭 임베딩을 그대로 따른다) */
+    default List<List<Double>> embedQueryBatch(List<String> texts) {
+        return texts.stream().map(this::embedQuery).toList();
+    }
+
     /** 배치 임베딩 (기본: 순차 호출) */
     default List<List<Double>> embedBatch(List<String> texts) {
         return texts.stream().map(this::embed).toList();
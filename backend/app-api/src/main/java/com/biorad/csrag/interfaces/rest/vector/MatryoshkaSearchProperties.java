@@ -0,0 +1,72 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Matryoshka 2단계 벡터 검색 설정 ({@code vector.matryoshka.*}).
+ *
+ * <p>{@code text-embedding-3-*}는 앞쪽 차원만 잘라 재정규화해도 의미가 유지되도록 학습되어 있다.
+ * 활성화하면 1단계에서 앞 {@code prefix-dimensions}차원 코사인으로 후보를 고르고,
+ * 2단계에서 후보만 전체 차원으로 다시 점수를 매긴다. 컬렉션별로 {@link #getCollections()}에서 덮어쓸 수 있다.
+ */
+@Component
+@ConfigurationProperties(prefix = "vector.matryoshka")
+public class MatryoshkaSearchProperties {
+
+    private boolean enabled = false;
+    /** 1단계 후보 생성에 쓰는 앞쪽 차원 수 (256 또는 512 권장) */
+    private int prefixDimensions = 256;
+    /** 2단계 재채점 후보 수 = max(topK × multiplier, min-candidates) */
+    private int candidateMultiplier = 8;
+    private int minCandidates = 64;
+    private Map<String, Collection> collections = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getPrefixDimensions() { return prefixDimensions; }
+    public void setPrefixDimensions(int prefixDimensions) { this.prefixDimensions = prefixDimensions; }
+
+    public int getCandidateMultiplier() { return candidateMultiplier; }
+    public void setCandidateMultiplier(int candidateMultiplier) { this.candidateMultiplier = candidateMultiplier; }
+
+    public int getMinCandidates() { return minCandidates; }
+    public void setMinCandidates(int minCandidates) { this.minCandidates = minCandidates; }
+
+    public Map<String, Collection> getCollections() { return collections; }
+    public void setCollections(Map<String, Collection> collections) { this.collections = collections; }
+
+    /**
+     * 컬렉션에 적용할 1단계 차원 수. 2단계 검색을 쓰지 않으면 0.
+     */
+    public int prefixDimensionsFor(String collection) {
+        Collection override = collection == null ? null : collections.get(collection);
+        boolean active = override != null && override.getEnabled() != null ? override.getEnabled() : enabled;
+        if (!active) {
+            return 0;
+        }
+        int prefix = override != null && override.getPrefixDimensions() != null
+                ? override.getPrefixDimensions() : prefixDimensions;
+        return Math.max(0, prefix);
+    }
+
+    public int candidatesFor(int topK) {
+        return Math.max(topK, Math.max(topK * Math.max(1, candidateMultiplier), minCandidates));
+    }
+
+    /** 컬렉션별 재정의 (null이면 상위 설정을 따른다) */
+    public static class Collection {
+        private Boolean enabled;
+        private Integer prefixDimensions;
+
+        public Boolean getEnabled() { return enabled; }
+        public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+
+        public Integer getPrefixDimensions() { return prefixDimensions; }
+        public void setPrefixDimensions(Integer prefixDimensions) { this.prefixDimensions = prefixDimensions; }
+    }
+}
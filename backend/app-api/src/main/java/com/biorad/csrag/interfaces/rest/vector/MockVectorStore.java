@@ -7,6 +7,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -30,16 +31,38 @@ public class MockVectorStore implements VectorStore {
 
     @Override
     public void upsert(UUID chunkId, UUID documentId, List<Double> vector, String content, String sourceType) {
-        records.put(chunkId, new VectorRecord(chunkId, documentId, vector, content, sourceType, null));
+        records.put(chunkId, new VectorRecord(chunkId, List.of(documentId), vector, content, sourceType, List.of()));
         log.info("vector.upsert.success chunkId={} documentId={} sourceType={} dim={}", chunkId, documentId, sourceType, vector.size());
     }
 
     @Override
     public void upsert(UUID chunkId, UUID documentId, List<Double> vector, String content, String sourceType, String productFamily) {
-        records.put(chunkId, new VectorRecord(chunkId, documentId, vector, content, sourceType, productFamily));
+        records.put(chunkId, new VectorRecord(chunkId, List.of(documentId), vector, content, sourceType,
+                productFamily == null ? List.of() : List.of(productFamily)));
         log.info("vector.upsert.success chunkId={} documentId={} sourceType={} productFamily={} dim={}", chunkId, documentId, sourceType, productFamily, vector.size());
     }
 
+    @Override
+    public void upsertShared(UUID pointId, List<Double> vector, String content, String sourceType,
+                             VectorPointMembership membership) {
+        records.put(pointId, new VectorRecord(membership.representativeChunkId(), membership.documentIds(),
+                vector, content, sourceType, membership.productFamilies()));
+        log.info("vector.upsertShared.success pointId={} documents={} dim={}", pointId, membership.documentIds().size(), vector.size());
+    }
+
+    @Override
+    public void updateMembership(UUID pointId, VectorPointMembership membership) {
+        records.computeIfPresent(pointId, (id, r) -> new VectorRecord(membership.representativeChunkId(),
+                membership.documentIds(), r.vector(),
+                membership.representativeContent() != null ? membership.representativeContent() : r.content(),
+                r.sourceType(), membership.productFamilies()));
+    }
+
+    @Override
+    public void deletePoints(Collection<UUID> pointIds) {
+        pointIds.forEach(records::remove);
+    }
+
     @Override
     public List<VectorSearchResult> search(List<Double> queryVector, int topK) {
         return search(queryVector, topK, null);
@@ -53,27 +76,27 @@ public class MockVectorStore implements VectorStore {
             // inquiryId 스코핑: documentIds OR sourceTypes (OR 로직)
             if (filter.hasDocumentFilter() && filter.hasSourceTypeFilter() && filter.inquiryId() != null) {
                 stream = stream.filter(r ->
-                        filter.documentIds().contains(r.documentId())
+                        r.documentIds().stream().anyMatch(filter.documentIds()::contains)
                         || (r.sourceType() != null && filter.sourceTypes().contains(r.sourceType()))
                 );
             } else {
                 if (filter.hasDocumentFilter()) {
-                    stream = stream.filter(r -> filter.documentIds().contains(r.documentId()));
+                    stream = stream.filter(r -> r.documentIds().stream().anyMatch(filter.documentIds()::contains));
                 }
                 if (filter.hasSourceTypeFilter()) {
                     stream = stream.filter(r -> r.sourceType() != null && filter.sourceTypes().contains(r.sourceType()));
                 }
             }
             if (filter.hasProductFilter()) {
-                stream = stream.filter(r -> r.productFamily() != null
-                        && filter.productFamilies().stream().anyMatch(pf -> pf.equalsIgnoreCase(r.productFamily())));
+                stream = stream.filter(r -> r.productFamilies().stream()
+                        .anyMatch(family -> filter.productFamilies().stream().anyMatch(family::equalsIgnoreCase)));
             }
         }
 
         return stream
                 .map(record -> new VectorSearchResult(
                         record.chunkId(),
-                        record.documentId(),
+                        record.documentIds().get(0),
                         record.content(),
                         cosineSimilarity(queryVector, record.vector()),
                         record.sourceType()
@@ -83,10 +106,18 @@ public class MockVectorStore implements VectorStore {
                 .toList();
     }
 
+    /** 쿼리별 전수 비교를 병렬로 수행한다 (결과 순서는 쿼리 순서 유지). */
+    @Override
+    public List<List<VectorSearchResult>> searchBatch(List<VectorSearchQuery> queries) {
+        return queries.parallelStream()
+                .map(q -> search(q.vector(), q.topK(), q.filter()))
+                .toList();
+    }
+
     @Override
     public void deleteByDocumentId(UUID documentId) {
         List<UUID> toRemove = records.entrySet().stream()
-                .filter(e -> e.getValue().documentId().equals(documentId))
+                .filter(e -> e.getValue().documentIds().contains(documentId))
                 .map(Map.Entry::getKey)
                 .toList();
         toRemove.forEach(records::remove);
@@ -115,6 +146,8 @@ public class MockVectorStore implements VectorStore {
         return dot / (Math.sqrt(normA) * Math.sqrt(normB));
     }
 
-    private record VectorRecord(UUID chunkId, UUID documentId, List<Double> vector, String content, String sourceType, String productFamily) {
+    /** 공유 포인트는 documentIds/productFamilies에 멤버가 여러 개다 (첫 번째가 대표 문서). */
+    private record VectorRecord(UUID chunkId, List<UUID> documentIds, List<Double> vector, String content,
+                                String sourceType, List<String> productFamilies) {
     }
 }
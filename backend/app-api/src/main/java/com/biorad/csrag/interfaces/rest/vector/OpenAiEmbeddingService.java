@@ -1,13 +1,13 @@
 package com.biorad.csrag.interfaces.rest.vector;
 
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -31,13 +31,10 @@ public class OpenAiEmbeddingService implements EmbeddingService {
             @Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl,
             @Value("${openai.model.embedding:text-embedding-3-small}") String embeddingModel,
             ObjectMapper objectMapper,
-            MockEmbeddingService fallback
+            MockEmbeddingService fallback,
+            OpenAiRestClientFactory restClientFactory
     ) {
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+        this.restClient = restClientFactory.create(baseUrl, apiKey, OpenAiRateGovernor.Lane.BACKGROUND);
         this.objectMapper = objectMapper;
         this.embeddingModel = embeddingModel;
         this.fallback = fallback;
@@ -92,6 +89,12 @@ public class OpenAiEmbeddingService implements EmbeddingService {
         }
     }
 
+    /** 쿼리·문서 임베딩이 같은 모델이므로 쿼리 배치도 {@code /embeddings} 1회로 보낸다. */
+    @Override
+    public List<List<Double>> embedQueryBatch(List<String> texts) {
+        return embedBatch(texts);
+    }
+
     @Override
     public List<Double> embed(String text) {
         String input = text == null ? "" : text;
@@ -1,5 +1,6 @@
 package com.biorad.csrag.interfaces.rest.vector;
 
+import com.biorad.csrag.infrastructure.http.OutboundHttpTransport;
 import com.biorad.csrag.interfaces.rest.search.SearchFilter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -43,10 +45,10 @@ public class QdrantVectorStore implements VectorStore {
             @Value("${vector.qdrant.api-key:}") String apiKey,
             @Value("${vector.qdrant.collection:csrag_chunks}") String collection,
             ObjectMapper objectMapper,
-            VectorStoreCircuitBreaker circuitBreaker
+            VectorStoreCircuitBreaker circuitBreaker,
+            OutboundHttpTransport transport
     ) {
-        RestClient.Builder builder = RestClient.builder()
-                .baseUrl(qdrantUrl)
+        RestClient.Builder builder = transport.builder("qdrant", qdrantUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
 
         if (apiKey != null && !apiKey.isBlank()) {
@@ -90,6 +92,81 @@ public class QdrantVectorStore implements VectorStore {
         upsertWithRetry(body, chunkId, documentId, sourceType, productFamily, vector.size());
     }
 
+    /**
+     * 공유 포인트 저장. documentId/productFamily payload를 배열로 저장하며,
+     * Qdrant keyword 인덱스의 {@code match any}는 배열 원소 중 하나만 일치해도 통과한다.
+     */
+    @Override
+    public void upsertShared(UUID pointId, List<Double> vector, String content, String sourceType,
+                             VectorPointMembership membership) {
+        ensureCollection(vector.size());
+
+        Map<String, Object> payload = membershipPayload(membership);
+        payload.put("content", content == null ? "" : content);
+        payload.put("sourceType", sourceType == null ? "KNOWLEDGE_BASE" : sourceType);
+
+        Map<String, Object> point = new HashMap<>();
+        point.put("id", pointId.toString());
+        point.put("vector", vector);
+        point.put("payload", payload);
+
+        upsertWithRetry(Map.of("points", List.of(point)), pointId, membership.documentIds().get(0),
+                sourceType, String.join(",", membership.productFamilies()), vector.size());
+    }
+
+    /**
+     * set payload: 지정한 키(chunkId, documentId, productFamily)만 덮어쓰고 벡터는 유지한다.
+     * 대표 청크가 바뀌어 새 본문이 실려 오면 content도 함께 덮어쓴다.
+     */
+    @Override
+    public void updateMembership(UUID pointId, VectorPointMembership membership) {
+        Map<String, Object> body = Map.of(
+                "payload", membershipPayload(membership),
+                "points", List.of(pointId.toString())
+        );
+        try {
+            restClient.post()
+                    .uri("/collections/{collection}/points/payload?wait=true", collection)
+                    .body(body)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.info("qdrant.updateMembership.success pointId={} documents={}", pointId, membership.documentIds().size());
+        } catch (Exception ex) {
+            log.error("qdrant.updateMembership.failed pointId={} reason={}", pointId, ex.getMessage());
+            throw new RuntimeException("Failed to update membership for pointId=" + pointId, ex);
+        }
+    }
+
+    @Override
+    public void deletePoints(Collection<UUID> pointIds) {
+        if (pointIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> body = Map.of("points", pointIds.stream().map(UUID::toString).toList());
+        try {
+            restClient.post()
+                    .uri("/collections/{collection}/points/delete?wait=true", collection)
+                    .body(body)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.info("qdrant.deletePoints.success count={}", pointIds.size());
+        } catch (Exception ex) {
+            log.error("qdrant.deletePoints.failed count={} reason={}", pointIds.size(), ex.getMessage());
+            throw new RuntimeException("Failed to delete " + pointIds.size() + " vector points", ex);
+        }
+    }
+
+    private static Map<String, Object> membershipPayload(VectorPointMembership membership) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("chunkId", membership.representativeChunkId().toString());
+        payload.put("documentId", membership.documentIds().stream().map(UUID::toString).toList());
+        payload.put("productFamily", membership.productFamilies());
+        if (membership.representativeContent() != null) {
+            payload.put("content", membership.representativeContent());
+        }
+        return payload;
+    }
+
     /**
      * Upsert에 지수 백오프 재시도를 적용한다.
      * 연결/타임아웃 오류만 재시도하고, 4xx 클라이언트 오류는 즉시 전파한다.
@@ -155,115 +232,183 @@ public class QdrantVectorStore implements VectorStore {
         );
     }
 
+    /**
+     * Qdrant batch search — 쿼리 N개를 {@code /points/search/batch} 한 번으로 보낸다.
+     * 회로가 열려 있으면 쿼리별 빈 결과를 반환한다.
+     */
+    @Override
+    public List<List<VectorSearchResult>> searchBatch(List<VectorSearchQuery> queries) {
+        if (queries.isEmpty()) {
+            return List.of();
+        }
+        if (queries.size() == 1) {
+            VectorSearchQuery query = queries.get(0);
+            return List.of(search(query.vector(), query.topK(), query.filter()));
+        }
+        return circuitBreaker.execute(
+                () -> doSearchBatch(queries),
+                () -> Collections.nCopies(queries.size(), List.<VectorSearchResult>of())
+        );
+    }
+
     /**
      * Qdrant HTTP 검색 — circuit breaker에 의해 래핑됨.
      */
     private List<VectorSearchResult> doSearch(List<Double> queryVector, int topK, SearchFilter filter) {
         ensureCollection(queryVector.size());
 
+        String response = restClient.post()
+                .uri("/collections/{collection}/points/search", collection)
+                .body(searchBody(queryVector, topK, filter))
+                .retrieve()
+                .body(String.class);
+
+        try {
+            JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
+            return parseHits(root.path("result"));
+        } catch (Exception ex) {
+            log.warn("qdrant.search.parse.failed: {}", ex.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<List<VectorSearchResult>> doSearchBatch(List<VectorSearchQuery> queries) {
+        ensureCollection(queries.get(0).vector().size());
+
+        List<Map<String, Object>> searches = new ArrayList<>(queries.size());
+        for (VectorSearchQuery query : queries) {
+            searches.add(searchBody(query.vector(), query.topK(), query.filter()));
+        }
+
+        String response = restClient.post()
+                .uri("/collections/{collection}/points/search/batch", collection)
+                .body(Map.of("searches", searches))
+                .retrieve()
+                .body(String.class);
+
+        List<List<VectorSearchResult>> results = new ArrayList<>(queries.size());
+        try {
+            JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
+            JsonNode batch = root.path("result");
+            // result는 searches와 같은 순서의 배열의 배열이다
+            for (int i = 0; i < queries.size(); i++) {
+                results.add(parseHits(batch.path(i)));
+            }
+        } catch (Exception ex) {
+            log.warn("qdrant.searchBatch.parse.failed: {}", ex.getMessage());
+            results.clear();
+            results.addAll(Collections.nCopies(queries.size(), List.of()));
+        }
+        log.debug("qdrant.searchBatch queries={}", queries.size());
+        return results;
+    }
+
+    /** 단건·배치 검색 공용 요청 본문 (vector, limit, with_payload, filter) */
+    private Map<String, Object> searchBody(List<Double> queryVector, int topK, SearchFilter filter) {
         Map<String, Object> body = new HashMap<>();
         body.put("vector", queryVector);
         body.put("limit", Math.max(1, topK));
         body.put("with_payload", true);
 
-        if (filter != null && !filter.isEmpty()) {
-            List<Map<String, Object>> mustClauses = new ArrayList<>();
-            List<Map<String, Object>> shouldClauses = new ArrayList<>();
+        Map<String, Object> filterMap = toQdrantFilter(filter);
+        if (!filterMap.isEmpty()) {
+            body.put("filter", filterMap);
+        }
+        return body;
+    }
 
-            // inquiryId 스코핑: documentIds OR sourceTypes (OR 로직)
-            if (filter.hasDocumentFilter() && filter.hasSourceTypeFilter() && filter.inquiryId() != null) {
+    private Map<String, Object> toQdrantFilter(SearchFilter filter) {
+        Map<String, Object> filterMap = new HashMap<>();
+        if (filter == null || filter.isEmpty()) {
+            return filterMap;
+        }
+
+        List<Map<String, Object>> mustClauses = new ArrayList<>();
+        List<Map<String, Object>> shouldClauses = new ArrayList<>();
+
+        // inquiryId 스코핑: documentIds OR sourceTypes (OR 로직)
+        if (filter.hasDocumentFilter() && filter.hasSourceTypeFilter() && filter.inquiryId() != null) {
+            List<String> docIdStrings = filter.documentIds().stream()
+                    .map(UUID::toString)
+                    .toList();
+            shouldClauses.add(Map.of(
+                    "key", "documentId",
+                    "match", Map.of("any", docIdStrings)
+            ));
+            List<String> sourceTypeList = new ArrayList<>(filter.sourceTypes());
+            shouldClauses.add(Map.of(
+                    "key", "sourceType",
+                    "match", Map.of("any", sourceTypeList)
+            ));
+        } else {
+            if (filter.hasDocumentFilter()) {
                 List<String> docIdStrings = filter.documentIds().stream()
                         .map(UUID::toString)
                         .toList();
-                shouldClauses.add(Map.of(
+                mustClauses.add(Map.of(
                         "key", "documentId",
                         "match", Map.of("any", docIdStrings)
                 ));
+            }
+
+            if (filter.hasSourceTypeFilter()) {
                 List<String> sourceTypeList = new ArrayList<>(filter.sourceTypes());
-                shouldClauses.add(Map.of(
+                mustClauses.add(Map.of(
                         "key", "sourceType",
                         "match", Map.of("any", sourceTypeList)
                 ));
-            } else {
-                if (filter.hasDocumentFilter()) {
-                    List<String> docIdStrings = filter.documentIds().stream()
-                            .map(UUID::toString)
-                            .toList();
-                    mustClauses.add(Map.of(
-                            "key", "documentId",
-                            "match", Map.of("any", docIdStrings)
-                    ));
-                }
-
-                if (filter.hasSourceTypeFilter()) {
-                    List<String> sourceTypeList = new ArrayList<>(filter.sourceTypes());
-                    mustClauses.add(Map.of(
-                            "key", "sourceType",
-                            "match", Map.of("any", sourceTypeList)
-                    ));
-                }
             }
+        }
 
-            if (filter.hasProductFilter()) {
-                List<String> productFamilyList = new ArrayList<>(filter.productFamilies());
-                mustClauses.add(Map.of(
-                        "key", "productFamily",
-                        "match", Map.of("any", productFamilyList)
-                ));
-            }
+        if (filter.hasProductFilter()) {
+            List<String> productFamilyList = new ArrayList<>(filter.productFamilies());
+            mustClauses.add(Map.of(
+                    "key", "productFamily",
+                    "match", Map.of("any", productFamilyList)
+            ));
+        }
 
-            Map<String, Object> filterMap = new HashMap<>();
-            if (!mustClauses.isEmpty()) {
-                filterMap.put("must", mustClauses);
-            }
-            if (!shouldClauses.isEmpty()) {
-                filterMap.put("should", shouldClauses);
-            }
-            if (!filterMap.isEmpty()) {
-                body.put("filter", filterMap);
-            }
+        if (!mustClauses.isEmpty()) {
+            filterMap.put("must", mustClauses);
         }
+        if (!shouldClauses.isEmpty()) {
+            filterMap.put("should", shouldClauses);
+        }
+        return filterMap;
+    }
 
-        String response = restClient.post()
-                .uri("/collections/{collection}/points/search", collection)
-                .body(body)
-                .retrieve()
-                .body(String.class);
+    private List<VectorSearchResult> parseHits(JsonNode result) {
+        if (!result.isArray()) {
+            return List.of();
+        }
 
-        try {
-            JsonNode root = objectMapper.readTree(response == null ? "{}" : response);
-            JsonNode result = root.path("result");
-            if (!result.isArray()) {
-                return List.of();
+        List<VectorSearchResult> hits = new ArrayList<>();
+        for (JsonNode node : result) {
+            JsonNode payload = node.path("payload");
+
+            String chunkIdRaw = payload.path("chunkId").asText(node.path("id").asText());
+            // 공유 포인트는 documentId가 배열이다 — 첫 번째(대표 청크의 문서)를 사용
+            JsonNode documentIdNode = payload.path("documentId");
+            String documentIdRaw = documentIdNode.isArray()
+                    ? documentIdNode.path(0).asText()
+                    : documentIdNode.asText();
+            String content = payload.path("content").asText("");
+            String sourceType = payload.path("sourceType").asText("INQUIRY");
+            double score = node.path("score").asDouble(0d);
+
+            if (chunkIdRaw == null || chunkIdRaw.isBlank() || documentIdRaw == null || documentIdRaw.isBlank()) {
+                continue;
             }
 
-            List<VectorSearchResult> hits = new ArrayList<>();
-            for (JsonNode node : result) {
-                JsonNode payload = node.path("payload");
-
-                String chunkIdRaw = payload.path("chunkId").asText(node.path("id").asText());
-                String documentIdRaw = payload.path("documentId").asText();
-                String content = payload.path("content").asText("");
-                String sourceType = payload.path("sourceType").asText("INQUIRY");
-                double score = node.path("score").asDouble(0d);
-
-                if (chunkIdRaw == null || chunkIdRaw.isBlank() || documentIdRaw == null || documentIdRaw.isBlank()) {
-                    continue;
-                }
-
-                hits.add(new VectorSearchResult(
-                        UUID.fromString(chunkIdRaw),
-                        UUID.fromString(documentIdRaw),
-                        content,
-                        score,
-                        sourceType
-                ));
-            }
-            return hits;
-        } catch (Exception ex) {
-            log.warn("qdrant.search.parse.failed: {}", ex.getMessage());
-            return List.of();
+            hits.add(new VectorSearchResult(
+                    UUID.fromString(chunkIdRaw),
+                    UUID.fromString(documentIdRaw),
+                    content,
+                    score,
+                    sourceType
+            ));
         }
+        return hits;
     }
 
     @Override
@@ -0,0 +1,383 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository.BandCandidate;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository.Member;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import com.biorad.csrag.interfaces.rest.search.SearchFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * KB 문서 간 근접 중복 청크의 벡터 포인트 공유.
+ *
+ * <p>여러 제품 매뉴얼에 반복되는 안전·보증·표준 프로토콜 섹션은 청크마다 따로 임베딩하지 않고
+ * 하나의 포인트를 공유하며, 소속 문서/제품군은 포인트 payload의 멤버 배열로 유지한다.
+ * <ul>
+ *   <li>인덱싱({@link #plan} → 임베딩 → {@link #register}): 청크의 MinHash 서명 밴드로 기존 포인트 후보를
+ *       조회하고, 유사도가 {@code rag.indexing.dedup.threshold} 이상이면 해당 포인트에 합류시켜 임베딩을 생략한다.</li>
+ *   <li>삭제/재인덱싱({@link #removeDocument}): 문서의 멤버십만 해제한다. 멤버가 남지 않은 포인트만 삭제하고,
+ *       남은 포인트는 대표 청크와 payload를 갱신한다.</li>
+ * </ul>
+ * 검색 시에는 중복 사본이 top-k를 나눠 갖지 않고 포인트 하나로 반환되며, 필터 검색은 {@link #resolveMembers}로
+ * 필터와 일치하는 멤버 청크를 인용한다.
+ * 동시에 인덱싱되는 두 문서는 서로의 미커밋 포인트를 보지 못하므로 각자 포인트를 만들 수 있다 (중복이 남을 뿐 정합성은 유지).
+ */
+@Service
+public class SharedVectorPointIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedVectorPointIndex.class);
+
+    private final VectorPointJdbcRepository repository;
+    private final VectorStore vectorStore;
+    private final boolean enabled;
+    private final double threshold;
+
+    public SharedVectorPointIndex(
+            VectorPointJdbcRepository repository,
+            VectorStore vectorStore,
+            @Value("${rag.indexing.dedup.enabled:true}") boolean enabled,
+            @Value("${rag.indexing.dedup.threshold:0.9}") double threshold
+    ) {
+        this.repository = repository;
+        this.vectorStore = vectorStore;
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 새 KB 청크를 포인트 공유 대상으로 삼을지 여부. 비활성화해도 기존 공유 포인트의 해제는 계속 처리한다.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 문서의 벡터를 모두 제거한다: 공유 멤버십을 해제한 뒤 공유 테이블에 없는 (기존 방식) 포인트를 삭제한다.
+     * 해제가 먼저 payload에서 이 문서를 빼므로, 뒤이은 documentId 필터 삭제가 다른 문서의 공유 포인트를 지우지 않는다.
+     */
+    public void removeDocument(UUID documentId) {
+        releaseMemberships(documentId);
+        vectorStore.deleteByDocumentId(documentId);
+    }
+
+    /**
+     * 청크마다 새 포인트를 만들지(임베딩 필요), 기존/같은 문서 내 포인트에 합류할지 결정한다.
+     */
+    public Plan plan(List<DocumentChunkJpaEntity> chunks) {
+        Map<UUID, UUID> pointByChunk = new LinkedHashMap<>();
+        List<DocumentChunkJpaEntity> toEmbed = new ArrayList<>();
+        Map<UUID, MinHashSignature> newPoints = new LinkedHashMap<>();
+        Set<UUID> joinedPoints = new LinkedHashSet<>();
+
+        Map<UUID, MinHashSignature> signatures = new HashMap<>();
+        Set<Long> bandHashes = new HashSet<>();
+        for (DocumentChunkJpaEntity chunk : chunks) {
+            MinHashSignature signature = signatureOf(chunk);
+            signatures.put(chunk.getId(), signature);
+            if (!signature.isEmpty()) {
+                for (int band = 0; band < MinHashSignature.BANDS; band++) {
+                    bandHashes.add(signature.bandHash(band));
+                }
+            }
+        }
+
+        Map<Long, List<Candidate>> existing = new HashMap<>();
+        for (BandCandidate row : repository.findCandidates(bandHashes)) {
+            MinHashSignature signature = MinHashSignature.decode(row.signature());
+            if (signature != null && !signature.isEmpty()) {
+                existing.computeIfAbsent(row.bandHash(), k -> new ArrayList<>())
+                        .add(new Candidate(row.pointId(), signature, true));
+            }
+        }
+        Map<Long, List<Candidate>> local = new HashMap<>();
+
+        for (DocumentChunkJpaEntity chunk : chunks) {
+            MinHashSignature signature = signatures.get(chunk.getId());
+            Candidate match = signature.isEmpty() ? null : bestMatch(signature, existing, local);
+            if (match != null) {
+                pointByChunk.put(chunk.getId(), match.pointId());
+                if (match.existing()) {
+                    joinedPoints.add(match.pointId());
+                }
+                continue;
+            }
+            toEmbed.add(chunk);
+            pointByChunk.put(chunk.getId(), chunk.getId());
+            newPoints.put(chunk.getId(), signature);
+            if (!signature.isEmpty()) {
+                Candidate created = new Candidate(chunk.getId(), signature, false);
+                for (int band = 0; band < MinHashSignature.BANDS; band++) {
+                    local.computeIfAbsent(signature.bandHash(band), k -> new ArrayList<>()).add(created);
+                }
+            }
+        }
+        return new Plan(List.copyOf(chunks), List.copyOf(toEmbed), pointByChunk, newPoints, joinedPoints);
+    }
+
+    /**
+     * 임베딩·upsert가 끝난 계획을 공유 테이블에 기록하고, 합류한 기존 포인트의 멤버십 payload를 갱신한다.
+     *
+     * @param productFamily 문서의 제품군 (null이면 청크의 값)
+     */
+    public void register(UUID documentId, String productFamily, Plan plan) {
+        Instant now = Instant.now();
+        for (Map.Entry<UUID, MinHashSignature> point : plan.newPoints().entrySet()) {
+            MinHashSignature signature = point.getValue();
+            long[] bands = new long[signature.isEmpty() ? 0 : MinHashSignature.BANDS];
+            for (int band = 0; band < bands.length; band++) {
+                bands[band] = signature.bandHash(band);
+            }
+            repository.insertPoint(point.getKey(), point.getKey(), signature.encode(), bands, now);
+        }
+
+        List<Member> members = new ArrayList<>(plan.chunks().size());
+        for (DocumentChunkJpaEntity chunk : plan.chunks()) {
+            String family = productFamily != null ? productFamily : chunk.getProductFamily();
+            members.add(new Member(plan.pointByChunk().get(chunk.getId()), chunk.getId(), documentId, family));
+        }
+        repository.insertMembers(members);
+
+        refreshMemberships(plan.joinedPoints());
+        log.info("vector.shared.register documentId={} chunks={} newPoints={} shared={} joinedPoints={}",
+                documentId, plan.chunks().size(), plan.newPoints().size(), plan.sharedCount(), plan.joinedPoints().size());
+    }
+
+    /**
+     * 내용이 같은 문서의 포인트 멤버십을 그대로 복제한다. 임베딩·upsert 없이 payload 멤버십만 갱신한다.
+     *
+     * @param chunkIdMap 원본 청크 ID → 복제 청크 ID (PARENT 제외)
+     * @return 원본의 모든 청크가 공유 테이블에 등록되어 있어 연결했으면 true. 아니면 아무것도 쓰지 않고 false
+     */
+    public boolean linkDocument(UUID sourceDocumentId, UUID documentId, String productFamily,
+                                Map<UUID, UUID> chunkIdMap) {
+        List<Member> sourceMembers = repository.findMembersByDocument(sourceDocumentId);
+        if (sourceMembers.isEmpty() || sourceMembers.size() != chunkIdMap.size()) {
+            return false;
+        }
+        List<Member> members = new ArrayList<>(sourceMembers.size());
+        Set<UUID> pointIds = new LinkedHashSet<>();
+        for (Member source : sourceMembers) {
+            UUID chunkId = chunkIdMap.get(source.chunkId());
+            if (chunkId == null) {
+                return false;
+            }
+            String family = productFamily != null ? productFamily : source.productFamily();
+            members.add(new Member(source.pointId(), chunkId, documentId, family));
+            pointIds.add(source.pointId());
+        }
+        repository.insertMembers(members);
+        refreshMemberships(pointIds);
+        log.info("vector.shared.link sourceDocumentId={} documentId={} chunks={} points={}",
+                sourceDocumentId, documentId, members.size(), pointIds.size());
+        return true;
+    }
+
+    /**
+     * 필터 검색 결과의 공유 포인트를 필터와 일치하는 멤버 청크로 바꾼다.
+     *
+     * <p>저장소는 공유 포인트를 대표 청크·첫 번째 멤버 문서로 반환하지만, 문서/제품군 필터는 멤버 중 하나만 일치해도
+     * 통과한다. 그대로 쓰면 요청하지 않은 문서의 청크(파일명·페이지)가 인용되므로, 필터 문서에 속한 멤버를 우선하고
+     * 다음으로 필터 제품군의 멤버를 고른다. 일치하는 멤버가 없으면(문의 스코핑의 sourceType 조건으로 통과한 KB 포인트 등)
+     * 결과를 그대로 둔다. 내용·점수는 포인트 단위이므로 바꾸지 않는다.
+     */
+    public List<VectorSearchResult> resolveMembers(List<VectorSearchResult> results, SearchFilter filter) {
+        if (results.isEmpty() || filter == null || (!filter.hasDocumentFilter() && !filter.hasProductFilter())) {
+            return results;
+        }
+        Map<UUID, UUID> pointByChunk = repository.findPointIdsByChunks(
+                results.stream().map(VectorSearchResult::chunkId).toList());
+        if (pointByChunk.isEmpty()) {
+            return results;
+        }
+        Map<UUID, List<Member>> membersByPoint = groupByPoint(
+                repository.findMembersByPoints(new LinkedHashSet<>(pointByChunk.values())));
+
+        List<VectorSearchResult> resolved = new ArrayList<>(results.size());
+        int rehomed = 0;
+        for (VectorSearchResult result : results) {
+            List<Member> members = membersByPoint.getOrDefault(pointByChunk.get(result.chunkId()), List.of());
+            Member member = members.size() > 1 ? bestMember(result.chunkId(), members, filter) : null;
+            if (member == null || (member.chunkId().equals(result.chunkId())
+                    && member.documentId().equals(result.documentId()))) {
+                resolved.add(result);
+                continue;
+            }
+            resolved.add(new VectorSearchResult(member.chunkId(), member.documentId(), result.content(),
+                    result.score(), result.sourceType()));
+            rehomed++;
+        }
+        if (rehomed > 0) {
+            log.debug("vector.shared.resolve results={} rehomed={}", results.size(), rehomed);
+        }
+        return resolved;
+    }
+
+    /** 필터 문서 일치(2) + 필터 제품군 일치(1) 순위가 가장 높은 멤버. 동률이면 현재 청크를 유지한다. */
+    private static Member bestMember(UUID currentChunkId, List<Member> members, SearchFilter filter) {
+        Member best = null;
+        int bestRank = 0;
+        for (Member member : members) {
+            int rank = 0;
+            if (filter.hasDocumentFilter() && filter.documentIds().contains(member.documentId())) {
+                rank += 2;
+            }
+            if (filter.hasProductFilter() && member.productFamily() != null
+                    && filter.productFamilies().stream().anyMatch(member.productFamily()::equalsIgnoreCase)) {
+                rank += 1;
+            }
+            if (rank > bestRank || (rank == bestRank && rank > 0 && member.chunkId().equals(currentChunkId))) {
+                best = member;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    private void releaseMemberships(UUID documentId) {
+        List<Member> own = repository.findMembersByDocument(documentId);
+        if (own.isEmpty()) {
+            return;
+        }
+        Set<UUID> pointIds = new LinkedHashSet<>();
+        own.forEach(m -> pointIds.add(m.pointId()));
+        repository.deleteMembersByDocument(documentId);
+
+        Map<UUID, List<Member>> remaining = groupByPoint(repository.findMembersByPoints(pointIds));
+        List<UUID> orphaned = pointIds.stream().filter(id -> !remaining.containsKey(id)).toList();
+        refreshMemberships(remaining.keySet(), remaining);
+
+        if (!orphaned.isEmpty()) {
+            vectorStore.deletePoints(orphaned);
+            repository.deletePoints(orphaned);
+        }
+        log.info("vector.shared.release documentId={} points={} deleted={} stillShared={}",
+                documentId, pointIds.size(), orphaned.size(), remaining.size());
+    }
+
+    private void refreshMemberships(Set<UUID> pointIds) {
+        if (!pointIds.isEmpty()) {
+            refreshMemberships(pointIds, groupByPoint(repository.findMembersByPoints(pointIds)));
+        }
+    }
+
+    /**
+     * 대표 청크가 더 이상 멤버가 아니면 남은 멤버 중 첫 번째로 교체하고 payload를 다시 쓴다.
+     * 교체된 포인트는 검색 결과 content가 새 대표 청크의 본문이 되도록 content도 함께 쓴다.
+     */
+    private void refreshMemberships(Set<UUID> pointIds, Map<UUID, List<Member>> membersByPoint) {
+        if (pointIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, UUID> representatives = new HashMap<>();
+        repository.findRepresentatives(pointIds).forEach(r -> representatives.put(r.pointId(), r.chunkId()));
+
+        for (UUID pointId : pointIds) {
+            List<Member> members = membersByPoint.getOrDefault(pointId, List.of());
+            if (members.isEmpty()) {
+                continue;
+            }
+            UUID representative = representatives.get(pointId);
+            Member representativeMember = members.stream()
+                    .filter(m -> m.chunkId().equals(representative))
+                    .findFirst()
+                    .orElse(null);
+            VectorPointMembership membership;
+            if (representativeMember == null) {
+                representativeMember = members.get(0);
+                repository.updateRepresentative(pointId, representativeMember.chunkId());
+                membership = membership(representativeMember, members)
+                        .withRepresentativeContent(repository.findChunkContent(representativeMember.chunkId()));
+            } else {
+                membership = membership(representativeMember, members);
+            }
+            vectorStore.updateMembership(pointId, membership);
+        }
+    }
+
+    static VectorPointMembership membership(Member representative, List<Member> members) {
+        Set<UUID> documentIds = new LinkedHashSet<>();
+        Set<String> families = new LinkedHashSet<>();
+        documentIds.add(representative.documentId());
+        for (Member member : members) {
+            documentIds.add(member.documentId());
+            if (member.productFamily() != null && !member.productFamily().isBlank()) {
+                families.add(member.productFamily());
+            }
+        }
+        return new VectorPointMembership(representative.chunkId(), List.copyOf(documentIds), List.copyOf(families));
+    }
+
+    private Candidate bestMatch(MinHashSignature signature,
+                                Map<Long, List<Candidate>> existing,
+                                Map<Long, List<Candidate>> local) {
+        Set<UUID> seen = new HashSet<>();
+        Candidate best = null;
+        double bestSimilarity = threshold;
+        for (int band = 0; band < MinHashSignature.BANDS; band++) {
+            long bandHash = signature.bandHash(band);
+            for (Map<Long, List<Candidate>> bucket : List.of(existing, local)) {
+                for (Candidate candidate : bucket.getOrDefault(bandHash, List.of())) {
+                    if (!seen.add(candidate.pointId())) {
+                        continue;
+                    }
+                    double similarity = signature.similarity(candidate.signature());
+                    if (similarity >= bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static MinHashSignature signatureOf(DocumentChunkJpaEntity chunk) {
+        MinHashSignature stored = MinHashSignature.decode(chunk.getMinhashSignature());
+        return stored != null ? stored : MinHashSignature.of(chunk.getContent());
+    }
+
+    private static Map<UUID, List<Member>> groupByPoint(List<Member> members) {
+        Map<UUID, List<Member>> grouped = new LinkedHashMap<>();
+        members.forEach(m -> grouped.computeIfAbsent(m.pointId(), k -> new ArrayList<>()).add(m));
+        return grouped;
+    }
+
+    private record Candidate(UUID pointId, MinHashSignature signature, boolean existing) {}
+
+    /**
+     * 인덱싱 계획.
+     *
+     * @param chunks       임베딩 대상 청크 전체 (PARENT 제외)
+     * @param toEmbed      새 포인트가 되어 임베딩해야 하는 청크 (포인트 ID = 청크 ID)
+     * @param pointByChunk 청크 → 포인트
+     * @param newPoints    새 포인트 → MinHash 서명
+     * @param joinedPoints 이 문서가 새로 합류한 기존 포인트
+     */
+    public record Plan(
+            List<DocumentChunkJpaEntity> chunks,
+            List<DocumentChunkJpaEntity> toEmbed,
+            Map<UUID, UUID> pointByChunk,
+            Map<UUID, MinHashSignature> newPoints,
+            Set<UUID> joinedPoints
+    ) {
+        /** 임베딩을 생략한 청크 수 */
+        public int sharedCount() {
+            return chunks.size() - toEmbed.size();
+        }
+    }
+}
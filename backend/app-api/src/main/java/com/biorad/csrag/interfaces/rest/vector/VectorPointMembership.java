@@ -0,0 +1,35 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 공유 벡터 포인트의 멤버십 payload.
+ *
+ * @param representativeChunkId 검색 결과의 chunkId로 쓰일 대표 청크
+ * @param documentIds           포인트를 공유하는 문서 (첫 번째가 대표 청크의 문서)
+ * @param productFamilies       멤버 문서의 제품군 (중복 제거, null 제외)
+ * @param representativeContent 대표 청크가 바뀌었을 때 새 대표의 본문 (null이면 저장된 content 유지)
+ */
+public record VectorPointMembership(UUID representativeChunkId, List<UUID> documentIds, List<String> productFamilies,
+                                    String representativeContent) {
+
+    public VectorPointMembership {
+        documentIds = List.copyOf(documentIds);
+        productFamilies = List.copyOf(productFamilies);
+    }
+
+    public VectorPointMembership(UUID representativeChunkId, List<UUID> documentIds, List<String> productFamilies) {
+        this(representativeChunkId, documentIds, productFamilies, null);
+    }
+
+    /** 대표 청크 교체 시 검색 결과 content도 함께 바꾸도록 새 대표의 본문을 싣는다. */
+    public VectorPointMembership withRepresentativeContent(String content) {
+        return new VectorPointMembership(representativeChunkId, documentIds, productFamilies, content);
+    }
+
+    public static VectorPointMembership single(UUID chunkId, UUID documentId, String productFamily) {
+        return new VectorPointMembership(chunkId, List.of(documentId),
+                productFamily == null || productFamily.isBlank() ? List.of() : List.of(productFamily));
+    }
+}
@@ -0,0 +1,23 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import com.biorad.csrag.interfaces.rest.search.SearchFilter;
+
+import java.util.List;
+
+/**
+ * 배치 벡터 검색의 개별 쿼리.
+ *
+ * @param vector 쿼리 벡터
+ * @param topK   상위 K개 결과
+ * @param filter 검색 필터 (nullable = 전체 검색)
+ */
+public record VectorSearchQuery(List<Double> vector, int topK, SearchFilter filter) {
+
+    public static VectorSearchQuery of(List<Double> vector, int topK) {
+        return new VectorSearchQuery(vector, topK, null);
+    }
+
+    public boolean hasFilter() {
+        return filter != null && !filter.isEmpty();
+    }
+}
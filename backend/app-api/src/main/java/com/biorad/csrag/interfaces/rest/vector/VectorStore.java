@@ -2,6 +2,7 @@ package com.biorad.csrag.interfaces.rest.vector;
 
 import com.biorad.csrag.interfaces.rest.search.SearchFilter;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -53,10 +54,46 @@ public interface VectorStore {
         return search(queryVector, topK);
     }
 
+    /**
+     * 여러 쿼리를 한 번에 검색한다. 결과는 {@code queries}와 같은 순서의 쿼리별 목록이다.
+     * 기본 구현은 순차 호출이며, 원격 저장소는 배치 엔드포인트를, 로컬 저장소는 내부 병렬화를 사용한다.
+     *
+     * @param queries 쿼리 목록 (쿼리별 topK·필터)
+     */
+    default List<List<VectorSearchResult>> searchBatch(List<VectorSearchQuery> queries) {
+        return queries.stream()
+                .map(q -> q.hasFilter()
+                        ? search(q.vector(), q.topK(), q.filter())
+                        : search(q.vector(), q.topK()))
+                .toList();
+    }
+
     /**
      * 특정 문서의 모든 벡터 삭제
      *
      * @param documentId 삭제할 문서 ID
      */
     void deleteByDocumentId(UUID documentId);
+
+    /**
+     * 여러 KB 문서가 공유하는 벡터 포인트 저장.
+     * payload의 documentId/productFamily에 멤버 목록을 배열로 저장하므로 기존 필터는 멤버 중 하나와 일치하면 통과한다.
+     * 검색 결과의 chunkId는 대표 청크, documentId는 첫 번째 멤버 문서다 — 필터와 일치하는 멤버로의 치환은
+     * {@link SharedVectorPointIndex#resolveMembers}가 맡는다.
+     *
+     * @param pointId    포인트 ID (최초 대표 청크 ID)
+     * @param membership 대표 청크와 멤버 문서/제품군
+     */
+    void upsertShared(UUID pointId, List<Double> vector, String content, String sourceType,
+                      VectorPointMembership membership);
+
+    /**
+     * 공유 포인트의 멤버십 payload만 교체한다 (벡터는 유지).
+     */
+    void updateMembership(UUID pointId, VectorPointMembership membership);
+
+    /**
+     * 포인트 ID로 삭제
+     */
+    void deletePoints(Collection<UUID> pointIds);
 }
@@ -29,6 +29,7 @@ public class VectorizingService {
     private final VectorStore vectorStore;
     private final ContextualChunkEnricher contextualChunkEnricher;
     private final RagMetricsService ragMetricsService;
+    private final SharedVectorPointIndex sharedPointIndex;
 
     private final int enrichmentMinParents;
     private final int enrichmentMaxParents;
@@ -43,6 +44,7 @@ public class VectorizingService {
             VectorStore vectorStore,
             ContextualChunkEnricher contextualChunkEnricher,
             RagMetricsService ragMetricsService,
+            SharedVectorPointIndex sharedPointIndex,
             @Value("${rag.indexing.enrichment-min-parents:5}") int enrichmentMinParents,
             @Value("${rag.indexing.enrichment-max-parents:30}") int enrichmentMaxParents,
             @Value("${rag.indexing.enrichment-sample-interval:3}") int enrichmentSampleInterval
@@ -54,6 +56,7 @@ public class VectorizingService {
         this.vectorStore = vectorStore;
         this.contextualChunkEnricher = contextualChunkEnricher;
         this.ragMetricsService = ragMetricsService;
+        this.sharedPointIndex = sharedPointIndex;
         this.enrichmentMinParents = enrichmentMinParents;
         this.enrichmentMaxParents = enrichmentMaxParents;
         this.enrichmentSampleInterval = enrichmentSampleInterval;
@@ -75,6 +78,7 @@ public class VectorizingService {
         this.vectorStore = vectorStore;
         this.contextualChunkEnricher = contextualChunkEnricher;
         this.ragMetricsService = null;
+        this.sharedPointIndex = null;
         this.enrichmentMinParents = 5;
         this.enrichmentMaxParents = 30;
         this.enrichmentSampleInterval = 3;
@@ -96,11 +100,46 @@ public class VectorizingService {
         this.vectorStore = vectorStore;
         this.contextualChunkEnricher = contextualChunkEnricher;
         this.ragMetricsService = ragMetricsService;
+        this.sharedPointIndex = null;
+        this.enrichmentMinParents = 5;
+        this.enrichmentMaxParents = 30;
+        this.enrichmentSampleInterval = 3;
+    }
+
+    /** 테스트용 생성자 (공유 포인트 인덱스 포함) */
+    VectorizingService(
+            DocumentChunkJpaRepository chunkRepository,
+            KnowledgeDocumentJpaRepository kbDocRepository,
+            EmbeddingService embeddingService,
+            VectorStore vectorStore,
+            ContextualChunkEnricher contextualChunkEnricher,
+            RagMetricsService ragMetricsService,
+            SharedVectorPointIndex sharedPointIndex
+    ) {
+        this.chunkRepository = chunkRepository;
+        this.docMetadataRepository = null;
+        this.kbDocRepository = kbDocRepository;
+        this.embeddingService = embeddingService;
+        this.vectorStore = vectorStore;
+        this.contextualChunkEnricher = contextualChunkEnricher;
+        this.ragMetricsService = ragMetricsService;
+        this.sharedPointIndex = sharedPointIndex;
         this.enrichmentMinParents = 5;
         this.enrichmentMaxParents = 30;
         this.enrichmentSampleInterval = 3;
     }
 
+    /**
+     * 문서의 벡터를 모두 삭제한다. 공유 포인트는 이 문서의 멤버십만 해제된다.
+     */
+    public void removeDocumentVectors(UUID documentId) {
+        if (sharedPointIndex != null) {
+            sharedPointIndex.removeDocument(documentId);
+        } else {
+            vectorStore.deleteByDocumentId(documentId);
+        }
+    }
+
     /**
      * 문서의 청크들을 벡터화하여 저장
      *
@@ -110,11 +149,52 @@ public class VectorizingService {
     public int upsertDocumentChunks(UUID documentId) {
         long indexingStart = System.currentTimeMillis();
         // 기존 벡터 삭제 후 재생성 (ChunkingService가 새 UUID로 청크를 생성하므로 기존 벡터가 고아가 됨)
-        vectorStore.deleteByDocumentId(documentId);
+        removeDocumentVectors(documentId);
+
+        List<DocumentChunkJpaEntity> chunks = chunkRepository.findByDocumentIdOrderByChunkIndexAsc(documentId);
+        DocumentContext context = resolveContext(documentId, chunks);
+
+        // 선택적 Contextual Enrichment: Parent 청크 수에 따라 전략 결정
+        applySelectiveEnrichment(documentId, chunks, context.text(), context.fileName());
+
+        embedAndUpsert(documentId, chunks, context.productFamily());
 
+        if (ragMetricsService != null) ragMetricsService.record(null, "INDEXING_TIME", System.currentTimeMillis() - indexingStart);
+        return chunks.size();
+    }
+
+    /**
+     * 인덱싱 작업의 ENRICH 단계: 선택적 Contextual Enrichment 결과(contextPrefix, enrichedContent)를 청크 행에 저장한다.
+     * 이후 {@link #upsertEnrichedChunks}가 저장된 enrichedContent로 임베딩하므로, 중단 후 재개해도 LLM 호출을 반복하지 않는다.
+     *
+     * @return 처리한 청크 수
+     */
+    public int enrichDocumentChunks(UUID documentId) {
         List<DocumentChunkJpaEntity> chunks = chunkRepository.findByDocumentIdOrderByChunkIndexAsc(documentId);
+        DocumentContext context = resolveContext(documentId, chunks);
+        applySelectiveEnrichment(documentId, chunks, context.text(), context.fileName());
+        chunkRepository.saveAll(chunks);
+        return chunks.size();
+    }
+
+    /**
+     * 인덱싱 작업의 EMBED·UPSERT 단계: {@link #enrichDocumentChunks}가 저장한 enrichedContent로 임베딩해 벡터를 교체한다.
+     *
+     * @return 벡터화된 청크 수
+     */
+    public int upsertEnrichedChunks(UUID documentId) {
+        long indexingStart = System.currentTimeMillis();
+        removeDocumentVectors(documentId);
 
-        // 문서 메타데이터 조회: productFamily + extractedText + fileName (Contextual Enrichment에 필요)
+        List<DocumentChunkJpaEntity> chunks = chunkRepository.findByDocumentIdOrderByChunkIndexAsc(documentId);
+        embedAndUpsert(documentId, chunks, resolveContext(documentId, chunks).productFamily());
+
+        if (ragMetricsService != null) ragMetricsService.record(null, "INDEXING_TIME", System.currentTimeMillis() - indexingStart);
+        return chunks.size();
+    }
+
+    /** 문서 메타데이터 조회: productFamily + extractedText + fileName (Contextual Enrichment에 필요) */
+    private DocumentContext resolveContext(UUID documentId, List<DocumentChunkJpaEntity> chunks) {
         String resolvedProductFamily = null;
         String documentText = "";
         String fileName = "";
@@ -139,19 +219,26 @@ public class VectorizingService {
             log.debug("contextual enrichment: docId={}, sourceType={}, textLength={}, fileName='{}'",
                     documentId, sourceType, documentText.length(), fileName);
         }
+        return new DocumentContext(resolvedProductFamily, documentText, fileName);
+    }
 
-        // 선택적 Contextual Enrichment: Parent 청크 수에 따라 전략 결정
-        applySelectiveEnrichment(documentId, chunks, documentText, fileName);
-
+    private void embedAndUpsert(UUID documentId, List<DocumentChunkJpaEntity> chunks, String resolvedProductFamily) {
         // CHILD 청크만 임베딩 (PARENT는 검색 대상 아님). flat 구조면 전부 임베딩.
         List<DocumentChunkJpaEntity> chunksToEmbed = chunks.stream()
                 .filter(c -> !"PARENT".equals(c.getChunkLevel()))
                 .toList();
 
+        // KB 문서: 다른 문서(또는 같은 문서)의 근접 중복 청크는 기존 포인트를 공유하고 임베딩을 생략
+        boolean knowledgeBase = !chunks.isEmpty() && "KNOWLEDGE_BASE".equals(chunks.get(0).getSourceType());
+        SharedVectorPointIndex.Plan plan = knowledgeBase && sharedPointIndex != null && sharedPointIndex.isEnabled()
+                ? sharedPointIndex.plan(chunksToEmbed)
+                : null;
+        List<DocumentChunkJpaEntity> embedTargets = plan != null ? plan.toEmbed() : chunksToEmbed;
+
         // 배치 임베딩 (50개씩) — enrichedContent 사용
         int batchSize = 50;
-        for (int i = 0; i < chunksToEmbed.size(); i += batchSize) {
-            List<DocumentChunkJpaEntity> batch = chunksToEmbed.subList(i, Math.min(i + batchSize, chunksToEmbed.size()));
+        for (int i = 0; i < embedTargets.size(); i += batchSize) {
+            List<DocumentChunkJpaEntity> batch = embedTargets.subList(i, Math.min(i + batchSize, embedTargets.size()));
             List<String> texts = batch.stream()
                     .map(c -> c.getEnrichedContent() != null ? c.getEnrichedContent() : c.getContent())
                     .toList();
@@ -161,14 +248,22 @@ public class VectorizingService {
                 DocumentChunkJpaEntity chunk = batch.get(j);
                 String sourceType = chunk.getSourceType() != null ? chunk.getSourceType() : "INQUIRY";
                 String productFamily = resolvedProductFamily != null ? resolvedProductFamily : chunk.getProductFamily();
-                vectorStore.upsert(chunk.getId(), documentId, vectors.get(j), chunk.getContent(), sourceType, productFamily);
+                if (plan != null) {
+                    vectorStore.upsertShared(chunk.getId(), vectors.get(j), chunk.getContent(), sourceType,
+                            VectorPointMembership.single(chunk.getId(), documentId, productFamily));
+                } else {
+                    vectorStore.upsert(chunk.getId(), documentId, vectors.get(j), chunk.getContent(), sourceType, productFamily);
+                }
             }
         }
 
-        if (ragMetricsService != null) ragMetricsService.record(null, "INDEXING_TIME", System.currentTimeMillis() - indexingStart);
-        return chunks.size();
+        if (plan != null) {
+            sharedPointIndex.register(documentId, resolvedProductFamily, plan);
+        }
     }
 
+    private record DocumentContext(String productFamily, String text, String fileName) {}
+
     /**
      * Parent 청크 수에 따라 enrichment 전략을 결정하고 적용한다.
      *
@@ -0,0 +1,266 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 봉인된 세그먼트 위의 IVF(inverted file) 중심점 계층.
+ *
+ * <p>정규화한 표본 벡터로 spherical k-means를 돌려 중심점을 만들고, 세그먼트의 각 행을 가장 가까운 중심점 리스트에 넣는다.
+ * 세그먼트는 불변이므로 학습·배정은 락 없이 수행하며, 삭제된 행도 리스트에 남고 검색 시 tombstone으로 걸러진다.
+ * 배정되지 않은 세그먼트(학습 이후 flush·병합된 세그먼트, 다른 차원)는 검색 시 전수 비교한다.
+ */
+final class IvfIndex {
+
+    /** 중심점당 표본 수와 표본 상한 (1536차원 기준 약 100MB) */
+    private static final int SAMPLES_PER_LIST = 32;
+    private static final int MAX_TRAINING_SAMPLE = 16_384;
+
+    private final int dimension;
+    private final float[][] centroids;
+    private final int trainedPoints;
+    private final Map<VectorSegment, int[][]> lists = new ConcurrentHashMap<>();
+
+    private IvfIndex(int dimension, float[][] centroids, int trainedPoints) {
+        this.dimension = dimension;
+        this.centroids = centroids;
+        this.trainedPoints = trainedPoints;
+    }
+
+    /**
+     * {@code dimension} 차원 세그먼트의 행에서 표본을 뽑아 중심점을 학습한다. 세그먼트 배정은 {@link #assign}으로 따로 한다.
+     */
+    static IvfIndex train(List<VectorSegment> segments, int dimension, int listCount, int iterations, long seed) {
+        List<VectorSegment> eligible = segments.stream().filter(s -> s.dimension() == dimension).toList();
+        int total = eligible.stream().mapToInt(VectorSegment::rowCount).sum();
+        if (total == 0) {
+            throw new IllegalArgumentException("No rows to train IVF centroids for dim=" + dimension);
+        }
+        Random random = new Random(seed);
+        int sampleSize = Math.min(total, Math.min(MAX_TRAINING_SAMPLE, listCount * SAMPLES_PER_LIST));
+        float[][] sample = new float[sampleSize][];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = normalized(vectorAt(eligible, random.nextInt(total)));
+        }
+
+        int k = Math.max(1, Math.min(listCount, sampleSize));
+        float[][] centroids = new float[k][];
+        int[] order = shuffled(sampleSize, random);
+        for (int c = 0; c < k; c++) {
+            centroids[c] = sample[order[c]].clone();
+        }
+
+        int[] assignment = new int[sampleSize];
+        for (int iteration = 0; iteration < Math.max(1, iterations); iteration++) {
+            boolean changed = false;
+            for (int i = 0; i < sampleSize; i++) {
+                int nearest = nearest(centroids, sample[i]);
+                if (iteration == 0 || nearest != assignment[i]) {
+                    assignment[i] = nearest;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+            double[][] sums = new double[k][dimension];
+            int[] counts = new int[k];
+            for (int i = 0; i < sampleSize; i++) {
+                double[] sum = sums[assignment[i]];
+                float[] vector = sample[i];
+                for (int d = 0; d < dimension; d++) {
+                    sum[d] += vector[d];
+                }
+                counts[assignment[i]]++;
+            }
+            for (int c = 0; c < k; c++) {
+                // 빈 클러스터는 임의 표본으로 다시 시드한다
+                centroids[c] = counts[c] == 0 ? sample[random.nextInt(sampleSize)].clone() : normalized(sums[c]);
+            }
+        }
+        return new IvfIndex(dimension, centroids, total);
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    int listCount() {
+        return centroids.length;
+    }
+
+    int trainedPoints() {
+        return trainedPoints;
+    }
+
+    boolean covers(VectorSegment segment) {
+        return lists.containsKey(segment);
+    }
+
+    int assignedSegments() {
+        return lists.size();
+    }
+
+    /** 세그먼트의 모든 행을 가장 가까운 중심점 리스트에 배정한다. */
+    void assign(VectorSegment segment) {
+        if (segment.dimension() != dimension) {
+            return;
+        }
+        int[] owner = new int[segment.rowCount()];
+        int[] counts = new int[centroids.length];
+        for (int row = 0; row < owner.length; row++) {
+            owner[row] = nearest(centroids, segment.vector(row));
+            counts[owner[row]]++;
+        }
+        int[][] segmentLists = new int[centroids.length][];
+        for (int c = 0; c < centroids.length; c++) {
+            segmentLists[c] = new int[counts[c]];
+        }
+        int[] fill = new int[centroids.length];
+        for (int row = 0; row < owner.length; row++) {
+            segmentLists[owner[row]][fill[owner[row]]++] = row;
+        }
+        lists.put(segment, segmentLists);
+    }
+
+    /** 현재 세그먼트 목록에 없는 (병합으로 교체된) 세그먼트의 리스트를 버린다. */
+    void retain(Collection<VectorSegment> live) {
+        Set<VectorSegment> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+        keep.addAll(live);
+        lists.keySet().retainAll(keep);
+    }
+
+    /** 쿼리와 코사인이 가장 큰 중심점 {@code nprobe}개 */
+    int[] probe(float[] query, int nprobe) {
+        int n = Math.min(Math.max(1, nprobe), centroids.length);
+        double[] scores = new double[centroids.length];
+        for (int c = 0; c < centroids.length; c++) {
+            scores[c] = dot(centroids[c], query);
+        }
+        int[] best = new int[n];
+        boolean[] taken = new boolean[centroids.length];
+        for (int i = 0; i < n; i++) {
+            int pick = -1;
+            for (int c = 0; c < centroids.length; c++) {
+                if (!taken[c] && (pick < 0 || scores[c] > scores[pick])) {
+                    pick = c;
+                }
+            }
+            taken[pick] = true;
+            best[i] = pick;
+        }
+        return best;
+    }
+
+    /**
+     * 탐색할 리스트에 속한 세그먼트 행. 배정되지 않은 세그먼트면 null(전수 비교).
+     * 각 행은 리스트 하나에만 속하므로 중복이 없다.
+     */
+    int[] rows(VectorSegment segment, int[] probes) {
+        int[][] segmentLists = lists.get(segment);
+        if (segmentLists == null) {
+            return null;
+        }
+        int size = 0;
+        for (int probe : probes) {
+            size += segmentLists[probe].length;
+        }
+        int[] rows = new int[size];
+        int offset = 0;
+        for (int probe : probes) {
+            System.arraycopy(segmentLists[probe], 0, rows, offset, segmentLists[probe].length);
+            offset += segmentLists[probe].length;
+        }
+        return rows;
+    }
+
+    /** 중심점별 배정 행 수 (삭제된 행 포함) */
+    int[] listSizes() {
+        int[] sizes = new int[centroids.length];
+        for (int[][] segmentLists : lists.values()) {
+            for (int c = 0; c < sizes.length; c++) {
+                sizes[c] += segmentLists[c].length;
+            }
+        }
+        return sizes;
+    }
+
+    private static float[] vectorAt(List<VectorSegment> segments, int globalRow) {
+        int remaining = globalRow;
+        for (VectorSegment segment : segments) {
+            if (remaining < segment.rowCount()) {
+                return segment.vector(remaining);
+            }
+            remaining -= segment.rowCount();
+        }
+        throw new IndexOutOfBoundsException("row " + globalRow);
+    }
+
+    private static int nearest(float[][] centroids, float[] vector) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < centroids.length; c++) {
+            double score = dot(centroids[c], vector);
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        int n = Math.min(a.length, b.length);
+        double sum = 0d;
+        for (int i = 0; i < n; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static float[] normalized(float[] vector) {
+        float norm = SegmentCodec.norm(vector);
+        float[] unit = new float[vector.length];
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                unit[i] = vector[i] / norm;
+            }
+        }
+        return unit;
+    }
+
+    private static float[] normalized(double[] sum) {
+        double squared = 0d;
+        for (double value : sum) {
+            squared += value * value;
+        }
+        double norm = Math.sqrt(squared);
+        float[] unit = new float[sum.length];
+        if (norm > 0) {
+            for (int i = 0; i < sum.length; i++) {
+                unit[i] = (float) (sum[i] / norm);
+            }
+        }
+        return unit;
+    }
+
+    private static int[] shuffled(int size, Random random) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,46 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 세그먼트 스토어 IVF 중심점 계층 설정 ({@code vector.segment.ivf.*}).
+ *
+ * <p>필터 없는 검색에만 쓰는 근사 라우팅이다. 봉인된 포인트가 {@code min-points} 이상이면 백그라운드 작업이
+ * k-means로 {@code lists}개 중심점을 학습하고, 검색은 쿼리와 가까운 {@code nprobe}개 리스트의 행만 비교한다.
+ */
+@Component
+@ConfigurationProperties(prefix = "vector.segment.ivf")
+public class IvfIndexProperties {
+
+    private boolean enabled = false;
+    /** 중심점 수 (0이면 봉인된 포인트 수의 제곱근, 16~1024) */
+    private int lists = 0;
+    /** 검색 시 비교할 가장 가까운 리스트 수 */
+    private int nprobe = 8;
+    /** 학습을 시작하는 최소 봉인 포인트 수 */
+    private int minPoints = 20_000;
+    private int iterations = 10;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getLists() { return lists; }
+    public void setLists(int lists) { this.lists = lists; }
+
+    public int getNprobe() { return nprobe; }
+    public void setNprobe(int nprobe) { this.nprobe = nprobe; }
+
+    public int getMinPoints() { return minPoints; }
+    public void setMinPoints(int minPoints) { this.minPoints = minPoints; }
+
+    public int getIterations() { return iterations; }
+    public void setIterations(int iterations) { this.iterations = iterations; }
+
+    int listsFor(int points) {
+        if (lists > 0) {
+            return lists;
+        }
+        return (int) Math.max(16, Math.min(1024, Math.round(Math.sqrt(points))));
+    }
+}
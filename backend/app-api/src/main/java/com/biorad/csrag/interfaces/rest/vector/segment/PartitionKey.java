@@ -0,0 +1,29 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 세그먼트 내부 파티션 키 ({@code sourceType} × {@code productFamily}).
+ * 제품군은 소문자로 정규화하며, 제품군이 없는 포인트는 {@code productFamily == null} 파티션에 속한다.
+ * 여러 제품군을 가진 공유 포인트는 제품군마다 한 파티션씩 중복 등록된다.
+ */
+record PartitionKey(String sourceType, String productFamily) {
+
+    static List<PartitionKey> of(String sourceType, List<String> productFamilies) {
+        if (productFamilies.isEmpty()) {
+            return List.of(new PartitionKey(sourceType, null));
+        }
+        Set<PartitionKey> keys = new LinkedHashSet<>();
+        for (String family : productFamilies) {
+            keys.add(new PartitionKey(sourceType, normalize(family)));
+        }
+        return List.copyOf(keys);
+    }
+
+    static String normalize(String productFamily) {
+        return productFamily == null ? null : productFamily.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,114 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 세그먼트 파일·WAL 공용 바이너리 인코딩.
+ * 문자열은 {@code int 길이(-1 = null) + UTF-8}, UUID는 {@code long msb + long lsb}다.
+ */
+final class SegmentCodec {
+
+    private SegmentCodec() {
+    }
+
+    static void writeUuid(DataOutput out, UUID value) throws IOException {
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** 포인트 메타데이터(포인트·대표 청크·멤버 문서·sourceType·제품군) */
+    static void writeMembership(DataOutput out, UUID pointId, UUID chunkId, List<UUID> documentIds,
+                                String sourceType, List<String> productFamilies) throws IOException {
+        writeUuid(out, pointId);
+        writeUuid(out, chunkId);
+        out.writeInt(documentIds.size());
+        for (UUID documentId : documentIds) {
+            writeUuid(out, documentId);
+        }
+        writeString(out, sourceType);
+        out.writeInt(productFamilies.size());
+        for (String family : productFamilies) {
+            writeString(out, family);
+        }
+    }
+
+    static List<UUID> readUuids(ByteBuffer in) {
+        int count = in.getInt();
+        List<UUID> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readUuid(in));
+        }
+        return values;
+    }
+
+    static List<String> readStrings(ByteBuffer in) {
+        int count = in.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    static float norm(float[] vector) {
+        return norm(vector, vector.length);
+    }
+
+    /** 앞 {@code length}개 원소의 L2 norm */
+    static float norm(float[] vector, int length) {
+        double sum = 0d;
+        for (int i = 0; i < length; i++) {
+            sum += vector[i] * vector[i];
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    /** 임시 파일에 쓰고 fsync 후 원자적으로 교체한다. */
+    static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,39 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import com.biorad.csrag.interfaces.rest.vector.VectorPointMembership;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 아직 세그먼트로 봉인되지 않은(memtable·WAL) 벡터 포인트.
+ * 공유 포인트는 documentIds/productFamilies에 멤버가 여러 개다 (첫 번째가 대표 문서).
+ */
+record SegmentRecord(UUID pointId, UUID chunkId, List<UUID> documentIds, String sourceType,
+                     List<String> productFamilies, String content, float[] vector) {
+
+    SegmentRecord {
+        documentIds = List.copyOf(documentIds);
+        productFamilies = List.copyOf(productFamilies);
+    }
+
+    static SegmentRecord of(UUID pointId, VectorPointMembership membership, String sourceType,
+                            String content, List<Double> vector) {
+        float[] values = new float[vector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.get(i).floatValue();
+        }
+        return new SegmentRecord(pointId, membership.representativeChunkId(), membership.documentIds(), sourceType,
+                membership.productFamilies(), content, values);
+    }
+
+    SegmentRecord withMembership(VectorPointMembership membership) {
+        return new SegmentRecord(pointId, membership.representativeChunkId(), membership.documentIds(), sourceType,
+                membership.productFamilies(),
+                membership.representativeContent() != null ? membership.representativeContent() : content, vector);
+    }
+
+    float norm() {
+        return SegmentCodec.norm(vector);
+    }
+}
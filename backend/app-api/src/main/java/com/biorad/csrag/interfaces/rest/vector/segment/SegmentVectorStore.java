@@ -0,0 +1,843 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import com.biorad.csrag.interfaces.rest.search.SearchFilter;
+import com.biorad.csrag.interfaces.rest.vector.MatryoshkaSearchProperties;
+import com.biorad.csrag.interfaces.rest.vector.VectorPointMembership;
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchQuery;
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchResult;
+import com.biorad.csrag.interfaces.rest.vector.VectorStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 디스크 세그먼트 기반 인프로세스 벡터 스토어 ({@code vector.provider=segment}).
+ *
+ * <p>{@code MockVectorStore}와 같은 검색 의미(코사인 전수 비교, 동일한 필터 규칙)를 유지하면서 재시작 후에도 인덱스가 남는다.
+ * <ul>
+ *   <li>쓰기는 WAL({@code wal.log})에 먼저 기록한 뒤 힙의 memtable에 반영한다</li>
+ *   <li>memtable이 {@code flush-threshold}에 도달하면 불변 세그먼트({@link VectorSegment})로 봉인하고 매니페스트를 교체한 뒤 WAL을 비운다</li>
+ *   <li>봉인된 행의 삭제·갱신은 tombstone 비트맵에 표시하고, 백그라운드 병합이 삭제 비율이 높거나 작은 세그먼트를 다시 써서 제거한다</li>
+ * </ul>
+ * 재시작 시에는 매니페스트의 세그먼트를 메모리 맵으로 열고(행 메타데이터만 디코딩) WAL만 재생하므로 재임베딩이 필요 없다.
+ *
+ * <p>세그먼트 행은 {@link PartitionKey}(sourceType × 제품군) 파티션으로 나뉘어 있어 제품군·sourceType 필터 검색은
+ * 해당 파티션 행만 방문한다. 필터 없는 검색은 {@code vector.segment.ivf}가 켜져 있으면 IVF 중심점 계층({@link IvfIndex})으로
+ * 가까운 리스트만 비교한다. 파티션·IVF 분포는 {@link #getIndexStats()}로 조회한다.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "vector", name = "provider", havingValue = "segment")
+public class SegmentVectorStore implements VectorStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentVectorStore.class);
+
+    private static final String MANIFEST = "MANIFEST";
+    private static final String MANIFEST_HEADER = "csrag-vector-segments 1";
+    private static final String WAL = "wal.log";
+
+    private record Location(VectorSegment segment, int row) {}
+
+    private record Candidate(double score, SegmentRecord record, VectorSegment segment, int row) {}
+
+    /** 세그먼트별 방문 행 선택: 파티션(정확) → IVF 리스트(근사, 필터 없는 검색) → 전체 행 */
+    private record Routing(Predicate<PartitionKey> partitions, IvfIndex ivf, int[] probes) {
+        static final Routing ALL = new Routing(null, null, null);
+
+        /** null이면 세그먼트 전체 행 */
+        int[] rows(VectorSegment segment) {
+            if (partitions != null) {
+                return segment.partitionRows(partitions);
+            }
+            return ivf != null ? ivf.rows(segment, probes) : null;
+        }
+
+        boolean approximate() {
+            return ivf != null;
+        }
+    }
+
+    /** 봉인된 포인트가 마지막 학습 시점의 이 배수 이상이 되면 IVF 중심점을 다시 학습한다 */
+    private static final int IVF_RETRAIN_GROWTH = 2;
+
+    private final Path directory;
+    private final int flushThreshold;
+    private final double compactionDeletedRatio;
+    private final int maxSegments;
+    private final String collection;
+    private final MatryoshkaSearchProperties matryoshka;
+    private final IvfIndexProperties ivfProperties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final Map<UUID, SegmentRecord> memtable = new LinkedHashMap<>();
+    private final Map<UUID, Location> locations = new HashMap<>();
+    private final AtomicLong nextSegmentId = new AtomicLong(1);
+    private final WriteAheadLog wal;
+    private volatile List<VectorSegment> segments = List.of();
+    private volatile IvfIndex ivf;
+
+    public SegmentVectorStore(
+            @Value("${vector.segment.directory:./data/vector-segments}") String directory,
+            @Value("${vector.segment.flush-threshold:4096}") int flushThreshold,
+            @Value("${vector.segment.fsync:false}") boolean fsync,
+            @Value("${vector.segment.compaction.deleted-ratio:0.3}") double compactionDeletedRatio,
+            @Value("${vector.segment.compaction.max-segments:8}") int maxSegments,
+            @Value("${vector.segment.collection:csrag_chunks}") String collection,
+            MatryoshkaSearchProperties matryoshka,
+            IvfIndexProperties ivfProperties
+    ) throws IOException {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.compactionDeletedRatio = compactionDeletedRatio;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.collection = collection;
+        this.matryoshka = matryoshka;
+        this.ivfProperties = ivfProperties;
+
+        long started = System.nanoTime();
+        Files.createDirectories(this.directory);
+        openSegments();
+        this.wal = new WriteAheadLog(this.directory.resolve(WAL), fsync);
+        List<WriteAheadLog.Entry> entries = wal.replay();
+        for (WriteAheadLog.Entry entry : entries) {
+            if (entry instanceof WriteAheadLog.Upsert upsert) {
+                applyUpsert(upsert.record());
+            } else if (entry instanceof WriteAheadLog.Delete delete) {
+                applyDelete(delete.pointId());
+            }
+        }
+        flushIfNeeded();
+        log.info("vector.segment.open directory={} segments={} points={} walEntries={} elapsedMs={}",
+                this.directory, segments.size(), size(), entries.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // ─── 쓰기 ───────────────────────────────────────────────────────────────
+
+    @Override
+    public void upsert(UUID chunkId, UUID documentId, List<Double> vector, String content) {
+        upsert(chunkId, documentId, vector, content, "INQUIRY");
+    }
+
+    @Override
+    public void upsert(UUID chunkId, UUID documentId, List<Double> vector, String content, String sourceType) {
+        upsert(chunkId, documentId, vector, content, sourceType, null);
+    }
+
+    @Override
+    public void upsert(UUID chunkId, UUID documentId, List<Double> vector, String content, String sourceType, String productFamily) {
+        write(SegmentRecord.of(chunkId, VectorPointMembership.single(chunkId, documentId, productFamily),
+                sourceType, content, vector));
+        log.debug("vector.upsert.success chunkId={} documentId={} sourceType={} productFamily={} dim={}",
+                chunkId, documentId, sourceType, productFamily, vector.size());
+    }
+
+    @Override
+    public void upsertShared(UUID pointId, List<Double> vector, String content, String sourceType,
+                             VectorPointMembership membership) {
+        write(SegmentRecord.of(pointId, membership, sourceType, content, vector));
+        log.debug("vector.upsertShared.success pointId={} documents={} dim={}", pointId, membership.documentIds().size(), vector.size());
+    }
+
+    /** 봉인된 포인트는 벡터·본문을 복사해 새 멤버십으로 다시 쓴다 (이전 행은 tombstone). 대표가 바뀌면 본문도 교체. */
+    @Override
+    public void updateMembership(UUID pointId, VectorPointMembership membership) {
+        lock.writeLock().lock();
+        try {
+            SegmentRecord current = memtable.get(pointId);
+            if (current == null) {
+                Location location = locations.get(pointId);
+                if (location == null) {
+                    return;
+                }
+                current = location.segment().toRecord(location.row());
+            }
+            SegmentRecord updated = current.withMembership(membership);
+            wal.appendUpsert(updated);
+            applyUpsert(updated);
+            flushIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("vector segment membership update failed: " + pointId, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deletePoints(Collection<UUID> pointIds) {
+        lock.writeLock().lock();
+        try {
+            for (UUID pointId : pointIds) {
+                if (memtable.containsKey(pointId) || locations.containsKey(pointId)) {
+                    wal.appendDelete(pointId);
+                    applyDelete(pointId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("vector segment delete failed", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteByDocumentId(UUID documentId) {
+        lock.writeLock().lock();
+        try {
+            Set<UUID> pointIds = new HashSet<>();
+            memtable.values().stream()
+                    .filter(r -> r.documentIds().contains(documentId))
+                    .forEach(r -> pointIds.add(r.pointId()));
+            locations.forEach((pointId, location) -> {
+                if (location.segment().row(location.row()).documentIds().contains(documentId)) {
+                    pointIds.add(pointId);
+                }
+            });
+            for (UUID pointId : pointIds) {
+                wal.appendDelete(pointId);
+                applyDelete(pointId);
+            }
+            log.info("vector.deleteByDocumentId.success documentId={} removed={}", documentId, pointIds.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("vector segment delete failed: " + documentId, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(SegmentRecord record) {
+        lock.writeLock().lock();
+        try {
+            wal.appendUpsert(record);
+            applyUpsert(record);
+            flushIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("vector segment upsert failed: " + record.pointId(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyUpsert(SegmentRecord record) {
+        Location previous = locations.remove(record.pointId());
+        if (previous != null) {
+            previous.segment().delete(previous.row());
+        }
+        memtable.put(record.pointId(), record);
+    }
+
+    private void applyDelete(UUID pointId) {
+        memtable.remove(pointId);
+        Location previous = locations.remove(pointId);
+        if (previous != null) {
+            previous.segment().delete(previous.row());
+        }
+    }
+
+    // ─── 검색 ───────────────────────────────────────────────────────────────
+
+    @Override
+    public List<VectorSearchResult> search(List<Double> queryVector, int topK) {
+        return search(queryVector, topK, null);
+    }
+
+    /**
+     * 기본은 전체 차원 전수 비교. {@code vector.matryoshka}가 이 컬렉션에 켜져 있고 쿼리가 prefix보다 길면
+     * 앞 prefix 차원으로 후보를 고른 뒤 후보만 전체 차원으로 재채점한다.
+     */
+    @Override
+    public List<VectorSearchResult> search(List<Double> queryVector, int topK, SearchFilter filter) {
+        if (topK <= 0) {
+            return List.of();
+        }
+        float[] query = new float[queryVector.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = queryVector.get(i).floatValue();
+        }
+        double queryNorm = SegmentCodec.norm(query);
+        int prefix = matryoshka.prefixDimensionsFor(collection);
+        boolean twoStage = prefix > 0 && prefix < query.length;
+        Routing routing = route(query, filter);
+
+        lock.readLock().lock();
+        try {
+            List<Candidate> ranked = rank(query, queryNorm, prefix, twoStage, topK, filter, routing);
+            if (routing.approximate() && ranked.size() < topK) {
+                // 탐색한 IVF 리스트의 후보가 topK보다 적으면 전수 비교로 보완
+                ranked = rank(query, queryNorm, prefix, twoStage, topK, filter, Routing.ALL);
+            }
+            ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+            List<VectorSearchResult> results = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                if (candidate.record() != null) {
+                    SegmentRecord record = candidate.record();
+                    results.add(new VectorSearchResult(record.chunkId(), record.documentIds().get(0), record.content(),
+                            candidate.score(), record.sourceType()));
+                } else {
+                    VectorSegment.Row meta = candidate.segment().row(candidate.row());
+                    results.add(new VectorSearchResult(meta.chunkId(), meta.documentIds().get(0),
+                            candidate.segment().content(candidate.row()), candidate.score(), meta.sourceType()));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 쿼리마다 읽기 잠금을 따로 잡고 병렬로 스캔한다 (CPU 바운드라 공용 ForkJoinPool 크기로 제한된다).
+     */
+    @Override
+    public List<List<VectorSearchResult>> searchBatch(List<VectorSearchQuery> queries) {
+        return queries.parallelStream()
+                .map(q -> search(q.vector(), q.topK(), q.filter()))
+                .toList();
+    }
+
+    private List<Candidate> rank(float[] query, double queryNorm, int prefix, boolean twoStage, int topK,
+                                 SearchFilter filter, Routing routing) {
+        return twoStage
+                ? searchTwoStage(query, queryNorm, prefix, topK, filter, routing)
+                : scan(query, queryNorm, 0, 0d, topK, filter, routing);
+    }
+
+    /**
+     * 제품군·sourceType 조건이 있으면 해당 파티션만, 필터가 전혀 없고 IVF가 학습돼 있으면 가까운 리스트만 방문한다.
+     */
+    private Routing route(float[] query, SearchFilter filter) {
+        Predicate<PartitionKey> partitions = partitionSelector(filter);
+        if (partitions != null) {
+            return new Routing(partitions, null, null);
+        }
+        IvfIndex index = ivf;
+        if (index != null && (filter == null || filter.isEmpty()) && query.length == index.dimension()) {
+            return new Routing(null, index, index.probe(query, ivfProperties.getNprobe()));
+        }
+        return Routing.ALL;
+    }
+
+    /**
+     * 필터가 반드시 요구하는 제품군·sourceType으로 파티션을 고른다. 고른 파티션은 {@link #matches}를 통과할 수 있는 행의 상위집합이다.
+     * inquiry 스코핑(문서 OR sourceType)의 sourceType은 필수 조건이 아니므로 파티션 선택에 쓰지 않는다.
+     *
+     * @return 파티션으로 좁힐 수 없으면 null
+     */
+    static Predicate<PartitionKey> partitionSelector(SearchFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        boolean inquiryScoped = filter.hasDocumentFilter() && filter.hasSourceTypeFilter() && filter.inquiryId() != null;
+        Set<String> families = filter.hasProductFilter()
+                ? filter.productFamilies().stream().map(PartitionKey::normalize).collect(Collectors.toSet())
+                : null;
+        Set<String> sourceTypes = filter.hasSourceTypeFilter() && !inquiryScoped ? filter.sourceTypes() : null;
+        if (families == null && sourceTypes == null) {
+            return null;
+        }
+        return key -> (families == null || (key.productFamily() != null && families.contains(key.productFamily())))
+                && (sourceTypes == null || (key.sourceType() != null && sourceTypes.contains(key.sourceType())));
+    }
+
+    private List<Candidate> searchTwoStage(float[] query, double queryNorm, int prefix, int topK, SearchFilter filter,
+                                           Routing routing) {
+        double queryPrefixNorm = SegmentCodec.norm(query, prefix);
+        List<Candidate> candidates = scan(query, queryNorm, prefix, queryPrefixNorm, matryoshka.candidatesFor(topK),
+                filter, routing);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(topK + 1, Comparator.comparingDouble(Candidate::score));
+        for (Candidate candidate : candidates) {
+            double score = candidate.record() != null
+                    ? cosineSimilarity(query, candidate.record().vector())
+                    : candidate.segment().cosine(candidate.row(), query, queryNorm);
+            offer(best, topK, score, candidate.record(), candidate.segment(), candidate.row());
+        }
+        return new ArrayList<>(best);
+    }
+
+    /**
+     * 필터를 통과한 살아 있는 포인트 중 점수 상위 {@code limit}개. {@code prefix > 0}이면 앞 prefix 차원 코사인으로 점수를 매긴다.
+     * memtable은 항상 전부, 세그먼트는 {@code routing}이 고른 행만 방문한다.
+     */
+    private List<Candidate> scan(float[] query, double queryNorm, int prefix, double queryPrefixNorm,
+                                 int limit, SearchFilter filter, Routing routing) {
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Candidate::score));
+        for (SegmentRecord record : memtable.values()) {
+            if (matches(record.documentIds(), record.sourceType(), record.productFamilies(), filter)) {
+                double score = prefix > 0 && record.vector().length > prefix
+                        ? prefixCosine(query, record.vector(), prefix, queryPrefixNorm)
+                        : cosineSimilarity(query, record.vector());
+                offer(best, limit, score, record, null, -1);
+            }
+        }
+        for (VectorSegment segment : segments) {
+            boolean usePrefix = prefix > 0 && segment.dimension() > prefix;
+            int[] selected = routing.rows(segment);
+            int count = selected == null ? segment.rowCount() : selected.length;
+            for (int i = 0; i < count; i++) {
+                int row = selected == null ? i : selected[i];
+                if (segment.isDeleted(row)) {
+                    continue;
+                }
+                VectorSegment.Row meta = segment.row(row);
+                if (matches(meta.documentIds(), meta.sourceType(), meta.productFamilies(), filter)) {
+                    double score = usePrefix
+                            ? segment.prefixCosine(row, query, prefix, queryPrefixNorm)
+                            : segment.cosine(row, query, queryNorm);
+                    offer(best, limit, score, null, segment, row);
+                }
+            }
+        }
+        return new ArrayList<>(best);
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, int topK, double score,
+                              SegmentRecord record, VectorSegment segment, int row) {
+        if (best.size() < topK) {
+            best.add(new Candidate(score, record, segment, row));
+        } else if (score > best.peek().score()) {
+            best.poll();
+            best.add(new Candidate(score, record, segment, row));
+        }
+    }
+
+    /** {@code MockVectorStore}와 같은 필터 규칙 (inquiry 스코핑은 문서 OR sourceType). */
+    static boolean matches(List<UUID> documentIds, String sourceType, List<String> productFamilies, SearchFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return true;
+        }
+        boolean documentMatch = filter.hasDocumentFilter() && documentIds.stream().anyMatch(filter.documentIds()::contains);
+        boolean sourceTypeMatch = filter.hasSourceTypeFilter() && sourceType != null && filter.sourceTypes().contains(sourceType);
+        if (filter.hasDocumentFilter() && filter.hasSourceTypeFilter() && filter.inquiryId() != null) {
+            if (!documentMatch && !sourceTypeMatch) {
+                return false;
+            }
+        } else {
+            if (filter.hasDocumentFilter() && !documentMatch) {
+                return false;
+            }
+            if (filter.hasSourceTypeFilter() && !sourceTypeMatch) {
+                return false;
+            }
+        }
+        if (filter.hasProductFilter()) {
+            return productFamilies.stream()
+                    .anyMatch(family -> filter.productFamilies().stream().anyMatch(family::equalsIgnoreCase));
+        }
+        return true;
+    }
+
+    private static double prefixCosine(float[] query, float[] vector, int prefix, double queryPrefixNorm) {
+        double dot = 0d;
+        for (int i = 0; i < prefix; i++) {
+            dot += query[i] * vector[i];
+        }
+        double norm = SegmentCodec.norm(vector, prefix);
+        return norm == 0 || queryPrefixNorm == 0 ? 0d : dot / (norm * queryPrefixNorm);
+    }
+
+    private static double cosineSimilarity(float[] a, float[] b) {
+        int n = Math.min(a.length, b.length);
+        if (n == 0) return 0d;
+
+        double dot = 0d;
+        double normA = 0d;
+        double normB = 0d;
+        for (int i = 0; i < n; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) return 0d;
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    // ─── flush / 병합 ───────────────────────────────────────────────────────
+
+    private void flushIfNeeded() throws IOException {
+        if (memtable.size() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    /**
+     * memtable을 차원별 세그먼트로 봉인한다. 호출자는 쓰기 락을 잡고 있어야 한다.
+     * 순서: 세그먼트 파일 → tombstone → 매니페스트 → WAL 비우기. 어느 단계에서 중단돼도 WAL 재생으로 복구된다.
+     */
+    private void flush() throws IOException {
+        if (memtable.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        Map<Integer, List<SegmentRecord>> byDimension = new TreeMap<>();
+        memtable.values().forEach(r -> byDimension.computeIfAbsent(r.vector().length, d -> new ArrayList<>()).add(r));
+
+        List<VectorSegment> updated = new ArrayList<>(segments);
+        for (List<SegmentRecord> records : byDimension.values()) {
+            VectorSegment segment = VectorSegment.write(directory, nextSegmentId.getAndIncrement(), records);
+            for (int row = 0; row < segment.rowCount(); row++) {
+                locations.put(segment.row(row).pointId(), new Location(segment, row));
+            }
+            updated.add(segment);
+        }
+        for (VectorSegment segment : updated) {
+            segment.persistTombstones();
+        }
+        writeManifest(updated);
+        segments = List.copyOf(updated);
+        wal.reset();
+        log.info("vector.segment.flush points={} segments={} elapsedMs={}",
+                memtable.size(), updated.size(), (System.nanoTime() - started) / 1_000_000);
+        memtable.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${vector.segment.compaction.interval-ms:60000}")
+    public void compact() {
+        try {
+            compactOnce();
+            refreshIvf();
+        } catch (IOException | RuntimeException e) {
+            log.warn("vector.segment.compaction.failed error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 삭제 비율이 {@code compaction.deleted-ratio} 이상인 세그먼트와, 개수가 {@code max-segments}를 넘을 때의 가장 작은 세그먼트들을
+     * 살아 있는 행만 남겨 다시 쓴다. 새 세그먼트는 락 밖에서 쓰고, 교체 시점에 그 사이 삭제·갱신된 행을 tombstone으로 반영한다.
+     *
+     * @return 병합된 원본 세그먼트 수
+     */
+    int compactOnce() throws IOException {
+        if (!compactionLock.tryLock()) {
+            return 0;
+        }
+        try {
+            List<VectorSegment> picked;
+            lock.readLock().lock();
+            try {
+                picked = pickForCompaction(segments);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (picked.isEmpty()) {
+                return 0;
+            }
+            long started = System.nanoTime();
+
+            Map<Integer, List<Location>> liveByDimension = new TreeMap<>();
+            lock.readLock().lock();
+            try {
+                for (VectorSegment segment : picked) {
+                    for (int row = 0; row < segment.rowCount(); row++) {
+                        if (!segment.isDeleted(row)) {
+                            liveByDimension.computeIfAbsent(segment.dimension(), d -> new ArrayList<>())
+                                    .add(new Location(segment, row));
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            // 원본 세그먼트는 불변이고 병합 중에는 지워지지 않으므로 락 없이 읽는다
+            List<VectorSegment> merged = new ArrayList<>();
+            List<List<Location>> sources = new ArrayList<>();
+            for (Map.Entry<Integer, List<Location>> group : liveByDimension.entrySet()) {
+                List<Location> rows = group.getValue();
+                merged.add(VectorSegment.write(directory, nextSegmentId.getAndIncrement(), group.getKey(), rows.size(),
+                        i -> rows.get(i).segment().toRecord(rows.get(i).row())));
+                sources.add(rows);
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (int s = 0; s < merged.size(); s++) {
+                    VectorSegment segment = merged.get(s);
+                    List<Location> rows = sources.get(s);
+                    for (int row = 0; row < segment.rowCount(); row++) {
+                        UUID pointId = segment.row(row).pointId();
+                        if (rows.get(row).equals(locations.get(pointId))) {
+                            locations.put(pointId, new Location(segment, row));
+                        } else {
+                            segment.delete(row);
+                        }
+                    }
+                    segment.persistTombstones();
+                }
+                List<VectorSegment> updated = new ArrayList<>(segments);
+                updated.removeAll(picked);
+                updated.addAll(merged);
+                writeManifest(updated);
+                segments = List.copyOf(updated);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (VectorSegment segment : picked) {
+                segment.deleteFiles();
+            }
+            log.info("vector.segment.compaction merged={} into={} elapsedMs={}",
+                    picked.size(), merged.size(), (System.nanoTime() - started) / 1_000_000);
+            return picked.size();
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private List<VectorSegment> pickForCompaction(List<VectorSegment> current) {
+        List<VectorSegment> picked = new ArrayList<>();
+        List<VectorSegment> remaining = new ArrayList<>();
+        for (VectorSegment segment : current) {
+            (segment.deletedRatio() >= compactionDeletedRatio ? picked : remaining).add(segment);
+        }
+        remaining.sort(Comparator.comparingInt(VectorSegment::liveCount));
+        while (!remaining.isEmpty() && remaining.size() + (picked.isEmpty() ? 0 : 1) > maxSegments) {
+            picked.add(remaining.remove(0));
+        }
+        if (picked.size() == 1 && picked.get(0).deletedRatio() < compactionDeletedRatio) {
+            return List.of();
+        }
+        return picked;
+    }
+
+    // ─── IVF ────────────────────────────────────────────────────────────────
+
+    /**
+     * 가장 많은 행을 가진 차원의 봉인된 포인트가 {@code min-points} 이상이면 IVF 중심점을 학습하고(포인트가
+     * 마지막 학습 대비 {@value #IVF_RETRAIN_GROWTH}배가 되면 재학습), 아직 배정되지 않은 세그먼트를 배정한다.
+     * 세그먼트가 불변이라 학습·배정은 락 없이 하고 완성된 인덱스만 게시한다. 그 사이 flush된 세그먼트는 다음 실행까지 전수 비교된다.
+     *
+     * @return 중심점을 새로 학습했으면 true
+     */
+    boolean refreshIvf() {
+        if (!ivfProperties.isEnabled()) {
+            ivf = null;
+            return false;
+        }
+        List<VectorSegment> current = segments;
+        Map<Integer, Integer> rowsByDimension = new HashMap<>();
+        current.forEach(segment -> rowsByDimension.merge(segment.dimension(), segment.rowCount(), Integer::sum));
+        Map.Entry<Integer, Integer> dominant = rowsByDimension.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+        if (dominant == null || dominant.getValue() < ivfProperties.getMinPoints()) {
+            ivf = null;
+            return false;
+        }
+
+        IvfIndex index = ivf;
+        boolean retrain = index == null || index.dimension() != dominant.getKey()
+                || dominant.getValue() >= (long) index.trainedPoints() * IVF_RETRAIN_GROWTH;
+        long started = System.nanoTime();
+        if (retrain) {
+            index = IvfIndex.train(current, dominant.getKey(), ivfProperties.listsFor(dominant.getValue()),
+                    ivfProperties.getIterations(), dominant.getValue());
+        }
+        int assigned = 0;
+        for (VectorSegment segment : current) {
+            if (segment.dimension() == index.dimension() && !index.covers(segment)) {
+                index.assign(segment);
+                assigned++;
+            }
+        }
+        index.retain(segments);
+        ivf = index;
+        if (retrain || assigned > 0) {
+            log.info("vector.segment.ivf retrained={} lists={} points={} assignedSegments={} elapsedMs={}",
+                    retrain, index.listCount(), dominant.getValue(), assigned, (System.nanoTime() - started) / 1_000_000);
+        }
+        return retrain;
+    }
+
+    // ─── 통계 ───────────────────────────────────────────────────────────────
+
+    /**
+     * 파티션별 살아 있는 포인트 수와 IVF 리스트 분포. 파티션 쏠림(특정 제품군 편중) 모니터링용이다.
+     */
+    public IndexStats getIndexStats() {
+        Map<PartitionKey, Integer> counts = new HashMap<>();
+        int memtablePoints;
+        int points;
+        int segmentCount;
+        lock.readLock().lock();
+        try {
+            for (SegmentRecord record : memtable.values()) {
+                for (PartitionKey key : PartitionKey.of(record.sourceType(), record.productFamilies())) {
+                    counts.merge(key, 1, Integer::sum);
+                }
+            }
+            for (VectorSegment segment : segments) {
+                segment.livePartitionCounts().forEach((key, live) -> counts.merge(key, live, Integer::sum));
+            }
+            memtablePoints = memtable.size();
+            points = memtablePoints + locations.size();
+            segmentCount = segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        int total = points;
+        List<PartitionStats> partitions = counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(e -> new PartitionStats(e.getKey().sourceType(), e.getKey().productFamily(), e.getValue(),
+                        total == 0 ? 0d : (double) e.getValue() / total))
+                .sorted(Comparator.comparingInt(PartitionStats::points).reversed())
+                .toList();
+        return new IndexStats(points, memtablePoints, segmentCount, partitions, ivfStats());
+    }
+
+    private IvfStats ivfStats() {
+        IvfIndex index = ivf;
+        if (index == null) {
+            return new IvfStats(ivfProperties.isEnabled(), false, 0, 0, ivfProperties.getNprobe(), 0, 0, 0, 0);
+        }
+        int[] sizes = index.listSizes();
+        return new IvfStats(true, true, index.dimension(), index.listCount(), ivfProperties.getNprobe(),
+                index.trainedPoints(), index.assignedSegments(),
+                Arrays.stream(sizes).min().orElse(0), Arrays.stream(sizes).max().orElse(0));
+    }
+
+    /**
+     * @param partitions sourceType × 제품군 파티션 (포인트 수 내림차순)
+     */
+    public record IndexStats(int points, int memtablePoints, int segments, List<PartitionStats> partitions, IvfStats ivf) {
+    }
+
+    /**
+     * @param productFamily 소문자 정규화된 제품군 (null = 제품군 없음)
+     * @param share         전체 포인트 대비 비율. 여러 제품군에 걸친 공유 포인트는 파티션마다 집계되어 합이 1을 넘을 수 있다
+     */
+    public record PartitionStats(String sourceType, String productFamily, int points, double share) {
+    }
+
+    /**
+     * @param smallestList 가장 작은 IVF 리스트의 행 수 (삭제 표시된 행 포함)
+     * @param largestList  가장 큰 IVF 리스트의 행 수
+     */
+    public record IvfStats(boolean enabled, boolean trained, int dimension, int lists, int nprobe, int trainedPoints,
+                           int assignedSegments, int smallestList, int largestList) {
+    }
+
+    // ─── 매니페스트 ─────────────────────────────────────────────────────────
+
+    private void writeManifest(List<VectorSegment> current) throws IOException {
+        StringBuilder manifest = new StringBuilder(MANIFEST_HEADER).append('\n');
+        for (VectorSegment segment : current) {
+            manifest.append("segment ").append(segment.id()).append('\n');
+        }
+        SegmentCodec.writeAtomically(directory.resolve(MANIFEST), manifest.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 매니페스트의 세그먼트를 열고, 등록되지 않은 세그먼트 디렉터리(중단된 flush·병합의 잔여물)를 지운다. */
+    private void openSegments() throws IOException {
+        Path manifestFile = directory.resolve(MANIFEST);
+        Set<Long> listed = new HashSet<>();
+        if (Files.exists(manifestFile)) {
+            List<String> lines = Files.readAllLines(manifestFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !MANIFEST_HEADER.equals(lines.get(0))) {
+                throw new IOException("Unsupported vector segment manifest: " + manifestFile);
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.startsWith("segment ")) {
+                    listed.add(Long.parseLong(line.substring("segment ".length()).trim()));
+                }
+            }
+        }
+
+        long maxId = 0;
+        try (Stream<Path> children = Files.list(directory)) {
+            for (Path child : children.toList()) {
+                String name = child.getFileName().toString();
+                if (Files.isDirectory(child) && name.startsWith(VectorSegment.DIRECTORY_PREFIX)) {
+                    long id = Long.parseLong(name.substring(VectorSegment.DIRECTORY_PREFIX.length()));
+                    maxId = Math.max(maxId, id);
+                    if (!listed.contains(id)) {
+                        VectorSegment.deleteDirectory(child);
+                    }
+                }
+            }
+        }
+        nextSegmentId.set(maxId + 1);
+
+        List<VectorSegment> opened = new ArrayList<>();
+        for (long id : listed.stream().sorted().toList()) {
+            VectorSegment segment = VectorSegment.open(directory, id);
+            for (int row = 0; row < segment.rowCount(); row++) {
+                if (segment.isDeleted(row)) {
+                    continue;
+                }
+                // 같은 포인트가 여러 세그먼트에 살아 있으면 나중 세그먼트가 우선한다
+                Location previous = locations.put(segment.row(row).pointId(), new Location(segment, row));
+                if (previous != null) {
+                    previous.segment().delete(previous.row());
+                }
+            }
+            opened.add(segment);
+        }
+        segments = List.copyOf(opened);
+    }
+
+    // ─── 수명주기 ───────────────────────────────────────────────────────────
+
+    /** 종료 시 memtable을 봉인해 다음 기동 때 WAL 재생을 생략한다. */
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!memtable.isEmpty()) {
+                flush();
+            } else if (wal.sizeBytes() > 0) {
+                // 삭제만 남은 WAL: tombstone을 저장했으니 비워도 된다
+                for (VectorSegment segment : segments) {
+                    segment.persistTombstones();
+                }
+                wal.reset();
+            }
+            wal.close();
+        } catch (IOException e) {
+            log.warn("vector.segment.close.failed error={}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return memtable.size() + locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+}
@@ -0,0 +1,391 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 봉인된 불변 벡터 세그먼트 (삭제 표시만 변경 가능).
+ *
+ * <p>디렉터리 {@code seg-<id>/} 구성:
+ * <ul>
+ *   <li>{@code vectors.f32}: 행 순서대로 이어 붙인 float32 벡터 (little-endian). 메모리 맵으로 읽어 힙 대신 OS 페이지 캐시가 보관한다</li>
+ *   <li>{@code content.dat}: 청크 본문 UTF-8. 메모리 맵으로 두고 top-K 결과에 대해서만 디코딩한다</li>
+ *   <li>{@code rows.dat}: 헤더(차원·행 수) + 행별 ID·멤버십·본문 위치·벡터 norm. 필터링에 쓰이므로 열 때 힙에 디코딩한다</li>
+ *   <li>{@code tombstones.bin}: 삭제된 행 비트맵</li>
+ * </ul>
+ * 열 때 행 메타데이터로 {@link PartitionKey}별 행 번호 배열을 만들어, 제품군·sourceType 필터 검색이 해당 파티션 행만 방문하게 한다.
+ * 삭제 표시·영속화는 {@link SegmentVectorStore}의 쓰기 락 안에서만 호출된다.
+ */
+final class VectorSegment {
+
+    static final String DIRECTORY_PREFIX = "seg-";
+
+    private static final int MAGIC = 0x43535653; // "CSVS"
+    private static final int VERSION = 1;
+    private static final String VECTORS = "vectors.f32";
+    private static final String CONTENT = "content.dat";
+    private static final String ROWS = "rows.dat";
+    private static final String TOMBSTONES = "tombstones.bin";
+
+    /** 열 때 힙에 올리는 행 메타데이터 */
+    record Row(UUID pointId, UUID chunkId, List<UUID> documentIds, String sourceType, List<String> productFamilies,
+               long contentOffset, int contentLength, float norm) {}
+
+    private final long id;
+    private final Path directory;
+    private final int dimension;
+    private final List<Row> rows;
+    private final FloatBuffer vectors;
+    private final ByteBuffer content;
+    private final BitSet tombstones;
+    private final Map<PartitionKey, int[]> partitions;
+    private int deletedCount;
+    private boolean tombstonesDirty;
+    private volatile PrefixNorms prefixNorms;
+
+    /** 2단계 검색용 행별 앞쪽 차원 norm (길이별로 한 번 계산해 캐시) */
+    private record PrefixNorms(int length, float[] norms) {}
+
+    private VectorSegment(long id, Path directory, int dimension, List<Row> rows, FloatBuffer vectors,
+                          ByteBuffer content, BitSet tombstones) {
+        this.id = id;
+        this.directory = directory;
+        this.dimension = dimension;
+        this.rows = rows;
+        this.vectors = vectors;
+        this.content = content;
+        this.tombstones = tombstones;
+        this.partitions = partition(rows);
+        this.deletedCount = tombstones.cardinality();
+    }
+
+    private static Map<PartitionKey, int[]> partition(List<Row> rows) {
+        Map<PartitionKey, int[]> counts = new HashMap<>();
+        for (Row row : rows) {
+            for (PartitionKey key : PartitionKey.of(row.sourceType(), row.productFamilies())) {
+                counts.computeIfAbsent(key, k -> new int[1])[0]++;
+            }
+        }
+        Map<PartitionKey, int[]> partitions = new HashMap<>();
+        counts.forEach((key, count) -> partitions.put(key, new int[count[0]]));
+        Map<PartitionKey, int[]> fill = new HashMap<>();
+        for (int index = 0; index < rows.size(); index++) {
+            Row row = rows.get(index);
+            for (PartitionKey key : PartitionKey.of(row.sourceType(), row.productFamilies())) {
+                partitions.get(key)[fill.computeIfAbsent(key, k -> new int[1])[0]++] = index;
+            }
+        }
+        return Map.copyOf(partitions);
+    }
+
+    static Path directory(Path root, long id) {
+        return root.resolve(DIRECTORY_PREFIX + id);
+    }
+
+    /**
+     * 같은 차원의 레코드로 새 세그먼트를 쓰고(fsync 포함) 연다.
+     * 매니페스트에 등록되기 전까지는 재시작 시 고아 디렉터리로 간주되어 지워진다.
+     */
+    static VectorSegment write(Path root, long id, List<SegmentRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty segment");
+        }
+        return write(root, id, records.get(0).vector().length, records.size(), records::get);
+    }
+
+    /**
+     * 행을 하나씩 받아 쓴다. 병합 시 원본 세그먼트의 벡터를 힙에 모두 올리지 않기 위함이다.
+     */
+    static VectorSegment write(Path root, long id, int dimension, int rowCount,
+                               IntFunction<SegmentRecord> rows) throws IOException {
+        if ((long) rowCount * dimension * Float.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment exceeds 2GB vector file: rows=" + rowCount + " dim=" + dimension);
+        }
+        Path directory = directory(root, id);
+        Files.createDirectories(directory);
+
+        ByteBuffer vectorRow = ByteBuffer.allocate(dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel vectorFile = FileChannel.open(directory.resolve(VECTORS), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedOutputStream contentOut = new BufferedOutputStream(Files.newOutputStream(directory.resolve(CONTENT)));
+             DataOutputStream rowFile = new DataOutputStream(new BufferedOutputStream(
+                     Files.newOutputStream(directory.resolve(ROWS))))) {
+            rowFile.writeInt(MAGIC);
+            rowFile.writeInt(VERSION);
+            rowFile.writeInt(dimension);
+            rowFile.writeInt(rowCount);
+            long contentOffset = 0;
+            for (int i = 0; i < rowCount; i++) {
+                SegmentRecord record = rows.apply(i);
+                if (record.vector().length != dimension) {
+                    throw new IllegalArgumentException("Mixed vector dimensions in one segment");
+                }
+                vectorRow.clear();
+                for (float value : record.vector()) {
+                    vectorRow.putFloat(value);
+                }
+                vectorRow.flip();
+                while (vectorRow.hasRemaining()) {
+                    vectorFile.write(vectorRow);
+                }
+                byte[] text = record.content() == null ? new byte[0] : record.content().getBytes(StandardCharsets.UTF_8);
+                contentOut.write(text);
+                SegmentCodec.writeMembership(rowFile, record.pointId(), record.chunkId(), record.documentIds(),
+                        record.sourceType(), record.productFamilies());
+                rowFile.writeLong(contentOffset);
+                rowFile.writeInt(text.length);
+                rowFile.writeFloat(record.norm());
+                contentOffset += text.length;
+                if (contentOffset > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Segment exceeds 2GB content file: rows=" + rowCount);
+                }
+            }
+        }
+        for (String file : List.of(VECTORS, CONTENT, ROWS)) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(file), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        return open(root, id);
+    }
+
+    static VectorSegment open(Path root, long id) throws IOException {
+        Path directory = directory(root, id);
+        ByteBuffer rowBytes = map(directory.resolve(ROWS));
+        if (rowBytes.getInt() != MAGIC || rowBytes.getInt() != VERSION) {
+            throw new IOException("Not a vector segment: " + directory);
+        }
+        int dimension = rowBytes.getInt();
+        int rowCount = rowBytes.getInt();
+        List<Row> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            UUID pointId = SegmentCodec.readUuid(rowBytes);
+            UUID chunkId = SegmentCodec.readUuid(rowBytes);
+            List<UUID> documentIds = List.copyOf(SegmentCodec.readUuids(rowBytes));
+            String sourceType = SegmentCodec.readString(rowBytes);
+            List<String> productFamilies = List.copyOf(SegmentCodec.readStrings(rowBytes));
+            rows.add(new Row(pointId, chunkId, documentIds, sourceType, productFamilies,
+                    rowBytes.getLong(), rowBytes.getInt(), rowBytes.getFloat()));
+        }
+        FloatBuffer vectors = map(directory.resolve(VECTORS)).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        ByteBuffer content = map(directory.resolve(CONTENT));
+        Path tombstoneFile = directory.resolve(TOMBSTONES);
+        BitSet tombstones = Files.exists(tombstoneFile) ? BitSet.valueOf(Files.readAllBytes(tombstoneFile)) : new BitSet(rowCount);
+        return new VectorSegment(id, directory, dimension, List.copyOf(rows), vectors, content, tombstones);
+    }
+
+    long id() {
+        return id;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    int rowCount() {
+        return rows.size();
+    }
+
+    int liveCount() {
+        return rows.size() - deletedCount;
+    }
+
+    double deletedRatio() {
+        return rows.isEmpty() ? 0d : (double) deletedCount / rows.size();
+    }
+
+    Row row(int index) {
+        return rows.get(index);
+    }
+
+    boolean isDeleted(int index) {
+        return tombstones.get(index);
+    }
+
+    /**
+     * 선택된 파티션들의 행 번호 (오름차순, 중복 제거). 여러 제품군에 걸친 공유 포인트는 한 번만 나온다.
+     */
+    int[] partitionRows(Predicate<PartitionKey> selected) {
+        int[] single = null;
+        BitSet union = null;
+        for (Map.Entry<PartitionKey, int[]> partition : partitions.entrySet()) {
+            if (!selected.test(partition.getKey())) {
+                continue;
+            }
+            if (single == null) {
+                single = partition.getValue();
+                continue;
+            }
+            if (union == null) {
+                union = new BitSet(rows.size());
+                for (int row : single) {
+                    union.set(row);
+                }
+            }
+            for (int row : partition.getValue()) {
+                union.set(row);
+            }
+        }
+        if (union != null) {
+            return union.stream().toArray();
+        }
+        return single == null ? new int[0] : single;
+    }
+
+    /** 파티션별 살아 있는 행 수 (운영 통계용) */
+    Map<PartitionKey, Integer> livePartitionCounts() {
+        Map<PartitionKey, Integer> counts = new HashMap<>();
+        partitions.forEach((key, partitionRows) -> {
+            int live = 0;
+            for (int row : partitionRows) {
+                if (!tombstones.get(row)) {
+                    live++;
+                }
+            }
+            counts.put(key, live);
+        });
+        return counts;
+    }
+
+    /** 행에 삭제 표시를 한다. 디스크 반영은 {@link #persistTombstones()}에서 한다. */
+    void delete(int index) {
+        if (!tombstones.get(index)) {
+            tombstones.set(index);
+            deletedCount++;
+            tombstonesDirty = true;
+        }
+    }
+
+    void persistTombstones() throws IOException {
+        if (tombstonesDirty) {
+            SegmentCodec.writeAtomically(directory.resolve(TOMBSTONES), tombstones.toByteArray());
+            tombstonesDirty = false;
+        }
+    }
+
+    /**
+     * 메모리 맵 벡터와 쿼리의 코사인 유사도.
+     * 차원이 같으면 저장된 행 norm을 쓰고, 다르면 공통 차원만으로 계산한다 ({@code MockVectorStore}와 동일).
+     */
+    double cosine(int index, float[] query, double queryNorm) {
+        int base = index * dimension;
+        int n = Math.min(dimension, query.length);
+        if (n == 0) {
+            return 0d;
+        }
+        double dot = 0d;
+        if (n == dimension && n == query.length) {
+            for (int i = 0; i < n; i++) {
+                dot += vectors.get(base + i) * query[i];
+            }
+            double norm = rows.get(index).norm();
+            return norm == 0 || queryNorm == 0 ? 0d : dot / (norm * queryNorm);
+        }
+        double normA = 0d;
+        double normB = 0d;
+        for (int i = 0; i < n; i++) {
+            float value = vectors.get(base + i);
+            dot += value * query[i];
+            normA += value * value;
+            normB += query[i] * query[i];
+        }
+        return normA == 0 || normB == 0 ? 0d : dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    /**
+     * 앞 {@code length}차원만 잘라 재정규화한 코사인 유사도 (Matryoshka 1단계 후보 점수).
+     */
+    double prefixCosine(int index, float[] query, int length, double queryPrefixNorm) {
+        int base = index * dimension;
+        double dot = 0d;
+        for (int i = 0; i < length; i++) {
+            dot += vectors.get(base + i) * query[i];
+        }
+        double norm = prefixNorms(length)[index];
+        return norm == 0 || queryPrefixNorm == 0 ? 0d : dot / (norm * queryPrefixNorm);
+    }
+
+    private float[] prefixNorms(int length) {
+        PrefixNorms cached = prefixNorms;
+        if (cached != null && cached.length() == length) {
+            return cached.norms();
+        }
+        float[] norms = new float[rows.size()];
+        for (int row = 0; row < norms.length; row++) {
+            int base = row * dimension;
+            double sum = 0d;
+            for (int i = 0; i < length; i++) {
+                float value = vectors.get(base + i);
+                sum += value * value;
+            }
+            norms[row] = (float) Math.sqrt(sum);
+        }
+        prefixNorms = new PrefixNorms(length, norms);
+        return norms;
+    }
+
+    float[] vector(int index) {
+        float[] values = new float[dimension];
+        vectors.get(index * dimension, values);
+        return values;
+    }
+
+    String content(int index) {
+        Row row = rows.get(index);
+        return StandardCharsets.UTF_8.decode(content.slice((int) row.contentOffset(), row.contentLength())).toString();
+    }
+
+    /** 행을 WAL·병합용 레코드로 복원한다 (벡터·본문을 힙으로 복사). */
+    SegmentRecord toRecord(int index) {
+        Row row = rows.get(index);
+        return new SegmentRecord(row.pointId(), row.chunkId(), row.documentIds(), row.sourceType(),
+                row.productFamilies(), content(index), vector(index));
+    }
+
+    /**
+     * 세그먼트 디렉터리를 지운다. 매핑은 GC될 때까지 유효하므로 진행 중인 검색에는 영향이 없다.
+     */
+    void deleteFiles() throws IOException {
+        deleteDirectory(directory);
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return ByteBuffer.allocate(0);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+}
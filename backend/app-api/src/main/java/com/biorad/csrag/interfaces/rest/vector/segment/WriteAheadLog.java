@@ -0,0 +1,157 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * memtable 변경을 기록하는 append-only write-ahead log.
+ *
+ * <p>프레임 형식: {@code int 길이 + int CRC32 + 본문}. 본문 첫 바이트가 연산({@code UPSERT}/{@code DELETE})이다.
+ * 재시작 시 {@link #replay()}가 유효한 프레임만 돌려주고, 쓰다 만 꼬리(길이·CRC 불일치)는 잘라낸다.
+ * 세그먼트 flush가 매니페스트까지 반영되면 {@link #reset()}으로 비운다.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_BYTES = 8;
+
+    sealed interface Entry permits Upsert, Delete {}
+
+    record Upsert(SegmentRecord record) implements Entry {}
+
+    record Delete(UUID pointId) implements Entry {}
+
+    private final FileChannel channel;
+    private final boolean fsync;
+
+    WriteAheadLog(Path path, boolean fsync) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fsync = fsync;
+    }
+
+    /** 유효한 엔트리를 기록 순서대로 읽고, 손상된 꼬리를 잘라낸 뒤 쓰기 위치를 끝으로 옮긴다. */
+    List<Entry> replay() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(body, position + HEADER_BYTES);
+            if (crc(body.array()) != checksum) {
+                break;
+            }
+            body.flip();
+            entries.add(decode(body));
+            position += HEADER_BYTES + length;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        channel.position(position);
+        return entries;
+    }
+
+    void appendUpsert(SegmentRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + record.vector().length * 4);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(UPSERT);
+        SegmentCodec.writeMembership(out, record.pointId(), record.chunkId(), record.documentIds(),
+                record.sourceType(), record.productFamilies());
+        SegmentCodec.writeString(out, record.content());
+        out.writeInt(record.vector().length);
+        for (float value : record.vector()) {
+            out.writeFloat(value);
+        }
+        append(bytes.toByteArray());
+    }
+
+    void appendDelete(UUID pointId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(17);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE);
+        SegmentCodec.writeUuid(out, pointId);
+        append(bytes.toByteArray());
+    }
+
+    /** 모든 엔트리가 세그먼트에 반영된 뒤 로그를 비운다. */
+    void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    long sizeBytes() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(byte[] body) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + body.length);
+        frame.putInt(body.length).putInt(crc(body)).put(body).flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+    }
+
+    private static Entry decode(ByteBuffer body) {
+        byte op = body.get();
+        if (op == DELETE) {
+            return new Delete(SegmentCodec.readUuid(body));
+        }
+        if (op != UPSERT) {
+            throw new IllegalStateException("Unknown WAL operation: " + op);
+        }
+        UUID pointId = SegmentCodec.readUuid(body);
+        UUID chunkId = SegmentCodec.readUuid(body);
+        List<UUID> documentIds = SegmentCodec.readUuids(body);
+        String sourceType = SegmentCodec.readString(body);
+        List<String> productFamilies = SegmentCodec.readStrings(body);
+        String content = SegmentCodec.readString(body);
+        float[] vector = new float[body.getInt()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = body.getFloat();
+        }
+        return new Upsert(new SegmentRecord(pointId, chunkId, documentIds, sourceType, productFamilies, content, vector));
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,46 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 대량 청크 저장(DocumentChunkBulkWriter)이 INSERT 문에서 content_tsv를 직접 계산하므로,
+ * INSERT 트리거는 content_tsv가 비어 있는 행(JPA 저장 등)에만 실행되도록 조건을 건다.
+ * content 수정 시 재계산하는 UPDATE 트리거는 그대로 유지한다.
+ */
+public class V45__ChunkTsvectorInsertTrigger extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conn = context.getConnection();
+
+        String dbProduct = conn.getMetaData().getDatabaseProductName();
+        if (!"PostgreSQL".equalsIgnoreCase(dbProduct)) {
+            return; // H2 no-op
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TRIGGER IF EXISTS trg_chunks_tsv ON document_chunks");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_chunks_tsv_insert ON document_chunks");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_chunks_tsv_update ON document_chunks");
+
+            // 1. INSERT: content_tsv를 함께 넣은 행은 트리거를 건너뛴다
+            stmt.execute("""
+                CREATE TRIGGER trg_chunks_tsv_insert
+                BEFORE INSERT ON document_chunks
+                FOR EACH ROW WHEN (NEW.content_tsv IS NULL)
+                EXECUTE FUNCTION document_chunks_tsv_trigger()
+                """);
+
+            // 2. UPDATE OF content: 기존과 동일하게 항상 재계산
+            stmt.execute("""
+                CREATE TRIGGER trg_chunks_tsv_update
+                BEFORE UPDATE OF content ON document_chunks
+                FOR EACH ROW EXECUTE FUNCTION document_chunks_tsv_trigger()
+                """);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * KB 인덱싱 작업 큐에서 문서당 활성(QUEUED·RUNNING) 작업을 하나로 강제한다.
+ *
+ * <p>PostgreSQL은 부분 유니크 인덱스를 쓰고, 부분 인덱스가 없는 H2는 활성 작업에만 값이 있는 생성 컬럼에
+ * 유니크 인덱스를 건다 (NULL은 중복 허용). 인덱스를 만들기 전에 이미 쌓인 중복 활성 작업을 하나로 합친다:
+ * 우선순위는 최댓값으로 올리고, RUNNING → 먼저 들어온 작업 순으로 하나만 남긴다.
+ */
+public class V50__KbIndexingJobActiveDocumentUnique extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conn = context.getConnection();
+        boolean postgres = "PostgreSQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+
+        try (Statement stmt = conn.createStatement()) {
+            // 1. 중복 활성 작업 정리
+            stmt.execute("""
+                UPDATE kb_indexing_jobs j
+                   SET priority = (SELECT MAX(o.priority) FROM kb_indexing_jobs o
+                                   WHERE o.document_id = j.document_id AND o.status IN ('QUEUED', 'RUNNING'))
+                 WHERE j.status IN ('QUEUED', 'RUNNING')
+                """);
+            stmt.execute("""
+                DELETE FROM kb_indexing_jobs j
+                 WHERE j.status IN ('QUEUED', 'RUNNING')
+                   AND EXISTS (SELECT 1 FROM kb_indexing_jobs k
+                               WHERE k.document_id = j.document_id
+                                 AND k.status IN ('QUEUED', 'RUNNING')
+                                 AND k.id <> j.id
+                                 AND ((k.status = 'RUNNING' AND j.status = 'QUEUED')
+                                      OR (k.status = j.status
+                                          AND (k.enqueued_at < j.enqueued_at
+                                               OR (k.enqueued_at = j.enqueued_at AND k.id < j.id)))))
+                """);
+
+            // 2. 문서당 활성 작업 1개
+            if (postgres) {
+                stmt.execute("""
+                    CREATE UNIQUE INDEX IF NOT EXISTS uq_kb_indexing_jobs_active_document
+                        ON kb_indexing_jobs (document_id) WHERE status IN ('QUEUED', 'RUNNING')
+                    """);
+            } else {
+                stmt.execute("""
+                    ALTER TABLE kb_indexing_jobs ADD COLUMN IF NOT EXISTS active_document_id UUID
+                        GENERATED ALWAYS AS (CASE WHEN status IN ('QUEUED', 'RUNNING') THEN document_id END)
+                    """);
+                stmt.execute("""
+                    CREATE UNIQUE INDEX IF NOT EXISTS uq_kb_indexing_jobs_active_document
+                        ON kb_indexing_jobs (active_document_id)
+                    """);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+-- V40: 운영 대시보드 일별 롤업 테이블
+-- OpsMetricsController가 원본 테이블 전체를 읽지 않고 (일 수 × 키) 행만 조회하도록 한다.
+-- 날짜는 UTC 기준이며 OpsRollupService가 최근 일자를 주기적으로 재계산한다.
+
+CREATE TABLE IF NOT EXISTS ops_daily_counts (
+    metric_date         DATE PRIMARY KEY,
+    inquiries_created   BIGINT NOT NULL DEFAULT 0,
+    drafts_created      BIGINT NOT NULL DEFAULT 0,
+    answers_sent        BIGINT NOT NULL DEFAULT 0,
+    evidence_total      BIGINT NOT NULL DEFAULT 0,
+    refreshed_at        TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ops_daily_step_latency (
+    metric_date         DATE NOT NULL,
+    step                VARCHAR(32) NOT NULL,
+    success_count       BIGINT NOT NULL DEFAULT 0,
+    latency_ms_sum      BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric_date, step)
+);
+
+CREATE TABLE IF NOT EXISTS ops_daily_failure_reasons (
+    metric_date         DATE NOT NULL,
+    reason              VARCHAR(80) NOT NULL,
+    failure_count       BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric_date, reason)
+);
+
+CREATE TABLE IF NOT EXISTS ops_daily_kb_document_refs (
+    metric_date         DATE NOT NULL,
+    document_id         UUID NOT NULL,
+    ref_count           BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric_date, document_id)
+);
+
+-- 일 단위 재계산 시 기간 조건만으로 스캔할 수 있도록 created_at/sent_at 단독 인덱스 추가
+CREATE INDEX IF NOT EXISTS idx_orchestration_runs_created ON orchestration_runs(created_at);
+CREATE INDEX IF NOT EXISTS idx_retrieval_evidence_created ON retrieval_evidence(created_at);
+CREATE INDEX IF NOT EXISTS idx_answer_drafts_created ON answer_drafts(created_at);
+CREATE INDEX IF NOT EXISTS idx_answer_drafts_sent_at ON answer_drafts(sent_at);
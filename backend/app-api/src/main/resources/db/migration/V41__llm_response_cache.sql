@@ -0,0 +1,16 @@
+-- V41__llm_response_cache.sql
+-- 결정적 LLM 응답 캐시 (질문 분해, 번역, HyDE, listwise rerank)
+
+CREATE TABLE IF NOT EXISTS llm_response_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    step VARCHAR(30) NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    prompt_version VARCHAR(16) NOT NULL,
+    response_text TEXT NOT NULL,
+    hit_count INTEGER DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_llm_response_cache_step ON llm_response_cache(step);
+CREATE INDEX idx_llm_response_cache_expires ON llm_response_cache(expires_at);
@@ -0,0 +1,10 @@
+-- V42__rate_limit_buckets.sql
+-- 다중 노드 공유 요청 속도 제한 상태 (app.rate-limit.store=jdbc)
+-- tat_us: GCRA theoretical arrival time (epoch microseconds). tat_us <= now 인 행은 가득 찬 버킷과 같아 삭제 가능.
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key  VARCHAR(200) PRIMARY KEY,
+    tat_us      BIGINT       NOT NULL,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_tat ON rate_limit_buckets (tat_us);
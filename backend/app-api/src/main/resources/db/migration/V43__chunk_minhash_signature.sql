@@ -0,0 +1,4 @@
+-- V43__chunk_minhash_signature.sql
+-- 근접 중복 근거 제거용 MinHash 서명 (Base64, 64 × int32 + 버전 바이트)
+-- 기존 청크는 NULL이며, 검색 시 excerpt로 계산하거나 재인덱싱 때 채워진다.
+ALTER TABLE document_chunks ADD COLUMN IF NOT EXISTS minhash_signature VARCHAR(400);
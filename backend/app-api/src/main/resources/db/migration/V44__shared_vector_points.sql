@@ -0,0 +1,30 @@
+-- V44__shared_vector_points.sql
+-- KB 문서 간 근접 중복 청크가 하나의 임베딩/벡터 포인트를 공유하도록 하는 멤버십 테이블
+-- vector_points: 포인트(=Qdrant point id)와 대표 청크, MinHash 서명
+-- vector_point_members: 포인트를 공유하는 청크와 소속 문서/제품군 (청크 행 삭제와 독립적으로 유지)
+-- vector_point_lsh_bands: 서명 밴드 해시 → 포인트 (인덱싱 시 후보 조회용 LSH 버킷)
+CREATE TABLE IF NOT EXISTS vector_points (
+    point_id                UUID         PRIMARY KEY,
+    representative_chunk_id UUID         NOT NULL,
+    signature               VARCHAR(400) NOT NULL,
+    created_at              TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS vector_point_members (
+    chunk_id        UUID         PRIMARY KEY,
+    point_id        UUID         NOT NULL,
+    document_id     UUID         NOT NULL,
+    product_family  VARCHAR(100)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vector_point_members_point ON vector_point_members (point_id);
+CREATE INDEX IF NOT EXISTS idx_vector_point_members_document ON vector_point_members (document_id);
+
+CREATE TABLE IF NOT EXISTS vector_point_lsh_bands (
+    band_hash   BIGINT    NOT NULL,
+    band        SMALLINT  NOT NULL,
+    point_id    UUID      NOT NULL,
+    PRIMARY KEY (band_hash, band, point_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vector_point_lsh_bands_point ON vector_point_lsh_bands (point_id);
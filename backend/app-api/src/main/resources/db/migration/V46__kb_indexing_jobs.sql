@@ -0,0 +1,27 @@
+-- V46__kb_indexing_jobs.sql
+-- KB 인덱싱 작업 큐 (재시작 후에도 남는 대기열, lease 기반 점유, 단계별 체크포인트)
+-- status: QUEUED(대기·재시도 대기) → RUNNING(lease 보유) → DONE | FAILED
+-- stage: 마지막으로 완료한 단계 (NONE → PARSED → CHUNKED → ENRICHED → INDEXED). 재개 시 다음 단계부터 실행
+-- lease_expires_at이 지난 RUNNING 작업은 다른 워커(노드)가 다시 점유할 수 있다
+CREATE TABLE IF NOT EXISTS kb_indexing_jobs (
+    id                UUID          PRIMARY KEY,
+    document_id       UUID          NOT NULL,
+    priority          INT           NOT NULL DEFAULT 0,
+    status            VARCHAR(20)   NOT NULL,
+    stage             VARCHAR(20)   NOT NULL DEFAULT 'NONE',
+    attempts          INT           NOT NULL DEFAULT 0,
+    lease_owner       VARCHAR(100),
+    lease_expires_at  TIMESTAMP,
+    next_attempt_at   TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error        VARCHAR(2000),
+    chunk_count       INT,
+    vector_count      INT,
+    enqueued_at       TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at        TIMESTAMP,
+    completed_at      TIMESTAMP,
+    updated_at        TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_kb_indexing_jobs_claim ON kb_indexing_jobs (status, priority, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_kb_indexing_jobs_document ON kb_indexing_jobs (document_id, status);
+CREATE INDEX IF NOT EXISTS idx_kb_indexing_jobs_completed ON kb_indexing_jobs (completed_at);
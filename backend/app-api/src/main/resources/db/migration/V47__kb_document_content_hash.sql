@@ -0,0 +1,7 @@
+-- V47__kb_document_content_hash.sql
+-- KB 업로드 파일의 SHA-256 (hex). 업로드 시 스트리밍으로 계산한다.
+-- 같은 해시의 INDEXED 문서가 있으면 파싱·청킹·임베딩 없이 기존 청크와 벡터 포인트를 공유한다.
+-- 기존 문서는 NULL (중복 판정 대상에서 제외).
+ALTER TABLE knowledge_documents ADD COLUMN IF NOT EXISTS content_sha256 VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_knowledge_documents_content_sha256 ON knowledge_documents (content_sha256);
@@ -0,0 +1,4 @@
+-- V48__document_content_hash.sql
+-- 문의 첨부 문서의 SHA-256 (hex). 업로드 시 스트리밍으로 계산하며 다운로드 응답의 강한 ETag로 쓴다.
+-- 기존 문서는 NULL (Last-Modified 기반 조건부 요청만 지원).
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_sha256 VARCHAR(64);
@@ -0,0 +1,4 @@
+-- V49__chunk_token_count.sql
+-- 청크 콘텐츠(공백 정규화 후)의 토큰 수. 인덱싱 시 compose 모델의 BPE 인코딩으로 한 번 계산해 두고
+-- compose 근거 패킹에서 재토큰화 없이 사용한다. 기존 청크는 NULL (조회 시 계산).
+ALTER TABLE document_chunks ADD COLUMN IF NOT EXISTS token_count INTEGER;
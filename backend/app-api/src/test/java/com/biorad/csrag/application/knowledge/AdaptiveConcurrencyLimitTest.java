@@ -0,0 +1,74 @@
+package com.biorad.csrag.application.knowledge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T00:00:00Z");
+    private static final Duration INTERVAL = Duration.ofSeconds(30);
+
+    @Test
+    void startsAtMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 8, INTERVAL, T0);
+
+        assertThat(limit.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void throttle_halvesLimitDownToMin() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 8, INTERVAL, T0);
+
+        limit.onThrottle(T0);
+        assertThat(limit.limit()).isEqualTo(4);
+
+        limit.onThrottle(T0.plusSeconds(20));
+        limit.onThrottle(T0.plusSeconds(40));
+        assertThat(limit.limit()).isEqualTo(2);
+        assertThat(limit.decreases()).isEqualTo(2);
+    }
+
+    @Test
+    void throttleBurst_withinCooldown_countsOnce() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 8, INTERVAL, T0);
+
+        limit.onThrottle(T0);
+        limit.onThrottle(T0.plusSeconds(1));
+        limit.onThrottle(T0.plusSeconds(5));
+
+        assertThat(limit.limit()).isEqualTo(4);
+        assertThat(limit.decreases()).isEqualTo(1);
+        assertThat(limit.lastThrottleAt()).isEqualTo(T0.plusSeconds(5));
+    }
+
+    @Test
+    void success_increasesByOneOnlyAfterQuietInterval() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 8, INTERVAL, T0);
+        limit.onThrottle(T0);
+
+        limit.onSuccess(T0.plusSeconds(10));
+        assertThat(limit.limit()).isEqualTo(4);
+
+        limit.onSuccess(T0.plusSeconds(30));
+        assertThat(limit.limit()).isEqualTo(5);
+
+        limit.onSuccess(T0.plusSeconds(40));
+        assertThat(limit.limit()).isEqualTo(5);
+
+        limit.onSuccess(T0.plusSeconds(60));
+        assertThat(limit.limit()).isEqualTo(6);
+    }
+
+    @Test
+    void success_neverExceedsMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 2, INTERVAL, T0);
+
+        limit.onSuccess(T0.plus(Duration.ofHours(1)));
+
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+}
@@ -7,18 +7,27 @@ import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaReposit
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
 import com.biorad.csrag.interfaces.rest.dto.knowledge.*;
-import com.biorad.csrag.interfaces.rest.vector.VectorStore;
+import com.biorad.csrag.interfaces.rest.vector.SharedVectorPointIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,16 +42,18 @@ class KnowledgeBaseServiceTest {
 
     @Mock private KnowledgeDocumentJpaRepository kbDocRepository;
     @Mock private DocumentChunkJpaRepository chunkRepository;
-    @Mock private VectorStore vectorStore;
+    @Mock private SharedVectorPointIndex sharedPointIndex;
     @Mock private DocumentMetadataAnalyzer metadataAnalyzer;
-    @Mock private KnowledgeIndexingWorker indexingWorker;
+    @Mock private KnowledgeIndexingScheduler indexingScheduler;
+    @Mock private KnowledgeContentDeduplicator contentDeduplicator;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     private KnowledgeBaseService service;
 
     @BeforeEach
     void setUp() {
         service = new KnowledgeBaseService(
-                kbDocRepository, chunkRepository, vectorStore, metadataAnalyzer, indexingWorker
+                kbDocRepository, chunkRepository, sharedPointIndex, metadataAnalyzer, indexingScheduler, contentDeduplicator, eventPublisher
         );
     }
 
@@ -55,6 +66,48 @@ class KnowledgeBaseServiceTest {
                 .hasMessageContaining("File is empty");
     }
 
+    @Test
+    void upload_streamsFileAndRecordsHashAndSniffedContentType(@TempDir Path uploadDir) throws Exception {
+        ReflectionTestUtils.setField(service, "uploadDir", uploadDir.toString());
+        byte[] content = "%PDF-1.7 manual body".getBytes(StandardCharsets.US_ASCII);
+        MockMultipartFile file = new MockMultipartFile("file", "manual.pdf", "application/octet-stream", content);
+
+        KbDocumentResponse result = service.upload(file, "Manual", "MANUAL", "naica", "desc", "tag", "admin");
+
+        ArgumentCaptor<KnowledgeDocumentJpaEntity> saved = ArgumentCaptor.forClass(KnowledgeDocumentJpaEntity.class);
+        verify(kbDocRepository).save(saved.capture());
+        KnowledgeDocumentJpaEntity entity = saved.getValue();
+        assertThat(entity.getContentType()).isEqualTo("application/pdf");
+        assertThat(entity.getFileSize()).isEqualTo(content.length);
+        assertThat(entity.getContentSha256())
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+        assertThat(Files.readAllBytes(Path.of(entity.getStoragePath()))).isEqualTo(content);
+        assertThat(result.status()).isEqualTo("UPLOADED");
+        verify(contentDeduplicator).linkToExistingIndex(entity);
+    }
+
+    @Test
+    void upload_duplicateOfIndexedDocument_skipsAiAnalysisAndPublishesIndexed(@TempDir Path uploadDir) {
+        ReflectionTestUtils.setField(service, "uploadDir", uploadDir.toString());
+        MockMultipartFile file = new MockMultipartFile("file", "manual.pdf", "application/pdf", "same bytes".getBytes());
+        KnowledgeDocumentJpaEntity source = KnowledgeDocumentJpaEntity.create(
+                "Original", "MANUAL", "naica", "manual.pdf", "application/pdf",
+                10L, "/p/manual.pdf", null, null, null
+        );
+        when(contentDeduplicator.linkToExistingIndex(any())).thenAnswer(inv -> {
+            KnowledgeDocumentJpaEntity entity = inv.getArgument(0);
+            entity.markIndexedFrom(source);
+            return source;
+        });
+
+        KbDocumentResponse result = service.upload(file, "Copy", "MANUAL", null, null, null, null);
+
+        assertThat(result.status()).isEqualTo("INDEXED");
+        verify(metadataAnalyzer, never()).analyze(any(), any());
+        verify(eventPublisher).publishEvent(
+                new KnowledgeIndexChangedEvent(result.documentId(), KnowledgeIndexChangedEvent.ChangeType.INDEXED));
+    }
+
     @Test
     void getDetail_notFound_throws() {
         UUID docId = UUID.randomUUID();
@@ -91,8 +144,10 @@ class KnowledgeBaseServiceTest {
         service.delete(docId);
 
         verify(chunkRepository).deleteByDocumentId(docId);
-        verify(vectorStore).deleteByDocumentId(docId);
+        verify(sharedPointIndex).removeDocument(docId);
         verify(kbDocRepository).delete(entity);
+        verify(eventPublisher).publishEvent(
+                new KnowledgeIndexChangedEvent(docId, KnowledgeIndexChangedEvent.ChangeType.DELETED));
     }
 
     @Test
@@ -112,7 +167,7 @@ class KnowledgeBaseServiceTest {
                 512L, "/tmp/nonexistent.pdf", null, null, null
         );
         when(kbDocRepository.findById(docId)).thenReturn(Optional.of(entity));
-        doThrow(new RuntimeException("Vector store down")).when(vectorStore).deleteByDocumentId(docId);
+        doThrow(new RuntimeException("Vector store down")).when(sharedPointIndex).removeDocument(docId);
 
         service.delete(docId);
 
@@ -199,6 +254,42 @@ class KnowledgeBaseServiceTest {
                 .isInstanceOf(ConflictException.class);
     }
 
+    @Test
+    void indexOne_enqueuesWithSinglePriority() {
+        UUID docId = UUID.randomUUID();
+        KnowledgeDocumentJpaEntity doc = KnowledgeDocumentJpaEntity.create(
+                "Title", "MANUAL", null, "test.pdf", "application/pdf",
+                1024L, "/p/test.pdf", null, null, null
+        );
+        when(kbDocRepository.findById(docId)).thenReturn(Optional.of(doc));
+
+        KbIndexingResponse result = service.indexOne(docId);
+
+        assertThat(result.status()).isEqualTo("INDEXING");
+        verify(kbDocRepository).save(doc);
+        verify(indexingScheduler).enqueue(docId, KnowledgeIndexingScheduler.PRIORITY_SINGLE);
+    }
+
+    @Test
+    void indexAll_enqueuesEachEligibleDocumentWithGivenPriority() {
+        KnowledgeDocumentJpaEntity uploaded = KnowledgeDocumentJpaEntity.create(
+                "A", "MANUAL", null, "a.pdf", "application/pdf",
+                1024L, "/p/a.pdf", null, null, null
+        );
+        KnowledgeDocumentJpaEntity failed = KnowledgeDocumentJpaEntity.create(
+                "B", "MANUAL", null, "b.pdf", "application/pdf",
+                1024L, "/p/b.pdf", null, null, null
+        );
+        failed.markFailed("boom");
+        when(kbDocRepository.findByStatusIn(List.of("UPLOADED", "FAILED"))).thenReturn(List.of(uploaded, failed));
+
+        KbBatchIndexingResponse result = service.indexAll(5);
+
+        assertThat(result.processed()).isEqualTo(2);
+        verify(indexingScheduler).enqueue(uploaded.getId(), 5);
+        verify(indexingScheduler).enqueue(failed.getId(), 5);
+    }
+
     @Test
     void analyzeMetadata_notFound_throws() {
         UUID docId = UUID.randomUUID();
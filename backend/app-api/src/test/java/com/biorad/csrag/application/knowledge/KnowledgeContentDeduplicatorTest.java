@@ -0,0 +1,124 @@
+package com.biorad.csrag.application.knowledge;
+
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkBulkWriter;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import com.biorad.csrag.interfaces.rest.vector.SharedVectorPointIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnowledgeContentDeduplicatorTest {
+
+    private static final String SHA = "a".repeat(64);
+
+    @Mock private KnowledgeDocumentJpaRepository kbDocRepository;
+    @Mock private DocumentChunkJpaRepository chunkRepository;
+    @Mock private DocumentChunkBulkWriter chunkWriter;
+    @Mock private SharedVectorPointIndex sharedPointIndex;
+
+    private KnowledgeContentDeduplicator deduplicator;
+    private KnowledgeDocumentJpaEntity source;
+    private KnowledgeDocumentJpaEntity upload;
+
+    @BeforeEach
+    void setUp() {
+        deduplicator = new KnowledgeContentDeduplicator(kbDocRepository, chunkRepository, chunkWriter, sharedPointIndex);
+        source = KnowledgeDocumentJpaEntity.create("Original", "PROTOCOL", "naica", "manual.pdf", "application/pdf",
+                100L, "/p/a.pdf", "source description", "qpcr", null);
+        source.markParsed("extracted text");
+        source.markChunked(2);
+        source.markIndexed(1);
+        upload = KnowledgeDocumentJpaEntity.create("Copy", "MANUAL", null, "manual.pdf", "application/pdf",
+                100L, "/p/b.pdf", null, null, null);
+        upload.setContentSha256(SHA);
+    }
+
+    @Test
+    void linkToExistingIndex_copiesChunksAndJoinsSourcePoints() {
+        DocumentChunkJpaEntity parent = chunk(source.getId(), 0, "PARENT", null);
+        DocumentChunkJpaEntity child = chunk(source.getId(), 1, "CHILD", parent.getId());
+        when(kbDocRepository.findFirstByContentSha256AndStatusOrderByCreatedAtAsc(SHA, "INDEXED")).thenReturn(Optional.of(source));
+        when(chunkRepository.findByDocumentIdOrderByChunkIndexAsc(source.getId())).thenReturn(List.of(parent, child));
+        when(sharedPointIndex.linkDocument(eq(source.getId()), eq(upload.getId()), eq("naica"), anyMap())).thenReturn(true);
+
+        KnowledgeDocumentJpaEntity result = deduplicator.linkToExistingIndex(upload);
+
+        assertThat(result).isSameAs(source);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DocumentChunkJpaEntity>> copies = ArgumentCaptor.forClass(List.class);
+        verify(chunkWriter).insertAll(copies.capture());
+        DocumentChunkJpaEntity parentCopy = copies.getValue().get(0);
+        DocumentChunkJpaEntity childCopy = copies.getValue().get(1);
+        assertThat(copies.getValue()).allSatisfy(c -> {
+            assertThat(c.getDocumentId()).isEqualTo(upload.getId());
+            assertThat(c.getSourceId()).isEqualTo(upload.getId());
+            assertThat(c.getProductFamily()).isEqualTo("naica");
+        });
+        assertThat(parentCopy.getId()).isNotEqualTo(parent.getId());
+        assertThat(childCopy.getParentChunkId()).isEqualTo(parentCopy.getId());
+        assertThat(childCopy.getEnrichedContent()).isEqualTo(child.getEnrichedContent());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, UUID>> pointChunks = ArgumentCaptor.forClass(Map.class);
+        verify(sharedPointIndex).linkDocument(eq(source.getId()), eq(upload.getId()), eq("naica"), pointChunks.capture());
+        assertThat(pointChunks.getValue()).containsExactly(Map.entry(child.getId(), childCopy.getId()));
+
+        assertThat(upload.getStatus()).isEqualTo("INDEXED");
+        assertThat(upload.getExtractedText()).isEqualTo("extracted text");
+        assertThat(upload.getChunkCount()).isEqualTo(2);
+        assertThat(upload.getVectorCount()).isEqualTo(1);
+        assertThat(upload.getProductFamily()).isEqualTo("naica");
+        assertThat(upload.getDescription()).isEqualTo("source description");
+        verify(kbDocRepository).save(upload);
+    }
+
+    @Test
+    void linkToExistingIndex_sourceIndexedBeforePointSharing_fallsBackToNormalIndexing() {
+        when(kbDocRepository.findFirstByContentSha256AndStatusOrderByCreatedAtAsc(SHA, "INDEXED")).thenReturn(Optional.of(source));
+        when(chunkRepository.findByDocumentIdOrderByChunkIndexAsc(source.getId()))
+                .thenReturn(List.of(chunk(source.getId(), 0, "CHILD", null)));
+        when(sharedPointIndex.linkDocument(any(), any(), any(), anyMap())).thenReturn(false);
+
+        assertThat(deduplicator.linkToExistingIndex(upload)).isNull();
+
+        verifyNoInteractions(chunkWriter);
+        assertThat(upload.getStatus()).isEqualTo("UPLOADED");
+        assertThat(upload.getProductFamily()).isNull();
+    }
+
+    @Test
+    void linkToExistingIndex_noIndexedDuplicate_returnsNull() {
+        when(kbDocRepository.findFirstByContentSha256AndStatusOrderByCreatedAtAsc(SHA, "INDEXED")).thenReturn(Optional.empty());
+
+        assertThat(deduplicator.linkToExistingIndex(upload)).isNull();
+
+        verifyNoInteractions(chunkRepository, chunkWriter, sharedPointIndex);
+    }
+
+    private static DocumentChunkJpaEntity chunk(UUID documentId, int index, String level, UUID parentId) {
+        DocumentChunkJpaEntity chunk = new DocumentChunkJpaEntity(UUID.randomUUID(), documentId, index, 0, 10,
+                "content " + index, "KNOWLEDGE_BASE", documentId, 1, 1, Instant.now());
+        chunk.setChunkLevel(level);
+        chunk.setParentChunkId(parentId);
+        chunk.setEnrichedContent("context\ncontent " + index);
+        chunk.setProductFamily("naica");
+        return chunk;
+    }
+}
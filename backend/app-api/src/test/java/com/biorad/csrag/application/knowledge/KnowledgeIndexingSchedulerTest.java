@@ -0,0 +1,302 @@
+package com.biorad.csrag.application.knowledge;
+
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
+import com.biorad.csrag.infrastructure.openai.ratelimit.RateLimitTimeoutException;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeIndexingJobRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeIndexingJobRepository.IndexingJob;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.interfaces.rest.dto.knowledge.KbIndexingProgressResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnowledgeIndexingSchedulerTest {
+
+    private static final String OWNER = "node-1";
+
+    @Mock private KnowledgeIndexingJobRepository jobRepository;
+    @Mock private KnowledgeIndexingWorker worker;
+    @Mock private OpenAiRateGovernor rateGovernor;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T00:00:00Z"));
+    private RagPipelineProperties.IndexingQueue config;
+    private KnowledgeIndexingScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        config = new RagPipelineProperties.IndexingQueue();
+        config.setMaxConcurrency(4);
+        config.setMaxAttempts(3);
+        config.setRetryBackoffSeconds(30);
+        scheduler = new KnowledgeIndexingScheduler(jobRepository, worker, Runnable::run, rateGovernor, config, clock, OWNER);
+    }
+
+    @Test
+    void enqueue_newDocument_insertsJob() {
+        UUID docId = UUID.randomUUID();
+        when(jobRepository.insert(any(UUID.class), eq(docId), anyInt(), any())).thenReturn(true);
+
+        scheduler.enqueue(docId, KnowledgeIndexingScheduler.PRIORITY_SINGLE);
+
+        verify(jobRepository).insert(any(UUID.class), eq(docId), eq(KnowledgeIndexingScheduler.PRIORITY_SINGLE), eq(clock.instant()));
+        verify(jobRepository, never()).findActiveByDocument(any());
+        verifyNoInteractions(worker);
+    }
+
+    @Test
+    void enqueue_activeJobExists_raisesPriorityInsteadOfDuplicating() {
+        UUID docId = UUID.randomUUID();
+        IndexingJob active = job(docId, "CHUNKED", 1);
+        when(jobRepository.findActiveByDocument(docId)).thenReturn(Optional.of(active));
+
+        scheduler.enqueue(docId, 20);
+
+        // 유니크 인덱스 충돌(insert=false) → 기존 작업에 합친다
+        verify(jobRepository).insert(any(UUID.class), eq(docId), eq(20), eq(clock.instant()));
+        verify(jobRepository).raisePriority(active.id(), 20, clock.instant());
+    }
+
+    @Test
+    void enqueue_activeJobFinishedDuringConflict_insertsAgain() {
+        UUID docId = UUID.randomUUID();
+        when(jobRepository.insert(any(UUID.class), eq(docId), anyInt(), any())).thenReturn(false, true);
+        when(jobRepository.findActiveByDocument(docId)).thenReturn(Optional.empty());
+
+        scheduler.enqueue(docId, KnowledgeIndexingScheduler.PRIORITY_SINGLE);
+
+        verify(jobRepository, times(2)).insert(any(UUID.class), eq(docId), eq(KnowledgeIndexingScheduler.PRIORITY_SINGLE), eq(clock.instant()));
+        verify(jobRepository, never()).raisePriority(any(), anyInt(), any());
+    }
+
+    @Test
+    void enqueue_queueDisabled_runsWorkerDirectly() {
+        config.setEnabled(false);
+        UUID docId = UUID.randomUUID();
+
+        scheduler.enqueue(docId, KnowledgeIndexingScheduler.PRIORITY_BULK);
+
+        verify(worker).indexOneAsync(docId);
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    void poll_runsClaimedJobThroughAllStagesWithCheckpoints() throws Exception {
+        IndexingJob job = claimNext("NONE", 1);
+        when(worker.runStage(eq(job.documentId()), any(), any())).thenAnswer(inv -> next(inv.getArgument(1)));
+        when(jobRepository.checkpoint(eq(job.id()), eq(OWNER), anyString(), any(), any(), any(), any())).thenReturn(true);
+
+        scheduler.poll();
+
+        verify(jobRepository).checkpoint(eq(job.id()), eq(OWNER), eq("PARSED"), any(), any(), any(), any());
+        verify(jobRepository).checkpoint(eq(job.id()), eq(OWNER), eq("CHUNKED"), any(), any(), any(), any());
+        verify(jobRepository).checkpoint(eq(job.id()), eq(OWNER), eq("ENRICHED"), any(), any(), any(), any());
+        verify(jobRepository).checkpoint(eq(job.id()), eq(OWNER), eq("INDEXED"), any(), any(), any(), any());
+        verify(jobRepository).complete(eq(job.id()), eq(OWNER), any());
+    }
+
+    @Test
+    void poll_resumesFromStoredCheckpoint() throws Exception {
+        IndexingJob job = claimNext("ENRICHED", 2);
+        when(worker.runStage(eq(job.documentId()), eq(KnowledgeIndexingStage.ENRICHED), any()))
+                .thenReturn(KnowledgeIndexingStage.INDEXED);
+        when(jobRepository.checkpoint(eq(job.id()), eq(OWNER), eq("INDEXED"), any(), any(), any(), any())).thenReturn(true);
+
+        scheduler.poll();
+
+        verify(worker, times(1)).runStage(any(), any(), any());
+        verify(jobRepository).complete(eq(job.id()), eq(OWNER), any());
+    }
+
+    @Test
+    void poll_leaseLost_stopsWithoutCompleting() throws Exception {
+        IndexingJob job = claimNext("NONE", 1);
+        when(worker.runStage(eq(job.documentId()), eq(KnowledgeIndexingStage.NONE), any()))
+                .thenReturn(KnowledgeIndexingStage.PARSED);
+        when(jobRepository.checkpoint(eq(job.id()), eq(OWNER), eq("PARSED"), any(), any(), any(), any())).thenReturn(false);
+
+        scheduler.poll();
+
+        verify(worker, times(1)).runStage(any(), any(), any());
+        verify(jobRepository, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    void poll_failureWithAttemptsLeft_requeuesWithExponentialBackoff() throws Exception {
+        IndexingJob job = claimNext("CHUNKED", 2);
+        when(worker.runStage(eq(job.documentId()), eq(KnowledgeIndexingStage.CHUNKED), any()))
+                .thenThrow(new IllegalStateException("enrichment failed"));
+
+        scheduler.poll();
+
+        verify(jobRepository).requeue(job.id(), OWNER, clock.instant().plusSeconds(60), "enrichment failed", true, clock.instant());
+        verify(worker, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void poll_failureOnLastAttempt_marksJobAndDocumentFailed() throws Exception {
+        IndexingJob job = claimNext("PARSED", 3);
+        when(worker.runStage(eq(job.documentId()), eq(KnowledgeIndexingStage.PARSED), any()))
+                .thenThrow(new IOException("corrupt file"));
+
+        scheduler.poll();
+
+        verify(jobRepository).fail(job.id(), OWNER, "corrupt file", clock.instant());
+        verify(worker).markFailed(job.documentId(), "corrupt file");
+        verify(jobRepository, never()).requeue(any(), any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void poll_rateLimited_requeuesWithoutAttemptAndHalvesConcurrency() throws Exception {
+        IndexingJob job = claimNext("CHUNKED", 3);
+        when(worker.runStage(eq(job.documentId()), eq(KnowledgeIndexingStage.CHUNKED), any()))
+                .thenThrow(new RuntimeException("enrich",
+                        new RateLimitTimeoutException("gpt-4o-mini", OpenAiRateGovernor.Lane.BACKGROUND, 30_000)));
+
+        scheduler.poll();
+
+        verify(jobRepository).requeue(eq(job.id()), eq(OWNER), eq(clock.instant().plusSeconds(30)), anyString(), eq(false), any());
+        verify(worker, never()).markFailed(any(), any());
+        assertThat(scheduler.concurrencyLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void poll_governorObserves429_reducesConcurrencyBeforeClaiming() {
+        when(rateGovernor.getStats()).thenReturn(List.of(stats(0)), List.of(stats(5)));
+        when(jobRepository.findClaimable(any(), anyInt())).thenReturn(List.of());
+
+        scheduler.poll();
+        clock.advance(Duration.ofSeconds(1));
+        scheduler.poll();
+
+        assertThat(scheduler.concurrencyLimit()).isEqualTo(2);
+        verify(jobRepository).findClaimable(any(), eq(4));
+    }
+
+    @Test
+    void recover_requeuesStrandedDocuments() {
+        UUID stranded = UUID.randomUUID();
+        when(jobRepository.findStrandedDocuments(eq(KnowledgeIndexingScheduler.IN_PROGRESS_STATUSES), any(), anyInt()))
+                .thenReturn(List.of(stranded));
+        when(jobRepository.insert(any(UUID.class), eq(stranded), anyInt(), any())).thenReturn(true);
+
+        scheduler.recover();
+
+        verify(jobRepository).insert(any(UUID.class), eq(stranded), eq(KnowledgeIndexingScheduler.PRIORITY_BULK), eq(clock.instant()));
+        verify(jobRepository).purgeFinished(clock.instant().minus(Duration.ofDays(config.getRetentionDays())));
+    }
+
+    @Test
+    void recover_documentAlreadyRequeuedByAnotherNode_mergesInsteadOfDuplicating() {
+        UUID stranded = UUID.randomUUID();
+        IndexingJob otherNodes = job(stranded, "NONE", 0);
+        when(jobRepository.findStrandedDocuments(eq(KnowledgeIndexingScheduler.IN_PROGRESS_STATUSES), any(), anyInt()))
+                .thenReturn(List.of(stranded));
+        when(jobRepository.findActiveByDocument(stranded)).thenReturn(Optional.of(otherNodes));
+
+        scheduler.recover();
+
+        verify(jobRepository, times(1)).insert(any(UUID.class), eq(stranded), anyInt(), any());
+        verify(jobRepository).raisePriority(otherNodes.id(), KnowledgeIndexingScheduler.PRIORITY_BULK, clock.instant());
+    }
+
+    @Test
+    void getProgress_computesThroughputAndEta() {
+        when(jobRepository.countByStatus()).thenReturn(Map.of(
+                KnowledgeIndexingJobRepository.QUEUED, 18L,
+                KnowledgeIndexingJobRepository.RUNNING, 2L,
+                KnowledgeIndexingJobRepository.DONE, 40L));
+        when(jobRepository.countActiveByStage()).thenReturn(Map.of("NONE", 18L, "CHUNKED", 2L));
+        when(jobRepository.completedSince(clock.instant().minus(Duration.ofMinutes(10))))
+                .thenReturn(new KnowledgeIndexingJobRepository.Throughput(20, 600));
+
+        KbIndexingProgressResponse progress = scheduler.getProgress();
+
+        assertThat(progress.queued()).isEqualTo(18);
+        assertThat(progress.running()).isEqualTo(2);
+        assertThat(progress.done()).isEqualTo(40);
+        assertThat(progress.documentsPerMinute()).isEqualTo(2.0);
+        assertThat(progress.chunksPerMinute()).isEqualTo(60.0);
+        assertThat(progress.etaSeconds()).isEqualTo(600L);
+        assertThat(progress.activeByStage()).containsEntry("CHUNKED", 2L);
+    }
+
+    @Test
+    void isThrottle_detectsHttp429InCauseChain() {
+        Exception error = new IllegalStateException("embedding failed",
+                HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+
+        assertThat(KnowledgeIndexingScheduler.isThrottle(error)).isTrue();
+        assertThat(KnowledgeIndexingScheduler.isThrottle(new IOException("disk"))).isFalse();
+    }
+
+    // ===== 헬퍼 =====
+
+    private IndexingJob claimNext(String stage, int attempts) {
+        IndexingJob job = job(UUID.randomUUID(), stage, attempts);
+        when(jobRepository.findClaimable(any(), anyInt())).thenReturn(List.of(job.id()));
+        when(jobRepository.claim(eq(job.id()), eq(OWNER), any(), any())).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private IndexingJob job(UUID documentId, String stage, int attempts) {
+        return new IndexingJob(UUID.randomUUID(), documentId, 0, KnowledgeIndexingJobRepository.RUNNING, stage,
+                attempts, OWNER, clock.instant().plusSeconds(300), null, null, null,
+                clock.instant(), clock.instant(), null);
+    }
+
+    private static KnowledgeIndexingStage next(KnowledgeIndexingStage completed) {
+        return KnowledgeIndexingStage.values()[completed.ordinal() + 1];
+    }
+
+    private static OpenAiRateGovernor.ModelStats stats(long throttled429) {
+        return new OpenAiRateGovernor.ModelStats("text-embedding-3-small", 3000, 1_000_000, 3000, 1_000_000,
+                throttled429, 0, Map.of());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -7,13 +7,13 @@ import com.biorad.csrag.interfaces.rest.document.DocumentTextExtractor;
 import com.biorad.csrag.interfaces.rest.document.DocumentTextExtractor.PageText;
 import com.biorad.csrag.interfaces.rest.document.ocr.OcrResult;
 import com.biorad.csrag.interfaces.rest.document.ocr.OcrService;
-import com.biorad.csrag.interfaces.rest.vector.VectorStore;
 import com.biorad.csrag.interfaces.rest.vector.VectorizingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -32,13 +33,13 @@ class KnowledgeIndexingWorkerTest {
     @Mock private VectorizingService vectorizingService;
     @Mock private OcrService ocrService;
     @Mock private DocumentTextExtractor textExtractor;
-    @Mock private VectorStore vectorStore;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     private KnowledgeIndexingWorker worker;
 
     @BeforeEach
     void setUp() {
-        worker = new KnowledgeIndexingWorker(kbDocRepository, chunkingService, vectorizingService, ocrService, textExtractor, vectorStore);
+        worker = new KnowledgeIndexingWorker(kbDocRepository, chunkingService, vectorizingService, ocrService, textExtractor, eventPublisher);
     }
 
     @Test
@@ -65,14 +66,18 @@ class KnowledgeIndexingWorkerTest {
                 .thenReturn(List.of(new PageText(1, "Page 1 text here", 0, 16)));
         when(chunkingService.chunkAndStore(eq(doc.getId()), anyList(), eq("KNOWLEDGE_BASE"), eq(doc.getId()), any(), any()))
                 .thenReturn(3);
-        when(vectorizingService.upsertDocumentChunks(doc.getId())).thenReturn(3);
+        when(vectorizingService.upsertEnrichedChunks(doc.getId())).thenReturn(3);
         when(kbDocRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         worker.indexOneAsync(docId);
 
         // Should save multiple times: markParsing, markParsed, markChunked, markIndexed
         verify(kbDocRepository, atLeast(4)).save(any());
-        verify(vectorizingService).upsertDocumentChunks(doc.getId());
+        verify(vectorizingService).removeDocumentVectors(doc.getId());
+        verify(vectorizingService).enrichDocumentChunks(doc.getId());
+        verify(vectorizingService).upsertEnrichedChunks(doc.getId());
+        verify(eventPublisher).publishEvent(
+                new KnowledgeIndexChangedEvent(doc.getId(), KnowledgeIndexChangedEvent.ChangeType.INDEXED));
     }
 
     @Test
@@ -87,13 +92,13 @@ class KnowledgeIndexingWorkerTest {
         when(ocrService.extract(any(Path.class))).thenReturn(new OcrResult("OCR extracted text from scan", 0.85));
         when(chunkingService.chunkAndStore(eq(doc.getId()), anyString(), eq("KNOWLEDGE_BASE"), eq(doc.getId()), any(), any()))
                 .thenReturn(2);
-        when(vectorizingService.upsertDocumentChunks(doc.getId())).thenReturn(2);
+        when(vectorizingService.upsertEnrichedChunks(doc.getId())).thenReturn(2);
         when(kbDocRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         worker.indexOneAsync(docId);
 
         verify(ocrService).extract(any(Path.class));
-        verify(vectorizingService).upsertDocumentChunks(doc.getId());
+        verify(vectorizingService).upsertEnrichedChunks(doc.getId());
     }
 
     @Test
@@ -129,11 +134,63 @@ class KnowledgeIndexingWorkerTest {
                 .thenReturn(List.of(new PageText(1, longText, 0, longText.length())));
         when(chunkingService.chunkAndStore(eq(doc.getId()), anyList(), eq("KNOWLEDGE_BASE"), eq(doc.getId()), any(), any()))
                 .thenReturn(10);
-        when(vectorizingService.upsertDocumentChunks(doc.getId())).thenReturn(10);
+        when(vectorizingService.upsertEnrichedChunks(doc.getId())).thenReturn(10);
         when(kbDocRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         worker.indexOneAsync(docId);
 
-        verify(vectorizingService).upsertDocumentChunks(doc.getId());
+        verify(vectorizingService).upsertEnrichedChunks(doc.getId());
+    }
+
+    @Test
+    void runStage_resumeAfterParsed_reextractsPagesAndChunks() throws Exception {
+        UUID docId = UUID.randomUUID();
+        KnowledgeDocumentJpaEntity doc = KnowledgeDocumentJpaEntity.create(
+                "Title", "MANUAL", null, "test.pdf", "application/pdf",
+                1024L, "/tmp/test.pdf", null, null, null
+        );
+        doc.markParsed("Page 1 text here");
+        when(kbDocRepository.findById(docId)).thenReturn(Optional.of(doc));
+        when(textExtractor.extractByPage(any(Path.class), eq("application/pdf")))
+                .thenReturn(List.of(new PageText(1, "Page 1 text here", 0, 16)));
+        when(chunkingService.chunkAndStore(eq(doc.getId()), anyList(), eq("KNOWLEDGE_BASE"), eq(doc.getId()), any(), any()))
+                .thenReturn(4);
+
+        KnowledgeIndexingWorker.StageContext context = new KnowledgeIndexingWorker.StageContext();
+        KnowledgeIndexingStage next = worker.runStage(docId, KnowledgeIndexingStage.PARSED, context);
+
+        assertThat(next).isEqualTo(KnowledgeIndexingStage.CHUNKED);
+        assertThat(context.chunkCount()).isEqualTo(4);
+        assertThat(doc.getStatus()).isEqualTo("CHUNKED");
+        verify(textExtractor, never()).extract(any(Path.class), anyString());
+        verify(vectorizingService, never()).removeDocumentVectors(any());
+    }
+
+    @Test
+    void runStage_resumeAfterChunked_onlyEnriches() throws Exception {
+        UUID docId = UUID.randomUUID();
+        KnowledgeDocumentJpaEntity doc = KnowledgeDocumentJpaEntity.create(
+                "Title", "MANUAL", null, "test.pdf", "application/pdf",
+                1024L, "/tmp/test.pdf", null, null, null
+        );
+        doc.markChunked(4);
+        when(kbDocRepository.findById(docId)).thenReturn(Optional.of(doc));
+
+        KnowledgeIndexingStage next = worker.runStage(docId, KnowledgeIndexingStage.CHUNKED,
+                new KnowledgeIndexingWorker.StageContext());
+
+        assertThat(next).isEqualTo(KnowledgeIndexingStage.ENRICHED);
+        verify(vectorizingService).enrichDocumentChunks(doc.getId());
+        verify(vectorizingService, never()).upsertEnrichedChunks(any());
+        verifyNoInteractions(chunkingService, textExtractor);
+    }
+
+    @Test
+    void runStage_documentDeleted_returnsNull() throws Exception {
+        UUID docId = UUID.randomUUID();
+        when(kbDocRepository.findById(docId)).thenReturn(Optional.empty());
+
+        assertThat(worker.runStage(docId, KnowledgeIndexingStage.NONE, new KnowledgeIndexingWorker.StageContext()))
+                .isNull();
     }
 }
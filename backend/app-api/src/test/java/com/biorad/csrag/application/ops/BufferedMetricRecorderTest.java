@@ -0,0 +1,190 @@
+package com.biorad.csrag.application.ops;
+
+import com.biorad.csrag.infrastructure.persistence.metrics.RagPipelineMetricBatchWriter;
+import com.biorad.csrag.infrastructure.persistence.metrics.RagPipelineMetricEntity;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link BufferedMetricRecorder} 단위 테스트.
+ *
+ * <p>JDBC writer를 메모리 기록용 서브클래스로 대체하여 버퍼링/배치/overflow 동작을 검증한다.
+ */
+class BufferedMetricRecorderTest {
+
+    private RagPipelineProperties properties;
+    private RecordingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RagPipelineProperties();
+        properties.getMetrics().setBufferCapacity(8);
+        properties.getMetrics().setBatchSize(3);
+        writer = new RecordingWriter();
+    }
+
+    @Test
+    void append_doesNotWriteUntilFlush() {
+        var recorder = new BufferedMetricRecorder(writer, properties);
+
+        recorder.append(metric("SEARCH_SCORE", 0.5));
+
+        assertThat(writer.batches).isEmpty();
+        assertThat(recorder.getStats().pending()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_writesInBatchesOfConfiguredSize() {
+        var recorder = new BufferedMetricRecorder(writer, properties);
+        for (int i = 0; i < 7; i++) {
+            recorder.append(metric("SEARCH_SCORE", i));
+        }
+
+        recorder.flush();
+
+        assertThat(writer.batches).extracting(List::size).containsExactly(3, 3, 1);
+        assertThat(writer.written()).extracting(RagPipelineMetricEntity::getMetricValue)
+                .containsExactly(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0);
+        var stats = recorder.getStats();
+        assertThat(stats.flushed()).isEqualTo(7);
+        assertThat(stats.flushBatches()).isEqualTo(3);
+        assertThat(stats.pending()).isZero();
+    }
+
+    @Test
+    void dropNewest_discardsIncomingWhenFull() {
+        var recorder = new BufferedMetricRecorder(writer, properties);
+        for (int i = 0; i < 10; i++) {
+            recorder.append(metric("SEARCH_SCORE", i));
+        }
+
+        recorder.flush();
+
+        assertThat(writer.written()).extracting(RagPipelineMetricEntity::getMetricValue)
+                .containsExactly(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0);
+        assertThat(recorder.getStats().dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void dropOldest_evictsHeadWhenFull() {
+        properties.getMetrics().setOverflowPolicy("drop_oldest");
+        var recorder = new BufferedMetricRecorder(writer, properties);
+        for (int i = 0; i < 10; i++) {
+            recorder.append(metric("SEARCH_SCORE", i));
+        }
+
+        recorder.flush();
+
+        assertThat(writer.written()).extracting(RagPipelineMetricEntity::getMetricValue)
+                .containsExactly(2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0);
+        assertThat(recorder.getStats().dropped()).isEqualTo(2);
+        assertThat(recorder.getStats().overflowPolicy()).isEqualTo("DROP_OLDEST");
+    }
+
+    @Test
+    void unknownOverflowPolicy_fallsBackToDropNewest() {
+        properties.getMetrics().setOverflowPolicy("BLOCK");
+        var recorder = new BufferedMetricRecorder(writer, properties);
+
+        assertThat(recorder.getStats().overflowPolicy()).isEqualTo("DROP_NEWEST");
+    }
+
+    @Test
+    void writerFailure_countsBatchAsDroppedAndKeepsRunning() {
+        writer.failNext = true;
+        var recorder = new BufferedMetricRecorder(writer, properties);
+        recorder.append(metric("SEARCH_SCORE", 1));
+        recorder.append(metric("SEARCH_SCORE", 2));
+
+        recorder.flush();
+        recorder.append(metric("SEARCH_SCORE", 3));
+        recorder.flush();
+
+        var stats = recorder.getStats();
+        assertThat(stats.flushFailures()).isEqualTo(1);
+        assertThat(stats.dropped()).isEqualTo(2);
+        assertThat(stats.flushed()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_flushesRemainingMetrics() {
+        var recorder = new BufferedMetricRecorder(writer, properties);
+        recorder.append(metric("INDEXING_TIME", 120));
+        recorder.append(metric("INDEXING_TIME", 80));
+
+        recorder.shutdown();
+
+        assertThat(writer.written()).hasSize(2);
+        assertThat(recorder.getStats().pending()).isZero();
+    }
+
+    @Test
+    void concurrentAppends_areAllAccountedFor() throws Exception {
+        properties.getMetrics().setBufferCapacity(1024);
+        properties.getMetrics().setBatchSize(100);
+        var recorder = new BufferedMetricRecorder(writer, properties);
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    recorder.append(metric("SEARCH_SCORE", i));
+                    if (i % 50 == 0) {
+                        recorder.flush();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        recorder.shutdown();
+
+        var stats = recorder.getStats();
+        assertThat(stats.recorded() + stats.dropped()).isEqualTo((long) threads * perThread);
+        assertThat(stats.flushed()).isEqualTo(stats.recorded());
+        assertThat(writer.written()).hasSize((int) stats.flushed());
+    }
+
+    private static RagPipelineMetricEntity metric(String type, double value) {
+        return new RagPipelineMetricEntity(null, type, value, null);
+    }
+
+    /** 전달받은 배치를 복사해 보관하는 테스트용 writer. */
+    private static class RecordingWriter extends RagPipelineMetricBatchWriter {
+        final List<List<RagPipelineMetricEntity>> batches = new ArrayList<>();
+        volatile boolean failNext;
+
+        RecordingWriter() {
+            super(null);
+        }
+
+        @Override
+        public synchronized int writeBatch(List<RagPipelineMetricEntity> metrics) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("db down");
+            }
+            batches.add(List.copyOf(metrics));
+            return metrics.size();
+        }
+
+        synchronized List<RagPipelineMetricEntity> written() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.biorad.csrag.application.ops;
+
+import com.biorad.csrag.infrastructure.persistence.ops.OpsDailyRollupJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpsRollupServiceTest {
+
+    private OpsDailyRollupJdbcRepository repository;
+    private MutableClock clock;
+    private OpsRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OpsDailyRollupJdbcRepository.class);
+        clock = new MutableClock(Instant.parse("2025-03-10T12:00:00Z"));
+        service = new OpsRollupService(repository, clock);
+    }
+
+    @Test
+    void firstRefresh_backfillsFromEarliestActivity() {
+        when(repository.findLatestRolledUpDay()).thenReturn(Optional.empty());
+        when(repository.findEarliestActivity()).thenReturn(Optional.of(Instant.parse("2025-03-07T23:00:00Z")));
+
+        service.scheduledRefresh();
+
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 7), clock.instant());
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 8), clock.instant());
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 9), clock.instant());
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 10), clock.instant());
+        verify(repository, times(4)).rebuildDay(any(), any());
+    }
+
+    @Test
+    void emptyDatabase_rollsUpTodayOnly() {
+        when(repository.findLatestRolledUpDay()).thenReturn(Optional.empty());
+        when(repository.findEarliestActivity()).thenReturn(Optional.empty());
+
+        service.scheduledRefresh();
+
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 10), clock.instant());
+        verify(repository, times(1)).rebuildDay(any(), any());
+    }
+
+    @Test
+    void existingRollup_recomputesFromPreviousDay() {
+        when(repository.findLatestRolledUpDay()).thenReturn(Optional.of(LocalDate.of(2025, 3, 10)));
+
+        service.scheduledRefresh();
+
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 9), clock.instant());
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 10), clock.instant());
+        verify(repository, never()).findEarliestActivity();
+    }
+
+    @Test
+    void nextRefresh_reusesInMemoryLatestDay() {
+        when(repository.findLatestRolledUpDay()).thenReturn(Optional.of(LocalDate.of(2025, 3, 10)));
+        service.scheduledRefresh();
+
+        clock.advanceMillis(60_000);
+        service.scheduledRefresh();
+
+        verify(repository, times(1)).findLatestRolledUpDay();
+        verify(repository, times(4)).rebuildDay(any(), any());
+    }
+
+    @Test
+    void dayRollover_closesPreviousDay() {
+        clock = new MutableClock(Instant.parse("2025-03-10T23:59:50Z"));
+        service = new OpsRollupService(repository, clock);
+        when(repository.findLatestRolledUpDay()).thenReturn(Optional.of(LocalDate.of(2025, 3, 10)));
+        service.scheduledRefresh();
+
+        clock.advanceMillis(15_000);
+        service.scheduledRefresh();
+
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 10), Instant.parse("2025-03-10T23:59:50Z"));
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 10), clock.instant());
+        verify(repository).rebuildDay(LocalDate.of(2025, 3, 11), clock.instant());
+    }
+
+    @Test
+    void lastRefreshedAt_readsRollupTableWithoutRebuilding() {
+        Instant refreshedAt = Instant.parse("2025-03-10T11:58:00Z");
+        when(repository.findLastRefreshedAt()).thenReturn(Optional.of(refreshedAt));
+
+        assertThat(service.getLastRefreshedAt()).contains(refreshedAt);
+        verify(repository, never()).rebuildDay(any(), any());
+    }
+
+    @Test
+    void scheduledRefresh_swallowsFailures() {
+        when(repository.findLatestRolledUpDay()).thenThrow(new IllegalStateException("db down"));
+
+        service.scheduledRefresh();
+
+        verify(repository, never()).rebuildDay(any(), any());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceMillis(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
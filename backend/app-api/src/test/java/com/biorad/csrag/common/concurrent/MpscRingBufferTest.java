@@ -0,0 +1,66 @@
+package com.biorad.csrag.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacity_isRoundedUpToPowerOfTwo() {
+        assertThat(new MpscRingBuffer<String>(5).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<String>(8).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<String>(1).capacity()).isEqualTo(1);
+    }
+
+    @Test
+    void nonPositiveCapacity_isRejected() {
+        assertThatThrownBy(() -> new MpscRingBuffer<String>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offerAndPoll_preserveFifoOrder() {
+        var buffer = new MpscRingBuffer<Integer>(4);
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3);
+
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.poll()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo(3);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void offer_returnsFalseWhenFull_andSucceedsAfterPoll() {
+        var buffer = new MpscRingBuffer<Integer>(2);
+        assertThat(buffer.offer(1)).isTrue();
+        assertThat(buffer.offer(2)).isTrue();
+        assertThat(buffer.offer(3)).isFalse();
+
+        buffer.poll();
+
+        assertThat(buffer.offer(3)).isTrue();
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void drain_respectsLimitAndWrapsAround() {
+        var buffer = new MpscRingBuffer<Integer>(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                buffer.offer(round * 10 + i);
+            }
+            List<Integer> out = new ArrayList<>();
+            assertThat(buffer.drain(out::add, 3)).isEqualTo(3);
+            assertThat(buffer.drain(out::add, 3)).isEqualTo(1);
+            assertThat(out).containsExactly(round * 10, round * 10 + 1, round * 10 + 2, round * 10 + 3);
+            assertThat(buffer.isEmpty()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.biorad.csrag.evaluation;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크·부하 테스트 진입점({@code main}) 공용 인자 처리.
+ *
+ * <p>인자는 모두 {@code --name=value} 형식이며, Gradle 태스크는 {@code -PbenchmarkArgs}/{@code -PloadArgs}를
+ * 공백으로 나눠 그대로 넘긴다.
+ */
+final class BenchmarkArgs {
+
+    private static final DateTimeFormatter REPORT_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss").withZone(ZoneOffset.UTC);
+
+    private BenchmarkArgs() {
+    }
+
+    /**
+     * @return 이름(앞의 {@code --} 제외) → 값. 빈 인자는 무시한다
+     * @throws IllegalArgumentException {@code --name=value} 형식이 아닌 인자
+     */
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (!arg.isBlank()) {
+                throw new IllegalArgumentException("Unknown argument: " + arg + " (expected --name=value)");
+            }
+        }
+        return values;
+    }
+
+    /**
+     * JSON 리포트 경로: {@code --out}, 없으면 {@code <directory>/<prefix>-<UTC 시각>.json}.
+     */
+    static Path reportPath(Map<String, String> values, String directory, String prefix) {
+        String out = values.get("out");
+        return out != null
+                ? Path.of(out)
+                : Path.of(directory, prefix + "-" + REPORT_TIMESTAMP.format(Instant.now()) + ".json");
+    }
+}
@@ -0,0 +1,38 @@
+package com.biorad.csrag.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BenchmarkArgsTest {
+
+    @Test
+    void parse_readsNameValuePairsAndSkipsBlankArguments() {
+        Map<String, String> values = BenchmarkArgs.parse(new String[]{
+                "--k=10", "", "--jdbc-url=jdbc:postgresql://localhost/csrag?reWriteBatchedInserts=true"});
+
+        assertThat(values)
+                .containsEntry("k", "10")
+                .containsEntry("jdbc-url", "jdbc:postgresql://localhost/csrag?reWriteBatchedInserts=true")
+                .hasSize(2);
+    }
+
+    @Test
+    void parse_rejectsArgumentsWithoutNameValueForm() {
+        assertThatThrownBy(() -> BenchmarkArgs.parse(new String[]{"--k", "10"}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("--name=value");
+    }
+
+    @Test
+    void reportPath_prefersOutAndOtherwiseTimestampsUnderDirectory() {
+        assertThat(BenchmarkArgs.reportPath(Map.of("out", "base.json"), "build/reports/x", "bench"))
+                .isEqualTo(Path.of("base.json"));
+        assertThat(BenchmarkArgs.reportPath(Map.of(), "build/reports/x", "bench").toString())
+                .matches("build[/\\\\]reports[/\\\\]x[/\\\\]bench-\\d{8}T\\d{6}\\.json");
+    }
+}
@@ -0,0 +1,169 @@
+package com.biorad.csrag.evaluation;
+
+import com.biorad.csrag.app.CsRagApplication;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkBulkWriter;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 인제스트 청크 저장 벤치마크: JPA {@code saveAll}/파생 삭제 대비 {@link DocumentChunkBulkWriter}의 처리량.
+ *
+ * <p>대형 매뉴얼 하나를 재인덱싱하는 상황을 재현한다. 라운드마다 같은 문서의 기존 청크를 삭제하고
+ * 새 ID의 부모·자식 청크 {@code --chunks}개(기본 2,000)를 한 트랜잭션으로 저장하며, 변형별로 다음을 기록한다.
+ * <ul>
+ *   <li>{@code latency}: 라운드(삭제 + 저장) 시간 분포</li>
+ *   <li>{@code chunksPerSecond}: 평균 라운드 시간 기준 초당 저장 청크 수</li>
+ *   <li>{@code speedup}: JPA 평균 라운드 시간 / 이 변형의 평균 라운드 시간</li>
+ * </ul>
+ * 기본은 H2 인메모리이고, 운영과 같은 수치(tsvector 계산, multi-row INSERT)는 PostgreSQL에서 측정한다.
+ *
+ * <pre>
+ * ./gradlew :app-api:chunkPersistenceBenchmark -PbenchmarkArgs="--chunks=2000 --repeat=5"
+ * ./gradlew :app-api:chunkPersistenceBenchmark -PbenchmarkArgs="--jdbc-url=jdbc:postgresql://localhost:5432/csrag?reWriteBatchedInserts=true --username=csrag --password=csrag"
+ * </pre>
+ */
+public class ChunkPersistenceBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int CHILDREN_PER_PARENT = 4;
+    private static final String SENTENCE = "QX700 droplet reader의 채널 보정은 실행 전에 수행합니다. "
+            + "Calibrate the optical path with the supplied plate before each run and verify the baseline. ";
+
+    /**
+     * @param chunksPerSecond 평균 라운드 시간 기준 초당 저장 청크 수
+     * @param speedup         JPA 평균 라운드 시간 / 이 변형의 평균 라운드 시간
+     */
+    public record Variant(String name, RetrievalBenchmarkReport.StageLatency latency, double chunksPerSecond,
+                          double speedup) {}
+
+    public record Report(String createdAt, Map<String, Object> config, String database, int chunks,
+                         List<Variant> variants) {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = BenchmarkArgs.parse(args);
+        Path out = BenchmarkArgs.reportPath(values, "build/reports/ingestion-benchmark", "chunk-persistence");
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CsRagApplication.class)
+                .profiles("test")
+                .properties("logging.level.com.biorad.csrag=WARN");
+        if (values.containsKey("jdbc-url")) {
+            builder.properties(
+                    "spring.datasource.url=" + values.get("jdbc-url"),
+                    "spring.datasource.driver-class-name=org.postgresql.Driver",
+                    "spring.datasource.username=" + values.getOrDefault("username", "csrag"),
+                    "spring.datasource.password=" + values.getOrDefault("password", "csrag"));
+        } else {
+            builder.properties(
+                    "spring.datasource.url=jdbc:h2:mem:chunk_persistence_benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            Report report = run(context, values);
+            Files.createDirectories(out.toAbsolutePath().getParent());
+            MAPPER.writeValue(out.toFile(), report);
+            System.out.printf("chunk persistence benchmark: db=%s chunks=%d -> %s%n",
+                    report.database(), report.chunks(), out);
+            for (Variant variant : report.variants()) {
+                System.out.printf("  %-5s mean=%.1fms p50=%.1fms max=%.1fms chunks/s=%.0f speedup=%.2fx%n",
+                        variant.name(), variant.latency().meanMs(), variant.latency().p50Ms(),
+                        variant.latency().maxMs(), variant.chunksPerSecond(), variant.speedup());
+            }
+        }
+    }
+
+    static Report run(ConfigurableApplicationContext context, Map<String, String> values) {
+        int chunks = Integer.parseInt(values.getOrDefault("chunks", "2000"));
+        int repeat = Math.max(1, Integer.parseInt(values.getOrDefault("repeat", "5")));
+        int warmup = Math.max(0, Integer.parseInt(values.getOrDefault("warmup", "1")));
+
+        DocumentChunkJpaRepository repository = context.getBean(DocumentChunkJpaRepository.class);
+        DocumentChunkBulkWriter writer = context.getBean(DocumentChunkBulkWriter.class);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        UUID documentId = UUID.randomUUID();
+
+        RetrievalBenchmarkReport.StageLatency jpa = measure(tx, documentId, chunks, warmup, repeat, batch -> {
+            repository.deleteByDocumentId(documentId);
+            repository.saveAll(batch);
+        });
+        RetrievalBenchmarkReport.StageLatency bulk = measure(tx, documentId, chunks, warmup, repeat, batch -> {
+            writer.deleteByDocumentId(documentId);
+            writer.insertAll(batch);
+        });
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("jpa", jpa, throughput(chunks, jpa), 1.0));
+        variants.add(new Variant("bulk", bulk, throughput(chunks, bulk),
+                bulk.meanMs() == 0 ? 0 : jpa.meanMs() / bulk.meanMs()));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("repeat", repeat);
+        config.put("warmup", warmup);
+        config.put("childrenPerParent", CHILDREN_PER_PARENT);
+        String database = context.getEnvironment().getProperty("spring.datasource.url", "");
+        return new Report(Instant.now().toString(), config, database.replaceAll("\\?.*$", ""), chunks, variants);
+    }
+
+    /** 라운드마다 새 청크를 만들어 기존 청크를 교체한다. 청크 생성 시간은 측정에서 제외한다. */
+    private static RetrievalBenchmarkReport.StageLatency measure(TransactionTemplate tx, UUID documentId, int chunks,
+                                                                 int warmup, int repeat,
+                                                                 Consumer<List<DocumentChunkJpaEntity>> replace) {
+        long[] nanos = new long[repeat];
+        for (int round = 0; round < warmup + repeat; round++) {
+            List<DocumentChunkJpaEntity> batch = manual(documentId, chunks);
+            long started = System.nanoTime();
+            tx.executeWithoutResult(status -> replace.accept(batch));
+            if (round >= warmup) {
+                nanos[round - warmup] = System.nanoTime() - started;
+            }
+        }
+        return RetrievalBenchmarkReport.StageLatency.of(nanos);
+    }
+
+    /** 부모 1개당 자식 {@link #CHILDREN_PER_PARENT}개로 구성된 매뉴얼 청크. 부모가 자식보다 앞에 온다. */
+    static List<DocumentChunkJpaEntity> manual(UUID documentId, int chunks) {
+        List<DocumentChunkJpaEntity> result = new ArrayList<>(chunks);
+        Instant now = Instant.now();
+        DocumentChunkJpaEntity parent = null;
+        int children = 0;
+        for (int i = 0; i < chunks; i++) {
+            int page = i / 20 + 1;
+            if (parent == null || children == CHILDREN_PER_PARENT) {
+                parent = new DocumentChunkJpaEntity(UUID.randomUUID(), documentId, result.size(), i * 1500,
+                        (i + 1) * 1500, SENTENCE.repeat(10) + "#" + i, "KNOWLEDGE_BASE", documentId, page, page, now);
+                parent.setChunkLevel("PARENT");
+                parent.setProductFamily("QX700");
+                result.add(parent);
+                children = 0;
+                continue;
+            }
+            DocumentChunkJpaEntity child = new DocumentChunkJpaEntity(UUID.randomUUID(), documentId,
+                    parent.getChunkIndex() * 100 + children, parent.getStartOffset(), parent.getEndOffset(),
+                    SENTENCE.repeat(3) + "#" + i, "KNOWLEDGE_BASE", documentId, page, page, now);
+            child.setParentChunkId(parent.getId());
+            child.setProductFamily("QX700");
+            result.add(child);
+            children++;
+        }
+        return result;
+    }
+
+    private static double throughput(int chunks, RetrievalBenchmarkReport.StageLatency latency) {
+        return latency.meanMs() == 0 ? 0 : chunks / (latency.meanMs() / 1000.0);
+    }
+}
@@ -0,0 +1,210 @@
+package com.biorad.csrag.evaluation;
+
+import com.biorad.csrag.app.CsRagApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 답변 초안 종단 부하 테스트 하네스.
+ *
+ * <p>{@link OpenAiStubServer}를 띄우고 애플리케이션을 test 프로파일(H2, mock 벡터스토어)에
+ * {@code openai.enabled=true}, {@code openai.base-url=<stub>}으로 부팅한다. 따라서 임베딩·분해·리랭크·작성(SSE)·검증·리뷰가
+ * 실제 {@code OpenAi*} 클라이언트와 HTTP/JSON/스트리밍 경로를 그대로 거친다.
+ * 골든 데이터셋 코퍼스를 인덱싱하고 평가셋 질문으로 문의를 만든 뒤, N개 동시 클라이언트로
+ * {@code POST /api/v1/inquiries/{id}/answers/draft}를 호출해 처리량과 꼬리 지연시간을 JSON으로 기록한다.
+ *
+ * <p>실행 방법:
+ * <pre>
+ * ./gradlew :app-api:draftLoadTest -PloadArgs="--concurrency=16 --requests=200 --chat-latency=lognormal:600:0.6"
+ * </pre>
+ * 하네스 옵션: {@code --concurrency}, {@code --requests}, {@code --warmup}, {@code --evalset}, {@code --out}.
+ * 나머지 옵션({@code --chat-latency}, {@code --rate-limit-rate} 등)은 {@link OpenAiStubServer.Options}로 전달된다.
+ * 요청 레이트 리밋({@code app.rate-limit})은 꺼서 서버 처리량 자체를 측정한다.
+ */
+public class DraftLoadHarness {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = BenchmarkArgs.parse(args);
+        Options options = Options.parse(values);
+        OpenAiStubServer.Options stubOptions = OpenAiStubServer.Options.parse(values);
+
+        try (OpenAiStubServer stub = OpenAiStubServer.start(stubOptions);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(CsRagApplication.class)
+                     .profiles("test")
+                     .properties(
+                             "openai.enabled=true",
+                             "openai.base-url=" + stub.baseUrl(),
+                             "openai.api-key=stub-key",
+                             "app.rate-limit.enabled=false",
+                             "logging.level.com.biorad.csrag=WARN",
+                             "spring.datasource.url=jdbc:h2:mem:draft_load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                     .run()) {
+
+            RetrievalBenchmarkRunner.indexCorpus(context,
+                    RetrievalBenchmarkRunner.corpusFromGoldenDataset(GoldenDataset.load()));
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+
+            DraftLoadReport report = new DraftLoadHarness().run(baseUrl, stub, options, stubOptions);
+
+            Files.createDirectories(options.out().toAbsolutePath().getParent());
+            MAPPER.writeValue(options.out().toFile(), report);
+            DraftLoadReport.LatencySummary latency = report.latency();
+            System.out.printf("draft load: requests=%d ok=%d failed=%d concurrency=%d -> %s%n",
+                    report.requests(), report.succeeded(), report.failed(), options.concurrency(), options.out());
+            System.out.printf("  throughput=%.2f req/s  p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                    report.throughput(), latency.p50Ms(), latency.p95Ms(), latency.p99Ms(), latency.maxMs());
+            System.out.printf("  stub calls=%s 429=%d streamed=%d tokens(prompt/completion)=%d/%d%n",
+                    report.stubCalls().requests(), report.stubCalls().rateLimited(), report.stubCalls().streamed(),
+                    report.stubCalls().promptTokens(), report.stubCalls().completionTokens());
+        }
+    }
+
+    DraftLoadReport run(String baseUrl, OpenAiStubServer stub, Options options,
+                        OpenAiStubServer.Options stubOptions) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<String> questions = RetrievalBenchmarkRunner.loadCases(options.evalset()).stream()
+                .map(RetrievalBenchmarkRunner.EvalCase::question)
+                .toList();
+        if (questions.isEmpty()) {
+            throw new IllegalArgumentException("Eval set has no questions: " + options.evalset());
+        }
+        List<String> inquiryIds = new ArrayList<>();
+        for (int i = 0; i < options.warmup() + options.requests(); i++) {
+            inquiryIds.add(createInquiry(client, baseUrl, questions.get(i % questions.size())));
+        }
+
+        for (int i = 0; i < options.warmup(); i++) {
+            draft(client, baseUrl, inquiryIds.get(i));
+        }
+
+        OpenAiStubServer.Stats before = stub.stats();
+        long[] latencies = new long[options.requests()];
+        int[] statuses = new int[options.requests()];
+        ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+        long started = System.nanoTime();
+        for (int i = 0; i < options.requests(); i++) {
+            int index = i;
+            String inquiryId = inquiryIds.get(options.warmup() + i);
+            clients.submit(() -> {
+                long requestStarted = System.nanoTime();
+                statuses[index] = draft(client, baseUrl, inquiryId);
+                latencies[index] = System.nanoTime() - requestStarted;
+            });
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(options.timeoutMinutes(), TimeUnit.MINUTES)) {
+            clients.shutdownNow();
+            throw new IllegalStateException("Load run did not finish within " + options.timeoutMinutes() + " minutes");
+        }
+        long wallClockNanos = System.nanoTime() - started;
+        OpenAiStubServer.Stats calls = DraftLoadReport.delta(before, stub.stats());
+
+        Map<String, Integer> statusCounts = new TreeMap<>();
+        int succeeded = 0;
+        for (int status : statuses) {
+            statusCounts.merge(status < 0 ? "error" : String.valueOf(status), 1, Integer::sum);
+            if (status >= 200 && status < 300) {
+                succeeded++;
+            }
+        }
+        Map<String, Double> callsPerDraft = new LinkedHashMap<>();
+        calls.requests().forEach((endpoint, count) ->
+                callsPerDraft.put(endpoint, (double) count / options.requests()));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("concurrency", options.concurrency());
+        config.put("warmup", options.warmup());
+        config.put("evalset", options.evalset());
+        config.put("stub", stubOptions);
+
+        return new DraftLoadReport(
+                DateTimeFormatter.ISO_INSTANT.format(Instant.now()),
+                config,
+                options.requests(),
+                succeeded,
+                options.requests() - succeeded,
+                statusCounts,
+                DraftLoadReport.toMillis(wallClockNanos),
+                succeeded / (wallClockNanos / 1_000_000_000.0),
+                DraftLoadReport.LatencySummary.of(latencies),
+                calls,
+                callsPerDraft
+        );
+    }
+
+    private static String createInquiry(HttpClient client, String baseUrl, String question)
+            throws IOException, InterruptedException {
+        String body = MAPPER.writeValueAsString(Map.of("question", question, "customerChannel", "email"));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/inquiries"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Inquiry creation failed: " + response.statusCode() + " " + response.body());
+        }
+        JsonNode created = MAPPER.readTree(response.body());
+        return created.path("inquiryId").asText();
+    }
+
+    /** 초안 생성 요청의 HTTP 상태를 돌려준다 (연결 실패는 -1). */
+    private static int draft(HttpClient client, String baseUrl, String inquiryId) {
+        try {
+            HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/inquiries/" + inquiryId + "/answers/draft"))
+                            .header("Content-Type", "application/json")
+                            .timeout(Duration.ofMinutes(5))
+                            .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    record Options(int concurrency, int requests, int warmup, String evalset, long timeoutMinutes, Path out) {
+
+        static Options parse(Map<String, String> values) {
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("concurrency", "8")),
+                    Integer.parseInt(values.getOrDefault("requests", "100")),
+                    Integer.parseInt(values.getOrDefault("warmup", "5")),
+                    values.getOrDefault("evalset", "evaluation/sprint3_evalset_v1.json"),
+                    Long.parseLong(values.getOrDefault("timeout-minutes", "30")),
+                    BenchmarkArgs.reportPath(values, "build/reports/load-test", "draft-load")
+            );
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.biorad.csrag.evaluation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 답변 초안 부하 테스트 결과 DTO ({@link DraftLoadHarness}가 JSON으로 기록).
+ *
+ * @param statusCounts   HTTP 상태 코드별 응답 수 (연결 실패는 {@code "error"})
+ * @param throughput     측정 구간 전체 성공 요청 처리량 (req/s)
+ * @param latency        성공·실패를 포함한 요청별 종단 지연시간
+ * @param stubCalls      측정 구간 동안 스텁이 받은 호출 (시드 인덱싱·워밍업 제외)
+ * @param callsPerDraft  초안 1건당 평균 스텁 호출 수 (엔드포인트별)
+ */
+public record DraftLoadReport(
+        String createdAt,
+        Map<String, Object> config,
+        int requests,
+        int succeeded,
+        int failed,
+        Map<String, Integer> statusCounts,
+        double wallClockMs,
+        double throughput,
+        LatencySummary latency,
+        OpenAiStubServer.Stats stubCalls,
+        Map<String, Double> callsPerDraft
+) {
+
+    /** 요청 지연시간 요약 (ms, nearest-rank 백분위수) */
+    public record LatencySummary(int samples, double meanMs, double p50Ms, double p90Ms, double p95Ms,
+                                 double p99Ms, double maxMs) {
+
+        static LatencySummary of(long[] nanos) {
+            if (nanos.length == 0) {
+                return new LatencySummary(0, 0, 0, 0, 0, 0, 0);
+            }
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            return new LatencySummary(sorted.length,
+                    toMillis(Arrays.stream(sorted).average().orElse(0)),
+                    toMillis(RetrievalBenchmarkReport.percentile(sorted, 0.50)),
+                    toMillis(RetrievalBenchmarkReport.percentile(sorted, 0.90)),
+                    toMillis(RetrievalBenchmarkReport.percentile(sorted, 0.95)),
+                    toMillis(RetrievalBenchmarkReport.percentile(sorted, 0.99)),
+                    toMillis(sorted[sorted.length - 1]));
+        }
+    }
+
+    /** 측정 전후 스텁 통계의 차이 */
+    static OpenAiStubServer.Stats delta(OpenAiStubServer.Stats before, OpenAiStubServer.Stats after) {
+        Map<String, Long> requests = new LinkedHashMap<>();
+        after.requests().forEach((endpoint, count) ->
+                requests.put(endpoint, count - before.requests().getOrDefault(endpoint, 0L)));
+        return new OpenAiStubServer.Stats(requests,
+                after.rateLimited() - before.rateLimited(),
+                after.streamed() - before.streamed(),
+                after.toolCalls() - before.toolCalls(),
+                after.promptTokens() - before.promptTokens(),
+                after.completionTokens() - before.completionTokens());
+    }
+
+    static double toMillis(double nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
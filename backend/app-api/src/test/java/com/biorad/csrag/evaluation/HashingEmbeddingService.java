@@ -0,0 +1,64 @@
+package com.biorad.csrag.evaluation;
+
+import com.biorad.csrag.interfaces.rest.vector.EmbeddingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 오프라인 벤치마크용 로컬 임베딩 대역.
+ *
+ * <p>{@code MockEmbeddingService}는 텍스트 해시 하나로 벡터를 만들어 유사도가 의미를 갖지 않는다.
+ * 이 구현은 단어와 (한글 토큰의 경우) 글자 bigram을 feature hashing해 L2 정규화하므로,
+ * 어휘가 겹치는 질문/청크가 실제로 가깝게 배치되어 recall·MRR 비교가 가능하다.
+ * 외부 호출이 없어 지연시간은 검색·융합·하이드레이션 비용만 반영한다.
+ */
+public class HashingEmbeddingService implements EmbeddingService {
+
+    static final int DIMENSION = 512;
+
+    @Override
+    public List<Double> embed(String text) {
+        double[] vector = new double[DIMENSION];
+        String safe = text == null ? "" : text.toLowerCase(Locale.ROOT);
+        for (String token : safe.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            add(vector, token, 1.0);
+            if (containsHangul(token)) {
+                // 조사·어미가 붙은 한국어 어절끼리도 겹치도록 글자 bigram을 추가한다
+                for (int i = 0; i + 2 <= token.length(); i++) {
+                    add(vector, token.substring(i, i + 2), 0.5);
+                }
+            }
+        }
+
+        double norm = 0;
+        for (double v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        List<Double> result = new ArrayList<>(DIMENSION);
+        for (double v : vector) {
+            result.add(norm == 0 ? 0.0 : v / norm);
+        }
+        return result;
+    }
+
+    private static void add(double[] vector, String feature, double weight) {
+        int hash = feature.hashCode() * 0x9E3779B1;
+        int index = Math.floorMod(hash, DIMENSION);
+        vector[index] += (hash >>> 31) == 0 ? weight : -weight;
+    }
+
+    private static boolean containsHangul(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.UnicodeScript.of(token.charAt(i)) == Character.UnicodeScript.HANGUL) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
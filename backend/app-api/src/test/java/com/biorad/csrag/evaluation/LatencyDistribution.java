@@ -0,0 +1,50 @@
+package com.biorad.csrag.evaluation;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 스텁 응답 지연시간 분포 (ms).
+ *
+ * <p>문자열 형식: {@code fixed:50}, {@code uniform:20:80}, {@code lognormal:<median>:<sigma>}.
+ * LLM 응답 시간은 긴 꼬리를 가지므로 부하 테스트에는 lognormal을 권장한다.
+ */
+public record LatencyDistribution(Kind kind, double first, double second) {
+
+    public enum Kind { FIXED, UNIFORM, LOGNORMAL }
+
+    public static final LatencyDistribution NONE = new LatencyDistribution(Kind.FIXED, 0, 0);
+
+    public static LatencyDistribution parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return NONE;
+        }
+        String[] parts = spec.trim().split(":");
+        Kind kind = Kind.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        double first = parts.length > 1 ? Double.parseDouble(parts[1]) : 0;
+        double second = parts.length > 2 ? Double.parseDouble(parts[2]) : 0;
+        if (kind != Kind.FIXED && parts.length < 3) {
+            throw new IllegalArgumentException("Latency distribution '" + spec + "' requires two parameters");
+        }
+        return new LatencyDistribution(kind, first, second);
+    }
+
+    /** 분포에서 지연시간 하나를 뽑는다 (음수는 0). */
+    public long sampleMillis(Random random) {
+        double value = switch (kind) {
+            case FIXED -> first;
+            case UNIFORM -> first + random.nextDouble() * (second - first);
+            case LOGNORMAL -> first * Math.exp(second * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(value));
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case FIXED -> "fixed:" + first;
+            case UNIFORM -> "uniform:" + first + ":" + second;
+            case LOGNORMAL -> "lognormal:" + first + ":" + second;
+        };
+    }
+}
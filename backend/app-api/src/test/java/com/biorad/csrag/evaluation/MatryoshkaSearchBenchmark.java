@@ -0,0 +1,221 @@
+package com.biorad.csrag.evaluation;
+
+import com.biorad.csrag.app.CsRagApplication;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.interfaces.rest.vector.EmbeddingService;
+import com.biorad.csrag.interfaces.rest.vector.MatryoshkaSearchProperties;
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchResult;
+import com.biorad.csrag.interfaces.rest.vector.segment.IvfIndexProperties;
+import com.biorad.csrag.interfaces.rest.vector.segment.SegmentVectorStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Matryoshka 2단계 검색 벤치마크: 전체 차원 전수 검색 대비 속도 향상과 recall.
+ *
+ * <p>평가셋 코퍼스를 실제 청킹 경로로 인덱싱한 뒤, 청크를 임베딩해 {@link SegmentVectorStore}(메모리 맵 세그먼트)에 적재한다.
+ * 실제 규모의 스캔 비용을 재현하려고 {@code --padding}개의 무작위 단위 벡터를 방해 포인트로 추가한다.
+ * 각 prefix 길이마다 다음을 기록한다.
+ * <ul>
+ *   <li>{@code overlapAtK}: 전체 차원 검색 top-k 대비 2단계 검색 top-k의 일치 비율 (근사 recall@k)</li>
+ *   <li>{@code quality}: 평가셋 {@code relevantDocuments} 기준 문서 단위 recall@k·MRR</li>
+ *   <li>{@code latency}, {@code speedup}: 쿼리당 검색 시간과 전체 차원 대비 배수</li>
+ * </ul>
+ * 기본 임베딩은 {@link HashingEmbeddingService}(512차원, Matryoshka 학습 아님)라 recall은 하한값이다.
+ * 실제 수치는 {@code --embedding=openai}(OPENAI_API_KEY 필요, prefix 256·512 권장)로 측정한다.
+ *
+ * <pre>
+ * ./gradlew :app-api:matryoshkaBenchmark -PbenchmarkArgs="--prefixes=128,256 --padding=100000"
+ * </pre>
+ */
+public class MatryoshkaSearchBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int EMBED_BATCH = 64;
+
+    /**
+     * @param overlapAtK 전체 차원 top-k와 겹치는 비율 (전체 차원 자신은 1.0)
+     * @param speedup    전체 차원 평균 지연시간 / 이 변형의 평균 지연시간
+     */
+    public record Variant(String name, int prefixDimensions, int candidates, double overlapAtK,
+                          RetrievalBenchmarkReport.Quality quality, RetrievalBenchmarkReport.StageLatency latency,
+                          double speedup) {}
+
+    public record Report(String createdAt, Map<String, Object> config, int dimension, int chunks, int paddingPoints,
+                         int cases, int labelledCases, List<Variant> variants) {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = BenchmarkArgs.parse(args);
+        boolean openAi = "openai".equals(values.getOrDefault("embedding", "hashing"));
+        Path out = BenchmarkArgs.reportPath(values, "build/reports/retrieval-benchmark", "matryoshka");
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CsRagApplication.class)
+                .profiles("test")
+                .properties(
+                        "logging.level.com.biorad.csrag=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:matryoshka_benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        if (openAi) {
+            builder.properties("openai.enabled=true", "openai.api-key=" + System.getenv("OPENAI_API_KEY"));
+        } else {
+            builder.initializers(ctx -> ((GenericApplicationContext) ctx).registerBean(
+                    EmbeddingService.class, HashingEmbeddingService::new, bd -> bd.setPrimary(true)));
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            Report report = run(context, values);
+            Files.createDirectories(out.toAbsolutePath().getParent());
+            MAPPER.writeValue(out.toFile(), report);
+            System.out.printf("matryoshka benchmark: dim=%d chunks=%d padding=%d cases=%d -> %s%n",
+                    report.dimension(), report.chunks(), report.paddingPoints(), report.cases(), out);
+            for (Variant variant : report.variants()) {
+                System.out.printf("  %-10s overlap@k=%.3f recall@k=%.3f mrr=%.3f mean=%.3fms p95=%.3fms speedup=%.2fx%n",
+                        variant.name(), variant.overlapAtK(), variant.quality().recallAtK(), variant.quality().mrr(),
+                        variant.latency().meanMs(), variant.latency().p95Ms(), variant.speedup());
+            }
+        }
+    }
+
+    static Report run(ConfigurableApplicationContext context, Map<String, String> values) throws Exception {
+        int k = Integer.parseInt(values.getOrDefault("k", "10"));
+        int padding = Integer.parseInt(values.getOrDefault("padding", "50000"));
+        int repeat = Math.max(1, Integer.parseInt(values.getOrDefault("repeat", "3")));
+        List<Integer> prefixes = new ArrayList<>();
+        for (String prefix : values.getOrDefault("prefixes", "128,256").split(",")) {
+            prefixes.add(Integer.parseInt(prefix.trim()));
+        }
+        List<String> evalsets = values.containsKey("evalset")
+                ? List.of(values.get("evalset").split(",")) : RetrievalBenchmarkRunner.DEFAULT_EVALSETS;
+
+        Map<UUID, String> fileNames = RetrievalBenchmarkRunner.indexCorpus(context,
+                RetrievalBenchmarkRunner.corpusFromGoldenDataset(GoldenDataset.load()));
+        List<RetrievalBenchmarkRunner.EvalCase> cases = new ArrayList<>();
+        for (String evalset : evalsets) {
+            cases.addAll(RetrievalBenchmarkRunner.loadCases(evalset));
+        }
+
+        EmbeddingService embeddingService = context.getBean(EmbeddingService.class);
+        List<DocumentChunkJpaEntity> chunks = context.getBean(DocumentChunkJpaRepository.class).findAll();
+        MatryoshkaSearchProperties matryoshka = new MatryoshkaSearchProperties();
+        matryoshka.setCandidateMultiplier(Integer.parseInt(values.getOrDefault("candidate-multiplier", "8")));
+        matryoshka.setMinCandidates(Integer.parseInt(values.getOrDefault("min-candidates", "64")));
+
+        Path directory = Files.createTempDirectory("matryoshka-benchmark");
+        SegmentVectorStore store = new SegmentVectorStore(directory.toString(), Integer.MAX_VALUE, false, 1.0, 64,
+                "benchmark", matryoshka, new IvfIndexProperties());
+        int dimension = 0;
+        for (int from = 0; from < chunks.size(); from += EMBED_BATCH) {
+            List<DocumentChunkJpaEntity> batch = chunks.subList(from, Math.min(chunks.size(), from + EMBED_BATCH));
+            List<List<Double>> vectors = embeddingService.embedBatch(batch.stream().map(DocumentChunkJpaEntity::getContent).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                DocumentChunkJpaEntity chunk = batch.get(i);
+                dimension = vectors.get(i).size();
+                store.upsert(chunk.getId(), chunk.getDocumentId(), vectors.get(i), chunk.getContent(), "KNOWLEDGE_BASE");
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < padding; i++) {
+            List<Double> vector = new ArrayList<>(dimension);
+            for (int d = 0; d < dimension; d++) {
+                vector.add(random.nextGaussian());
+            }
+            store.upsert(UUID.randomUUID(), UUID.randomUUID(), vector, "padding", "KNOWLEDGE_BASE");
+        }
+        // 운영과 같이 봉인된 메모리 맵 세그먼트에서 검색하도록 다시 연다
+        store.close();
+        store = new SegmentVectorStore(directory.toString(), Integer.MAX_VALUE, false, 1.0, 64, "benchmark", matryoshka,
+                new IvfIndexProperties());
+
+        List<List<Double>> queries = new ArrayList<>();
+        for (RetrievalBenchmarkRunner.EvalCase evalCase : cases) {
+            queries.add(embeddingService.embedQuery(evalCase.question()));
+        }
+
+        List<Variant> variants = new ArrayList<>();
+        matryoshka.setEnabled(false);
+        Measurement full = measure(store, queries, cases, fileNames, k, repeat, null);
+        variants.add(new Variant("full", dimension, k, 1.0, full.quality(), full.latency(), 1.0));
+        for (int prefix : prefixes) {
+            if (prefix >= dimension) {
+                continue;
+            }
+            matryoshka.setEnabled(true);
+            matryoshka.setPrefixDimensions(prefix);
+            Measurement twoStage = measure(store, queries, cases, fileNames, k, repeat, full.topK());
+            variants.add(new Variant("prefix-" + prefix, prefix, matryoshka.candidatesFor(k), twoStage.overlapAtK(),
+                    twoStage.quality(), twoStage.latency(),
+                    twoStage.latency().meanMs() == 0 ? 0 : full.latency().meanMs() / twoStage.latency().meanMs()));
+        }
+        store.close();
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("k", k);
+        config.put("repeat", repeat);
+        config.put("evalsets", evalsets);
+        config.put("embedding", embeddingService.getClass().getSimpleName());
+        config.put("candidateMultiplier", matryoshka.getCandidateMultiplier());
+        config.put("minCandidates", matryoshka.getMinCandidates());
+        int labelled = (int) cases.stream().filter(c -> !c.relevantDocuments().isEmpty()).count();
+        return new Report(DateTimeFormatter.ISO_INSTANT.format(Instant.now()), config, dimension, chunks.size(),
+                padding, cases.size(), labelled, variants);
+    }
+
+    private record Measurement(RetrievalBenchmarkReport.Quality quality, RetrievalBenchmarkReport.StageLatency latency,
+                               double overlapAtK, List<List<UUID>> topK) {}
+
+    private static Measurement measure(SegmentVectorStore store, List<List<Double>> queries,
+                                       List<RetrievalBenchmarkRunner.EvalCase> cases, Map<UUID, String> fileNames,
+                                       int k, int repeat, List<List<UUID>> reference) {
+        // 첫 회는 워밍업 (prefix norm 캐시, 페이지 캐시)
+        for (List<Double> query : queries) {
+            store.search(query, k);
+        }
+        long[] nanos = new long[queries.size() * repeat];
+        List<List<UUID>> topK = new ArrayList<>();
+        List<Double> recalls = new ArrayList<>();
+        List<Double> reciprocalRanks = new ArrayList<>();
+        double overlap = 0;
+        for (int q = 0; q < queries.size(); q++) {
+            List<VectorSearchResult> results = List.of();
+            for (int r = 0; r < repeat; r++) {
+                long started = System.nanoTime();
+                results = store.search(queries.get(q), k);
+                nanos[q * repeat + r] = System.nanoTime() - started;
+            }
+            List<UUID> chunkIds = results.stream().map(VectorSearchResult::chunkId).toList();
+            topK.add(chunkIds);
+            if (reference != null && !reference.get(q).isEmpty()) {
+                Set<UUID> expected = new HashSet<>(reference.get(q));
+                overlap += (double) chunkIds.stream().filter(expected::contains).count() / expected.size();
+            }
+            Set<String> relevant = cases.get(q).relevantDocuments();
+            if (!relevant.isEmpty()) {
+                List<String> documents = results.stream()
+                        .map(result -> fileNames.getOrDefault(result.documentId(), String.valueOf(result.documentId())))
+                        .distinct()
+                        .toList();
+                recalls.add(RetrievalBenchmarkReport.recallAtK(documents, relevant, k));
+                reciprocalRanks.add(RetrievalBenchmarkReport.reciprocalRank(documents, relevant));
+            }
+        }
+        return new Measurement(RetrievalBenchmarkReport.Quality.of(recalls, reciprocalRanks),
+                RetrievalBenchmarkReport.StageLatency.of(nanos),
+                queries.isEmpty() ? 0 : overlap / queries.size(), topK);
+    }
+}
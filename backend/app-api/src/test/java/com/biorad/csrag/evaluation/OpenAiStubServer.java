@@ -0,0 +1,478 @@
+package com.biorad.csrag.evaluation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 부하 테스트용 OpenAI 호환 스텁 서버.
+ *
+ * <p>{@code Mock*} 빈은 HTTP·JSON·스트리밍 경로를 건너뛰므로, 실제 {@code OpenAi*} 클라이언트를
+ * {@code openai.base-url}로 이 서버에 연결해 토큰 비용 없이 전체 경로를 부하 테스트한다.
+ * <ul>
+ *   <li>{@code POST /v1/embeddings}: 입력 문자열/배열, {@code dimensions} 지원. 텍스트 해시로 결정적 벡터 생성</li>
+ *   <li>{@code POST /v1/chat/completions}: 일반 응답, SSE 스트리밍({@code stream_options.include_usage} 포함),
+ *       JSON 모드, tool call</li>
+ *   <li>응답 지연시간 분포, 429 주입({@code retry-after-ms}), {@code x-ratelimit-*} 헤더, {@code usage} 토큰 필드</li>
+ * </ul>
+ *
+ * <p>JSON 응답 본문은 {@code openai-stub/responses.json}의 규칙 중 프롬프트에 처음 매칭되는 것을 쓴다.
+ * 각 프롬프트가 요구하는 JSON 키({@code subQuestions}, {@code verdict} 등)로 매칭하므로 프롬프트 문구를 바꿔도
+ * 키가 같으면 그대로 동작한다.
+ *
+ * <p>단독 실행: {@code OpenAiStubServer --port=8089 --chat-latency=lognormal:800:0.5} 후
+ * 애플리케이션을 {@code OPENAI_BASE_URL=http://127.0.0.1:8089/v1}로 띄운다.
+ */
+public final class OpenAiStubServer implements AutoCloseable {
+
+    private static final String RULES_RESOURCE = "openai-stub/responses.json";
+    private static final Pattern TOKEN_PIECE = Pattern.compile("(?<=\\s)");
+
+    private final Options options;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+    private final List<ResponseRule> rules;
+    private final JsonNode defaultJson;
+    private final String defaultText;
+
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder streamed = new LongAdder();
+    private final LongAdder toolCalls = new LongAdder();
+    private final LongAdder promptTokens = new LongAdder();
+    private final LongAdder completionTokens = new LongAdder();
+    private final AtomicLong ids = new AtomicLong();
+
+    private OpenAiStubServer(Options options) throws IOException {
+        this.options = options;
+        this.random = new Random(options.seed());
+
+        JsonNode fixture = loadFixture();
+        List<ResponseRule> loaded = new ArrayList<>();
+        for (JsonNode rule : fixture.path("rules")) {
+            loaded.add(new ResponseRule(rule.path("name").asText(), Pattern.compile(rule.path("match").asText()),
+                    rule.path("content")));
+        }
+        this.rules = List.copyOf(loaded);
+        this.defaultJson = fixture.path("defaultJson").isMissingNode() ? objectMapper.createObjectNode() : fixture.path("defaultJson");
+        this.defaultText = fixture.path("defaultText").asText("stub answer");
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), options.port()), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/v1/embeddings", exchange -> handle(exchange, "embeddings", this::embeddings));
+        server.createContext("/v1/chat/completions", exchange -> handle(exchange, "chat", this::chatCompletions));
+    }
+
+    public static OpenAiStubServer start(Options options) throws IOException {
+        OpenAiStubServer stub = new OpenAiStubServer(options);
+        stub.server.start();
+        return stub;
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (OpenAiStubServer stub = start(Options.parse(BenchmarkArgs.parse(args)))) {
+            System.out.printf("OpenAI stub listening on %s (%s)%n", stub.baseUrl(), stub.options);
+            new CountDownLatch(1).await();
+        }
+    }
+
+    /** {@code openai.base-url}에 넣을 주소 ({@code /v1} 포함) */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+    }
+
+    public Stats stats() {
+        Map<String, Long> byEndpoint = new TreeMap<>();
+        requests.forEach((endpoint, count) -> byEndpoint.put(endpoint, count.sum()));
+        return new Stats(byEndpoint, rateLimited.sum(), streamed.sum(), toolCalls.sum(),
+                promptTokens.sum(), completionTokens.sum());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ─── 공통 처리 ──────────────────────────────────────────────────────────
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException;
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, Handler handler) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, error("Method not allowed", "invalid_request_error", null));
+                return;
+            }
+            requests.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+            JsonNode request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = objectMapper.readTree(in);
+            }
+            if (shouldRateLimit()) {
+                rateLimited.increment();
+                exchange.getResponseHeaders().set("retry-after-ms", String.valueOf(options.retryAfterMs()));
+                exchange.getResponseHeaders().set("x-ratelimit-remaining-requests", "0");
+                sendJson(exchange, 429, error("Rate limit reached for requests (stub)", "requests", "rate_limit_exceeded"));
+                return;
+            }
+            exchange.getResponseHeaders().set("x-ratelimit-limit-requests", String.valueOf(options.requestsPerMinute()));
+            exchange.getResponseHeaders().set("x-ratelimit-remaining-requests", String.valueOf(options.requestsPerMinute() - 1));
+            exchange.getResponseHeaders().set("x-ratelimit-limit-tokens", String.valueOf(options.tokensPerMinute()));
+            exchange.getResponseHeaders().set("x-ratelimit-remaining-tokens", String.valueOf(options.tokensPerMinute() - 1));
+            handler.handle(exchange, request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            sendJson(exchange, 500, error("Stub failure: " + e.getMessage(), "server_error", null));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean shouldRateLimit() {
+        return options.rateLimitRate() > 0 && random.nextDouble() < options.rateLimitRate();
+    }
+
+    // ─── /embeddings ────────────────────────────────────────────────────────
+
+    private void embeddings(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException {
+        List<String> inputs = new ArrayList<>();
+        JsonNode input = request.path("input");
+        if (input.isArray()) {
+            input.forEach(node -> inputs.add(node.asText("")));
+        } else {
+            inputs.add(input.asText(""));
+        }
+        String model = request.path("model").asText("text-embedding-3-large");
+        int dimensions = request.path("dimensions").asInt(model.contains("small") ? 1536 : options.embeddingDimension());
+
+        Thread.sleep(options.embeddingLatency().sampleMillis(random));
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("object", "list");
+        ArrayNode data = response.putArray("data");
+        int tokens = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            ObjectNode item = data.addObject();
+            item.put("object", "embedding");
+            item.put("index", i);
+            ArrayNode embedding = item.putArray("embedding");
+            for (double value : embed(inputs.get(i), dimensions)) {
+                embedding.add(value);
+            }
+            tokens += estimateTokens(inputs.get(i));
+        }
+        response.put("model", model);
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", tokens);
+        usage.put("total_tokens", tokens);
+        promptTokens.add(tokens);
+        sendJson(exchange, 200, response);
+    }
+
+    /** 같은 텍스트는 항상 같은 단위 벡터가 되도록 텍스트 해시를 시드로 쓴다. */
+    private static double[] embed(String text, int dimensions) {
+        Random seeded = new Random(text.hashCode());
+        double[] vector = new double[dimensions];
+        double norm = 0;
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = seeded.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] /= norm;
+        }
+        return vector;
+    }
+
+    // ─── /chat/completions ──────────────────────────────────────────────────
+
+    private void chatCompletions(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException {
+        String model = request.path("model").asText("gpt-stub");
+        String prompt = promptText(request.path("messages"));
+        int inputTokens = estimateTokens(prompt);
+
+        JsonNode tools = request.path("tools");
+        boolean callTool = tools.isArray() && !tools.isEmpty() && !"none".equals(request.path("tool_choice").asText());
+        String content = callTool ? null : respond(request, prompt);
+        int outputTokens = callTool ? 20 : estimateTokens(content);
+        promptTokens.add(inputTokens);
+        completionTokens.add(outputTokens);
+
+        if (request.path("stream").asBoolean(false) && !callTool) {
+            streamed.increment();
+            stream(exchange, model, content, inputTokens, outputTokens,
+                    request.path("stream_options").path("include_usage").asBoolean(false));
+            return;
+        }
+
+        Thread.sleep(options.chatLatency().sampleMillis(random));
+
+        ObjectNode response = completionEnvelope("chat.completion", model);
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        if (callTool) {
+            toolCalls.increment();
+            message.putNull("content");
+            ObjectNode call = message.putArray("tool_calls").addObject();
+            call.put("id", "call_stub_" + ids.incrementAndGet());
+            call.put("type", "function");
+            ObjectNode function = call.putObject("function");
+            function.put("name", tools.path(0).path("function").path("name").asText());
+            function.put("arguments", objectMapper.createObjectNode().put("query", lastUserMessage(request)).toString());
+            choice.put("finish_reason", "tool_calls");
+        } else {
+            message.put("content", content);
+            choice.put("finish_reason", "stop");
+        }
+        response.set("usage", usage(inputTokens, outputTokens));
+        sendJson(exchange, 200, response);
+    }
+
+    private void stream(HttpExchange exchange, String model, String content, int inputTokens, int outputTokens,
+                        boolean includeUsage) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        Thread.sleep(options.firstTokenLatency().sampleMillis(random));
+        ObjectNode first = chunk(model);
+        ((ObjectNode) first.get("choices").get(0)).putObject("delta").put("role", "assistant").put("content", "");
+        writeEvent(out, first);
+
+        for (String piece : TOKEN_PIECE.split(content)) {
+            if (options.interTokenDelayMs() > 0) {
+                Thread.sleep(options.interTokenDelayMs());
+            }
+            ObjectNode delta = chunk(model);
+            ((ObjectNode) delta.get("choices").get(0)).putObject("delta").put("content", piece);
+            writeEvent(out, delta);
+        }
+
+        ObjectNode last = chunk(model);
+        ObjectNode lastChoice = (ObjectNode) last.get("choices").get(0);
+        lastChoice.putObject("delta");
+        lastChoice.put("finish_reason", "stop");
+        writeEvent(out, last);
+
+        if (includeUsage) {
+            ObjectNode usageChunk = completionEnvelope("chat.completion.chunk", model);
+            usageChunk.putArray("choices");
+            usageChunk.set("usage", usage(inputTokens, outputTokens));
+            writeEvent(out, usageChunk);
+        }
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * JSON 모드이거나 프롬프트가 JSON 응답을 요구하면 첫 번째로 매칭되는 규칙의 JSON을, 아니면 기본 답변 텍스트를 돌려준다.
+     */
+    String respond(JsonNode request, String prompt) {
+        boolean jsonMode = "json_object".equals(request.path("response_format").path("type").asText());
+        if (!jsonMode && !prompt.toLowerCase(Locale.ROOT).contains("json")) {
+            return defaultText;
+        }
+        for (ResponseRule rule : rules) {
+            if (rule.match().matcher(prompt).find()) {
+                return rule.content().isTextual() ? rule.content().asText() : rule.content().toString();
+            }
+        }
+        return defaultJson.toString();
+    }
+
+    // ─── 유틸 ───────────────────────────────────────────────────────────────
+
+    private ObjectNode completionEnvelope(String object, String model) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", "chatcmpl-stub-" + ids.incrementAndGet());
+        node.put("object", object);
+        node.put("created", System.currentTimeMillis() / 1000);
+        node.put("model", model);
+        return node;
+    }
+
+    private ObjectNode chunk(String model) {
+        ObjectNode node = completionEnvelope("chat.completion.chunk", model);
+        ObjectNode choice = node.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putNull("finish_reason");
+        return node;
+    }
+
+    private ObjectNode usage(int inputTokens, int outputTokens) {
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("prompt_tokens", inputTokens);
+        usage.put("completion_tokens", outputTokens);
+        usage.put("total_tokens", inputTokens + outputTokens);
+        return usage;
+    }
+
+    private ObjectNode error(String message, String type, String code) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode error = root.putObject("error");
+        error.put("message", message);
+        error.put("type", type);
+        if (code != null) {
+            error.put("code", code);
+        }
+        return root;
+    }
+
+    private void writeEvent(OutputStream out, JsonNode payload) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(payload) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** 메시지 content는 문자열 또는 (비전 요청의) 파트 배열이다. */
+    private static String promptText(JsonNode messages) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode message : messages) {
+            JsonNode content = message.path("content");
+            if (content.isArray()) {
+                content.forEach(part -> text.append(part.path("text").asText("")).append('\n'));
+            } else {
+                text.append(content.asText("")).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static String lastUserMessage(JsonNode request) {
+        String last = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                last = message.path("content").asText("");
+            }
+        }
+        return last.length() > 200 ? last.substring(0, 200) : last;
+    }
+
+    /** 대략적인 토큰 수: ASCII 4자당 1토큰, 그 외(한글 등) 문자당 1토큰. */
+    static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return Math.max(1, (ascii + 3) / 4 + other);
+    }
+
+    private JsonNode loadFixture() throws IOException {
+        try (InputStream in = OpenAiStubServer.class.getClassLoader().getResourceAsStream(RULES_RESOURCE)) {
+            if (in == null) {
+                throw new UncheckedIOException(new IOException("Missing stub fixture: " + RULES_RESOURCE));
+            }
+            return objectMapper.readTree(in);
+        }
+    }
+
+    record ResponseRule(String name, Pattern match, JsonNode content) {}
+
+    /**
+     * 스텁 동작 설정.
+     *
+     * @param rateLimitRate     429를 돌려줄 요청 비율 (0.0 ~ 1.0)
+     * @param interTokenDelayMs 스트리밍 조각 사이 지연
+     */
+    public record Options(
+            int port,
+            LatencyDistribution embeddingLatency,
+            LatencyDistribution chatLatency,
+            LatencyDistribution firstTokenLatency,
+            long interTokenDelayMs,
+            double rateLimitRate,
+            long retryAfterMs,
+            int embeddingDimension,
+            int requestsPerMinute,
+            int tokensPerMinute,
+            long seed
+    ) {
+
+        /** 지연 없음, 429 없음 (단위 테스트용) */
+        public static Options immediate() {
+            return parse(Map.of());
+        }
+
+        /**
+         * {@code --name=value} 인자에서 읽는다. 키: port, embedding-latency, chat-latency, first-token-latency,
+         * token-delay-ms, rate-limit-rate, retry-after-ms, embedding-dimension, rpm, tpm, seed.
+         */
+        public static Options parse(Map<String, String> values) {
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("port", "0")),
+                    LatencyDistribution.parse(values.getOrDefault("embedding-latency", "fixed:0")),
+                    LatencyDistribution.parse(values.getOrDefault("chat-latency", "fixed:0")),
+                    LatencyDistribution.parse(values.getOrDefault("first-token-latency", "fixed:0")),
+                    Long.parseLong(values.getOrDefault("token-delay-ms", "0")),
+                    Double.parseDouble(values.getOrDefault("rate-limit-rate", "0")),
+                    Long.parseLong(values.getOrDefault("retry-after-ms", "200")),
+                    Integer.parseInt(values.getOrDefault("embedding-dimension", "3072")),
+                    Integer.parseInt(values.getOrDefault("rpm", "100000")),
+                    Integer.parseInt(values.getOrDefault("tpm", "100000000")),
+                    Long.parseLong(values.getOrDefault("seed", "42"))
+            );
+        }
+    }
+
+    /** 엔드포인트별 요청 수, 주입된 429 수, 스트리밍·tool call 응답 수, 누적 usage 토큰 */
+    public record Stats(
+            Map<String, Long> requests,
+            long rateLimited,
+            long streamed,
+            long toolCalls,
+            long promptTokens,
+            long completionTokens
+    ) {}
+}
@@ -0,0 +1,202 @@
+package com.biorad.csrag.evaluation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class OpenAiStubServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private OpenAiStubServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = OpenAiStubServer.start(OpenAiStubServer.Options.immediate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void embeddings_returnsOneUnitVectorPerInputWithRequestedDimensions() throws Exception {
+        JsonNode response = post("/embeddings", """
+                {"model":"text-embedding-3-large","input":["첫 번째 청크","second chunk"],"dimensions":64}
+                """);
+
+        assertThat(response.path("data")).hasSize(2);
+        JsonNode first = response.path("data").get(0).path("embedding");
+        assertThat(first).hasSize(64);
+        double norm = 0;
+        for (JsonNode value : first) {
+            norm += value.asDouble() * value.asDouble();
+        }
+        assertThat(norm).isCloseTo(1.0, within(1e-6));
+        assertThat(response.path("usage").path("prompt_tokens").asInt()).isPositive();
+    }
+
+    @Test
+    void embeddings_areDeterministicForSameText() throws Exception {
+        String body = """
+                {"model":"text-embedding-3-small","input":"QX200 droplet"}
+                """;
+        JsonNode first = post("/embeddings", body).path("data").get(0).path("embedding");
+        JsonNode second = post("/embeddings", body).path("data").get(0).path("embedding");
+
+        assertThat(first).hasSize(1536);
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void chat_jsonMode_selectsRuleByRequestedKey() throws Exception {
+        JsonNode verify = post("/chat/completions", chatRequest(
+                "Respond in JSON with verdict, confidence, reason, riskFlags.", true));
+        JsonNode decompose = post("/chat/completions", chatRequest(
+                "질문을 분해하여 JSON {\\\"subQuestions\\\": [...]} 형식으로 응답하세요.", true));
+
+        JsonNode verdict = objectMapper.readTree(content(verify));
+        JsonNode subQuestions = objectMapper.readTree(content(decompose));
+        assertThat(verdict.path("verdict").asText()).isEqualTo("SUPPORTED");
+        assertThat(subQuestions.path("subQuestions").isArray()).isTrue();
+        assertThat(subQuestions.path("subQuestions")).isNotEmpty();
+    }
+
+    @Test
+    void chat_withoutJsonRequest_returnsDefaultAnswerText() throws Exception {
+        JsonNode response = post("/chat/completions", chatRequest("고객 문의에 답변하세요.", false));
+
+        assertThat(content(response)).isNotBlank().doesNotStartWith("{");
+        assertThat(response.path("choices").get(0).path("finish_reason").asText()).isEqualTo("stop");
+        assertThat(response.path("usage").path("completion_tokens").asInt()).isPositive();
+    }
+
+    @Test
+    void chat_withTools_returnsToolCallForFirstTool() throws Exception {
+        JsonNode response = post("/chat/completions", """
+                {"model":"gpt-5.2","messages":[{"role":"user","content":"QX200 droplet"}],
+                 "tools":[{"type":"function","function":{"name":"search_documents","parameters":{}}}],
+                 "tool_choice":"auto"}
+                """);
+
+        JsonNode call = response.path("choices").get(0).path("message").path("tool_calls").get(0);
+        assertThat(call.path("function").path("name").asText()).isEqualTo("search_documents");
+        assertThat(objectMapper.readTree(call.path("function").path("arguments").asText()).path("query").asText())
+                .isEqualTo("QX200 droplet");
+        assertThat(stub.stats().toolCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void chat_streaming_sendsDeltasUsageChunkAndDone() throws Exception {
+        HttpResponse<String> response = send("/chat/completions", """
+                {"model":"gpt-5.2","messages":[{"role":"user","content":"답변해 주세요"}],
+                 "stream":true,"stream_options":{"include_usage":true}}
+                """);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).contains("text/event-stream");
+        List<String> events = response.body().lines().filter(line -> line.startsWith("data: ")).toList();
+        assertThat(events.get(events.size() - 1)).isEqualTo("data: [DONE]");
+
+        StringBuilder text = new StringBuilder();
+        JsonNode usage = null;
+        for (String event : events.subList(0, events.size() - 1)) {
+            JsonNode chunk = objectMapper.readTree(event.substring(6));
+            if (chunk.has("usage")) {
+                usage = chunk.path("usage");
+            } else {
+                text.append(chunk.path("choices").get(0).path("delta").path("content").asText(""));
+            }
+        }
+        assertThat(text.toString()).isNotBlank();
+        assertThat(usage).isNotNull();
+        assertThat(usage.path("total_tokens").asInt()).isPositive();
+        assertThat(stub.stats().streamed()).isEqualTo(1);
+    }
+
+    @Test
+    void rateLimitInjection_returns429WithRetryAfter() throws Exception {
+        stub.close();
+        stub = OpenAiStubServer.start(OpenAiStubServer.Options.parse(
+                Map.of("rate-limit-rate", "1.0", "retry-after-ms", "150")));
+
+        HttpResponse<String> response = send("/chat/completions", chatRequest("hello", false));
+
+        assertThat(response.statusCode()).isEqualTo(429);
+        assertThat(response.headers().firstValue("retry-after-ms")).contains("150");
+        assertThat(objectMapper.readTree(response.body()).path("error").path("code").asText())
+                .isEqualTo("rate_limit_exceeded");
+        assertThat(stub.stats().rateLimited()).isEqualTo(1);
+        assertThat(stub.stats().requests()).containsEntry("chat", 1L);
+    }
+
+    @Test
+    void successfulResponses_carryRateLimitHeaders() throws Exception {
+        HttpResponse<String> response = send("/chat/completions", chatRequest("hello", false));
+
+        assertThat(response.headers().firstValue("x-ratelimit-limit-requests")).contains("100000");
+        assertThat(response.headers().firstValue("x-ratelimit-remaining-tokens")).isPresent();
+    }
+
+    @Test
+    void latencyDistribution_parsesAndSamplesWithinBounds() {
+        Random random = new Random(7);
+        LatencyDistribution fixed = LatencyDistribution.parse("fixed:50");
+        LatencyDistribution uniform = LatencyDistribution.parse("uniform:20:80");
+        LatencyDistribution lognormal = LatencyDistribution.parse("lognormal:100:0.5");
+
+        assertThat(fixed.sampleMillis(random)).isEqualTo(50);
+        for (int i = 0; i < 100; i++) {
+            assertThat(uniform.sampleMillis(random)).isBetween(20L, 80L);
+            assertThat(lognormal.sampleMillis(random)).isNotNegative();
+        }
+        assertThat(LatencyDistribution.parse("")).isEqualTo(LatencyDistribution.NONE);
+        assertThatThrownBy(() -> LatencyDistribution.parse("uniform:20"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void estimateTokens_countsKoreanCharactersIndividually() {
+        assertThat(OpenAiStubServer.estimateTokens("")).isZero();
+        assertThat(OpenAiStubServer.estimateTokens("abcdefgh")).isEqualTo(2);
+        assertThat(OpenAiStubServer.estimateTokens("안녕")).isEqualTo(2);
+    }
+
+    private String chatRequest(String userContent, boolean jsonMode) {
+        String format = jsonMode ? ",\"response_format\":{\"type\":\"json_object\"}" : "";
+        return "{\"model\":\"gpt-5.2\",\"messages\":[{\"role\":\"user\",\"content\":\"" + userContent + "\"}]" + format + "}";
+    }
+
+    private static String content(JsonNode completion) {
+        return completion.path("choices").get(0).path("message").path("content").asText();
+    }
+
+    private JsonNode post(String path, String body) throws Exception {
+        HttpResponse<String> response = send(path, body);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> send(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(stub.baseUrl() + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
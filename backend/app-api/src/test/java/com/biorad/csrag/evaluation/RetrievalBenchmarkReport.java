@@ -0,0 +1,144 @@
+package com.biorad.csrag.evaluation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 오프라인 검색 벤치마크 결과 DTO ({@link RetrievalBenchmarkRunner}가 JSON으로 기록).
+ *
+ * <p>품질 지표는 {@code relevantDocuments}가 있는 케이스만 집계하고, 지연시간은 모든 케이스로 집계한다.
+ *
+ * @param stages   단계별 지연시간 (embed, vector, keyword, hybrid, retrieve)
+ * @param quality  결과 목록별 품질 (hybrid: 융합 결과, retrieve: 리랭크·품질 게이트 이후 근거)
+ * @param baseline 비교 기준 리포트 대비 변화량 (기준이 없으면 null)
+ */
+public record RetrievalBenchmarkReport(
+        String createdAt,
+        Map<String, Object> config,
+        int documents,
+        int chunks,
+        int cases,
+        int labelledCases,
+        Map<String, StageLatency> stages,
+        Map<String, Quality> quality,
+        List<CaseResult> caseResults,
+        Map<String, Double> baseline
+) {
+
+    /** 단계 지연시간 요약 (ms) */
+    public record StageLatency(int samples, double meanMs, double p50Ms, double p95Ms, double maxMs) {
+
+        static StageLatency of(long[] nanos) {
+            if (nanos.length == 0) {
+                return new StageLatency(0, 0, 0, 0, 0);
+            }
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            double mean = Arrays.stream(sorted).average().orElse(0);
+            return new StageLatency(sorted.length, toMillis(mean),
+                    toMillis(percentile(sorted, 0.50)), toMillis(percentile(sorted, 0.95)),
+                    toMillis(sorted[sorted.length - 1]));
+        }
+    }
+
+    /** 문서 단위 품질 지표 (k = 설정된 topK) */
+    public record Quality(double recallAtK, double mrr, double hitRate) {
+
+        /**
+         * 케이스별 recall@k와 reciprocal rank로부터 평균을 낸다. hitRate는 관련 문서를 하나라도 찾은 비율이다.
+         */
+        static Quality of(List<Double> recalls, List<Double> reciprocalRanks) {
+            if (recalls.isEmpty()) {
+                return new Quality(0, 0, 0);
+            }
+            double recall = recalls.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double mrr = reciprocalRanks.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double hitRate = (double) recalls.stream().filter(r -> r > 0).count() / recalls.size();
+            return new Quality(recall, mrr, hitRate);
+        }
+    }
+
+    /**
+     * 케이스별 결과.
+     *
+     * @param retrievedDocuments retrieve 결과의 문서 파일명 (순위순, 중복 제거)
+     * @param hybridRecall       관련 문서가 없는 케이스는 null (품질 지표도 동일)
+     */
+    public record CaseResult(
+            String evalSet,
+            String caseId,
+            Set<String> relevantDocuments,
+            List<String> retrievedDocuments,
+            Double hybridRecall,
+            Double hybridReciprocalRank,
+            Double retrieveRecall,
+            Double retrieveReciprocalRank,
+            double retrieveMs
+    ) {}
+
+    // ─── 지표 계산 ───────────────────────────────────────────────────────────
+
+    /**
+     * 상위 k개 결과(문서 단위, 순위순)에 포함된 관련 문서 비율.
+     */
+    static double recallAtK(List<String> rankedDocuments, Collection<String> relevant, int k) {
+        if (relevant.isEmpty()) {
+            return 0.0;
+        }
+        long found = rankedDocuments.stream().limit(k).distinct().filter(relevant::contains).count();
+        return (double) found / relevant.size();
+    }
+
+    /**
+     * 첫 번째 관련 문서 순위의 역수 (없으면 0).
+     */
+    static double reciprocalRank(List<String> rankedDocuments, Collection<String> relevant) {
+        for (int i = 0; i < rankedDocuments.size(); i++) {
+            if (relevant.contains(rankedDocuments.get(i))) {
+                return 1.0 / (i + 1);
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * nearest-rank 백분위수. {@code sorted}는 오름차순이어야 한다.
+     */
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+    }
+
+    /**
+     * 기준 리포트 대비 변화량 (현재 - 기준). 지연시간은 ms, 품질은 절대값 차이다.
+     */
+    static Map<String, Double> diff(RetrievalBenchmarkReport current, RetrievalBenchmarkReport baseline) {
+        Map<String, Double> delta = new LinkedHashMap<>();
+        current.quality().forEach((name, quality) -> {
+            Quality before = baseline.quality() != null ? baseline.quality().get(name) : null;
+            if (before != null) {
+                delta.put(name + ".recallAtK", quality.recallAtK() - before.recallAtK());
+                delta.put(name + ".mrr", quality.mrr() - before.mrr());
+            }
+        });
+        current.stages().forEach((name, latency) -> {
+            StageLatency before = baseline.stages() != null ? baseline.stages().get(name) : null;
+            if (before != null) {
+                delta.put(name + ".p50Ms", latency.p50Ms() - before.p50Ms());
+                delta.put(name + ".p95Ms", latency.p95Ms() - before.p95Ms());
+            }
+        });
+        return delta;
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
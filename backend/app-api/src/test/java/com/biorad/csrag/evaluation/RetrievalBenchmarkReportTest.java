@@ -0,0 +1,101 @@
+package com.biorad.csrag.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RetrievalBenchmarkReportTest {
+
+    @Test
+    void recallAtK_countsDistinctRelevantDocumentsWithinTopK() {
+        List<String> ranked = List.of("a.pdf", "x.pdf", "a.pdf", "b.pdf", "c.pdf");
+
+        assertThat(RetrievalBenchmarkReport.recallAtK(ranked, Set.of("a.pdf", "b.pdf"), 3)).isEqualTo(0.5);
+        assertThat(RetrievalBenchmarkReport.recallAtK(ranked, Set.of("a.pdf", "b.pdf"), 4)).isEqualTo(1.0);
+        assertThat(RetrievalBenchmarkReport.recallAtK(ranked, Set.of(), 4)).isZero();
+    }
+
+    @Test
+    void reciprocalRank_usesFirstRelevantPosition() {
+        assertThat(RetrievalBenchmarkReport.reciprocalRank(List.of("x", "y", "a"), Set.of("a"))).isEqualTo(1.0 / 3);
+        assertThat(RetrievalBenchmarkReport.reciprocalRank(List.of("x", "y"), Set.of("a"))).isZero();
+    }
+
+    @Test
+    void percentile_nearestRank() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertThat(RetrievalBenchmarkReport.percentile(sorted, 0.50)).isEqualTo(5);
+        assertThat(RetrievalBenchmarkReport.percentile(sorted, 0.95)).isEqualTo(10);
+        assertThat(RetrievalBenchmarkReport.percentile(sorted, 0.0)).isEqualTo(1);
+        assertThat(RetrievalBenchmarkReport.percentile(new long[0], 0.5)).isZero();
+    }
+
+    @Test
+    void stageLatency_summarizesNanosInMillis() {
+        RetrievalBenchmarkReport.StageLatency latency =
+                RetrievalBenchmarkReport.StageLatency.of(new long[]{3_000_000, 1_000_000, 2_000_000});
+
+        assertThat(latency.samples()).isEqualTo(3);
+        assertThat(latency.meanMs()).isEqualTo(2.0);
+        assertThat(latency.p50Ms()).isEqualTo(2.0);
+        assertThat(latency.maxMs()).isEqualTo(3.0);
+    }
+
+    @Test
+    void quality_averagesAndCountsHits() {
+        RetrievalBenchmarkReport.Quality quality =
+                RetrievalBenchmarkReport.Quality.of(List.of(1.0, 0.0, 0.5), List.of(1.0, 0.0, 0.5));
+
+        assertThat(quality.recallAtK()).isEqualTo(0.5);
+        assertThat(quality.mrr()).isEqualTo(0.5);
+        assertThat(quality.hitRate()).isCloseTo(2.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void diff_reportsChangesForSharedKeysOnly() {
+        RetrievalBenchmarkReport baseline = report(
+                Map.of("retrieve", new RetrievalBenchmarkReport.Quality(0.6, 0.5, 0.8)),
+                Map.of("retrieve", new RetrievalBenchmarkReport.StageLatency(10, 5, 4, 9, 12)));
+        RetrievalBenchmarkReport current = report(
+                Map.of("retrieve", new RetrievalBenchmarkReport.Quality(0.7, 0.5, 0.9),
+                        "hybrid", new RetrievalBenchmarkReport.Quality(0.9, 0.8, 1.0)),
+                Map.of("retrieve", new RetrievalBenchmarkReport.StageLatency(10, 4, 3, 7, 10)));
+
+        Map<String, Double> delta = RetrievalBenchmarkReport.diff(current, baseline);
+
+        assertThat(delta).containsOnlyKeys("retrieve.recallAtK", "retrieve.mrr", "retrieve.p50Ms", "retrieve.p95Ms");
+        assertThat(delta.get("retrieve.recallAtK")).isCloseTo(0.1, within(1e-9));
+        assertThat(delta.get("retrieve.p95Ms")).isEqualTo(-2.0);
+    }
+
+    @Test
+    void corpusFromGoldenDataset_coversEveryRelevantDocument() {
+        GoldenDataset dataset = GoldenDataset.load();
+
+        List<RetrievalBenchmarkRunner.CorpusDocument> corpus = RetrievalBenchmarkRunner.corpusFromGoldenDataset(dataset);
+
+        Set<String> fileNames = Set.copyOf(corpus.stream().map(RetrievalBenchmarkRunner.CorpusDocument::fileName).toList());
+        dataset.getCases().forEach(c -> assertThat(fileNames).containsAll(c.relevantDocuments()));
+        assertThat(corpus).allSatisfy(d -> assertThat(d.text()).isNotBlank());
+    }
+
+    @Test
+    void loadCases_readsLabelledAndUnlabelledEvalSets() throws Exception {
+        List<RetrievalBenchmarkRunner.EvalCase> golden = RetrievalBenchmarkRunner.loadCases("golden-dataset.json");
+        List<RetrievalBenchmarkRunner.EvalCase> sprint = RetrievalBenchmarkRunner.loadCases("evaluation/sprint3_evalset_v1.json");
+
+        assertThat(golden).isNotEmpty().allSatisfy(c -> assertThat(c.relevantDocuments()).isNotEmpty());
+        assertThat(sprint).isNotEmpty().allSatisfy(c -> assertThat(c.question()).isNotBlank());
+    }
+
+    private static RetrievalBenchmarkReport report(Map<String, RetrievalBenchmarkReport.Quality> quality,
+                                                   Map<String, RetrievalBenchmarkReport.StageLatency> stages) {
+        return new RetrievalBenchmarkReport("2026-01-01T00:00:00Z", Map.of(), 0, 0, 0, 0, stages, quality, List.of(), null);
+    }
+}
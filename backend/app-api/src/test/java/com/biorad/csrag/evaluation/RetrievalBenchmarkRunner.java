@@ -0,0 +1,361 @@
+package com.biorad.csrag.evaluation;
+
+import com.biorad.csrag.app.CsRagApplication;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import com.biorad.csrag.inquiry.domain.model.Inquiry;
+import com.biorad.csrag.inquiry.domain.repository.InquiryRepository;
+import com.biorad.csrag.interfaces.rest.analysis.AnalysisService;
+import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
+import com.biorad.csrag.interfaces.rest.chunk.ChunkingService;
+import com.biorad.csrag.interfaces.rest.search.HybridSearchResult;
+import com.biorad.csrag.interfaces.rest.search.HybridSearchService;
+import com.biorad.csrag.interfaces.rest.search.KeywordSearchService;
+import com.biorad.csrag.interfaces.rest.vector.EmbeddingService;
+import com.biorad.csrag.interfaces.rest.vector.VectorStore;
+import com.biorad.csrag.interfaces.rest.vector.VectorizingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-JVM 오프라인 검색 품질·지연시간 벤치마크.
+ *
+ * <p>{@code scripts/evaluate_*.mjs}는 떠 있는 서버에 HTTP로 평가셋을 보낸다. 이 러너는 test 프로파일
+ * (H2, {@code vector.provider=mock}, {@code openai.enabled=false})로 애플리케이션을 프로세스 안에서 띄우고,
+ * 임베딩만 {@link HashingEmbeddingService}로 교체한 뒤 다음을 수행한다.
+ * <ol>
+ *   <li>코퍼스 문서를 실제 {@link ChunkingService} → {@link VectorizingService} 경로로 인덱싱</li>
+ *   <li>평가셋 질문을 단계별(embed, vector, keyword, hybrid, retrieve)로 재생하며 지연시간 측정</li>
+ *   <li>{@code relevantDocuments}가 있는 케이스로 문서 단위 recall@k, MRR 계산</li>
+ *   <li>JSON 리포트 기록 ({@code --baseline}을 주면 기준 대비 변화량 포함)</li>
+ * </ol>
+ *
+ * <p>실행 방법:
+ * <pre>
+ * ./gradlew :app-api:retrievalBenchmark
+ * ./gradlew :app-api:retrievalBenchmark -PbenchmarkArgs="--k=10 --baseline=build/reports/retrieval-benchmark/base.json"
+ * </pre>
+ * 옵션: {@code --evalset=a.json,b.json} (classpath 또는 파일), {@code --corpus=corpus.json}
+ * ({@code {"documents":[{"fileName","productFamily","text"}]}} — 생략하면 골든 데이터셋에서 생성),
+ * {@code --k}, {@code --warmup}, {@code --out}, {@code --baseline}.
+ */
+public class RetrievalBenchmarkRunner {
+
+    static final List<String> DEFAULT_EVALSETS = List.of(
+            "golden-dataset.json",
+            "evaluation/sprint3_evalset_v1.json",
+            "evaluation/sprint3_evalset_holdout_v1.json"
+    );
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final ConfigurableApplicationContext context;
+    private final Options options;
+    private final Map<UUID, String> fileNames = new HashMap<>();
+
+    RetrievalBenchmarkRunner(ConfigurableApplicationContext context, Options options) {
+        this.context = context;
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CsRagApplication.class)
+                .profiles("test")
+                .properties(
+                        "logging.level.com.biorad.csrag=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:retrieval_benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean(
+                        EmbeddingService.class, HashingEmbeddingService::new, bd -> bd.setPrimary(true)))
+                .run()) {
+            RetrievalBenchmarkReport report = new RetrievalBenchmarkRunner(context, options).run();
+
+            Files.createDirectories(options.out().toAbsolutePath().getParent());
+            MAPPER.writeValue(options.out().toFile(), report);
+            System.out.printf("retrieval benchmark: docs=%d chunks=%d cases=%d labelled=%d -> %s%n",
+                    report.documents(), report.chunks(), report.cases(), report.labelledCases(), options.out());
+            report.quality().forEach((name, q) -> System.out.printf("  %-8s recall@%d=%.3f mrr=%.3f hitRate=%.3f%n",
+                    name, options.k(), q.recallAtK(), q.mrr(), q.hitRate()));
+            report.stages().forEach((name, s) -> System.out.printf("  %-8s p50=%.3fms p95=%.3fms max=%.3fms%n",
+                    name, s.p50Ms(), s.p95Ms(), s.maxMs()));
+            if (report.baseline() != null) {
+                report.baseline().forEach((name, delta) -> System.out.printf("  Δ %-20s %+.3f%n", name, delta));
+            }
+        }
+    }
+
+    RetrievalBenchmarkReport run() throws IOException {
+        List<CorpusDocument> corpus = options.corpus() != null
+                ? loadCorpus(options.corpus())
+                : corpusFromGoldenDataset(GoldenDataset.load());
+        fileNames.putAll(indexCorpus(context, corpus));
+
+        List<EvalCase> cases = new ArrayList<>();
+        for (String evalset : options.evalsets()) {
+            cases.addAll(loadCases(evalset));
+        }
+
+        UUID inquiryId = context.getBean(InquiryRepository.class)
+                .save(Inquiry.create("retrieval benchmark", "benchmark"))
+                .getId().value();
+
+        for (int round = 0; round < options.warmup(); round++) {
+            for (EvalCase evalCase : cases) {
+                replay(inquiryId, evalCase, null);
+            }
+        }
+
+        Map<String, List<Long>> timings = new LinkedHashMap<>();
+        List<RetrievalBenchmarkReport.CaseResult> results = new ArrayList<>();
+        for (EvalCase evalCase : cases) {
+            results.add(replay(inquiryId, evalCase, timings));
+        }
+
+        Map<String, RetrievalBenchmarkReport.StageLatency> stages = new LinkedHashMap<>();
+        timings.forEach((stage, samples) -> stages.put(stage,
+                RetrievalBenchmarkReport.StageLatency.of(samples.stream().mapToLong(Long::longValue).toArray())));
+
+        List<RetrievalBenchmarkReport.CaseResult> labelled = results.stream()
+                .filter(r -> r.retrieveRecall() != null)
+                .toList();
+        Map<String, RetrievalBenchmarkReport.Quality> quality = new LinkedHashMap<>();
+        quality.put("hybrid", RetrievalBenchmarkReport.Quality.of(
+                labelled.stream().map(RetrievalBenchmarkReport.CaseResult::hybridRecall).toList(),
+                labelled.stream().map(RetrievalBenchmarkReport.CaseResult::hybridReciprocalRank).toList()));
+        quality.put("retrieve", RetrievalBenchmarkReport.Quality.of(
+                labelled.stream().map(RetrievalBenchmarkReport.CaseResult::retrieveRecall).toList(),
+                labelled.stream().map(RetrievalBenchmarkReport.CaseResult::retrieveReciprocalRank).toList()));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("k", options.k());
+        config.put("warmup", options.warmup());
+        config.put("evalsets", options.evalsets());
+        config.put("corpus", options.corpus() != null ? options.corpus().toString() : "golden-dataset.json");
+        config.put("embedding", HashingEmbeddingService.class.getSimpleName());
+        config.put("vectorStore", context.getBean(VectorStore.class).getClass().getSimpleName());
+        config.put("keywordSearch", context.getBean(KeywordSearchService.class).getClass().getSimpleName());
+
+        RetrievalBenchmarkReport report = new RetrievalBenchmarkReport(
+                DateTimeFormatter.ISO_INSTANT.format(Instant.now()),
+                config,
+                corpus.size(),
+                (int) context.getBean(DocumentChunkJpaRepository.class).count(),
+                cases.size(),
+                labelled.size(),
+                stages,
+                quality,
+                results,
+                null
+        );
+        if (options.baseline() != null) {
+            RetrievalBenchmarkReport baseline = MAPPER.readValue(options.baseline().toFile(), RetrievalBenchmarkReport.class);
+            report = new RetrievalBenchmarkReport(report.createdAt(), report.config(), report.documents(),
+                    report.chunks(), report.cases(), report.labelledCases(), report.stages(), report.quality(),
+                    report.caseResults(), RetrievalBenchmarkReport.diff(report, baseline));
+        }
+        return report;
+    }
+
+    // ─── 인덱싱 ─────────────────────────────────────────────────────────────
+
+    /**
+     * 코퍼스 문서를 KB 문서로 저장하고 실제 청킹·벡터화 경로로 인덱싱한다. 문서 ID → 파일명을 돌려준다.
+     */
+    static Map<UUID, String> indexCorpus(ConfigurableApplicationContext context, List<CorpusDocument> corpus) {
+        Map<UUID, String> fileNames = new HashMap<>();
+        KnowledgeDocumentJpaRepository kbDocRepository = context.getBean(KnowledgeDocumentJpaRepository.class);
+        ChunkingService chunkingService = context.getBean(ChunkingService.class);
+        VectorizingService vectorizingService = context.getBean(VectorizingService.class);
+
+        for (CorpusDocument document : corpus) {
+            KnowledgeDocumentJpaEntity doc = KnowledgeDocumentJpaEntity.create(
+                    document.fileName(), "MANUAL", document.productFamily(), document.fileName(), "text/plain",
+                    document.text().length(), "benchmark://" + document.fileName(), null, null, "benchmark");
+            doc.markParsed(document.text());
+            kbDocRepository.save(doc);
+
+            int chunks = chunkingService.chunkAndStore(doc.getId(), document.text(), "KNOWLEDGE_BASE",
+                    doc.getId(), document.fileName(), document.productFamily());
+            doc.markChunked(chunks);
+            vectorizingService.upsertDocumentChunks(doc.getId());
+            doc.markIndexed(chunks);
+            kbDocRepository.save(doc);
+            fileNames.put(doc.getId(), document.fileName());
+        }
+        return fileNames;
+    }
+
+    // ─── 재생 ───────────────────────────────────────────────────────────────
+
+    private RetrievalBenchmarkReport.CaseResult replay(UUID inquiryId, EvalCase evalCase, Map<String, List<Long>> timings) {
+        EmbeddingService embeddingService = context.getBean(EmbeddingService.class);
+        VectorStore vectorStore = context.getBean(VectorStore.class);
+        KeywordSearchService keywordSearchService = context.getBean(KeywordSearchService.class);
+        HybridSearchService hybridSearchService = context.getBean(HybridSearchService.class);
+        AnalysisService analysisService = context.getBean(AnalysisService.class);
+        int k = options.k();
+        // AnalysisService는 topK * 5 후보를 하이브리드 검색하고, 하이브리드는 각 검색기에 2배를 요청한다
+        int candidates = k * 5;
+
+        long started = System.nanoTime();
+        List<Double> queryVector = embeddingService.embedQuery(evalCase.question());
+        record(timings, "embed", started);
+
+        started = System.nanoTime();
+        vectorStore.search(queryVector, candidates * 2);
+        record(timings, "vector", started);
+
+        started = System.nanoTime();
+        keywordSearchService.search(evalCase.question(), candidates * 2);
+        record(timings, "keyword", started);
+
+        started = System.nanoTime();
+        List<HybridSearchResult> hybrid = hybridSearchService.search(evalCase.question(), candidates);
+        record(timings, "hybrid", started);
+
+        started = System.nanoTime();
+        List<EvidenceItem> evidences = analysisService.retrieve(inquiryId, evalCase.question(), k);
+        long retrieveNanos = record(timings, "retrieve", started);
+
+        List<String> hybridDocuments = hybrid.stream()
+                .map(r -> fileNames.getOrDefault(r.documentId(), String.valueOf(r.documentId())))
+                .distinct()
+                .toList();
+        List<String> retrievedDocuments = evidences.stream()
+                .map(e -> e.fileName() != null ? e.fileName() : e.documentId())
+                .distinct()
+                .toList();
+
+        Set<String> relevant = evalCase.relevantDocuments();
+        boolean labelled = !relevant.isEmpty();
+        return new RetrievalBenchmarkReport.CaseResult(
+                evalCase.evalSet(),
+                evalCase.id(),
+                relevant,
+                retrievedDocuments,
+                labelled ? RetrievalBenchmarkReport.recallAtK(hybridDocuments, relevant, k) : null,
+                labelled ? RetrievalBenchmarkReport.reciprocalRank(hybridDocuments, relevant) : null,
+                labelled ? RetrievalBenchmarkReport.recallAtK(retrievedDocuments, relevant, k) : null,
+                labelled ? RetrievalBenchmarkReport.reciprocalRank(retrievedDocuments, relevant) : null,
+                retrieveNanos / 1_000_000.0
+        );
+    }
+
+    private static long record(Map<String, List<Long>> timings, String stage, long startedNanos) {
+        long elapsed = System.nanoTime() - startedNanos;
+        if (timings != null) {
+            timings.computeIfAbsent(stage, s -> new ArrayList<>()).add(elapsed);
+        }
+        return elapsed;
+    }
+
+    // ─── 입력 로딩 ──────────────────────────────────────────────────────────
+
+    /**
+     * 골든 케이스마다 관련 문서를 만들고, 모범 답변과 ground truth 사실을 문서에 나눠 담는다.
+     * 다른 케이스의 문서가 서로의 방해 문서(distractor) 역할을 한다.
+     */
+    static List<CorpusDocument> corpusFromGoldenDataset(GoldenDataset dataset) {
+        Map<String, StringBuilder> texts = new LinkedHashMap<>();
+        for (GoldenDataset.GoldenCase goldenCase : dataset.getCases()) {
+            List<String> documents = goldenCase.relevantDocuments() != null ? goldenCase.relevantDocuments() : List.of();
+            if (documents.isEmpty()) {
+                continue;
+            }
+            List<String> facts = goldenCase.groundTruthFacts() != null ? goldenCase.groundTruthFacts() : List.of();
+            texts.computeIfAbsent(documents.get(0), d -> new StringBuilder())
+                    .append(goldenCase.expectedAnswer()).append("\n\n");
+            for (int i = 0; i < facts.size(); i++) {
+                texts.computeIfAbsent(documents.get(i % documents.size()), d -> new StringBuilder())
+                        .append(facts.get(i)).append(".\n");
+            }
+        }
+        return texts.entrySet().stream()
+                .map(e -> new CorpusDocument(e.getKey(), null, e.getValue().toString().trim()))
+                .toList();
+    }
+
+    private static List<CorpusDocument> loadCorpus(Path path) throws IOException {
+        JsonNode root = MAPPER.readTree(path.toFile());
+        List<CorpusDocument> documents = new ArrayList<>();
+        for (JsonNode node : root.path("documents")) {
+            String productFamily = node.path("productFamily").asText("");
+            documents.add(new CorpusDocument(
+                    node.path("fileName").asText(),
+                    productFamily.isBlank() ? null : productFamily,
+                    node.path("text").asText("")));
+        }
+        return documents;
+    }
+
+    /**
+     * 배열 또는 {@code {"cases": [...]}} 형식을 모두 읽는다. sprint3/4 평가셋처럼 관련 문서가 없는 케이스는 지연시간만 집계된다.
+     */
+    static List<EvalCase> loadCases(String location) throws IOException {
+        JsonNode root;
+        Path file = Path.of(location);
+        if (Files.isRegularFile(file)) {
+            root = MAPPER.readTree(file.toFile());
+        } else {
+            try (InputStream in = RetrievalBenchmarkRunner.class.getClassLoader().getResourceAsStream(location)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Eval set not found on classpath or filesystem: " + location);
+                }
+                root = MAPPER.readTree(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        JsonNode items = root.isArray() ? root : root.path("cases");
+        String name = file.getFileName().toString();
+        List<EvalCase> cases = new ArrayList<>();
+        for (JsonNode item : items) {
+            String question = item.path("question").asText("");
+            if (question.isBlank()) {
+                continue;
+            }
+            Set<String> relevant = new LinkedHashSet<>();
+            item.path("relevantDocuments").forEach(d -> relevant.add(d.asText()));
+            cases.add(new EvalCase(name, item.path("id").asText(name + "#" + cases.size()), question, relevant));
+        }
+        return cases;
+    }
+
+    record CorpusDocument(String fileName, String productFamily, String text) {}
+
+    record EvalCase(String evalSet, String id, String question, Set<String> relevantDocuments) {}
+
+    record Options(List<String> evalsets, Path corpus, int k, int warmup, Path out, Path baseline) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = BenchmarkArgs.parse(args);
+            return new Options(
+                    values.containsKey("evalset") ? List.of(values.get("evalset").split(",")) : DEFAULT_EVALSETS,
+                    values.containsKey("corpus") ? Path.of(values.get("corpus")) : null,
+                    Integer.parseInt(values.getOrDefault("k", "5")),
+                    Integer.parseInt(values.getOrDefault("warmup", "1")),
+                    BenchmarkArgs.reportPath(values, "build/reports/retrieval-benchmark", "retrieval-benchmark"),
+                    values.containsKey("baseline") ? Path.of(values.get("baseline")) : null
+            );
+        }
+    }
+}
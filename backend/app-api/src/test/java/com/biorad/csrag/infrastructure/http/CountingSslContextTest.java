@@ -0,0 +1,38 @@
+package com.biorad.csrag.infrastructure.http;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class CountingSslContextTest {
+
+    @Test
+    void createSslEngine_countsHandshakePerHostAndDelegates() throws Exception {
+        List<String> handshakes = new ArrayList<>();
+        SSLContext context = new CountingSslContext(SSLContext.getDefault(), handshakes::add);
+
+        SSLEngine engine = context.createSSLEngine("api.openai.com", 443);
+        context.createSSLEngine();
+
+        assertThat(engine.getPeerHost()).isEqualTo("api.openai.com");
+        assertThat(handshakes).containsExactly("api.openai.com", "-");
+    }
+
+    @Test
+    void init_isIgnoredAndKeepsDelegateUsable() throws Exception {
+        List<String> handshakes = new ArrayList<>();
+        SSLContext context = new CountingSslContext(SSLContext.getDefault(), handshakes::add);
+
+        assertThatCode(() -> context.init(null, null, null)).doesNotThrowAnyException();
+
+        assertThat(context.getSocketFactory()).isNotNull();
+        assertThat(context.createSSLEngine("qdrant.local", 6333).getPeerPort()).isEqualTo(6333);
+        assertThat(handshakes).containsExactly("qdrant.local");
+    }
+}
@@ -0,0 +1,163 @@
+package com.biorad.csrag.infrastructure.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundHttpTransportTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicReference<String> lastAcceptEncoding = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            lastAcceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] body = gzip("{\"ok\":true}");
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/gzip-empty", exchange -> {
+            // 204는 body 없이, 200은 chunked(길이 0 → 종료 chunk만)로 Content-Encoding만 붙여 보낸다
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            boolean noContent = exchange.getRequestURI().getQuery() != null;
+            exchange.sendResponseHeaders(noContent ? 204 : 200, noContent ? -1 : 0);
+            exchange.close();
+        });
+        server.createContext("/plain", exchange -> {
+            lastAcceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] body = "plain".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void gzipResponse_isDecompressedTransparently() {
+        RestClient client = new OutboundHttpTransport(new OutboundHttpProperties(), null)
+                .builder("openai", baseUrl).build();
+
+        String body = client.get().uri("/gzip").retrieve().body(String.class);
+
+        assertThat(body).isEqualTo("{\"ok\":true}");
+        assertThat(lastAcceptEncoding.get()).isEqualTo("gzip");
+    }
+
+    @Test
+    void gzipEncodedEmptyResponses_areNotDecompressed() {
+        RestClient client = new OutboundHttpTransport(new OutboundHttpProperties(), null)
+                .builder("openai", baseUrl).build();
+
+        assertThat(client.get().uri("/gzip-empty?status=204").retrieve().toEntity(String.class).getStatusCode().value())
+                .isEqualTo(204);
+        assertThat(client.head().uri("/gzip").retrieve().toBodilessEntity().getStatusCode().is2xxSuccessful())
+                .isTrue();
+        assertThat(client.get().uri("/gzip-empty").retrieve().body(String.class)).isNull();
+    }
+
+    @Test
+    void gzipDisabledForTarget_doesNotAdvertiseEncoding() {
+        OutboundHttpProperties properties = new OutboundHttpProperties();
+        OutboundHttpProperties.Target target = new OutboundHttpProperties.Target();
+        target.setGzip(false);
+        properties.getTargets().put("qdrant", target);
+        RestClient client = new OutboundHttpTransport(properties, null).builder("qdrant", baseUrl).build();
+
+        String body = client.get().uri("/plain").retrieve().body(String.class);
+
+        assertThat(body).isEqualTo("plain");
+        assertThat(lastAcceptEncoding.get()).isNull();
+    }
+
+    @Test
+    void stats_countRequestsAndErrorsPerTargetAndHost() {
+        OutboundHttpTransport transport = new OutboundHttpTransport(new OutboundHttpProperties(), null);
+        RestClient openai = transport.builder("openai", baseUrl).build();
+        RestClient qdrant = transport.builder("qdrant", baseUrl).build();
+
+        openai.get().uri("/plain").retrieve().body(String.class);
+        openai.get().uri("/plain").retrieve().body(String.class);
+        assertThatThrownBy(() -> qdrant.get().uri("/error").retrieve().toBodilessEntity())
+                .isInstanceOf(HttpServerErrorException.class);
+
+        List<OutboundHttpTransport.HostStats> stats = transport.getStats();
+        assertThat(stats).hasSize(2);
+        OutboundHttpTransport.HostStats openaiStats = stats.get(0);
+        assertThat(openaiStats.target()).isEqualTo("openai");
+        assertThat(openaiStats.host()).isEqualTo("127.0.0.1");
+        assertThat(openaiStats.requests()).isEqualTo(2);
+        assertThat(openaiStats.errors()).isZero();
+        assertThat(openaiStats.inFlight()).isZero();
+        // 평문 대상은 TLS 핸드셰이크로 재사용을 측정할 수 없다
+        assertThat(openaiStats.reusedRequests()).isEqualTo(-1);
+        OutboundHttpTransport.HostStats qdrantStats = stats.get(1);
+        assertThat(qdrantStats.requests()).isEqualTo(1);
+        assertThat(qdrantStats.errors()).isEqualTo(1);
+    }
+
+    @Test
+    void readTimeout_appliesPerTarget() {
+        OutboundHttpProperties properties = new OutboundHttpProperties();
+        OutboundHttpProperties.Target target = new OutboundHttpProperties.Target();
+        target.setReadTimeoutMs(100);
+        properties.getTargets().put("qdrant", target);
+        OutboundHttpTransport transport = new OutboundHttpTransport(properties, null);
+        RestClient client = transport.builder("qdrant", baseUrl).build();
+
+        assertThatThrownBy(() -> client.get().uri("/slow").retrieve().toBodilessEntity())
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(transport.getStats().get(0).errors()).isEqualTo(1);
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
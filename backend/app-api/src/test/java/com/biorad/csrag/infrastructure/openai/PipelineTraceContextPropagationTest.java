@@ -0,0 +1,128 @@
+package com.biorad.csrag.infrastructure.openai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스레드 경계를 넘는 {@link PipelineTraceContext} 전달 및 동시 누적 검증.
+ */
+class PipelineTraceContextPropagationTest {
+
+    @AfterEach
+    void tearDown() {
+        PipelineTraceContext.finish();
+    }
+
+    @Test
+    void wrappedExecutor_childCallsAccumulateIntoParentTrace() throws Exception {
+        PipelineTraceContext.start("inq-1");
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            var traced = PipelineTraceContext.wrap(pool);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(CompletableFuture.runAsync(
+                        () -> PipelineTraceContext.recordTokenUsage("RETRIEVE", 100, 10, "gpt-5-nano"), traced));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(PipelineTraceContext.getTotalPromptTokens()).isEqualTo(400);
+        assertThat(PipelineTraceContext.getTotalCompletionTokens()).isEqualTo(40);
+    }
+
+    @Test
+    void unwrappedTask_doesNotSeeParentTrace() throws Exception {
+        PipelineTraceContext.start("inq-2");
+        AtomicReference<PipelineTraceContext.PipelineTrace> seen = new AtomicReference<>();
+
+        Thread thread = Thread.ofVirtual().start(() -> seen.set(PipelineTraceContext.current()));
+        thread.join();
+
+        assertThat(seen.get()).isNull();
+    }
+
+    @Test
+    void concurrentRecording_isThreadSafe() throws Exception {
+        PipelineTraceContext.start("inq-3");
+        int threads = 8;
+        int callsPerThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> task = () -> {
+                    for (int i = 0; i < callsPerThread; i++) {
+                        PipelineTraceContext.recordLlmCall("COMPOSE", "gpt-5-mini", 1, 2, 1);
+                    }
+                    return callsPerThread;
+                };
+                futures.add(pool.submit(PipelineTraceContext.wrap(task)));
+            }
+            for (Future<Integer> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        PipelineTraceContext.PipelineTrace trace = PipelineTraceContext.current();
+        assertThat(trace.totalLlmCalls()).isEqualTo(threads * callsPerThread);
+        assertThat(trace.totalTokens()).isEqualTo(threads * callsPerThread * 3);
+    }
+
+    @Test
+    void attach_restoresPreviousTraceOnClose() {
+        PipelineTraceContext.start("outer");
+        PipelineTraceContext.PipelineTrace outer = PipelineTraceContext.current();
+        PipelineTraceContext.start("inner");
+        PipelineTraceContext.PipelineTrace inner = PipelineTraceContext.current();
+        PipelineTraceContext.finish();
+
+        try (PipelineTraceContext.Scope ignored = PipelineTraceContext.attach(outer)) {
+            try (PipelineTraceContext.Scope nested = PipelineTraceContext.attach(inner)) {
+                assertThat(PipelineTraceContext.current()).isSameAs(inner);
+            }
+            assertThat(PipelineTraceContext.current()).isSameAs(outer);
+        }
+        assertThat(PipelineTraceContext.current()).isNull();
+    }
+
+    @Test
+    void wrap_withoutTrace_returnsTaskUnchanged() {
+        Runnable task = () -> {};
+
+        assertThat(PipelineTraceContext.wrap(task)).isSameAs(task);
+    }
+
+    @Test
+    void wrappedTask_restoresWorkerThreadState() throws Exception {
+        PipelineTraceContext.start("inq-4");
+        AtomicReference<PipelineTraceContext.PipelineTrace> inside = new AtomicReference<>();
+        Runnable wrapped = new PipelineTraceTaskDecorator().decorate(() -> inside.set(PipelineTraceContext.current()));
+        PipelineTraceContext.PipelineTrace parent = PipelineTraceContext.finish();
+
+        AtomicReference<PipelineTraceContext.PipelineTrace> after = new AtomicReference<>();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            wrapped.run();
+            after.set(PipelineTraceContext.current());
+        });
+        thread.join();
+
+        assertThat(inside.get()).isSameAs(parent);
+        assertThat(after.get()).isNull();
+    }
+}
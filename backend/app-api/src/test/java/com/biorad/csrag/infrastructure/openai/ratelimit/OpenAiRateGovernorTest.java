@@ -0,0 +1,231 @@
+package com.biorad.csrag.infrastructure.openai.ratelimit;
+
+import com.biorad.csrag.common.exception.ExternalServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenAiRateGovernorTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private OpenAiRateLimitProperties properties;
+    private OpenAiRateGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OpenAiRateLimitProperties();
+        properties.setDefaultRpm(10);
+        properties.setDefaultTpm(100_000);
+        properties.setBackgroundReserveRatio(0.2);
+        // 가짜 시계에서는 대기가 불가능하므로 즉시 거절되도록 한다
+        properties.setInteractiveMaxWaitMs(0);
+        properties.setBackgroundMaxWaitMs(0);
+        governor = new OpenAiRateGovernor(properties, nanos::get);
+    }
+
+    // ── 버킷 입장 ────────────────────────────────────────────
+
+    @Test
+    void acquire_exhaustsRequestBucket_thenRejects() {
+        for (int i = 0; i < 10; i++) {
+            governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 100);
+        }
+
+        assertThatThrownBy(() -> governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 100))
+                .isInstanceOf(RateLimitTimeoutException.class)
+                .isInstanceOf(ExternalServiceException.class);
+    }
+
+    @Test
+    void acquire_backgroundLaneLeavesReserveForInteractive() {
+        for (int i = 0; i < 8; i++) {
+            governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.BACKGROUND, 100);
+        }
+
+        assertThatThrownBy(() -> governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.BACKGROUND, 100))
+                .isInstanceOf(RateLimitTimeoutException.class);
+        governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 100);
+        governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 100);
+
+        OpenAiRateGovernor.ModelStats stats = governor.getStats().get(0);
+        assertThat(stats.lanes().get("BACKGROUND").admitted()).isEqualTo(8);
+        assertThat(stats.lanes().get("BACKGROUND").rejected()).isEqualTo(1);
+        assertThat(stats.lanes().get("INTERACTIVE").admitted()).isEqualTo(2);
+    }
+
+    @Test
+    void acquire_tokenBucketLimitsLargeRequests() {
+        governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 90_000);
+
+        assertThatThrownBy(() -> governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 20_000))
+                .isInstanceOf(RateLimitTimeoutException.class);
+    }
+
+    @Test
+    void acquire_refillsContinuouslyOverTime() {
+        for (int i = 0; i < 10; i++) {
+            governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0);
+        }
+        // 10 RPM → 6초마다 1건 보충
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0);
+        assertThatThrownBy(() -> governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0))
+                .isInstanceOf(RateLimitTimeoutException.class);
+    }
+
+    @Test
+    void acquire_modelsHaveIndependentBuckets() {
+        properties.getModels().put("gpt-5-nano", limit(1, 1_000));
+
+        governor.acquire("gpt-5-nano", OpenAiRateGovernor.Lane.INTERACTIVE, 10);
+        assertThatThrownBy(() -> governor.acquire("GPT-5-NANO", OpenAiRateGovernor.Lane.INTERACTIVE, 10))
+                .isInstanceOf(RateLimitTimeoutException.class);
+        governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 10);
+    }
+
+    @Test
+    void acquire_waitsForRefillWithinDeadline() {
+        properties.setDefaultRpm(6_000);
+        properties.setInteractiveMaxWaitMs(2_000);
+        OpenAiRateGovernor realClock = new OpenAiRateGovernor(properties);
+        for (int i = 0; i < 6_000; i++) {
+            realClock.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0);
+        }
+
+        // 6000 RPM → 10ms마다 1건 보충되므로 짧게 대기한 뒤 입장한다
+        realClock.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0);
+
+        assertThat(realClock.getStats().get(0).lanes().get("INTERACTIVE").admitted()).isEqualTo(6_001);
+    }
+
+    @Test
+    void acquire_disabled_neverBlocks() {
+        properties.setEnabled(false);
+        for (int i = 0; i < 100; i++) {
+            governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.BACKGROUND, 100_000);
+        }
+        assertThat(governor.getStats()).isEmpty();
+    }
+
+    // ── 응답 헤더 보정 ───────────────────────────────────────
+
+    @Test
+    void onResponse_429_pausesModelUntilRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("retry-after-ms", "2000");
+
+        governor.onResponse("gpt-5-mini", 429, headers);
+
+        assertThatThrownBy(() -> governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0))
+                .isInstanceOf(RateLimitTimeoutException.class);
+        // 429 시 요청 버킷도 비우므로 정지가 끝난 뒤 1건이 보충될 때(10 RPM → 6초)까지 입장하지 못한다
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(6_000));
+        governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0);
+        assertThat(governor.getStats().get(0).throttled429()).isEqualTo(1);
+    }
+
+    @Test
+    void onResponse_serverReportsLowerRemaining_adoptsIt() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-ratelimit-limit-requests", "10");
+        headers.set("x-ratelimit-remaining-requests", "0");
+
+        governor.onResponse("gpt-5-mini", 200, headers);
+
+        assertThatThrownBy(() -> governor.acquire("gpt-5-mini", OpenAiRateGovernor.Lane.INTERACTIVE, 0))
+                .isInstanceOf(RateLimitTimeoutException.class);
+    }
+
+    @Test
+    void onResponse_limitHeaders_updateCapacity() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-ratelimit-limit-requests", "5000");
+        headers.set("x-ratelimit-limit-tokens", "4000000");
+
+        governor.onResponse("gpt-5-mini", 200, headers);
+
+        OpenAiRateGovernor.ModelStats stats = governor.getStats().get(0);
+        assertThat(stats.rpmLimit()).isEqualTo(5_000);
+        assertThat(stats.tpmLimit()).isEqualTo(4_000_000);
+    }
+
+    // ── 헤더 파싱 / 토큰 추정 ────────────────────────────────
+
+    @Test
+    void parseDurationMs_handlesOpenAiFormats() {
+        assertThat(RateLimitHeaders.parseDurationMs("1s")).isEqualTo(1_000);
+        assertThat(RateLimitHeaders.parseDurationMs("6m0s")).isEqualTo(360_000);
+        assertThat(RateLimitHeaders.parseDurationMs("20ms")).isEqualTo(20);
+        assertThat(RateLimitHeaders.parseDurationMs("1.5s")).isEqualTo(1_500);
+        assertThat(RateLimitHeaders.parseDurationMs("")).isEqualTo(-1);
+        assertThat(RateLimitHeaders.parseDurationMs("soon")).isEqualTo(-1);
+    }
+
+    @Test
+    void pauseMs_prefersRetryAfterThenReset() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-ratelimit-reset-requests", "3s");
+        headers.set("x-ratelimit-reset-tokens", "500ms");
+        assertThat(RateLimitHeaders.from(headers).pauseMs(1_000)).isEqualTo(3_000);
+
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+        assertThat(RateLimitHeaders.from(headers).pauseMs(1_000)).isEqualTo(7_000);
+
+        assertThat(RateLimitHeaders.from(new HttpHeaders()).pauseMs(1_000)).isEqualTo(1_000);
+    }
+
+    @Test
+    void estimate_countsMessagesAndMaxOutputTokens() {
+        String body = """
+                {"model":"gpt-5-mini","max_completion_tokens":500,
+                 "messages":[{"role":"user","content":"%s"}]}
+                """.formatted("a".repeat(400));
+
+        OpenAiRateLimitInterceptor.RequestEstimate estimate =
+                OpenAiRateLimitInterceptor.estimate(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(estimate.model()).isEqualTo("gpt-5-mini");
+        assertThat(estimate.tokens()).isBetween(600, 610);
+    }
+
+    @Test
+    void estimate_imageCountsFixedTokens() {
+        String body = """
+                {"model":"gpt-4.1-mini","messages":[{"role":"user","content":[
+                  {"type":"image_url","image_url":{"url":"data:image/png;base64,%s"}}]}]}
+                """.formatted("A".repeat(200_000));
+
+        OpenAiRateLimitInterceptor.RequestEstimate estimate =
+                OpenAiRateLimitInterceptor.estimate(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(estimate.tokens()).isLessThan(1_100);
+    }
+
+    @Test
+    void estimate_embeddingInputArray() {
+        String body = """
+                {"model":"text-embedding-3-large","input":["%s","%s"]}
+                """.formatted("b".repeat(40), "c".repeat(40));
+
+        OpenAiRateLimitInterceptor.RequestEstimate estimate =
+                OpenAiRateLimitInterceptor.estimate(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(estimate.model()).isEqualTo("text-embedding-3-large");
+        assertThat(estimate.tokens()).isEqualTo(22);
+    }
+
+    private static OpenAiRateLimitProperties.ModelLimit limit(int rpm, int tpm) {
+        OpenAiRateLimitProperties.ModelLimit limit = new OpenAiRateLimitProperties.ModelLimit();
+        limit.setRpm(rpm);
+        limit.setTpm(tpm);
+        return limit;
+    }
+}
@@ -0,0 +1,82 @@
+package com.biorad.csrag.infrastructure.persistence.chunk;
+
+import com.biorad.csrag.app.CsRagApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DocumentChunkBulkWriter.class)
+@org.springframework.test.context.ContextConfiguration(classes = CsRagApplication.class)
+class DocumentChunkBulkWriterDataJpaTest {
+
+    @Autowired
+    private DocumentChunkBulkWriter writer;
+
+    @Autowired
+    private DocumentChunkJpaRepository repository;
+
+    @Test
+    void insertAll_persistsAllColumnsReadableThroughJpa() {
+        UUID docId = UUID.randomUUID();
+        DocumentChunkJpaEntity parent = new DocumentChunkJpaEntity(
+                UUID.randomUUID(), docId, 0, 0, 120, "parent content", "KNOWLEDGE_BASE", docId, 2, 3, Instant.now());
+        parent.setChunkLevel("PARENT");
+        parent.setProductFamily("naica");
+        parent.setMinhashSignature("sig");
+        parent.setTokenCount(42);
+        DocumentChunkJpaEntity child = new DocumentChunkJpaEntity(
+                UUID.randomUUID(), docId, 1, 0, 60, "child content", "KNOWLEDGE_BASE", docId, null, null, Instant.now());
+        child.setParentChunkId(parent.getId());
+
+        int written = writer.insertAll(List.of(parent, child));
+
+        assertThat(written).isEqualTo(2);
+        List<DocumentChunkJpaEntity> stored = repository.findByDocumentIdOrderByChunkIndexAsc(docId);
+        assertThat(stored).extracting(DocumentChunkJpaEntity::getId).containsExactly(parent.getId(), child.getId());
+        assertThat(stored.get(0).getPageStart()).isEqualTo(2);
+        assertThat(stored.get(0).getChunkLevel()).isEqualTo("PARENT");
+        assertThat(stored.get(0).getProductFamily()).isEqualTo("naica");
+        assertThat(stored.get(0).getMinhashSignature()).isEqualTo("sig");
+        assertThat(stored.get(0).getTokenCount()).isEqualTo(42);
+        assertThat(stored.get(1).getPageStart()).isNull();
+        assertThat(stored.get(1).getParentChunkId()).isEqualTo(parent.getId());
+    }
+
+    @Test
+    void insertAll_spansMultipleBatches() {
+        UUID docId = UUID.randomUUID();
+        List<DocumentChunkJpaEntity> chunks = new ArrayList<>();
+        for (int i = 0; i < DocumentChunkBulkWriter.BATCH_SIZE + 7; i++) {
+            chunks.add(new DocumentChunkJpaEntity(UUID.randomUUID(), docId, i, i, i + 1, "chunk " + i, Instant.now()));
+        }
+
+        writer.insertAll(chunks);
+
+        assertThat(repository.findByDocumentIdOrderByChunkIndexAsc(docId)).hasSize(chunks.size());
+    }
+
+    @Test
+    void deleteByDocumentId_removesOnlyThatDocument() {
+        UUID docId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        writer.insertAll(List.of(
+                new DocumentChunkJpaEntity(UUID.randomUUID(), docId, 0, 0, 1, "a", Instant.now()),
+                new DocumentChunkJpaEntity(UUID.randomUUID(), docId, 1, 1, 2, "b", Instant.now()),
+                new DocumentChunkJpaEntity(UUID.randomUUID(), otherId, 0, 0, 1, "c", Instant.now())));
+
+        int deleted = writer.deleteByDocumentId(docId);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(repository.findByDocumentIdOrderByChunkIndexAsc(docId)).isEmpty();
+        assertThat(repository.findByDocumentIdOrderByChunkIndexAsc(otherId)).hasSize(1);
+    }
+}
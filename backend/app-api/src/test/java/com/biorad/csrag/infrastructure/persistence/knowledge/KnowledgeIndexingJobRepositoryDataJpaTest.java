@@ -0,0 +1,131 @@
+package com.biorad.csrag.infrastructure.persistence.knowledge;
+
+import com.biorad.csrag.app.CsRagApplication;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeIndexingJobRepository.IndexingJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(KnowledgeIndexingJobRepository.class)
+@org.springframework.test.context.ContextConfiguration(classes = CsRagApplication.class)
+class KnowledgeIndexingJobRepositoryDataJpaTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Autowired
+    private KnowledgeIndexingJobRepository jobRepository;
+
+    @Autowired
+    private KnowledgeDocumentJpaRepository kbDocRepository;
+
+    @Test
+    void findClaimable_ordersByPriorityThenEnqueueTime() {
+        UUID bulkFirst = UUID.randomUUID();
+        UUID bulkSecond = UUID.randomUUID();
+        UUID urgent = UUID.randomUUID();
+        jobRepository.insert(bulkFirst, UUID.randomUUID(), 0, NOW.minusSeconds(30));
+        jobRepository.insert(bulkSecond, UUID.randomUUID(), 0, NOW.minusSeconds(20));
+        jobRepository.insert(urgent, UUID.randomUUID(), 10, NOW.minusSeconds(10));
+
+        assertThat(jobRepository.findClaimable(NOW, 10)).containsExactly(urgent, bulkFirst, bulkSecond);
+        assertThat(jobRepository.findClaimable(NOW, 1)).containsExactly(urgent);
+    }
+
+    @Test
+    void insert_secondActiveJobForSameDocument_isRejectedUntilFirstFinishes() {
+        UUID docId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+
+        assertThat(jobRepository.insert(first, docId, 0, NOW.minusSeconds(1))).isTrue();
+        assertThat(jobRepository.insert(UUID.randomUUID(), docId, 10, NOW)).isFalse();
+        jobRepository.claim(first, "node-a", NOW, NOW.plusSeconds(300));
+        assertThat(jobRepository.insert(UUID.randomUUID(), docId, 10, NOW)).isFalse();
+        assertThat(jobRepository.findActiveByDocument(docId)).get().extracting(IndexingJob::id).isEqualTo(first);
+
+        jobRepository.complete(first, "node-a", NOW);
+
+        assertThat(jobRepository.insert(UUID.randomUUID(), docId, 10, NOW)).isTrue();
+    }
+
+    @Test
+    void claim_isExclusiveUntilLeaseExpires() {
+        UUID jobId = UUID.randomUUID();
+        jobRepository.insert(jobId, UUID.randomUUID(), 0, NOW.minusSeconds(1));
+
+        Optional<IndexingJob> first = jobRepository.claim(jobId, "node-a", NOW, NOW.plusSeconds(300));
+        Optional<IndexingJob> second = jobRepository.claim(jobId, "node-b", NOW.plusSeconds(10), NOW.plusSeconds(310));
+        Optional<IndexingJob> takeover = jobRepository.claim(jobId, "node-b", NOW.plusSeconds(301), NOW.plusSeconds(600));
+
+        assertThat(first).get().extracting(IndexingJob::leaseOwner, IndexingJob::attempts).containsExactly("node-a", 1);
+        assertThat(second).isEmpty();
+        assertThat(takeover).get().extracting(IndexingJob::leaseOwner, IndexingJob::attempts).containsExactly("node-b", 2);
+        assertThat(jobRepository.checkpoint(jobId, "node-a", "PARSED", null, null, NOW, NOW.plusSeconds(600))).isFalse();
+    }
+
+    @Test
+    void requeue_keepsCheckpointAndRefundsThrottledAttempt() {
+        UUID docId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+        jobRepository.insert(jobId, docId, 0, NOW.minusSeconds(1));
+        jobRepository.claim(jobId, "node-a", NOW, NOW.plusSeconds(300));
+        assertThat(jobRepository.checkpoint(jobId, "node-a", "CHUNKED", 12, null, NOW, NOW.plusSeconds(300))).isTrue();
+
+        assertThat(jobRepository.requeue(jobId, "node-a", NOW.plusSeconds(30), "429", false, NOW)).isTrue();
+
+        IndexingJob job = jobRepository.findActiveByDocument(docId).orElseThrow();
+        assertThat(job.status()).isEqualTo(KnowledgeIndexingJobRepository.QUEUED);
+        assertThat(job.stage()).isEqualTo("CHUNKED");
+        assertThat(job.chunkCount()).isEqualTo(12);
+        assertThat(job.attempts()).isZero();
+        assertThat(jobRepository.findClaimable(NOW, 10)).isEmpty();
+        assertThat(jobRepository.findClaimable(NOW.plusSeconds(30), 10)).containsExactly(jobId);
+    }
+
+    @Test
+    void complete_updatesProgressCountsAndThroughput() {
+        UUID jobId = UUID.randomUUID();
+        jobRepository.insert(jobId, UUID.randomUUID(), 0, NOW.minusSeconds(1));
+        jobRepository.insert(UUID.randomUUID(), UUID.randomUUID(), 0, NOW.minusSeconds(1));
+        jobRepository.claim(jobId, "node-a", NOW, NOW.plusSeconds(300));
+        jobRepository.checkpoint(jobId, "node-a", "INDEXED", 40, 40, NOW, NOW.plusSeconds(300));
+
+        assertThat(jobRepository.renewLeases("node-a", Set.of(jobId), NOW.plusSeconds(600))).isEqualTo(1);
+        assertThat(jobRepository.complete(jobId, "node-a", NOW)).isTrue();
+
+        assertThat(jobRepository.countByStatus())
+                .containsEntry(KnowledgeIndexingJobRepository.DONE, 1L)
+                .containsEntry(KnowledgeIndexingJobRepository.QUEUED, 1L);
+        assertThat(jobRepository.countActiveByStage()).containsEntry("NONE", 1L);
+        assertThat(jobRepository.completedSince(NOW.minusSeconds(60)))
+                .isEqualTo(new KnowledgeIndexingJobRepository.Throughput(1, 40));
+    }
+
+    @Test
+    void findStrandedDocuments_skipsDocumentsWithActiveJob() {
+        KnowledgeDocumentJpaEntity stranded = KnowledgeDocumentJpaEntity.create(
+                "A", "MANUAL", null, "a.pdf", "application/pdf", 1024L, "/p/a.pdf", null, null, null);
+        stranded.markParsing();
+        KnowledgeDocumentJpaEntity queued = KnowledgeDocumentJpaEntity.create(
+                "B", "MANUAL", null, "b.pdf", "application/pdf", 1024L, "/p/b.pdf", null, null, null);
+        queued.markIndexing();
+        kbDocRepository.saveAndFlush(stranded);
+        kbDocRepository.saveAndFlush(queued);
+        jobRepository.insert(UUID.randomUUID(), queued.getId(), 0, NOW);
+
+        List<UUID> result = jobRepository.findStrandedDocuments(
+                List.of("INDEXING", "PARSING"), Instant.now().plusSeconds(60), 10);
+
+        assertThat(result).containsExactly(stranded.getId());
+    }
+}
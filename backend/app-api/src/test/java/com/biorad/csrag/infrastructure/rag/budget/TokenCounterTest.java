@@ -0,0 +1,39 @@
+package com.biorad.csrag.infrastructure.rag.budget;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenCounterTest {
+
+    private final TokenCounter counter = TokenCounter.defaultCounter();
+
+    @Test
+    void encodingFollowsConfiguredModel() {
+        assertThat(TokenCounter.encodingTypeFor("gpt-5-mini")).isEqualTo(EncodingType.O200K_BASE);
+        assertThat(TokenCounter.encodingTypeFor("gpt-4o-mini")).isEqualTo(EncodingType.O200K_BASE);
+        assertThat(TokenCounter.encodingTypeFor("o3-mini")).isEqualTo(EncodingType.O200K_BASE);
+        assertThat(TokenCounter.encodingTypeFor("gpt-4-turbo")).isEqualTo(EncodingType.CL100K_BASE);
+        assertThat(TokenCounter.encodingTypeFor("text-embedding-3-large")).isEqualTo(EncodingType.CL100K_BASE);
+        assertThat(TokenCounter.encodingTypeFor("unknown-model")).isEqualTo(EncodingType.O200K_BASE);
+        assertThat(TokenCounter.encodingTypeFor(null)).isEqualTo(EncodingType.O200K_BASE);
+    }
+
+    @Test
+    void countsBpeTokens() {
+        assertThat(counter.count("hello world")).isEqualTo(2);
+        assertThat(counter.count("열 순환 프로토콜을 확인하세요")).isPositive();
+    }
+
+    @Test
+    void emptyOrNull_isZero() {
+        assertThat(counter.count(null)).isZero();
+        assertThat(counter.count("")).isZero();
+    }
+
+    @Test
+    void specialTokenText_isCountedAsPlainText() {
+        assertThat(counter.count("see <|endoftext|> marker")).isGreaterThan(3);
+    }
+}
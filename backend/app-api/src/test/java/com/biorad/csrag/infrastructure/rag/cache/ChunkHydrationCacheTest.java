@@ -0,0 +1,186 @@
+package com.biorad.csrag.infrastructure.rag.cache;
+
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
+import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkHydrationCacheTest {
+
+    @Mock
+    private DocumentChunkJpaRepository chunkRepository;
+
+    @Mock
+    private DocumentMetadataJpaRepository documentRepository;
+
+    @Mock
+    private KnowledgeDocumentJpaRepository kbDocRepository;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T00:00:00Z"));
+    private RagPipelineProperties.ChunkCache config;
+    private ChunkHydrationCache cache;
+
+    private final UUID docId = UUID.randomUUID();
+    private final UUID childId = UUID.randomUUID();
+    private final UUID parentId = UUID.randomUUID();
+    private DocumentChunkJpaEntity child;
+    private DocumentChunkJpaEntity parent;
+
+    @BeforeEach
+    void setUp() {
+        config = new RagPipelineProperties.ChunkCache();
+        cache = new ChunkHydrationCache(chunkRepository, documentRepository, kbDocRepository, config, clock);
+
+        child = new DocumentChunkJpaEntity(childId, docId, 1, 0, 100, "child text", "INQUIRY", docId, 3, 4, Instant.now());
+        child.setChunkLevel("CHILD");
+        child.setParentChunkId(parentId);
+        child.setProductFamily("naica");
+        child.setMinhashSignature(MinHashSignature.of("child text").encode());
+        parent = new DocumentChunkJpaEntity(parentId, docId, 0, 0, 400, "parent text with context", "INQUIRY", docId, 3, 5, Instant.now());
+        parent.setChunkLevel("PARENT");
+        parent.setMinhashSignature(MinHashSignature.of("parent text with context").encode());
+
+        DocumentMetadataJpaEntity document = mock(DocumentMetadataJpaEntity.class);
+        lenient().when(document.getId()).thenReturn(docId);
+        lenient().when(document.getFileName()).thenReturn("manual.pdf");
+        lenient().when(chunkRepository.findAllById(Set.of(childId))).thenReturn(List.of(child));
+        lenient().when(chunkRepository.findAllById(Set.of(parentId))).thenReturn(List.of(parent));
+        lenient().when(documentRepository.findAllById(any())).thenReturn(List.of(document));
+        lenient().when(kbDocRepository.findAllById(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void hydrate_resolvesChildMetadataParentContentAndFileName() {
+        ChunkHydrationCache.Hydration hydration = cache.hydrate(Set.of(childId), Set.of(docId));
+
+        ChunkHydrationCache.ChunkMetadata chunk = hydration.chunk(childId);
+        assertThat(chunk.pageStart()).isEqualTo(3);
+        assertThat(chunk.pageEnd()).isEqualTo(4);
+        assertThat(chunk.productFamily()).isEqualTo("naica");
+        assertThat(chunk.contentForLlm("child text")).isEqualTo("parent text with context");
+        assertThat(chunk.contentSignature()).isEqualTo(MinHashSignature.of("parent text with context"));
+        assertThat(hydration.fileName(docId, chunk)).isEqualTo("manual.pdf");
+    }
+
+    @Test
+    void hydrate_repeatedRoundsSkipRepositories() {
+        cache.hydrate(Set.of(childId), Set.of(docId));
+        cache.hydrate(Set.of(childId), Set.of(docId));
+        ChunkHydrationCache.Hydration third = cache.hydrate(Set.of(childId), Set.of(docId));
+
+        assertThat(third.chunk(childId).parentContent()).isEqualTo("parent text with context");
+        verify(chunkRepository, times(1)).findAllById(Set.of(childId));
+        verify(chunkRepository, times(1)).findAllById(Set.of(parentId));
+        verify(documentRepository, times(1)).findAllById(any());
+        verify(kbDocRepository, times(1)).findAllById(any());
+        assertThat(cache.getStats().chunkHits()).isEqualTo(2);
+        assertThat(cache.getStats().chunkMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void hydrate_unknownChunkIsNotCached() {
+        UUID unknown = UUID.randomUUID();
+        when(chunkRepository.findAllById(Set.of(unknown))).thenReturn(List.of());
+
+        assertThat(cache.hydrate(Set.of(unknown), Set.of()).chunk(unknown)).isNull();
+        assertThat(cache.hydrate(Set.of(unknown), Set.of()).chunk(unknown)).isNull();
+
+        verify(chunkRepository, times(2)).findAllById(Set.of(unknown));
+    }
+
+    @Test
+    void invalidateDocument_dropsChunksAndFileNameOfThatDocument() {
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        cache.invalidateDocument(docId);
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        verify(chunkRepository, times(2)).findAllById(Set.of(childId));
+        verify(documentRepository, times(2)).findAllById(any());
+        assertThat(cache.getStats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateDocument_keepsOtherDocuments() {
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        cache.invalidateDocument(UUID.randomUUID());
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        verify(chunkRepository, times(1)).findAllById(Set.of(childId));
+    }
+
+    @Test
+    void hydrate_reloadsAfterTtl() {
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        clock.advance(Duration.ofMinutes(config.getTtlMinutes() + 1));
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        verify(chunkRepository, times(2)).findAllById(Set.of(childId));
+    }
+
+    @Test
+    void disabled_alwaysReadsRepositories() {
+        config.setEnabled(false);
+
+        cache.hydrate(Set.of(childId), Set.of(docId));
+        cache.hydrate(Set.of(childId), Set.of(docId));
+
+        verify(chunkRepository, times(2)).findAllById(Set.of(childId));
+        assertThat(cache.getStats().chunkEntries()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
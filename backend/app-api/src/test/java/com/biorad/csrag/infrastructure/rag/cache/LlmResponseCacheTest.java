@@ -0,0 +1,246 @@
+package com.biorad.csrag.infrastructure.rag.cache;
+
+import com.biorad.csrag.infrastructure.persistence.cache.LlmResponseCacheEntity;
+import com.biorad.csrag.infrastructure.persistence.cache.LlmResponseCacheRepository;
+import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LlmResponseCacheTest {
+
+    @Mock
+    private LlmResponseCacheRepository repository;
+
+    @Mock
+    private PromptRegistry promptRegistry;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T00:00:00Z"));
+    private RagPipelineProperties.LlmCache config;
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new RagPipelineProperties.LlmCache();
+        lenient().when(promptRegistry.version(anyString())).thenReturn("v1");
+        lenient().when(repository.findById(anyString())).thenReturn(Optional.empty());
+        cache = new LlmResponseCache(repository, config, promptRegistry, clock);
+    }
+
+    // ── 키 ───────────────────────────────────────────────────
+
+    @Test
+    void key_isIndependentOfMapInsertionOrder() {
+        Map<String, Object> a = new LinkedHashMap<>();
+        a.put("model", "gpt-5-nano");
+        a.put("max_completion_tokens", 4096);
+        Map<String, Object> b = new LinkedHashMap<>();
+        b.put("max_completion_tokens", 4096);
+        b.put("model", "gpt-5-nano");
+
+        assertThat(cache.key(LlmCacheStep.TRANSLATE, "gpt-5-nano", "query-translation", a).hash())
+                .isEqualTo(cache.key(LlmCacheStep.TRANSLATE, "gpt-5-nano", "query-translation", b).hash());
+    }
+
+    @Test
+    void key_changesWithPromptVersionModelStepAndParams() {
+        Map<String, Object> body = Map.of("messages", List.of(Map.of("role", "user", "content", "q")));
+        String base = cache.key(LlmCacheStep.HYDE, "gpt-5-nano", "hyde-system", body).hash();
+
+        when(promptRegistry.version("hyde-system")).thenReturn("v2");
+        assertThat(cache.key(LlmCacheStep.HYDE, "gpt-5-nano", "hyde-system", body).hash()).isNotEqualTo(base);
+        when(promptRegistry.version("hyde-system")).thenReturn("v1");
+
+        assertThat(cache.key(LlmCacheStep.HYDE, "gpt-5-mini", "hyde-system", body).hash()).isNotEqualTo(base);
+        assertThat(cache.key(LlmCacheStep.DECOMPOSE, "gpt-5-nano", "hyde-system", body).hash()).isNotEqualTo(base);
+        assertThat(cache.key(LlmCacheStep.HYDE, "gpt-5-nano", "hyde-system",
+                Map.of("messages", body.get("messages"), "temperature", 0.0)).hash()).isNotEqualTo(base);
+    }
+
+    // ── 조회 / 저장 ──────────────────────────────────────────
+
+    @Test
+    void getOrLoad_secondCallServedFromMemory() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.TRANSLATE, "m", "query-translation", Map.of("q", "안녕"));
+
+        String first = cache.getOrLoad(key, () -> "hello-" + calls.incrementAndGet(), String::trim);
+        String second = cache.getOrLoad(key, () -> "hello-" + calls.incrementAndGet(), String::trim);
+
+        assertThat(first).isEqualTo("hello-1");
+        assertThat(second).isEqualTo("hello-1");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cache.getStats().memoryHits()).isEqualTo(1);
+        assertThat(cache.getStats().misses()).isEqualTo(1);
+
+        ArgumentCaptor<LlmResponseCacheEntity> saved = ArgumentCaptor.forClass(LlmResponseCacheEntity.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getStep()).isEqualTo("TRANSLATE");
+        assertThat(saved.getValue().getPromptVersion()).isEqualTo("v1");
+        assertThat(saved.getValue().getExpiresAt())
+                .isEqualTo(clock.instant().plus(Duration.ofMinutes(config.getTranslateTtlMinutes())));
+    }
+
+    @Test
+    void getOrLoad_memoryMiss_fallsBackToDatabase() throws Exception {
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.DECOMPOSE, "m", "question-decompose", Map.of("q", "x"));
+        when(repository.findById(key.hash())).thenReturn(Optional.of(new LlmResponseCacheEntity(
+                key.hash(), "DECOMPOSE", "m", "v1", "{\"subQuestions\":[]}",
+                clock.instant(), clock.instant().plusSeconds(60))));
+
+        String result = cache.getOrLoad(key, () -> {
+            throw new AssertionError("LLM must not be called");
+        }, content -> content);
+
+        assertThat(result).isEqualTo("{\"subQuestions\":[]}");
+        assertThat(cache.getStats().dbHits()).isEqualTo(1);
+        verify(repository).incrementHitCount(key.hash());
+    }
+
+    @Test
+    void getOrLoad_expiredEntry_reloads() throws Exception {
+        config.setHydeTtlMinutes(10);
+        AtomicInteger calls = new AtomicInteger();
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.HYDE, "m", "hyde-system", Map.of("q", "x"));
+
+        cache.getOrLoad(key, () -> "a" + calls.incrementAndGet(), c -> c);
+        clock.advance(Duration.ofMinutes(11));
+        String result = cache.getOrLoad(key, () -> "a" + calls.incrementAndGet(), c -> c);
+
+        assertThat(result).isEqualTo("a2");
+    }
+
+    @Test
+    void getOrLoad_parseFailure_isNotCached() {
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.RERANK, "m", "reranking-listwise", Map.of("q", "x"));
+
+        assertThatThrownBy(() -> cache.getOrLoad(key, () -> "not json", content -> {
+            throw new IllegalStateException("bad");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(repository, never()).save(any());
+        assertThat(cache.getStats().memoryEntries()).isZero();
+    }
+
+    @Test
+    void getOrLoad_blankResponse_isNotCached() throws Exception {
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.TRANSLATE, "m", "query-translation", Map.of("q", "x"));
+
+        cache.getOrLoad(key, () -> "  ", c -> c);
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void getOrLoad_databaseFailure_treatedAsMiss() throws Exception {
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.TRANSLATE, "m", "query-translation", Map.of("q", "y"));
+        when(repository.findById(key.hash())).thenThrow(new RuntimeException("db down"));
+
+        String result = cache.getOrLoad(key, () -> "fresh", c -> c);
+
+        assertThat(result).isEqualTo("fresh");
+    }
+
+    @Test
+    void getOrLoad_disabled_alwaysCallsLoader() throws Exception {
+        LlmResponseCache disabled = LlmResponseCache.disabled();
+        AtomicInteger calls = new AtomicInteger();
+        LlmResponseCache.Key key = disabled.key(LlmCacheStep.TRANSLATE, "m", "query-translation", Map.of("q", "x"));
+
+        disabled.getOrLoad(key, () -> "r" + calls.incrementAndGet(), c -> c);
+        disabled.getOrLoad(key, () -> "r" + calls.incrementAndGet(), c -> c);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    // ── 무효화 ───────────────────────────────────────────────
+
+    @Test
+    void invalidateRetrievalDependent_dropsRerankButKeepsTranslation() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LlmResponseCache.Key rerank = cache.key(LlmCacheStep.RERANK, "m", "reranking-listwise", Map.of("q", "x"));
+        LlmResponseCache.Key translate = cache.key(LlmCacheStep.TRANSLATE, "m", "query-translation", Map.of("q", "x"));
+        cache.getOrLoad(rerank, () -> "r" + calls.incrementAndGet(), c -> c);
+        cache.getOrLoad(translate, () -> "t" + calls.incrementAndGet(), c -> c);
+
+        cache.invalidateRetrievalDependent();
+
+        assertThat(cache.getOrLoad(rerank, () -> "r" + calls.incrementAndGet(), String::trim)).isEqualTo("r3");
+        assertThat(cache.getOrLoad(translate, () -> "t" + calls.incrementAndGet(), String::trim)).isEqualTo("t2");
+        verify(repository).deleteBySteps(List.of("RERANK"));
+    }
+
+    @Test
+    void invalidateDuringLoad_discardsStaleRerankResult() throws Exception {
+        LlmResponseCache.Key key = cache.key(LlmCacheStep.RERANK, "m", "reranking-listwise", Map.of("q", "x"));
+
+        cache.getOrLoad(key, () -> {
+            cache.invalidateRetrievalDependent();
+            return "stale";
+        }, c -> c);
+
+        verify(repository, never()).save(any());
+        assertThat(cache.getOrLoad(key, () -> "fresh", String::trim)).isEqualTo("fresh");
+    }
+
+    @Test
+    void cleanupExpired_deletesRowsBeforeNow() {
+        cache.cleanupExpired();
+
+        verify(repository).deleteExpired(clock.instant());
+        verify(repository, never()).deleteBySteps(anyCollection());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -229,6 +229,16 @@ class RagPipelinePropertiesTest {
         assertThat(props.getIndexing().getEnrichmentSampleInterval()).isEqualTo(5);
     }
 
+    // --- Metrics ---
+
+    @Test
+    void metrics_defaults() {
+        assertThat(props.getMetrics().getBufferCapacity()).isEqualTo(8192);
+        assertThat(props.getMetrics().getBatchSize()).isEqualTo(500);
+        assertThat(props.getMetrics().getFlushIntervalMs()).isEqualTo(1000);
+        assertThat(props.getMetrics().getOverflowPolicy()).isEqualTo("DROP_NEWEST");
+    }
+
     // --- Top-level setters ---
 
     @Test
@@ -0,0 +1,65 @@
+package com.biorad.csrag.infrastructure.rag.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashSignatureTest {
+
+    private static final String BASE = "The Bio-Rad QX200 system requires regular calibration of the droplet generator module";
+
+    @Test
+    void similarity_identicalText_isOne() {
+        assertThat(MinHashSignature.of(BASE).similarity(MinHashSignature.of(BASE))).isEqualTo(1.0);
+    }
+
+    @Test
+    void similarity_ignoresCaseWhitespaceAndPunctuation() {
+        String variant = "the bio rad   QX200 system, requires regular calibration of the droplet generator module!";
+
+        assertThat(MinHashSignature.of(BASE).similarity(MinHashSignature.of(variant))).isEqualTo(1.0);
+    }
+
+    @Test
+    void similarity_estimatesJaccard() {
+        // 단어 집합 Jaccard = 11/13 ≈ 0.85
+        String nearDup = "The Bio-Rad QX200 system requires regular calibration of the droplet generator unit";
+        String unrelated = "Calibration protocol requires monthly verification of optical alignment sensors";
+
+        assertThat(MinHashSignature.of(BASE).similarity(MinHashSignature.of(nearDup))).isBetween(0.7, 1.0);
+        assertThat(MinHashSignature.of(BASE).similarity(MinHashSignature.of(unrelated))).isLessThan(0.4);
+    }
+
+    @Test
+    void similarity_emptyText_matchesExactJaccardConvention() {
+        assertThat(MinHashSignature.of("").similarity(MinHashSignature.of("  "))).isEqualTo(1.0);
+        assertThat(MinHashSignature.of("").similarity(MinHashSignature.of(BASE))).isEqualTo(0.0);
+        // 2자 미만 토큰만 있으면 빈 집합
+        assertThat(MinHashSignature.of("a b c").isEmpty()).isTrue();
+    }
+
+    @Test
+    void encodeDecode_roundTrips() {
+        MinHashSignature signature = MinHashSignature.of(BASE);
+
+        assertThat(MinHashSignature.decode(signature.encode())).isEqualTo(signature);
+        assertThat(MinHashSignature.decode(MinHashSignature.of("").encode()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void decode_invalidValue_returnsNull() {
+        assertThat(MinHashSignature.decode(null)).isNull();
+        assertThat(MinHashSignature.decode("not-base64!")).isNull();
+        assertThat(MinHashSignature.decode("AAAA")).isNull();
+    }
+
+    @Test
+    void bandHash_equalForIdenticalSignatures() {
+        MinHashSignature a = MinHashSignature.of(BASE);
+        MinHashSignature b = MinHashSignature.of(BASE.toUpperCase());
+
+        for (int band = 0; band < MinHashSignature.BANDS; band++) {
+            assertThat(a.bandHash(band)).isEqualTo(b.bandHash(band));
+        }
+    }
+}
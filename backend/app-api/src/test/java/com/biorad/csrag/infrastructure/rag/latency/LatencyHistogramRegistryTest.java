@@ -0,0 +1,56 @@
+package com.biorad.csrag.infrastructure.rag.latency;
+
+import com.biorad.csrag.infrastructure.openai.PipelineTraceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramRegistryTest {
+
+    private final LatencyHistogramRegistry registry = new LatencyHistogramRegistry();
+
+    @AfterEach
+    void tearDown() {
+        registry.unregisterTraceListener();
+    }
+
+    @Test
+    void recordsSeparateSeriesPerStepModelAndProvider() {
+        registry.recordMillis("PIPELINE_STEP", "COMPOSE", null, "orchestration", 1200);
+        registry.recordMillis("PIPELINE_STEP", "RETRIEVE", null, "orchestration", 300);
+        registry.recordMillis("LLM_CALL", "COMPOSE", "gpt-5-mini", "openai", 1100);
+
+        var series = registry.snapshot(null);
+
+        assertThat(series).hasSize(3);
+        assertThat(series).extracting(LatencyHistogramRegistry.SeriesSnapshot::category)
+                .containsExactly("LLM_CALL", "PIPELINE_STEP", "PIPELINE_STEP");
+        assertThat(series.get(0).windows()).containsOnlyKeys("1m", "15m", "1h");
+        assertThat(series.get(0).model()).isEqualTo("gpt-5-mini");
+        assertThat(series.get(1).model()).isEqualTo("-");
+    }
+
+    @Test
+    void snapshot_filtersByCategory() {
+        registry.recordMillis("VECTOR_SEARCH", "RETRIEVE", null, "MockVectorStore", 3);
+        registry.recordMillis("KEYWORD_SEARCH", "RETRIEVE", null, "MockKeywordSearchService", 2);
+
+        assertThat(registry.snapshot("vector_search")).hasSize(1)
+                .first().extracting(LatencyHistogramRegistry.SeriesSnapshot::provider)
+                .isEqualTo("MockVectorStore");
+    }
+
+    @Test
+    void traceListener_recordsLlmCallsWithLatency() {
+        registry.registerTraceListener();
+
+        PipelineTraceContext.recordLlmCall("RERANK", "gpt-5-nano", 100, 20, 250);
+        PipelineTraceContext.recordTokenUsage("RERANK", 100, 20, "gpt-5-nano"); // latency 0 → 기록 안 함
+
+        var series = registry.snapshot("LLM_CALL");
+        assertThat(series).hasSize(1);
+        assertThat(series.get(0).windows().get("1m").count()).isEqualTo(1);
+        assertThat(series.get(0).windows().get("1m").maxMs()).isEqualTo(250.0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.biorad.csrag.infrastructure.rag.latency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WindowedLatencyHistogramTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final WindowedLatencyHistogram histogram = new WindowedLatencyHistogram(clock::get);
+
+    @Test
+    void bucketBounds_containTheRecordedValue() {
+        for (long v : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123_456, 9_999_999}) {
+            int idx = WindowedLatencyHistogram.bucketIndex(v);
+            assertThat(WindowedLatencyHistogram.bucketLowerBound(idx)).isLessThanOrEqualTo(v);
+            assertThat(WindowedLatencyHistogram.bucketUpperBound(idx)).isGreaterThanOrEqualTo(v);
+        }
+    }
+
+    @Test
+    void bucketIndex_isMonotonic() {
+        int previous = -1;
+        for (long v = 0; v < 200_000; v += 7) {
+            int idx = WindowedLatencyHistogram.bucketIndex(v);
+            assertThat(idx).isGreaterThanOrEqualTo(previous);
+            previous = idx;
+        }
+        assertThat(WindowedLatencyHistogram.bucketIndex(WindowedLatencyHistogram.MAX_TRACKABLE_MICROS))
+                .isEqualTo(WindowedLatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    void percentiles_areWithinBucketError() {
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.recordMillis(ms);
+        }
+
+        var snapshot = histogram.snapshot(Duration.ofMinutes(1));
+
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.p50Ms()).isCloseTo(500, within(500 * 0.07));
+        assertThat(snapshot.p90Ms()).isCloseTo(900, within(900 * 0.07));
+        assertThat(snapshot.p99Ms()).isCloseTo(990, within(990 * 0.07));
+        assertThat(snapshot.maxMs()).isEqualTo(1000.0);
+        assertThat(snapshot.meanMs()).isCloseTo(500.5, within(0.01));
+    }
+
+    @Test
+    void emptyHistogram_returnsZeroSnapshot() {
+        var snapshot = histogram.snapshot(Duration.ofHours(1));
+
+        assertThat(snapshot.count()).isZero();
+        assertThat(snapshot.p99Ms()).isZero();
+    }
+
+    @Test
+    void oldSamples_fallOutOfShortWindowButStayInLongWindow() {
+        histogram.recordMillis(100);
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        histogram.recordMillis(200);
+
+        assertThat(histogram.snapshot(Duration.ofMinutes(1)).count()).isEqualTo(1);
+        assertThat(histogram.snapshot(Duration.ofMinutes(15)).count()).isEqualTo(2);
+        assertThat(histogram.snapshot(Duration.ofHours(1)).count()).isEqualTo(2);
+
+        clock.addAndGet(Duration.ofMinutes(20).toMillis());
+        assertThat(histogram.snapshot(Duration.ofMinutes(15)).count()).isZero();
+        assertThat(histogram.snapshot(Duration.ofHours(1)).count()).isEqualTo(2);
+
+        clock.addAndGet(Duration.ofHours(1).toMillis());
+        assertThat(histogram.snapshot(Duration.ofHours(1)).count()).isZero();
+    }
+
+    @Test
+    void negativeValues_areIgnored() {
+        histogram.recordMicros(-5);
+
+        assertThat(histogram.snapshot(Duration.ofMinutes(1)).count()).isZero();
+    }
+}
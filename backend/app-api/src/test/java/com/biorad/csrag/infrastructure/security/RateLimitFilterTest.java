@@ -1,11 +1,15 @@
 package com.biorad.csrag.infrastructure.security;
 
+import com.biorad.csrag.infrastructure.security.ratelimit.LocalRateLimitStore;
+import com.biorad.csrag.infrastructure.security.ratelimit.RequestRateLimitProperties;
 import jakarta.servlet.FilterChain;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -44,6 +48,69 @@ class RateLimitFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void draftEndpoint_usesStricterPolicyThanReads() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilterInternal(draftRequest("10.0.0.2"), response, filterChain);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilterInternal(draftRequest("10.0.0.2"), limited, filterChain);
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("X-RateLimit-Limit")).isEqualTo("6");
+        assertThat(limited.getHeader("Retry-After")).isNotNull();
+        assertThat(limited.getContentAsString()).contains("RATE_LIMIT_EXCEEDED");
+
+        // 같은 클라이언트의 조회 요청은 별도 정책이라 영향 없음
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/v1/inquiries");
+        read.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse readResponse = new MockHttpServletResponse();
+        filter.doFilterInternal(read, readResponse, filterChain);
+        assertThat(readResponse.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void verifiedSubject_isLimitedIndependentlyOfSharedIp() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            filter.doFilterInternal(draftRequest("10.0.0.3"), new MockHttpServletResponse(), filterChain);
+        }
+
+        MockHttpServletRequest userRequest = draftRequest("10.0.0.3");
+        userRequest.setAttribute(JwtAuthenticationFilter.VERIFIED_SUBJECT_ATTRIBUTE, "user-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(userRequest, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void spoofedUserIdHeader_doesNotEscapeIpLimit() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = draftRequest("10.0.0.4");
+            request.addHeader("X-User-Id", "fake-" + i);
+            filter.doFilterInternal(request, new MockHttpServletResponse(), filterChain);
+        }
+
+        MockHttpServletRequest request = draftRequest("10.0.0.4");
+        request.addHeader("X-User-Id", "fake-2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void shouldNotFilter_whenDisabled() {
+        RequestRateLimitProperties properties = new RequestRateLimitProperties();
+        properties.setEnabled(false);
+        RateLimitFilter disabled = new RateLimitFilter(properties, new LocalRateLimitStore(properties));
+
+        assertThat(disabled.shouldNotFilter(new MockHttpServletRequest("POST", "/api/v1/inquiries/1/answers/draft"))).isTrue();
+    }
+
     @Test
     void shouldNotFilter_h2Console() {
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/h2-console/login");
@@ -61,4 +128,11 @@ class RateLimitFilterTest {
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/inquiries");
         assertThat(filter.shouldNotFilter(request)).isFalse();
     }
+
+    private static MockHttpServletRequest draftRequest(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(
+                "POST", "/api/v1/inquiries/" + UUID.randomUUID() + "/answers/draft");
+        request.setRemoteAddr(ip);
+        return request;
+    }
 }
@@ -0,0 +1,96 @@
+package com.biorad.csrag.infrastructure.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalRateLimitStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void burstIsAllowedThenRejected() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100, clock::get);
+        RateLimitPolicy policy = RateLimitPolicy.of("draft", 6, 60, 2);
+
+        RateLimitDecision first = store.acquire("ip:1", policy);
+        RateLimitDecision second = store.acquire("ip:1", policy);
+        RateLimitDecision third = store.acquire("ip:1", policy);
+
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.remaining()).isEqualTo(1);
+        assertThat(second.allowed()).isTrue();
+        assertThat(second.remaining()).isZero();
+        assertThat(third.allowed()).isFalse();
+        // 6회/분 → 10초에 한 개씩 회복
+        assertThat(third.retryAfterMs()).isEqualTo(10_000);
+    }
+
+    @Test
+    void tokensRefillAtSteadyRate_withoutWindowEdgeBurst() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100, clock::get);
+        RateLimitPolicy policy = RateLimitPolicy.of("read", 60, 60, 1);
+
+        assertThat(store.acquire("ip:1", policy).allowed()).isTrue();
+        assertThat(store.acquire("ip:1", policy).allowed()).isFalse();
+
+        advance(500);
+        assertThat(store.acquire("ip:1", policy).allowed()).isFalse();
+        advance(500);
+        assertThat(store.acquire("ip:1", policy).allowed()).isTrue();
+        assertThat(store.acquire("ip:1", policy).allowed()).isFalse();
+    }
+
+    @Test
+    void policiesAndKeysAreIsolated() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100, clock::get);
+        RateLimitPolicy draft = RateLimitPolicy.of("draft", 1, 60, 1);
+        RateLimitPolicy read = RateLimitPolicy.of("read", 1, 60, 1);
+
+        assertThat(store.acquire("ip:1", draft).allowed()).isTrue();
+        assertThat(store.acquire("ip:1", draft).allowed()).isFalse();
+        assertThat(store.acquire("ip:1", read).allowed()).isTrue();
+        assertThat(store.acquire("ip:2", draft).allowed()).isTrue();
+    }
+
+    @Test
+    void sweepIdle_removesOnlyFullBuckets() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100, clock::get);
+        RateLimitPolicy fast = RateLimitPolicy.of("fast", 60, 60, 5);
+        RateLimitPolicy slow = RateLimitPolicy.of("slow", 1, 3600, 1);
+        store.acquire("ip:1", fast);
+        store.acquire("ip:1", slow);
+
+        advance(2_000);
+        store.sweepIdle();
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.acquire("ip:1", slow).allowed()).isFalse();
+    }
+
+    @Test
+    void sizeIsBoundedByMaxKeys() {
+        LocalRateLimitStore store = new LocalRateLimitStore(1_000, clock::get);
+        RateLimitPolicy policy = RateLimitPolicy.of("read", 1, 3600, 1);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.acquire("ip:" + i, policy);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void policyRequiresPositiveLimit() {
+        assertThatThrownBy(() -> RateLimitPolicy.of("bad", 0, 60, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,86 @@
+package com.biorad.csrag.infrastructure.storage;
+
+import com.biorad.csrag.infrastructure.storage.StreamingFileStore.StoredFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingFileStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void store_writesBytesAndComputesSha256AcrossBufferBoundaries() throws Exception {
+        byte[] content = new byte[StreamingFileStore.BUFFER_SIZE * 3 + 123];
+        new Random(42).nextBytes(content);
+        Path target = dir.resolve("nested/file.bin");
+
+        StoredFile stored = StreamingFileStore.store(new ByteArrayInputStream(content), target);
+
+        assertThat(stored.path()).isEqualTo(target);
+        assertThat(stored.size()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        assertThat(stored.sha256()).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+        assertThat(stored.head()).hasSize(StreamingFileStore.HEAD_SIZE);
+        assertThat(Files.exists(dir.resolve("nested/file.bin.part"))).isFalse();
+    }
+
+    @Test
+    void store_identicalBytesProduceIdenticalHash() throws Exception {
+        byte[] content = "same manual".getBytes(StandardCharsets.UTF_8);
+
+        StoredFile first = StreamingFileStore.store(new ByteArrayInputStream(content), dir.resolve("a"));
+        StoredFile second = StreamingFileStore.store(new ByteArrayInputStream(content), dir.resolve("b"));
+
+        assertThat(first.sha256()).isEqualTo(second.sha256()).hasSize(64);
+        assertThat(first.head()).isEqualTo(content);
+    }
+
+    @Test
+    void store_failedStream_leavesNoFile() {
+        Path target = dir.resolve("broken.pdf");
+        InputStream failing = new InputStream() {
+            private int remaining = 100_000;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- == 0) {
+                    throw new IOException("connection reset");
+                }
+                return 'x';
+            }
+        };
+
+        assertThatThrownBy(() -> StreamingFileStore.store(failing, target)).isInstanceOf(IOException.class);
+        assertThat(Files.exists(target)).isFalse();
+        assertThat(Files.exists(dir.resolve("broken.pdf.part"))).isFalse();
+    }
+
+    @Test
+    void detectedContentType_recognisesMagicBytes() {
+        assertThat(stored("%PDF-1.7".getBytes(StandardCharsets.US_ASCII)).detectedContentType()).isEqualTo("application/pdf");
+        assertThat(stored(new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A}).detectedContentType()).isEqualTo("image/png");
+        assertThat(stored(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}).detectedContentType()).isEqualTo("image/jpeg");
+        assertThat(stored("RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.US_ASCII)).detectedContentType()).isEqualTo("image/webp");
+        assertThat(stored(new byte[]{'P', 'K', 3, 4}).detectedContentType()).contains("wordprocessingml");
+        assertThat(stored("plain text".getBytes(StandardCharsets.US_ASCII)).detectedContentType()).isNull();
+        assertThat(stored(new byte[0]).detectedContentType()).isNull();
+    }
+
+    private static StoredFile stored(byte[] head) {
+        return new StoredFile(Path.of("x"), head.length, "", head);
+    }
+}
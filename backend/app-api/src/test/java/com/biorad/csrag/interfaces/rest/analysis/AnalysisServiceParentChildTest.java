@@ -4,7 +4,10 @@ import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaRepository;
+import com.biorad.csrag.infrastructure.rag.cache.ChunkHydrationCache;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.interfaces.rest.search.EvidenceCompressor;
+import com.biorad.csrag.interfaces.rest.search.HybridSearchResult;
 import com.biorad.csrag.interfaces.rest.search.HybridSearchService;
 import com.biorad.csrag.interfaces.rest.search.QueryTranslationService;
 import com.biorad.csrag.interfaces.rest.search.RerankingService;
@@ -12,10 +15,10 @@ import com.biorad.csrag.interfaces.rest.search.SearchFilter;
 import com.biorad.csrag.interfaces.rest.search.TranslatedQuery;
 import com.biorad.csrag.interfaces.rest.vector.EmbeddingService;
 import com.biorad.csrag.interfaces.rest.vector.VectorStore;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -35,7 +38,7 @@ class AnalysisServiceParentChildTest {
 
     @Mock EmbeddingService embeddingService;
     @Mock VectorStore vectorStore;
-    @Mock RetrievalEvidenceJpaRepository evidenceRepository;
+    @Mock RetrievalEvidenceJournal evidenceJournal;
     @Mock DocumentChunkJpaRepository chunkRepository;
     @Mock DocumentMetadataJpaRepository documentRepository;
     @Mock KnowledgeDocumentJpaRepository kbDocRepository;
@@ -43,9 +46,18 @@ class AnalysisServiceParentChildTest {
     @Mock HybridSearchService hybridSearchService;
     @Mock RerankingService rerankingService;
 
-    @InjectMocks
     AnalysisService analysisService;
 
+    @BeforeEach
+    void setUp() {
+        RagPipelineProperties properties = new RagPipelineProperties();
+        ChunkHydrationCache chunkHydrationCache = new ChunkHydrationCache(
+                chunkRepository, documentRepository, kbDocRepository, properties);
+        analysisService = new AnalysisService(embeddingService, vectorStore, evidenceJournal, chunkHydrationCache,
+                queryTranslationService, hybridSearchService, rerankingService, null,
+                new EvidenceCompressor(properties));
+    }
+
     private static final UUID INQUIRY_ID = UUID.randomUUID();
 
     @Test
@@ -161,4 +173,61 @@ class AnalysisServiceParentChildTest {
         // Fallback to child content since parent was not found
         assertThat(results.get(0).excerpt()).isEqualTo(childContent);
     }
+
+    @Test
+    @DisplayName("긴 PARENT 콘텐츠는 질의·CHILD 관련 문장만 남기고 원문 구간을 기록")
+    void longParentContent_compressedToRelevantSentences() {
+        UUID childChunkId = UUID.randomUUID();
+        UUID parentChunkId = UUID.randomUUID();
+        UUID docId = UUID.randomUUID();
+        String relevant = "Low droplet count variability is usually caused by uneven pipetting into the cartridge wells.";
+        String parentContent = String.join(" ",
+                "The QX200 Droplet Generator partitions each sample into about 20,000 droplets.",
+                "Cartridges must be loaded with 20 uL of sample and 70 uL of oil.",
+                relevant,
+                "Use the gasket supplied with each cartridge and inspect it before every run.",
+                "The instrument status light turns green when the generator is ready.",
+                "Always pipette slowly along the well wall to reduce variability between wells.",
+                "Store cartridges at room temperature and keep them sealed until use.",
+                "Contact technical support if the reader reports an error code during startup.");
+
+        DocumentChunkJpaEntity childChunk = new DocumentChunkJpaEntity(
+                childChunkId, docId, 1, 0, 100, relevant, "INQUIRY", docId, 1, 2, Instant.now());
+        childChunk.setChunkLevel("CHILD");
+        childChunk.setParentChunkId(parentChunkId);
+        // 부모 청크는 문서 원문 500자 뒤에서 시작하고 콘텐츠에는 파일명 접두사가 붙어 있다
+        String document = "x".repeat(499) + "\n" + parentContent;
+        DocumentChunkJpaEntity parentChunk = new DocumentChunkJpaEntity(
+                parentChunkId, docId, 0, 500, 500 + parentContent.length(), "[manual.pdf] " + parentContent,
+                "INQUIRY", docId, 1, 2, Instant.now());
+        parentChunk.setChunkLevel("PARENT");
+
+        String query = "droplet count variability";
+        when(queryTranslationService.translate(query)).thenReturn(new TranslatedQuery(query, query, false));
+        when(hybridSearchService.search(eq(query), anyInt(), any(SearchFilter.class)))
+                .thenReturn(List.of(new HybridSearchResult(
+                        childChunkId, docId, relevant, 0.81, 0.4, 0.7, "INQUIRY", "HYBRID")));
+        when(rerankingService.rerank(eq(query), any(), eq(5)))
+                .thenReturn(List.of(new RerankingService.RerankResult(
+                        childChunkId, docId, relevant, 0.7, 0.85, "INQUIRY", "HYBRID")));
+        when(chunkRepository.findAllById(any()))
+                .thenReturn(List.of(childChunk))
+                .thenReturn(List.of(parentChunk));
+        when(documentRepository.findAllById(any())).thenReturn(List.of());
+        when(kbDocRepository.findAllById(any())).thenReturn(List.of());
+
+        List<EvidenceItem> results = analysisService.retrieve(INQUIRY_ID, query, 5);
+
+        assertThat(results).hasSize(1);
+        EvidenceItem evidence = results.get(0);
+        assertThat(evidence.excerpt()).contains(relevant).doesNotContain("error code");
+        assertThat(evidence.excerpt().length()).isLessThan(parentContent.length());
+        assertThat(evidence.pageStart()).isEqualTo(1);
+        assertThat(evidence.pageEnd()).isEqualTo(2);
+        // 문서 원문을 구간대로 자르면 excerpt의 문장이 나온다
+        assertThat(evidence.excerptSpans())
+                .extracting(span -> document.substring(span.start(), span.end()))
+                .contains(relevant)
+                .allSatisfy(sentence -> assertThat(evidence.excerpt()).contains(sentence));
+    }
 }
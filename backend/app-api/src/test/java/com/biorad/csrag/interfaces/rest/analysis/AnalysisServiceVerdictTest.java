@@ -1,17 +1,18 @@
 package com.biorad.csrag.interfaces.rest.analysis;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.knowledge.KnowledgeDocumentJpaRepository;
-import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaRepository;
+import com.biorad.csrag.infrastructure.rag.cache.ChunkHydrationCache;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
 import com.biorad.csrag.interfaces.rest.search.HybridSearchResult;
 import com.biorad.csrag.interfaces.rest.search.HybridSearchService;
 import com.biorad.csrag.interfaces.rest.search.QueryTranslationService;
@@ -38,7 +39,7 @@ class AnalysisServiceVerdictTest {
 
     @Mock EmbeddingService embeddingService;
     @Mock VectorStore vectorStore;
-    @Mock RetrievalEvidenceJpaRepository evidenceRepository;
+    @Mock RetrievalEvidenceJournal evidenceJournal;
     @Mock DocumentChunkJpaRepository chunkRepository;
     @Mock DocumentMetadataJpaRepository documentRepository;
     @Mock KnowledgeDocumentJpaRepository kbDocRepository;
@@ -46,9 +47,16 @@ class AnalysisServiceVerdictTest {
     @Mock HybridSearchService hybridSearchService;
     @Mock RerankingService rerankingService;
 
-    @InjectMocks
     AnalysisService analysisService;
 
+    @BeforeEach
+    void setUp() {
+        ChunkHydrationCache chunkHydrationCache = new ChunkHydrationCache(
+                chunkRepository, documentRepository, kbDocRepository, new RagPipelineProperties());
+        analysisService = new AnalysisService(embeddingService, vectorStore, evidenceJournal, chunkHydrationCache,
+                queryTranslationService, hybridSearchService, rerankingService, null, null);
+    }
+
     private static final UUID INQUIRY_ID = UUID.randomUUID();
 
     private EvidenceItem evidence(double score) {
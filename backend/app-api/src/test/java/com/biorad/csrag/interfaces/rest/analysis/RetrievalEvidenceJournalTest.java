@@ -0,0 +1,178 @@
+package com.biorad.csrag.interfaces.rest.analysis;
+
+import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceBatchWriter;
+import com.biorad.csrag.infrastructure.persistence.retrieval.RetrievalEvidenceJpaEntity;
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RetrievalEvidenceJournal} 단위 테스트.
+ *
+ * <p>JDBC writer를 메모리 기록용 서브클래스로 대체하여 write-behind·backpressure·실패 격리를 검증한다.
+ */
+class RetrievalEvidenceJournalTest {
+
+    private static final UUID INQUIRY_ID = UUID.randomUUID();
+
+    private RagPipelineProperties properties;
+    private RecordingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RagPipelineProperties();
+        properties.getEvidenceJournal().setBufferCapacity(8);
+        properties.getEvidenceJournal().setBatchSize(3);
+        writer = new RecordingWriter();
+    }
+
+    @Test
+    void append_doesNotWriteUntilFlush() {
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+
+        journal.append(evidences(2));
+
+        assertThat(writer.batches).isEmpty();
+        assertThat(journal.getStats().pending()).isEqualTo(2);
+    }
+
+    @Test
+    void flushNow_writesEverythingInBatchesInOrder() {
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+        List<RetrievalEvidenceJpaEntity> evidences = evidences(7);
+        journal.append(evidences);
+
+        journal.flushNow();
+
+        assertThat(writer.batches).extracting(List::size).containsExactly(3, 3, 1);
+        assertThat(writer.written()).containsExactlyElementsOf(evidences);
+        var stats = journal.getStats();
+        assertThat(stats.flushed()).isEqualTo(7);
+        assertThat(stats.pending()).isZero();
+        assertThat(stats.lastFlushAt()).isNotNull();
+    }
+
+    @Test
+    void fullBuffer_flushesOnCallerThreadInsteadOfDropping() {
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+        List<RetrievalEvidenceJpaEntity> evidences = evidences(20);
+
+        journal.append(evidences);
+        journal.flushNow();
+
+        assertThat(writer.written()).containsExactlyElementsOf(evidences);
+        assertThat(journal.getStats().overflowFlushes()).isPositive();
+        assertThat(journal.getStats().failed()).isZero();
+    }
+
+    @Test
+    void disabled_writesImmediately() {
+        properties.getEvidenceJournal().setEnabled(false);
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+
+        journal.append(evidences(4));
+
+        assertThat(writer.batches).extracting(List::size).containsExactly(4);
+        assertThat(journal.getStats().pending()).isZero();
+    }
+
+    @Test
+    void batchFailure_retriesPerRowAndCountsOnlyBadRows() {
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+        List<RetrievalEvidenceJpaEntity> evidences = evidences(3);
+        writer.rejected.add(evidences.get(1).getId());
+        journal.append(evidences);
+
+        journal.flushNow();
+
+        assertThat(writer.written()).containsExactly(evidences.get(0), evidences.get(2));
+        assertThat(journal.getStats().flushed()).isEqualTo(2);
+        assertThat(journal.getStats().failed()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_flushesRemainingEvidence() {
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+        journal.append(evidences(2));
+
+        journal.shutdown();
+
+        assertThat(writer.written()).hasSize(2);
+    }
+
+    @Test
+    void concurrentAppends_areAllPersisted() throws Exception {
+        properties.getEvidenceJournal().setBufferCapacity(64);
+        properties.getEvidenceJournal().setBatchSize(16);
+        var journal = new RetrievalEvidenceJournal(writer, properties);
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i += 5) {
+                    journal.append(evidences(5));
+                    if (i % 50 == 0) {
+                        journal.flush();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        journal.flushNow();
+
+        var stats = journal.getStats();
+        assertThat(stats.appended()).isEqualTo((long) threads * perThread);
+        assertThat(stats.flushed()).isEqualTo(stats.appended());
+        assertThat(writer.written()).hasSize(threads * perThread);
+    }
+
+    private static List<RetrievalEvidenceJpaEntity> evidences(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(rank -> new RetrievalEvidenceJpaEntity(
+                        UUID.randomUUID(), INQUIRY_ID, UUID.randomUUID(), 0.9 - rank * 0.01, rank, "question", Instant.now()))
+                .toList();
+    }
+
+    /** 전달받은 배치를 복사해 보관하는 테스트용 writer. {@code rejected} ID가 포함된 배치는 실패한다. */
+    private static class RecordingWriter extends RetrievalEvidenceBatchWriter {
+        final List<List<RetrievalEvidenceJpaEntity>> batches = new ArrayList<>();
+        final Set<UUID> rejected = new HashSet<>();
+
+        RecordingWriter() {
+            super(null);
+        }
+
+        @Override
+        public synchronized int writeBatch(List<RetrievalEvidenceJpaEntity> evidences) {
+            if (evidences.stream().anyMatch(e -> rejected.contains(e.getId()))) {
+                throw new IllegalStateException("violates fk_retrieval_inquiry");
+            }
+            batches.add(List.copyOf(evidences));
+            return evidences.size();
+        }
+
+        synchronized List<RetrievalEvidenceJpaEntity> written() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}
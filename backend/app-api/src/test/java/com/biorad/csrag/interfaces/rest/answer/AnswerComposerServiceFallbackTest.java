@@ -5,15 +5,18 @@ import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.sendattempt.SendAttemptJpaRepository;
+import com.biorad.csrag.interfaces.rest.analysis.RetrievalEvidenceJournal;
 import com.biorad.csrag.interfaces.rest.answer.orchestration.AnswerOrchestrationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -34,7 +37,8 @@ class AnswerComposerServiceFallbackTest {
         AiReviewResultJpaRepository aiReviewResultRepository = mock(AiReviewResultJpaRepository.class);
         DocumentMetadataJpaRepository documentMetadataRepository = mock(DocumentMetadataJpaRepository.class);
         when(documentMetadataRepository.findByInquiryIdOrderByCreatedAtDesc(any())).thenReturn(java.util.List.of());
-        AnswerComposerService service = new AnswerComposerService(orchestrationService, repository, sendAttemptRepository, java.util.List.of(), aiReviewResultRepository, documentMetadataRepository, new ObjectMapper());
+        RetrievalEvidenceJournal evidenceJournal = mock(RetrievalEvidenceJournal.class);
+        AnswerComposerService service = new AnswerComposerService(orchestrationService, repository, sendAttemptRepository, java.util.List.of(), aiReviewResultRepository, documentMetadataRepository, new ObjectMapper(), evidenceJournal);
 
         AnswerDraftResponse response = service.compose(inquiryId, "test question", "professional", "email");
 
@@ -44,5 +48,10 @@ class AnswerComposerServiceFallbackTest {
         assertThat(response.citations()).isEmpty();
         assertThat(response.formatWarnings()).contains("FALLBACK_DRAFT_USED");
         assertThat(response.draft()).contains("보수적 안내");
+
+        // 초안 저장 전에 검색 근거 저널을 비운다
+        InOrder order = inOrder(evidenceJournal, repository);
+        order.verify(evidenceJournal).flushNow();
+        order.verify(repository).save(any(AnswerDraftJpaEntity.class));
     }
 }
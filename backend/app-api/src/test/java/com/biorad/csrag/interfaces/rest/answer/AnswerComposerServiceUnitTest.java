@@ -7,6 +7,7 @@ import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaReposito
 import com.biorad.csrag.infrastructure.persistence.document.DocumentMetadataJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.sendattempt.SendAttemptJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.sendattempt.SendAttemptJpaRepository;
+import com.biorad.csrag.interfaces.rest.analysis.RetrievalEvidenceJournal;
 import com.biorad.csrag.interfaces.rest.answer.orchestration.AnswerOrchestrationService;
 import com.biorad.csrag.interfaces.rest.answer.sender.MessageSender;
 import com.biorad.csrag.interfaces.rest.answer.sender.SendResult;
@@ -51,6 +52,9 @@ class AnswerComposerServiceUnitTest {
     @Mock
     private MessageSender emailSender;
 
+    @Mock
+    private RetrievalEvidenceJournal evidenceJournal;
+
     private AnswerComposerService service;
 
     @BeforeEach
@@ -62,7 +66,8 @@ class AnswerComposerServiceUnitTest {
                 List.of(emailSender),
                 aiReviewResultRepository,
                 documentMetadataRepository,
-                new ObjectMapper()
+                new ObjectMapper(),
+                evidenceJournal
         );
     }
 
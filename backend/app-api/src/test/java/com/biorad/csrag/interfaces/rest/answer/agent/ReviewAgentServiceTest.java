@@ -1,6 +1,11 @@
 package com.biorad.csrag.interfaces.rest.answer.agent;
 
 import com.biorad.csrag.common.exception.NotFoundException;
+import com.biorad.csrag.infrastructure.http.OutboundHttpProperties;
+import com.biorad.csrag.infrastructure.http.OutboundHttpTransport;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateLimitProperties;
 import com.biorad.csrag.infrastructure.persistence.answer.AiReviewResultJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.answer.AiReviewResultJpaRepository;
 import com.biorad.csrag.infrastructure.persistence.answer.AnswerDraftJpaEntity;
@@ -47,7 +52,10 @@ class ReviewAgentServiceTest {
         service = new ReviewAgentService(
                 false, "", "https://api.openai.com/v1", "gpt-4",
                 new ObjectMapper(), answerDraftRepository, aiReviewResultRepository,
-                inquiryRepository, promptRegistry
+                inquiryRepository, promptRegistry,
+                new OpenAiRestClientFactory(
+                        new OpenAiRateGovernor(new OpenAiRateLimitProperties()),
+                        new OutboundHttpTransport(new OutboundHttpProperties(), null))
         );
     }
 
@@ -1,7 +1,10 @@
 package com.biorad.csrag.interfaces.rest.answer.orchestration;
 
+import com.biorad.csrag.infrastructure.openai.PipelineTraceContext;
+import com.biorad.csrag.infrastructure.openai.PipelineTraceLogger;
 import com.biorad.csrag.infrastructure.persistence.orchestration.OrchestrationRunJpaEntity;
 import com.biorad.csrag.infrastructure.persistence.orchestration.OrchestrationRunJpaRepository;
+import com.biorad.csrag.infrastructure.rag.latency.LatencyHistogramRegistry;
 import com.biorad.csrag.interfaces.rest.analysis.AnalyzeResponse;
 import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
 import com.biorad.csrag.interfaces.rest.search.AdaptiveRetrievalAgent;
@@ -19,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -47,6 +51,7 @@ class AnswerOrchestrationServiceTest {
     @Mock private AdaptiveRetrievalAgent adaptiveRetrievalAgent;
     @Mock private MultiHopRetriever multiHopRetriever;
     @Mock private CriticAgentService criticAgentService;
+    @Mock private PipelineStatusService pipelineStatusService;
 
     private AnswerOrchestrationService service;
 
@@ -63,11 +68,16 @@ class AnswerOrchestrationServiceTest {
         // Critic은 기본적으로 통과 반환
         lenient().when(criticAgentService.critique(any(), any(), any()))
                 .thenReturn(CriticAgentService.CriticResult.passing(0.95));
+        // 스트리밍 compose는 인터페이스 기본 구현처럼 블로킹 execute로 위임 (테스트는 execute를 stub)
+        lenient().when(composeStep.executeStreaming(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> composeStep.execute(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                        inv.getArgument(3), inv.getArgument(4)));
         service = new AnswerOrchestrationService(
                 retrieveStep, verifyStep, composeStep, selfReviewStep,
                 runRepository, sseService, questionDecomposerService,
                 productExtractorService, productFamilyRegistry,
-                adaptiveRetrievalAgent, multiHopRetriever, criticAgentService);
+                adaptiveRetrievalAgent, multiHopRetriever, criticAgentService,
+                pipelineStatusService, new LatencyHistogramRegistry(), new PipelineTraceLogger());
     }
 
     /** Helper: stub decomposer to return a single sub-question (default single-question flow). */
@@ -111,6 +121,33 @@ class AnswerOrchestrationServiceTest {
         verify(verifyStep).execute(eq(inquiryId), eq(question), eq(evidences));
     }
 
+    @Test
+    void run_startsTraceForStepsAndClearsItAfterwards() {
+        UUID inquiryId = UUID.randomUUID();
+        stubSingleQuestionDecompose("question");
+        List<PipelineTraceContext.PipelineTrace> seen = new ArrayList<>();
+
+        when(retrieveStep.execute(any(), anyString(), anyInt())).thenReturn(List.of());
+        when(verifyStep.execute(any(), anyString(), anyList())).thenAnswer(inv -> {
+            seen.add(PipelineTraceContext.current());
+            PipelineTraceContext.recordLlmCall("VERIFY", "gpt-5-mini", 100, 20, 5);
+            return new AnalyzeResponse(inquiryId.toString(), "SUPPORTED", 0.8, "", List.of(), List.of(), null);
+        });
+        when(composeStep.execute(any(), anyString(), any(), any(), any())).thenReturn(
+                new ComposeStep.ComposeStepResult("Draft", List.of()));
+        when(selfReviewStep.review(anyString(), anyList(), anyString()))
+                .thenReturn(new SelfReviewStep.SelfReviewResult(true, List.of(), ""));
+        when(runRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.run(inquiryId, "question", "professional", "email");
+
+        assertThat(seen).hasSize(1);
+        assertThat(seen.get(0)).isNotNull();
+        assertThat(seen.get(0).getInquiryId()).isEqualTo(inquiryId.toString());
+        assertThat(seen.get(0).totalTokens()).isEqualTo(120);
+        assertThat(PipelineTraceContext.current()).isNull();
+    }
+
     @Test
     void run_logsSuccessForEachStep() {
         UUID inquiryId = UUID.randomUUID();
@@ -117,36 +117,30 @@ class ComposePromptEfficiencyTest {
         }
     }
 
-    // ── Token estimation tests ────────────────────────────────────────────
+    // ── Evidence token count tests ────────────────────────────────────────
 
     @Nested
-    class TokenEstimationTests {
+    class EvidenceTokenTests {
 
-        @Test
-        void englishText_dividesBy4() {
-            // 40 ASCII chars -> 40/4 = 10 tokens
-            String english = "The thermal cycling protocol requires a";
-            assertThat(OpenAiComposeStep.estimateTokens(english)).isEqualTo(10);
-        }
+        private final OpenAiComposeStep composeStep = new OpenAiComposeStep(null, "gpt-5-mini", 3000,
+                null, null, null);
 
         @Test
-        void koreanText_dividesBy3() {
-            // Predominantly Korean text (> 1/3 non-ASCII)
-            String korean = "열 순환 프로토콜이 필요합니다 확인하세요";
-            int tokens = OpenAiComposeStep.estimateTokens(korean);
-            // Expecting chars/3 (rounded up)
-            int expected = (int) Math.ceil((double) korean.length() / 3);
-            assertThat(tokens).isEqualTo(expected);
-        }
+        void memoizedExcerptCount_isUsedInsteadOfRetokenizing() {
+            EvidenceItem memoized = new EvidenceItem("c1", "d1", 0.9, "short", "INQUIRY", "a.pdf", 1, 1,
+                    null, null, 1000, null);
+            EvidenceItem headerOnly = new EvidenceItem("c1", "d1", 0.9, "", "INQUIRY", "a.pdf", 1, 1);
 
-        @Test
-        void nullText_returnsZero() {
-            assertThat(OpenAiComposeStep.estimateTokens(null)).isEqualTo(0);
+            assertThat(composeStep.evidenceTokens(1, memoized) - composeStep.evidenceTokens(1, headerOnly))
+                    .isEqualTo(1000);
         }
 
         @Test
-        void emptyText_returnsZero() {
-            assertThat(OpenAiComposeStep.estimateTokens("")).isEqualTo(0);
+        void missingCount_countsExcerptWithBpe() {
+            EvidenceItem ev = new EvidenceItem("c1", "d1", 0.9, "hello world", "INQUIRY", "a.pdf", 1, 1);
+            EvidenceItem empty = new EvidenceItem("c1", "d1", 0.9, "", "INQUIRY", "a.pdf", 1, 1);
+
+            assertThat(composeStep.evidenceTokens(1, ev) - composeStep.evidenceTokens(1, empty)).isEqualTo(2);
         }
     }
 
@@ -253,6 +247,22 @@ class ComposePromptEfficiencyTest {
             assertThat(result).hasSize(3);
         }
 
+        @Test
+        void applyTokenBudget_maximizesTotalScoreInsteadOfGreedyPrefix() {
+            OpenAiComposeStep budget1000 = new OpenAiComposeStep(null, "test-model", 1000,
+                    null, null, null);
+            List<EvidenceItem> evidences = List.of(
+                    new EvidenceItem("big", "d1", 0.95, "x", "INQUIRY", "a.pdf", 1, 1, null, null, 900, null),
+                    new EvidenceItem("half1", "d2", 0.90, "y", "INQUIRY", "b.pdf", 2, 2, null, null, 450, null),
+                    new EvidenceItem("half2", "d3", 0.85, "z", "INQUIRY", "c.pdf", 3, 3, null, null, 450, null)
+            );
+
+            List<EvidenceItem> result = budget1000.applyTokenBudget(evidences);
+
+            // greedy would stop after "big" (0.95); two halves fit together for 1.75
+            assertThat(result).extracting(EvidenceItem::chunkId).containsExactly("half1", "half2");
+        }
+
         @Test
         void getEvidenceTokenBudget_returnsConfiguredValue() {
             assertThat(composeStep.getEvidenceTokenBudget()).isEqualTo(50);
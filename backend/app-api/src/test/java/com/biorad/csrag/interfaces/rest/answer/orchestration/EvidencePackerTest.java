@@ -0,0 +1,90 @@
+package com.biorad.csrag.interfaces.rest.answer.orchestration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvidencePackerTest {
+
+    @Test
+    void everythingFits_returnsAllInOrder() {
+        assertThat(EvidencePacker.pack(new int[]{10, 20, 30}, new double[]{0.9, 0.8, 0.7}, 60))
+                .containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void choosesHighestTotalScoreNotGreedyPrefix() {
+        int[] picked = EvidencePacker.pack(new int[]{90, 50, 50}, new double[]{0.95, 0.9, 0.85}, 100);
+
+        assertThat(picked).containsExactly(1, 2);
+    }
+
+    @Test
+    void skipsOversizedItemAndFillsRemainingBudget() {
+        int[] picked = EvidencePacker.pack(new int[]{40, 500, 30, 30}, new double[]{0.9, 0.85, 0.5, 0.4}, 100);
+
+        assertThat(picked).containsExactly(0, 2, 3);
+    }
+
+    @Test
+    void zeroScoreItemsStillFillLeftoverBudget() {
+        int[] picked = EvidencePacker.pack(new int[]{50, 50, 40}, new double[]{0.9, 0.0, -0.1}, 100);
+
+        assertThat(picked).containsExactly(0, 1);
+    }
+
+    @Test
+    void nothingFits_keepsTopItem() {
+        assertThat(EvidencePacker.pack(new int[]{300, 400}, new double[]{0.9, 0.8}, 100)).containsExactly(0);
+        assertThat(EvidencePacker.pack(new int[]{300}, new double[]{0.9}, 0)).containsExactly(0);
+    }
+
+    @Test
+    void emptyInput_returnsEmpty() {
+        assertThat(EvidencePacker.pack(new int[0], new double[0], 100)).isEmpty();
+    }
+
+    @Test
+    void coarseGranularity_neverExceedsBudgetAndMatchesBruteForceClosely() {
+        Random random = new Random(42);
+        int n = 20;
+        int budget = 20_000; // n * budget > MAX_CELLS → 토큰 수를 올림해 축소
+        int[] tokens = new int[n];
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            tokens[i] = 500 + random.nextInt(3000);
+            scores[i] = random.nextDouble();
+        }
+
+        int[] picked = EvidencePacker.pack(tokens, scores, budget);
+
+        long used = 0;
+        double value = 0;
+        for (int i : picked) {
+            used += tokens[i];
+            value += scores[i];
+        }
+        assertThat(used).isLessThanOrEqualTo(budget);
+        assertThat(value).isGreaterThanOrEqualTo(bruteForceBest(tokens, scores, budget) * 0.95);
+    }
+
+    private static double bruteForceBest(int[] tokens, double[] scores, int budget) {
+        double best = 0;
+        for (int mask = 0; mask < (1 << tokens.length); mask++) {
+            long used = 0;
+            double value = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    used += tokens[i];
+                    value += scores[i];
+                }
+            }
+            if (used <= budget && value > best) {
+                best = value;
+            }
+        }
+        return best;
+    }
+}
@@ -1,7 +1,9 @@
 package com.biorad.csrag.interfaces.rest.chunk;
 
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkBulkWriter;
 import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
-import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaRepository;
+import com.biorad.csrag.infrastructure.rag.budget.TokenCounter;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
 import com.biorad.csrag.interfaces.rest.document.DocumentTextExtractor.PageText;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,7 +25,7 @@ import static org.mockito.Mockito.verify;
 class ChunkingServiceTest {
 
     @Mock
-    private DocumentChunkJpaRepository chunkRepository;
+    private DocumentChunkBulkWriter chunkWriter;
 
     @Captor
     private ArgumentCaptor<List<DocumentChunkJpaEntity>> chunksCaptor;
@@ -32,7 +34,7 @@ class ChunkingServiceTest {
 
     @BeforeEach
     void setUp() {
-        chunkingService = new ChunkingService(chunkRepository);
+        chunkingService = new ChunkingService(chunkWriter);
     }
 
     @Test
@@ -74,6 +76,18 @@ class ChunkingServiceTest {
         assertThat(chunkingService.splitIntoSentences("   ")).isEmpty();
     }
 
+    @Test
+    void sentenceSpans_pointIntoOriginalTextAndMatchSplit() {
+        String text = "  See Fig. 2 for details. Load 20 uL.\n\n두 번째 단락입니다. (Optional) Mix well.  ";
+
+        List<int[]> spans = ChunkingService.sentenceSpans(text);
+
+        assertThat(spans).hasSize(4);
+        assertThat(spans.stream().map(s -> text.substring(s[0], s[1])).toList())
+                .containsExactlyElementsOf(chunkingService.splitIntoSentences(text))
+                .containsExactly("See Fig. 2 for details.", "Load 20 uL.", "두 번째 단락입니다.", "(Optional) Mix well.");
+    }
+
     @Test
     void chunkAndStore_createsParentAndChildChunks() {
         UUID docId = UUID.randomUUID();
@@ -82,7 +96,7 @@ class ChunkingServiceTest {
 
         int count = chunkingService.chunkAndStore(docId, text);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(count).isEqualTo(chunks.size());
@@ -101,6 +115,31 @@ class ChunkingServiceTest {
                 assertThat(child.getParentChunkId()).isEqualTo(parents.get(0).getId()));
     }
 
+    @Test
+    void chunkAndStore_storesMinHashSignaturePerChunk() {
+        UUID docId = UUID.randomUUID();
+
+        chunkingService.chunkAndStore(docId, "Short sentence one. Short sentence two. Short sentence three.");
+
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
+        assertThat(chunksCaptor.getValue()).allSatisfy(chunk ->
+                assertThat(MinHashSignature.decode(chunk.getMinhashSignature()))
+                        .isEqualTo(MinHashSignature.of(chunk.getContent())));
+    }
+
+    @Test
+    void chunkAndStore_storesTokenCountPerChunk() {
+        UUID docId = UUID.randomUUID();
+        TokenCounter counter = TokenCounter.defaultCounter();
+
+        chunkingService.chunkAndStore(docId, "Short sentence one.  Short sentence two.\nShort sentence three.");
+
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
+        assertThat(chunksCaptor.getValue()).allSatisfy(chunk ->
+                assertThat(chunk.getTokenCount())
+                        .isEqualTo(counter.count(chunk.getContent().replaceAll("\\s+", " ").trim())));
+    }
+
     @Test
     void chunkAndStore_splitsLongTextIntoMultipleParentsWithChildren() {
         UUID docId = UUID.randomUUID();
@@ -113,7 +152,7 @@ class ChunkingServiceTest {
 
         int count = chunkingService.chunkAndStore(docId, text);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(count).isGreaterThan(1);
@@ -142,7 +181,7 @@ class ChunkingServiceTest {
 
         chunkingService.chunkAndStore(docId, text, "KNOWLEDGE_BASE", sourceId);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(chunks).allSatisfy(chunk -> {
@@ -158,7 +197,7 @@ class ChunkingServiceTest {
 
         chunkingService.chunkAndStore(docId, text);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(chunks).allSatisfy(chunk -> {
@@ -179,7 +218,7 @@ class ChunkingServiceTest {
 
         chunkingService.chunkAndStore(docId, text);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         // Parent 청크만 추출하여 오버랩 확인
@@ -198,6 +237,29 @@ class ChunkingServiceTest {
         }
     }
 
+    @Test
+    void chunkAndStore_parentOffsetsCutOriginalTextToParentBody() {
+        UUID docId = UUID.randomUUID();
+        // 문장 사이 공백이 제각각이고 오버랩이 생길 만큼 긴 원문
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 40; i++) {
+            sb.append("Sentence ").append(i).append(" is about topic ").append(i).append(" and has plenty of detail.")
+                    .append(i % 5 == 0 ? "\n\n" : i % 2 == 0 ? "   " : " ");
+        }
+        String text = sb.toString();
+
+        chunkingService.chunkAndStore(docId, text, "KNOWLEDGE_BASE", docId, "manual.pdf");
+
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
+        List<DocumentChunkJpaEntity> parents = chunksCaptor.getValue().stream()
+                .filter(c -> "PARENT".equals(c.getChunkLevel())).toList();
+        assertThat(parents).hasSizeGreaterThan(1);
+        assertThat(parents).allSatisfy(parent -> assertThat(parent.getContent())
+                .isEqualTo("[manual.pdf] " + text.substring(parent.getStartOffset(), parent.getEndOffset())));
+        // 오버랩 문장은 두 부모에 같은 원문 위치로 들어간다
+        assertThat(parents.get(1).getStartOffset()).isLessThan(parents.get(0).getEndOffset());
+    }
+
     @Test
     void chunkAndStore_withPageTexts_createsChunksWithPageInfo() {
         UUID docId = UUID.randomUUID();
@@ -212,7 +274,7 @@ class ChunkingServiceTest {
 
         int count = chunkingService.chunkAndStore(docId, pageTexts, "KNOWLEDGE_BASE", sourceId);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(count).isGreaterThanOrEqualTo(1);
@@ -243,7 +305,7 @@ class ChunkingServiceTest {
         String longSentence = "A".repeat(2000);
         int count = chunkingService.chunkAndStore(docId, longSentence);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(count).isGreaterThan(1);
@@ -297,7 +359,7 @@ class ChunkingServiceTest {
 
         chunkingService.chunkAndStore(docId, text, "KNOWLEDGE_BASE", sourceId, null, "naica");
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         assertThat(chunks).allSatisfy(chunk ->
@@ -311,7 +373,7 @@ class ChunkingServiceTest {
 
         chunkingService.chunkAndStore(docId, text);
 
-        verify(chunkRepository).saveAll(chunksCaptor.capture());
+        verify(chunkWriter).insertAll(chunksCaptor.capture());
         List<DocumentChunkJpaEntity> chunks = chunksCaptor.getValue();
 
         List<DocumentChunkJpaEntity> parents = chunks.stream()
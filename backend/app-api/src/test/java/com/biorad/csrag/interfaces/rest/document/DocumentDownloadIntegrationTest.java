@@ -0,0 +1,192 @@
+package com.biorad.csrag.interfaces.rest.document;
+
+import com.biorad.csrag.app.CsRagApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 원본 다운로드의 Range·조건부 GET을 실제 Tomcat과 보안 필터 체인을 거쳐 확인한다.
+ * Tomcat이 sendfile을 지원하면 본문은 요청 속성으로 넘긴 파일 구간을 컨테이너가 보낸다.
+ */
+@SpringBootTest(classes = CsRagApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.storage.upload-dir=build/test-uploads")
+@AutoConfigureMockMvc
+@Import(DocumentDownloadIntegrationTest.SendfileProbe.class)
+class DocumentDownloadIntegrationTest {
+
+    /** 여러 TCP 세그먼트에 걸치도록 256KiB */
+    private static final byte[] CONTENT = content(256 * 1024);
+    private static final String ETAG = "\"" + sha256(CONTENT) + "\"";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @LocalServerPort private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private String documentId;
+
+    /** 보안 필터 체인 바깥에서 응답 후 sendfile 요청 속성을 기록 — 컨테이너가 실제로 넘겨받은 구간 */
+    @TestConfiguration
+    static class SendfileProbe {
+
+        static final AtomicReference<Object[]> LAST = new AtomicReference<>();
+
+        @Bean
+        FilterRegistrationBean<Filter> sendfileProbeFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                chain.doFilter(request, response);
+                LAST.set(new Object[]{
+                        request.getAttribute(FileRangeResponder.SENDFILE_FILENAME_ATTR),
+                        request.getAttribute(FileRangeResponder.SENDFILE_START_ATTR),
+                        request.getAttribute(FileRangeResponder.SENDFILE_END_ATTR)});
+            });
+            registration.addUrlPatterns("/api/v1/documents/*");
+            registration.setOrder(Integer.MIN_VALUE);
+            return registration;
+        }
+    }
+
+    @BeforeEach
+    void upload() throws Exception {
+        String inquiry = mockMvc.perform(post("/api/v1/inquiries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"question":"download range test","customerChannel":"email"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String inquiryId = objectMapper.readTree(inquiry).path("inquiryId").asText();
+
+        String uploaded = mockMvc.perform(multipart("/api/v1/inquiries/{id}/documents", inquiryId)
+                        .file(new MockMultipartFile("file", "manual.pdf", "application/pdf", CONTENT)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        documentId = objectMapper.readTree(uploaded).path("documentId").asText();
+    }
+
+    @Test
+    void fullDownload_returnsWholeFileWithValidators() throws Exception {
+        HttpResponse<byte[]> response = send(request());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(CONTENT);
+        assertThat(response.headers().firstValue("ETag")).hasValue(ETAG);
+        assertThat(response.headers().firstValue("Accept-Ranges")).hasValue("bytes");
+    }
+
+    @Test
+    void singleRange_returns206WithRequestedSlice() throws Exception {
+        HttpResponse<byte[]> response = send(request().header("Range", "bytes=100000-199999"));
+
+        assertThat(response.statusCode()).isEqualTo(206);
+        assertThat(response.headers().firstValue("Content-Range")).hasValue("bytes 100000-199999/" + CONTENT.length);
+        assertThat(response.body()).isEqualTo(Arrays.copyOfRange(CONTENT, 100_000, 200_000));
+        // Tomcat이 sendfile을 지원해 본문은 컨테이너가 보냈다
+        assertThat(SendfileProbe.LAST.get()).containsExactly(
+                sendfileFileName(), 100_000L, 200_000L);
+    }
+
+    @Test
+    void ifNoneMatchCurrentEtag_returns304WithoutBody() throws Exception {
+        HttpResponse<byte[]> response = send(request().header("If-None-Match", ETAG));
+
+        assertThat(response.statusCode()).isEqualTo(304);
+        assertThat(response.body()).isEmpty();
+        assertThat(response.headers().firstValue("ETag")).hasValue(ETAG);
+    }
+
+    @Test
+    void ifMatchOtherEtag_returns412() throws Exception {
+        HttpResponse<byte[]> response = send(request().header("If-Match", "\"stale\""));
+
+        assertThat(response.statusCode()).isEqualTo(412);
+        assertThat(response.body()).isEmpty();
+    }
+
+    @Test
+    void rangeBeyondEnd_returns416WithLength() throws Exception {
+        HttpResponse<byte[]> response = send(request().header("Range", "bytes=" + CONTENT.length + "-"));
+
+        assertThat(response.statusCode()).isEqualTo(416);
+        assertThat(response.headers().firstValue("Content-Range")).hasValue("bytes */" + CONTENT.length);
+        assertThat(response.body()).isEmpty();
+    }
+
+    @Test
+    void sendfileSupported_handsFileRangeToContainer() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/documents/{id}/download", documentId)
+                        .requestAttr(FileRangeResponder.SENDFILE_SUPPORT_ATTR, Boolean.TRUE)
+                        .header("Range", "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+
+        Object fileName = result.getRequest().getAttribute(FileRangeResponder.SENDFILE_FILENAME_ATTR);
+        assertThat(fileName).isNotNull();
+        assertThat(Path.of((String) fileName)).isAbsolute().hasBinaryContent(CONTENT);
+        assertThat(result.getRequest().getAttribute(FileRangeResponder.SENDFILE_START_ATTR)).isEqualTo(10L);
+        assertThat(result.getRequest().getAttribute(FileRangeResponder.SENDFILE_END_ATTR)).isEqualTo(20L);
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+    }
+
+    private String sendfileFileName() {
+        Object fileName = SendfileProbe.LAST.get()[0];
+        assertThat(fileName).isInstanceOf(String.class);
+        assertThat(Path.of((String) fileName)).hasBinaryContent(CONTENT);
+        return (String) fileName;
+    }
+
+    private HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + port + "/api/v1/documents/" + documentId + "/download"));
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] content(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.biorad.csrag.interfaces.rest.document;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileRangeResponderTest {
+
+    private static final String ETAG = "\"abc123\"";
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(tempDir.resolve("manual.pdf"), CONTENT, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void noRange_servesWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = respond(get());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+        assertThat(response.getContentLengthLong()).isEqualTo(20);
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("ETag")).isEqualTo(ETAG);
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("inline");
+    }
+
+    @Test
+    void singleRange_returnsPartialContent() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=5-9");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+    }
+
+    @Test
+    void suffixRange_returnsTail() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=-4");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("ghij");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 16-19/20");
+    }
+
+    @Test
+    void unsatisfiableRange_returns416() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=50-60");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void multipleRanges_fallBackToFullResponse() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=0-1,5-6");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void malformedRange_isIgnoredAndServesFullResponse() throws Exception {
+        for (String header : new String[]{"bytes=abc", "items=0-3", "bytes=9-2"}) {
+            MockHttpServletRequest request = get();
+            request.addHeader("Range", header);
+
+            MockHttpServletResponse response = respond(request);
+
+            assertThat(response.getStatus()).as(header).isEqualTo(200);
+            assertThat(response.getContentAsString()).as(header).isEqualTo(CONTENT);
+            assertThat(response.getHeader("Content-Range")).as(header).isNull();
+        }
+    }
+
+    @Test
+    void tooManyRanges_areIgnoredAndServeFullResponse() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=" + "0-0,".repeat(150) + "1-1");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void staleIfRange_ignoresRange() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", "\"previous\"");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void matchingIfRange_honoursRange() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", ETAG);
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("0123");
+    }
+
+    @Test
+    void ifNoneMatch_returnsNotModifiedWithoutBody() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", ETAG);
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifMatchOtherEtag_returnsPreconditionFailed() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("If-Match", "\"stale\", W/" + ETAG);
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(412);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifMatchCurrentEtag_servesFile() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("If-Match", "\"stale\", " + ETAG);
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void ifUnmodifiedSinceBeforeLastModified_returnsPreconditionFailed() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("If-Unmodified-Since", Files.getLastModifiedTime(file).toMillis() - 60_000);
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(412);
+    }
+
+    @Test
+    void sendfileSupported_delegatesRangeToContainer() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAttribute(FileRangeResponder.SENDFILE_SUPPORT_ATTR, Boolean.TRUE);
+        request.addHeader("Range", "bytes=10-");
+
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute(FileRangeResponder.SENDFILE_FILENAME_ATTR))
+                .isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute(FileRangeResponder.SENDFILE_START_ATTR)).isEqualTo(10L);
+        assertThat(request.getAttribute(FileRangeResponder.SENDFILE_END_ATTR)).isEqualTo(20L);
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/v1/documents/x/download");
+    }
+
+    private MockHttpServletResponse respond(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileRangeResponder.respond(request, response, file, ETAG, "application/pdf", "inline");
+        return response;
+    }
+}
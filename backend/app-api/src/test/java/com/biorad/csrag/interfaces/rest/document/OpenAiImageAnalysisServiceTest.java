@@ -1,5 +1,10 @@
 package com.biorad.csrag.interfaces.rest.document;
 
+import com.biorad.csrag.infrastructure.http.OutboundHttpProperties;
+import com.biorad.csrag.infrastructure.http.OutboundHttpTransport;
+import com.biorad.csrag.infrastructure.openai.OpenAiRestClientFactory;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateGovernor;
+import com.biorad.csrag.infrastructure.openai.ratelimit.OpenAiRateLimitProperties;
 import com.biorad.csrag.infrastructure.prompt.PromptRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -30,7 +35,10 @@ class OpenAiImageAnalysisServiceTest {
                 "gpt-4o",
                 objectMapper,
                 fallback,
-                promptRegistry
+                promptRegistry,
+                new OpenAiRestClientFactory(
+                        new OpenAiRateGovernor(new OpenAiRateLimitProperties()),
+                        new OutboundHttpTransport(new OutboundHttpProperties(), null))
         );
     }
 
@@ -1,6 +1,7 @@
 package com.biorad.csrag.interfaces.rest.ops;
 
 import com.biorad.csrag.app.CsRagApplication;
+import com.biorad.csrag.application.ops.OpsRollupService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -26,6 +27,9 @@ class OpsMetricsIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private OpsRollupService opsRollupService;
+
     @Test
     void opsMetrics_returns_send_and_fallback_metrics() throws Exception {
         String inquiryId = createInquiry();
@@ -87,6 +91,20 @@ class OpsMetricsIntegrationTest {
                 .andExpect(jsonPath("$.data").isArray());
     }
 
+    @Test
+    void timeline_today_countsInquiryFromRollup() throws Exception {
+        String inquiryId = createInquiry();
+        createDraft(inquiryId);
+        // 조회는 롤업을 재계산하지 않으므로 스케줄러 실행을 대신한다
+        opsRollupService.refreshNow();
+
+        mockMvc.perform(get("/api/v1/ops/metrics/timeline").param("period", "today"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[-1].inquiriesCreated").value(org.hamcrest.Matchers.greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.data[-1].draftsCreated").value(org.hamcrest.Matchers.greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.rollupRefreshedAt").isString());
+    }
+
     @Test
     void timeline_7d() throws Exception {
         mockMvc.perform(get("/api/v1/ops/metrics/timeline").param("period", "7d"))
@@ -144,6 +162,30 @@ class OpsMetricsIntegrationTest {
                 .andExpect(jsonPath("$.topDocuments").isArray());
     }
 
+    @Test
+    void recorderStats_returnsBufferCounters() throws Exception {
+        mockMvc.perform(get("/api/v1/ops/metrics/recorder"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recorded").isNumber())
+                .andExpect(jsonPath("$.dropped").isNumber())
+                .andExpect(jsonPath("$.capacity").isNumber())
+                .andExpect(jsonPath("$.overflowPolicy").isString());
+    }
+
+    @Test
+    void latency_afterDraft_returnsPipelineStepPercentiles() throws Exception {
+        String inquiryId = createInquiry();
+        createDraft(inquiryId);
+
+        mockMvc.perform(get("/api/v1/ops/metrics/latency").param("category", "PIPELINE_STEP"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windows[0]").value("1m"))
+                .andExpect(jsonPath("$.series").isArray())
+                .andExpect(jsonPath("$.series[0].category").value("PIPELINE_STEP"))
+                .andExpect(jsonPath("$.series[0].windows['1m'].p99Ms").isNumber())
+                .andExpect(jsonPath("$.series[0].windows['1h'].count").isNumber());
+    }
+
     @Test
     void exportCsv_returnsCsvContent() throws Exception {
         mockMvc.perform(get("/api/v1/ops/metrics/export/csv"))
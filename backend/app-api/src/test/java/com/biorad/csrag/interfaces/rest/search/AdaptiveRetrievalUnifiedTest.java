@@ -114,11 +114,13 @@ class AdaptiveRetrievalUnifiedTest {
             UUID chunkId3 = UUID.randomUUID();
 
             // 1차 시도: 낮은 점수
-            when(hybridSearchService.search(anyString(), anyInt(), any()))
-                    .thenReturn(List.of(candidate(chunkId1, 0.3)))  // initial
-                    .thenReturn(List.of(candidate(chunkId2, 0.7)))  // expand
-                    .thenReturn(List.of(candidate(chunkId3, 0.6)))  // broaden
-                    .thenReturn(List.of(candidate(chunkId1, 0.4))); // translate (dup chunkId1)
+            when(hybridSearchService.search(anyString(), anyInt(), any(SearchFilter.class)))
+                    .thenReturn(List.of(candidate(chunkId1, 0.3)));  // initial
+            when(hybridSearchService.searchBatch(anyList(), anyInt(), any(SearchFilter.class)))
+                    .thenReturn(List.of(
+                            List.of(candidate(chunkId2, 0.7)),   // expand
+                            List.of(candidate(chunkId3, 0.6)),   // broaden
+                            List.of(candidate(chunkId1, 0.4)))); // translate (dup chunkId1)
             when(rerankingService.rerank(anyString(), anyList(), anyInt()))
                     .thenReturn(List.of(rerankResult(chunkId1, 0.3)))
                     .thenReturn(List.of(rerankResult(chunkId2, 0.7)))
@@ -136,8 +138,10 @@ class AdaptiveRetrievalUnifiedTest {
             assertThat(result.status()).isEqualTo(AdaptiveRetrievalAgent.AdaptiveResult.ResultStatus.SUCCESS);
             // LLM은 1회만 호출 (unified call)
             verify(restClient, times(1)).post();
-            // 검색은 4회 (원본 1 + 변형 3)
-            verify(hybridSearchService, times(4)).search(anyString(), anyInt(), any());
+            // 원본 1회 단건 검색 + 변형 3개는 배치 검색 1회
+            verify(hybridSearchService, times(1)).search(anyString(), anyInt(), any());
+            verify(hybridSearchService, times(1)).searchBatch(
+                    eq(List.of("expanded", "broadened", "translated")), eq(50), any(SearchFilter.class));
         }
 
         @Test
@@ -0,0 +1,123 @@
+package com.biorad.csrag.interfaces.rest.search;
+
+import com.biorad.csrag.infrastructure.rag.config.RagPipelineProperties;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvidenceCompressorTest {
+
+    private static final String QUERY = "How do I reduce droplet count variability?";
+
+    private static final String S1 = "The QX200 Droplet Generator partitions each sample into about 20,000 droplets.";
+    private static final String S2 = "Cartridges must be loaded with 20 uL of sample and 70 uL of oil.";
+    private static final String S3 = "Low droplet count variability is usually caused by uneven pipetting into the cartridge wells.";
+    private static final String S4 = "Use the gasket supplied with each cartridge and inspect it before every run.";
+    private static final String S5 = "The instrument status light turns green when the generator is ready.";
+    private static final String S6 = "Always pipette slowly along the well wall to reduce variability between wells.";
+    private static final String S7 = "Store cartridges at room temperature and keep them sealed until use.";
+    private static final String S8 = "Contact technical support if the reader reports an error code during startup.";
+
+    private static final String PARENT = String.join(" ", S1, S2, S3, S4, S5, S6, S7, S8);
+    private static final String CHILD = S3 + " " + S4;
+
+    private RagPipelineProperties properties;
+    private EvidenceCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RagPipelineProperties();
+        compressor = new EvidenceCompressor(properties);
+    }
+
+    @Test
+    void compress_keepsQueryAndChildSentencesInSourceOrder() {
+        MinHashSignature signature = MinHashSignature.of(PARENT);
+        EvidenceItem evidence = evidence(PARENT, signature);
+
+        EvidenceItem result = compressor.compress(evidence, PARENT, 0, QUERY, CHILD);
+
+        assertThat(result.excerpt()).contains(S3).contains(S6).doesNotContain(S5).doesNotContain(S8);
+        assertThat(result.excerpt().length()).isLessThan(PARENT.length());
+        assertThat(result.excerpt().indexOf(S3)).isLessThan(result.excerpt().indexOf(S6));
+        // 페이지·서명은 유지, 토큰 수는 다시 센다
+        assertThat(result.pageStart()).isEqualTo(3);
+        assertThat(result.pageEnd()).isEqualTo(4);
+        assertThat(result.signature()).isSameAs(signature);
+        assertThat(result.tokenCount()).isNull();
+    }
+
+    @Test
+    void compress_alwaysKeepsSentenceBestMatchingChild() {
+        String child = S7;
+
+        EvidenceItem result = compressor.compress(evidence(PARENT, null), PARENT, 0, QUERY, child);
+
+        assertThat(result.excerpt()).contains(S7);
+    }
+
+    @Test
+    void compress_returnsDocumentSpansThatCutBackToExcerptSentences() {
+        // 부모 청크는 문서 중간에서 시작하고 문장 사이 공백이 원문 그대로다
+        String parent = String.join("  ", S1, S2, S3, S4) + "\n\n" + String.join(" ", S5, S6, S7, S8);
+        String document = "Intro paragraph of the manual.\n\n" + parent + "\n\nAppendix.";
+        int parentOffset = document.indexOf(parent);
+
+        EvidenceItem result = compressor.compress(evidence(parent, null), parent, parentOffset, QUERY, CHILD);
+
+        assertThat(result.excerptSpans()).isNotEmpty();
+        List<String> cut = result.excerptSpans().stream()
+                .map(span -> document.substring(span.start(), span.end()))
+                .toList();
+        assertThat(cut).contains(S3, S6).doesNotContain(S5, S8);
+        assertThat(String.join(" ", cut).replace(EvidenceCompressor.GAP_MARKER, " "))
+                .isEqualTo(result.excerpt().replace(EvidenceCompressor.GAP_MARKER, " "));
+    }
+
+    @Test
+    void compress_unknownSourceOffset_omitsSpans() {
+        EvidenceItem result = compressor.compress(evidence(PARENT, null), PARENT, null, QUERY, CHILD);
+
+        assertThat(result.excerpt()).contains(S3);
+        assertThat(result.excerptSpans()).isNull();
+    }
+
+    @Test
+    void compress_marksGapsBetweenNonAdjacentSentences() {
+        EvidenceItem result = compressor.compress(evidence(PARENT, null), PARENT, 0, QUERY, S1);
+
+        assertThat(result.excerpt()).startsWith(S1).contains(EvidenceCompressor.GAP_MARKER);
+    }
+
+    @Test
+    void compress_shortContent_returnsEvidenceUnchanged() {
+        String shortParent = S1 + " " + S2;
+        EvidenceItem evidence = evidence(shortParent, null);
+
+        assertThat(compressor.compress(evidence, shortParent, 0, QUERY, S1)).isSameAs(evidence);
+    }
+
+    @Test
+    void compress_disabled_returnsEvidenceUnchanged() {
+        properties.getCompression().setEnabled(false);
+        EvidenceItem evidence = evidence(PARENT, null);
+
+        assertThat(compressor.compress(evidence, PARENT, 0, QUERY, CHILD)).isSameAs(evidence);
+    }
+
+    @Test
+    void tokens_lowercasesDropsStopwordsAndStripsKoreanJosa() {
+        assertThat(EvidenceCompressor.tokens("The Droplet 카운트를 카트리지에서 확인"))
+                .containsExactlyInAnyOrder("droplet", "카운트", "카트리지", "확인");
+    }
+
+    private static EvidenceItem evidence(String excerpt, MinHashSignature signature) {
+        return new EvidenceItem("chunk-1", "doc-1", 0.8, excerpt, "KNOWLEDGE_BASE", "manual.pdf",
+                3, 4, "QX200", signature, 120, null);
+    }
+}
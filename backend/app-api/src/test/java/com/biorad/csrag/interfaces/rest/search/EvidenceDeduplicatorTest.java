@@ -1,9 +1,11 @@
 package com.biorad.csrag.interfaces.rest.search;
 
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
 import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -71,6 +73,36 @@ class EvidenceDeduplicatorTest {
         assertThat(result).hasSize(2);
     }
 
+    @Test
+    void deduplicate_usesStoredSignatureInsteadOfExcerpt() {
+        // 저장된 서명이 같으면 (동일 원문 청크) excerpt가 달라도 중복으로 판정
+        MinHashSignature shared = MinHashSignature.of("Safety warning: disconnect power before servicing the instrument");
+        EvidenceItem high = new EvidenceItem(UUID.randomUUID().toString(), "doc1", 0.9,
+                "alpha bravo charlie", "KNOWLEDGE_BASE", null, null, null, null, shared, null, null);
+        EvidenceItem low = new EvidenceItem(UUID.randomUUID().toString(), "doc2", 0.5,
+                "delta echo foxtrot", "KNOWLEDGE_BASE", null, null, null, null, shared, null, null);
+
+        List<EvidenceItem> result = deduplicator.deduplicate(List.of(high, low));
+
+        assertThat(result).containsExactly(high);
+    }
+
+    @Test
+    void removeNearDuplicates_largeCandidateSet_usesLshAndKeepsHighestScored() {
+        List<EvidenceItem> items = new ArrayList<>();
+        for (int i = 0; i < EvidenceDeduplicator.LSH_MIN_ITEMS + 8; i++) {
+            String content = "topic" + i + " alpha" + i + " bravo" + i + " charlie" + i + " delta" + i + " echo" + i;
+            items.add(evidence(UUID.randomUUID().toString(), "doc" + i, 0.9 - i * 0.01, content, "INQUIRY"));
+            // 모든 항목에 대해 점수가 낮은 근접 중복 하나씩
+            items.add(evidence(UUID.randomUUID().toString(), "dup" + i, 0.1, content + " extra", "INQUIRY"));
+        }
+
+        List<EvidenceItem> result = deduplicator.removeNearDuplicates(items);
+
+        assertThat(result).hasSize(EvidenceDeduplicator.LSH_MIN_ITEMS + 8);
+        assertThat(result).allSatisfy(item -> assertThat(item.documentId()).startsWith("doc"));
+    }
+
     // ── same-doc same-page dedup ───────────────────────────────────
 
     @Test
@@ -189,12 +221,12 @@ class EvidenceDeduplicatorTest {
 
     private EvidenceItem evidence(String chunkId, String docId, double score,
                                    String excerpt, String sourceType) {
-        return new EvidenceItem(chunkId, docId, score, excerpt, sourceType, null, null, null, null);
+        return new EvidenceItem(chunkId, docId, score, excerpt, sourceType, null, null, null);
     }
 
     private EvidenceItem evidence(String chunkId, String docId, double score,
                                    String excerpt, String sourceType,
                                    String fileName, Integer pageStart, Integer pageEnd) {
-        return new EvidenceItem(chunkId, docId, score, excerpt, sourceType, fileName, pageStart, pageEnd, null);
+        return new EvidenceItem(chunkId, docId, score, excerpt, sourceType, fileName, pageStart, pageEnd);
     }
 }
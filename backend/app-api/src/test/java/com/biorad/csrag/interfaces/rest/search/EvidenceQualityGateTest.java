@@ -278,12 +278,12 @@ class EvidenceQualityGateTest {
     private EvidenceItem evidence(String docId, double score, String excerpt, String sourceType) {
         return new EvidenceItem(
                 UUID.randomUUID().toString(), docId, score, excerpt,
-                sourceType, null, null, null, null
+                sourceType, null, null, null
         );
     }
 
     private EvidenceItem evidence(String chunkId, String docId, double score,
                                    String excerpt, String sourceType) {
-        return new EvidenceItem(chunkId, docId, score, excerpt, sourceType, null, null, null, null);
+        return new EvidenceItem(chunkId, docId, score, excerpt, sourceType, null, null, null);
     }
 }
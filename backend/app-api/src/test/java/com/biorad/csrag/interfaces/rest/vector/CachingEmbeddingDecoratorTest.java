@@ -0,0 +1,63 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingEmbeddingDecoratorTest {
+
+    @Mock private EmbeddingService delegate;
+
+    private CachingEmbeddingDecorator decorator;
+
+    @BeforeEach
+    void setUp() {
+        decorator = new CachingEmbeddingDecorator(delegate, 10, 30);
+    }
+
+    @Test
+    void embedQuery_secondCallServedFromCache() {
+        when(delegate.embedQuery("droplet count")).thenReturn(List.of(0.1, 0.2));
+
+        decorator.embedQuery("droplet count");
+        List<Double> second = decorator.embedQuery("droplet count");
+
+        assertThat(second).containsExactly(0.1, 0.2);
+        verify(delegate).embedQuery("droplet count");
+    }
+
+    @Test
+    void embedQueryBatch_servesHitsAndBatchesDistinctMissesOnce() {
+        when(delegate.embedQuery("cached")).thenReturn(List.of(1.0));
+        decorator.embedQuery("cached");
+        when(delegate.embedQueryBatch(List.of("new a", "new b"))).thenReturn(List.of(List.of(2.0), List.of(3.0)));
+
+        List<List<Double>> result = decorator.embedQueryBatch(List.of("new a", "cached", "new b", "new a"));
+
+        assertThat(result).containsExactly(List.of(2.0), List.of(1.0), List.of(3.0), List.of(2.0));
+        verify(delegate).embedQueryBatch(List.of("new a", "new b"));
+    }
+
+    @Test
+    void embedQueryBatch_allCached_skipsDelegate() {
+        when(delegate.embedQueryBatch(List.of("a", "b"))).thenReturn(List.of(List.of(1.0), List.of(2.0)));
+        decorator.embedQueryBatch(List.of("a", "b"));
+
+        List<List<Double>> result = decorator.embedQueryBatch(List.of("b", "a"));
+
+        assertThat(result).containsExactly(List.of(2.0), List.of(1.0));
+        verify(delegate).embedQueryBatch(anyList());
+        verify(delegate, never()).embedQuery("a");
+    }
+}
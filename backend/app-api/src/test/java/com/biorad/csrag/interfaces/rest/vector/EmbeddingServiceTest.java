@@ -24,6 +24,23 @@ class EmbeddingServiceTest {
         assertThat(result).isEqualTo(List.of(1.0, 2.0, 3.0));
     }
 
+    @Test
+    void embedQueryBatch_delegatesToEmbedQueryPerText() {
+        EmbeddingService asymmetric = new EmbeddingService() {
+            @Override
+            public List<Double> embed(String text) {
+                return List.of(0.0);
+            }
+
+            @Override
+            public List<Double> embedQuery(String text) {
+                return List.of((double) text.length());
+            }
+        };
+
+        assertThat(asymmetric.embedQueryBatch(List.of("a", "bbb"))).containsExactly(List.of(1.0), List.of(3.0));
+    }
+
     @Test
     void embedBatch_processesSequentially() {
         List<List<Double>> result = service.embedBatch(List.of("a", "b", "c"));
@@ -183,4 +183,89 @@ class MockVectorStoreTest {
         assertThat(results).hasSize(1);
         assertThat(results.get(0).sourceType()).isEqualTo("KNOWLEDGE_BASE");
     }
+
+    @Test
+    void upsertShared_matchesAnyMemberDocumentAndProduct() {
+        UUID pointId = UUID.randomUUID();
+        UUID naicaDoc = UUID.randomUUID();
+        UUID vericheckDoc = UUID.randomUUID();
+        List<Double> vector = List.of(1.0, 0.0);
+        store.upsertShared(pointId, vector, "safety", "KNOWLEDGE_BASE",
+                new VectorPointMembership(pointId, List.of(naicaDoc, vericheckDoc), List.of("naica", "vericheck")));
+
+        assertThat(store.search(vector, 5, SearchFilter.forProducts(null, Set.of("vericheck")))).hasSize(1);
+        List<VectorSearchResult> byDoc = store.search(vector, 5,
+                new SearchFilter(null, Set.of(vericheckDoc), null, null));
+        assertThat(byDoc).hasSize(1);
+        assertThat(byDoc.get(0).chunkId()).isEqualTo(pointId);
+        assertThat(byDoc.get(0).documentId()).isEqualTo(naicaDoc);
+    }
+
+    @Test
+    void updateMembership_replacesMembersAndKeepsVector() {
+        UUID pointId = UUID.randomUUID();
+        UUID naicaDoc = UUID.randomUUID();
+        UUID vericheckDoc = UUID.randomUUID();
+        UUID vericheckChunk = UUID.randomUUID();
+        List<Double> vector = List.of(1.0, 0.0);
+        store.upsertShared(pointId, vector, "safety", "KNOWLEDGE_BASE",
+                new VectorPointMembership(pointId, List.of(naicaDoc, vericheckDoc), List.of("naica", "vericheck")));
+
+        store.updateMembership(pointId, VectorPointMembership.single(vericheckChunk, vericheckDoc, "vericheck"));
+
+        assertThat(store.search(vector, 5, SearchFilter.forProducts(null, Set.of("naica")))).isEmpty();
+        List<VectorSearchResult> results = store.search(vector, 5);
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).chunkId()).isEqualTo(vericheckChunk);
+        assertThat(results.get(0).documentId()).isEqualTo(vericheckDoc);
+        assertThat(results.get(0).score()).isCloseTo(1.0, org.assertj.core.data.Offset.offset(0.01));
+    }
+
+    @Test
+    void updateMembership_keepsContentUnlessRepresentativeContentGiven() {
+        UUID pointId = UUID.randomUUID();
+        UUID naicaDoc = UUID.randomUUID();
+        UUID vericheckDoc = UUID.randomUUID();
+        UUID vericheckChunk = UUID.randomUUID();
+        List<Double> vector = List.of(1.0, 0.0);
+        store.upsertShared(pointId, vector, "naica safety", "KNOWLEDGE_BASE",
+                new VectorPointMembership(pointId, List.of(naicaDoc, vericheckDoc), List.of("naica", "vericheck")));
+
+        store.updateMembership(pointId,
+                new VectorPointMembership(pointId, List.of(naicaDoc, vericheckDoc), List.of("naica", "vericheck")));
+        assertThat(store.search(vector, 5).get(0).content()).isEqualTo("naica safety");
+
+        store.updateMembership(pointId, VectorPointMembership.single(vericheckChunk, vericheckDoc, "vericheck")
+                .withRepresentativeContent("vericheck safety"));
+        assertThat(store.search(vector, 5).get(0).content()).isEqualTo("vericheck safety");
+    }
+
+    @Test
+    void deletePoints_removesById() {
+        UUID pointId = UUID.randomUUID();
+        store.upsertShared(pointId, List.of(1.0), "c", "KNOWLEDGE_BASE",
+                VectorPointMembership.single(pointId, UUID.randomUUID(), null));
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0), "other");
+
+        store.deletePoints(List.of(pointId));
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void searchBatch_returnsResultsPerQueryInOrder() {
+        UUID naicaDoc = UUID.randomUUID();
+        store.upsert(UUID.randomUUID(), naicaDoc, List.of(1.0, 0.0), "naica", "KNOWLEDGE_BASE", "naica");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(0.0, 1.0), "vericheck", "KNOWLEDGE_BASE", "vericheck");
+
+        List<List<VectorSearchResult>> batch = store.searchBatch(List.of(
+                VectorSearchQuery.of(List.of(0.0, 1.0), 1),
+                VectorSearchQuery.of(List.of(1.0, 0.0), 1),
+                new VectorSearchQuery(List.of(0.0, 1.0), 5, SearchFilter.forProducts(null, Set.of("naica")))));
+
+        assertThat(batch).hasSize(3);
+        assertThat(batch.get(0)).extracting(VectorSearchResult::content).containsExactly("vericheck");
+        assertThat(batch.get(1)).extracting(VectorSearchResult::content).containsExactly("naica");
+        assertThat(batch.get(2)).extracting(VectorSearchResult::documentId).containsExactly(naicaDoc);
+    }
 }
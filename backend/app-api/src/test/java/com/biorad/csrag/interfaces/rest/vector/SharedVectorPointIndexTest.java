@@ -0,0 +1,287 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository.BandCandidate;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository.Member;
+import com.biorad.csrag.infrastructure.persistence.chunk.VectorPointJdbcRepository.Representative;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import com.biorad.csrag.interfaces.rest.search.SearchFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SharedVectorPointIndexTest {
+
+    private static final String SAFETY = "Warning: always wear protective gloves and eye protection when handling "
+            + "reagents. Dispose of biohazard waste according to local regulations and institutional guidelines. "
+            + "Bio-Rad warrants this instrument against defects in materials and workmanship for one year.";
+
+    @Mock private VectorPointJdbcRepository repository;
+    @Mock private VectorStore vectorStore;
+
+    private SharedVectorPointIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SharedVectorPointIndex(repository, vectorStore, true, 0.9);
+    }
+
+    // ── 계획 ─────────────────────────────────────────────────
+
+    @Test
+    void plan_nearDuplicateOfExistingPoint_joinsWithoutEmbedding() {
+        UUID existingPoint = UUID.randomUUID();
+        MinHashSignature stored = MinHashSignature.of(SAFETY);
+        when(repository.findCandidates(anyCollection()))
+                .thenReturn(List.of(new BandCandidate(stored.bandHash(3), existingPoint, stored.encode())));
+        DocumentChunkJpaEntity chunk = chunk(SAFETY);
+
+        SharedVectorPointIndex.Plan plan = index.plan(List.of(chunk));
+
+        assertThat(plan.toEmbed()).isEmpty();
+        assertThat(plan.pointByChunk()).containsEntry(chunk.getId(), existingPoint);
+        assertThat(plan.joinedPoints()).containsExactly(existingPoint);
+        assertThat(plan.sharedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void plan_candidateBelowThreshold_createsNewPoint() {
+        MinHashSignature other = MinHashSignature.of("QX200 droplet reader calibration requires the calibration "
+                + "plate and fresh oil before every run of the droplet generator cartridge");
+        DocumentChunkJpaEntity chunk = chunk(SAFETY);
+        when(repository.findCandidates(anyCollection()))
+                .thenReturn(List.of(new BandCandidate(MinHashSignature.of(SAFETY).bandHash(0), UUID.randomUUID(), other.encode())));
+
+        SharedVectorPointIndex.Plan plan = index.plan(List.of(chunk));
+
+        assertThat(plan.toEmbed()).containsExactly(chunk);
+        assertThat(plan.pointByChunk()).containsEntry(chunk.getId(), chunk.getId());
+        assertThat(plan.newPoints()).containsKey(chunk.getId());
+        assertThat(plan.joinedPoints()).isEmpty();
+    }
+
+    @Test
+    void plan_duplicatesWithinDocument_shareFirstChunkPoint() {
+        when(repository.findCandidates(anyCollection())).thenReturn(List.of());
+        DocumentChunkJpaEntity first = chunk(SAFETY);
+        DocumentChunkJpaEntity second = chunk(SAFETY);
+        DocumentChunkJpaEntity distinct = chunk("ddPCR absolute quantification of copy number variation in tumor samples");
+
+        SharedVectorPointIndex.Plan plan = index.plan(List.of(first, second, distinct));
+
+        assertThat(plan.toEmbed()).containsExactly(first, distinct);
+        assertThat(plan.pointByChunk()).containsEntry(second.getId(), first.getId());
+        assertThat(plan.joinedPoints()).isEmpty();
+    }
+
+    @Test
+    void plan_emptySignature_alwaysGetsOwnPoint() {
+        when(repository.findCandidates(anyCollection())).thenReturn(List.of());
+        DocumentChunkJpaEntity a = chunk("!");
+        DocumentChunkJpaEntity b = chunk("!");
+
+        SharedVectorPointIndex.Plan plan = index.plan(List.of(a, b));
+
+        assertThat(plan.toEmbed()).containsExactly(a, b);
+    }
+
+    // ── 등록 ─────────────────────────────────────────────────
+
+    @Test
+    void register_storesPointsMembersAndRefreshesJoinedPayload() {
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        UUID existingPoint = UUID.randomUUID();
+        UUID existingChunk = UUID.randomUUID();
+        DocumentChunkJpaEntity fresh = chunk("product specific text for vericheck only");
+        DocumentChunkJpaEntity duplicate = chunk(SAFETY);
+        UUID freshId = fresh.getId();
+        UUID duplicateId = duplicate.getId();
+        MinHashSignature freshSignature = MinHashSignature.of(fresh.getContent());
+        SharedVectorPointIndex.Plan plan = new SharedVectorPointIndex.Plan(
+                List.of(fresh, duplicate), List.of(fresh),
+                Map.of(freshId, freshId, duplicateId, existingPoint),
+                Map.of(freshId, freshSignature), Set.of(existingPoint));
+        when(repository.findMembersByPoints(Set.of(existingPoint))).thenReturn(List.of(
+                new Member(existingPoint, existingChunk, docA, "naica"),
+                new Member(existingPoint, duplicateId, docB, "vericheck")));
+        when(repository.findRepresentatives(Set.of(existingPoint)))
+                .thenReturn(List.of(new Representative(existingPoint, existingChunk)));
+
+        index.register(docB, "vericheck", plan);
+
+        verify(repository).insertPoint(eq(freshId), eq(freshId), eq(freshSignature.encode()), any(), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Member>> members = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertMembers(members.capture());
+        assertThat(members.getValue()).containsExactly(
+                new Member(freshId, freshId, docB, "vericheck"),
+                new Member(existingPoint, duplicateId, docB, "vericheck"));
+        verify(vectorStore).updateMembership(existingPoint,
+                new VectorPointMembership(existingChunk, List.of(docA, docB), List.of("naica", "vericheck")));
+        verify(repository, never()).updateRepresentative(any(), any());
+    }
+
+    // ── 동일 파일 연결 ───────────────────────────────────────
+
+    @Test
+    void linkDocument_copiesSourceMembershipsOntoSamePoints() {
+        UUID source = UUID.randomUUID();
+        UUID copy = UUID.randomUUID();
+        UUID point = UUID.randomUUID();
+        UUID sourceChunk = UUID.randomUUID();
+        UUID copyChunk = UUID.randomUUID();
+        when(repository.findMembersByDocument(source)).thenReturn(List.of(new Member(point, sourceChunk, source, "naica")));
+        when(repository.findMembersByPoints(Set.of(point))).thenReturn(List.of(
+                new Member(point, sourceChunk, source, "naica"),
+                new Member(point, copyChunk, copy, "QX700")));
+        when(repository.findRepresentatives(Set.of(point))).thenReturn(List.of(new Representative(point, sourceChunk)));
+
+        boolean linked = index.linkDocument(source, copy, "QX700", Map.of(sourceChunk, copyChunk));
+
+        assertThat(linked).isTrue();
+        verify(repository).insertMembers(List.of(new Member(point, copyChunk, copy, "QX700")));
+        verify(vectorStore).updateMembership(point,
+                new VectorPointMembership(sourceChunk, List.of(source, copy), List.of("naica", "QX700")));
+        verify(repository, never()).insertPoint(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void linkDocument_sourceNotFullyShared_writesNothing() {
+        UUID source = UUID.randomUUID();
+        UUID point = UUID.randomUUID();
+        UUID sharedChunk = UUID.randomUUID();
+        when(repository.findMembersByDocument(source)).thenReturn(List.of(new Member(point, sharedChunk, source, null)));
+
+        boolean linked = index.linkDocument(source, UUID.randomUUID(), null,
+                Map.of(sharedChunk, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(linked).isFalse();
+        verify(repository, never()).insertMembers(anyList());
+        verify(vectorStore, never()).updateMembership(any(), any());
+    }
+
+    // ── 해제 ─────────────────────────────────────────────────
+
+    @Test
+    void removeDocument_deletesOrphanedPointsAndRehomesSharedOnes() {
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        UUID soloPoint = UUID.randomUUID();
+        UUID sharedPoint = UUID.randomUUID();
+        UUID docBChunk = UUID.randomUUID();
+        when(repository.findMembersByDocument(docA)).thenReturn(List.of(
+                new Member(soloPoint, soloPoint, docA, "naica"),
+                new Member(sharedPoint, sharedPoint, docA, "naica")));
+        when(repository.findMembersByPoints(Set.of(soloPoint, sharedPoint)))
+                .thenReturn(List.of(new Member(sharedPoint, docBChunk, docB, "vericheck")));
+        when(repository.findRepresentatives(Set.of(sharedPoint)))
+                .thenReturn(List.of(new Representative(sharedPoint, sharedPoint)));
+        when(repository.findChunkContent(docBChunk)).thenReturn("vericheck safety section");
+
+        index.removeDocument(docA);
+
+        verify(repository).deleteMembersByDocument(docA);
+        verify(repository).updateRepresentative(sharedPoint, docBChunk);
+        verify(vectorStore).updateMembership(sharedPoint,
+                VectorPointMembership.single(docBChunk, docB, "vericheck")
+                        .withRepresentativeContent("vericheck safety section"));
+        verify(vectorStore).deletePoints(List.of(soloPoint));
+        verify(repository).deletePoints(List.of(soloPoint));
+        verify(vectorStore).deleteByDocumentId(docA);
+    }
+
+    @Test
+    void removeDocument_withoutMemberships_onlyDeletesLegacyVectors() {
+        UUID docId = UUID.randomUUID();
+        when(repository.findMembersByDocument(docId)).thenReturn(List.of());
+
+        index.removeDocument(docId);
+
+        verify(vectorStore).deleteByDocumentId(docId);
+        verify(vectorStore, never()).deletePoints(anyList());
+        verify(repository, never()).deleteMembersByDocument(any());
+    }
+
+    // ── 필터 검색 멤버 해소 ───────────────────────────────────
+
+    @Test
+    void resolveMembers_documentFilteredSearchOnSharedPoint_citesFilteredDocumentsChunk() {
+        UUID pointId = UUID.randomUUID();
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        UUID docBChunk = UUID.randomUUID();
+        MockVectorStore store = new MockVectorStore();
+        store.upsertShared(pointId, List.of(1.0, 0.0), SAFETY, "KNOWLEDGE_BASE",
+                new VectorPointMembership(pointId, List.of(docA, docB), List.of("naica", "vericheck")));
+        SearchFilter filter = SearchFilter.forDocuments(Set.of(docB));
+        when(repository.findPointIdsByChunks(List.of(pointId))).thenReturn(Map.of(pointId, pointId));
+        when(repository.findMembersByPoints(Set.of(pointId))).thenReturn(List.of(
+                new Member(pointId, pointId, docA, "naica"),
+                new Member(pointId, docBChunk, docB, "vericheck")));
+
+        List<VectorSearchResult> hits = index.resolveMembers(store.search(List.of(1.0, 0.0), 5, filter), filter);
+
+        assertThat(hits).singleElement().satisfies(hit -> {
+            assertThat(hit.chunkId()).isEqualTo(docBChunk);
+            assertThat(hit.documentId()).isEqualTo(docB);
+            assertThat(hit.content()).isEqualTo(SAFETY);
+        });
+    }
+
+    @Test
+    void resolveMembers_productFilter_prefersMatchingMemberAndKeepsRepresentativeOnTie() {
+        UUID pointId = UUID.randomUUID();
+        UUID naicaDoc = UUID.randomUUID();
+        UUID vericheckDoc = UUID.randomUUID();
+        UUID vericheckChunk = UUID.randomUUID();
+        when(repository.findPointIdsByChunks(List.of(pointId))).thenReturn(Map.of(pointId, pointId));
+        when(repository.findMembersByPoints(Set.of(pointId))).thenReturn(List.of(
+                new Member(pointId, pointId, naicaDoc, "naica"),
+                new Member(pointId, vericheckChunk, vericheckDoc, "vericheck")));
+        VectorSearchResult hit = new VectorSearchResult(pointId, naicaDoc, SAFETY, 0.8, "KNOWLEDGE_BASE");
+
+        assertThat(index.resolveMembers(List.of(hit), SearchFilter.forProduct(null, "VeriCheck")))
+                .singleElement()
+                .satisfies(r -> assertThat(r.chunkId()).isEqualTo(vericheckChunk));
+        assertThat(index.resolveMembers(List.of(hit), SearchFilter.forProducts(null, Set.of("naica", "vericheck"))))
+                .containsExactly(hit);
+    }
+
+    @Test
+    void resolveMembers_withoutDocumentOrProductFilter_skipsLookup() {
+        VectorSearchResult hit = new VectorSearchResult(UUID.randomUUID(), UUID.randomUUID(), SAFETY, 0.8, "KNOWLEDGE_BASE");
+
+        assertThat(index.resolveMembers(List.of(hit), SearchFilter.forInquiry(UUID.randomUUID()))).containsExactly(hit);
+        verify(repository, never()).findPointIdsByChunks(anyCollection());
+    }
+
+    private static DocumentChunkJpaEntity chunk(String content) {
+        DocumentChunkJpaEntity chunk = mock(DocumentChunkJpaEntity.class);
+        UUID id = UUID.randomUUID();
+        lenient().when(chunk.getId()).thenReturn(id);
+        lenient().when(chunk.getContent()).thenReturn(content);
+        return chunk;
+    }
+}
@@ -251,4 +251,63 @@ class VectorizingServiceTest {
         verify(embeddingService).embedBatch(List.of("context: enriched content"));
         verify(vectorStore).upsert(chunkId, docId, List.of(0.9), "original content", "INQUIRY", null);
     }
+
+    @Test
+    void upsertDocumentChunks_kbWithSharedPoints_embedsOnlyNewPoints() {
+        SharedVectorPointIndex sharedPointIndex = mock(SharedVectorPointIndex.class);
+        service = new VectorizingService(chunkRepository, kbDocRepository, embeddingService, vectorStore,
+                contextualChunkEnricher, null, sharedPointIndex);
+        UUID docId = UUID.randomUUID();
+        UUID existingPoint = UUID.randomUUID();
+        DocumentChunkJpaEntity fresh = mock(DocumentChunkJpaEntity.class);
+        DocumentChunkJpaEntity duplicate = mock(DocumentChunkJpaEntity.class);
+        UUID freshId = UUID.randomUUID();
+        UUID duplicateId = UUID.randomUUID();
+        when(fresh.getId()).thenReturn(freshId);
+        when(fresh.getContent()).thenReturn("product specific");
+        when(fresh.getSourceType()).thenReturn("KNOWLEDGE_BASE");
+        when(chunkRepository.findByDocumentIdOrderByChunkIndexAsc(docId)).thenReturn(List.of(fresh, duplicate));
+        KnowledgeDocumentJpaEntity kbDoc = mock(KnowledgeDocumentJpaEntity.class);
+        when(kbDoc.getProductFamily()).thenReturn("vericheck");
+        when(kbDocRepository.findById(docId)).thenReturn(Optional.of(kbDoc));
+
+        SharedVectorPointIndex.Plan plan = new SharedVectorPointIndex.Plan(
+                List.of(fresh, duplicate), List.of(fresh),
+                java.util.Map.of(freshId, freshId, duplicateId, existingPoint),
+                java.util.Map.of(), java.util.Set.of(existingPoint));
+        when(sharedPointIndex.isEnabled()).thenReturn(true);
+        when(sharedPointIndex.plan(List.of(fresh, duplicate))).thenReturn(plan);
+        when(embeddingService.embedBatch(List.of("product specific"))).thenReturn(List.of(List.of(0.5)));
+
+        int result = service.upsertDocumentChunks(docId);
+
+        assertThat(result).isEqualTo(2);
+        verify(sharedPointIndex).removeDocument(docId);
+        verify(vectorStore, never()).deleteByDocumentId(any());
+        verify(vectorStore).upsertShared(freshId, List.of(0.5), "product specific", "KNOWLEDGE_BASE",
+                VectorPointMembership.single(freshId, docId, "vericheck"));
+        verify(vectorStore, never()).upsert(any(), any(), anyList(), anyString(), anyString(), any());
+        verify(sharedPointIndex).register(docId, "vericheck", plan);
+    }
+
+    @Test
+    void upsertDocumentChunks_inquiryWithSharedIndex_keepsPerChunkPoints() {
+        SharedVectorPointIndex sharedPointIndex = mock(SharedVectorPointIndex.class);
+        service = new VectorizingService(chunkRepository, kbDocRepository, embeddingService, vectorStore,
+                contextualChunkEnricher, null, sharedPointIndex);
+        UUID docId = UUID.randomUUID();
+        DocumentChunkJpaEntity chunk = mock(DocumentChunkJpaEntity.class);
+        UUID chunkId = UUID.randomUUID();
+        when(chunk.getId()).thenReturn(chunkId);
+        when(chunk.getContent()).thenReturn("customer log");
+        when(chunk.getSourceType()).thenReturn("INQUIRY");
+        when(chunkRepository.findByDocumentIdOrderByChunkIndexAsc(docId)).thenReturn(List.of(chunk));
+        when(embeddingService.embedBatch(List.of("customer log"))).thenReturn(List.of(List.of(0.1)));
+
+        service.upsertDocumentChunks(docId);
+
+        verify(sharedPointIndex).removeDocument(docId);
+        verify(sharedPointIndex, never()).plan(anyList());
+        verify(vectorStore).upsert(chunkId, docId, List.of(0.1), "customer log", "INQUIRY", null);
+    }
 }
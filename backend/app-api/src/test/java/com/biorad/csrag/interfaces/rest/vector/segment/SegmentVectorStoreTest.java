@@ -0,0 +1,402 @@
+package com.biorad.csrag.interfaces.rest.vector.segment;
+
+import com.biorad.csrag.interfaces.rest.search.SearchFilter;
+import com.biorad.csrag.interfaces.rest.vector.MatryoshkaSearchProperties;
+import com.biorad.csrag.interfaces.rest.vector.VectorPointMembership;
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchQuery;
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SegmentVectorStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final MatryoshkaSearchProperties matryoshka = new MatryoshkaSearchProperties();
+    private final IvfIndexProperties ivf = new IvfIndexProperties();
+    private SegmentVectorStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void upsert_and_search_fromMemtable() throws IOException {
+        store = open(100);
+        UUID chunkId = UUID.randomUUID();
+        UUID docId = UUID.randomUUID();
+        store.upsert(chunkId, docId, List.of(1.0, 0.0, 0.0), "test content");
+
+        List<VectorSearchResult> results = store.search(List.of(1.0, 0.0, 0.0), 5);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).chunkId()).isEqualTo(chunkId);
+        assertThat(results.get(0).documentId()).isEqualTo(docId);
+        assertThat(results.get(0).content()).isEqualTo("test content");
+        assertThat(results.get(0).sourceType()).isEqualTo("INQUIRY");
+        assertThat(results.get(0).score()).isCloseTo(1.0, within(1e-6));
+    }
+
+    @Test
+    void search_spansSealedSegmentsAndMemtable_sortedTopK() throws IOException {
+        store = open(2);
+        UUID docId = UUID.randomUUID();
+        store.upsert(UUID.randomUUID(), docId, List.of(1.0, 0.0, 0.0), "c1");
+        store.upsert(UUID.randomUUID(), docId, List.of(0.0, 1.0, 0.0), "c2");
+        store.upsert(UUID.randomUUID(), docId, List.of(0.9, 0.1, 0.0), "c3");
+
+        List<VectorSearchResult> results = store.search(List.of(1.0, 0.0, 0.0), 2);
+
+        assertThat(store.segmentCount()).isEqualTo(1);
+        assertThat(results).extracting(VectorSearchResult::content).containsExactly("c1", "c3");
+    }
+
+    @Test
+    void reopen_restoresSealedSegmentsAndReplaysWal() throws IOException {
+        store = open(2);
+        UUID docId = UUID.randomUUID();
+        UUID sealed = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+        store.upsert(sealed, docId, List.of(1.0, 0.0), "한글 본문", "KNOWLEDGE_BASE", "QX200");
+        store.upsert(UUID.randomUUID(), docId, List.of(0.0, 1.0), "other");
+        store.upsert(pending, docId, List.of(0.7, 0.7), "pending");
+
+        // close() 없이 버린 상황 (프로세스 중단): 세그먼트 + WAL만 남는다
+        store = open(2);
+
+        assertThat(store.size()).isEqualTo(3);
+        List<VectorSearchResult> results = store.search(List.of(1.0, 0.0), 3);
+        assertThat(results.get(0).chunkId()).isEqualTo(sealed);
+        assertThat(results.get(0).content()).isEqualTo("한글 본문");
+        assertThat(results.get(0).sourceType()).isEqualTo("KNOWLEDGE_BASE");
+        assertThat(results).extracting(VectorSearchResult::chunkId).contains(pending);
+    }
+
+    @Test
+    void reopen_ignoresTornWalTail() throws IOException {
+        store = open(100);
+        UUID chunkId = UUID.randomUUID();
+        store.upsert(chunkId, UUID.randomUUID(), List.of(1.0, 0.0), "kept");
+        try (RandomAccessFile wal = new RandomAccessFile(directory.resolve("wal.log").toFile(), "rw")) {
+            wal.seek(wal.length());
+            wal.writeInt(1000);
+            wal.writeInt(42);
+            wal.write(new byte[]{1, 2, 3});
+        }
+
+        store = open(100);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.search(List.of(1.0, 0.0), 1).get(0).chunkId()).isEqualTo(chunkId);
+    }
+
+    @Test
+    void upsert_overSealedPoint_tombstonesOldRow() throws IOException {
+        store = open(1);
+        UUID chunkId = UUID.randomUUID();
+        UUID docId = UUID.randomUUID();
+        store.upsert(chunkId, docId, List.of(1.0, 0.0), "v1");
+        store.upsert(chunkId, docId, List.of(1.0, 0.0), "v2");
+
+        store = open(1);
+
+        List<VectorSearchResult> results = store.search(List.of(1.0, 0.0), 5);
+        assertThat(results).extracting(VectorSearchResult::content).containsExactly("v2");
+    }
+
+    @Test
+    void deleteByDocumentId_removesSealedAndPendingPoints() throws IOException {
+        store = open(2);
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        store.upsert(UUID.randomUUID(), docA, List.of(1.0, 0.0), "a1");
+        store.upsert(UUID.randomUUID(), docA, List.of(0.9, 0.1), "a2");
+        store.upsert(UUID.randomUUID(), docA, List.of(0.8, 0.2), "a3");
+        store.upsert(UUID.randomUUID(), docB, List.of(0.0, 1.0), "b1");
+
+        store.deleteByDocumentId(docA);
+        store = open(2);
+
+        assertThat(store.search(List.of(1.0, 0.0), 10)).extracting(VectorSearchResult::content).containsExactly("b1");
+    }
+
+    @Test
+    void sharedPoints_matchAnyMemberAndSupportMembershipUpdate() throws IOException {
+        store = open(1);
+        UUID pointId = UUID.randomUUID();
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        store.upsertShared(pointId, List.of(1.0, 0.0), "shared", "KNOWLEDGE_BASE",
+                new VectorPointMembership(pointId, List.of(docA, docB), List.of("QX200")));
+
+        assertThat(store.search(List.of(1.0, 0.0), 5, SearchFilter.forDocuments(Set.of(docB)))).hasSize(1);
+
+        UUID newRepresentative = UUID.randomUUID();
+        store.updateMembership(pointId, new VectorPointMembership(newRepresentative, List.of(docB), List.of("QX600")));
+
+        assertThat(store.search(List.of(1.0, 0.0), 5, SearchFilter.forDocuments(Set.of(docA)))).isEmpty();
+        List<VectorSearchResult> results = store.search(List.of(1.0, 0.0), 5,
+                SearchFilter.forProducts(null, Set.of("qx600")));
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).chunkId()).isEqualTo(newRepresentative);
+        assertThat(results.get(0).content()).isEqualTo("shared");
+
+        store.updateMembership(pointId, new VectorPointMembership(newRepresentative, List.of(docB), List.of("QX600"))
+                .withRepresentativeContent("QX600 text"));
+        assertThat(store.search(List.of(1.0, 0.0), 5).get(0).content()).isEqualTo("QX600 text");
+
+        store.deletePoints(List.of(pointId));
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void compaction_purgesDeletedRowsAndMergesSmallSegments() throws IOException {
+        store = new SegmentVectorStore(directory.toString(), 1, false, 0.5, 1, "csrag_chunks", matryoshka, ivf);
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        for (int i = 0; i < 4; i++) {
+            store.upsert(UUID.randomUUID(), i < 2 ? docA : docB, List.of(1.0, i * 0.1), "c" + i);
+        }
+        store.deleteByDocumentId(docA);
+        assertThat(store.segmentCount()).isEqualTo(4);
+
+        int merged = store.compactOnce();
+
+        assertThat(merged).isEqualTo(4);
+        assertThat(store.segmentCount()).isEqualTo(1);
+        assertThat(segmentDirectories()).hasSize(1);
+        assertThat(store.search(List.of(1.0, 0.0), 10)).extracting(VectorSearchResult::content)
+                .containsExactlyInAnyOrder("c2", "c3");
+
+        store = new SegmentVectorStore(directory.toString(), 1, false, 0.5, 1, "csrag_chunks", matryoshka, ivf);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.compactOnce()).isZero();
+    }
+
+    @Test
+    void search_appliesInquiryScopingLikeMockStore() throws IOException {
+        store = open(100);
+        UUID inquiryDoc = UUID.randomUUID();
+        store.upsert(UUID.randomUUID(), inquiryDoc, List.of(1.0, 0.0), "inquiry", "INQUIRY");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0), "kb", "KNOWLEDGE_BASE", "naica");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0), "other inquiry", "INQUIRY");
+
+        SearchFilter filter = new SearchFilter(UUID.randomUUID(), Set.of(inquiryDoc), null, Set.of("KNOWLEDGE_BASE"));
+
+        assertThat(store.search(List.of(1.0, 0.0), 10, filter)).extracting(VectorSearchResult::content)
+                .containsExactlyInAnyOrder("inquiry", "kb");
+    }
+
+    @Test
+    void searchBatch_matchesSingleSearchPerQueryInOrder() throws IOException {
+        store = open(3);
+        UUID naicaDoc = UUID.randomUUID();
+        Random random = new Random(41);
+        for (int i = 0; i < 10; i++) {
+            store.upsert(UUID.randomUUID(), i % 2 == 0 ? naicaDoc : UUID.randomUUID(), randomVector(random, 16),
+                    "c" + i, "KNOWLEDGE_BASE", i % 2 == 0 ? "naica" : "vericheck");
+        }
+        List<VectorSearchQuery> queries = List.of(
+                VectorSearchQuery.of(randomVector(random, 16), 3),
+                new VectorSearchQuery(randomVector(random, 16), 2, SearchFilter.forProducts(null, Set.of("naica"))),
+                VectorSearchQuery.of(randomVector(random, 16), 5));
+
+        List<List<VectorSearchResult>> batch = store.searchBatch(queries);
+
+        assertThat(batch).hasSize(3);
+        for (int i = 0; i < queries.size(); i++) {
+            VectorSearchQuery query = queries.get(i);
+            assertThat(batch.get(i)).isEqualTo(store.search(query.vector(), query.topK(), query.filter()));
+        }
+        assertThat(batch.get(1)).extracting(VectorSearchResult::documentId).containsOnly(naicaDoc);
+    }
+
+    @Test
+    void partitionedSearch_visitsOnlyMatchingPartitionsWithSameResultsAsFilter() throws IOException {
+        store = open(4);
+        Random random = new Random(42);
+        List<String> families = List.of("naica", "QX200", "vericheck");
+        List<String> sourceTypes = List.of("KNOWLEDGE_BASE", "INQUIRY");
+        Map<UUID, String> familyByChunk = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            UUID chunkId = UUID.randomUUID();
+            String family = i % 7 == 0 ? null : families.get(i % families.size());
+            store.upsert(chunkId, UUID.randomUUID(), randomVector(random, 8), "c" + i, sourceTypes.get(i % 2), family);
+            familyByChunk.put(chunkId, family);
+        }
+        UUID shared = UUID.randomUUID();
+        store.upsertShared(shared, randomVector(random, 8), "shared", "KNOWLEDGE_BASE",
+                new VectorPointMembership(shared, List.of(UUID.randomUUID(), UUID.randomUUID()), List.of("naica", "qx200")));
+        List<Double> query = randomVector(random, 8);
+
+        // 카테고리 확장처럼 여러 제품군(대소문자 무관)을 고르면 공유 포인트는 한 번만 나온다
+        List<VectorSearchResult> multiFamily = store.search(query, 100,
+                new SearchFilter(null, null, Set.of("NAICA", "qx200"), Set.of("KNOWLEDGE_BASE")));
+        assertThat(multiFamily).extracting(VectorSearchResult::chunkId).doesNotHaveDuplicates().contains(shared);
+        assertThat(multiFamily).filteredOn(r -> !r.chunkId().equals(shared))
+                .allSatisfy(r -> assertThat(familyByChunk.get(r.chunkId())).isIn("naica", "QX200"))
+                .allSatisfy(r -> assertThat(r.sourceType()).isEqualTo("KNOWLEDGE_BASE"));
+        assertThat(multiFamily).extracting(VectorSearchResult::score).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+
+        List<VectorSearchResult> all = store.search(query, 100);
+        List<UUID> expected = all.stream()
+                .map(VectorSearchResult::chunkId)
+                .filter(id -> "vericheck".equals(familyByChunk.get(id)))
+                .toList();
+        assertThat(store.search(query, 100, SearchFilter.forProducts(null, Set.of("vericheck"))))
+                .extracting(VectorSearchResult::chunkId).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void indexStats_reportLivePointsPerPartition() throws IOException {
+        store = open(2);
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0), "a", "KNOWLEDGE_BASE", "naica");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0), "b", "KNOWLEDGE_BASE", "Naica");
+        UUID removedDoc = UUID.randomUUID();
+        store.upsert(UUID.randomUUID(), removedDoc, List.of(1.0, 0.0), "c", "KNOWLEDGE_BASE", "vericheck");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0), "d", "INQUIRY");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0), "e", "INQUIRY");
+        store.deleteByDocumentId(removedDoc);
+
+        SegmentVectorStore.IndexStats stats = store.getIndexStats();
+
+        assertThat(stats.points()).isEqualTo(4);
+        assertThat(stats.memtablePoints()).isEqualTo(1);
+        assertThat(stats.partitions()).extracting(p -> p.sourceType() + "/" + p.productFamily() + "=" + p.points())
+                .containsExactlyInAnyOrder("KNOWLEDGE_BASE/naica=2", "INQUIRY/null=2");
+        assertThat(stats.partitions().get(0).share()).isCloseTo(0.5, within(1e-9));
+        assertThat(stats.ivf().trained()).isFalse();
+    }
+
+    @Test
+    void ivf_unfilteredSearchProbesNearestLists() throws IOException {
+        ivf.setEnabled(true);
+        ivf.setMinPoints(200);
+        ivf.setLists(8);
+        ivf.setNprobe(8);
+        store = open(100);
+        Random random = new Random(7);
+        List<List<Double>> vectors = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            List<Double> vector = randomVector(random, 16);
+            vectors.add(vector);
+            store.upsert(UUID.randomUUID(), UUID.randomUUID(), vector, "c" + i, "KNOWLEDGE_BASE");
+        }
+        List<Double> query = randomVector(random, 16);
+        List<VectorSearchResult> exact = store.search(query, 10);
+
+        assertThat(store.refreshIvf()).isTrue();
+        assertThat(store.refreshIvf()).isFalse();
+        // 모든 리스트를 탐색하면 전수 비교와 같다
+        assertThat(store.search(query, 10)).isEqualTo(exact);
+
+        ivf.setNprobe(1);
+        List<VectorSearchResult> probed = store.search(vectors.get(123), 5);
+        assertThat(probed).hasSize(5);
+        assertThat(probed.get(0).content()).isEqualTo("c123");
+        assertThat(probed.get(0).score()).isCloseTo(1.0, within(1e-6));
+        // 필터 검색은 IVF를 쓰지 않는다
+        assertThat(store.search(query, 10, SearchFilter.forDocuments(Set.of(exact.get(0).documentId()))))
+                .extracting(VectorSearchResult::chunkId).containsExactly(exact.get(0).chunkId());
+
+        SegmentVectorStore.IvfStats stats = store.getIndexStats().ivf();
+        assertThat(stats.trained()).isTrue();
+        assertThat(stats.lists()).isEqualTo(8);
+        assertThat(stats.assignedSegments()).isEqualTo(4);
+        assertThat(stats.largestList()).isGreaterThanOrEqualTo(stats.smallestList());
+    }
+
+    @Test
+    void matryoshka_twoStageMatchesFullSearchOnSealedAndPendingPoints() throws IOException {
+        store = open(150);
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            store.upsert(UUID.randomUUID(), UUID.randomUUID(), randomVector(random, 64), "c" + i, "KNOWLEDGE_BASE");
+        }
+        List<Double> query = randomVector(random, 64);
+        List<VectorSearchResult> full = store.search(query, 5);
+
+        matryoshka.setEnabled(true);
+        matryoshka.setPrefixDimensions(16);
+        matryoshka.setMinCandidates(200);
+        List<VectorSearchResult> twoStage = store.search(query, 5);
+
+        assertThat(store.segmentCount()).isEqualTo(1);
+        assertThat(twoStage).extracting(VectorSearchResult::chunkId)
+                .containsExactlyElementsOf(full.stream().map(VectorSearchResult::chunkId).toList());
+        assertThat(twoStage.get(0).score()).isCloseTo(full.get(0).score(), within(1e-6));
+    }
+
+    @Test
+    void matryoshka_prefixScoresOnlyPickCandidates_finalScoresUseFullVector() throws IOException {
+        store = open(1);
+        matryoshka.setEnabled(true);
+        matryoshka.setPrefixDimensions(2);
+        matryoshka.setCandidateMultiplier(1);
+        matryoshka.setMinCandidates(1);
+        // 1단계는 앞 2차원으로 tail-mismatch(prefix 점수 1.0)를 고르고, 반환 점수는 전체 차원 코사인(0.5)이다
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(1.0, 0.0, 0.0, 1.0), "tail-mismatch");
+        store.upsert(UUID.randomUUID(), UUID.randomUUID(), List.of(0.0, 1.0, 0.0, 0.0), "prefix-mismatch");
+
+        List<VectorSearchResult> results = store.search(List.of(1.0, 0.0, 1.0, 0.0), 1);
+
+        assertThat(results).extracting(VectorSearchResult::content).containsExactly("tail-mismatch");
+        assertThat(results.get(0).score()).isCloseTo(0.5, within(1e-6));
+    }
+
+    @Test
+    void matryoshka_collectionOverrideDisablesTwoStage() {
+        matryoshka.setEnabled(true);
+        MatryoshkaSearchProperties.Collection override = new MatryoshkaSearchProperties.Collection();
+        override.setEnabled(false);
+        matryoshka.getCollections().put("inquiries", override);
+        MatryoshkaSearchProperties.Collection wide = new MatryoshkaSearchProperties.Collection();
+        wide.setPrefixDimensions(512);
+        matryoshka.getCollections().put("csrag_chunks", wide);
+
+        assertThat(matryoshka.prefixDimensionsFor("inquiries")).isZero();
+        assertThat(matryoshka.prefixDimensionsFor("csrag_chunks")).isEqualTo(512);
+        assertThat(matryoshka.prefixDimensionsFor("other")).isEqualTo(256);
+        assertThat(matryoshka.candidatesFor(10)).isEqualTo(80);
+        assertThat(matryoshka.candidatesFor(2)).isEqualTo(64);
+    }
+
+    private static List<Double> randomVector(Random random, int dimension) {
+        List<Double> vector = new ArrayList<>(dimension);
+        for (int i = 0; i < dimension; i++) {
+            vector.add(random.nextGaussian());
+        }
+        return vector;
+    }
+
+    private SegmentVectorStore open(int flushThreshold) throws IOException {
+        return new SegmentVectorStore(directory.toString(), flushThreshold, false, 0.3, 8, "csrag_chunks", matryoshka, ivf);
+    }
+
+    private List<Path> segmentDirectories() throws IOException {
+        try (Stream<Path> children = Files.list(directory)) {
+            return children.filter(p -> p.getFileName().toString().startsWith("seg-")).toList();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.biorad.csrag.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 벤치마크 입력용 한국어/영어 기술 문서와 질문 샘플.
+ *
+ * <p>코퍼스는 {@code corpus/ko.txt}, {@code corpus/en.txt}(제품 매뉴얼 형식: 제목, 번호 절, 단위가 붙은 수치, 약어, FAQ)이며
+ * 필요한 크기만큼 단락 단위로 반복해 늘린다.
+ */
+public final class BenchmarkTexts {
+
+    public static final String KO = "ko";
+    public static final String EN = "en";
+
+    private static final Map<String, List<String>> QUESTIONS = Map.of(
+            KO, List.of(
+                    "QX200에서 액적 수가 10,000개 미만으로 나오는데 가스켓이나 오일 문제인가요?",
+                    "ddPCR Supermix for Probes 사용 시 어닐링 온도는 몇 도로 설정해야 하나요?",
+                    "naica 시스템과 QX200 결과를 비교하려면 어떻게 해야 하나요? 희석 배수도 알려주세요.",
+                    "CFX96 Touch에서 멜트 커브 피크가 두 개 나오는 원인과 해결 방법은 무엇인가요?"),
+            EN, List.of(
+                    "Why do replicate wells on the CFX96 show Cq differences larger than 0.5 cycles?",
+                    "What annealing temperature should I use with SsoAdvanced Universal SYBR Green Supermix?",
+                    "How many droplets per well are acceptable on the QX200 Droplet Reader and what if fewer?",
+                    "Can I compare ddPCR results from naica with real-time PCR on the CFX Opus?"));
+
+    private BenchmarkTexts() {
+    }
+
+    /** 언어별 원본 코퍼스 */
+    public static String corpus(String language) {
+        String resource = "corpus/" + language + ".txt";
+        try (InputStream in = BenchmarkTexts.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown benchmark corpus: " + language);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 코퍼스를 최소 {@code chars}자가 될 때까지 단락 단위로 이어 붙인다. */
+    public static String corpus(String language, int chars) {
+        String base = corpus(language);
+        StringBuilder text = new StringBuilder(chars + base.length());
+        while (text.length() < chars) {
+            if (!text.isEmpty()) {
+                text.append("\n\n");
+            }
+            text.append(base);
+        }
+        return text.toString();
+    }
+
+    /** 코퍼스를 빈 줄 기준 단락으로 나눈다 (근거 excerpt 샘플용). */
+    public static List<String> paragraphs(String language) {
+        return List.of(corpus(language).split("\\n\\n+")).stream()
+                .map(String::trim)
+                .filter(p -> p.length() > 40)
+                .toList();
+    }
+
+    /** 언어별 고객 문의 샘플 */
+    public static List<String> questions(String language) {
+        List<String> questions = QUESTIONS.get(language);
+        if (questions == null) {
+            throw new IllegalArgumentException("Unknown benchmark language: " + language);
+        }
+        return questions;
+    }
+}
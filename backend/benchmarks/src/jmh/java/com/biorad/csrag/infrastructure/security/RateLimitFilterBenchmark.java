@@ -0,0 +1,91 @@
+package com.biorad.csrag.infrastructure.security;
+
+import com.biorad.csrag.infrastructure.security.ratelimit.LocalRateLimitStore;
+import com.biorad.csrag.infrastructure.security.ratelimit.RateLimitDecision;
+import com.biorad.csrag.infrastructure.security.ratelimit.RateLimitPolicy;
+import com.biorad.csrag.infrastructure.security.ratelimit.RequestRateLimitProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청당 레이트 리밋 오버헤드: GCRA 저장소 판정({@link LocalRateLimitStore#acquire})과 필터 전체.
+ *
+ * <p>정책 한도를 매우 크게 잡아 항상 허용 경로를 측정한다. {@code filterBaseline}은 같은 mock 요청·응답 생성과
+ * 체인 호출만 수행하므로 {@code filter - filterBaseline}이 필터 자체 비용이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitFilterBenchmark {
+
+    /** {@link RequestRateLimitProperties}의 기본 max-keys와 같은 클라이언트 수 */
+    private static final int CLIENTS = 100_000;
+
+    private LocalRateLimitStore store;
+    private RateLimitFilter filter;
+    private RateLimitPolicy policy;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        RequestRateLimitProperties properties = new RequestRateLimitProperties();
+        properties.getPolicies().put(RequestRateLimitProperties.READ_POLICY,
+                new RequestRateLimitProperties.Policy(1_000_000_000, 1, 1_000_000));
+        store = new LocalRateLimitStore(properties);
+        filter = new RateLimitFilter(properties, store);
+        policy = RateLimitPolicy.of("bench", 1_000_000_000, 1, 1_000_000);
+
+        clientKeys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientKeys[i] = "ip:10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public RateLimitDecision acquireHotKey() {
+        return store.acquire(clientKeys[0], policy);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimitDecision acquireHotKeyContended() {
+        return store.acquire(clientKeys[0], policy);
+    }
+
+    @Benchmark
+    public RateLimitDecision acquireManyClients() {
+        return store.acquire(clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)], policy);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterBaseline() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain().doFilter(request(), response);
+        return response;
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/inquiries");
+        request.setRemoteAddr(clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)].substring(3));
+        return request;
+    }
+}
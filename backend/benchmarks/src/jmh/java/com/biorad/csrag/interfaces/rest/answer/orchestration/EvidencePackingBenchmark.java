@@ -0,0 +1,74 @@
+package com.biorad.csrag.interfaces.rest.answer.orchestration;
+
+import com.biorad.csrag.benchmark.BenchmarkTexts;
+import com.biorad.csrag.infrastructure.rag.budget.TokenCounter;
+import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compose 근거 패킹 비용: knapsack 자체와 토큰 계산을 포함한 applyTokenBudget 전체.
+ *
+ * <p>stored: 인덱싱 시 저장된 excerpt 토큰 수 사용 (헤더만 토큰화), computed: 저장값 없는 구 청크 (excerpt 전체 토큰화).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EvidencePackingBenchmark {
+
+    @Param({"10", "20", "40"})
+    public int items;
+
+    @Param({"stored", "computed"})
+    public String tokenCounts;
+
+    private final OpenAiComposeStep composeStep = new OpenAiComposeStep(null, "gpt-5-mini", 3000, null, null, null);
+    private List<EvidenceItem> evidences;
+    private int[] tokens;
+    private double[] scores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        TokenCounter counter = TokenCounter.defaultCounter();
+        List<String> paragraphs = new ArrayList<>(BenchmarkTexts.paragraphs(BenchmarkTexts.KO));
+        paragraphs.addAll(BenchmarkTexts.paragraphs(BenchmarkTexts.EN));
+
+        evidences = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String excerpt = paragraphs.get(i % paragraphs.size());
+            Integer count = "stored".equals(tokenCounts) ? counter.count(excerpt) : null;
+            evidences.add(new EvidenceItem(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                    random.nextDouble(), excerpt, "KNOWLEDGE_BASE", "manual-" + (i % 5) + ".pdf",
+                    i, i + 1, "QX200", null, count, null));
+        }
+        tokens = new int[items];
+        scores = new double[items];
+        for (int i = 0; i < items; i++) {
+            tokens[i] = composeStep.evidenceTokens(i + 1, evidences.get(i));
+            scores[i] = evidences.get(i).score();
+        }
+    }
+
+    @Benchmark
+    public int[] knapsack() {
+        return EvidencePacker.pack(tokens, scores, 3000);
+    }
+
+    @Benchmark
+    public List<EvidenceItem> applyTokenBudget() {
+        return composeStep.applyTokenBudget(evidences);
+    }
+}
@@ -0,0 +1,61 @@
+package com.biorad.csrag.interfaces.rest.answer.orchestration;
+
+import com.biorad.csrag.benchmark.BenchmarkTexts;
+import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 규칙 기반 {@link SelfReviewStep#review} 전체(중복·일관성·수치·절차·인용·하위 질문 검사) 비용.
+ *
+ * <p>초안은 코퍼스 단락을 이어 붙인 답변 크기(약 1.5k / 6k자)이고, 근거는 코퍼스 단락 전부(8~10개)이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SelfReviewBenchmark {
+
+    @Param({BenchmarkTexts.KO, BenchmarkTexts.EN})
+    public String language;
+
+    @Param({"1500", "6000"})
+    public int draftChars;
+
+    private final SelfReviewStep selfReview = new SelfReviewStep();
+    private String draft;
+    private String question;
+    private List<EvidenceItem> evidences;
+
+    @Setup
+    public void setUp() {
+        List<String> paragraphs = BenchmarkTexts.paragraphs(language);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < draftChars; i++) {
+            text.append(paragraphs.get(i % paragraphs.size())).append(" [참고 ").append(i % 3 + 1).append("]\n\n");
+        }
+        draft = text.toString();
+        question = BenchmarkTexts.questions(language).get(2);
+
+        evidences = new ArrayList<>();
+        for (int i = 0; i < paragraphs.size(); i++) {
+            evidences.add(new EvidenceItem(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                    0.9 - i * 0.05, paragraphs.get(i), "KNOWLEDGE_BASE", "manual.pdf", i + 1, i + 1));
+        }
+    }
+
+    @Benchmark
+    public SelfReviewStep.SelfReviewResult review() {
+        return selfReview.review(draft, evidences, question);
+    }
+}
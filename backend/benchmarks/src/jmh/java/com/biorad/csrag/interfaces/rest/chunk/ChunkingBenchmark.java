@@ -0,0 +1,70 @@
+package com.biorad.csrag.interfaces.rest.chunk;
+
+import com.biorad.csrag.benchmark.BenchmarkTexts;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkBulkWriter;
+import com.biorad.csrag.infrastructure.persistence.chunk.DocumentChunkJpaEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 문장 분리와 Parent-Child 청크 조립 비용.
+ *
+ * <p>{@code chunkAndStore}는 청크 저장을 no-op writer로 대체해 분리·병합·오버랩·MinHash 서명 계산만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkingBenchmark {
+
+    @Param({BenchmarkTexts.KO, BenchmarkTexts.EN})
+    public String language;
+
+    /** 문서 길이(문자 수): 짧은 문의 첨부 ~ 중간 크기 매뉴얼 */
+    @Param({"4000", "64000"})
+    public int chars;
+
+    private ChunkingService chunkingService;
+    private String text;
+    private UUID documentId;
+
+    @Setup
+    public void setUp() {
+        chunkingService = new ChunkingService(noOpWriter());
+        text = BenchmarkTexts.corpus(language, chars);
+        documentId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public List<String> splitIntoSentences() {
+        return chunkingService.splitIntoSentences(text);
+    }
+
+    @Benchmark
+    public int chunkAssembly() {
+        return chunkingService.chunkAndStore(documentId, text, "KNOWLEDGE_BASE", documentId, "manual.pdf", "QX200");
+    }
+
+    private static DocumentChunkBulkWriter noOpWriter() {
+        return new DocumentChunkBulkWriter(null, "") {
+            @Override
+            public int deleteByDocumentId(UUID documentId) {
+                return 0;
+            }
+
+            @Override
+            public int insertAll(List<DocumentChunkJpaEntity> chunks) {
+                return chunks.size();
+            }
+        };
+    }
+}
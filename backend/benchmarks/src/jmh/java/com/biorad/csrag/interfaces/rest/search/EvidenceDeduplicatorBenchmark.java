@@ -0,0 +1,101 @@
+package com.biorad.csrag.interfaces.rest.search;
+
+import com.biorad.csrag.benchmark.BenchmarkTexts;
+import com.biorad.csrag.infrastructure.rag.dedup.MinHashSignature;
+import com.biorad.csrag.interfaces.rest.analysis.EvidenceItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 근거 중복 제거 비용: MinHash(저장된 서명 / excerpt에서 계산) 대 정확한 Jaccard 전수 비교.
+ *
+ * <p>근거의 약 1/3은 다른 근거의 단어 몇 개만 바꾼 near-duplicate이다.
+ * {@value EvidenceDeduplicator#LSH_MIN_ITEMS}개를 넘는 크기에서는 LSH 버킷 경로가 측정된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EvidenceDeduplicatorBenchmark {
+
+    @Param({"10", "40", "200"})
+    public int items;
+
+    /** stored: 인덱싱 시 저장된 서명 사용, computed: 서명 없는 구 청크 (excerpt에서 계산) */
+    @Param({"stored", "computed"})
+    public String signatures;
+
+    private final EvidenceDeduplicator deduplicator = new EvidenceDeduplicator();
+    private List<EvidenceItem> evidences;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        List<String> paragraphs = new ArrayList<>(BenchmarkTexts.paragraphs(BenchmarkTexts.KO));
+        paragraphs.addAll(BenchmarkTexts.paragraphs(BenchmarkTexts.EN));
+
+        evidences = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String excerpt = paragraphs.get(i % paragraphs.size());
+            if (i >= paragraphs.size() || i % 3 == 2) {
+                excerpt = perturb(excerpt, random) + " #" + i;
+            }
+            UUID documentId = UUID.randomUUID();
+            evidences.add(new EvidenceItem(UUID.randomUUID().toString(), documentId.toString(),
+                    1.0 - (double) i / items, excerpt, "KNOWLEDGE_BASE", "manual-" + (i % 5) + ".pdf",
+                    i, i, "QX200", "stored".equals(signatures) ? MinHashSignature.of(excerpt) : null,
+                    null, null));
+        }
+    }
+
+    @Benchmark
+    public List<EvidenceItem> deduplicate() {
+        return deduplicator.deduplicate(evidences);
+    }
+
+    @Benchmark
+    public List<EvidenceItem> minHashNearDuplicates() {
+        return deduplicator.removeNearDuplicates(evidences);
+    }
+
+    /** MinHash 도입 전 방식: 유지된 근거와 excerpt를 매번 토큰화해 정확한 Jaccard로 비교한다. */
+    @Benchmark
+    public List<EvidenceItem> exactJaccardNearDuplicates() {
+        List<EvidenceItem> sorted = new ArrayList<>(evidences);
+        sorted.sort(Comparator.comparingDouble(EvidenceItem::score).reversed());
+        List<EvidenceItem> result = new ArrayList<>();
+        for (EvidenceItem candidate : sorted) {
+            boolean duplicate = false;
+            for (EvidenceItem kept : result) {
+                if (deduplicator.jaccardSimilarity(candidate.excerpt(), kept.excerpt()) > 0.7) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    private static String perturb(String text, Random random) {
+        String[] words = text.split(" ");
+        for (int n = 0; n < 3 && words.length > 0; n++) {
+            words[random.nextInt(words.length)] = "변경" + random.nextInt(100);
+        }
+        return String.join(" ", words);
+    }
+}
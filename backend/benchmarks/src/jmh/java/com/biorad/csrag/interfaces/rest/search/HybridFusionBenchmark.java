@@ -0,0 +1,70 @@
+package com.biorad.csrag.interfaces.rest.search;
+
+import com.biorad.csrag.interfaces.rest.vector.VectorSearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 하이브리드 검색의 RRF 융합과 min-max 정규화 비용.
+ *
+ * <p>후보 수는 {@code AnalysisService}가 요청하는 topK * 5의 2배(검색기별)에 해당한다.
+ * 벡터·키워드 결과는 절반가량 같은 청크를 공유하도록 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HybridFusionBenchmark {
+
+    /** 검색기별 후보 수 */
+    @Param({"20", "100", "500"})
+    public int candidates;
+
+    private List<VectorSearchResult> vectorResults;
+    private List<KeywordSearchResult> keywordResults;
+    private List<HybridSearchResult> fused;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<UUID> chunkIds = new ArrayList<>();
+        for (int i = 0; i < candidates * 3 / 2; i++) {
+            chunkIds.add(UUID.randomUUID());
+        }
+        UUID documentId = UUID.randomUUID();
+
+        vectorResults = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            vectorResults.add(new VectorSearchResult(chunkIds.get(i), documentId, "vector chunk " + i,
+                    0.9 - i * 0.5 / candidates, "KNOWLEDGE_BASE"));
+        }
+        keywordResults = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            UUID chunkId = chunkIds.get(candidates / 2 + random.nextInt(candidates));
+            keywordResults.add(new KeywordSearchResult(chunkId, documentId, "keyword chunk " + i,
+                    12.0 - i * 10.0 / candidates, "KNOWLEDGE_BASE"));
+        }
+        fused = HybridSearchService.fuse(vectorResults, keywordResults, candidates, 60, 1.0, 1.0);
+    }
+
+    @Benchmark
+    public List<HybridSearchResult> rrfFusion() {
+        return HybridSearchService.fuse(vectorResults, keywordResults, candidates / 2, 60, 1.0, 1.0);
+    }
+
+    @Benchmark
+    public List<HybridSearchResult> normalizeScores() {
+        return HybridSearchService.normalizeScores(fused);
+    }
+}
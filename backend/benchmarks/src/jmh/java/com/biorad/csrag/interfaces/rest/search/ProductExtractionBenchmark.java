@@ -0,0 +1,43 @@
+package com.biorad.csrag.interfaces.rest.search;
+
+import com.biorad.csrag.benchmark.BenchmarkTexts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 질문당 모든 제품 패턴을 훑는 {@link ProductExtractorService#extractAll} 비용. 질문 세트 전체를 한 번 처리한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductExtractionBenchmark {
+
+    @Param({BenchmarkTexts.KO, BenchmarkTexts.EN})
+    public String language;
+
+    private ProductExtractorService extractor;
+    private List<String> questions;
+
+    @Setup
+    public void setUp() {
+        extractor = new ProductExtractorService(new ProductFamilyRegistry());
+        questions = BenchmarkTexts.questions(language);
+    }
+
+    @Benchmark
+    public void extractAll(Blackhole blackhole) {
+        for (String question : questions) {
+            blackhole.consume(extractor.extractAll(question));
+        }
+    }
+}
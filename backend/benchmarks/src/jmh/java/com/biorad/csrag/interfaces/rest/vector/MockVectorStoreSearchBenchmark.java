@@ -0,0 +1,82 @@
+package com.biorad.csrag.interfaces.rest.vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MockVectorStore#search} 전수 코사인 스캔 비용 (10k / 100k / 1M 벡터).
+ *
+ * <p>1M × {@code List<Double>}를 그대로 만들면 힙이 수십 GB가 필요하므로, 값은 1,024단계로 양자화해
+ * 미리 만든 {@link Double} 인스턴스를 공유한다. 벡터당 참조 배열과 언박싱·정렬 비용은 실제와 같다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class MockVectorStoreSearchBenchmark {
+
+    private static final int VALUE_LEVELS = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int vectors;
+
+    @Param({"128"})
+    public int dimension;
+
+    @Param({"50"})
+    public int topK;
+
+    private MockVectorStore store;
+    private List<Double> query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(11);
+        Double[] levels = new Double[VALUE_LEVELS];
+        for (int i = 0; i < VALUE_LEVELS; i++) {
+            levels[i] = (i - VALUE_LEVELS / 2) / (double) (VALUE_LEVELS / 2);
+        }
+
+        store = new MockVectorStore();
+        UUID[] documents = new UUID[Math.max(1, vectors / 50)];
+        for (int i = 0; i < documents.length; i++) {
+            documents[i] = UUID.randomUUID();
+        }
+        for (int i = 0; i < vectors; i++) {
+            List<Double> vector = new ArrayList<>(dimension);
+            for (int d = 0; d < dimension; d++) {
+                vector.add(levels[random.nextInt(VALUE_LEVELS)]);
+            }
+            store.upsert(UUID.randomUUID(), documents[i % documents.length], vector, "chunk " + i,
+                    "KNOWLEDGE_BASE", i % 3 == 0 ? "QX200" : "CFX96");
+        }
+
+        query = new ArrayList<>(dimension);
+        for (int d = 0; d < dimension; d++) {
+            query.add(random.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    public List<VectorSearchResult> search() {
+        return store.search(query, topK);
+    }
+}
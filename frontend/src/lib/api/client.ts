@@ -43,6 +43,8 @@ export interface OpsMetrics {
   totalDraftCount: number;
   fallbackDraftRate: number;
   topFailureReasons: OpsFailureReason[];
+  /** 롤업 마지막 갱신 시각 (ISO-8601). 롤업은 서버 스케줄러가 주기적으로 갱신한다 */
+  rollupRefreshedAt?: string | null;
   ragMetrics?: RagMetrics;
 }
 
@@ -960,6 +962,8 @@ export interface TimelineData {
   from: string;
   to: string;
   data: TimelineDailyMetric[];
+  /** 롤업 마지막 갱신 시각 (ISO-8601). 롤업은 서버 스케줄러가 주기적으로 갱신한다 */
+  rollupRefreshedAt?: string | null;
 }
 
 export interface ProcessingTimeData {
@@ -972,6 +976,8 @@ export interface ProcessingTimeData {
   maxProcessingTimeHours: number;
   totalCompleted: number;
   avgByStep: Record<string, number>;
+  /** 롤업 마지막 갱신 시각 (ISO-8601). 롤업은 서버 스케줄러가 주기적으로 갱신한다 */
+  rollupRefreshedAt?: string | null;
 }
 
 export interface KbUsageTopDocument {
@@ -988,6 +994,8 @@ export interface KbUsageData {
   kbEvidences: number;
   kbUsageRate: number;
   topDocuments: KbUsageTopDocument[];
+  /** 롤업 마지막 갱신 시각 (ISO-8601). 롤업은 서버 스케줄러가 주기적으로 갱신한다 */
+  rollupRefreshedAt?: string | null;
 }
 
 export async function getTimeline(period: DashboardPeriod = "30d", from?: string, to?: string): Promise<TimelineData> {